@@ -235,7 +235,10 @@ public class BaseJdbcClient
                 tableHandle.getCatalogName(),
                 tableHandle.getSchemaName(),
                 tableHandle.getTableName(),
-                layoutHandle.getTupleDomain());
+                layoutHandle.getTupleDomain(),
+                tableHandle.getGroupingColumns(),
+                tableHandle.getSortOrder(),
+                tableHandle.getLimit());
         return new FixedSplitSource(ImmutableList.of(jdbcSplit));
     }
 
@@ -265,7 +268,10 @@ public class BaseJdbcClient
                 split.getSchemaName(),
                 split.getTableName(),
                 columnHandles,
-                split.getTupleDomain());
+                split.getTupleDomain(),
+                split.getGroupingColumns(),
+                split.getSortOrder(),
+                split.getLimit());
     }
 
     @Override
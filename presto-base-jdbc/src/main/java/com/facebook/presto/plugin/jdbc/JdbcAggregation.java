@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregate function evaluated by the remote database, e.g. {@code count(*)} or {@code max("x")}.
+ */
+public final class JdbcAggregation
+{
+    private final String functionName;
+    private final Optional<JdbcColumnHandle> argument;
+
+    @JsonCreator
+    public JdbcAggregation(
+            @JsonProperty("functionName") String functionName,
+            @JsonProperty("argument") Optional<JdbcColumnHandle> argument)
+    {
+        this.functionName = requireNonNull(functionName, "functionName is null");
+        this.argument = requireNonNull(argument, "argument is null");
+    }
+
+    @JsonProperty
+    public String getFunctionName()
+    {
+        return functionName;
+    }
+
+    @JsonProperty
+    public Optional<JdbcColumnHandle> getArgument()
+    {
+        return argument;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if ((obj == null) || (getClass() != obj.getClass())) {
+            return false;
+        }
+        JdbcAggregation o = (JdbcAggregation) obj;
+        return Objects.equals(this.functionName, o.functionName) &&
+                Objects.equals(this.argument, o.argument);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(functionName, argument);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("functionName", functionName)
+                .add("argument", argument.map(JdbcColumnHandle::getColumnName).orElse("*"))
+                .toString();
+    }
+}
@@ -59,6 +59,23 @@ public interface JdbcClient
     PreparedStatement buildSql(Connection connection, JdbcSplit split, List<JdbcColumnHandle> columnHandles)
             throws SQLException;
 
+    /**
+     * Returns true if the database supports the {@code LIMIT} clause generated by {@link QueryBuilder}.
+     */
+    default boolean supportsLimit()
+    {
+        return true;
+    }
+
+    /**
+     * Returns an expression converting the result of the aggregate {@code expression} to a 64-bit integer,
+     * so that it is read as the {@code BIGINT} that Presto declares for it.
+     */
+    default String castToBigint(String expression)
+    {
+        return "CAST(" + expression + " AS BIGINT)";
+    }
+
     JdbcOutputTableHandle beginCreateTable(ConnectorTableMetadata tableMetadata);
 
     void commitCreateTable(JdbcOutputTableHandle handle);
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -31,18 +32,30 @@ public final class JdbcColumnHandle
     private final String columnName;
     private final JdbcTypeHandle jdbcTypeHandle;
     private final Type columnType;
+    private final Optional<JdbcAggregation> aggregation;
 
+    public JdbcColumnHandle(String connectorId, String columnName, JdbcTypeHandle jdbcTypeHandle, Type columnType)
+    {
+        this(connectorId, columnName, jdbcTypeHandle, columnType, Optional.empty());
+    }
+
+    /**
+     * @param aggregation aggregate function computing the column in the remote database,
+     * in which case {@code columnName} is the alias of the aggregate in the generated query
+     */
     @JsonCreator
     public JdbcColumnHandle(
             @JsonProperty("connectorId") String connectorId,
             @JsonProperty("columnName") String columnName,
             @JsonProperty("jdbcTypeHandle") JdbcTypeHandle jdbcTypeHandle,
-            @JsonProperty("columnType") Type columnType)
+            @JsonProperty("columnType") Type columnType,
+            @JsonProperty("aggregation") Optional<JdbcAggregation> aggregation)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.columnName = requireNonNull(columnName, "columnName is null");
         this.jdbcTypeHandle = requireNonNull(jdbcTypeHandle, "jdbcTypeHandle is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
+        this.aggregation = requireNonNull(aggregation, "aggregation is null");
     }
 
     @JsonProperty
@@ -69,6 +82,12 @@ public final class JdbcColumnHandle
         return columnType;
     }
 
+    @JsonProperty
+    public Optional<JdbcAggregation> getAggregation()
+    {
+        return aggregation;
+    }
+
     public ColumnMetadata getColumnMetadata()
     {
         return new ColumnMetadata(columnName, columnType);
@@ -85,13 +104,14 @@ public final class JdbcColumnHandle
         }
         JdbcColumnHandle o = (JdbcColumnHandle) obj;
         return Objects.equals(this.connectorId, o.connectorId) &&
-                Objects.equals(this.columnName, o.columnName);
+                Objects.equals(this.columnName, o.columnName) &&
+                Objects.equals(this.aggregation, o.aggregation);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorId, columnName);
+        return Objects.hash(connectorId, columnName, aggregation);
     }
 
     @Override
@@ -102,6 +122,8 @@ public final class JdbcColumnHandle
                 .add("columnName", columnName)
                 .add("jdbcTypeHandle", jdbcTypeHandle)
                 .add("columnType", columnType)
+                .add("aggregation", aggregation.orElse(null))
+                .omitNullValues()
                 .toString();
     }
 }
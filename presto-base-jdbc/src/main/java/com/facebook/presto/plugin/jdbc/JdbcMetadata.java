@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
@@ -25,26 +27,41 @@ import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.statistics.ComputedStatistics;
+import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 
+import java.sql.Types;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.spi.StandardErrorCode.PERMISSION_DENIED;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadata
@@ -83,8 +100,183 @@ public class JdbcMetadata
     public List<ConnectorTableLayoutResult> getTableLayouts(ConnectorSession session, ConnectorTableHandle table, Constraint<ColumnHandle> constraint, Optional<Set<ColumnHandle>> desiredColumns)
     {
         JdbcTableHandle tableHandle = (JdbcTableHandle) table;
-        ConnectorTableLayout layout = new ConnectorTableLayout(new JdbcTableLayoutHandle(tableHandle, constraint.getSummary()));
-        return ImmutableList.of(new ConnectorTableLayoutResult(layout, constraint.getSummary()));
+        TupleDomain<ColumnHandle> summary = constraint.getSummary();
+
+        if (tableHandle.isQuery()) {
+            // the predicate of the query was fixed when the aggregation, sort order or limit was pushed down
+            ConnectorTableLayout layout = new ConnectorTableLayout(new JdbcTableLayoutHandle(tableHandle, tableHandle.getConstraint()));
+            return ImmutableList.of(new ConnectorTableLayoutResult(layout, summary));
+        }
+
+        ConnectorTableLayout layout = new ConnectorTableLayout(new JdbcTableLayoutHandle(tableHandle, summary));
+        return ImmutableList.of(new ConnectorTableLayoutResult(layout, getUnenforcedConstraint(summary)));
+    }
+
+    private static TupleDomain<ColumnHandle> getUnenforcedConstraint(TupleDomain<ColumnHandle> summary)
+    {
+        if (summary.isNone()) {
+            return summary;
+        }
+        Map<ColumnHandle, Domain> unenforcedDomains = summary.getDomains().get().entrySet().stream()
+                .filter(entry -> !isExactPredicateType(((JdbcColumnHandle) entry.getKey()).getColumnType()))
+                .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+        return TupleDomain.withColumnDomains(unenforcedDomains);
+    }
+
+    /**
+     * Comparisons on these types are evaluated identically by the remote database. This does not hold
+     * in general for character types (collation), floating point types and date-time types (time zone).
+     */
+    private static boolean isExactPredicateType(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(BOOLEAN);
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableLayoutHandle layoutHandle,
+            List<AggregateFunction> aggregates,
+            List<ColumnHandle> groupingColumns)
+    {
+        JdbcTableLayoutHandle layout = (JdbcTableLayoutHandle) layoutHandle;
+        JdbcTableHandle table = layout.getTable();
+        if (table.isQuery()) {
+            return Optional.empty();
+        }
+
+        List<JdbcColumnHandle> jdbcGroupingColumns = groupingColumns.stream()
+                .map(JdbcColumnHandle.class::cast)
+                .collect(toImmutableList());
+        if (!jdbcGroupingColumns.stream().map(JdbcColumnHandle::getColumnType).allMatch(JdbcMetadata::isExactPredicateType)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ColumnHandle> aggregateColumns = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            Optional<JdbcColumnHandle> aggregateColumn = toAggregateColumn(table.getConnectorId(), "_presto_aggregate_" + i, aggregates.get(i));
+            if (!aggregateColumn.isPresent()) {
+                return Optional.empty();
+            }
+            aggregateColumns.add(aggregateColumn.get());
+        }
+
+        JdbcTableHandle handle = new JdbcTableHandle(
+                table.getConnectorId(),
+                table.getSchemaTableName(),
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                layout.getTupleDomain(),
+                Optional.of(jdbcGroupingColumns),
+                Optional.empty(),
+                OptionalLong.empty());
+        return Optional.of(new AggregationApplicationResult<>(handle, aggregateColumns.build()));
+    }
+
+    private static Optional<JdbcColumnHandle> toAggregateColumn(String connectorId, String alias, AggregateFunction aggregate)
+    {
+        if (aggregate.isDistinct() || aggregate.getArguments().size() > 1) {
+            return Optional.empty();
+        }
+        Optional<JdbcColumnHandle> argument = aggregate.getArguments().stream()
+                .map(JdbcColumnHandle.class::cast)
+                .findFirst();
+        Type outputType = aggregate.getOutputType();
+        JdbcTypeHandle typeHandle;
+        switch (aggregate.getFunctionName()) {
+            case "count":
+                if (!outputType.equals(BIGINT)) {
+                    return Optional.empty();
+                }
+                typeHandle = new JdbcTypeHandle(Types.BIGINT, 0, 0);
+                break;
+            case "sum":
+                if (!argument.isPresent()) {
+                    return Optional.empty();
+                }
+                Type argumentType = argument.get().getColumnType();
+                if (outputType.equals(BIGINT) && isExactPredicateType(argumentType) && !argumentType.equals(BOOLEAN)) {
+                    typeHandle = new JdbcTypeHandle(Types.BIGINT, 0, 0);
+                }
+                else if (outputType.equals(DOUBLE) && argumentType.equals(DOUBLE)) {
+                    typeHandle = new JdbcTypeHandle(Types.DOUBLE, 0, 0);
+                }
+                else {
+                    return Optional.empty();
+                }
+                break;
+            case "min":
+            case "max":
+                // the result of min and max over character types depends on the collation of the remote database,
+                // and not all databases define them for booleans (e.g. PostgreSQL)
+                if (!argument.isPresent() || !outputType.equals(argument.get().getColumnType()) || !isExactPredicateType(outputType) || outputType.equals(BOOLEAN)) {
+                    return Optional.empty();
+                }
+                typeHandle = argument.get().getJdbcTypeHandle();
+                break;
+            default:
+                return Optional.empty();
+        }
+        JdbcAggregation aggregation = new JdbcAggregation(aggregate.getFunctionName(), argument);
+        return Optional.of(new JdbcColumnHandle(connectorId, alias, typeHandle, outputType, Optional.of(aggregation)));
+    }
+
+    @Override
+    public Optional<LimitApplicationResult<ConnectorTableHandle>> applyLimit(ConnectorSession session, ConnectorTableLayoutHandle layoutHandle, long limit)
+    {
+        JdbcTableLayoutHandle layout = (JdbcTableLayoutHandle) layoutHandle;
+        JdbcTableHandle table = layout.getTable();
+        if (!jdbcClient.supportsLimit() || (table.getLimit().isPresent() && table.getLimit().getAsLong() <= limit)) {
+            return Optional.empty();
+        }
+
+        JdbcTableHandle handle = new JdbcTableHandle(
+                table.getConnectorId(),
+                table.getSchemaTableName(),
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                layout.getTupleDomain(),
+                table.getGroupingColumns(),
+                table.getSortOrder(),
+                OptionalLong.of(limit));
+        // there is a single split, so the limit is guaranteed
+        return Optional.of(new LimitApplicationResult<>(handle, true));
+    }
+
+    @Override
+    public Optional<LimitApplicationResult<ConnectorTableHandle>> applyTopN(ConnectorSession session, ConnectorTableLayoutHandle layoutHandle, long topNCount, List<SortingProperty<ColumnHandle>> sortItems)
+    {
+        JdbcTableLayoutHandle layout = (JdbcTableLayoutHandle) layoutHandle;
+        JdbcTableHandle table = layout.getTable();
+        if (!jdbcClient.supportsLimit() || table.getSortOrder().isPresent() || table.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        List<SortingProperty<JdbcColumnHandle>> sortOrder = sortItems.stream()
+                .map(sortItem -> new SortingProperty<>((JdbcColumnHandle) sortItem.getColumn(), sortItem.getOrder()))
+                .collect(toImmutableList());
+        // the order of character types depends on the collation of the remote database
+        if (!sortOrder.stream().map(sortItem -> sortItem.getColumn().getColumnType()).allMatch(JdbcMetadata::isExactPredicateType)) {
+            return Optional.empty();
+        }
+
+        JdbcTableHandle handle = new JdbcTableHandle(
+                table.getConnectorId(),
+                table.getSchemaTableName(),
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                layout.getTupleDomain(),
+                table.getGroupingColumns(),
+                Optional.of(sortOrder),
+                OptionalLong.of(topNCount));
+        return Optional.of(new LimitApplicationResult<>(handle, true));
     }
 
     @Override
@@ -16,6 +16,7 @@ package com.facebook.presto.plugin.jdbc;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorSplit;
 import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -24,6 +25,8 @@ import com.google.common.collect.ImmutableList;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -35,6 +38,14 @@ public class JdbcSplit
     private final String schemaName;
     private final String tableName;
     private final TupleDomain<ColumnHandle> tupleDomain;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final Optional<List<SortingProperty<JdbcColumnHandle>>> sortOrder;
+    private final OptionalLong limit;
+
+    public JdbcSplit(String connectorId, @Nullable String catalogName, @Nullable String schemaName, String tableName, TupleDomain<ColumnHandle> tupleDomain)
+    {
+        this(connectorId, catalogName, schemaName, tableName, tupleDomain, Optional.empty(), Optional.empty(), OptionalLong.empty());
+    }
 
     @JsonCreator
     public JdbcSplit(
@@ -42,13 +53,19 @@ public class JdbcSplit
             @JsonProperty("catalogName") @Nullable String catalogName,
             @JsonProperty("schemaName") @Nullable String schemaName,
             @JsonProperty("tableName") String tableName,
-            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain)
+            @JsonProperty("tupleDomain") TupleDomain<ColumnHandle> tupleDomain,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") Optional<List<SortingProperty<JdbcColumnHandle>>> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.connectorId = requireNonNull(connectorId, "connector id is null");
         this.catalogName = catalogName;
         this.schemaName = schemaName;
         this.tableName = requireNonNull(tableName, "table name is null");
         this.tupleDomain = requireNonNull(tupleDomain, "tupleDomain is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null");
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -83,6 +100,24 @@ public class JdbcSplit
         return tupleDomain;
     }
 
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public Optional<List<SortingProperty<JdbcColumnHandle>>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
@@ -13,15 +13,22 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorTableHandle;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -33,20 +40,43 @@ public final class JdbcTableHandle
     private final String catalogName;
     private final String schemaName;
     private final String tableName;
+    private final TupleDomain<ColumnHandle> constraint;
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    private final Optional<List<SortingProperty<JdbcColumnHandle>>> sortOrder;
+    private final OptionalLong limit;
 
+    public JdbcTableHandle(String connectorId, SchemaTableName schemaTableName, @Nullable String catalogName, @Nullable String schemaName, String tableName)
+    {
+        this(connectorId, schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), Optional.empty(), Optional.empty(), OptionalLong.empty());
+    }
+
+    /**
+     * @param constraint predicate of the query, when an aggregation, sort order or limit is pushed down
+     * @param groupingColumns grouping columns of the aggregation computed by the remote database, if any
+     * @param sortOrder order of the rows returned by the remote database, if any
+     * @param limit maximum number of rows returned by the remote database, if any
+     */
     @JsonCreator
     public JdbcTableHandle(
             @JsonProperty("connectorId") String connectorId,
             @JsonProperty("schemaTableName") SchemaTableName schemaTableName,
             @JsonProperty("catalogName") @Nullable String catalogName,
             @JsonProperty("schemaName") @Nullable String schemaName,
-            @JsonProperty("tableName") String tableName)
+            @JsonProperty("tableName") String tableName,
+            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("sortOrder") Optional<List<SortingProperty<JdbcColumnHandle>>> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         this.connectorId = requireNonNull(connectorId, "connectorId is null");
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.catalogName = catalogName;
         this.schemaName = schemaName;
         this.tableName = requireNonNull(tableName, "tableName is null");
+        this.constraint = requireNonNull(constraint, "constraint is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -81,6 +111,38 @@ public final class JdbcTableHandle
         return tableName;
     }
 
+    @JsonProperty
+    public TupleDomain<ColumnHandle> getConstraint()
+    {
+        return constraint;
+    }
+
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public Optional<List<SortingProperty<JdbcColumnHandle>>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * Returns true if the table handle represents a query on the table rather than the table itself.
+     */
+    public boolean isQuery()
+    {
+        return groupingColumns.isPresent() || sortOrder.isPresent() || limit.isPresent();
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -92,18 +154,27 @@ public final class JdbcTableHandle
         }
         JdbcTableHandle o = (JdbcTableHandle) obj;
         return Objects.equals(this.connectorId, o.connectorId) &&
-                Objects.equals(this.schemaTableName, o.schemaTableName);
+                Objects.equals(this.schemaTableName, o.schemaTableName) &&
+                Objects.equals(this.constraint, o.constraint) &&
+                Objects.equals(this.groupingColumns, o.groupingColumns) &&
+                Objects.equals(this.sortOrder, o.sortOrder) &&
+                Objects.equals(this.limit, o.limit);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(connectorId, schemaTableName);
+        return Objects.hash(connectorId, schemaTableName, constraint, groupingColumns, sortOrder, limit);
     }
 
     @Override
     public String toString()
     {
-        return Joiner.on(":").useForNull("null").join(connectorId, schemaTableName, catalogName, schemaName, tableName);
+        StringBuilder builder = new StringBuilder();
+        builder.append(Joiner.on(":").useForNull("null").join(connectorId, schemaTableName, catalogName, schemaName, tableName));
+        groupingColumns.ifPresent(columns -> builder.append(" groupingColumns=").append(columns));
+        sortOrder.ifPresent(sortItems -> builder.append(" sortOrder=").append(sortItems));
+        limit.ifPresent(value -> builder.append(" limit=").append(value));
+        return builder.toString();
     }
 }
@@ -14,6 +14,8 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.TupleDomain;
@@ -44,6 +46,9 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static com.facebook.presto.spi.type.DateTimeEncoding.unpackMillisUtc;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -51,6 +56,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.Float.intBitsToFloat;
+import static java.lang.String.format;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.DAYS;
@@ -94,12 +100,27 @@ public class QueryBuilder
 
     public PreparedStatement buildSql(JdbcClient client, Connection connection, String catalog, String schema, String table, List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain)
             throws SQLException
+    {
+        return buildSql(client, connection, catalog, schema, table, columns, tupleDomain, Optional.empty(), Optional.empty(), OptionalLong.empty());
+    }
+
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            Connection connection,
+            String catalog,
+            String schema,
+            String table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            Optional<List<SortingProperty<JdbcColumnHandle>>> sortOrder,
+            OptionalLong limit)
+            throws SQLException
     {
         StringBuilder sql = new StringBuilder();
 
         String columnNames = columns.stream()
-                .map(JdbcColumnHandle::getColumnName)
-                .map(this::quote)
+                .map(column -> toSelectItem(client, column))
                 .collect(joining(", "));
 
         sql.append("SELECT ");
@@ -119,12 +140,31 @@ public class QueryBuilder
 
         List<TypeAndValue> accumulator = new ArrayList<>();
 
-        List<String> clauses = toConjuncts(columns, tupleDomain, accumulator);
+        List<String> clauses = toConjuncts(tupleDomain, accumulator);
         if (!clauses.isEmpty()) {
             sql.append(" WHERE ")
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
+        if (groupingColumns.isPresent() && !groupingColumns.get().isEmpty()) {
+            sql.append(" GROUP BY ")
+                    .append(groupingColumns.get().stream()
+                            .map(JdbcColumnHandle::getColumnName)
+                            .map(this::quote)
+                            .collect(joining(", ")));
+        }
+
+        if (sortOrder.isPresent() && !sortOrder.get().isEmpty()) {
+            sql.append(" ORDER BY ")
+                    .append(sortOrder.get().stream()
+                            .map(sortItem -> toOrderByItem(client, sortItem))
+                            .collect(joining(", ")));
+        }
+
+        if (limit.isPresent()) {
+            sql.append(" LIMIT ").append(limit.getAsLong());
+        }
+
         PreparedStatement statement = client.getPreparedStatement(connection, sql.toString());
 
         for (int i = 0; i < accumulator.size(); i++) {
@@ -195,16 +235,57 @@ public class QueryBuilder
                 validType instanceof VarcharType;
     }
 
-    private List<String> toConjuncts(List<JdbcColumnHandle> columns, TupleDomain<ColumnHandle> tupleDomain, List<TypeAndValue> accumulator)
+    private String toSelectItem(JdbcClient client, JdbcColumnHandle column)
+    {
+        if (!column.getAggregation().isPresent()) {
+            return quote(column.getColumnName());
+        }
+        return toExpression(client, column) + " AS " + quote(column.getColumnName());
+    }
+
+    private String toExpression(JdbcClient client, JdbcColumnHandle column)
+    {
+        if (!column.getAggregation().isPresent()) {
+            return quote(column.getColumnName());
+        }
+        JdbcAggregation aggregation = column.getAggregation().get();
+        String argument = aggregation.getArgument()
+                .map(JdbcColumnHandle::getColumnName)
+                .map(this::quote)
+                .orElse("*");
+        String expression = aggregation.getFunctionName() + "(" + argument + ")";
+        if (aggregation.getFunctionName().equals("sum") && column.getColumnType().equals(BigintType.BIGINT)) {
+            // the result type of sum over integers differs between databases, e.g. numeric or decimal
+            return client.castToBigint(expression);
+        }
+        return expression;
+    }
+
+    private String toOrderByItem(JdbcClient client, SortingProperty<JdbcColumnHandle> sortItem)
     {
+        // not all databases support NULLS FIRST and NULLS LAST, and they differ in where nulls are sorted by default
+        String expression = toExpression(client, sortItem.getColumn());
+        SortOrder order = sortItem.getOrder();
+        return format("CASE WHEN %s IS NULL THEN %s ELSE %s END, %s %s",
+                expression,
+                order.isNullsFirst() ? 0 : 1,
+                order.isNullsFirst() ? 1 : 0,
+                expression,
+                order.isAscending() ? "ASC" : "DESC");
+    }
+
+    private List<String> toConjuncts(TupleDomain<ColumnHandle> tupleDomain, List<TypeAndValue> accumulator)
+    {
+        if (tupleDomain.isNone()) {
+            return ImmutableList.of(ALWAYS_FALSE);
+        }
         ImmutableList.Builder<String> builder = ImmutableList.builder();
-        for (JdbcColumnHandle column : columns) {
+        // predicates on columns that are not projected may still have been reported as enforced by the connector
+        for (Map.Entry<ColumnHandle, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+            JdbcColumnHandle column = (JdbcColumnHandle) entry.getKey();
             Type type = column.getColumnType();
-            if (isAcceptedType(type)) {
-                Domain domain = tupleDomain.getDomains().get().get(column);
-                if (domain != null) {
-                    builder.add(toPredicate(column.getColumnName(), domain, type, accumulator));
-                }
+            if (isAcceptedType(type) && !column.getAggregation().isPresent()) {
+                builder.add(toPredicate(column.getColumnName(), entry.getValue(), type, accumulator));
             }
         }
         return builder.build();
@@ -13,11 +13,21 @@
  */
 package com.facebook.presto.plugin.jdbc;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
+import com.facebook.presto.spi.ConnectorTableHandle;
+import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -25,18 +35,26 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static com.facebook.presto.plugin.jdbc.TestingDatabase.CONNECTOR_ID;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
+import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BOOLEAN;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_FOUND;
 import static com.facebook.presto.spi.StandardErrorCode.PERMISSION_DENIED;
+import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.spi.type.VarcharType.createVarcharType;
 import static com.facebook.presto.testing.TestingConnectorSession.SESSION;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.slice.Slices.utf8Slice;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -207,4 +225,82 @@ public class TestJdbcMetadata
             assertEquals(e.getErrorCode(), NOT_FOUND.toErrorCode());
         }
     }
+
+    @Test
+    public void testGetTableLayouts()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        TupleDomain<ColumnHandle> constraint = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get("text"), Domain.singleValue(VARCHAR, utf8Slice("one")),
+                columns.get("value"), Domain.singleValue(BIGINT, 1L)));
+
+        ConnectorTableLayoutResult layout = getOnlyElement(metadata.getTableLayouts(SESSION, tableHandle, new Constraint<>(constraint), Optional.empty()));
+        assertEquals(((JdbcTableLayoutHandle) layout.getTableLayout().getHandle()).getTupleDomain(), constraint);
+        // comparisons on character types depend on the collation of the database
+        assertEquals(layout.getUnenforcedConstraint(), TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get("text"), Domain.singleValue(VARCHAR, utf8Slice("one")))));
+    }
+
+    @Test
+    public void testApplyAggregation()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        JdbcTableLayoutHandle layout = new JdbcTableLayoutHandle(tableHandle, TupleDomain.all());
+        AggregateFunction count = new AggregateFunction("count", BIGINT, ImmutableList.of(), false);
+
+        Optional<AggregationApplicationResult<ConnectorTableHandle>> result = metadata.applyAggregation(
+                SESSION,
+                layout,
+                ImmutableList.of(count, new AggregateFunction("sum", BIGINT, ImmutableList.of(columns.get("value")), false)),
+                ImmutableList.of());
+        assertTrue(result.isPresent());
+        JdbcTableHandle handle = (JdbcTableHandle) result.get().getHandle();
+        assertEquals(handle.getGroupingColumns(), Optional.of(ImmutableList.of()));
+        assertEquals(result.get().getAggregateColumns().size(), 2);
+        assertEquals(((JdbcColumnHandle) result.get().getAggregateColumns().get(0)).getAggregation(), Optional.of(new JdbcAggregation("count", Optional.empty())));
+
+        // aggregations over the result of an aggregation
+        assertFalse(metadata.applyAggregation(SESSION, new JdbcTableLayoutHandle(handle, TupleDomain.all()), ImmutableList.of(count), ImmutableList.of()).isPresent());
+        // grouping on character types
+        assertFalse(metadata.applyAggregation(SESSION, layout, ImmutableList.of(count), ImmutableList.of(columns.get("text"))).isPresent());
+        // distinct aggregations
+        assertFalse(metadata.applyAggregation(SESSION, layout, ImmutableList.of(new AggregateFunction("count", BIGINT, ImmutableList.of(columns.get("value")), true)), ImmutableList.of()).isPresent());
+        // unsupported functions
+        assertFalse(metadata.applyAggregation(SESSION, layout, ImmutableList.of(new AggregateFunction("approx_distinct", BIGINT, ImmutableList.of(columns.get("value")), false)), ImmutableList.of()).isPresent());
+        // min and max over booleans
+        JdbcColumnHandle booleanColumn = new JdbcColumnHandle(CONNECTOR_ID, "flag", JDBC_BOOLEAN, BOOLEAN);
+        assertFalse(metadata.applyAggregation(SESSION, layout, ImmutableList.of(new AggregateFunction("max", BOOLEAN, ImmutableList.of(booleanColumn), false)), ImmutableList.of()).isPresent());
+    }
+
+    @Test
+    public void testApplyLimit()
+    {
+        JdbcTableLayoutHandle layout = new JdbcTableLayoutHandle(tableHandle, TupleDomain.all());
+
+        Optional<LimitApplicationResult<ConnectorTableHandle>> result = metadata.applyLimit(SESSION, layout, 10);
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isLimitGuaranteed());
+        JdbcTableHandle handle = (JdbcTableHandle) result.get().getHandle();
+        assertEquals(handle.getLimit(), OptionalLong.of(10));
+
+        JdbcTableLayoutHandle limitedLayout = new JdbcTableLayoutHandle(handle, TupleDomain.all());
+        assertFalse(metadata.applyLimit(SESSION, limitedLayout, 20).isPresent());
+        assertEquals(((JdbcTableHandle) metadata.applyLimit(SESSION, limitedLayout, 5).get().getHandle()).getLimit(), OptionalLong.of(5));
+    }
+
+    @Test
+    public void testApplyTopN()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        JdbcTableLayoutHandle layout = new JdbcTableLayoutHandle(tableHandle, TupleDomain.all());
+
+        Optional<LimitApplicationResult<ConnectorTableHandle>> result = metadata.applyTopN(SESSION, layout, 10, ImmutableList.of(new SortingProperty<>(columns.get("value"), ASC_NULLS_LAST)));
+        assertTrue(result.isPresent());
+        JdbcTableHandle handle = (JdbcTableHandle) result.get().getHandle();
+        assertEquals(handle.getSortOrder(), Optional.of(ImmutableList.of(new SortingProperty<>((JdbcColumnHandle) columns.get("value"), ASC_NULLS_LAST))));
+        assertEquals(handle.getLimit(), OptionalLong.of(10));
+
+        // ordering of character types
+        assertFalse(metadata.applyTopN(SESSION, layout, 10, ImmutableList.of(new SortingProperty<>(columns.get("text"), ASC_NULLS_LAST))).isPresent());
+    }
 }
@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.jdbc;
 
 import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.Range;
 import com.facebook.presto.spi.predicate.SortedRangeSet;
@@ -36,6 +37,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BOOLEAN;
@@ -48,6 +51,7 @@ import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_TIME;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_TIMESTAMP;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_TINYINT;
 import static com.facebook.presto.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
+import static com.facebook.presto.spi.block.SortOrder.DESC_NULLS_LAST;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
 import static com.facebook.presto.spi.type.DateType.DATE;
@@ -338,6 +342,69 @@ public class TestJdbcQueryBuilder
         }
     }
 
+    @Test
+    public void testBuildSqlWithAggregation()
+            throws SQLException
+    {
+        // the predicate is on a column that is not projected
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get(0), Domain.create(SortedRangeSet.copyOf(BIGINT, ImmutableList.of(Range.lessThan(BIGINT, 100L))), false)));
+        List<JdbcColumnHandle> projections = ImmutableList.of(
+                columns.get(2),
+                new JdbcColumnHandle("test_id", "count", JDBC_BIGINT, BIGINT, Optional.of(new JdbcAggregation("count", Optional.empty()))),
+                new JdbcColumnHandle("test_id", "max", JDBC_INTEGER, INTEGER, Optional.of(new JdbcAggregation("max", Optional.of(columns.get(9))))),
+                new JdbcColumnHandle("test_id", "sum", JDBC_BIGINT, BIGINT, Optional.of(new JdbcAggregation("sum", Optional.of(columns.get(9))))));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(
+                jdbcClient,
+                connection,
+                "",
+                "",
+                "test_table",
+                projections,
+                tupleDomain,
+                Optional.of(ImmutableList.of(columns.get(2))),
+                Optional.empty(),
+                OptionalLong.empty());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableMap.Builder<Boolean, List<Long>> builder = ImmutableMap.builder();
+            while (resultSet.next()) {
+                builder.put(resultSet.getBoolean("col_2"), ImmutableList.of(resultSet.getLong("count"), resultSet.getLong("max"), resultSet.getLong("sum")));
+            }
+            assertEquals(builder.build(), ImmutableMap.of(
+                    true, ImmutableList.of(50L, -2L, -2550L),
+                    false, ImmutableList.of(50L, -1L, -2500L)));
+            assertContains(preparedStatement.toString(), "GROUP BY \"col_2\"");
+            assertContains(preparedStatement.toString(), "CAST(sum(\"col_9\") AS BIGINT)");
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithTopN()
+            throws SQLException
+    {
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(
+                jdbcClient,
+                connection,
+                "",
+                "",
+                "test_table",
+                ImmutableList.of(columns.get(0)),
+                TupleDomain.all(),
+                Optional.empty(),
+                Optional.of(ImmutableList.of(new SortingProperty<>(columns.get(9), DESC_NULLS_LAST))),
+                OptionalLong.of(3));
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableList.Builder<Long> builder = ImmutableList.builder();
+            while (resultSet.next()) {
+                builder.add((Long) resultSet.getObject("col_0"));
+            }
+            assertEquals(builder.build(), ImmutableList.of(999L, 998L, 997L));
+        }
+    }
+
     private static Timestamp toTimestamp(int year, int month, int day, int hour, int minute, int second)
     {
         return Timestamp.valueOf(LocalDateTime.of(year, month, day, hour, minute, second));
@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.geospatial;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.Double.NEGATIVE_INFINITY;
+import static java.lang.Double.POSITIVE_INFINITY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * 2-dimensional K-D-B tree used to split the plane into non-overlapping rectangular
+ * cells (leaves) holding a similar number of geometries. The tree is built from the
+ * envelopes of a sample of the geometries and covers the whole plane, so any envelope
+ * intersects at least one leaf.
+ * <p>
+ * Leaves are numbered left to right in depth-first order.
+ */
+public class KdbTree
+{
+    private static final int MAX_LEVELS = 10_000;
+
+    private final Node root;
+
+    public static final class Node
+    {
+        private final Rectangle extent;
+        private final OptionalInt leafId;
+        private final Optional<Node> left;
+        private final Optional<Node> right;
+
+        public static Node newLeaf(Rectangle extent, int leafId)
+        {
+            return new Node(extent, OptionalInt.of(leafId), Optional.empty(), Optional.empty());
+        }
+
+        public static Node newInternal(Rectangle extent, Node left, Node right)
+        {
+            return new Node(extent, OptionalInt.empty(), Optional.of(left), Optional.of(right));
+        }
+
+        @JsonCreator
+        public Node(
+                @JsonProperty("extent") Rectangle extent,
+                @JsonProperty("leafId") OptionalInt leafId,
+                @JsonProperty("left") Optional<Node> left,
+                @JsonProperty("right") Optional<Node> right)
+        {
+            this.extent = requireNonNull(extent, "extent is null");
+            this.leafId = requireNonNull(leafId, "leafId is null");
+            this.left = requireNonNull(left, "left is null");
+            this.right = requireNonNull(right, "right is null");
+            if (leafId.isPresent()) {
+                checkArgument(leafId.getAsInt() >= 0, "leafId is negative");
+                checkArgument(!left.isPresent() && !right.isPresent(), "leaf node cannot have children");
+            }
+            else {
+                checkArgument(left.isPresent() && right.isPresent(), "internal node must have two children");
+            }
+        }
+
+        @JsonProperty
+        public Rectangle getExtent()
+        {
+            return extent;
+        }
+
+        @JsonProperty
+        public OptionalInt getLeafId()
+        {
+            return leafId;
+        }
+
+        @JsonProperty
+        public Optional<Node> getLeft()
+        {
+            return left;
+        }
+
+        @JsonProperty
+        public Optional<Node> getRight()
+        {
+            return right;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Node other = (Node) obj;
+            return extent.equals(other.extent)
+                    && leafId.equals(other.leafId)
+                    && left.equals(other.left)
+                    && right.equals(other.right);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(extent, leafId, left, right);
+        }
+    }
+
+    @JsonCreator
+    public KdbTree(@JsonProperty("root") Node root)
+    {
+        this.root = requireNonNull(root, "root is null");
+    }
+
+    @JsonProperty
+    public Node getRoot()
+    {
+        return root;
+    }
+
+    public Map<Integer, Rectangle> getLeaves()
+    {
+        ImmutableMap.Builder<Integer, Rectangle> leaves = ImmutableMap.builder();
+        addLeaves(root, leaves, node -> true);
+        return leaves.build();
+    }
+
+    public Map<Integer, Rectangle> findIntersectingLeaves(Rectangle envelope)
+    {
+        ImmutableMap.Builder<Integer, Rectangle> leaves = ImmutableMap.builder();
+        addLeaves(root, leaves, node -> node.extent.intersects(envelope));
+        return leaves.build();
+    }
+
+    private static void addLeaves(Node node, ImmutableMap.Builder<Integer, Rectangle> leaves, Predicate<Node> predicate)
+    {
+        if (!predicate.test(node)) {
+            return;
+        }
+
+        if (node.leafId.isPresent()) {
+            leaves.put(node.leafId.getAsInt(), node.extent);
+        }
+        else {
+            addLeaves(node.left.get(), leaves, predicate);
+            addLeaves(node.right.get(), leaves, predicate);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return root.equals(((KdbTree) obj).root);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return root.hashCode();
+    }
+
+    /**
+     * Builds a tree which splits the plane until no leaf holds more than {@code maxItemsPerNode}
+     * of the {@code items}, or until the items of a leaf can no longer be separated.
+     * Items are assigned to a side of a split by their center.
+     */
+    public static KdbTree buildKdbTree(int maxItemsPerNode, List<Rectangle> items)
+    {
+        checkArgument(maxItemsPerNode > 0, "maxItemsPerNode must be positive");
+        requireNonNull(items, "items is null");
+
+        Rectangle extent = new Rectangle(NEGATIVE_INFINITY, NEGATIVE_INFINITY, POSITIVE_INFINITY, POSITIVE_INFINITY);
+        return new KdbTree(buildKdbTreeNode(maxItemsPerNode, 0, extent, items, new LeafIdAllocator()));
+    }
+
+    private static Node buildKdbTreeNode(int maxItemsPerNode, int level, Rectangle extent, List<Rectangle> items, LeafIdAllocator leafIdAllocator)
+    {
+        if (items.size() <= maxItemsPerNode || level > MAX_LEVELS) {
+            return Node.newLeaf(extent, leafIdAllocator.next());
+        }
+
+        // alternate between splitting along the x and the y axis, falling back to the other
+        // axis if all items have the same center coordinate along the preferred one
+        SplitDimension preferred = level % 2 == 0 ? SplitDimension.X : SplitDimension.Y;
+        SplitDimension other = preferred == SplitDimension.X ? SplitDimension.Y : SplitDimension.X;
+
+        Optional<Node> node = trySplit(preferred, maxItemsPerNode, level, extent, items, leafIdAllocator);
+        if (!node.isPresent()) {
+            node = trySplit(other, maxItemsPerNode, level, extent, items, leafIdAllocator);
+        }
+        return node.orElseGet(() -> Node.newLeaf(extent, leafIdAllocator.next()));
+    }
+
+    private static Optional<Node> trySplit(SplitDimension dimension, int maxItemsPerNode, int level, Rectangle extent, List<Rectangle> items, LeafIdAllocator leafIdAllocator)
+    {
+        List<Rectangle> sortedItems = items.stream()
+                .sorted(Comparator.comparingDouble(dimension.center))
+                .collect(toImmutableList());
+
+        // split at the median, moving the split point up past items sharing the median coordinate
+        int splitIndex = sortedItems.size() / 2;
+        double splitValue = dimension.center.applyAsDouble(sortedItems.get(splitIndex));
+        while (splitIndex > 0 && dimension.center.applyAsDouble(sortedItems.get(splitIndex - 1)) == splitValue) {
+            splitIndex--;
+        }
+        if (splitIndex == 0) {
+            splitIndex = sortedItems.size() / 2;
+            while (splitIndex < sortedItems.size() && dimension.center.applyAsDouble(sortedItems.get(splitIndex)) == splitValue) {
+                splitIndex++;
+            }
+            if (splitIndex == sortedItems.size()) {
+                return Optional.empty();
+            }
+            splitValue = dimension.center.applyAsDouble(sortedItems.get(splitIndex));
+        }
+
+        Node left = buildKdbTreeNode(maxItemsPerNode, level + 1, dimension.lower(extent, splitValue), sortedItems.subList(0, splitIndex), leafIdAllocator);
+        Node right = buildKdbTreeNode(maxItemsPerNode, level + 1, dimension.upper(extent, splitValue), sortedItems.subList(splitIndex, sortedItems.size()), leafIdAllocator);
+        return Optional.of(Node.newInternal(extent, left, right));
+    }
+
+    private enum SplitDimension
+    {
+        X(rectangle -> (rectangle.getXMin() + rectangle.getXMax()) / 2),
+        Y(rectangle -> (rectangle.getYMin() + rectangle.getYMax()) / 2);
+
+        private final ToDoubleFunction<Rectangle> center;
+
+        SplitDimension(ToDoubleFunction<Rectangle> center)
+        {
+            this.center = center;
+        }
+
+        Rectangle lower(Rectangle extent, double splitValue)
+        {
+            if (this == X) {
+                return new Rectangle(extent.getXMin(), extent.getYMin(), splitValue, extent.getYMax());
+            }
+            return new Rectangle(extent.getXMin(), extent.getYMin(), extent.getXMax(), splitValue);
+        }
+
+        Rectangle upper(Rectangle extent, double splitValue)
+        {
+            if (this == X) {
+                return new Rectangle(splitValue, extent.getYMin(), extent.getXMax(), extent.getYMax());
+            }
+            return new Rectangle(extent.getXMin(), splitValue, extent.getXMax(), extent.getYMax());
+        }
+    }
+
+    private static final class LeafIdAllocator
+    {
+        private int nextId;
+
+        public int next()
+        {
+            return nextId++;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.geospatial;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+public final class Rectangle
+{
+    private final double xMin;
+    private final double yMin;
+    private final double xMax;
+    private final double yMax;
+
+    @JsonCreator
+    public Rectangle(
+            @JsonProperty("xmin") double xMin,
+            @JsonProperty("ymin") double yMin,
+            @JsonProperty("xmax") double xMax,
+            @JsonProperty("ymax") double yMax)
+    {
+        checkArgument(xMin <= xMax, "xMin is greater than xMax");
+        checkArgument(yMin <= yMax, "yMin is greater than yMax");
+        this.xMin = xMin;
+        this.yMin = yMin;
+        this.xMax = xMax;
+        this.yMax = yMax;
+    }
+
+    @JsonProperty("xmin")
+    public double getXMin()
+    {
+        return xMin;
+    }
+
+    @JsonProperty("ymin")
+    public double getYMin()
+    {
+        return yMin;
+    }
+
+    @JsonProperty("xmax")
+    public double getXMax()
+    {
+        return xMax;
+    }
+
+    @JsonProperty("ymax")
+    public double getYMax()
+    {
+        return yMax;
+    }
+
+    public boolean intersects(Rectangle other)
+    {
+        return this.xMin <= other.xMax && this.xMax >= other.xMin && this.yMin <= other.yMax && this.yMax >= other.yMin;
+    }
+
+    /**
+     * Tests whether the point lies within the rectangle, with the upper and right edges excluded.
+     * Unlike {@link #intersects(Rectangle)}, this assigns a point on the shared edge of two adjacent
+     * rectangles to exactly one of them.
+     */
+    public boolean containsHalfOpen(double x, double y)
+    {
+        return xMin <= x && x < xMax && yMin <= y && y < yMax;
+    }
+
+    public Rectangle merge(Rectangle other)
+    {
+        return new Rectangle(Math.min(this.xMin, other.xMin), Math.min(this.yMin, other.yMin), Math.max(this.xMax, other.xMax), Math.max(this.yMax, other.yMax));
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Rectangle other = (Rectangle) obj;
+        return this.xMin == other.xMin && this.yMin == other.yMin && this.xMax == other.xMax && this.yMax == other.yMax;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(xMin, yMin, xMax, yMax);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("xMin", xMin)
+                .add("yMin", yMin)
+                .add("xMax", xMax)
+                .add("yMax", yMax)
+                .toString();
+    }
+}
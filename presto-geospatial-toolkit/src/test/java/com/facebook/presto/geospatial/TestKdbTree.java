@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.geospatial;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.presto.geospatial.KdbTree.buildKdbTree;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestKdbTree
+{
+    @Test
+    public void testSingleLeaf()
+    {
+        KdbTree tree = buildKdbTree(10, grid(3, 3));
+        Map<Integer, Rectangle> leaves = tree.getLeaves();
+        assertEquals(leaves.keySet(), ImmutableSet.of(0));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(100, 100, 100, 100)).keySet(), ImmutableSet.of(0));
+    }
+
+    @Test
+    public void testSplits()
+    {
+        ImmutableList<Rectangle> items = grid(10, 10);
+        KdbTree tree = buildKdbTree(25, items);
+        Map<Integer, Rectangle> leaves = tree.getLeaves();
+        assertEquals(leaves.size(), 4);
+
+        // every item is assigned by its center to exactly one leaf, none holds more than 25 of them
+        for (Rectangle leaf : leaves.values()) {
+            long count = items.stream()
+                    .filter(item -> leaf.containsHalfOpen(item.getXMin(), item.getYMin()))
+                    .count();
+            assertEquals(count, 25);
+        }
+
+        // first split is along the x axis, then along the y axis
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(0, 0, 0, 0)).keySet(), ImmutableSet.of(0));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(0, 9, 0, 9)).keySet(), ImmutableSet.of(1));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(9, 0, 9, 0)).keySet(), ImmutableSet.of(2));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(9, 9, 9, 9)).keySet(), ImmutableSet.of(3));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(4.5, 4.5, 5.5, 5.5)).keySet(), ImmutableSet.of(0, 1, 2, 3));
+
+        // the leaves cover the whole plane
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(-1e10, -1e10, -1e10, -1e10)).keySet(), ImmutableSet.of(0));
+        assertEquals(tree.findIntersectingLeaves(new Rectangle(1e10, 1e10, 1e10, 1e10)).keySet(), ImmutableSet.of(3));
+    }
+
+    @Test
+    public void testLeavesPartitionThePlane()
+    {
+        KdbTree tree = buildKdbTree(7, grid(13, 11));
+        Map<Integer, Rectangle> leaves = tree.getLeaves();
+        assertTrue(leaves.size() > 1);
+        for (double x = -2.75; x < 15; x += 0.5) {
+            for (double y = -2.75; y < 15; y += 0.5) {
+                double pointX = x;
+                double pointY = y;
+                long count = leaves.values().stream()
+                        .filter(leaf -> leaf.containsHalfOpen(pointX, pointY))
+                        .count();
+                assertEquals(count, 1, "point " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicateItems()
+    {
+        ImmutableList.Builder<Rectangle> items = ImmutableList.builder();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Rectangle(1, 1, 1, 1));
+        }
+        items.add(new Rectangle(2, 2, 2, 2));
+
+        // identical items cannot be separated
+        KdbTree tree = buildKdbTree(10, items.build());
+        assertEquals(tree.getLeaves().size(), 2);
+    }
+
+    @Test
+    public void testJsonRoundTrip()
+    {
+        KdbTree tree = buildKdbTree(5, grid(10, 10));
+        assertEquals(KdbTreeUtils.fromJson(KdbTreeUtils.toJson(tree)), tree);
+    }
+
+    private static ImmutableList<Rectangle> grid(int width, int height)
+    {
+        ImmutableList.Builder<Rectangle> items = ImmutableList.builder();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                items.add(new Rectangle(x, y, x, y));
+            }
+        }
+        return items.build();
+    }
+}
@@ -14,8 +14,11 @@
 package com.facebook.presto.plugin.geospatial;
 
 import com.facebook.presto.plugin.geospatial.BingTileFunctions.BingTileCoordinatesFunction;
+import com.facebook.presto.plugin.geospatial.SpatialPartitioningFunctions.SpatialPartitionsFunction;
+import com.facebook.presto.plugin.geospatial.SpatialPartitioningFunctions.SpatialPartitionsWithDistanceFunction;
 import com.facebook.presto.plugin.geospatial.aggregation.ConvexHullAggregation;
 import com.facebook.presto.plugin.geospatial.aggregation.GeometryUnionAgg;
+import com.facebook.presto.plugin.geospatial.aggregation.SpatialPartitioningAggregateFunction;
 import com.facebook.presto.spi.Plugin;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
@@ -45,6 +48,9 @@ public class GeoPlugin
                 .add(BingTileCoordinatesFunction.class)
                 .add(ConvexHullAggregation.class)
                 .add(GeometryUnionAgg.class)
+                .add(SpatialPartitionsFunction.class)
+                .add(SpatialPartitionsWithDistanceFunction.class)
+                .add(SpatialPartitioningAggregateFunction.class)
                 .build();
     }
 }
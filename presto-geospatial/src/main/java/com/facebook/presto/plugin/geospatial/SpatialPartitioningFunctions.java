@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial;
+
+import com.esri.core.geometry.Envelope;
+import com.facebook.presto.geospatial.KdbTree;
+import com.facebook.presto.geospatial.KdbTreeUtils;
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.ScalarFunction;
+import com.facebook.presto.spi.function.SqlNullable;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.spi.type.StandardTypes;
+import io.airlift.slice.Slice;
+
+import java.util.Map;
+
+import static com.facebook.presto.geospatial.serde.GeometrySerde.deserializeEnvelope;
+import static com.facebook.presto.plugin.geospatial.GeometryType.GEOMETRY_TYPE_NAME;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+
+/**
+ * Functions assigning geometries to the cells of a KDB tree created by the
+ * {@code spatial_partitioning} aggregation. Used by the planner to partition
+ * both sides of a distributed spatial join.
+ */
+public final class SpatialPartitioningFunctions
+{
+    private SpatialPartitioningFunctions() {}
+
+    @Description("Returns the ids of the cells of the KDB tree intersecting the envelope of the geometry")
+    @ScalarFunction("spatial_partitions")
+    public static final class SpatialPartitionsFunction
+    {
+        private final KdbTreeCache kdbTreeCache = new KdbTreeCache();
+
+        @SqlNullable
+        @SqlType("array(integer)")
+        public Block spatialPartitions(@SqlType(StandardTypes.VARCHAR) Slice kdbTree, @SqlType(GEOMETRY_TYPE_NAME) Slice geometry)
+        {
+            return SpatialPartitioningFunctions.spatialPartitions(kdbTreeCache.get(kdbTree), geometry, 0);
+        }
+    }
+
+    @Description("Returns the ids of the cells of the KDB tree intersecting the envelope of the geometry expanded by the distance")
+    @ScalarFunction("spatial_partitions")
+    public static final class SpatialPartitionsWithDistanceFunction
+    {
+        private final KdbTreeCache kdbTreeCache = new KdbTreeCache();
+
+        @SqlNullable
+        @SqlType("array(integer)")
+        public Block spatialPartitions(@SqlType(StandardTypes.VARCHAR) Slice kdbTree, @SqlType(GEOMETRY_TYPE_NAME) Slice geometry, @SqlType(StandardTypes.DOUBLE) double distance)
+        {
+            if (Double.isNaN(distance) || distance < 0) {
+                // no geometry is within a negative distance
+                return null;
+            }
+            return SpatialPartitioningFunctions.spatialPartitions(kdbTreeCache.get(kdbTree), geometry, distance);
+        }
+    }
+
+    private static Block spatialPartitions(KdbTree kdbTree, Slice geometry, double distance)
+    {
+        Envelope envelope = deserializeEnvelope(geometry);
+        if (envelope == null || envelope.isEmpty()) {
+            return null;
+        }
+
+        Rectangle expandedEnvelope = new Rectangle(envelope.getXMin() - distance, envelope.getYMin() - distance, envelope.getXMax() + distance, envelope.getYMax() + distance);
+        Map<Integer, Rectangle> partitions = kdbTree.findIntersectingLeaves(expandedEnvelope);
+        BlockBuilder blockBuilder = INTEGER.createFixedSizeBlockBuilder(partitions.size());
+        for (int partition : partitions.keySet()) {
+            INTEGER.writeLong(blockBuilder, partition);
+        }
+        return blockBuilder.build();
+    }
+
+    /**
+     * The tree is passed as a constant, so parse it only once per function instance.
+     */
+    private static final class KdbTreeCache
+    {
+        private Slice json;
+        private KdbTree kdbTree;
+
+        public KdbTree get(Slice json)
+        {
+            if (json != this.json && !json.equals(this.json)) {
+                try {
+                    kdbTree = KdbTreeUtils.fromJson(json.toStringUtf8());
+                }
+                catch (IllegalArgumentException e) {
+                    throw new PrestoException(INVALID_FUNCTION_ARGUMENT, "Invalid JSON string for KDB tree", e);
+                }
+                this.json = json;
+            }
+            return kdbTree;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial.aggregation;
+
+import com.esri.core.geometry.Envelope;
+import com.facebook.presto.geospatial.KdbTree;
+import com.facebook.presto.geospatial.KdbTreeUtils;
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.AggregationFunction;
+import com.facebook.presto.spi.function.AggregationState;
+import com.facebook.presto.spi.function.CombineFunction;
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.InputFunction;
+import com.facebook.presto.spi.function.OutputFunction;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.spi.type.StandardTypes;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.facebook.presto.geospatial.KdbTree.buildKdbTree;
+import static com.facebook.presto.geospatial.serde.GeometrySerde.deserializeEnvelope;
+import static com.facebook.presto.plugin.geospatial.GeometryType.GEOMETRY_TYPE_NAME;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+
+/**
+ * Builds a KDB tree splitting the plane into cells holding a similar number of the input
+ * geometries, for use by distributed spatial joins. The tree is built from a uniform sample
+ * of at most {@value #MAX_SAMPLE_COUNT} geometry envelopes, so the input itself can be a
+ * sample of the table, e.g. {@code TABLESAMPLE BERNOULLI (1)}.
+ */
+@Description("Returns a KDB tree in JSON format splitting the envelopes of the input geometries into the given number of cells")
+@AggregationFunction("spatial_partitioning")
+public class SpatialPartitioningAggregateFunction
+{
+    private static final int DEFAULT_PARTITION_COUNT = 100;
+    private static final int MAX_SAMPLE_COUNT = 100_000;
+
+    private SpatialPartitioningAggregateFunction() {}
+
+    @InputFunction
+    public static void input(@AggregationState SpatialPartitioningState state, @SqlType(GEOMETRY_TYPE_NAME) Slice slice)
+    {
+        input(state, slice, DEFAULT_PARTITION_COUNT);
+    }
+
+    @InputFunction
+    public static void input(@AggregationState SpatialPartitioningState state, @SqlType(GEOMETRY_TYPE_NAME) Slice slice, @SqlType(StandardTypes.INTEGER) long partitionCount)
+    {
+        if (partitionCount <= 0) {
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, format("Partition count must be positive: %s", partitionCount));
+        }
+
+        Envelope envelope = deserializeEnvelope(slice);
+        if (envelope == null || envelope.isEmpty()) {
+            return;
+        }
+
+        Rectangle extent = new Rectangle(envelope.getXMin(), envelope.getYMin(), envelope.getXMax(), envelope.getYMax());
+        if (state.getCount() == 0) {
+            state.setPartitionCount(toIntExact(partitionCount));
+            state.setSamples(new ArrayList<>());
+        }
+        else if (state.getPartitionCount() != partitionCount) {
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, "Partition count must be the same for all rows");
+        }
+
+        long count = state.getCount() + 1;
+        state.setCount(count);
+
+        // reservoir sampling
+        List<Rectangle> samples = state.getSamples();
+        if (samples.size() < MAX_SAMPLE_COUNT) {
+            samples.add(extent);
+        }
+        else {
+            long index = ThreadLocalRandom.current().nextLong(count);
+            if (index < MAX_SAMPLE_COUNT) {
+                samples.set(toIntExact(index), extent);
+            }
+        }
+        state.setSamples(samples);
+    }
+
+    @CombineFunction
+    public static void combine(@AggregationState SpatialPartitioningState state, @AggregationState SpatialPartitioningState otherState)
+    {
+        if (otherState.getCount() == 0) {
+            return;
+        }
+
+        if (state.getCount() == 0) {
+            state.setPartitionCount(otherState.getPartitionCount());
+            state.setCount(otherState.getCount());
+            state.setSamples(new ArrayList<>(otherState.getSamples()));
+            return;
+        }
+
+        if (state.getPartitionCount() != otherState.getPartitionCount()) {
+            throw new PrestoException(INVALID_FUNCTION_ARGUMENT, "Partition count must be the same for all rows");
+        }
+
+        long count = state.getCount() + otherState.getCount();
+        List<Rectangle> samples = state.getSamples();
+        List<Rectangle> otherSamples = otherState.getSamples();
+        if (samples.size() + otherSamples.size() <= MAX_SAMPLE_COUNT) {
+            samples.addAll(otherSamples);
+        }
+        else {
+            // keep a share of each sample proportional to the number of rows it represents
+            int sampleCount = toIntExact(Math.min(samples.size(), Math.round((double) MAX_SAMPLE_COUNT * state.getCount() / count)));
+            int otherSampleCount = Math.min(otherSamples.size(), MAX_SAMPLE_COUNT - sampleCount);
+            samples = new ArrayList<>(randomSubset(samples, sampleCount));
+            samples.addAll(randomSubset(new ArrayList<>(otherSamples), otherSampleCount));
+        }
+        state.setCount(count);
+        state.setSamples(samples);
+    }
+
+    private static List<Rectangle> randomSubset(List<Rectangle> samples, int count)
+    {
+        Collections.shuffle(samples, ThreadLocalRandom.current());
+        return samples.subList(0, count);
+    }
+
+    @OutputFunction(StandardTypes.VARCHAR)
+    public static void output(@AggregationState SpatialPartitioningState state, BlockBuilder out)
+    {
+        if (state.getCount() == 0) {
+            out.appendNull();
+            return;
+        }
+
+        List<Rectangle> samples = state.getSamples();
+        int maxItemsPerNode = Math.max(1, (samples.size() + state.getPartitionCount() - 1) / state.getPartitionCount());
+        KdbTree kdbTree = buildKdbTree(maxItemsPerNode, samples);
+        VARCHAR.writeString(out, KdbTreeUtils.toJson(kdbTree));
+    }
+}
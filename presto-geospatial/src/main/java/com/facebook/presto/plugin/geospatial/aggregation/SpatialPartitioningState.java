@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial.aggregation;
+
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.spi.function.AccumulatorState;
+import com.facebook.presto.spi.function.AccumulatorStateMetadata;
+
+import java.util.List;
+
+@AccumulatorStateMetadata(stateSerializerClass = SpatialPartitioningStateSerializer.class, stateFactoryClass = SpatialPartitioningStateFactory.class)
+public interface SpatialPartitioningState
+        extends AccumulatorState
+{
+    int getPartitionCount();
+
+    void setPartitionCount(int partitionCount);
+
+    long getCount();
+
+    void setCount(long count);
+
+    List<Rectangle> getSamples();
+
+    /**
+     * Must be called again after the samples list is modified, so that the memory usage is updated.
+     */
+    void setSamples(List<Rectangle> samples);
+}
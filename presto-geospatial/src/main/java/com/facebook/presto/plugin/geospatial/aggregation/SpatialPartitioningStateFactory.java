@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial.aggregation;
+
+import com.facebook.presto.array.IntBigArray;
+import com.facebook.presto.array.LongBigArray;
+import com.facebook.presto.array.ObjectBigArray;
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.spi.function.AccumulatorStateFactory;
+import com.facebook.presto.spi.function.GroupedAccumulatorState;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+
+public class SpatialPartitioningStateFactory
+        implements AccumulatorStateFactory<SpatialPartitioningState>
+{
+    private static final long RECTANGLE_SIZE = ClassLayout.parseClass(Rectangle.class).instanceSize() + Long.BYTES;
+
+    @Override
+    public SpatialPartitioningState createSingleState()
+    {
+        return new SingleSpatialPartitioningState();
+    }
+
+    @Override
+    public Class<? extends SpatialPartitioningState> getSingleStateClass()
+    {
+        return SingleSpatialPartitioningState.class;
+    }
+
+    @Override
+    public SpatialPartitioningState createGroupedState()
+    {
+        return new GroupedSpatialPartitioningState();
+    }
+
+    @Override
+    public Class<? extends SpatialPartitioningState> getGroupedStateClass()
+    {
+        return GroupedSpatialPartitioningState.class;
+    }
+
+    private static long getSamplesMemorySize(List<Rectangle> samples)
+    {
+        if (samples == null) {
+            return 0;
+        }
+        return samples.size() * RECTANGLE_SIZE;
+    }
+
+    public static class GroupedSpatialPartitioningState
+            implements SpatialPartitioningState, GroupedAccumulatorState
+    {
+        private long groupId;
+        private final IntBigArray partitionCounts = new IntBigArray();
+        private final LongBigArray counts = new LongBigArray();
+        private final ObjectBigArray<List<Rectangle>> samples = new ObjectBigArray<>();
+        private final LongBigArray samplesSizes = new LongBigArray();
+        private long size;
+
+        @Override
+        public int getPartitionCount()
+        {
+            return partitionCounts.get(groupId);
+        }
+
+        @Override
+        public void setPartitionCount(int partitionCount)
+        {
+            partitionCounts.set(groupId, partitionCount);
+        }
+
+        @Override
+        public long getCount()
+        {
+            return counts.get(groupId);
+        }
+
+        @Override
+        public void setCount(long count)
+        {
+            counts.set(groupId, count);
+        }
+
+        @Override
+        public List<Rectangle> getSamples()
+        {
+            return samples.get(groupId);
+        }
+
+        @Override
+        public void setSamples(List<Rectangle> samples)
+        {
+            long samplesSize = getSamplesMemorySize(samples);
+            size += samplesSize - samplesSizes.get(groupId);
+            samplesSizes.set(groupId, samplesSize);
+            this.samples.set(groupId, samples);
+        }
+
+        @Override
+        public void ensureCapacity(long size)
+        {
+            partitionCounts.ensureCapacity(size);
+            counts.ensureCapacity(size);
+            samples.ensureCapacity(size);
+            samplesSizes.ensureCapacity(size);
+        }
+
+        @Override
+        public long getEstimatedSize()
+        {
+            return size + partitionCounts.sizeOf() + counts.sizeOf() + samples.sizeOf() + samplesSizes.sizeOf();
+        }
+
+        @Override
+        public final void setGroupId(long groupId)
+        {
+            this.groupId = groupId;
+        }
+    }
+
+    public static class SingleSpatialPartitioningState
+            implements SpatialPartitioningState
+    {
+        private int partitionCount;
+        private long count;
+        private List<Rectangle> samples;
+
+        @Override
+        public int getPartitionCount()
+        {
+            return partitionCount;
+        }
+
+        @Override
+        public void setPartitionCount(int partitionCount)
+        {
+            this.partitionCount = partitionCount;
+        }
+
+        @Override
+        public long getCount()
+        {
+            return count;
+        }
+
+        @Override
+        public void setCount(long count)
+        {
+            this.count = count;
+        }
+
+        @Override
+        public List<Rectangle> getSamples()
+        {
+            return samples;
+        }
+
+        @Override
+        public void setSamples(List<Rectangle> samples)
+        {
+            this.samples = samples;
+        }
+
+        @Override
+        public long getEstimatedSize()
+        {
+            return getSamplesMemorySize(samples);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial.aggregation;
+
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.AccumulatorStateSerializer;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.SliceOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+
+public class SpatialPartitioningStateSerializer
+        implements AccumulatorStateSerializer<SpatialPartitioningState>
+{
+    @Override
+    public Type getSerializedType()
+    {
+        return VARBINARY;
+    }
+
+    @Override
+    public void serialize(SpatialPartitioningState state, BlockBuilder out)
+    {
+        List<Rectangle> samples = state.getSamples();
+        int sampleCount = samples == null ? 0 : samples.size();
+
+        SliceOutput output = new DynamicSliceOutput(SIZE_OF_INT + SIZE_OF_LONG + SIZE_OF_INT + sampleCount * 4 * SIZE_OF_DOUBLE);
+        output.appendInt(state.getPartitionCount());
+        output.appendLong(state.getCount());
+        output.appendInt(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            Rectangle sample = samples.get(i);
+            output.appendDouble(sample.getXMin());
+            output.appendDouble(sample.getYMin());
+            output.appendDouble(sample.getXMax());
+            output.appendDouble(sample.getYMax());
+        }
+        VARBINARY.writeSlice(out, output.slice());
+    }
+
+    @Override
+    public void deserialize(Block block, int index, SpatialPartitioningState state)
+    {
+        BasicSliceInput input = VARBINARY.getSlice(block, index).getInput();
+        state.setPartitionCount(input.readInt());
+        state.setCount(input.readLong());
+        int sampleCount = input.readInt();
+        List<Rectangle> samples = new ArrayList<>(sampleCount);
+        for (int i = 0; i < sampleCount; i++) {
+            samples.add(new Rectangle(input.readDouble(), input.readDouble(), input.readDouble(), input.readDouble()));
+        }
+        state.setSamples(samples);
+    }
+}
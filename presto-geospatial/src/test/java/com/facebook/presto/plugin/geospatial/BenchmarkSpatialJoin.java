@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.plugin.geospatial;
 
+import com.facebook.presto.Session;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.QualifiedObjectName;
 import com.facebook.presto.metadata.TableHandle;
@@ -44,6 +45,7 @@ import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.SystemSessionProperties.SPATIAL_PARTITIONING_TABLE_NAME;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -90,6 +92,7 @@ public class BenchmarkSpatialJoin
                     .map(parts -> format("('%s', '%s')", parts[0], parts[1]))
                     .collect(Collectors.joining(","));
             queryRunner.execute(format("CREATE TABLE memory.default.polygons AS SELECT * FROM (VALUES %s) as t (name, wkt)", polygonValues));
+            queryRunner.execute("CREATE TABLE memory.default.kdb_tree AS SELECT spatial_partitioning(ST_Envelope(ST_GeometryFromText(wkt)), 10) AS v FROM polygons");
         }
 
         @Setup(Level.Invocation)
@@ -137,6 +140,16 @@ public class BenchmarkSpatialJoin
                 .execute("SELECT count(*) FROM (SELECT ST_Point(latitude, longitude) as point FROM points) t1, (SELECT ST_GeometryFromText(wkt) as geometry FROM polygons) t2 WHERE ST_Contains(geometry, point)");
     }
 
+    @Benchmark
+    public MaterializedResult benchmarkDistributedJoin(Context context)
+    {
+        LocalQueryRunner queryRunner = context.getQueryRunner();
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .setSystemProperty(SPATIAL_PARTITIONING_TABLE_NAME, "kdb_tree")
+                .build();
+        return queryRunner.execute(session, "SELECT count(*) FROM points, polygons WHERE ST_Contains(ST_GeometryFromText(wkt), ST_Point(latitude, longitude))");
+    }
+
     @Test
     public void verify()
             throws IOException
@@ -149,6 +162,7 @@ public class BenchmarkSpatialJoin
             BenchmarkSpatialJoin benchmark = new BenchmarkSpatialJoin();
             benchmark.benchmarkJoin(context);
             benchmark.benchmarkUserOptimizedJoin(context);
+            benchmark.benchmarkDistributedJoin(context);
         }
         finally {
             context.queryRunner.close();
@@ -14,6 +14,7 @@
 package com.facebook.presto.plugin.geospatial;
 
 import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.geospatial.Rectangle;
 import com.facebook.presto.operator.Driver;
 import com.facebook.presto.operator.DriverContext;
 import com.facebook.presto.operator.InternalJoinFilterFunction;
@@ -36,6 +37,7 @@ import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.facebook.presto.testing.TestingTaskContext;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.slice.Slice;
@@ -45,6 +47,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -59,6 +62,7 @@ import static com.facebook.presto.plugin.geospatial.GeoFunctions.stGeometryFromT
 import static com.facebook.presto.plugin.geospatial.GeoFunctions.stPoint;
 import static com.facebook.presto.plugin.geospatial.GeometryType.GEOMETRY;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
@@ -177,7 +181,7 @@ public class TestSpatialJoinOperator
     {
         DriverContext driverContext = taskContext.addPipelineContext(0, true, true).addDriverContext();
         PagesSpatialIndexFactory pagesSpatialIndexFactory = buildIndex(driverContext, (build, probe, r) -> build.contains(probe), Optional.empty(), Optional.empty(), buildPages);
-        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), joinType, probePages.getTypes(), Ints.asList(1), 0, pagesSpatialIndexFactory);
+        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), joinType, probePages.getTypes(), Ints.asList(1), 0, Optional.empty(), pagesSpatialIndexFactory);
         assertOperatorEquals(joinOperatorFactory, driverContext, probePages.build(), expected);
     }
 
@@ -284,7 +288,7 @@ public class TestSpatialJoinOperator
         }
         List<Page> probeInput = probePages.build();
 
-        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), INNER, probePages.getTypes(), Ints.asList(1), 0, pagesSpatialIndexFactory);
+        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), INNER, probePages.getTypes(), Ints.asList(1), 0, Optional.empty(), pagesSpatialIndexFactory);
 
         Operator operator = joinOperatorFactory.createOperator(driverContext);
         assertTrue(operator.needsInput());
@@ -331,7 +335,7 @@ public class TestSpatialJoinOperator
                 .row(stPoint(3, 1), "3_1")
                 .pageBreak()
                 .row(stPoint(10, 1), "10_1");
-        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), INNER, probePages.getTypes(), Ints.asList(1), 0, pagesSpatialIndexFactory);
+        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), INNER, probePages.getTypes(), Ints.asList(1), 0, Optional.empty(), pagesSpatialIndexFactory);
 
         MaterializedResult expected = resultBuilder(taskContext.getSession(), ImmutableList.of(VARCHAR, VARCHAR))
                 .row("0_1", "0_0")
@@ -345,7 +349,61 @@ public class TestSpatialJoinOperator
         assertOperatorEquals(joinOperatorFactory, driverContext, probePages.build(), expected);
     }
 
+    @Test
+    public void testPartitionedSpatialJoin()
+    {
+        TaskContext taskContext = createTaskContext();
+        DriverContext driverContext = taskContext.addPipelineContext(0, true, true).addDriverContext();
+
+        Map<Integer, Rectangle> partitions = ImmutableMap.of(
+                0, new Rectangle(0, 0, 5, 5),
+                1, new Rectangle(5, 0, 10, 5));
+
+        // polygon A spans both partitions and is replicated into each of them
+        Slice polygonA = stGeometryFromText(Slices.utf8Slice("POLYGON ((4 1, 6 1, 6 3, 4 3, 4 1))"));
+        Slice polygonB = stGeometryFromText(Slices.utf8Slice("POLYGON ((7 1, 8 1, 8 2, 7 2, 7 1))"));
+        RowPagesBuilder buildPages = rowPagesBuilder(ImmutableList.of(GEOMETRY, VARCHAR, INTEGER))
+                .row(polygonA, "A", 0)
+                .row(polygonA, "A", 1)
+                .pageBreak()
+                .row(polygonB, "B", 1);
+
+        // polygon z spans both partitions as well, yet must match A only once
+        Slice polygonZ = stGeometryFromText(Slices.utf8Slice("POLYGON ((4.5 1.5, 7.5 1.5, 7.5 2.5, 4.5 2.5, 4.5 1.5))"));
+        RowPagesBuilder probePages = rowPagesBuilder(ImmutableList.of(GEOMETRY, VARCHAR, INTEGER))
+                .row(stPoint(4.5, 2), "x", 0)
+                .row(stPoint(5.5, 2), "y", 1)
+                .pageBreak()
+                .row(polygonZ, "z", 0)
+                .row(polygonZ, "z", 1)
+                .row(null, "null", 0);
+
+        PagesSpatialIndexFactory pagesSpatialIndexFactory = buildIndex(driverContext, (build, probe, r) -> build.intersects(probe), Optional.empty(), Optional.of(2), partitions, Optional.empty(), buildPages);
+        OperatorFactory joinOperatorFactory = new SpatialJoinOperatorFactory(2, new PlanNodeId("test"), INNER, probePages.getTypes(), Ints.asList(1), 0, Optional.of(2), pagesSpatialIndexFactory);
+
+        MaterializedResult expected = resultBuilder(taskContext.getSession(), ImmutableList.of(VARCHAR, VARCHAR))
+                .row("x", "A")
+                .row("y", "A")
+                .row("z", "A")
+                .row("z", "B")
+                .build();
+
+        assertOperatorEquals(joinOperatorFactory, driverContext, probePages.build(), expected);
+    }
+
     private PagesSpatialIndexFactory buildIndex(DriverContext driverContext, SpatialPredicate spatialRelationshipTest, Optional<Integer> radiusChannel, Optional<InternalJoinFilterFunction> filterFunction, RowPagesBuilder buildPages)
+    {
+        return buildIndex(driverContext, spatialRelationshipTest, radiusChannel, Optional.empty(), ImmutableMap.of(), filterFunction, buildPages);
+    }
+
+    private PagesSpatialIndexFactory buildIndex(
+            DriverContext driverContext,
+            SpatialPredicate spatialRelationshipTest,
+            Optional<Integer> radiusChannel,
+            Optional<Integer> partitionChannel,
+            Map<Integer, Rectangle> partitions,
+            Optional<InternalJoinFilterFunction> filterFunction,
+            RowPagesBuilder buildPages)
     {
         Optional<JoinFilterFunctionCompiler.JoinFilterFunctionFactory> filterFunctionFactory = filterFunction
                 .map(function -> (session, addresses, channels) -> new StandardJoinFilterFunction(function, addresses, channels));
@@ -358,6 +416,8 @@ public class TestSpatialJoinOperator
                 Ints.asList(1),
                 0,
                 radiusChannel,
+                partitionChannel,
+                partitions,
                 spatialRelationshipTest,
                 filterFunctionFactory,
                 10_000,
@@ -13,8 +13,14 @@
  */
 package com.facebook.presto.plugin.geospatial;
 
+import com.facebook.presto.Session;
+import com.facebook.presto.geospatial.KdbTree;
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.plugin.memory.MemoryConnectorFactory;
 import com.facebook.presto.sql.planner.assertions.BasePlanTest;
 import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -22,16 +28,21 @@ import org.testng.annotations.Test;
 
 import java.util.Optional;
 
+import static com.facebook.presto.SystemSessionProperties.SPATIAL_PARTITIONING_TABLE_NAME;
+import static com.facebook.presto.geospatial.KdbTree.Node.newLeaf;
+import static com.facebook.presto.geospatial.KdbTreeUtils.toJson;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.anyTree;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.equiJoinClause;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.expression;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.filter;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.join;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.node;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.project;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.spatialJoin;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.spatialLeftJoin;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.values;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static java.lang.String.format;
 import static java.util.Collections.emptyList;
 
 public class TestSpatialJoinPlanning
@@ -39,6 +50,7 @@ public class TestSpatialJoinPlanning
 {
     private static final String POINTS_SQL = "(VALUES (2.1e0, 2.1e0, 'x')) AS a (lng, lat, name)";
     private static final String POLYGONS_SQL = "(VALUES ('POLYGON ((30 10, 40 40, 20 40, 10 20, 30 10))', 'a')) AS b (wkt, name)";
+    private static final String KDB_TREE_JSON = toJson(new KdbTree(newLeaf(new Rectangle(0, 0, 100, 100), 0)));
 
     public TestSpatialJoinPlanning()
     {
@@ -49,6 +61,8 @@ public class TestSpatialJoinPlanning
     {
         LocalQueryRunner queryRunner = new LocalQueryRunner(testSessionBuilder().build());
         queryRunner.installPlugin(new GeoPlugin());
+        queryRunner.createCatalog("memory", new MemoryConnectorFactory(), ImmutableMap.of());
+        queryRunner.execute(format("CREATE TABLE memory.default.kdb_tree AS SELECT '%s' AS v", KDB_TREE_JSON));
         return queryRunner;
     }
 
@@ -171,4 +185,31 @@ public class TestSpatialJoinPlanning
                                 project(ImmutableMap.of("st_point", expression("ST_Point(lng, lat)")), anyTree(values(ImmutableMap.of("lng", 0, "lat", 1)))),
                                 anyTree(project(ImmutableMap.of("st_geometryfromtext", expression("ST_GeometryFromText(cast(wkt as varchar))")), anyTree(values(ImmutableMap.of("wkt", 0))))))));
     }
+
+    @Test
+    public void testPartitionedSpatialJoin()
+    {
+        Session session = Session.builder(getQueryRunner().getDefaultSession())
+                .setSystemProperty(SPATIAL_PARTITIONING_TABLE_NAME, "memory.default.kdb_tree")
+                .build();
+
+        assertDistributedPlan("SELECT b.name, a.name " +
+                        "FROM " + POINTS_SQL + ", " + POLYGONS_SQL + " " +
+                        "WHERE ST_Contains(ST_GeometryFromText(wkt), ST_Point(lng, lat))",
+                session,
+                anyTree(
+                        node(SpatialJoinNode.class,
+                                anyTree(node(UnnestNode.class, anyTree(values(ImmutableMap.of("lng", 0, "lat", 1, "name", 2))))),
+                                anyTree(node(UnnestNode.class, anyTree(values(ImmutableMap.of("wkt", 0, "name_2", 1))))))));
+
+        // left joins are not partitioned
+        assertDistributedPlan("SELECT b.name, a.name " +
+                        "FROM " + POINTS_SQL + " LEFT JOIN " + POLYGONS_SQL + " " +
+                        "ON ST_Contains(ST_GeometryFromText(wkt), ST_Point(lng, lat))",
+                session,
+                anyTree(
+                        spatialLeftJoin("st_contains(st_geometryfromtext, st_point)",
+                                anyTree(values(ImmutableMap.of("lng", 0, "lat", 1, "name", 2))),
+                                anyTree(values(ImmutableMap.of("wkt", 0, "name_2", 1))))));
+    }
 }
@@ -13,10 +13,13 @@
  */
 package com.facebook.presto.plugin.geospatial;
 
+import com.facebook.presto.Session;
+import com.facebook.presto.plugin.memory.MemoryPlugin;
 import com.facebook.presto.tests.AbstractTestQueryFramework;
 import com.facebook.presto.tests.DistributedQueryRunner;
 import org.testng.annotations.Test;
 
+import static com.facebook.presto.SystemSessionProperties.SPATIAL_PARTITIONING_TABLE_NAME;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
 import static java.lang.String.format;
 
@@ -54,6 +57,13 @@ public class TestSpatialJoins
     {
         DistributedQueryRunner queryRunner = new DistributedQueryRunner(testSessionBuilder().build(), 4);
         queryRunner.installPlugin(new GeoPlugin());
+
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory");
+        queryRunner.execute(format("CREATE TABLE memory.default.kdb_tree AS " +
+                "SELECT spatial_partitioning(ST_Envelope(ST_GeometryFromText(wkt)), 2) AS v " +
+                "FROM (%s) AS t (wkt, name, id) " +
+                "WHERE wkt IS NOT NULL", POLYGONS_SQL));
         return queryRunner;
     }
 
@@ -237,4 +247,55 @@ public class TestSpatialJoins
                         "ON a.name > b.name AND ST_Intersects(ST_GeometryFromText(b.wkt), ST_GeometryFromText(a.wkt))",
                 "SELECT * FROM VALUES ('a', null), ('b', null), ('c', 'a'), ('c', 'b'), ('d', null), ('empty', null), ('null', null)");
     }
+
+    @Test
+    public void testDistributedSpatialJoinContains()
+    {
+        assertQuery(withSpatialPartitioning("memory.default.kdb_tree"),
+                "SELECT b.name, a.name " +
+                        "FROM (" + POINTS_SQL + ") AS a (latitude, longitude, name, id), (" + POLYGONS_SQL + ") AS b (wkt, name, id) " +
+                        "WHERE ST_Contains(ST_GeometryFromText(wkt), ST_Point(longitude, latitude))",
+                "SELECT * FROM (VALUES ('a', 'x'), ('b', 'y'), ('c', 'y'), ('d', 'z'))");
+    }
+
+    @Test
+    public void testDistributedSpatialJoinIntersects()
+    {
+        // polygons a and c as well as c and b span multiple partitions but must be matched once
+        assertQuery(withSpatialPartitioning("kdb_tree"),
+                "SELECT a.name, b.name " +
+                        "FROM (" + POLYGONS_SQL + ") AS a (wkt, name, id), (" + POLYGONS_SQL + ") AS b (wkt, name, id) " +
+                        "WHERE ST_Intersects(ST_GeometryFromText(a.wkt), ST_GeometryFromText(b.wkt))",
+                "SELECT * FROM VALUES ('a', 'a'), ('b', 'b'), ('c', 'c'), ('d', 'd'), ('a', 'c'), ('c', 'a'), ('c', 'b'), ('b', 'c')");
+    }
+
+    @Test
+    public void testDistributedDistanceQuery()
+    {
+        assertQuery(withSpatialPartitioning("memory.default.kdb_tree"),
+                "SELECT a.name, b.name " +
+                        "FROM (VALUES (0, 0, '0_0'), (1, 0, '1_0'), (3, 0, '3_0'), (10, 0, '10_0')) as a (x, y, name), " +
+                        "(VALUES (0, 1, '0_1'), (1, 1, '1_1'), (3, 1, '3_1'), (10, 1, '10_1')) as b (x, y, name) " +
+                        "WHERE ST_Distance(ST_Point(a.x, a.y), ST_Point(b.x, b.y)) <= 1.5",
+                "SELECT * FROM VALUES ('0_0', '0_1'), ('0_0', '1_1'), ('1_0', '0_1'), ('1_0', '1_1'), ('3_0', '3_1'), ('10_0', '10_1')");
+    }
+
+    @Test
+    public void testDistributedSpatialJoinInvalidPartitioning()
+    {
+        assertQueryFails(withSpatialPartitioning("memory.default.missing_kdb_tree"),
+                "SELECT b.name, a.name " +
+                        "FROM (" + POINTS_SQL + ") AS a (latitude, longitude, name, id), (" + POLYGONS_SQL + ") AS b (wkt, name, id) " +
+                        "WHERE ST_Contains(ST_GeometryFromText(wkt), ST_Point(longitude, latitude))",
+                "Table not found: memory.default.missing_kdb_tree");
+    }
+
+    private Session withSpatialPartitioning(String tableName)
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(SPATIAL_PARTITIONING_TABLE_NAME, tableName)
+                .setCatalog("memory")
+                .setSchema("default")
+                .build();
+    }
 }
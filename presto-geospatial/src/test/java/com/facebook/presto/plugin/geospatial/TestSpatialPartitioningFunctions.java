@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.plugin.geospatial;
+
+import com.facebook.presto.geospatial.KdbTree;
+import com.facebook.presto.geospatial.Rectangle;
+import com.facebook.presto.operator.scalar.AbstractTestFunctions;
+import com.facebook.presto.spi.type.ArrayType;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.geospatial.KdbTree.Node.newInternal;
+import static com.facebook.presto.geospatial.KdbTree.Node.newLeaf;
+import static com.facebook.presto.geospatial.KdbTreeUtils.toJson;
+import static com.facebook.presto.metadata.FunctionExtractor.extractFunctions;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static java.lang.String.format;
+
+public class TestSpatialPartitioningFunctions
+        extends AbstractTestFunctions
+{
+    // two cells split at x = 5
+    private static final String KDB_TREE_JSON = toJson(new KdbTree(
+            newInternal(new Rectangle(0, 0, 10, 10),
+                    newLeaf(new Rectangle(0, 0, 5, 10), 0),
+                    newLeaf(new Rectangle(5, 0, 10, 10), 1))));
+
+    @BeforeClass
+    protected void registerFunctions()
+    {
+        GeoPlugin plugin = new GeoPlugin();
+        for (Type type : plugin.getTypes()) {
+            functionAssertions.getTypeRegistry().addType(type);
+        }
+        functionAssertions.getMetadata().addFunctions(extractFunctions(plugin.getFunctions()));
+    }
+
+    @Test
+    public void testSpatialPartitions()
+    {
+        assertSpatialPartitions("POINT (1 1)", ImmutableList.of(0));
+        assertSpatialPartitions("POINT (7 1)", ImmutableList.of(1));
+        assertSpatialPartitions("POLYGON ((4 1, 6 1, 6 3, 4 3, 4 1))", ImmutableList.of(0, 1));
+        assertSpatialPartitions("POINT (20 20)", ImmutableList.of());
+        assertSpatialPartitions("POINT EMPTY", null);
+    }
+
+    @Test
+    public void testSpatialPartitionsWithDistance()
+    {
+        assertSpatialPartitions("POINT (4 1)", 0.5, ImmutableList.of(0));
+        assertSpatialPartitions("POINT (4 1)", 2, ImmutableList.of(0, 1));
+        assertSpatialPartitions("POINT (4 1)", -1, null);
+        assertSpatialPartitions("POINT EMPTY", 2, null);
+    }
+
+    @Test
+    public void testInvalidKdbTree()
+    {
+        assertInvalidFunction("spatial_partitions('{\"root\":', ST_Point(1, 1))", INVALID_FUNCTION_ARGUMENT, "Invalid JSON string for KDB tree");
+    }
+
+    private void assertSpatialPartitions(String wkt, List<Integer> expectedPartitions)
+    {
+        assertFunction(format("spatial_partitions('%s', ST_GeometryFromText('%s'))", KDB_TREE_JSON, wkt), new ArrayType(INTEGER), expectedPartitions);
+    }
+
+    private void assertSpatialPartitions(String wkt, double distance, List<Integer> expectedPartitions)
+    {
+        assertFunction(format("spatial_partitions('%s', ST_GeometryFromText('%s'), %s)", KDB_TREE_JSON, wkt, distance), new ArrayType(INTEGER), expectedPartitions);
+    }
+}
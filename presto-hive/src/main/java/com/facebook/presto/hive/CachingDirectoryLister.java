@@ -0,0 +1,262 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Table;
+import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import io.airlift.stats.TimeStat;
+import io.airlift.units.Duration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Caches the directory listings of the tables configured in {@code hive.file-status-cache-tables},
+ * which avoids listing every partition of large tables again for every query. Listings are cached
+ * by path until they expire or until Presto modifies the files of the table or partition.
+ * Directories of other tables are listed on every call.
+ */
+public class CachingDirectoryLister
+        implements DirectoryLister, TableInvalidationCallback
+{
+    private static final String ALL_TABLES = "*";
+
+    private final Cache<Path, List<LocatedFileStatus>> cache;
+    private final Set<SchemaTableName> cachedTables;
+    private final boolean allTablesCached;
+    // listings that are in progress while a location is invalidated must not be cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final TimeStat listingTime = new TimeStat(MILLISECONDS);
+
+    @Inject
+    public CachingDirectoryLister(HiveClientConfig hiveClientConfig)
+    {
+        this(hiveClientConfig.getFileStatusCacheExpireAfterWrite(), hiveClientConfig.getFileStatusCacheMaxSize(), hiveClientConfig.getFileStatusCacheTables());
+    }
+
+    public CachingDirectoryLister(Duration expireAfterWrite, long maxSize, List<String> tables)
+    {
+        requireNonNull(expireAfterWrite, "expireAfterWrite is null");
+        requireNonNull(tables, "tables is null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Weigher<Path, List<LocatedFileStatus>>) (path, files) -> files.size())
+                .expireAfterWrite(expireAfterWrite.toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+        this.allTablesCached = tables.contains(ALL_TABLES);
+        this.cachedTables = tables.stream()
+                .filter(table -> !table.equals(ALL_TABLES))
+                .map(CachingDirectoryLister::parseTableName)
+                .collect(toImmutableSet());
+    }
+
+    private static SchemaTableName parseTableName(String tableName)
+    {
+        List<String> parts = Splitter.on('.').splitToList(tableName);
+        checkArgument(parts.size() == 2, "Invalid table name, expected schema.table: %s", tableName);
+        return new SchemaTableName(parts.get(0), parts.get(1));
+    }
+
+    @Override
+    public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
+            throws IOException
+    {
+        if (!isCached(table)) {
+            return fs.listLocatedStatus(path);
+        }
+
+        List<LocatedFileStatus> files = cache.getIfPresent(path);
+        if (files != null) {
+            return new SimpleRemoteIterator(files.iterator());
+        }
+        return new CachingRemoteIterator(fs, path);
+    }
+
+    private boolean isCached(Table table)
+    {
+        return allTablesCached || cachedTables.contains(new SchemaTableName(table.getDatabaseName(), table.getTableName()));
+    }
+
+    @Override
+    public void invalidate(Path location)
+    {
+        requireNonNull(location, "location is null");
+        invalidations.incrementAndGet();
+        Path normalizedLocation = withoutTrailingSlash(location);
+        cache.asMap().keySet().removeIf(path -> isSameOrDescendant(path, normalizedLocation));
+    }
+
+    private static boolean isSameOrDescendant(Path path, Path location)
+    {
+        for (Path current = withoutTrailingSlash(path); current != null; current = current.getParent()) {
+            if (current.equals(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // paths created from directory URIs end with a slash, while their parents never do
+    private static Path withoutTrailingSlash(Path path)
+    {
+        return new Path(path.toString());
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getRequestCount()
+    {
+        return cache.stats().requestCount();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getListingTime()
+    {
+        return listingTime;
+    }
+
+    private class CachingRemoteIterator
+            implements RemoteIterator<LocatedFileStatus>
+    {
+        private final Path path;
+        private final long invalidationsAtStart;
+        private final RemoteIterator<LocatedFileStatus> delegate;
+        private final ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builder();
+        private long listingNanos;
+        private boolean finished;
+
+        public CachingRemoteIterator(FileSystem fs, Path path)
+                throws IOException
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.invalidationsAtStart = invalidations.get();
+            long start = System.nanoTime();
+            this.delegate = fs.listLocatedStatus(path);
+            listingNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public boolean hasNext()
+                throws IOException
+        {
+            long start = System.nanoTime();
+            boolean hasNext = delegate.hasNext();
+            listingNanos += System.nanoTime() - start;
+
+            if (!hasNext && !finished) {
+                finished = true;
+                listingTime.add(listingNanos, NANOSECONDS);
+                if (invalidations.get() == invalidationsAtStart) {
+                    cache.put(path, files.build());
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public LocatedFileStatus next()
+                throws IOException
+        {
+            long start = System.nanoTime();
+            LocatedFileStatus status = delegate.next();
+            listingNanos += System.nanoTime() - start;
+
+            files.add(status);
+            return status;
+        }
+    }
+
+    private static class SimpleRemoteIterator
+            implements RemoteIterator<LocatedFileStatus>
+    {
+        private final Iterator<LocatedFileStatus> iterator;
+
+        public SimpleRemoteIterator(Iterator<LocatedFileStatus> iterator)
+        {
+            this.iterator = requireNonNull(iterator, "iterator is null");
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public LocatedFileStatus next()
+        {
+            return iterator.next();
+        }
+    }
+}
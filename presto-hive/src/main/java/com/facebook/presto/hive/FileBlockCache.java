@@ -0,0 +1,355 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hashing;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.cache.RemovalCause.REPLACED;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker-local cache of fixed size blocks of remote files, stored on local disk. Blocks are
+ * keyed on the path and modification time of the file, so a rewritten file is never served
+ * from the cache. The least recently used blocks are evicted once the cache exceeds its size.
+ */
+public class FileBlockCache
+{
+    private static final Logger log = Logger.get(FileBlockCache.class);
+
+    private final boolean enabled;
+    private final File directory;
+    private final int blockSize;
+    private final Cache<BlockKey, CachedBlock> blocks;
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat bytesReadFromCache = new CounterStat();
+    private final CounterStat bytesReadFromRemote = new CounterStat();
+    private final CounterStat evictions = new CounterStat();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    @Inject
+    public FileBlockCache(HiveConnectorId connectorId, FileBlockCacheConfig config)
+    {
+        this(config, config.isEnabled() ? new File(requireNonNull(config.getDirectory(), "hive.file-block-cache.directory is not set"), connectorId.toString()) : null);
+    }
+
+    public FileBlockCache(FileBlockCacheConfig config, File directory)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.blockSize = toIntExact(config.getBlockSize().toBytes());
+        DataSize maxSize = config.getMaxSize();
+
+        if (!enabled) {
+            this.directory = null;
+            this.blocks = null;
+            return;
+        }
+
+        this.directory = requireNonNull(directory, "directory is null");
+        // cached blocks are not indexed on disk, so blocks of a previous run can not be reused
+        deleteDirectory(directory);
+        checkArgument(directory.mkdirs(), "Can not create cache directory %s", directory);
+        this.blocks = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((BlockKey key, CachedBlock block) -> block.getLength())
+                .removalListener(this::blockRemoved)
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (enabled) {
+            blocks.invalidateAll();
+            deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Returns a cached view of the file, or empty if the cache is disabled. The size and
+     * modification time come from the split, so opening a file does not stat it again.
+     */
+    public Optional<CachedFile> getCachedFile(Path path, long fileSize, long fileModifiedTime)
+    {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.of(new CachedFile(path.toString(), fileModifiedTime, fileSize));
+    }
+
+    private void blockRemoved(RemovalNotification<BlockKey, CachedBlock> notification)
+    {
+        CachedBlock block = notification.getValue();
+        cachedBytes.addAndGet(-block.getLength());
+        if (notification.wasEvicted()) {
+            evictions.update(1);
+        }
+        // the block may be replaced by a concurrent reader under the same file name
+        if (notification.getCause() != REPLACED && !block.getFile().delete()) {
+            log.debug("Could not delete cached block %s", block.getFile());
+        }
+    }
+
+    private boolean readFromCache(BlockKey key, int offsetInBlock, byte[] buffer, int bufferOffset, int length)
+    {
+        CachedBlock block = blocks.getIfPresent(key);
+        if (block == null) {
+            return false;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(block.getFile(), "r")) {
+            file.seek(offsetInBlock);
+            file.readFully(buffer, bufferOffset, length);
+        }
+        catch (IOException e) {
+            // the block was evicted concurrently or the local file is damaged
+            blocks.invalidate(key);
+            return false;
+        }
+        hits.update(1);
+        bytesReadFromCache.update(length);
+        return true;
+    }
+
+    private void store(BlockKey key, byte[] data)
+    {
+        File file = new File(directory, key.getFileName());
+        File temporaryFile = new File(directory, key.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temporaryFile.toPath(), data);
+            Files.move(temporaryFile.toPath(), file.toPath(), ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            // the local disk may be full, so the block is simply not cached
+            log.debug(e, "Could not write cached block %s", file);
+            temporaryFile.delete();
+            return;
+        }
+        cachedBytes.addAndGet(data.length);
+        blocks.put(key, new CachedBlock(file, data.length));
+    }
+
+    private static void deleteDirectory(File directory)
+    {
+        if (!directory.exists()) {
+            return;
+        }
+        try {
+            deleteRecursively(directory.toPath(), ALLOW_INSECURE);
+        }
+        catch (IOException e) {
+            log.warn(e, "Could not delete cache directory %s", directory);
+        }
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBytesReadFromCache()
+    {
+        return bytesReadFromCache;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBytesReadFromRemote()
+    {
+        return bytesReadFromRemote;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getEvictions()
+    {
+        return evictions;
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getCachedBlocks()
+    {
+        return enabled ? blocks.size() : 0;
+    }
+
+    public class CachedFile
+    {
+        private final String path;
+        private final long modificationTime;
+        private final long fileSize;
+
+        private CachedFile(String path, long modificationTime, long fileSize)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.fileSize = fileSize;
+        }
+
+        /**
+         * Reads the requested range from the cached blocks of the file, reading the missing blocks
+         * from the input stream and adding them to the cache.
+         */
+        public void readFully(FSDataInputStream inputStream, long position, byte[] buffer, int bufferOffset, int length)
+                throws IOException
+        {
+            long end = position + length;
+            checkArgument(position >= 0 && end <= fileSize, "Range [%s, %s) is outside of the file %s of size %s", position, end, path, fileSize);
+            while (position < end) {
+                long blockIndex = position / blockSize;
+                long blockStart = blockIndex * blockSize;
+                int blockLength = toIntExact(min(blockSize, fileSize - blockStart));
+                int offsetInBlock = toIntExact(position - blockStart);
+                int chunkLength = toIntExact(min(end - position, blockLength - offsetInBlock));
+
+                BlockKey key = new BlockKey(path, modificationTime, blockIndex);
+                if (!readFromCache(key, offsetInBlock, buffer, bufferOffset, chunkLength)) {
+                    byte[] data = new byte[blockLength];
+                    inputStream.readFully(blockStart, data, 0, blockLength);
+                    misses.update(1);
+                    bytesReadFromRemote.update(blockLength);
+                    System.arraycopy(data, offsetInBlock, buffer, bufferOffset, chunkLength);
+                    store(key, data);
+                }
+
+                position += chunkLength;
+                bufferOffset += chunkLength;
+            }
+        }
+    }
+
+    private static final class BlockKey
+    {
+        private final String path;
+        private final long modificationTime;
+        private final long blockIndex;
+
+        public BlockKey(String path, long modificationTime, long blockIndex)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.modificationTime = modificationTime;
+            this.blockIndex = blockIndex;
+        }
+
+        public String getFileName()
+        {
+            return Hashing.sha256().newHasher()
+                    .putString(path, UTF_8)
+                    .putLong(modificationTime)
+                    .putLong(blockIndex)
+                    .hash()
+                    .toString();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BlockKey that = (BlockKey) o;
+            return modificationTime == that.modificationTime &&
+                    blockIndex == that.blockIndex &&
+                    Objects.equals(path, that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, modificationTime, blockIndex);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("modificationTime", modificationTime)
+                    .add("blockIndex", blockIndex)
+                    .toString();
+        }
+    }
+
+    private static final class CachedBlock
+    {
+        private final File file;
+        private final int length;
+
+        public CachedBlock(File file, int length)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.length = length;
+        }
+
+        public File getFile()
+        {
+            return file;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+    }
+}
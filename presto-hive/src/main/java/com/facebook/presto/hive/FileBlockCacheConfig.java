@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class FileBlockCacheConfig
+{
+    private boolean enabled;
+    private File directory;
+    private DataSize maxSize = new DataSize(10, GIGABYTE);
+    private DataSize blockSize = new DataSize(1, MEGABYTE);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.file-block-cache.enabled")
+    @ConfigDescription("Cache blocks of ORC and Parquet files on local disk")
+    public FileBlockCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    @Config("hive.file-block-cache.directory")
+    @ConfigDescription("Local directory for cached file blocks, preferably on a local SSD")
+    public FileBlockCacheConfig setDirectory(File directory)
+    {
+        this.directory = directory;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("hive.file-block-cache.max-size")
+    @ConfigDescription("Maximum size of the cached file blocks on local disk")
+    public FileBlockCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Config("hive.file-block-cache.block-size")
+    public FileBlockCacheConfig setBlockSize(DataSize blockSize)
+    {
+        this.blockSize = blockSize;
+        return this;
+    }
+}
@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 @DefunctConfig({
@@ -52,6 +53,7 @@ public class HiveClientConfig
 
     private DataSize maxSplitSize = new DataSize(64, MEGABYTE);
     private int maxPartitionsPerScan = 100_000;
+    private int tableVersionMaxPartitions = 1000;
     private int maxOutstandingSplits = 1_000;
     private DataSize maxOutstandingSplitsSize = new DataSize(256, MEGABYTE);
     private int maxSplitIteratorThreads = 1_000;
@@ -64,6 +66,8 @@ public class HiveClientConfig
     private DataSize writerSortBufferSize = new DataSize(64, MEGABYTE);
     private boolean forceLocalScheduling;
     private boolean recursiveDirWalkerEnabled;
+    private boolean readPrefetchEnabled;
+    private int maxReadPrefetchThreads = 16;
 
     private int maxConcurrentFileRenames = 20;
 
@@ -97,19 +101,25 @@ public class HiveClientConfig
     private List<String> resourceConfigFiles = ImmutableList.of();
 
     private boolean useParquetColumnNames;
+    private DataSize parquetMetadataCacheSize = new DataSize(0, BYTE);
     private boolean parquetOptimizedReaderEnabled = true;
     private boolean parquetPredicatePushdownEnabled = true;
+    private boolean parquetOptimizedWriterEnabled;
+    private DataSize parquetWriterBlockSize = new DataSize(128, MEGABYTE);
+    private DataSize parquetWriterPageSize = new DataSize(1, MEGABYTE);
 
     private boolean assumeCanonicalPartitionKeys;
 
     private boolean useOrcColumnNames;
     private boolean orcBloomFiltersEnabled;
+    private boolean orcSelectiveReaderEnabled;
     private double orcDefaultBloomFilterFpp = 0.05;
     private DataSize orcMaxMergeDistance = new DataSize(1, MEGABYTE);
     private DataSize orcMaxBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcTinyStripeThreshold = new DataSize(8, MEGABYTE);
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcMaxReadBlockSize = new DataSize(16, MEGABYTE);
+    private DataSize orcFileTailCacheSize = new DataSize(0, BYTE);
     private boolean orcLazyReadSmallRanges = true;
     private boolean orcOptimizedWriterEnabled;
     private double orcWriterValidationPercentage = 100.0;
@@ -137,6 +147,10 @@ public class HiveClientConfig
     private int partitionStatisticsSampleSize = 100;
     private boolean collectColumnStatisticsOnWrite;
 
+    private List<String> fileStatusCacheTables = ImmutableList.of();
+    private long fileStatusCacheMaxSize = 1_000_000;
+    private Duration fileStatusCacheExpireAfterWrite = new Duration(1, TimeUnit.MINUTES);
+
     public int getMaxInitialSplits()
     {
         return maxInitialSplits;
@@ -217,6 +231,33 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isReadPrefetchEnabled()
+    {
+        return readPrefetchEnabled;
+    }
+
+    @Config("hive.read-prefetch.enabled")
+    @ConfigDescription("Read the next ORC stripe or Parquet row group in the background while the current one is decoded")
+    public HiveClientConfig setReadPrefetchEnabled(boolean readPrefetchEnabled)
+    {
+        this.readPrefetchEnabled = readPrefetchEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxReadPrefetchThreads()
+    {
+        return maxReadPrefetchThreads;
+    }
+
+    @Config("hive.max-read-prefetch-threads")
+    @ConfigDescription("Number of threads on each worker that read ORC stripes and Parquet row groups in the background")
+    public HiveClientConfig setMaxReadPrefetchThreads(int maxReadPrefetchThreads)
+    {
+        this.maxReadPrefetchThreads = maxReadPrefetchThreads;
+        return this;
+    }
+
     @Min(1)
     public int getMaxConcurrentFileRenames()
     {
@@ -287,6 +328,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(0)
+    public int getTableVersionMaxPartitions()
+    {
+        return tableVersionMaxPartitions;
+    }
+
+    @Config("hive.table-version.max-partitions")
+    @ConfigDescription("Maximum number of partitions of a table for which a version is reported to the query result and plan caches")
+    public HiveClientConfig setTableVersionMaxPartitions(int tableVersionMaxPartitions)
+    {
+        this.tableVersionMaxPartitions = tableVersionMaxPartitions;
+        return this;
+    }
+
     @Min(1)
     public int getMaxOutstandingSplits()
     {
@@ -693,6 +748,47 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isParquetOptimizedWriterEnabled()
+    {
+        return parquetOptimizedWriterEnabled;
+    }
+
+    @Config("hive.parquet.optimized-writer.enabled")
+    @ConfigDescription("Write Parquet files with the native writer instead of the Hive record writer")
+    public HiveClientConfig setParquetOptimizedWriterEnabled(boolean parquetOptimizedWriterEnabled)
+    {
+        this.parquetOptimizedWriterEnabled = parquetOptimizedWriterEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getParquetWriterBlockSize()
+    {
+        return parquetWriterBlockSize;
+    }
+
+    @Config("hive.parquet.writer.block-size")
+    @ConfigDescription("Target size of a Parquet row group")
+    public HiveClientConfig setParquetWriterBlockSize(DataSize parquetWriterBlockSize)
+    {
+        this.parquetWriterBlockSize = parquetWriterBlockSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getParquetWriterPageSize()
+    {
+        return parquetWriterPageSize;
+    }
+
+    @Config("hive.parquet.writer.page-size")
+    @ConfigDescription("Target size of a Parquet page, also used as the limit for the size of a column dictionary")
+    public HiveClientConfig setParquetWriterPageSize(DataSize parquetWriterPageSize)
+    {
+        this.parquetWriterPageSize = parquetWriterPageSize;
+        return this;
+    }
+
     public boolean isUseOrcColumnNames()
     {
         return useOrcColumnNames;
@@ -771,6 +867,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getOrcFileTailCacheSize()
+    {
+        return orcFileTailCacheSize;
+    }
+
+    @Config("hive.orc.file-tail-cache-size")
+    @ConfigDescription("Maximum memory used by the decoded ORC file footers cached on each worker, zero to disable the cache")
+    public HiveClientConfig setOrcFileTailCacheSize(DataSize orcFileTailCacheSize)
+    {
+        this.orcFileTailCacheSize = orcFileTailCacheSize;
+        return this;
+    }
+
     @Deprecated
     public boolean isOrcLazyReadSmallRanges()
     {
@@ -799,6 +909,19 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isOrcSelectiveReaderEnabled()
+    {
+        return orcSelectiveReaderEnabled;
+    }
+
+    @Config("hive.orc.selective-reader.enabled")
+    @ConfigDescription("ORC: Evaluate simple column predicates while decoding, and decode the remaining columns only for matching rows")
+    public HiveClientConfig setOrcSelectiveReaderEnabled(boolean orcSelectiveReaderEnabled)
+    {
+        this.orcSelectiveReaderEnabled = orcSelectiveReaderEnabled;
+        return this;
+    }
+
     public double getOrcDefaultBloomFilterFpp()
     {
         return orcDefaultBloomFilterFpp;
@@ -905,6 +1028,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getParquetMetadataCacheSize()
+    {
+        return parquetMetadataCacheSize;
+    }
+
+    @Config("hive.parquet.metadata-cache-size")
+    @ConfigDescription("Maximum memory used by the decoded Parquet file metadata cached on each worker, zero to disable the cache")
+    public HiveClientConfig setParquetMetadataCacheSize(DataSize parquetMetadataCacheSize)
+    {
+        this.parquetMetadataCacheSize = parquetMetadataCacheSize;
+        return this;
+    }
+
     public enum HiveMetastoreAuthenticationType
     {
         NONE,
@@ -1088,4 +1225,52 @@ public class HiveClientConfig
         this.collectColumnStatisticsOnWrite = collectColumnStatisticsOnWrite;
         return this;
     }
+
+    @NotNull
+    public List<String> getFileStatusCacheTables()
+    {
+        return fileStatusCacheTables;
+    }
+
+    @Config("hive.file-status-cache-tables")
+    @ConfigDescription("Tables, as schema.table or *, whose directory listings are cached")
+    public HiveClientConfig setFileStatusCacheTables(String fileStatusCacheTables)
+    {
+        this.fileStatusCacheTables = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(fileStatusCacheTables);
+        return this;
+    }
+
+    public HiveClientConfig setFileStatusCacheTables(List<String> fileStatusCacheTables)
+    {
+        this.fileStatusCacheTables = ImmutableList.copyOf(fileStatusCacheTables);
+        return this;
+    }
+
+    @Min(0)
+    public long getFileStatusCacheMaxSize()
+    {
+        return fileStatusCacheMaxSize;
+    }
+
+    @Config("hive.file-status-cache-size")
+    @ConfigDescription("Maximum number of file statuses in the directory listing cache")
+    public HiveClientConfig setFileStatusCacheMaxSize(long fileStatusCacheMaxSize)
+    {
+        this.fileStatusCacheMaxSize = fileStatusCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public Duration getFileStatusCacheExpireAfterWrite()
+    {
+        return fileStatusCacheExpireAfterWrite;
+    }
+
+    @Config("hive.file-status-cache-expire-time")
+    @ConfigDescription("Time after which a cached directory listing is discarded")
+    public HiveClientConfig setFileStatusCacheExpireAfterWrite(Duration fileStatusCacheExpireAfterWrite)
+    {
+        this.fileStatusCacheExpireAfterWrite = fileStatusCacheExpireAfterWrite;
+        return this;
+    }
 }
@@ -16,9 +16,11 @@ package com.facebook.presto.hive;
 import com.facebook.presto.hive.metastore.SemiTransactionalHiveMetastore;
 import com.facebook.presto.hive.orc.DwrfPageSourceFactory;
 import com.facebook.presto.hive.orc.OrcPageSourceFactory;
+import com.facebook.presto.hive.parquet.ParquetMetadataCache;
 import com.facebook.presto.hive.parquet.ParquetPageSourceFactory;
 import com.facebook.presto.hive.parquet.ParquetRecordCursorProvider;
 import com.facebook.presto.hive.rcfile.RcFilePageSourceFactory;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.spi.connector.ConnectorNodePartitioningProvider;
 import com.facebook.presto.spi.connector.ConnectorPageSinkProvider;
 import com.facebook.presto.spi.connector.ConnectorPageSourceProvider;
@@ -66,7 +68,10 @@ public class HiveClientModule
         binder.bind(HdfsConfigurationUpdater.class).in(Scopes.SINGLETON);
         binder.bind(HdfsConfiguration.class).to(HiveHdfsConfiguration.class).in(Scopes.SINGLETON);
         binder.bind(HdfsEnvironment.class).in(Scopes.SINGLETON);
-        binder.bind(DirectoryLister.class).to(HadoopDirectoryLister.class).in(Scopes.SINGLETON);
+        binder.bind(CachingDirectoryLister.class).in(Scopes.SINGLETON);
+        binder.bind(DirectoryLister.class).to(CachingDirectoryLister.class).in(Scopes.SINGLETON);
+        binder.bind(TableInvalidationCallback.class).to(CachingDirectoryLister.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(CachingDirectoryLister.class).as(generatedNameOf(CachingDirectoryLister.class, connectorId));
         configBinder(binder).bindConfig(HiveClientConfig.class);
 
         binder.bind(HiveSessionProperties.class).in(Scopes.SINGLETON);
@@ -100,6 +105,13 @@ public class HiveClientModule
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).as(generatedNameOf(FileFormatDataSourceStats.class, connectorId));
 
+        configBinder(binder).bindConfig(FileBlockCacheConfig.class);
+        binder.bind(FileBlockCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FileBlockCache.class).as(generatedNameOf(FileBlockCache.class, connectorId));
+
+        newExporter(binder).export(OrcFileTailCache.class).as(generatedNameOf(OrcFileTailCache.class, connectorId));
+        newExporter(binder).export(ParquetMetadataCache.class).as(generatedNameOf(ParquetMetadataCache.class, connectorId));
+
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(DwrfPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -112,6 +124,7 @@ public class HiveClientModule
         configBinder(binder).bindConfig(OrcFileWriterConfig.class);
         fileWriterFactoryBinder.addBinding().to(OrcFileWriterFactory.class).in(Scopes.SINGLETON);
         fileWriterFactoryBinder.addBinding().to(RcFileFileWriterFactory.class).in(Scopes.SINGLETON);
+        fileWriterFactoryBinder.addBinding().to(ParquetFileWriterFactory.class).in(Scopes.SINGLETON);
     }
 
     @ForHiveClient
@@ -132,6 +145,30 @@ public class HiveClientModule
                 daemonThreadsNamed("hive-metastore-" + hiveClientId + "-%s"));
     }
 
+    @ForHiveReadPrefetch
+    @Singleton
+    @Provides
+    public ExecutorService createReadPrefetchExecutor(HiveConnectorId hiveClientId, HiveClientConfig hiveClientConfig)
+    {
+        return newFixedThreadPool(
+                hiveClientConfig.getMaxReadPrefetchThreads(),
+                daemonThreadsNamed("hive-prefetch-" + hiveClientId + "-%s"));
+    }
+
+    @Singleton
+    @Provides
+    public OrcFileTailCache createOrcFileTailCache(HiveClientConfig hiveClientConfig)
+    {
+        return new OrcFileTailCache(hiveClientConfig.getOrcFileTailCacheSize());
+    }
+
+    @Singleton
+    @Provides
+    public ParquetMetadataCache createParquetMetadataCache(HiveClientConfig hiveClientConfig)
+    {
+        return new ParquetMetadataCache(hiveClientConfig.getParquetMetadataCacheSize());
+    }
+
     @Singleton
     @Provides
     public Function<HiveTransactionHandle, SemiTransactionalHiveMetastore> createMetastoreGetter(HiveTransactionManager transactionManager)
@@ -78,7 +78,10 @@ import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.airlift.json.JsonCodec;
 import io.airlift.slice.Slice;
 import org.apache.hadoop.fs.Path;
@@ -178,6 +181,7 @@ import static com.facebook.presto.spi.predicate.TupleDomain.withColumnDomains;
 import static com.facebook.presto.spi.statistics.TableStatistics.EMPTY_STATISTICS;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -185,6 +189,7 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Streams.stream;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
@@ -221,6 +226,7 @@ public class HiveMetadata
     private final String prestoVersion;
     private final HiveStatisticsProvider hiveStatisticsProvider;
     private final int maxPartitions;
+    private final int tableVersionMaxPartitions;
 
     public HiveMetadata(
             SemiTransactionalHiveMetastore metastore,
@@ -237,7 +243,8 @@ public class HiveMetadata
             TypeTranslator typeTranslator,
             String prestoVersion,
             HiveStatisticsProvider hiveStatisticsProvider,
-            int maxPartitions)
+            int maxPartitions,
+            int tableVersionMaxPartitions)
     {
         this.allowCorruptWritesForTesting = allowCorruptWritesForTesting;
 
@@ -256,6 +263,8 @@ public class HiveMetadata
         this.hiveStatisticsProvider = requireNonNull(hiveStatisticsProvider, "hiveStatisticsProvider is null");
         checkArgument(maxPartitions >= 1, "maxPartitions must be at least 1");
         this.maxPartitions = maxPartitions;
+        checkArgument(tableVersionMaxPartitions >= 0, "tableVersionMaxPartitions is negative");
+        this.tableVersionMaxPartitions = tableVersionMaxPartitions;
     }
 
     public SemiTransactionalHiveMetastore getMetastore()
@@ -523,6 +532,45 @@ public class HiveMetadata
         return hiveStatisticsProvider.getTableStatistics(session, tableHandle, hivePartitions, tableColumns);
     }
 
+    @Override
+    public OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        SchemaTableName tableName = schemaTableName(tableHandle);
+        Optional<Table> table = metastore.getTable(tableName.getSchemaName(), tableName.getTableName());
+        if (!table.isPresent()) {
+            throw new TableNotFoundException(tableName);
+        }
+
+        // The metastore updates the parameters of a table or partition, including its last
+        // modification time and basic statistics, whenever its data is changed through the metastore.
+        // Data written directly to the file system without updating the metastore is not detected.
+        Hasher version = Hashing.murmur3_128().newHasher();
+        putParameters(version, table.get().getParameters());
+        if (!table.get().getPartitionColumns().isEmpty()) {
+            List<String> partitionNames = metastore.getPartitionNames(tableName.getSchemaName(), tableName.getTableName())
+                    .orElseThrow(() -> new TableNotFoundException(tableName));
+            // Writes to an existing partition change only the parameters of the partition, which are
+            // too expensive to fetch for every query of a table with many partitions.
+            if (partitionNames.size() > tableVersionMaxPartitions) {
+                return OptionalLong.empty();
+            }
+            Map<String, Optional<Partition>> partitions = metastore.getPartitionsByNames(tableName.getSchemaName(), tableName.getTableName(), partitionNames);
+            for (String partitionName : Ordering.natural().sortedCopy(partitions.keySet())) {
+                version.putString(partitionName, UTF_8);
+                partitions.get(partitionName).ifPresent(partition -> putParameters(version, partition.getParameters()));
+            }
+        }
+        return OptionalLong.of(version.hash().asLong());
+    }
+
+    private static void putParameters(Hasher hasher, Map<String, String> parameters)
+    {
+        for (String key : Ordering.natural().sortedCopy(parameters.keySet())) {
+            hasher.putString(key, UTF_8);
+            hasher.putString(nullToEmpty(parameters.get(key)), UTF_8);
+        }
+    }
+
     private List<HivePartition> getPartitionsAsList(ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
     {
         HivePartitionResult partitions = partitionManager.getPartitions(metastore, tableHandle, constraint);
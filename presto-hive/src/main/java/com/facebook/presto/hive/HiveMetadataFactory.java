@@ -41,6 +41,7 @@ public class HiveMetadataFactory
     private final boolean createsOfNonManagedTablesEnabled;
     private final long perTransactionCacheMaximumSize;
     private final int maxPartitions;
+    private final int tableVersionMaxPartitions;
     private final ExtendedHiveMetastore metastore;
     private final HdfsEnvironment hdfsEnvironment;
     private final HivePartitionManager partitionManager;
@@ -51,6 +52,7 @@ public class HiveMetadataFactory
     private final JsonCodec<PartitionUpdate> partitionUpdateCodec;
     private final BoundedExecutor renameExecution;
     private final TypeTranslator typeTranslator;
+    private final TableInvalidationCallback tableInvalidationCallback;
     private final String prestoVersion;
 
     @Inject
@@ -66,6 +68,7 @@ public class HiveMetadataFactory
             TableParameterCodec tableParameterCodec,
             JsonCodec<PartitionUpdate> partitionUpdateCodec,
             TypeTranslator typeTranslator,
+            TableInvalidationCallback tableInvalidationCallback,
             NodeVersion nodeVersion)
     {
         this(
@@ -80,12 +83,14 @@ public class HiveMetadataFactory
                 hiveClientConfig.getCreatesOfNonManagedTablesEnabled(),
                 hiveClientConfig.getPerTransactionMetastoreCacheMaximumSize(),
                 hiveClientConfig.getMaxPartitionsPerScan(),
+                hiveClientConfig.getTableVersionMaxPartitions(),
                 typeManager,
                 locationService,
                 tableParameterCodec,
                 partitionUpdateCodec,
                 executorService,
                 typeTranslator,
+                tableInvalidationCallback,
                 nodeVersion.toString());
     }
 
@@ -101,12 +106,14 @@ public class HiveMetadataFactory
             boolean createsOfNonManagedTablesEnabled,
             long perTransactionCacheMaximumSize,
             int maxPartitions,
+            int tableVersionMaxPartitions,
             TypeManager typeManager,
             LocationService locationService,
             TableParameterCodec tableParameterCodec,
             JsonCodec<PartitionUpdate> partitionUpdateCodec,
             ExecutorService executorService,
             TypeTranslator typeTranslator,
+            TableInvalidationCallback tableInvalidationCallback,
             String prestoVersion)
     {
         this.allowCorruptWritesForTesting = allowCorruptWritesForTesting;
@@ -124,8 +131,10 @@ public class HiveMetadataFactory
         this.tableParameterCodec = requireNonNull(tableParameterCodec, "tableParameterCodec is null");
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
         this.typeTranslator = requireNonNull(typeTranslator, "typeTranslator is null");
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
         this.prestoVersion = requireNonNull(prestoVersion, "prestoVersion is null");
         this.maxPartitions = maxPartitions;
+        this.tableVersionMaxPartitions = tableVersionMaxPartitions;
 
         if (!allowCorruptWritesForTesting && !timeZone.equals(DateTimeZone.getDefault())) {
             log.warn("Hive writes are disabled. " +
@@ -144,7 +153,8 @@ public class HiveMetadataFactory
                 hdfsEnvironment,
                 CachingHiveMetastore.memoizeMetastore(this.metastore, perTransactionCacheMaximumSize), // per-transaction cache
                 renameExecution,
-                skipDeletionForAlter);
+                skipDeletionForAlter,
+                tableInvalidationCallback);
 
         return new HiveMetadata(
                 metastore,
@@ -161,6 +171,7 @@ public class HiveMetadataFactory
                 typeTranslator,
                 prestoVersion,
                 new MetastoreHiveStatisticsProvider(typeManager, metastore, timeZone),
-                maxPartitions);
+                maxPartitions,
+                tableVersionMaxPartitions);
     }
 }
@@ -19,10 +19,13 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.FixedPageSource;
 import com.facebook.presto.spi.RecordCursor;
 import com.facebook.presto.spi.RecordPageSource;
 import com.facebook.presto.spi.connector.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.NullableValue;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
@@ -47,6 +50,7 @@ import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static com.facebook.presto.hive.HivePageSourceProvider.ColumnMapping.toColumnHandles;
 import static com.facebook.presto.hive.HiveUtil.getPrefilledColumnValue;
+import static com.facebook.presto.hive.HiveUtil.parsePartitionValue;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -82,12 +86,52 @@ public class HivePageSourceProvider
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns)
+    {
+        HiveSplit hiveSplit = (HiveSplit) split;
+        return createSplitPageSource(session, hiveSplit, columns, hiveSplit.getEffectivePredicate());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        HiveSplit hiveSplit = (HiveSplit) split;
+        TupleDomain<HiveColumnHandle> dynamicPredicate = dynamicFilter.transform(HiveColumnHandle.class::cast);
+        if (!partitionMatches(hiveSplit, dynamicPredicate)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
+
+        // the readers use the effective predicate to skip stripes and row groups
+        return createSplitPageSource(session, hiveSplit, columns, hiveSplit.getEffectivePredicate().intersect(dynamicPredicate));
+    }
+
+    private boolean partitionMatches(HiveSplit hiveSplit, TupleDomain<HiveColumnHandle> predicate)
+    {
+        if (predicate.isNone()) {
+            return false;
+        }
+        Map<HiveColumnHandle, Domain> domains = predicate.getDomains().get();
+        for (HivePartitionKey partitionKey : hiveSplit.getPartitionKeys()) {
+            for (Map.Entry<HiveColumnHandle, Domain> entry : domains.entrySet()) {
+                HiveColumnHandle column = entry.getKey();
+                if (column.getColumnType() != PARTITION_KEY || !column.getName().equals(partitionKey.getName())) {
+                    continue;
+                }
+                Type type = typeManager.getType(column.getTypeSignature());
+                NullableValue value = parsePartitionValue(hiveSplit.getPartitionName(), partitionKey.getValue(), type, hiveStorageTimeZone);
+                if (!entry.getValue().includesNullableValue(value.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private ConnectorPageSource createSplitPageSource(ConnectorSession session, HiveSplit hiveSplit, List<ColumnHandle> columns, TupleDomain<HiveColumnHandle> effectivePredicate)
     {
         List<HiveColumnHandle> hiveColumns = columns.stream()
                 .map(HiveColumnHandle.class::cast)
                 .collect(toList());
 
-        HiveSplit hiveSplit = (HiveSplit) split;
         Path path = new Path(hiveSplit.getPath());
 
         Optional<ConnectorPageSource> pageSource = createHivePageSource(
@@ -100,8 +144,9 @@ public class HivePageSourceProvider
                 hiveSplit.getStart(),
                 hiveSplit.getLength(),
                 hiveSplit.getFileSize(),
+                hiveSplit.getFileModifiedTime(),
                 hiveSplit.getSchema(),
-                hiveSplit.getEffectivePredicate(),
+                effectivePredicate,
                 hiveColumns,
                 hiveSplit.getPartitionKeys(),
                 hiveStorageTimeZone,
@@ -124,6 +169,7 @@ public class HivePageSourceProvider
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             List<HiveColumnHandle> hiveColumns,
@@ -161,6 +207,7 @@ public class HivePageSourceProvider
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     toColumnHandles(regularAndInterimColumnMappings, true),
                     effectivePredicate,
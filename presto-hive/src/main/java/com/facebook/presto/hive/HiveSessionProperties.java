@@ -43,7 +43,9 @@ public final class HiveSessionProperties
     private static final String BUCKET_EXECUTION_ENABLED = "bucket_execution_enabled";
     private static final String FORCE_LOCAL_SCHEDULING = "force_local_scheduling";
     private static final String INSERT_EXISTING_PARTITIONS_BEHAVIOR = "insert_existing_partitions_behavior";
+    private static final String READ_PREFETCH_ENABLED = "read_prefetch_enabled";
     private static final String ORC_BLOOM_FILTERS_ENABLED = "orc_bloom_filters_enabled";
+    private static final String ORC_SELECTIVE_READER_ENABLED = "orc_selective_reader_enabled";
     private static final String ORC_MAX_MERGE_DISTANCE = "orc_max_merge_distance";
     private static final String ORC_MAX_BUFFER_SIZE = "orc_max_buffer_size";
     private static final String ORC_STREAM_BUFFER_SIZE = "orc_stream_buffer_size";
@@ -64,6 +66,9 @@ public final class HiveSessionProperties
     private static final String PARQUET_PREDICATE_PUSHDOWN_ENABLED = "parquet_predicate_pushdown_enabled";
     private static final String PARQUET_OPTIMIZED_READER_ENABLED = "parquet_optimized_reader_enabled";
     private static final String PARQUET_USE_COLUMN_NAME = "parquet_use_column_names";
+    private static final String PARQUET_OPTIMIZED_WRITER_ENABLED = "parquet_optimized_writer_enabled";
+    private static final String PARQUET_WRITER_BLOCK_SIZE = "parquet_writer_block_size";
+    private static final String PARQUET_WRITER_PAGE_SIZE = "parquet_writer_page_size";
     private static final String MAX_SPLIT_SIZE = "max_split_size";
     private static final String MAX_INITIAL_SPLIT_SIZE = "max_initial_split_size";
     public static final String RCFILE_OPTIMIZED_WRITER_ENABLED = "rcfile_optimized_writer_enabled";
@@ -116,11 +121,21 @@ public final class HiveSessionProperties
                         false,
                         value -> InsertExistingPartitionsBehavior.valueOf((String) value, hiveClientConfig.isImmutablePartitions()),
                         InsertExistingPartitionsBehavior::toString),
+                booleanProperty(
+                        READ_PREFETCH_ENABLED,
+                        "Read the next ORC stripe or Parquet row group in the background while the current one is decoded",
+                        hiveClientConfig.isReadPrefetchEnabled(),
+                        false),
                 booleanProperty(
                         ORC_BLOOM_FILTERS_ENABLED,
                         "ORC: Enable bloom filters for predicate pushdown",
                         hiveClientConfig.isOrcBloomFiltersEnabled(),
                         false),
+                booleanProperty(
+                        ORC_SELECTIVE_READER_ENABLED,
+                        "ORC: Evaluate simple column predicates while decoding",
+                        hiveClientConfig.isOrcSelectiveReaderEnabled(),
+                        false),
                 dataSizeSessionProperty(
                         ORC_MAX_MERGE_DISTANCE,
                         "ORC: Maximum size of gap between two reads to merge into a single read",
@@ -221,6 +236,21 @@ public final class HiveSessionProperties
                         "Experimental: Parquet: Access Parquet columns using names from the file",
                         hiveClientConfig.isUseParquetColumnNames(),
                         false),
+                booleanProperty(
+                        PARQUET_OPTIMIZED_WRITER_ENABLED,
+                        "Experimental: Parquet: Enable optimized writer",
+                        hiveClientConfig.isParquetOptimizedWriterEnabled(),
+                        false),
+                dataSizeSessionProperty(
+                        PARQUET_WRITER_BLOCK_SIZE,
+                        "Parquet: Writer block size",
+                        hiveClientConfig.getParquetWriterBlockSize(),
+                        false),
+                dataSizeSessionProperty(
+                        PARQUET_WRITER_PAGE_SIZE,
+                        "Parquet: Writer page size",
+                        hiveClientConfig.getParquetWriterPageSize(),
+                        false),
                 dataSizeSessionProperty(
                         MAX_SPLIT_SIZE,
                         "Max split size",
@@ -283,6 +313,11 @@ public final class HiveSessionProperties
         return session.getProperty(INSERT_EXISTING_PARTITIONS_BEHAVIOR, InsertExistingPartitionsBehavior.class);
     }
 
+    public static boolean isReadPrefetchEnabled(ConnectorSession session)
+    {
+        return session.getProperty(READ_PREFETCH_ENABLED, Boolean.class);
+    }
+
     public static boolean isParquetOptimizedReaderEnabled(ConnectorSession session)
     {
         return session.getProperty(PARQUET_OPTIMIZED_READER_ENABLED, Boolean.class);
@@ -293,6 +328,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_BLOOM_FILTERS_ENABLED, Boolean.class);
     }
 
+    public static boolean isOrcSelectiveReaderEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_SELECTIVE_READER_ENABLED, Boolean.class);
+    }
+
     public static DataSize getOrcMaxMergeDistance(ConnectorSession session)
     {
         return session.getProperty(ORC_MAX_MERGE_DISTANCE, DataSize.class);
@@ -398,6 +438,21 @@ public final class HiveSessionProperties
         return session.getProperty(PARQUET_USE_COLUMN_NAME, Boolean.class);
     }
 
+    public static boolean isParquetOptimizedWriterEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_OPTIMIZED_WRITER_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getParquetWriterBlockSize(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_WRITER_BLOCK_SIZE, DataSize.class);
+    }
+
+    public static DataSize getParquetWriterPageSize(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_WRITER_PAGE_SIZE, DataSize.class);
+    }
+
     public static DataSize getMaxSplitSize(ConnectorSession session)
     {
         return session.getProperty(MAX_SPLIT_SIZE, DataSize.class);
@@ -39,6 +39,7 @@ public class HiveSplit
     private final long start;
     private final long length;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
@@ -60,6 +61,7 @@ public class HiveSplit
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("fileSize") long fileSize,
+            @JsonProperty("fileModifiedTime") long fileModifiedTime,
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
@@ -91,6 +93,7 @@ public class HiveSplit
         this.start = start;
         this.length = length;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
@@ -143,6 +146,12 @@ public class HiveSplit
         return fileSize;
     }
 
+    @JsonProperty
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     @JsonProperty
     public Properties getSchema()
     {
@@ -198,6 +207,14 @@ public class HiveSplit
         return !forceLocalScheduling;
     }
 
+    @Override
+    public Optional<String> getAffinityKey()
+    {
+        // keyed on the file region rather than the file, so that the splits of a large file are spread over the cluster,
+        // while the same region of a file is read on the same worker, which has its blocks cached, by every query
+        return Optional.of(path + ":" + start);
+    }
+
     @Override
     public Object getInfo()
     {
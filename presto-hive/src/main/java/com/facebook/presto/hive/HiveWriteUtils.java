@@ -47,6 +47,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Shorts;
 import com.google.common.primitives.SignedBytes;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FilterFileSystem;
 import org.apache.hadoop.fs.Path;
@@ -95,6 +96,7 @@ import org.apache.hive.common.util.ReflectionUtil;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.sql.Date;
 import java.sql.Timestamp;
@@ -536,6 +538,20 @@ public final class HiveWriteUtils
         return fileSystem;
     }
 
+    /**
+     * @return the memory used by the file system to buffer data written to the stream
+     */
+    public static long getRetainedSizeInBytes(OutputStream outputStream)
+    {
+        if (outputStream instanceof FSDataOutputStream) {
+            return getRetainedSizeInBytes(((FSDataOutputStream) outputStream).getWrappedStream());
+        }
+        if (outputStream instanceof BufferingOutputStream) {
+            return ((BufferingOutputStream) outputStream).getRetainedSizeInBytes();
+        }
+        return 0;
+    }
+
     private static boolean isDirectory(HdfsContext context, HdfsEnvironment hdfsEnvironment, Path path)
     {
         try {
@@ -48,6 +48,7 @@ public class InternalHiveSplit
     private final String path;
     private final long end;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<InternalHiveBlock> blocks;
@@ -67,6 +68,7 @@ public class InternalHiveSplit
             long start,
             long end,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HivePartitionKey> partitionKeys,
             List<InternalHiveBlock> blocks,
@@ -93,6 +95,7 @@ public class InternalHiveSplit
         this.start = start;
         this.end = end;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.blocks = ImmutableList.copyOf(blocks);
@@ -123,6 +126,11 @@ public class InternalHiveSplit
         return fileSize;
     }
 
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     public Properties getSchema()
     {
         return schema;
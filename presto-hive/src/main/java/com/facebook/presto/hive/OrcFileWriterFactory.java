@@ -41,6 +41,7 @@ import org.weakref.jmx.Managed;
 import javax.inject.Inject;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -220,7 +221,15 @@ public class OrcFileWriterFactory
     protected OrcDataSink createOrcDataSink(ConnectorSession session, FileSystem fileSystem, Path path)
             throws IOException
     {
-        return new OutputStreamOrcDataSink(fileSystem.create(path));
+        OutputStream outputStream = fileSystem.create(path);
+        return new OutputStreamOrcDataSink(outputStream)
+        {
+            @Override
+            public long getRetainedSizeInBytes()
+            {
+                return super.getRetainedSizeInBytes() + HiveWriteUtils.getRetainedSizeInBytes(outputStream);
+            }
+        };
     }
 
     private static CompressionKind getCompression(Properties schema, JobConf configuration, OrcEncoding orcEncoding)
@@ -41,6 +41,7 @@ import java.util.function.Supplier;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_CLOSE_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITER_DATA_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_WRITE_VALIDATION_FAILED;
+import static com.facebook.presto.hive.HiveWriteUtils.getRetainedSizeInBytes;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
@@ -49,6 +50,7 @@ public class RcFileFileWriter
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(RcFileFileWriter.class).instanceSize();
 
+    private final OutputStream fileOutputStream;
     private final CountingOutputStream outputStream;
     private final RcFileWriter rcFileWriter;
     private final Callable<Void> rollbackAction;
@@ -67,6 +69,7 @@ public class RcFileFileWriter
             Optional<Supplier<RcFileDataSource>> validationInputFactory)
             throws IOException
     {
+        this.fileOutputStream = requireNonNull(outputStream, "outputStream is null");
         this.outputStream = new CountingOutputStream(outputStream);
         rcFileWriter = new RcFileWriter(
                 new OutputStreamSliceOutput(this.outputStream),
@@ -99,7 +102,7 @@ public class RcFileFileWriter
     @Override
     public long getSystemMemoryUsage()
     {
-        return INSTANCE_SIZE + rcFileWriter.getRetainedSizeInBytes();
+        return INSTANCE_SIZE + rcFileWriter.getRetainedSizeInBytes() + getRetainedSizeInBytes(fileOutputStream);
     }
 
     @Override
@@ -20,6 +20,7 @@ import com.facebook.presto.hive.LocationHandle.WriteMode;
 import com.facebook.presto.hive.PartitionNotFoundException;
 import com.facebook.presto.hive.PartitionStatistics;
 import com.facebook.presto.hive.TableAlreadyExistsException;
+import com.facebook.presto.hive.TableInvalidationCallback;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
@@ -75,6 +76,7 @@ import static com.facebook.presto.spi.StandardErrorCode.TRANSACTION_CONFLICT;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.String.format;
@@ -91,6 +93,7 @@ public class SemiTransactionalHiveMetastore
     private final HdfsEnvironment hdfsEnvironment;
     private final Executor renameExecutor;
     private final boolean skipDeletionForAlter;
+    private final TableInvalidationCallback tableInvalidationCallback;
 
     @GuardedBy("this")
     private final Map<SchemaTableName, Action<TableAndMore>> tableActions = new HashMap<>();
@@ -104,12 +107,18 @@ public class SemiTransactionalHiveMetastore
     private State state = State.EMPTY;
     private boolean throwOnCleanupFailure;
 
-    public SemiTransactionalHiveMetastore(HdfsEnvironment hdfsEnvironment, ExtendedHiveMetastore delegate, Executor renameExecutor, boolean skipDeletionForAlter)
+    public SemiTransactionalHiveMetastore(
+            HdfsEnvironment hdfsEnvironment,
+            ExtendedHiveMetastore delegate,
+            Executor renameExecutor,
+            boolean skipDeletionForAlter,
+            TableInvalidationCallback tableInvalidationCallback)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.delegate = requireNonNull(delegate, "delegate is null");
         this.renameExecutor = requireNonNull(renameExecutor, "renameExecutor is null");
         this.skipDeletionForAlter = requireNonNull(skipDeletionForAlter, "skipDeletionForAlter is null");
+        this.tableInvalidationCallback = requireNonNull(tableInvalidationCallback, "tableInvalidationCallback is null");
     }
 
     public synchronized List<String> getAllDatabases()
@@ -440,7 +449,13 @@ public class SemiTransactionalHiveMetastore
         Path path = new Path(table.get().getStorage().getLocation());
         HdfsContext context = new HdfsContext(session, databaseName, tableName);
         setExclusive((delegate, hdfsEnvironment) -> {
-            RecursiveDeleteResult recursiveDeleteResult = recursiveDeleteFiles(hdfsEnvironment, context, path, ImmutableList.of(""), false);
+            RecursiveDeleteResult recursiveDeleteResult;
+            try {
+                recursiveDeleteResult = recursiveDeleteFiles(hdfsEnvironment, context, path, ImmutableList.of(""), false);
+            }
+            finally {
+                tableInvalidationCallback.invalidate(path);
+            }
             if (!recursiveDeleteResult.getNotDeletedEligibleItems().isEmpty()) {
                 throw new PrestoException(HIVE_FILESYSTEM_ERROR, format(
                         "Error deleting from unpartitioned table %s. These items can not be deleted: %s",
@@ -802,7 +817,12 @@ public class SemiTransactionalHiveMetastore
                 case EMPTY:
                     break;
                 case SHARED_OPERATION_BUFFERED:
-                    commitShared();
+                    try {
+                        commitShared();
+                    }
+                    finally {
+                        invalidateWrittenLocations();
+                    }
                     break;
                 case EXCLUSIVE_OPERATION_BUFFERED:
                     requireNonNull(bufferedExclusiveOperation, "bufferedExclusiveOperation is null");
@@ -840,6 +860,34 @@ public class SemiTransactionalHiveMetastore
         }
     }
 
+    @GuardedBy("this")
+    private void invalidateWrittenLocations()
+    {
+        checkHoldsLock();
+
+        // cached directory listings of the modified tables and partitions are stale even if the commit failed half way
+        for (Action<TableAndMore> action : tableActions.values()) {
+            if (action.getType() != ActionType.DROP) {
+                invalidateLocation(action.getData().getTable().getStorage().getLocation());
+            }
+        }
+        for (Map<List<String>, Action<PartitionAndMore>> partitionActionsOfTable : partitionActions.values()) {
+            for (Action<PartitionAndMore> action : partitionActionsOfTable.values()) {
+                if (action.getType() != ActionType.DROP) {
+                    invalidateLocation(action.getData().getPartition().getStorage().getLocation());
+                }
+            }
+        }
+    }
+
+    private void invalidateLocation(String location)
+    {
+        // views do not have a location
+        if (!isNullOrEmpty(location)) {
+            tableInvalidationCallback.invalidate(new Path(location));
+        }
+    }
+
     @GuardedBy("this")
     private void commitShared()
     {
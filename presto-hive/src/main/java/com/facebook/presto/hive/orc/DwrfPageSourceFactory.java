@@ -14,15 +14,20 @@
 package com.facebook.presto.hive.orc;
 
 import com.facebook.hive.orc.OrcSerde;
+import com.facebook.presto.hive.FileBlockCache;
+import com.facebook.presto.hive.FileBlockCacheConfig;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForHiveReadPrefetch;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.TypeManager;
+import io.airlift.units.DataSize;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.joda.time.DateTimeZone;
@@ -32,6 +37,8 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcLazyReadSmallRanges;
@@ -40,9 +47,13 @@ import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxMergeDista
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxReadBlockSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcSelectiveReaderEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isReadPrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.facebook.presto.hive.orc.OrcPageSourceFactory.createOrcPageSource;
 import static com.facebook.presto.orc.OrcEncoding.DWRF;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.Objects.requireNonNull;
 
 public class DwrfPageSourceFactory
@@ -51,13 +62,30 @@ public class DwrfPageSourceFactory
     private final TypeManager typeManager;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final FileBlockCache fileBlockCache;
+    private final OrcFileTailCache fileTailCache;
+    private final Executor prefetchExecutor;
 
-    @Inject
     public DwrfPageSourceFactory(TypeManager typeManager, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    {
+        this(typeManager, hdfsEnvironment, stats, new FileBlockCache(new FileBlockCacheConfig(), null), new OrcFileTailCache(new DataSize(0, BYTE)), newDirectExecutorService());
+    }
+
+    @Inject
+    public DwrfPageSourceFactory(
+            TypeManager typeManager,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            OrcFileTailCache fileTailCache,
+            @ForHiveReadPrefetch ExecutorService prefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileBlockCache = requireNonNull(fileBlockCache, "fileBlockCache is null");
+        this.fileTailCache = requireNonNull(fileTailCache, "fileTailCache is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
     }
 
     @Override
@@ -67,6 +95,7 @@ public class DwrfPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -89,6 +118,7 @@ public class DwrfPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 columns,
                 false,
                 effectivePredicate,
@@ -101,6 +131,10 @@ public class DwrfPageSourceFactory
                 getOrcMaxReadBlockSize(session),
                 getOrcLazyReadSmallRanges(session),
                 false,
-                stats));
+                isOrcSelectiveReaderEnabled(session),
+                stats,
+                fileBlockCache,
+                fileTailCache,
+                isReadPrefetchEnabled(session) ? Optional.of(prefetchExecutor) : Optional.empty()));
     }
 }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.hive.FileBlockCache.CachedFile;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.orc.AbstractOrcDataSource;
 import com.facebook.presto.orc.OrcDataSourceId;
@@ -21,6 +22,7 @@ import io.airlift.units.DataSize;
 import org.apache.hadoop.fs.FSDataInputStream;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
@@ -33,6 +35,7 @@ public class HdfsOrcDataSource
 {
     private final FSDataInputStream inputStream;
     private final FileFormatDataSourceStats stats;
+    private final Optional<CachedFile> cachedFile;
 
     public HdfsOrcDataSource(
             OrcDataSourceId id,
@@ -43,10 +46,25 @@ public class HdfsOrcDataSource
             boolean lazyReadSmallRanges,
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats)
+    {
+        this(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges, inputStream, stats, Optional.empty());
+    }
+
+    public HdfsOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            DataSize maxMergeDistance,
+            DataSize maxReadSize,
+            DataSize streamBufferSize,
+            boolean lazyReadSmallRanges,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            Optional<CachedFile> cachedFile)
     {
         super(id, size, maxMergeDistance, maxReadSize, streamBufferSize, lazyReadSmallRanges);
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.cachedFile = requireNonNull(cachedFile, "cachedFile is null");
     }
 
     @Override
@@ -56,12 +74,24 @@ public class HdfsOrcDataSource
         inputStream.close();
     }
 
+    @Override
+    protected boolean isConcurrentReadSupported()
+    {
+        // positioned reads do not move the stream, so they can be issued from several threads
+        return true;
+    }
+
     @Override
     protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
         try {
             long readStart = System.nanoTime();
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+            if (cachedFile.isPresent()) {
+                cachedFile.get().readFully(inputStream, position, buffer, bufferOffset, bufferLength);
+            }
+            else {
+                inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+            }
             stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
         }
         catch (PrestoException e) {
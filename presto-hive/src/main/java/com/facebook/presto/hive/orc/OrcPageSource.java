@@ -29,10 +29,12 @@ import com.facebook.presto.spi.block.LazyBlockLoader;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
@@ -40,6 +42,7 @@ import static com.facebook.presto.hive.HiveErrorCode.HIVE_CURSOR_ERROR;
 import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.toCompletableFuture;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -121,6 +124,13 @@ public class OrcPageSource
         return orcDataSource.getReadTimeNanos();
     }
 
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        ListenableFuture<?> blocked = recordReader.isBlocked();
+        return blocked.isDone() ? NOT_BLOCKED : toCompletableFuture(blocked);
+    }
+
     @Override
     public boolean isFinished()
     {
@@ -13,7 +13,10 @@
  */
 package com.facebook.presto.hive.orc;
 
+import com.facebook.presto.hive.FileBlockCache;
+import com.facebook.presto.hive.FileBlockCacheConfig;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForHiveReadPrefetch;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveClientConfig;
 import com.facebook.presto.hive.HiveColumnHandle;
@@ -22,6 +25,7 @@ import com.facebook.presto.memory.context.AggregatedMemoryContext;
 import com.facebook.presto.orc.OrcDataSource;
 import com.facebook.presto.orc.OrcDataSourceId;
 import com.facebook.presto.orc.OrcEncoding;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.orc.OrcPredicate;
 import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.OrcRecordReader;
@@ -31,6 +35,7 @@ import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.FixedPageSource;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
@@ -52,6 +57,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
@@ -65,11 +72,15 @@ import static com.facebook.presto.hive.HiveSessionProperties.getOrcMaxReadBlockS
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static com.facebook.presto.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
 import static com.facebook.presto.hive.HiveSessionProperties.isOrcBloomFiltersEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isOrcSelectiveReaderEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isReadPrefetchEnabled;
 import static com.facebook.presto.hive.HiveUtil.isDeserializerClass;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.orc.OrcEncoding.ORC;
 import static com.facebook.presto.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -81,19 +92,44 @@ public class OrcPageSourceFactory
     private final boolean useOrcColumnNames;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final FileBlockCache fileBlockCache;
+    private final OrcFileTailCache fileTailCache;
+    private final Executor prefetchExecutor;
 
     @Inject
-    public OrcPageSourceFactory(TypeManager typeManager, HiveClientConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    public OrcPageSourceFactory(
+            TypeManager typeManager,
+            HiveClientConfig config,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            OrcFileTailCache fileTailCache,
+            @ForHiveReadPrefetch ExecutorService prefetchExecutor)
     {
-        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseOrcColumnNames(), hdfsEnvironment, stats);
+        this(typeManager, requireNonNull(config, "hiveClientConfig is null").isUseOrcColumnNames(), hdfsEnvironment, stats, fileBlockCache, fileTailCache, prefetchExecutor);
     }
 
     public OrcPageSourceFactory(TypeManager typeManager, boolean useOrcColumnNames, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    {
+        this(typeManager, useOrcColumnNames, hdfsEnvironment, stats, new FileBlockCache(new FileBlockCacheConfig(), null), new OrcFileTailCache(new DataSize(0, BYTE)), newDirectExecutorService());
+    }
+
+    public OrcPageSourceFactory(
+            TypeManager typeManager,
+            boolean useOrcColumnNames,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            OrcFileTailCache fileTailCache,
+            ExecutorService prefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.useOrcColumnNames = useOrcColumnNames;
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileBlockCache = requireNonNull(fileBlockCache, "fileBlockCache is null");
+        this.fileTailCache = requireNonNull(fileTailCache, "fileTailCache is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
     }
 
     @Override
@@ -104,6 +140,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -127,6 +164,7 @@ public class OrcPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 columns,
                 useOrcColumnNames,
                 effectivePredicate,
@@ -139,7 +177,11 @@ public class OrcPageSourceFactory
                 getOrcMaxReadBlockSize(session),
                 getOrcLazyReadSmallRanges(session),
                 isOrcBloomFiltersEnabled(session),
-                stats));
+                isOrcSelectiveReaderEnabled(session),
+                stats,
+                fileBlockCache,
+                fileTailCache,
+                isReadPrefetchEnabled(session) ? Optional.of(prefetchExecutor) : Optional.empty()));
     }
 
     public static OrcPageSource createOrcPageSource(
@@ -151,6 +193,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             List<HiveColumnHandle> columns,
             boolean useOrcColumnNames,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -163,7 +206,11 @@ public class OrcPageSourceFactory
             DataSize maxReadBlockSize,
             boolean lazyReadSmallRanges,
             boolean orcBloomFiltersEnabled,
-            FileFormatDataSourceStats stats)
+            boolean selectiveReaderEnabled,
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            OrcFileTailCache fileTailCache,
+            Optional<Executor> prefetchExecutor)
     {
         OrcDataSource orcDataSource;
         try {
@@ -177,7 +224,8 @@ public class OrcPageSourceFactory
                     streamBufferSize,
                     lazyReadSmallRanges,
                     inputStream,
-                    stats);
+                    stats,
+                    fileBlockCache.getCachedFile(path, fileSize, fileModifiedTime));
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -189,7 +237,14 @@ public class OrcPageSourceFactory
 
         AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
-            OrcReader reader = new OrcReader(orcDataSource, orcEncoding, maxMergeDistance, maxBufferSize, tinyStripeThreshold, maxReadBlockSize);
+            OrcReader reader = new OrcReader(
+                    orcDataSource,
+                    orcEncoding,
+                    maxMergeDistance,
+                    maxBufferSize,
+                    tinyStripeThreshold,
+                    maxReadBlockSize,
+                    fileTailCache.getFileTailSource(fileModifiedTime));
 
             List<HiveColumnHandle> physicalColumns = getPhysicalHiveColumnHandles(columns, useOrcColumnNames, reader, path);
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
@@ -204,14 +259,31 @@ public class OrcPageSourceFactory
 
             OrcPredicate predicate = new TupleDomainOrcPredicate<>(effectivePredicate, columnReferences.build(), orcBloomFiltersEnabled);
 
+            // the engine still applies the full filter, so dropping the rows outside of
+            // the effective predicate while decoding does not change the result
+            ImmutableMap.Builder<Integer, Domain> columnDomains = ImmutableMap.builder();
+            if (selectiveReaderEnabled && effectivePredicate.getDomains().isPresent()) {
+                Map<HiveColumnHandle, Domain> domains = effectivePredicate.getDomains().get();
+                // the predicate refers to the table columns, which are in the same order as the physical columns
+                for (int i = 0; i < columns.size(); i++) {
+                    Domain domain = domains.get(columns.get(i));
+                    HiveColumnHandle physicalColumn = physicalColumns.get(i);
+                    if (physicalColumn.getColumnType() == REGULAR && domain != null) {
+                        columnDomains.put(physicalColumn.getHiveColumnIndex(), domain);
+                    }
+                }
+            }
+
             OrcRecordReader recordReader = reader.createRecordReader(
                     includedColumns.build(),
                     predicate,
+                    columnDomains.build(),
                     start,
                     length,
                     hiveStorageTimeZone,
                     systemMemoryUsage,
-                    INITIAL_BATCH_SIZE);
+                    INITIAL_BATCH_SIZE,
+                    prefetchExecutor);
 
             return new OrcPageSource(
                     recordReader,
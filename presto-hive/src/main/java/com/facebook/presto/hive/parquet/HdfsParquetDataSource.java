@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.parquet;
 
+import com.facebook.presto.hive.FileBlockCache.CachedFile;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.spi.PrestoException;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -21,11 +22,14 @@ import org.apache.hadoop.fs.Path;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.google.common.base.Strings.nullToEmpty;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 
 public class HdfsParquetDataSource
         implements ParquetDataSource
@@ -33,21 +37,36 @@ public class HdfsParquetDataSource
     private final String name;
     private final long size;
     private final FSDataInputStream inputStream;
-    private long readBytes;
+    private long readTimeNanos;
+    // also updated by reads in the background
+    private final AtomicLong readBytes = new AtomicLong();
     private final FileFormatDataSourceStats stats;
+    private final Optional<CachedFile> cachedFile;
 
     public HdfsParquetDataSource(Path path, long size, FSDataInputStream inputStream, FileFormatDataSourceStats stats)
+    {
+        this(path, size, inputStream, stats, Optional.empty());
+    }
+
+    public HdfsParquetDataSource(Path path, long size, FSDataInputStream inputStream, FileFormatDataSourceStats stats, Optional<CachedFile> cachedFile)
     {
         this.name = path.toString();
         this.size = size;
         this.inputStream = inputStream;
         this.stats = stats;
+        this.cachedFile = requireNonNull(cachedFile, "cachedFile is null");
     }
 
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
+    }
+
+    @Override
+    public final long getReadTimeNanos()
+    {
+        return readTimeNanos;
     }
 
     @Override
@@ -72,15 +91,44 @@ public class HdfsParquetDataSource
     @Override
     public final void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
+        long start = System.nanoTime();
+
         readInternal(position, buffer, bufferOffset, bufferLength);
-        readBytes += bufferLength;
+
+        readTimeNanos += System.nanoTime() - start;
+        readBytes.addAndGet(bufferLength);
+    }
+
+    @Override
+    public final void readFullyInBackground(long position, byte[] buffer)
+    {
+        readInternal(position, buffer, 0, buffer.length);
+        readBytes.addAndGet(buffer.length);
+    }
+
+    @Override
+    public final void addReadTimeNanos(long nanos)
+    {
+        readTimeNanos += nanos;
+    }
+
+    @Override
+    public boolean isConcurrentReadSupported()
+    {
+        // positioned reads do not move the stream, so they can be issued from several threads
+        return true;
     }
 
     private void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
         try {
             long readStart = System.nanoTime();
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+            if (cachedFile.isPresent()) {
+                cachedFile.get().readFully(inputStream, position, buffer, bufferOffset, bufferLength);
+            }
+            else {
+                inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+            }
             stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
         }
         catch (PrestoException e) {
@@ -107,8 +155,8 @@ public class HdfsParquetDataSource
         }
     }
 
-    public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, long fileSize, FileFormatDataSourceStats stats)
+    public static HdfsParquetDataSource buildHdfsParquetDataSource(FSDataInputStream inputStream, Path path, long fileSize, FileFormatDataSourceStats stats, Optional<CachedFile> cachedFile)
     {
-        return new HdfsParquetDataSource(path, fileSize, inputStream, stats);
+        return new HdfsParquetDataSource(path, fileSize, inputStream, stats, cachedFile);
     }
 }
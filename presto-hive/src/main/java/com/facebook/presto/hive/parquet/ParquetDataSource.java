@@ -21,12 +21,37 @@ public interface ParquetDataSource
 {
     long getReadBytes();
 
+    long getReadTimeNanos();
+
     long getSize();
 
     void readFully(long position, byte[] buffer);
 
     void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength);
 
+    /**
+     * Reads from a background thread. The read time is not recorded; the reader thread
+     * records the time it waits for the read with {@link #addReadTimeNanos(long)} instead.
+     */
+    default void readFullyInBackground(long position, byte[] buffer)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    default void addReadTimeNanos(long nanos)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns true if reads can be issued while another read is in progress,
+     * which is required to read ahead from a background thread.
+     */
+    default boolean isConcurrentReadSupported()
+    {
+        return false;
+    }
+
     @Override
     default void close()
             throws IOException
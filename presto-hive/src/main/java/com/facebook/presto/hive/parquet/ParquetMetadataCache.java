@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.hive.parquet.reader.ParquetFileMetadata;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import parquet.hadoop.metadata.ParquetMetadata;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+import static com.facebook.presto.hive.parquet.reader.ParquetMetadataReader.readFileMetadata;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker-wide cache of decoded Parquet file metadata, which saves the remote read and the decoding
+ * of the footer for every split of a file after the first one. Entries are keyed on the path, length
+ * and modification time of the file, and the cache is bounded by the estimated memory retained by the
+ * decoded metadata. The cache is disabled if the size is zero.
+ */
+public class ParquetMetadataCache
+{
+    private final boolean enabled;
+    private final Cache<FileKey, ParquetFileMetadata> cache;
+
+    public ParquetMetadataCache(DataSize maxSize)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        this.enabled = maxSize.toBytes() > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Weigher<FileKey, ParquetFileMetadata>) (key, metadata) -> toIntExact(min(metadata.getRetainedSizeInBytes(), Integer.MAX_VALUE)))
+                .recordStats()
+                .build();
+    }
+
+    public ParquetMetadata getParquetMetadata(FSDataInputStream inputStream, Path path, long fileSize, long modificationTime)
+            throws IOException
+    {
+        if (!enabled) {
+            return readFileMetadata(inputStream, path, fileSize).getParquetMetadata();
+        }
+        try {
+            return cache.get(new FileKey(path, fileSize, modificationTime), () -> readFileMetadata(inputStream, path, fileSize))
+                    .getParquetMetadata();
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getRequestCount()
+    {
+        return cache.stats().requestCount();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    private static final class FileKey
+    {
+        private final Path path;
+        private final long length;
+        private final long modificationTime;
+
+        public FileKey(Path path, long length, long modificationTime)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.length = length;
+            this.modificationTime = modificationTime;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileKey that = (FileKey) o;
+            return length == that.length &&
+                    modificationTime == that.modificationTime &&
+                    Objects.equals(path, that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, length, modificationTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("length", length)
+                    .add("modificationTime", modificationTime)
+                    .toString();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import parquet.io.MessageColumnIO;
 import parquet.schema.MessageType;
 
@@ -34,6 +35,7 @@ import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
@@ -42,6 +44,7 @@ import static com.facebook.presto.hive.parquet.ParquetTypeUtils.getFieldIndex;
 import static com.facebook.presto.hive.parquet.ParquetTypeUtils.getParquetType;
 import static com.facebook.presto.hive.parquet.ParquetTypeUtils.lookupColumnByName;
 import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.toCompletableFuture;
 import static java.util.Objects.requireNonNull;
 import static parquet.io.ColumnIOConverter.constructField;
 
@@ -62,7 +65,6 @@ public class ParquetPageSource
 
     private int batchId;
     private boolean closed;
-    private long readTimeNanos;
     private final boolean useParquetColumnNames;
 
     public ParquetPageSource(
@@ -123,7 +125,14 @@ public class ParquetPageSource
     @Override
     public long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return parquetReader.getDataSource().getReadTimeNanos();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        ListenableFuture<?> blocked = parquetReader.isBlocked();
+        return blocked.isDone() ? NOT_BLOCKED : toCompletableFuture(blocked);
     }
 
     @Override
@@ -143,12 +152,8 @@ public class ParquetPageSource
     {
         try {
             batchId++;
-            long start = System.nanoTime();
-
             int batchSize = parquetReader.nextBatch();
 
-            readTimeNanos += System.nanoTime() - start;
-
             if (closed || batchSize <= 0) {
                 close();
                 return null;
@@ -13,12 +13,14 @@
  */
 package com.facebook.presto.hive.parquet;
 
+import com.facebook.presto.hive.FileBlockCache;
+import com.facebook.presto.hive.FileBlockCacheConfig;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.hive.ForHiveReadPrefetch;
 import com.facebook.presto.hive.HdfsEnvironment;
 import com.facebook.presto.hive.HiveColumnHandle;
 import com.facebook.presto.hive.HivePageSourceFactory;
 import com.facebook.presto.hive.parquet.predicate.ParquetPredicate;
-import com.facebook.presto.hive.parquet.reader.ParquetMetadataReader;
 import com.facebook.presto.hive.parquet.reader.ParquetReader;
 import com.facebook.presto.memory.context.AggregatedMemoryContext;
 import com.facebook.presto.spi.ConnectorPageSource;
@@ -27,6 +29,7 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.TypeManager;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
@@ -50,12 +53,15 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.facebook.presto.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_CANNOT_OPEN_SPLIT;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static com.facebook.presto.hive.HiveSessionProperties.isParquetOptimizedReaderEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isParquetPredicatePushdownEnabled;
+import static com.facebook.presto.hive.HiveSessionProperties.isReadPrefetchEnabled;
 import static com.facebook.presto.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static com.facebook.presto.hive.HiveUtil.getDeserializerClassName;
 import static com.facebook.presto.hive.parquet.HdfsParquetDataSource.buildHdfsParquetDataSource;
@@ -67,6 +73,8 @@ import static com.facebook.presto.hive.parquet.predicate.ParquetPredicateUtils.g
 import static com.facebook.presto.hive.parquet.predicate.ParquetPredicateUtils.predicateMatches;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -82,13 +90,30 @@ public class ParquetPageSourceFactory
     private final TypeManager typeManager;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final FileBlockCache fileBlockCache;
+    private final ParquetMetadataCache metadataCache;
+    private final Executor prefetchExecutor;
 
-    @Inject
     public ParquetPageSourceFactory(TypeManager typeManager, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    {
+        this(typeManager, hdfsEnvironment, stats, new FileBlockCache(new FileBlockCacheConfig(), null), new ParquetMetadataCache(new DataSize(0, BYTE)), newDirectExecutorService());
+    }
+
+    @Inject
+    public ParquetPageSourceFactory(
+            TypeManager typeManager,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            ParquetMetadataCache metadataCache,
+            @ForHiveReadPrefetch ExecutorService prefetchExecutor)
     {
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileBlockCache = requireNonNull(fileBlockCache, "fileBlockCache is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
+        this.prefetchExecutor = requireNonNull(prefetchExecutor, "prefetchExecutor is null");
     }
 
     @Override
@@ -99,6 +124,7 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -120,13 +146,17 @@ public class ParquetPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 schema,
                 columns,
                 isUseParquetColumnNames(session),
                 typeManager,
                 isParquetPredicatePushdownEnabled(session),
                 effectivePredicate,
-                stats));
+                stats,
+                fileBlockCache,
+                metadataCache,
+                isReadPrefetchEnabled(session) ? Optional.of(prefetchExecutor) : Optional.empty()));
     }
 
     public static ParquetPageSource createParquetPageSource(
@@ -137,13 +167,17 @@ public class ParquetPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             boolean useParquetColumnNames,
             TypeManager typeManager,
             boolean predicatePushdownEnabled,
             TupleDomain<HiveColumnHandle> effectivePredicate,
-            FileFormatDataSourceStats stats)
+            FileFormatDataSourceStats stats,
+            FileBlockCache fileBlockCache,
+            ParquetMetadataCache metadataCache,
+            Optional<Executor> prefetchExecutor)
     {
         AggregatedMemoryContext systemMemoryContext = newSimpleAggregatedMemoryContext();
 
@@ -151,10 +185,10 @@ public class ParquetPageSourceFactory
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(user, path, configuration);
             FSDataInputStream inputStream = fileSystem.open(path);
-            ParquetMetadata parquetMetadata = ParquetMetadataReader.readFooter(inputStream, path, fileSize);
+            ParquetMetadata parquetMetadata = metadataCache.getParquetMetadata(inputStream, path, fileSize, fileModifiedTime);
             FileMetaData fileMetaData = parquetMetadata.getFileMetaData();
             MessageType fileSchema = fileMetaData.getSchema();
-            dataSource = buildHdfsParquetDataSource(inputStream, path, fileSize, stats);
+            dataSource = buildHdfsParquetDataSource(inputStream, path, fileSize, stats, fileBlockCache.getCachedFile(path, fileSize, fileModifiedTime));
 
             List<parquet.schema.Type> fields = columns.stream()
                     .filter(column -> column.getColumnType() == REGULAR)
@@ -186,7 +220,8 @@ public class ParquetPageSourceFactory
                     messageColumnIO,
                     blocks,
                     dataSource,
-                    systemMemoryContext);
+                    systemMemoryContext,
+                    prefetchExecutor);
 
             return new ParquetPageSource(
                     parquetReader,
@@ -16,14 +16,16 @@ package com.facebook.presto.hive.parquet;
 import com.facebook.presto.spi.PrestoException;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
+import io.airlift.slice.SliceOutput;
 import parquet.io.api.Binary;
 
 import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
+import static java.lang.Math.toIntExact;
 
 /**
- * Utility class for decoding INT96 encoded parquet timestamp to timestamp millis in GMT.
+ * Utility class for decoding INT96 encoded parquet timestamp to timestamp millis in GMT, and back.
  * <p>
  * This class is equivalent of @see org.apache.hadoop.hive.ql.io.parquet.timestamp.NanoTime,
  * which produces less intermediate objects during decoding.
@@ -56,6 +58,20 @@ public final class ParquetTimestampUtils
         return julianDayToMillis(julianDay) + (timeOfDayNanos / NANOS_PER_MILLISECOND);
     }
 
+    /**
+     * Writes GMT timestamp millis as INT96 parquet timestamp (julian date + time of day nanos, little endian).
+     *
+     * @param output destination of the 12 byte encoded timestamp
+     * @param timestampMillis timestamp in millis, GMT timezone
+     */
+    public static void writeTimestampMillis(SliceOutput output, long timestampMillis)
+    {
+        long julianDay = Math.floorDiv(timestampMillis, MILLIS_IN_DAY) + JULIAN_EPOCH_OFFSET_DAYS;
+        long timeOfDayNanos = Math.floorMod(timestampMillis, MILLIS_IN_DAY) * NANOS_PER_MILLISECOND;
+        output.writeLong(timeOfDayNanos);
+        output.writeInt(toIntExact(julianDay));
+    }
+
     private static long julianDayToMillis(int julianDay)
     {
         return (julianDay - JULIAN_EPOCH_OFFSET_DAYS) * MILLIS_IN_DAY;
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.reader;
+
+import parquet.hadoop.metadata.ParquetMetadata;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+public class ParquetFileMetadata
+{
+    private final ParquetMetadata parquetMetadata;
+    private final int metadataSize;
+    private final long retainedSizeInBytes;
+
+    public ParquetFileMetadata(ParquetMetadata parquetMetadata, int metadataSize, long retainedSizeInBytes)
+    {
+        this.parquetMetadata = requireNonNull(parquetMetadata, "parquetMetadata is null");
+        checkArgument(metadataSize >= 0, "metadataSize is negative");
+        checkArgument(retainedSizeInBytes >= 0, "retainedSizeInBytes is negative");
+        this.metadataSize = metadataSize;
+        this.retainedSizeInBytes = retainedSizeInBytes;
+    }
+
+    public ParquetMetadata getParquetMetadata()
+    {
+        return parquetMetadata;
+    }
+
+    /**
+     * Size of the metadata in the file, in bytes.
+     */
+    public int getMetadataSize()
+    {
+        return metadataSize;
+    }
+
+    /**
+     * Estimated size of the decoded metadata in memory, which is usually several times the size of
+     * the metadata in the file, as the statistics and encodings of every column chunk are decoded to objects.
+     */
+    public long getRetainedSizeInBytes()
+    {
+        return retainedSizeInBytes;
+    }
+}
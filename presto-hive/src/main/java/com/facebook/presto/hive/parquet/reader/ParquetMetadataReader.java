@@ -16,6 +16,7 @@ package com.facebook.presto.hive.parquet.reader;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.openjdk.jol.info.ClassLayout;
 import parquet.format.ColumnChunk;
 import parquet.format.ColumnMetaData;
 import parquet.format.ConvertedType;
@@ -52,6 +53,9 @@ import java.util.Map;
 import java.util.Set;
 
 import static com.facebook.presto.hive.parquet.ParquetValidationUtils.validateParquet;
+import static io.airlift.slice.SizeOf.sizeOfByteArray;
+import static io.airlift.slice.SizeOf.sizeOfCharArray;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static parquet.format.Util.readFileMetaData;
 
@@ -60,6 +64,17 @@ public final class ParquetMetadataReader
     private static final int PARQUET_METADATA_LENGTH = 4;
     private static final byte[] MAGIC = "PAR1".getBytes(US_ASCII);
 
+    // Estimated heap sizes of the decoded objects, for weighing cached metadata. Column paths and
+    // properties are interned by Parquet, so they are shared between files and not counted.
+    private static final int STRING_INSTANCE_SIZE = ClassLayout.parseClass(String.class).instanceSize();
+    private static final int BLOCK_INSTANCE_SIZE = ClassLayout.parseClass(BlockMetaData.class).instanceSize() + 64;
+    // chunk metadata with its offsets and sizes, statistics, and the set of encodings
+    private static final int COLUMN_CHUNK_INSTANCE_SIZE = 64 + 48 + 128;
+    private static final int SET_ENTRY_SIZE = 48;
+    // primitive or group type with its field list and name index
+    private static final int SCHEMA_FIELD_INSTANCE_SIZE = 128;
+    private static final int MAP_ENTRY_SIZE = 48;
+
     private ParquetMetadataReader() {}
 
     public static ParquetMetadata readFooter(FileSystem fileSystem, Path file, long fileSize)
@@ -72,7 +87,12 @@ public final class ParquetMetadataReader
 
     public static ParquetMetadata readFooter(FSDataInputStream inputStream, Path file, long fileSize)
             throws IOException
+    {
+        return readFileMetadata(inputStream, file, fileSize).getParquetMetadata();
+    }
 
+    public static ParquetFileMetadata readFileMetadata(FSDataInputStream inputStream, Path file, long fileSize)
+            throws IOException
     {
         // Parquet File Layout:
         //
@@ -104,9 +124,14 @@ public final class ParquetMetadataReader
         validateParquet(!schema.isEmpty(), "Empty Parquet schema in file: %s", file);
 
         MessageType messageType = readParquetSchema(schema);
+        long retainedSize = 0;
+        for (SchemaElement element : schema) {
+            retainedSize += SCHEMA_FIELD_INSTANCE_SIZE + estimatedSizeOf(element.name);
+        }
         List<BlockMetaData> blocks = new ArrayList<>();
         List<RowGroup> rowGroups = fileMetaData.getRow_groups();
         if (rowGroups != null) {
+            retainedSize += sizeOfObjectArray(rowGroups.size());
             for (RowGroup rowGroup : rowGroups) {
                 BlockMetaData blockMetaData = new BlockMetaData();
                 blockMetaData.setRowCount(rowGroup.getNum_rows());
@@ -114,6 +139,7 @@ public final class ParquetMetadataReader
                 List<ColumnChunk> columns = rowGroup.getColumns();
                 validateParquet(!columns.isEmpty(), "No columns in row group: %s", rowGroup);
                 String filePath = columns.get(0).getFile_path();
+                retainedSize += BLOCK_INSTANCE_SIZE + sizeOfObjectArray(columns.size()) + estimatedSizeOf(filePath);
                 for (ColumnChunk columnChunk : columns) {
                     validateParquet(
                             (filePath == null && columnChunk.getFile_path() == null)
@@ -137,6 +163,10 @@ public final class ParquetMetadataReader
                             metaData.total_compressed_size,
                             metaData.total_uncompressed_size);
                     blockMetaData.addColumn(column);
+                    retainedSize += COLUMN_CHUNK_INSTANCE_SIZE + metaData.encodings.size() * SET_ENTRY_SIZE;
+                    if (metaData.statistics != null && metaData.statistics.isSetMax() && metaData.statistics.isSetMin()) {
+                        retainedSize += sizeOfByteArray(metaData.statistics.min.remaining()) + sizeOfByteArray(metaData.statistics.max.remaining());
+                    }
                 }
                 blockMetaData.setPath(filePath);
                 blocks.add(blockMetaData);
@@ -148,9 +178,20 @@ public final class ParquetMetadataReader
         if (keyValueList != null) {
             for (KeyValue keyValue : keyValueList) {
                 keyValueMetaData.put(keyValue.key, keyValue.value);
+                retainedSize += MAP_ENTRY_SIZE + estimatedSizeOf(keyValue.key) + estimatedSizeOf(keyValue.value);
             }
         }
-        return new ParquetMetadata(new parquet.hadoop.metadata.FileMetaData(messageType, keyValueMetaData, fileMetaData.getCreated_by()), blocks);
+        ParquetMetadata parquetMetadata = new ParquetMetadata(new parquet.hadoop.metadata.FileMetaData(messageType, keyValueMetaData, fileMetaData.getCreated_by()), blocks);
+        retainedSize += estimatedSizeOf(fileMetaData.getCreated_by());
+        return new ParquetFileMetadata(parquetMetadata, metadataLength, retainedSize);
+    }
+
+    private static long estimatedSizeOf(String value)
+    {
+        if (value == null) {
+            return 0;
+        }
+        return STRING_INSTANCE_SIZE + sizeOfCharArray(value.length());
     }
 
     private static MessageType readParquetSchema(List<SchemaElement> schema)
@@ -28,6 +28,10 @@ import com.facebook.presto.spi.block.RunLengthEncodedBlock;
 import com.facebook.presto.spi.type.MapType;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeSignatureParameter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.SettableFuture;
 import it.unimi.dsi.fastutil.booleans.BooleanArrayList;
 import it.unimi.dsi.fastutil.booleans.BooleanList;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -42,8 +46,12 @@ import parquet.io.PrimitiveColumnIO;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.facebook.presto.hive.parquet.ParquetValidationUtils.validateParquet;
 import static com.facebook.presto.hive.parquet.reader.ParquetListColumnReader.calculateCollectionOffsets;
@@ -51,6 +59,9 @@ import static com.facebook.presto.spi.type.StandardTypes.ARRAY;
 import static com.facebook.presto.spi.type.StandardTypes.MAP;
 import static com.facebook.presto.spi.type.StandardTypes.ROW;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
@@ -59,6 +70,7 @@ public class ParquetReader
         implements Closeable
 {
     private static final int MAX_VECTOR_LENGTH = 1024;
+    private static final ListenableFuture<?> NOT_BLOCKED = immediateFuture(null);
 
     private final List<BlockMetaData> blocks;
     private final List<PrimitiveColumnIO> columns;
@@ -75,10 +87,32 @@ public class ParquetReader
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
 
+    // reads the column chunks of the next row group in the background while the current row group is decoded
+    private final Optional<Executor> prefetchExecutor;
+    // column chunks keyed by their starting position in the file
+    private ListenableFuture<Map<Long, byte[]>> nextRowGroupColumnChunks;
+    private Map<Long, byte[]> currentRowGroupColumnChunks = ImmutableMap.of();
+    private final LocalMemoryContext prefetchMemoryContext;
+    private long currentRowGroupPrefetchBytes;
+    private long nextRowGroupPrefetchBytes;
+
     public ParquetReader(MessageColumnIO messageColumnIO,
             List<BlockMetaData> blocks,
             ParquetDataSource dataSource,
             AggregatedMemoryContext systemMemoryContext)
+    {
+        this(messageColumnIO, blocks, dataSource, systemMemoryContext, Optional.empty());
+    }
+
+    /**
+     * @param prefetchExecutor executor used to read the next row group while the current row group
+     * is decoded; only used if the data source supports concurrent reads
+     */
+    public ParquetReader(MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            ParquetDataSource dataSource,
+            AggregatedMemoryContext systemMemoryContext,
+            Optional<Executor> prefetchExecutor)
     {
         this.blocks = blocks;
         this.dataSource = requireNonNull(dataSource, "dataSource is null");
@@ -86,16 +120,42 @@ public class ParquetReader
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         columns = messageColumnIO.getLeaves();
         columnReaders = new ParquetPrimitiveColumnReader[columns.size()];
+
+        requireNonNull(prefetchExecutor, "prefetchExecutor is null");
+        this.prefetchExecutor = dataSource.isConcurrentReadSupported() ? prefetchExecutor : Optional.empty();
+        this.prefetchMemoryContext = systemMemoryContext.newLocalMemoryContext(ParquetReader.class.getSimpleName());
+        startPrefetch(0);
     }
 
     @Override
     public void close()
             throws IOException
     {
+        if (nextRowGroupColumnChunks != null) {
+            nextRowGroupColumnChunks.cancel(false);
+            nextRowGroupColumnChunks = null;
+        }
+        currentRowGroupColumnChunks = ImmutableMap.of();
+        prefetchMemoryContext.setBytes(0);
         currentRowGroupMemoryContext.close();
         dataSource.close();
     }
 
+    /**
+     * Returns a future that completes when the next row group has been read, if the rows of the
+     * current row group are exhausted and the next row group is read in the background.
+     */
+    public ListenableFuture<?> isBlocked()
+    {
+        if (nextRowInGroup < currentGroupRowCount || nextRowGroupColumnChunks == null || nextRowGroupColumnChunks.isDone()) {
+            return NOT_BLOCKED;
+        }
+        // a failed read is repeated on demand, which reports the error
+        SettableFuture<?> done = SettableFuture.create();
+        nextRowGroupColumnChunks.addListener(() -> done.set(null), directExecutor());
+        return done;
+    }
+
     public long getPosition()
     {
         return currentPosition;
@@ -127,6 +187,11 @@ public class ParquetReader
         currentBlockMetadata = blocks.get(currentBlock);
         currentBlock = currentBlock + 1;
 
+        if (prefetchExecutor.isPresent()) {
+            usePrefetchedRowGroup();
+            startPrefetch(currentBlock);
+        }
+
         nextRowInGroup = 0L;
         currentGroupRowCount = currentBlockMetadata.getRowCount();
         initializeColumnReaders();
@@ -199,8 +264,11 @@ public class ParquetReader
             ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
             long startingPosition = metadata.getStartingPos();
             int totalSize = toIntExact(metadata.getTotalSize());
-            byte[] buffer = allocateBlock(totalSize);
-            dataSource.readFully(startingPosition, buffer);
+            byte[] buffer = currentRowGroupColumnChunks.get(startingPosition);
+            if (buffer == null || buffer.length != totalSize) {
+                buffer = allocateBlock(totalSize);
+                dataSource.readFully(startingPosition, buffer);
+            }
             ParquetColumnChunkDescriptor descriptor = new ParquetColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
             ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
             columnReader.setPageReader(columnChunk.readAllPages());
@@ -216,15 +284,90 @@ public class ParquetReader
         return buffer;
     }
 
+    /**
+     * Starts reading the column chunks of the row group in the background.
+     */
+    private void startPrefetch(int blockIndex)
+    {
+        nextRowGroupColumnChunks = null;
+        nextRowGroupPrefetchBytes = 0;
+        if (!prefetchExecutor.isPresent() || blockIndex >= blocks.size()) {
+            return;
+        }
+
+        BlockMetaData block = blocks.get(blockIndex);
+        Map<Long, Integer> columnChunks = new LinkedHashMap<>();
+        for (PrimitiveColumnIO columnIO : columns) {
+            Optional<ColumnChunkMetaData> metadata = findColumnChunkMetaData(block, columnIO.getColumnDescriptor());
+            // a missing column chunk is reported when the row group is read
+            if (metadata.isPresent()) {
+                int totalSize = toIntExact(metadata.get().getTotalSize());
+                columnChunks.put(metadata.get().getStartingPos(), totalSize);
+                nextRowGroupPrefetchBytes += totalSize;
+            }
+        }
+        prefetchMemoryContext.setBytes(currentRowGroupPrefetchBytes + nextRowGroupPrefetchBytes);
+
+        ListenableFutureTask<Map<Long, byte[]>> task = ListenableFutureTask.create(() -> {
+            ImmutableMap.Builder<Long, byte[]> buffers = ImmutableMap.builder();
+            for (Map.Entry<Long, Integer> entry : columnChunks.entrySet()) {
+                byte[] buffer = new byte[entry.getValue()];
+                dataSource.readFullyInBackground(entry.getKey(), buffer);
+                buffers.put(entry.getKey(), buffer);
+            }
+            return buffers.build();
+        });
+        try {
+            prefetchExecutor.get().execute(task);
+            nextRowGroupColumnChunks = task;
+        }
+        catch (RejectedExecutionException e) {
+            nextRowGroupPrefetchBytes = 0;
+            prefetchMemoryContext.setBytes(currentRowGroupPrefetchBytes);
+        }
+    }
+
+    /**
+     * Waits for the read of the current row group, which was started while the previous row group was decoded.
+     * If the read failed, the column chunks are read on demand instead, which reports the error.
+     */
+    private void usePrefetchedRowGroup()
+    {
+        currentRowGroupColumnChunks = ImmutableMap.of();
+        currentRowGroupPrefetchBytes = 0;
+        if (nextRowGroupColumnChunks != null) {
+            long start = System.nanoTime();
+            try {
+                currentRowGroupColumnChunks = getFutureValue(nextRowGroupColumnChunks);
+                currentRowGroupPrefetchBytes = nextRowGroupPrefetchBytes;
+            }
+            catch (RuntimeException ignored) {
+            }
+            finally {
+                dataSource.addReadTimeNanos(System.nanoTime() - start);
+            }
+        }
+        prefetchMemoryContext.setBytes(currentRowGroupPrefetchBytes);
+    }
+
     private ColumnChunkMetaData getColumnChunkMetaData(ColumnDescriptor columnDescriptor)
             throws IOException
     {
-        for (ColumnChunkMetaData metadata : currentBlockMetadata.getColumns()) {
+        Optional<ColumnChunkMetaData> metadata = findColumnChunkMetaData(currentBlockMetadata, columnDescriptor);
+        if (metadata.isPresent()) {
+            return metadata.get();
+        }
+        throw new ParquetCorruptionException("Metadata is missing for column: %s", columnDescriptor);
+    }
+
+    private static Optional<ColumnChunkMetaData> findColumnChunkMetaData(BlockMetaData block, ColumnDescriptor columnDescriptor)
+    {
+        for (ColumnChunkMetaData metadata : block.getColumns()) {
             if (metadata.getPath().equals(ColumnPath.get(columnDescriptor.getPath()))) {
-                return metadata;
+                return Optional.of(metadata);
             }
         }
-        throw new ParquetCorruptionException("Metadata is missing for column: %s", columnDescriptor);
+        return Optional.empty();
     }
 
     private void initializeColumnReaders()
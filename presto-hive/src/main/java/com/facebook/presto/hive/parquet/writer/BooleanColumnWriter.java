@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import org.openjdk.jol.info.ClassLayout;
+import parquet.format.Encoding;
+import parquet.hadoop.metadata.CompressionCodecName;
+
+import java.util.Optional;
+
+/**
+ * Booleans are PLAIN encoded, which packs the values into single bits.
+ */
+public class BooleanColumnWriter
+        extends PrimitiveColumnWriter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BooleanColumnWriter.class).instanceSize();
+
+    private final Type type;
+    private final DynamicSliceOutput values = new DynamicSliceOutput(1024);
+    private int bitBuffer;
+    private int bitCount;
+
+    public BooleanColumnWriter(String columnName, Type type, CompressionCodecName compressionCodec, int maxPageSize)
+    {
+        super(columnName, type, parquet.format.Type.BOOLEAN, compressionCodec, maxPageSize);
+        this.type = type;
+    }
+
+    @Override
+    protected void writeValue(Block block, int position)
+    {
+        if (type.getBoolean(block, position)) {
+            bitBuffer |= 1 << bitCount;
+        }
+        bitCount++;
+        if (bitCount == Byte.SIZE) {
+            flushBits();
+        }
+    }
+
+    @Override
+    protected long getBufferedValueBytes()
+    {
+        return values.size() + (bitCount > 0 ? 1 : 0);
+    }
+
+    @Override
+    protected Encoding writePageValues(SliceOutput output)
+    {
+        if (bitCount > 0) {
+            flushBits();
+        }
+        output.writeBytes(values.slice());
+        values.reset();
+        return Encoding.PLAIN;
+    }
+
+    @Override
+    protected Optional<Slice> getDictionaryPage()
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    protected int getDictionarySize()
+    {
+        return 0;
+    }
+
+    @Override
+    protected long getValueRetainedBytes()
+    {
+        return INSTANCE_SIZE + values.getRetainedSize();
+    }
+
+    @Override
+    protected void resetValues()
+    {
+        values.reset();
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+
+    private void flushBits()
+    {
+        values.writeByte(bitBuffer);
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+}
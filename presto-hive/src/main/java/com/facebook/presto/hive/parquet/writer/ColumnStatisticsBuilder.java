@@ -0,0 +1,288 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import parquet.format.Statistics;
+
+import java.nio.ByteBuffer;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.Chars.isCharType;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.Varchars.isVarcharType;
+import static io.airlift.slice.SizeOf.SIZE_OF_DOUBLE;
+import static io.airlift.slice.SizeOf.SIZE_OF_FLOAT;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static java.lang.Float.intBitsToFloat;
+
+/**
+ * Collects the column chunk statistics in the format of the Parquet footer. Minimum and
+ * maximum values are only recorded for types with an unambiguous sort order in Parquet;
+ * for the remaining types (timestamp, decimal, varbinary) only the null count is written.
+ */
+public abstract class ColumnStatisticsBuilder
+{
+    private long nullCount;
+    private long nonNullCount;
+
+    public static ColumnStatisticsBuilder createStatisticsBuilder(Type type)
+    {
+        if (type.equals(BOOLEAN)) {
+            return new BooleanStatisticsBuilder();
+        }
+        if (type.equals(TINYINT) || type.equals(SMALLINT) || type.equals(INTEGER) || type.equals(DATE)) {
+            return new IntegerStatisticsBuilder(type, SIZE_OF_INT);
+        }
+        if (type.equals(BIGINT)) {
+            return new IntegerStatisticsBuilder(type, SIZE_OF_LONG);
+        }
+        if (type.equals(REAL)) {
+            return new FloatingPointStatisticsBuilder(type, SIZE_OF_FLOAT);
+        }
+        if (type.equals(DOUBLE)) {
+            return new FloatingPointStatisticsBuilder(type, SIZE_OF_DOUBLE);
+        }
+        if (isVarcharType(type) || isCharType(type)) {
+            return new SliceStatisticsBuilder(type);
+        }
+        return new NullCountStatisticsBuilder();
+    }
+
+    public void addNull()
+    {
+        nullCount++;
+    }
+
+    public void addValue(Block block, int position)
+    {
+        nonNullCount++;
+        addNonNullValue(block, position);
+    }
+
+    /**
+     * Called once all positions of the current block are added.
+     */
+    public void finishBlock() {}
+
+    public Statistics build()
+    {
+        Statistics statistics = new Statistics();
+        statistics.setNull_count(nullCount);
+        if (nonNullCount > 0) {
+            writeMinMax(statistics);
+        }
+        return statistics;
+    }
+
+    protected abstract void addNonNullValue(Block block, int position);
+
+    protected abstract void writeMinMax(Statistics statistics);
+
+    private static class NullCountStatisticsBuilder
+            extends ColumnStatisticsBuilder
+    {
+        @Override
+        protected void addNonNullValue(Block block, int position) {}
+
+        @Override
+        protected void writeMinMax(Statistics statistics) {}
+    }
+
+    private static class BooleanStatisticsBuilder
+            extends ColumnStatisticsBuilder
+    {
+        private boolean hasTrueValue;
+        private boolean hasFalseValue;
+
+        @Override
+        protected void addNonNullValue(Block block, int position)
+        {
+            if (BOOLEAN.getBoolean(block, position)) {
+                hasTrueValue = true;
+            }
+            else {
+                hasFalseValue = true;
+            }
+        }
+
+        @Override
+        protected void writeMinMax(Statistics statistics)
+        {
+            statistics.setMin(ByteBuffer.wrap(new byte[] {(byte) (hasFalseValue ? 0 : 1)}));
+            statistics.setMax(ByteBuffer.wrap(new byte[] {(byte) (hasTrueValue ? 1 : 0)}));
+        }
+    }
+
+    private static class IntegerStatisticsBuilder
+            extends ColumnStatisticsBuilder
+    {
+        private final Type type;
+        private final int size;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        public IntegerStatisticsBuilder(Type type, int size)
+        {
+            this.type = type;
+            this.size = size;
+        }
+
+        @Override
+        protected void addNonNullValue(Block block, int position)
+        {
+            long value = type.getLong(block, position);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        @Override
+        protected void writeMinMax(Statistics statistics)
+        {
+            statistics.setMin(encode(min));
+            statistics.setMax(encode(max));
+        }
+
+        private ByteBuffer encode(long value)
+        {
+            Slice slice = Slices.allocate(size);
+            if (size == SIZE_OF_INT) {
+                slice.setInt(0, (int) value);
+            }
+            else {
+                slice.setLong(0, value);
+            }
+            return ByteBuffer.wrap(slice.getBytes());
+        }
+    }
+
+    private static class FloatingPointStatisticsBuilder
+            extends ColumnStatisticsBuilder
+    {
+        private final Type type;
+        private final int size;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private boolean hasNaN;
+
+        public FloatingPointStatisticsBuilder(Type type, int size)
+        {
+            this.type = type;
+            this.size = size;
+        }
+
+        @Override
+        protected void addNonNullValue(Block block, int position)
+        {
+            double value;
+            if (size == SIZE_OF_FLOAT) {
+                value = intBitsToFloat((int) type.getLong(block, position));
+            }
+            else {
+                value = type.getDouble(block, position);
+            }
+
+            if (Double.isNaN(value)) {
+                hasNaN = true;
+                return;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        @Override
+        protected void writeMinMax(Statistics statistics)
+        {
+            // NaN is not ordered, so any range would be incorrect
+            if (hasNaN) {
+                return;
+            }
+            statistics.setMin(encode(min));
+            statistics.setMax(encode(max));
+        }
+
+        private ByteBuffer encode(double value)
+        {
+            Slice slice = Slices.allocate(size);
+            if (size == SIZE_OF_FLOAT) {
+                slice.setFloat(0, (float) value);
+            }
+            else {
+                slice.setDouble(0, value);
+            }
+            return ByteBuffer.wrap(slice.getBytes());
+        }
+    }
+
+    private static class SliceStatisticsBuilder
+            extends ColumnStatisticsBuilder
+    {
+        private final Type type;
+        private Slice min;
+        private Slice max;
+        private boolean minRetainsBlock;
+        private boolean maxRetainsBlock;
+
+        public SliceStatisticsBuilder(Type type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        protected void addNonNullValue(Block block, int position)
+        {
+            // Slice comparison is unsigned, which matches the Parquet sort order for UTF8
+            Slice value = type.getSlice(block, position);
+            if (min == null || value.compareTo(min) < 0) {
+                min = value;
+                minRetainsBlock = true;
+            }
+            if (max == null || value.compareTo(max) > 0) {
+                max = value;
+                maxRetainsBlock = true;
+            }
+        }
+
+        @Override
+        public void finishBlock()
+        {
+            // the values are views of the block, so copy them to avoid retaining the block
+            if (minRetainsBlock) {
+                min = Slices.copyOf(min);
+                minRetainsBlock = false;
+            }
+            if (maxRetainsBlock) {
+                max = Slices.copyOf(max);
+                maxRetainsBlock = false;
+            }
+        }
+
+        @Override
+        protected void writeMinMax(Statistics statistics)
+        {
+            statistics.setMin(ByteBuffer.wrap(min.getBytes()));
+            statistics.setMax(ByteBuffer.wrap(max.getBytes()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.block.Block;
+import io.airlift.slice.OutputStreamSliceOutput;
+import parquet.format.ColumnChunk;
+
+import java.io.IOException;
+
+public interface ColumnWriter
+{
+    void writeBlock(Block block)
+            throws IOException;
+
+    /**
+     * Write the buffered pages of the current row group to the output as a single column chunk,
+     * and reset the writer for the next row group.
+     */
+    ColumnChunk writeColumnChunk(OutputStreamSliceOutput output)
+            throws IOException;
+
+    /**
+     * This method returns the size of the buffered pages plus the data of the current page.
+     * If the output is compressed, the size of the completed pages is the size after compression.
+     */
+    long getBufferedBytes();
+
+    long getRetainedBytes();
+}
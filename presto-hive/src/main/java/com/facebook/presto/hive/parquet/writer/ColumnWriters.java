@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.type.DecimalType;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.Slice;
+import parquet.hadoop.metadata.CompressionCodecName;
+
+import java.math.BigInteger;
+
+import static com.facebook.presto.hive.parquet.ParquetTimestampUtils.writeTimestampMillis;
+import static com.facebook.presto.hive.parquet.writer.ParquetSchemaConverter.getDecimalByteLength;
+import static com.facebook.presto.hive.parquet.writer.ParquetSchemaConverter.getParquetType;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.Decimals.decodeUnscaledValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+public final class ColumnWriters
+{
+    private ColumnWriters() {}
+
+    public static ColumnWriter createColumnWriter(String columnName, Type type, CompressionCodecName compressionCodec, ParquetWriterOptions options)
+    {
+        requireNonNull(type, "type is null");
+        int maxPageSize = toIntExact(options.getMaxPageSize().toBytes());
+        if (type.equals(BOOLEAN)) {
+            return new BooleanColumnWriter(columnName, type, compressionCodec, maxPageSize);
+        }
+
+        parquet.format.Type parquetType = getParquetType(type);
+        return new DictionaryColumnWriter(
+                columnName,
+                type,
+                parquetType,
+                compressionCodec,
+                maxPageSize,
+                options.getMaxDictionarySize().toBytes(),
+                createPlainValueWriter(type, parquetType));
+    }
+
+    private static PlainValueWriter createPlainValueWriter(Type type, parquet.format.Type parquetType)
+    {
+        switch (parquetType) {
+            case INT32:
+            case FLOAT:
+                // REAL is stored as the raw int bits of the float
+                return (output, block, position) -> output.writeInt((int) type.getLong(block, position));
+            case INT64:
+                return (output, block, position) -> output.writeLong(type.getLong(block, position));
+            case DOUBLE:
+                return (output, block, position) -> output.writeDouble(type.getDouble(block, position));
+            case INT96:
+                return (output, block, position) -> writeTimestampMillis(output, type.getLong(block, position));
+            case BYTE_ARRAY:
+                return (output, block, position) -> {
+                    Slice value = type.getSlice(block, position);
+                    output.writeInt(value.length());
+                    output.writeBytes(value);
+                };
+            case FIXED_LEN_BYTE_ARRAY:
+                return createDecimalValueWriter((DecimalType) type);
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    private static PlainValueWriter createDecimalValueWriter(DecimalType type)
+    {
+        int length = getDecimalByteLength(type.getPrecision());
+        if (type.isShort()) {
+            // big endian two's complement, sign extended to the fixed length
+            return (output, block, position) -> {
+                long unscaledValue = type.getLong(block, position);
+                for (int i = length - 1; i >= 0; i--) {
+                    output.writeByte((int) (unscaledValue >> (i * Byte.SIZE)));
+                }
+            };
+        }
+        return (output, block, position) -> {
+            BigInteger unscaledValue = decodeUnscaledValue(type.getSlice(block, position));
+            byte[] bytes = unscaledValue.toByteArray();
+            checkArgument(bytes.length <= length, "Decimal value %s does not fit in %s bytes", unscaledValue, length);
+            int padding = unscaledValue.signum() < 0 ? -1 : 0;
+            for (int i = bytes.length; i < length; i++) {
+                output.writeByte(padding);
+            }
+            output.writeBytes(bytes);
+        };
+    }
+}
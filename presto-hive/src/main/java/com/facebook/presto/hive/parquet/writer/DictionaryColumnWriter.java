@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.openjdk.jol.info.ClassLayout;
+import parquet.format.Encoding;
+import parquet.hadoop.metadata.CompressionCodecName;
+
+import java.util.Optional;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes values with the PLAIN_DICTIONARY encoding, and falls back to the PLAIN encoding
+ * for the rest of the column chunk when the dictionary grows past the configured size or
+ * when the first page shows that the dictionary does not reduce the size of the data.
+ * Pages written before the fall back keep referencing the dictionary.
+ */
+public class DictionaryColumnWriter
+        extends PrimitiveColumnWriter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(DictionaryColumnWriter.class).instanceSize();
+
+    private final PlainValueWriter valueWriter;
+    private final long maxDictionarySize;
+
+    private final PlainDictionaryBuilder dictionary = new PlainDictionaryBuilder();
+    private final IntArrayList dictionaryIds = new IntArrayList();
+    private final DynamicSliceOutput valueBuffer = new DynamicSliceOutput(32);
+    private final DynamicSliceOutput plainValues = new DynamicSliceOutput(1024);
+
+    private boolean dictionaryEnabled = true;
+    private int dictionaryPageCount;
+    // PLAIN encoded size of the values of the current page while dictionary encoding
+    private long rawValueBytes;
+
+    public DictionaryColumnWriter(
+            String columnName,
+            Type type,
+            parquet.format.Type parquetType,
+            CompressionCodecName compressionCodec,
+            int maxPageSize,
+            long maxDictionarySize,
+            PlainValueWriter valueWriter)
+    {
+        super(columnName, type, parquetType, compressionCodec, maxPageSize);
+        this.maxDictionarySize = maxDictionarySize;
+        this.valueWriter = requireNonNull(valueWriter, "valueWriter is null");
+    }
+
+    @Override
+    protected void writeValue(Block block, int position)
+    {
+        if (!dictionaryEnabled) {
+            valueWriter.write(plainValues, block, position);
+            return;
+        }
+
+        valueBuffer.reset();
+        valueWriter.write(valueBuffer, block, position);
+        rawValueBytes += valueBuffer.size();
+        dictionaryIds.add(dictionary.putIfAbsent(valueBuffer.getUnderlyingSlice(), valueBuffer.size()));
+
+        if (dictionary.getSizeInBytes() > maxDictionarySize) {
+            fallBackToPlainEncoding();
+        }
+    }
+
+    @Override
+    protected long getBufferedValueBytes()
+    {
+        if (dictionaryEnabled) {
+            if (dictionaryIds.isEmpty()) {
+                return 0;
+            }
+            // bit width prefix followed by the bit-packed ids
+            return 1 + ((long) dictionaryIds.size() * getDictionaryIdBitWidth() + Byte.SIZE - 1) / Byte.SIZE;
+        }
+        return plainValues.size();
+    }
+
+    @Override
+    protected Encoding writePageValues(SliceOutput output)
+    {
+        if (dictionaryEnabled && dictionaryPageCount == 0 && dictionary.getSizeInBytes() + getBufferedValueBytes() >= rawValueBytes) {
+            fallBackToPlainEncoding();
+        }
+
+        if (!dictionaryEnabled) {
+            output.writeBytes(plainValues.slice());
+            plainValues.reset();
+            return Encoding.PLAIN;
+        }
+
+        int bitWidth = getDictionaryIdBitWidth();
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, dictionaryIds.size() * bitWidth / Byte.SIZE + 16);
+        for (int i = 0; i < dictionaryIds.size(); i++) {
+            encoder.writeInt(dictionaryIds.getInt(i));
+        }
+        output.writeByte(bitWidth);
+        output.writeBytes(encoder.toSlice());
+
+        dictionaryIds.clear();
+        rawValueBytes = 0;
+        dictionaryPageCount++;
+        return Encoding.PLAIN_DICTIONARY;
+    }
+
+    @Override
+    protected Optional<Slice> getDictionaryPage()
+    {
+        if (dictionaryPageCount == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(dictionary.getValues());
+    }
+
+    @Override
+    protected int getDictionarySize()
+    {
+        return dictionary.getSize();
+    }
+
+    @Override
+    protected long getValueRetainedBytes()
+    {
+        return INSTANCE_SIZE +
+                dictionary.getRetainedBytes() +
+                sizeOf(dictionaryIds.elements()) +
+                valueBuffer.getRetainedSize() +
+                plainValues.getRetainedSize();
+    }
+
+    @Override
+    protected void resetValues()
+    {
+        dictionary.clear();
+        dictionaryIds.clear();
+        plainValues.reset();
+        dictionaryEnabled = true;
+        dictionaryPageCount = 0;
+        rawValueBytes = 0;
+    }
+
+    private void fallBackToPlainEncoding()
+    {
+        for (int i = 0; i < dictionaryIds.size(); i++) {
+            dictionary.writeValue(plainValues, dictionaryIds.getInt(i));
+        }
+        dictionaryIds.clear();
+        rawValueBytes = 0;
+        dictionaryEnabled = false;
+
+        // the dictionary is only needed if a previous page references it
+        if (dictionaryPageCount == 0) {
+            dictionary.clear();
+        }
+    }
+
+    private int getDictionaryIdBitWidth()
+    {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(dictionary.getSize() - 1, 0));
+    }
+}
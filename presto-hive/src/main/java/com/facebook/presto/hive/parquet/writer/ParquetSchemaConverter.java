@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.type.DecimalType;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import parquet.format.ConvertedType;
+import parquet.format.FieldRepetitionType;
+import parquet.format.SchemaElement;
+
+import java.util.List;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.Chars.isCharType;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.SmallintType.SMALLINT;
+import static com.facebook.presto.spi.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.spi.type.TinyintType.TINYINT;
+import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.spi.type.Varchars.isVarcharType;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Maps Presto types to the flat Parquet schema written for Hive tables. Every column is
+ * an optional primitive, and the physical representation follows the Hive Parquet SerDe.
+ */
+public final class ParquetSchemaConverter
+{
+    public static final String HIVE_SCHEMA_NAME = "hive_schema";
+
+    private ParquetSchemaConverter() {}
+
+    public static boolean isSupportedType(Type type)
+    {
+        return type.equals(BOOLEAN) ||
+                type.equals(TINYINT) ||
+                type.equals(SMALLINT) ||
+                type.equals(INTEGER) ||
+                type.equals(BIGINT) ||
+                type.equals(REAL) ||
+                type.equals(DOUBLE) ||
+                type.equals(DATE) ||
+                type.equals(TIMESTAMP) ||
+                type.equals(VARBINARY) ||
+                isVarcharType(type) ||
+                isCharType(type) ||
+                type instanceof DecimalType;
+    }
+
+    public static List<SchemaElement> toSchema(List<String> columnNames, List<Type> types)
+    {
+        checkArgument(columnNames.size() == types.size(), "columnNames and types do not match");
+
+        ImmutableList.Builder<SchemaElement> schema = ImmutableList.builder();
+        SchemaElement root = new SchemaElement(HIVE_SCHEMA_NAME);
+        root.setNum_children(columnNames.size());
+        schema.add(root);
+        for (int i = 0; i < columnNames.size(); i++) {
+            schema.add(toSchemaElement(columnNames.get(i), types.get(i)));
+        }
+        return schema.build();
+    }
+
+    private static SchemaElement toSchemaElement(String name, Type type)
+    {
+        SchemaElement element = new SchemaElement(name);
+        element.setType(getParquetType(type));
+        element.setRepetition_type(FieldRepetitionType.OPTIONAL);
+
+        if (type.equals(TINYINT)) {
+            element.setConverted_type(ConvertedType.INT_8);
+        }
+        else if (type.equals(SMALLINT)) {
+            element.setConverted_type(ConvertedType.INT_16);
+        }
+        else if (type.equals(DATE)) {
+            element.setConverted_type(ConvertedType.DATE);
+        }
+        else if (isVarcharType(type) || isCharType(type)) {
+            element.setConverted_type(ConvertedType.UTF8);
+        }
+        else if (type instanceof DecimalType) {
+            DecimalType decimalType = (DecimalType) type;
+            element.setConverted_type(ConvertedType.DECIMAL);
+            element.setPrecision(decimalType.getPrecision());
+            element.setScale(decimalType.getScale());
+            element.setType_length(getDecimalByteLength(decimalType.getPrecision()));
+        }
+        return element;
+    }
+
+    public static parquet.format.Type getParquetType(Type type)
+    {
+        if (type.equals(BOOLEAN)) {
+            return parquet.format.Type.BOOLEAN;
+        }
+        if (type.equals(TINYINT) || type.equals(SMALLINT) || type.equals(INTEGER) || type.equals(DATE)) {
+            return parquet.format.Type.INT32;
+        }
+        if (type.equals(BIGINT)) {
+            return parquet.format.Type.INT64;
+        }
+        if (type.equals(REAL)) {
+            return parquet.format.Type.FLOAT;
+        }
+        if (type.equals(DOUBLE)) {
+            return parquet.format.Type.DOUBLE;
+        }
+        if (type.equals(TIMESTAMP)) {
+            return parquet.format.Type.INT96;
+        }
+        if (type.equals(VARBINARY) || isVarcharType(type) || isCharType(type)) {
+            return parquet.format.Type.BYTE_ARRAY;
+        }
+        if (type instanceof DecimalType) {
+            return parquet.format.Type.FIXED_LEN_BYTE_ARRAY;
+        }
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+
+    /**
+     * Returns the minimal number of bytes needed to store the two's complement unscaled value
+     * of a decimal with the given precision, matching the Hive Parquet SerDe.
+     */
+    public static int getDecimalByteLength(int precision)
+    {
+        return (int) Math.ceil((Math.log(Math.pow(10, precision) - 1) / Math.log(2) + 1) / Byte.SIZE);
+    }
+}
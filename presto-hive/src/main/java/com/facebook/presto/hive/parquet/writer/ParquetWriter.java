@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+import parquet.format.ColumnChunk;
+import parquet.format.FileMetaData;
+import parquet.format.KeyValue;
+import parquet.format.RowGroup;
+import parquet.format.SchemaElement;
+import parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.hive.parquet.writer.ColumnWriters.createColumnWriter;
+import static com.facebook.presto.hive.parquet.writer.ParquetSchemaConverter.toSchema;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static parquet.format.Util.writeFileMetaData;
+
+/**
+ * Writes pages directly to a Parquet file. All columns of a row group are buffered in
+ * memory as compressed pages, and the row group is flushed once the buffered size
+ * reaches the configured maximum row group size.
+ */
+public class ParquetWriter
+        implements Closeable
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(ParquetWriter.class).instanceSize();
+
+    private static final Slice MAGIC = utf8Slice("PAR1");
+    private static final int FORMAT_VERSION = 1;
+    private static final String CREATED_BY = "presto";
+
+    private final OutputStreamSliceOutput output;
+    private final List<SchemaElement> schema;
+    private final List<ColumnWriter> columnWriters;
+    private final Map<String, String> metadata;
+    private final long maxRowGroupSize;
+
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+    private long rowGroupRowCount;
+    private long rowCount;
+    private boolean closed;
+
+    public ParquetWriter(
+            OutputStream outputStream,
+            List<String> columnNames,
+            List<Type> types,
+            CompressionCodecName compressionCodec,
+            ParquetWriterOptions options,
+            Map<String, String> metadata)
+    {
+        requireNonNull(outputStream, "outputStream is null");
+        requireNonNull(columnNames, "columnNames is null");
+        requireNonNull(types, "types is null");
+        checkArgument(columnNames.size() == types.size(), "columnNames and types do not match");
+        requireNonNull(compressionCodec, "compressionCodec is null");
+        requireNonNull(options, "options is null");
+
+        this.output = new OutputStreamSliceOutput(outputStream);
+        this.schema = toSchema(columnNames, types);
+        ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            columnWriters.add(createColumnWriter(columnNames.get(i), types.get(i), compressionCodec, options));
+        }
+        this.columnWriters = columnWriters.build();
+        this.metadata = ImmutableMap.copyOf(requireNonNull(metadata, "metadata is null"));
+        this.maxRowGroupSize = options.getMaxRowGroupSize().toBytes();
+
+        output.writeBytes(MAGIC);
+    }
+
+    /**
+     * Number of bytes already written to the output.
+     */
+    public long getWrittenBytes()
+    {
+        return output.longSize();
+    }
+
+    /**
+     * Number of bytes buffered for the current row group.
+     */
+    public long getBufferedBytes()
+    {
+        long bufferedBytes = 0;
+        for (ColumnWriter columnWriter : columnWriters) {
+            bufferedBytes += columnWriter.getBufferedBytes();
+        }
+        return bufferedBytes;
+    }
+
+    public long getRetainedBytes()
+    {
+        long retainedBytes = INSTANCE_SIZE + output.getRetainedSize();
+        for (ColumnWriter columnWriter : columnWriters) {
+            retainedBytes += columnWriter.getRetainedBytes();
+        }
+        return retainedBytes;
+    }
+
+    public void write(Page page)
+            throws IOException
+    {
+        requireNonNull(page, "page is null");
+        checkState(!closed, "writer is closed");
+        checkArgument(page.getChannelCount() == columnWriters.size(), "page does not match the columns of the writer");
+
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+
+        for (int channel = 0; channel < columnWriters.size(); channel++) {
+            columnWriters.get(channel).writeBlock(page.getBlock(channel));
+        }
+        rowGroupRowCount += page.getPositionCount();
+
+        if (getBufferedBytes() >= maxRowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (OutputStreamSliceOutput output = this.output) {
+            flushRowGroup();
+            writeFooter();
+        }
+    }
+
+    private void flushRowGroup()
+            throws IOException
+    {
+        if (rowGroupRowCount == 0) {
+            return;
+        }
+
+        ImmutableList.Builder<ColumnChunk> columnChunks = ImmutableList.builder();
+        long totalByteSize = 0;
+        for (ColumnWriter columnWriter : columnWriters) {
+            ColumnChunk columnChunk = columnWriter.writeColumnChunk(output);
+            totalByteSize += columnChunk.getMeta_data().getTotal_uncompressed_size();
+            columnChunks.add(columnChunk);
+        }
+        rowGroups.add(new RowGroup(columnChunks.build(), totalByteSize, rowGroupRowCount));
+
+        rowCount += rowGroupRowCount;
+        rowGroupRowCount = 0;
+    }
+
+    private void writeFooter()
+            throws IOException
+    {
+        FileMetaData fileMetaData = new FileMetaData(FORMAT_VERSION, schema, rowCount, rowGroups);
+        fileMetaData.setCreated_by(CREATED_BY);
+        ImmutableList.Builder<KeyValue> keyValues = ImmutableList.builder();
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            KeyValue keyValue = new KeyValue(entry.getKey());
+            keyValue.setValue(entry.getValue());
+            keyValues.add(keyValue);
+        }
+        fileMetaData.setKey_value_metadata(keyValues.build());
+
+        long footerOffset = output.longSize();
+        writeFileMetaData(fileMetaData, output);
+        output.writeInt(toIntExact(output.longSize() - footerOffset));
+        output.writeBytes(MAGIC);
+    }
+}
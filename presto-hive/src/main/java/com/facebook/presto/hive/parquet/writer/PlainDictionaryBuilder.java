@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.XxHash64;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Dictionary of PLAIN encoded values. The values are kept in insertion order in a single
+ * buffer, which is also the content of the dictionary page.
+ */
+public class PlainDictionaryBuilder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(PlainDictionaryBuilder.class).instanceSize();
+
+    private static final int EMPTY_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float FILL_RATIO = 0.5f;
+
+    private final DynamicSliceOutput values = new DynamicSliceOutput(INITIAL_CAPACITY);
+    // offsets[i] is the start of value i, and offsets[size] is the end of the last value
+    private int[] offsets = new int[INITIAL_CAPACITY + 1];
+    private int[] valueHashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private int[] hashTable;
+    private int hashMask;
+    private int maxFill;
+
+    public PlainDictionaryBuilder()
+    {
+        initializeHashTable(INITIAL_CAPACITY * 2);
+    }
+
+    /**
+     * Returns the id of the value stored in the first {@code length} bytes of {@code value},
+     * adding it to the dictionary if it is not present yet.
+     */
+    public int putIfAbsent(Slice value, int length)
+    {
+        int hash = (int) XxHash64.hash(value, 0, length);
+        int slot = hash & hashMask;
+        while (hashTable[slot] != EMPTY_SLOT) {
+            int id = hashTable[slot];
+            if (valueHashes[id] == hash && valueEquals(id, value, length)) {
+                return id;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+
+        int id = addValue(value, length, hash);
+        hashTable[slot] = id;
+        if (size >= maxFill) {
+            rehash();
+        }
+        return id;
+    }
+
+    public void writeValue(SliceOutput output, int id)
+    {
+        output.writeBytes(values.getUnderlyingSlice(), offsets[id], offsets[id + 1] - offsets[id]);
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public long getSizeInBytes()
+    {
+        return values.size();
+    }
+
+    public Slice getValues()
+    {
+        return values.slice();
+    }
+
+    public long getRetainedBytes()
+    {
+        return INSTANCE_SIZE + values.getRetainedSize() + sizeOf(offsets) + sizeOf(valueHashes) + sizeOf(hashTable);
+    }
+
+    public void clear()
+    {
+        values.reset();
+        size = 0;
+        Arrays.fill(hashTable, EMPTY_SLOT);
+    }
+
+    private boolean valueEquals(int id, Slice value, int length)
+    {
+        int offset = offsets[id];
+        return offsets[id + 1] - offset == length && values.getUnderlyingSlice().equals(offset, length, value, 0, length);
+    }
+
+    private int addValue(Slice value, int length, int hash)
+    {
+        if (size == valueHashes.length) {
+            int newCapacity = valueHashes.length * 2;
+            valueHashes = Arrays.copyOf(valueHashes, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity + 1);
+        }
+        int id = size;
+        values.writeBytes(value, 0, length);
+        valueHashes[id] = hash;
+        offsets[id + 1] = values.size();
+        size++;
+        return id;
+    }
+
+    private void rehash()
+    {
+        initializeHashTable(hashTable.length * 2);
+        for (int id = 0; id < size; id++) {
+            int slot = valueHashes[id] & hashMask;
+            while (hashTable[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & hashMask;
+            }
+            hashTable[slot] = id;
+        }
+    }
+
+    private void initializeHashTable(int capacity)
+    {
+        hashTable = new int[capacity];
+        Arrays.fill(hashTable, EMPTY_SLOT);
+        hashMask = capacity - 1;
+        maxFill = (int) (capacity * FILL_RATIO);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import parquet.format.ColumnChunk;
+import parquet.format.ColumnMetaData;
+import parquet.format.DataPageHeader;
+import parquet.format.DictionaryPageHeader;
+import parquet.format.Encoding;
+import parquet.format.PageHeader;
+import parquet.format.PageType;
+import parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.hive.parquet.ParquetCompressionUtils.compress;
+import static com.facebook.presto.hive.parquet.writer.ColumnStatisticsBuilder.createStatisticsBuilder;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static java.util.Objects.requireNonNull;
+import static parquet.format.Util.writePageHeader;
+
+/**
+ * Writer of a top level optional column. Values are written to version 1 data pages with
+ * RLE encoded definition levels; the repetition levels are always zero and are not stored.
+ * The completed pages are compressed and buffered until the row group is flushed.
+ */
+public abstract class PrimitiveColumnWriter
+        implements ColumnWriter
+{
+    private static final int DEFINITION_LEVEL_BIT_WIDTH = 1;
+
+    private final String columnName;
+    private final Type type;
+    private final parquet.format.Type parquetType;
+    private final CompressionCodecName compressionCodec;
+    private final int maxPageSize;
+
+    private final RunLengthBitPackingHybridEncoder definitionLevels;
+    private int pageValueCount;
+
+    private ColumnStatisticsBuilder statisticsBuilder;
+    private final Set<Encoding> encodings = EnumSet.noneOf(Encoding.class);
+    private final List<Slice> pages = new ArrayList<>();
+    private long bufferedPageBytes;
+    private long chunkValueCount;
+    private long chunkUncompressedBytes;
+
+    protected PrimitiveColumnWriter(String columnName, Type type, parquet.format.Type parquetType, CompressionCodecName compressionCodec, int maxPageSize)
+    {
+        this.columnName = requireNonNull(columnName, "columnName is null");
+        this.type = requireNonNull(type, "type is null");
+        this.parquetType = requireNonNull(parquetType, "parquetType is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.maxPageSize = maxPageSize;
+        this.definitionLevels = new RunLengthBitPackingHybridEncoder(DEFINITION_LEVEL_BIT_WIDTH, 1024);
+        this.statisticsBuilder = createStatisticsBuilder(type);
+    }
+
+    /**
+     * Buffer the non-null value at the position in the current page.
+     */
+    protected abstract void writeValue(Block block, int position);
+
+    protected abstract long getBufferedValueBytes();
+
+    /**
+     * Write the values of the current page to the output and return their encoding.
+     */
+    protected abstract Encoding writePageValues(SliceOutput output);
+
+    /**
+     * Returns the PLAIN encoded dictionary, if any of the pages of the current column chunk use it.
+     */
+    protected abstract Optional<Slice> getDictionaryPage();
+
+    protected abstract int getDictionarySize();
+
+    protected abstract long getValueRetainedBytes();
+
+    protected abstract void resetValues();
+
+    @Override
+    public void writeBlock(Block block)
+            throws IOException
+    {
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            if (block.isNull(position)) {
+                definitionLevels.writeInt(0);
+                statisticsBuilder.addNull();
+            }
+            else {
+                definitionLevels.writeInt(1);
+                statisticsBuilder.addValue(block, position);
+                writeValue(block, position);
+            }
+            pageValueCount++;
+
+            if (getCurrentPageBytes() >= maxPageSize) {
+                flushPage();
+            }
+        }
+        statisticsBuilder.finishBlock();
+    }
+
+    @Override
+    public ColumnChunk writeColumnChunk(OutputStreamSliceOutput output)
+            throws IOException
+    {
+        flushPage();
+
+        long totalUncompressedSize = chunkUncompressedBytes;
+        long totalCompressedSize = bufferedPageBytes;
+
+        Optional<Slice> dictionaryPage = getDictionaryPage();
+        long dictionaryPageOffset = output.longSize();
+        if (dictionaryPage.isPresent()) {
+            Slice dictionary = dictionaryPage.get();
+            Slice compressedDictionary = compress(compressionCodec, dictionary);
+            PageHeader header = new PageHeader(PageType.DICTIONARY_PAGE, dictionary.length(), compressedDictionary.length());
+            header.setDictionary_page_header(new DictionaryPageHeader(getDictionarySize(), Encoding.PLAIN_DICTIONARY));
+            Slice headerBytes = serializePageHeader(header);
+            output.writeBytes(headerBytes);
+            output.writeBytes(compressedDictionary);
+            totalUncompressedSize += headerBytes.length() + dictionary.length();
+            totalCompressedSize += headerBytes.length() + compressedDictionary.length();
+            encodings.add(Encoding.PLAIN_DICTIONARY);
+        }
+
+        long dataPageOffset = output.longSize();
+        for (Slice page : pages) {
+            output.writeBytes(page);
+        }
+
+        ColumnMetaData metadata = new ColumnMetaData(
+                parquetType,
+                ImmutableList.copyOf(encodings),
+                ImmutableList.of(columnName),
+                compressionCodec.getParquetCompressionCodec(),
+                chunkValueCount,
+                totalUncompressedSize,
+                totalCompressedSize,
+                dataPageOffset);
+        if (dictionaryPage.isPresent()) {
+            metadata.setDictionary_page_offset(dictionaryPageOffset);
+        }
+        metadata.setStatistics(statisticsBuilder.build());
+
+        ColumnChunk columnChunk = new ColumnChunk(dataPageOffset);
+        columnChunk.setMeta_data(metadata);
+
+        reset();
+        return columnChunk;
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return bufferedPageBytes + getCurrentPageBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        long pagesSize = 0;
+        for (Slice page : pages) {
+            pagesSize += page.getRetainedSize();
+        }
+        return definitionLevels.getRetainedBytes() + pagesSize + getValueRetainedBytes();
+    }
+
+    private long getCurrentPageBytes()
+    {
+        return definitionLevels.getBufferedBytes() + getBufferedValueBytes();
+    }
+
+    private void flushPage()
+            throws IOException
+    {
+        if (pageValueCount == 0) {
+            return;
+        }
+
+        Slice levels = definitionLevels.toSlice();
+        DynamicSliceOutput pageOutput = new DynamicSliceOutput(SIZE_OF_INT + levels.length() + (int) getBufferedValueBytes());
+        pageOutput.writeInt(levels.length());
+        pageOutput.writeBytes(levels);
+        Encoding valueEncoding = writePageValues(pageOutput);
+        definitionLevels.reset();
+
+        Slice page = pageOutput.slice();
+        Slice compressedPage = compress(compressionCodec, page);
+        PageHeader header = new PageHeader(PageType.DATA_PAGE, page.length(), compressedPage.length());
+        header.setData_page_header(new DataPageHeader(pageValueCount, valueEncoding, Encoding.RLE, Encoding.BIT_PACKED));
+        Slice headerBytes = serializePageHeader(header);
+
+        DynamicSliceOutput pageWithHeader = new DynamicSliceOutput(headerBytes.length() + compressedPage.length());
+        pageWithHeader.writeBytes(headerBytes);
+        pageWithHeader.writeBytes(compressedPage);
+        pages.add(pageWithHeader.slice());
+
+        bufferedPageBytes += headerBytes.length() + compressedPage.length();
+        chunkUncompressedBytes += headerBytes.length() + page.length();
+        chunkValueCount += pageValueCount;
+        pageValueCount = 0;
+
+        encodings.add(valueEncoding);
+        encodings.add(Encoding.RLE);
+        encodings.add(Encoding.BIT_PACKED);
+    }
+
+    private void reset()
+    {
+        pages.clear();
+        encodings.clear();
+        bufferedPageBytes = 0;
+        chunkUncompressedBytes = 0;
+        chunkValueCount = 0;
+        statisticsBuilder = createStatisticsBuilder(type);
+        resetValues();
+    }
+
+    private static Slice serializePageHeader(PageHeader header)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(64);
+        writePageHeader(header, output);
+        return output.slice();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Encoder for the Parquet RLE / bit-packing hybrid encoding used for definition levels
+ * and dictionary ids. Runs of at least eight repeated values are written as RLE runs, and
+ * everything else is bit-packed in groups of eight values.
+ */
+public class RunLengthBitPackingHybridEncoder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(RunLengthBitPackingHybridEncoder.class).instanceSize();
+
+    private static final int GROUP_SIZE = 8;
+    // the bit-packed run header stores the group count in the remaining 6 bits of a single byte
+    private static final int MAX_BIT_PACKED_GROUP_COUNT = 63;
+
+    private final int bitWidth;
+    private final DynamicSliceOutput output;
+
+    private final int[] bufferedValues = new int[GROUP_SIZE];
+    private int bufferedValueCount;
+
+    private int previousValue;
+    private int repeatCount;
+
+    private int bitPackedGroupCount;
+    private int bitPackedRunHeaderPosition = -1;
+
+    public RunLengthBitPackingHybridEncoder(int bitWidth, int initialCapacity)
+    {
+        checkArgument(bitWidth >= 0 && bitWidth <= 32, "bitWidth must be between 0 and 32");
+        this.bitWidth = bitWidth;
+        this.output = new DynamicSliceOutput(initialCapacity);
+    }
+
+    public void writeInt(int value)
+    {
+        if (value == previousValue) {
+            repeatCount++;
+            if (repeatCount >= GROUP_SIZE) {
+                // the value is accounted for by the pending RLE run
+                return;
+            }
+        }
+        else {
+            if (repeatCount >= GROUP_SIZE) {
+                writeRleRun();
+            }
+            repeatCount = 1;
+            previousValue = value;
+        }
+
+        bufferedValues[bufferedValueCount] = value;
+        bufferedValueCount++;
+        if (bufferedValueCount == GROUP_SIZE) {
+            writeBitPackedGroup();
+        }
+    }
+
+    /**
+     * Returns the encoded values. The encoder can not be used after this call until it is reset.
+     */
+    public Slice toSlice()
+    {
+        if (repeatCount >= GROUP_SIZE) {
+            writeRleRun();
+        }
+        else if (bufferedValueCount > 0) {
+            for (int i = bufferedValueCount; i < GROUP_SIZE; i++) {
+                bufferedValues[i] = 0;
+            }
+            writeBitPackedGroup();
+            endBitPackedRun();
+        }
+        else {
+            endBitPackedRun();
+        }
+        return output.slice();
+    }
+
+    public void reset()
+    {
+        output.reset();
+        bufferedValueCount = 0;
+        previousValue = 0;
+        repeatCount = 0;
+        bitPackedGroupCount = 0;
+        bitPackedRunHeaderPosition = -1;
+    }
+
+    public long getBufferedBytes()
+    {
+        return output.size() + (bufferedValueCount * bitWidth + 7) / 8;
+    }
+
+    public long getRetainedBytes()
+    {
+        return INSTANCE_SIZE + output.getRetainedSize() + sizeOf(bufferedValues);
+    }
+
+    private void writeBitPackedGroup()
+    {
+        if (bitPackedGroupCount >= MAX_BIT_PACKED_GROUP_COUNT) {
+            endBitPackedRun();
+        }
+        if (bitPackedRunHeaderPosition == -1) {
+            // reserve space for the header, which is filled in once the run is complete
+            bitPackedRunHeaderPosition = output.size();
+            output.writeByte(0);
+        }
+
+        long buffer = 0;
+        int bufferedBits = 0;
+        long mask = (1L << bitWidth) - 1;
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            buffer |= (bufferedValues[i] & mask) << bufferedBits;
+            bufferedBits += bitWidth;
+            while (bufferedBits >= Byte.SIZE) {
+                output.writeByte((int) buffer);
+                buffer >>>= Byte.SIZE;
+                bufferedBits -= Byte.SIZE;
+            }
+        }
+
+        bufferedValueCount = 0;
+        repeatCount = 0;
+        bitPackedGroupCount++;
+    }
+
+    private void endBitPackedRun()
+    {
+        if (bitPackedRunHeaderPosition == -1) {
+            return;
+        }
+        output.getUnderlyingSlice().setByte(bitPackedRunHeaderPosition, (bitPackedGroupCount << 1) | 1);
+        bitPackedRunHeaderPosition = -1;
+        bitPackedGroupCount = 0;
+    }
+
+    private void writeRleRun()
+    {
+        endBitPackedRun();
+
+        writeUnsignedVarInt(repeatCount << 1);
+        for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+            output.writeByte(previousValue >>> (i * Byte.SIZE));
+        }
+
+        repeatCount = 0;
+        bufferedValueCount = 0;
+    }
+
+    private void writeUnsignedVarInt(int value)
+    {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+}
@@ -54,6 +54,10 @@ public class HiveS3Config
     private File s3StagingDirectory = new File(StandardSystemProperty.JAVA_IO_TMPDIR.value());
     private DataSize s3MultipartMinFileSize = new DataSize(16, MEGABYTE);
     private DataSize s3MultipartMinPartSize = new DataSize(5, MEGABYTE);
+    private boolean s3StreamingUploadEnabled;
+    private DataSize s3StreamingPartSize = new DataSize(16, MEGABYTE);
+    private int s3StreamingMaxConcurrentParts = 4;
+    private DataSize s3StreamingMaxBufferMemory = new DataSize(512, MEGABYTE);
     private boolean pinS3ClientToCurrentRegion;
     private String s3UserAgentPrefix = "";
 
@@ -348,6 +352,62 @@ public class HiveS3Config
         return this;
     }
 
+    public boolean isS3StreamingUploadEnabled()
+    {
+        return s3StreamingUploadEnabled;
+    }
+
+    @Config("hive.s3.streaming.enabled")
+    @ConfigDescription("Upload data to S3 in parts while it is being written instead of staging whole files on local disk")
+    public HiveS3Config setS3StreamingUploadEnabled(boolean s3StreamingUploadEnabled)
+    {
+        this.s3StreamingUploadEnabled = s3StreamingUploadEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("5MB")
+    public DataSize getS3StreamingPartSize()
+    {
+        return s3StreamingPartSize;
+    }
+
+    @Config("hive.s3.streaming.part-size")
+    @ConfigDescription("Part size for streaming uploads to S3")
+    public HiveS3Config setS3StreamingPartSize(DataSize s3StreamingPartSize)
+    {
+        this.s3StreamingPartSize = s3StreamingPartSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getS3StreamingMaxConcurrentParts()
+    {
+        return s3StreamingMaxConcurrentParts;
+    }
+
+    @Config("hive.s3.streaming.max-concurrent-parts")
+    @ConfigDescription("Maximum number of parts of a single file that are uploaded to S3 concurrently")
+    public HiveS3Config setS3StreamingMaxConcurrentParts(int s3StreamingMaxConcurrentParts)
+    {
+        this.s3StreamingMaxConcurrentParts = s3StreamingMaxConcurrentParts;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getS3StreamingMaxBufferMemory()
+    {
+        return s3StreamingMaxBufferMemory;
+    }
+
+    @Config("hive.s3.streaming.max-buffer-memory")
+    @ConfigDescription("Maximum memory of the parts of all files that are waiting for or in the middle of an upload to S3")
+    public HiveS3Config setS3StreamingMaxBufferMemory(DataSize s3StreamingMaxBufferMemory)
+    {
+        this.s3StreamingMaxBufferMemory = s3StreamingMaxBufferMemory;
+        return this;
+    }
+
     public boolean isPinS3ClientToCurrentRegion()
     {
         return pinS3ClientToCurrentRegion;
@@ -45,6 +45,10 @@ public class PrestoS3ConfigurationUpdater
     private final int maxConnections;
     private final DataSize multipartMinFileSize;
     private final DataSize multipartMinPartSize;
+    private final boolean streamingUploadEnabled;
+    private final DataSize streamingUploadPartSize;
+    private final int streamingUploadMaxConcurrentParts;
+    private final DataSize streamingUploadMaxBufferMemory;
     private final File stagingDirectory;
     private final boolean pinClientToCurrentRegion;
     private final String userAgentPrefix;
@@ -73,6 +77,10 @@ public class PrestoS3ConfigurationUpdater
         this.maxConnections = config.getS3MaxConnections();
         this.multipartMinFileSize = config.getS3MultipartMinFileSize();
         this.multipartMinPartSize = config.getS3MultipartMinPartSize();
+        this.streamingUploadEnabled = config.isS3StreamingUploadEnabled();
+        this.streamingUploadPartSize = config.getS3StreamingPartSize();
+        this.streamingUploadMaxConcurrentParts = config.getS3StreamingMaxConcurrentParts();
+        this.streamingUploadMaxBufferMemory = config.getS3StreamingMaxBufferMemory();
         this.stagingDirectory = config.getS3StagingDirectory();
         this.pinClientToCurrentRegion = config.isPinS3ClientToCurrentRegion();
         this.userAgentPrefix = config.getS3UserAgentPrefix();
@@ -122,6 +130,10 @@ public class PrestoS3ConfigurationUpdater
         config.setInt(S3_MAX_CONNECTIONS, maxConnections);
         config.setLong(S3_MULTIPART_MIN_FILE_SIZE, multipartMinFileSize.toBytes());
         config.setLong(S3_MULTIPART_MIN_PART_SIZE, multipartMinPartSize.toBytes());
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, streamingUploadEnabled);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, streamingUploadPartSize.toBytes());
+        config.setInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, streamingUploadMaxConcurrentParts);
+        config.setLong(S3_STREAMING_UPLOAD_MAX_BUFFER_MEMORY, streamingUploadMaxBufferMemory.toBytes());
         config.setBoolean(S3_PIN_CLIENT_TO_CURRENT_REGION, pinClientToCurrentRegion);
         config.set(S3_USER_AGENT_PREFIX, userAgentPrefix);
     }
@@ -31,26 +31,34 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Builder;
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.AmazonS3Encryption;
 import com.amazonaws.services.s3.AmazonS3EncryptionClient;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.EncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.KMSEncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.Transfer;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
+import com.facebook.presto.hive.BufferingOutputStream;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.AbstractSequentialIterator;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -79,19 +87,28 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import static com.amazonaws.regions.Regions.US_EAST_1;
 import static com.amazonaws.services.s3.Headers.SERVER_SIDE_ENCRYPTION;
 import static com.amazonaws.services.s3.Headers.UNENCRYPTED_CONTENT_LENGTH;
 import static com.facebook.presto.hive.RetryDriver.retry;
+import static com.facebook.presto.hive.s3.PrestoS3StreamingUploadPool.getUploadPool;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACCESS_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_CONNECT_TIMEOUT;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_CREDENTIALS_PROVIDER;
@@ -115,10 +132,15 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SSE_KMS_KEY_
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SSE_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SSL_ENABLED;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STAGING_DIRECTORY;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_ENABLED;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_BUFFER_MEMORY;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_PART_SIZE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_PREFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_SUFFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USE_INSTANCE_CREDENTIALS;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.base.Strings.nullToEmpty;
@@ -126,13 +148,19 @@ import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterables.toArray;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.http.HttpStatus.SC_FORBIDDEN;
@@ -150,6 +178,8 @@ public class PrestoS3FileSystem
     private static final DataSize MAX_SKIP_SIZE = new DataSize(1, MEGABYTE);
     private static final String PATH_SEPARATOR = "/";
     private static final Duration BACKOFF_MIN_SLEEP = new Duration(1, SECONDS);
+    // shared by all file systems, the streaming upload pools bound the number of threads used by uploads
+    private static final ExecutorService EXECUTOR = newCachedThreadPool(daemonThreadsNamed("s3-%s"));
 
     private URI uri;
     private Path workingDirectory;
@@ -167,6 +197,9 @@ public class PrestoS3FileSystem
     private boolean isPathStyleAccess;
     private long multiPartUploadMinFileSize;
     private long multiPartUploadMinPartSize;
+    private boolean streamingUploadEnabled;
+    private int streamingUploadMaxConcurrentParts;
+    private PrestoS3StreamingUploadPool streamingUploadPool;
 
     @Override
     public void initialize(URI uri, Configuration conf)
@@ -192,6 +225,12 @@ public class PrestoS3FileSystem
         int maxConnections = conf.getInt(S3_MAX_CONNECTIONS, defaults.getS3MaxConnections());
         this.multiPartUploadMinFileSize = conf.getLong(S3_MULTIPART_MIN_FILE_SIZE, defaults.getS3MultipartMinFileSize().toBytes());
         this.multiPartUploadMinPartSize = conf.getLong(S3_MULTIPART_MIN_PART_SIZE, defaults.getS3MultipartMinPartSize().toBytes());
+        this.streamingUploadEnabled = conf.getBoolean(S3_STREAMING_UPLOAD_ENABLED, defaults.isS3StreamingUploadEnabled());
+        int streamingUploadPartSize = toIntExact(conf.getLong(S3_STREAMING_UPLOAD_PART_SIZE, defaults.getS3StreamingPartSize().toBytes()));
+        long streamingUploadMaxBufferMemory = conf.getLong(S3_STREAMING_UPLOAD_MAX_BUFFER_MEMORY, defaults.getS3StreamingMaxBufferMemory().toBytes());
+        this.streamingUploadMaxConcurrentParts = conf.getInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, defaults.getS3StreamingMaxConcurrentParts());
+        checkArgument(streamingUploadMaxConcurrentParts > 0, "Invalid value for %s: %s", S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, streamingUploadMaxConcurrentParts);
+        this.streamingUploadPool = getUploadPool(streamingUploadPartSize, streamingUploadMaxBufferMemory, EXECUTOR);
         this.isPathStyleAccess = conf.getBoolean(S3_PATH_STYLE_ACCESS, defaults.isS3PathStyleAccess());
         this.useInstanceCredentials = conf.getBoolean(S3_USE_INSTANCE_CREDENTIALS, defaults.isS3UseInstanceCredentials());
         this.pinS3ClientToCurrentRegion = conf.getBoolean(S3_PIN_CLIENT_TO_CURRENT_REGION, defaults.isPinS3ClientToCurrentRegion());
@@ -353,6 +392,15 @@ public class PrestoS3FileSystem
             throw new IOException("File already exists:" + path);
         }
 
+        String key = keyFromPath(qualifiedPath(path));
+
+        // client-side encryption requires the parts of an upload to be encrypted and uploaded sequentially
+        if (streamingUploadEnabled && !(s3 instanceof AmazonS3Encryption)) {
+            return new FSDataOutputStream(
+                    new PrestoS3StreamingOutputStream(s3, getBucketName(uri), key, sseEnabled, sseType, sseKmsKeyId, streamingUploadPool, streamingUploadMaxConcurrentParts),
+                    statistics);
+        }
+
         if (!stagingDirectory.exists()) {
             createDirectories(stagingDirectory.toPath());
         }
@@ -361,7 +409,6 @@ public class PrestoS3FileSystem
         }
         File tempFile = createTempFile(stagingDirectory.toPath(), "presto-s3-", ".tmp").toFile();
 
-        String key = keyFromPath(qualifiedPath(path));
         return new FSDataOutputStream(
                 new PrestoS3OutputStream(s3, getBucketName(uri), key, tempFile, sseEnabled, sseType, sseKmsKeyId, multiPartUploadMinFileSize, multiPartUploadMinPartSize),
                 statistics);
@@ -477,15 +524,23 @@ public class PrestoS3FileSystem
                 .withDelimiter(PATH_SEPARATOR);
 
         STATS.newListObjectsCall();
-        Iterator<ObjectListing> listings = new AbstractSequentialIterator<ObjectListing>(s3.listObjects(request))
+        Iterator<ObjectListing> listings = new AbstractIterator<ObjectListing>()
         {
+            private Optional<ListenableFuture<ObjectListing>> nextListing = Optional.of(immediateFuture(s3.listObjects(request)));
+
             @Override
-            protected ObjectListing computeNext(ObjectListing previous)
+            protected ObjectListing computeNext()
             {
-                if (!previous.isTruncated()) {
-                    return null;
+                if (!nextListing.isPresent()) {
+                    return endOfData();
+                }
+                ObjectListing listing = getFutureValue(nextListing.get());
+                // fetch the next batch while the caller processes this one
+                nextListing = Optional.empty();
+                if (listing.isTruncated()) {
+                    nextListing = Optional.of(listeningDecorator(EXECUTOR).submit(() -> s3.listNextBatchOfObjects(listing)));
                 }
-                return s3.listNextBatchOfObjects(previous);
+                return listing;
             }
         };
 
@@ -1103,6 +1158,313 @@ public class PrestoS3FileSystem
         }
     }
 
+    /**
+     * Uploads the written data in parts of the pool's part size while it is being written, so neither
+     * local staging space is needed nor the whole upload is deferred until the stream is closed.
+     * At most {@code maxConcurrentParts} parts of the stream are in flight, and the pool bounds the
+     * parts in flight for all streams of the process. The buffers held by the stream are reported by
+     * {@link #getRetainedSizeInBytes()}, so that they are charged to the writer of the file. Data
+     * smaller than a single part is uploaded with a single request when the stream is closed.
+     */
+    private static class PrestoS3StreamingOutputStream
+            extends OutputStream
+            implements BufferingOutputStream
+    {
+        private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+        private final AmazonS3 s3;
+        private final String host;
+        private final String key;
+        private final boolean sseEnabled;
+        private final PrestoS3SseType sseType;
+        private final String sseKmsKeyId;
+        private final PrestoS3StreamingUploadPool uploadPool;
+        private final int partSize;
+        private final int maxConcurrentParts;
+
+        private final Deque<InProgressPart> inProgressParts = new ArrayDeque<>();
+        private final List<PartETag> uploadedParts = new ArrayList<>();
+
+        private byte[] buffer;
+        private int bufferPosition;
+        private long inProgressPartsSizeInBytes;
+        private int nextPartNumber = 1;
+        private Optional<String> uploadId = Optional.empty();
+        private boolean failed;
+        private boolean closed;
+
+        public PrestoS3StreamingOutputStream(
+                AmazonS3 s3,
+                String host,
+                String key,
+                boolean sseEnabled,
+                PrestoS3SseType sseType,
+                String sseKmsKeyId,
+                PrestoS3StreamingUploadPool uploadPool,
+                int maxConcurrentParts)
+        {
+            this.s3 = requireNonNull(s3, "s3 is null");
+            this.host = requireNonNull(host, "host is null");
+            this.key = requireNonNull(key, "key is null");
+            this.sseEnabled = sseEnabled;
+            this.sseType = requireNonNull(sseType, "sseType is null");
+            this.sseKmsKeyId = sseKmsKeyId;
+            this.uploadPool = requireNonNull(uploadPool, "uploadPool is null");
+            this.partSize = uploadPool.getPartSize();
+            checkArgument(maxConcurrentParts > 0, "maxConcurrentParts must be positive");
+            this.maxConcurrentParts = maxConcurrentParts;
+        }
+
+        @Override
+        public long getRetainedSizeInBytes()
+        {
+            return ((buffer == null) ? 0 : buffer.length) + inProgressPartsSizeInBytes;
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException
+        {
+            ensureCapacity();
+            buffer[bufferPosition] = (byte) b;
+            bufferPosition++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            checkPositionIndexes(offset, offset + length, bytes.length);
+            while (length > 0) {
+                ensureCapacity();
+                int chunk = min(length, buffer.length - bufferPosition);
+                System.arraycopy(bytes, offset, buffer, bufferPosition, chunk);
+                bufferPosition += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void ensureCapacity()
+                throws IOException
+        {
+            if (closed) {
+                throw new IOException("Stream closed: " + key);
+            }
+
+            if (buffer != null && bufferPosition == buffer.length) {
+                if (buffer.length < partSize) {
+                    buffer = Arrays.copyOf(buffer, min(partSize, buffer.length * 2));
+                    return;
+                }
+                // a full part is only uploaded once more data arrives, so that the last part is always known
+                uploadPart(false);
+            }
+
+            if (buffer == null) {
+                // small files never need a whole part, while the parts after the first one are always whole
+                buffer = uploadId.isPresent() ? uploadPool.allocateBuffer() : new byte[min(partSize, INITIAL_BUFFER_SIZE)];
+                bufferPosition = 0;
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (failed) {
+                // the upload has already been aborted, and the failure reported to the writer
+                return;
+            }
+
+            try {
+                if (!uploadId.isPresent()) {
+                    putObject();
+                    return;
+                }
+
+                uploadPart(true);
+                while (!inProgressParts.isEmpty()) {
+                    waitForPart(inProgressParts.pop());
+                }
+                s3.completeMultipartUpload(new CompleteMultipartUploadRequest(host, key, uploadId.get(), uploadedParts));
+                STATS.uploadSuccessful();
+                log.debug("Completed upload for host: %s, key: %s, parts: %s", host, key, uploadedParts.size());
+            }
+            catch (AmazonClientException e) {
+                abortUpload();
+                throw new IOException(e);
+            }
+            finally {
+                buffer = null;
+            }
+        }
+
+        private void putObject()
+                throws IOException
+        {
+            int length = (buffer == null) ? 0 : bufferPosition;
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(length);
+            PutObjectRequest request = new PutObjectRequest(host, key, new ByteArrayInputStream((buffer == null) ? new byte[0] : buffer, 0, length), metadata);
+            setServerSideEncryption(metadata, request::setSSEAwsKeyManagementParams);
+
+            STATS.uploadStarted();
+            try {
+                s3.putObject(request);
+                STATS.uploadSuccessful();
+            }
+            catch (AmazonClientException e) {
+                STATS.uploadFailed();
+                throw new IOException(e);
+            }
+        }
+
+        private void uploadPart(boolean lastPart)
+                throws IOException
+        {
+            if (!uploadId.isPresent()) {
+                uploadId = Optional.of(initiateUpload());
+            }
+
+            long start = System.nanoTime();
+            while (inProgressParts.size() >= maxConcurrentParts) {
+                waitForPart(inProgressParts.pop());
+            }
+
+            byte[] data = buffer;
+            int length = bufferPosition;
+            buffer = null;
+            bufferPosition = 0;
+
+            UploadPartRequest request = new UploadPartRequest()
+                    .withBucketName(host)
+                    .withKey(key)
+                    .withUploadId(uploadId.get())
+                    .withPartNumber(nextPartNumber)
+                    .withPartSize(length)
+                    .withInputStream(new ByteArrayInputStream(data, 0, length))
+                    .withLastPart(lastPart);
+            nextPartNumber++;
+
+            Future<PartETag> future;
+            try {
+                // the buffer is owned by the pool from now on
+                future = uploadPool.submit(data, () -> {
+                    long uploadStart = System.nanoTime();
+                    PartETag partETag = s3.uploadPart(request).getPartETag();
+                    STATS.partUploaded(length, Duration.nanosSince(uploadStart));
+                    return partETag;
+                });
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abortUpload();
+                throw new InterruptedIOException();
+            }
+            STATS.addUploadBufferWaitTime(Duration.nanosSince(start));
+            inProgressParts.add(new InProgressPart(future, data.length));
+            inProgressPartsSizeInBytes += data.length;
+        }
+
+        private String initiateUpload()
+                throws IOException
+        {
+            ObjectMetadata metadata = new ObjectMetadata();
+            InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(host, key, metadata);
+            setServerSideEncryption(metadata, request::setSSEAwsKeyManagementParams);
+
+            STATS.uploadStarted();
+            try {
+                String uploadId = s3.initiateMultipartUpload(request).getUploadId();
+                log.debug("Starting upload for host: %s, key: %s, upload: %s", host, key, uploadId);
+                return uploadId;
+            }
+            catch (AmazonClientException e) {
+                failed = true;
+                STATS.uploadFailed();
+                throw new IOException(e);
+            }
+        }
+
+        private void waitForPart(InProgressPart part)
+                throws IOException
+        {
+            inProgressPartsSizeInBytes -= part.getSizeInBytes();
+            try {
+                uploadedParts.add(part.getFuture().get());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abortUpload();
+                throw new InterruptedIOException();
+            }
+            catch (ExecutionException e) {
+                STATS.partUploadFailed();
+                abortUpload();
+                throw new IOException(format("Failed to upload part of host: %s, key: %s", host, key), e.getCause());
+            }
+        }
+
+        private void abortUpload()
+        {
+            failed = true;
+            STATS.uploadFailed();
+            // the parts still in flight fail or finish on their own, and then release their upload slots and buffers
+            inProgressParts.clear();
+            inProgressPartsSizeInBytes = 0;
+            buffer = null;
+            try {
+                s3.abortMultipartUpload(new AbortMultipartUploadRequest(host, key, uploadId.get()));
+            }
+            catch (AmazonClientException e) {
+                log.warn(e, "Failed to abort upload for host: %s, key: %s", host, key);
+            }
+        }
+
+        private void setServerSideEncryption(ObjectMetadata metadata, Consumer<SSEAwsKeyManagementParams> kmsParameters)
+        {
+            if (!sseEnabled) {
+                return;
+            }
+            switch (sseType) {
+                case KMS:
+                    kmsParameters.accept((sseKmsKeyId != null) ? new SSEAwsKeyManagementParams(sseKmsKeyId) : new SSEAwsKeyManagementParams());
+                    break;
+                case S3:
+                    metadata.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+                    break;
+            }
+        }
+
+        private static class InProgressPart
+        {
+            private final Future<PartETag> future;
+            private final long sizeInBytes;
+
+            public InProgressPart(Future<PartETag> future, long sizeInBytes)
+            {
+                this.future = requireNonNull(future, "future is null");
+                this.sizeInBytes = sizeInBytes;
+            }
+
+            public Future<PartETag> getFuture()
+            {
+                return future;
+            }
+
+            public long getSizeInBytes()
+            {
+                return sizeInBytes;
+            }
+        }
+    }
+
     @VisibleForTesting
     AmazonS3 getS3Client()
     {
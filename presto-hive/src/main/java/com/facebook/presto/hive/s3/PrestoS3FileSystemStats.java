@@ -31,6 +31,11 @@ public class PrestoS3FileSystemStats
     private final CounterStat startedUploads = new CounterStat();
     private final CounterStat failedUploads = new CounterStat();
     private final CounterStat successfulUploads = new CounterStat();
+    private final CounterStat uploadedParts = new CounterStat();
+    private final CounterStat uploadedPartBytes = new CounterStat();
+    private final CounterStat failedPartUploads = new CounterStat();
+    private final TimeStat partUploadTime = new TimeStat(MILLISECONDS);
+    private final TimeStat uploadBufferWaitTime = new TimeStat(MILLISECONDS);
     private final CounterStat metadataCalls = new CounterStat();
     private final CounterStat listStatusCalls = new CounterStat();
     private final CounterStat listLocatedStatusCalls = new CounterStat();
@@ -80,6 +85,41 @@ public class PrestoS3FileSystemStats
         return successfulUploads;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getUploadedParts()
+    {
+        return uploadedParts;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUploadedPartBytes()
+    {
+        return uploadedPartBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFailedPartUploads()
+    {
+        return failedPartUploads;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getPartUploadTime()
+    {
+        return partUploadTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUploadBufferWaitTime()
+    {
+        return uploadBufferWaitTime;
+    }
+
     @Managed
     @Nested
     public CounterStat getMetadataCalls()
@@ -231,6 +271,23 @@ public class PrestoS3FileSystemStats
         successfulUploads.update(1);
     }
 
+    public void partUploaded(long bytes, Duration duration)
+    {
+        uploadedParts.update(1);
+        uploadedPartBytes.update(bytes);
+        partUploadTime.add(duration);
+    }
+
+    public void partUploadFailed()
+    {
+        failedPartUploads.update(1);
+    }
+
+    public void addUploadBufferWaitTime(Duration duration)
+    {
+        uploadBufferWaitTime.add(duration);
+    }
+
     public void newMetadataCall()
     {
         metadataCalls.update(1);
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.s3;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Part buffers and upload slots shared by the streaming uploads of all S3 file systems of the
+ * process with the same part size and memory limit. At most {@code maxBufferMemory / partSize}
+ * parts are queued or being uploaded at any time, which also bounds the number of threads used
+ * for the uploads, regardless of how many file systems exist or how many files are written.
+ * Buffers of finished parts are kept for reuse up to the same limit.
+ */
+final class PrestoS3StreamingUploadPool
+{
+    private static final Map<List<Long>, PrestoS3StreamingUploadPool> POOLS = new ConcurrentHashMap<>();
+
+    private final int partSize;
+    private final ExecutorService executor;
+    private final Semaphore uploadSlots;
+    private final Queue<byte[]> freeBuffers;
+
+    public static PrestoS3StreamingUploadPool getUploadPool(int partSize, long maxBufferMemory, ExecutorService executor)
+    {
+        return POOLS.computeIfAbsent(
+                ImmutableList.of((long) partSize, maxBufferMemory),
+                key -> new PrestoS3StreamingUploadPool(partSize, maxBufferMemory, executor));
+    }
+
+    private PrestoS3StreamingUploadPool(int partSize, long maxBufferMemory, ExecutorService executor)
+    {
+        checkArgument(partSize > 0, "partSize must be positive");
+        checkArgument(maxBufferMemory > 0, "maxBufferMemory must be positive");
+        this.partSize = partSize;
+        this.executor = requireNonNull(executor, "executor is null");
+        int maxParts = max(1, toIntExact(maxBufferMemory / partSize));
+        this.uploadSlots = new Semaphore(maxParts);
+        this.freeBuffers = new LinkedBlockingQueue<>(maxParts);
+    }
+
+    public int getPartSize()
+    {
+        return partSize;
+    }
+
+    /**
+     * @return a buffer for a whole part, reusing the buffer of a finished part if there is one
+     */
+    public byte[] allocateBuffer()
+    {
+        byte[] buffer = freeBuffers.poll();
+        return (buffer != null) ? buffer : new byte[partSize];
+    }
+
+    /**
+     * Runs the upload of a part in the background, once fewer than the maximum number of parts are
+     * in flight. The buffer of the part is returned to the pool when the upload finishes.
+     */
+    public <T> Future<T> submit(byte[] buffer, Callable<T> upload)
+            throws InterruptedException
+    {
+        uploadSlots.acquire();
+        try {
+            return executor.submit(() -> {
+                try {
+                    return upload.call();
+                }
+                finally {
+                    uploadSlots.release();
+                    if (buffer.length == partSize) {
+                        freeBuffers.offer(buffer);
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            uploadSlots.release();
+            throw e;
+        }
+    }
+}
@@ -29,6 +29,10 @@ public interface S3ConfigurationUpdater
     String S3_USE_INSTANCE_CREDENTIALS = "presto.s3.use-instance-credentials";
     String S3_MULTIPART_MIN_PART_SIZE = "presto.s3.multipart.min-part-size";
     String S3_MULTIPART_MIN_FILE_SIZE = "presto.s3.multipart.min-file-size";
+    String S3_STREAMING_UPLOAD_ENABLED = "presto.s3.streaming.enabled";
+    String S3_STREAMING_UPLOAD_PART_SIZE = "presto.s3.streaming.part-size";
+    String S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS = "presto.s3.streaming.max-concurrent-parts";
+    String S3_STREAMING_UPLOAD_MAX_BUFFER_MEMORY = "presto.s3.streaming.max-buffer-memory";
     String S3_STAGING_DIRECTORY = "presto.s3.staging-directory";
     String S3_MAX_CONNECTIONS = "presto.s3.max-connections";
     String S3_SOCKET_TIMEOUT = "presto.s3.socket-timeout";
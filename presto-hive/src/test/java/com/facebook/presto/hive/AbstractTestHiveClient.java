@@ -741,12 +741,14 @@ public abstract class AbstractTestHiveClient
                 true,
                 1000,
                 getHiveClientConfig().getMaxPartitionsPerScan(),
+                getHiveClientConfig().getTableVersionMaxPartitions(),
                 TYPE_MANAGER,
                 locationService,
                 new TableParameterCodec(),
                 partitionUpdateCodec,
                 newFixedThreadPool(2),
                 new HiveTypeTranslator(),
+                location -> {},
                 TEST_SERVER_VERSION);
         transactionManager = new HiveTransactionManager();
         splitManager = new HiveSplitManager(
@@ -178,6 +178,7 @@ public abstract class AbstractTestHiveFileSystem
                 new TableParameterCodec(),
                 partitionUpdateCodec,
                 new HiveTypeTranslator(),
+                location -> {},
                 new NodeVersion("test_version"));
         transactionManager = new HiveTransactionManager();
         splitManager = new HiveSplitManager(
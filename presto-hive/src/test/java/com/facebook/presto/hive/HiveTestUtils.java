@@ -18,6 +18,7 @@ import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.hive.authentication.NoHdfsAuthentication;
 import com.facebook.presto.hive.orc.DwrfPageSourceFactory;
 import com.facebook.presto.hive.orc.OrcPageSourceFactory;
+import com.facebook.presto.hive.parquet.ParquetMetadataCache;
 import com.facebook.presto.hive.parquet.ParquetPageSourceFactory;
 import com.facebook.presto.hive.parquet.ParquetRecordCursorProvider;
 import com.facebook.presto.hive.rcfile.RcFilePageSourceFactory;
@@ -25,6 +26,7 @@ import com.facebook.presto.hive.s3.HiveS3Config;
 import com.facebook.presto.hive.s3.PrestoS3ConfigurationUpdater;
 import com.facebook.presto.metadata.FunctionRegistry;
 import com.facebook.presto.operator.PagesIndex;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PageSorter;
@@ -43,7 +45,9 @@ import com.google.common.collect.ImmutableSet;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static java.util.stream.Collectors.toList;
 
 public final class HiveTestUtils
@@ -69,12 +73,15 @@ public final class HiveTestUtils
     public static Set<HivePageSourceFactory> getDefaultHiveDataStreamFactories(HiveClientConfig hiveClientConfig)
     {
         FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
+        FileBlockCache fileBlockCache = new FileBlockCache(new FileBlockCacheConfig(), null);
+        OrcFileTailCache orcFileTailCache = new OrcFileTailCache(hiveClientConfig.getOrcFileTailCacheSize());
         HdfsEnvironment testHdfsEnvironment = createTestHdfsEnvironment(hiveClientConfig);
+        ExecutorService prefetchExecutor = newDirectExecutorService();
         return ImmutableSet.<HivePageSourceFactory>builder()
                 .add(new RcFilePageSourceFactory(TYPE_MANAGER, testHdfsEnvironment, stats))
-                .add(new OrcPageSourceFactory(TYPE_MANAGER, hiveClientConfig, testHdfsEnvironment, stats))
-                .add(new DwrfPageSourceFactory(TYPE_MANAGER, testHdfsEnvironment, stats))
-                .add(new ParquetPageSourceFactory(TYPE_MANAGER, testHdfsEnvironment, stats))
+                .add(new OrcPageSourceFactory(TYPE_MANAGER, hiveClientConfig, testHdfsEnvironment, stats, fileBlockCache, orcFileTailCache, prefetchExecutor))
+                .add(new DwrfPageSourceFactory(TYPE_MANAGER, testHdfsEnvironment, stats, fileBlockCache, orcFileTailCache, prefetchExecutor))
+                .add(new ParquetPageSourceFactory(TYPE_MANAGER, testHdfsEnvironment, stats, fileBlockCache, new ParquetMetadataCache(hiveClientConfig.getParquetMetadataCacheSize()), prefetchExecutor))
                 .build();
     }
 
@@ -99,6 +106,7 @@ public final class HiveTestUtils
                         hiveClientConfig,
                         new FileFormatDataSourceStats(),
                         new OrcFileWriterConfig()))
+                .add(new ParquetFileWriterFactory(testHdfsEnvironment, TYPE_MANAGER, new NodeVersion("test_version")))
                 .build();
     }
 
@@ -398,7 +398,7 @@ public class TestBackgroundHiveSplitLoader
         }
 
         @Override
-        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Path path)
+        public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
         {
             return new RemoteIterator<LocatedFileStatus>()
             {
@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Column;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.hive.metastore.Table;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hive.metastore.TableType;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestCachingDirectoryLister
+{
+    private File tempDir;
+    private FileSystem fileSystem;
+    private Path partition;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        tempDir = com.google.common.io.Files.createTempDir();
+        File partitionDirectory = new File(tempDir, "ds=2018-01-01");
+        Files.createDirectories(partitionDirectory.toPath());
+        Files.write(new File(partitionDirectory, "file1").toPath(), new byte[10]);
+        partition = new Path(partitionDirectory.toURI());
+        fileSystem = partition.getFileSystem(new Configuration());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testCachedTable()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("test_dbname.test_table");
+        Table table = table("test_table");
+
+        assertEquals(listFileNames(lister, table, partition), ImmutableList.of("file1"));
+        assertEquals(lister.getMissCount(), 1);
+        assertEquals(lister.getSize(), 1);
+
+        // files added by another engine are not visible until the listing expires
+        addFile("file2");
+        assertEquals(listFileNames(lister, table, partition), ImmutableList.of("file1"));
+        assertEquals(lister.getHitCount(), 1);
+    }
+
+    @Test
+    public void testUncachedTable()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("test_dbname.test_table");
+        Table table = table("other_table");
+
+        assertEquals(listFileNames(lister, table, partition), ImmutableList.of("file1"));
+        addFile("file2");
+        assertEquals(listFileNames(lister, table, partition), ImmutableList.of("file1", "file2"));
+        assertEquals(lister.getRequestCount(), 0);
+        assertEquals(lister.getSize(), 0);
+    }
+
+    @Test
+    public void testAllTables()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("*");
+
+        listFileNames(lister, table("test_table"), partition);
+        listFileNames(lister, table("other_table"), partition);
+        assertEquals(lister.getHitCount(), 1);
+    }
+
+    @Test
+    public void testInvalidate()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("test_dbname.test_table");
+        Table table = table("test_table");
+
+        listFileNames(lister, table, partition);
+        addFile("file2");
+
+        // invalidating the table location drops the listings of all partitions below it
+        lister.invalidate(new Path(tempDir.toURI()));
+        assertEquals(lister.getSize(), 0);
+        assertEquals(listFileNames(lister, table, partition), ImmutableList.of("file1", "file2"));
+    }
+
+    @Test
+    public void testInvalidateDuringListing()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("test_dbname.test_table");
+        Table table = table("test_table");
+
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(fileSystem, table, partition);
+        lister.invalidate(partition);
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        assertEquals(lister.getSize(), 0);
+    }
+
+    @Test
+    public void testIncompleteListingNotCached()
+            throws IOException
+    {
+        CachingDirectoryLister lister = createLister("test_dbname.test_table");
+        Table table = table("test_table");
+
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(fileSystem, table, partition);
+        iterator.next();
+        assertEquals(lister.getSize(), 0);
+    }
+
+    private CachingDirectoryLister createLister(String tables)
+    {
+        return new CachingDirectoryLister(new Duration(5, MINUTES), 1000, ImmutableList.of(tables));
+    }
+
+    private void addFile(String name)
+            throws IOException
+    {
+        Files.write(new File(new File(partition.toUri()), name).toPath(), new byte[10]);
+    }
+
+    private List<String> listFileNames(DirectoryLister lister, Table table, Path path)
+            throws IOException
+    {
+        List<String> names = new ArrayList<>();
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(fileSystem, table, path);
+        while (iterator.hasNext()) {
+            names.add(iterator.next().getPath().getName());
+        }
+        return names.stream()
+                .sorted()
+                .collect(toImmutableList());
+    }
+
+    private static Table table(String tableName)
+    {
+        Table.Builder tableBuilder = Table.builder();
+        tableBuilder.getStorageBuilder()
+                .setStorageFormat(
+                        StorageFormat.create(
+                                "com.facebook.hive.orc.OrcSerde",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                                "org.apache.hadoop.hive.ql.io.RCFileInputFormat"))
+                .setLocation("file:///db_name/" + tableName)
+                .setSkewed(false);
+
+        return tableBuilder
+                .setDatabaseName("test_dbname")
+                .setOwner("testOwner")
+                .setTableName(tableName)
+                .setTableType(TableType.MANAGED_TABLE.toString())
+                .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty())))
+                .setParameters(ImmutableMap.of())
+                .build();
+    }
+}
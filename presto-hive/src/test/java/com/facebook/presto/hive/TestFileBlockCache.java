@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.FileBlockCache.CachedFile;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestFileBlockCache
+{
+    private static final int BLOCK_SIZE = 4096;
+
+    private File tempDir;
+    private FileSystem fileSystem;
+    private Path path;
+    private byte[] data;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        tempDir = com.google.common.io.Files.createTempDir();
+        path = new Path(new File(tempDir, "data").toURI());
+        fileSystem = path.getFileSystem(new Configuration());
+        data = new byte[BLOCK_SIZE * 5 / 2];
+        new Random(42).nextBytes(data);
+        Files.write(new File(tempDir, "data").toPath(), data);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        FileBlockCache cache = new FileBlockCache(new FileBlockCacheConfig(), null);
+        assertFalse(getCachedFile(cache).isPresent());
+    }
+
+    @Test
+    public void testReadThroughCache()
+            throws IOException
+    {
+        FileBlockCache cache = createCache(64 * BLOCK_SIZE);
+        try {
+            CachedFile file = getCachedFile(cache).get();
+
+            // spans the first two blocks
+            assertRead(file, BLOCK_SIZE - 10, 20);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+            assertEquals(cache.getHits().getTotalCount(), 0);
+            assertEquals(cache.getCachedBlocks(), 2);
+            assertEquals(cache.getCachedBytes(), 2 * BLOCK_SIZE);
+            assertEquals(cache.getBytesReadFromRemote().getTotalCount(), 2 * BLOCK_SIZE);
+
+            // served from the cache
+            assertRead(file, 0, BLOCK_SIZE * 2);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+            assertEquals(cache.getHits().getTotalCount(), 2);
+            assertEquals(cache.getBytesReadFromCache().getTotalCount(), 2 * BLOCK_SIZE);
+
+            // the last block is shorter than the block size
+            assertRead(file, BLOCK_SIZE * 2, data.length - BLOCK_SIZE * 2);
+            assertEquals(cache.getMisses().getTotalCount(), 3);
+            assertEquals(cache.getCachedBytes(), data.length);
+        }
+        finally {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    public void testModifiedFileIsNotServedFromCache()
+            throws IOException
+    {
+        FileBlockCache cache = createCache(64 * BLOCK_SIZE);
+        try {
+            assertRead(getCachedFile(cache).get(), 0, 100);
+            assertEquals(cache.getMisses().getTotalCount(), 1);
+
+            data[0]++;
+            Files.write(new File(tempDir, "data").toPath(), data);
+            assertTrue(new File(tempDir, "data").setLastModified(System.currentTimeMillis() + 10_000));
+
+            assertRead(getCachedFile(cache).get(), 0, 100);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+        }
+        finally {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    public void testEviction()
+            throws IOException
+    {
+        FileBlockCache cache = createCache(BLOCK_SIZE);
+        try {
+            CachedFile file = getCachedFile(cache).get();
+            assertRead(file, 0, data.length);
+            assertEquals(cache.getMisses().getTotalCount(), 3);
+            assertTrue(cache.getEvictions().getTotalCount() > 0);
+            assertTrue(cache.getCachedBytes() <= BLOCK_SIZE);
+        }
+        finally {
+            cache.destroy();
+        }
+    }
+
+    private FileBlockCache createCache(long maxSize)
+    {
+        FileBlockCacheConfig config = new FileBlockCacheConfig()
+                .setEnabled(true)
+                .setMaxSize(new DataSize(maxSize, BYTE))
+                .setBlockSize(new DataSize(BLOCK_SIZE, BYTE));
+        return new FileBlockCache(config, new File(tempDir, "cache"));
+    }
+
+    private Optional<CachedFile> getCachedFile(FileBlockCache cache)
+            throws IOException
+    {
+        // the split carries the size and modification time of the file
+        FileStatus status = fileSystem.getFileStatus(path);
+        return cache.getCachedFile(path, status.getLen(), status.getModificationTime());
+    }
+
+    private void assertRead(CachedFile file, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length + 2];
+        try (FSDataInputStream inputStream = fileSystem.open(path)) {
+            file.readFully(inputStream, position, buffer, 1, length);
+        }
+        assertEquals(Arrays.copyOfRange(buffer, 1, length + 1), Arrays.copyOfRange(data, position, position + length));
+    }
+}
@@ -41,6 +41,7 @@ public class TestHiveClientConfig
                 .setTimeZone(TimeZone.getDefault().getID())
                 .setMaxSplitSize(new DataSize(64, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(100_000)
+                .setTableVersionMaxPartitions(1000)
                 .setMaxOutstandingSplits(1_000)
                 .setMaxOutstandingSplitsSize(new DataSize(256, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(1_000)
@@ -60,6 +61,8 @@ public class TestHiveClientConfig
                 .setDomainCompactionThreshold(100)
                 .setWriterSortBufferSize(new DataSize(64, Unit.MEGABYTE))
                 .setForceLocalScheduling(false)
+                .setReadPrefetchEnabled(false)
+                .setMaxReadPrefetchThreads(16)
                 .setMaxConcurrentFileRenames(20)
                 .setRecursiveDirWalkerEnabled(false)
                 .setDfsTimeout(new Duration(60, TimeUnit.SECONDS))
@@ -79,17 +82,23 @@ public class TestHiveClientConfig
                 .setMaxOpenSortFiles(50)
                 .setWriteValidationThreads(16)
                 .setUseParquetColumnNames(false)
+                .setParquetMetadataCacheSize(new DataSize(0, Unit.BYTE))
                 .setUseOrcColumnNames(false)
                 .setParquetPredicatePushdownEnabled(true)
                 .setParquetOptimizedReaderEnabled(true)
+                .setParquetOptimizedWriterEnabled(false)
+                .setParquetWriterBlockSize(new DataSize(128, Unit.MEGABYTE))
+                .setParquetWriterPageSize(new DataSize(1, Unit.MEGABYTE))
                 .setAssumeCanonicalPartitionKeys(false)
                 .setOrcBloomFiltersEnabled(false)
+                .setOrcSelectiveReaderEnabled(false)
                 .setOrcDefaultBloomFilterFpp(0.05)
                 .setOrcMaxMergeDistance(new DataSize(1, Unit.MEGABYTE))
                 .setOrcMaxBufferSize(new DataSize(8, Unit.MEGABYTE))
                 .setOrcStreamBufferSize(new DataSize(8, Unit.MEGABYTE))
                 .setOrcTinyStripeThreshold(new DataSize(8, Unit.MEGABYTE))
                 .setOrcMaxReadBlockSize(new DataSize(16, Unit.MEGABYTE))
+                .setOrcFileTailCacheSize(new DataSize(0, Unit.BYTE))
                 .setOrcLazyReadSmallRanges(true)
                 .setRcfileOptimizedWriterEnabled(true)
                 .setRcfileWriterValidate(false)
@@ -107,7 +116,10 @@ public class TestHiveClientConfig
                 .setCreatesOfNonManagedTablesEnabled(true)
                 .setHdfsWireEncryptionEnabled(false)
                 .setPartitionStatisticsSampleSize(100)
-                .setCollectColumnStatisticsOnWrite(false));
+                .setCollectColumnStatisticsOnWrite(false)
+                .setFileStatusCacheTables("")
+                .setFileStatusCacheMaxSize(1_000_000)
+                .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES)));
     }
 
     @Test
@@ -117,6 +129,7 @@ public class TestHiveClientConfig
                 .put("hive.time-zone", nonDefaultTimeZone().getID())
                 .put("hive.max-split-size", "256MB")
                 .put("hive.max-partitions-per-scan", "123")
+                .put("hive.table-version.max-partitions", "10")
                 .put("hive.max-outstanding-splits", "10")
                 .put("hive.max-outstanding-splits-size", "32MB")
                 .put("hive.max-split-iterator-threads", "10")
@@ -152,19 +165,27 @@ public class TestHiveClientConfig
                 .put("hive.max-open-sort-files", "333")
                 .put("hive.write-validation-threads", "11")
                 .put("hive.force-local-scheduling", "true")
+                .put("hive.read-prefetch.enabled", "true")
+                .put("hive.max-read-prefetch-threads", "4")
                 .put("hive.max-concurrent-file-renames", "100")
                 .put("hive.assume-canonical-partition-keys", "true")
                 .put("hive.parquet.use-column-names", "true")
+                .put("hive.parquet.metadata-cache-size", "32MB")
                 .put("hive.orc.use-column-names", "true")
                 .put("hive.parquet-predicate-pushdown.enabled", "false")
                 .put("hive.parquet-optimized-reader.enabled", "false")
+                .put("hive.parquet.optimized-writer.enabled", "true")
+                .put("hive.parquet.writer.block-size", "64MB")
+                .put("hive.parquet.writer.page-size", "256kB")
                 .put("hive.orc.bloom-filters.enabled", "true")
+                .put("hive.orc.selective-reader.enabled", "true")
                 .put("hive.orc.default-bloom-filter-fpp", "0.96")
                 .put("hive.orc.max-merge-distance", "22kB")
                 .put("hive.orc.max-buffer-size", "44kB")
                 .put("hive.orc.stream-buffer-size", "55kB")
                 .put("hive.orc.tiny-stripe-threshold", "61kB")
                 .put("hive.orc.max-read-block-size", "66kB")
+                .put("hive.orc.file-tail-cache-size", "64MB")
                 .put("hive.orc.lazy-read-small-ranges", "false")
                 .put("hive.rcfile-optimized-writer.enabled", "false")
                 .put("hive.rcfile.writer.validate", "true")
@@ -184,12 +205,16 @@ public class TestHiveClientConfig
                 .put("hive.hdfs.wire-encryption.enabled", "true")
                 .put("hive.partition-statistics-sample-size", "1234")
                 .put("hive.collect-column-statistics-on-write", "true")
+                .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
+                .put("hive.file-status-cache-size", "1000")
+                .put("hive.file-status-cache-expire-time", "30m")
                 .build();
 
         HiveClientConfig expected = new HiveClientConfig()
                 .setTimeZone(nonDefaultTimeZone().toTimeZone().getID())
                 .setMaxSplitSize(new DataSize(256, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(123)
+                .setTableVersionMaxPartitions(10)
                 .setMaxOutstandingSplits(10)
                 .setMaxOutstandingSplitsSize(new DataSize(32, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(10)
@@ -209,6 +234,8 @@ public class TestHiveClientConfig
                 .setDomainCompactionThreshold(42)
                 .setWriterSortBufferSize(new DataSize(13, Unit.MEGABYTE))
                 .setForceLocalScheduling(true)
+                .setReadPrefetchEnabled(true)
+                .setMaxReadPrefetchThreads(4)
                 .setMaxConcurrentFileRenames(100)
                 .setRecursiveDirWalkerEnabled(true)
                 .setIpcPingInterval(new Duration(34, TimeUnit.SECONDS))
@@ -227,17 +254,23 @@ public class TestHiveClientConfig
                 .setDomainSocketPath("/foo")
                 .setS3FileSystemType(S3FileSystemType.EMRFS)
                 .setUseParquetColumnNames(true)
+                .setParquetMetadataCacheSize(new DataSize(32, Unit.MEGABYTE))
                 .setUseOrcColumnNames(true)
                 .setParquetPredicatePushdownEnabled(false)
                 .setParquetOptimizedReaderEnabled(false)
+                .setParquetOptimizedWriterEnabled(true)
+                .setParquetWriterBlockSize(new DataSize(64, Unit.MEGABYTE))
+                .setParquetWriterPageSize(new DataSize(256, Unit.KILOBYTE))
                 .setAssumeCanonicalPartitionKeys(true)
                 .setOrcBloomFiltersEnabled(true)
+                .setOrcSelectiveReaderEnabled(true)
                 .setOrcDefaultBloomFilterFpp(0.96)
                 .setOrcMaxMergeDistance(new DataSize(22, Unit.KILOBYTE))
                 .setOrcMaxBufferSize(new DataSize(44, Unit.KILOBYTE))
                 .setOrcStreamBufferSize(new DataSize(55, Unit.KILOBYTE))
                 .setOrcTinyStripeThreshold(new DataSize(61, Unit.KILOBYTE))
                 .setOrcMaxReadBlockSize(new DataSize(66, Unit.KILOBYTE))
+                .setOrcFileTailCacheSize(new DataSize(64, Unit.MEGABYTE))
                 .setOrcLazyReadSmallRanges(false)
                 .setRcfileOptimizedWriterEnabled(false)
                 .setRcfileWriterValidate(true)
@@ -256,7 +289,10 @@ public class TestHiveClientConfig
                 .setCreatesOfNonManagedTablesEnabled(false)
                 .setHdfsWireEncryptionEnabled(true)
                 .setPartitionStatisticsSampleSize(1234)
-                .setCollectColumnStatisticsOnWrite(true);
+                .setCollectColumnStatisticsOnWrite(true)
+                .setFileStatusCacheTables(ImmutableList.of("foo.bar1", "foo.bar2"))
+                .setFileStatusCacheMaxSize(1000)
+                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.execution.plancache.PlanCache;
+import com.facebook.presto.tests.AbstractTestQueryFramework;
+import com.facebook.presto.tests.DistributedQueryRunner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.hive.HiveQueryRunner.createQueryRunner;
+import static io.airlift.tpch.TpchTable.NATION;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestHivePlanCache
+        extends AbstractTestQueryFramework
+{
+    public TestHivePlanCache()
+    {
+        super(() -> createQueryRunner(
+                ImmutableList.of(NATION),
+                ImmutableMap.of(),
+                ImmutableMap.of("query.plan-cache.enabled", "true"),
+                "sql-standard",
+                ImmutableMap.of()));
+    }
+
+    @BeforeMethod
+    public void invalidatePlanCache()
+    {
+        getPlanCache().invalidateAll();
+    }
+
+    @Test
+    public void testRepeatedQuery()
+    {
+        // every query runs in a transaction of its own, in which the cached plan is optimized
+        assertQuery("SELECT name FROM nation WHERE regionkey = 1");
+        assertEquals(getPlanCache().getEntryCount(), 1);
+        long hits = getPlanCache().getHitCount();
+
+        assertQuery("SELECT name FROM nation WHERE regionkey = 1");
+        assertQuery("SELECT name FROM nation WHERE regionkey = 1");
+        assertEquals(getPlanCache().getHitCount(), hits + 2);
+    }
+
+    @Test
+    public void testPreparedStatement()
+    {
+        assertUpdate("CREATE TABLE test_plan_cache_partitions WITH (partitioned_by = ARRAY['regionkey']) AS " +
+                "SELECT nationkey, name, regionkey FROM nation", 25);
+        Session session = Session.builder(getSession())
+                .addPreparedStatement("my_query", "SELECT name FROM test_plan_cache_partitions WHERE regionkey = ?")
+                .build();
+
+        assertQuery(session, "EXECUTE my_query USING 1", "SELECT name FROM nation WHERE regionkey = 1");
+        long hits = getPlanCache().getHitCount();
+
+        // the executions with other values of the parameter share the plan, which is optimized for the value of each execution
+        assertQuery(session, "EXECUTE my_query USING 2", "SELECT name FROM nation WHERE regionkey = 2");
+        assertQuery(session, "EXECUTE my_query USING 5", "SELECT name FROM nation WHERE regionkey = 5");
+        assertEquals(getPlanCache().getHitCount(), hits + 2);
+
+        // a new partition changes the version of the table
+        assertUpdate("INSERT INTO test_plan_cache_partitions VALUES (25, 'ATLANTIS', 5)", 1);
+        hits = getPlanCache().getHitCount();
+        assertQuery(session, "EXECUTE my_query USING 5", "VALUES 'ATLANTIS'");
+        assertEquals(getPlanCache().getHitCount(), hits);
+
+        assertUpdate("DROP TABLE test_plan_cache_partitions");
+    }
+
+    private PlanCache getPlanCache()
+    {
+        return ((DistributedQueryRunner) getQueryRunner()).getCoordinator().getInstance(Key.get(PlanCache.class));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.execution.resultcache.QueryResultCache;
+import com.facebook.presto.tests.AbstractTestQueryFramework;
+import com.facebook.presto.tests.DistributedQueryRunner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.hive.HiveQueryRunner.createQueryRunner;
+import static io.airlift.tpch.TpchTable.NATION;
+import static org.testng.Assert.assertEquals;
+
+@Test(singleThreaded = true)
+public class TestHiveQueryResultCache
+        extends AbstractTestQueryFramework
+{
+    public TestHiveQueryResultCache()
+    {
+        super(() -> createQueryRunner(
+                ImmutableList.of(NATION),
+                ImmutableMap.of(),
+                ImmutableMap.of("query.result-cache.enabled", "true"),
+                "sql-standard",
+                ImmutableMap.of("hive.table-version.max-partitions", "2")));
+    }
+
+    @BeforeMethod
+    public void invalidateResultCache()
+    {
+        getResultCache().invalidateAll();
+    }
+
+    @Test
+    public void testRepeatedQuery()
+    {
+        assertQuery("SELECT regionkey, count(*) FROM nation GROUP BY regionkey");
+        assertEquals(getResultCache().getEntryCount(), 1);
+        long hits = getResultCache().getHitCount();
+
+        assertQuery("SELECT regionkey, count(*) FROM nation GROUP BY regionkey");
+        assertQuery("select regionkey,   count(*) from nation group by regionkey");
+        assertEquals(getResultCache().getHitCount(), hits + 2);
+    }
+
+    @Test
+    public void testTableModification()
+    {
+        assertUpdate("CREATE TABLE test_result_cache_modification AS SELECT * FROM nation", 25);
+        assertQuery("SELECT count(*) FROM test_result_cache_modification", "SELECT 25");
+        assertEquals(getResultCache().getEntryCount(), 1);
+
+        assertUpdate("INSERT INTO test_result_cache_modification SELECT * FROM nation", 25);
+        long hits = getResultCache().getHitCount();
+        assertQuery("SELECT count(*) FROM test_result_cache_modification", "SELECT 50");
+        assertEquals(getResultCache().getHitCount(), hits);
+
+        assertUpdate("DROP TABLE test_result_cache_modification");
+    }
+
+    @Test
+    public void testPartitionModification()
+    {
+        assertUpdate("CREATE TABLE test_result_cache_partitions WITH (partitioned_by = ARRAY['regionkey']) AS " +
+                "SELECT nationkey, regionkey FROM nation WHERE regionkey < 2", 10);
+        assertQuery("SELECT count(*) FROM test_result_cache_partitions", "SELECT 10");
+        assertEquals(getResultCache().getEntryCount(), 1);
+
+        // appends to an existing partition, without changing the table or its list of partitions
+        assertUpdate("INSERT INTO test_result_cache_partitions SELECT nationkey, regionkey FROM nation WHERE regionkey = 0", 5);
+        long hits = getResultCache().getHitCount();
+        assertQuery("SELECT count(*) FROM test_result_cache_partitions", "SELECT 15");
+        assertEquals(getResultCache().getHitCount(), hits);
+
+        assertUpdate("DROP TABLE test_result_cache_partitions");
+    }
+
+    @Test
+    public void testTooManyPartitions()
+    {
+        assertUpdate("CREATE TABLE test_result_cache_many_partitions WITH (partitioned_by = ARRAY['regionkey']) AS " +
+                "SELECT nationkey, regionkey FROM nation", 25);
+        assertQuery("SELECT count(*) FROM test_result_cache_many_partitions", "SELECT 25");
+        assertEquals(getResultCache().getEntryCount(), 0);
+
+        assertUpdate("DROP TABLE test_result_cache_many_partitions");
+    }
+
+    @Test
+    public void testNonDeterministicQuery()
+    {
+        computeActual("SELECT rand() FROM nation");
+        computeActual("SELECT current_timestamp, name FROM nation");
+        computeActual("SELECT * FROM nation TABLESAMPLE BERNOULLI (50)");
+        assertEquals(getResultCache().getEntryCount(), 0);
+    }
+
+    @Test
+    public void testEmptyResult()
+    {
+        assertQueryReturnsEmptyResult("SELECT * FROM nation WHERE nationkey < 0");
+        assertEquals(getResultCache().getEntryCount(), 1);
+        assertQueryReturnsEmptyResult("SELECT * FROM nation WHERE nationkey < 0");
+    }
+
+    private QueryResultCache getResultCache()
+    {
+        return ((DistributedQueryRunner) getQueryRunner()).getCoordinator().getInstance(Key.get(QueryResultCache.class));
+    }
+}
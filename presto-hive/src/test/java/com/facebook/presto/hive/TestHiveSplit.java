@@ -51,6 +51,7 @@ public class TestHiveSplit
                 42,
                 87,
                 88,
+                1_500_000_000_000L,
                 schema,
                 partitionKeys,
                 addresses,
@@ -73,11 +74,13 @@ public class TestHiveSplit
         assertEquals(actual.getStart(), expected.getStart());
         assertEquals(actual.getLength(), expected.getLength());
         assertEquals(actual.getFileSize(), expected.getFileSize());
+        assertEquals(actual.getFileModifiedTime(), expected.getFileModifiedTime());
         assertEquals(actual.getSchema(), expected.getSchema());
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
         assertEquals(actual.getColumnCoercions(), expected.getColumnCoercions());
         assertEquals(actual.getBucketConversion(), expected.getBucketConversion());
         assertEquals(actual.isForceLocalScheduling(), expected.isForceLocalScheduling());
+        assertEquals(actual.getAffinityKey(), Optional.of("path:42"));
     }
 }
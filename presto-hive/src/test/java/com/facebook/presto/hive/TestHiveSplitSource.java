@@ -299,6 +299,7 @@ public class TestHiveSplitSource
                     0,
                     100,
                     100,
+                    0,
                     properties("id", String.valueOf(id)),
                     ImmutableList.of(),
                     ImmutableList.of(new InternalHiveBlock(0, 100, ImmutableList.of())),
@@ -399,6 +399,7 @@ public enum FileFormat
                         0,
                         targetFile.length(),
                         targetFile.length(),
+                        targetFile.lastModified(),
                         createSchema(format, columnNames, columnTypes),
                         columnHandles,
                         TupleDomain.all(),
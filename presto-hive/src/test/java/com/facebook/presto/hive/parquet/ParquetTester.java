@@ -421,7 +421,7 @@ public class ParquetTester
         return OPTIMIZED ? FileFormat.PRESTO_PARQUET : FileFormat.HIVE_PARQUET;
     }
 
-    private static DataSize writeParquetColumn(JobConf jobConf,
+    static DataSize writeParquetColumn(JobConf jobConf,
             File outputFile,
             CompressionCodecName compressionCodecName,
             Properties tableProperties,
@@ -455,7 +455,7 @@ public class ParquetTester
         return succinctBytes(outputFile.length());
     }
 
-    private static Properties createTableProperties(List<String> columnNames, List<ObjectInspector> objectInspectors)
+    static Properties createTableProperties(List<String> columnNames, List<ObjectInspector> objectInspectors)
     {
         Properties orderTableProperties = new Properties();
         orderTableProperties.setProperty("columns", Joiner.on(',').join(columnNames));
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.hive.parquet.ParquetTester.TempFile;
+import com.facebook.presto.hive.parquet.reader.ParquetFileMetadata;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.mapred.JobConf;
+import org.testng.annotations.Test;
+import parquet.hadoop.metadata.ParquetMetadata;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static com.facebook.presto.hive.parquet.ParquetTester.createTableProperties;
+import static com.facebook.presto.hive.parquet.ParquetTester.writeParquetColumn;
+import static com.facebook.presto.hive.parquet.reader.ParquetMetadataReader.readFileMetadata;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Collections.singletonList;
+import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static parquet.column.ParquetProperties.WriterVersion.PARQUET_1_0;
+import static parquet.hadoop.ParquetOutputFormat.COMPRESSION;
+import static parquet.hadoop.ParquetOutputFormat.WRITER_VERSION;
+import static parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+
+public class TestParquetMetadataCache
+{
+    private static final DataSize SIZE = new DataSize(1, MEGABYTE);
+    private static final String COLUMN_NAME = "test";
+
+    @Test
+    public void testCachedMetadata()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "parquet")) {
+            writeFile(tempFile);
+            ParquetMetadataCache cache = new ParquetMetadataCache(SIZE);
+
+            ParquetMetadata metadata = getParquetMetadata(cache, tempFile, 1);
+            assertEquals(cache.getMissCount(), 1);
+
+            assertSame(getParquetMetadata(cache, tempFile, 1), metadata);
+            assertEquals(cache.getHitCount(), 1);
+
+            // a modified file is read again
+            ParquetMetadata modifiedMetadata = getParquetMetadata(cache, tempFile, 2);
+            assertNotSame(modifiedMetadata, metadata);
+            assertEquals(modifiedMetadata.getBlocks().size(), metadata.getBlocks().size());
+            assertEquals(cache.getMissCount(), 2);
+            assertEquals(cache.getSize(), 2);
+        }
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "parquet")) {
+            writeFile(tempFile);
+            ParquetMetadataCache cache = new ParquetMetadataCache(new DataSize(0, BYTE));
+
+            assertNotSame(getParquetMetadata(cache, tempFile, 1), getParquetMetadata(cache, tempFile, 1));
+            assertEquals(cache.getRequestCount(), 0);
+        }
+    }
+
+    @Test
+    public void testRetainedSize()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile("test", "parquet")) {
+            writeFile(tempFile);
+            ParquetFileMetadata fileMetadata;
+            try (FSDataInputStream inputStream = open(getPath(tempFile))) {
+                fileMetadata = readFileMetadata(inputStream, getPath(tempFile), tempFile.getFile().length());
+            }
+            assertTrue(fileMetadata.getRetainedSizeInBytes() > fileMetadata.getMetadataSize());
+
+            // the cache is bounded by the size of the decoded metadata, not the size in the file
+            ParquetMetadataCache cache = new ParquetMetadataCache(new DataSize(fileMetadata.getMetadataSize(), BYTE));
+            getParquetMetadata(cache, tempFile, 1);
+            assertEquals(cache.getMissCount(), 1);
+            assertEquals(cache.getSize(), 0);
+        }
+    }
+
+    private static void writeFile(TempFile tempFile)
+            throws Exception
+    {
+        JobConf jobConf = new JobConf();
+        jobConf.setEnum(COMPRESSION, UNCOMPRESSED);
+        jobConf.setEnum(WRITER_VERSION, PARQUET_1_0);
+        List<ObjectInspector> objectInspectors = singletonList(javaLongObjectInspector);
+        writeParquetColumn(
+                jobConf,
+                tempFile.getFile(),
+                UNCOMPRESSED,
+                createTableProperties(singletonList(COLUMN_NAME), objectInspectors),
+                getStandardStructObjectInspector(singletonList(COLUMN_NAME), objectInspectors),
+                new Iterator<?>[] {LongStream.range(0, 10_000).boxed().iterator()},
+                Optional.empty(),
+                false);
+    }
+
+    private static ParquetMetadata getParquetMetadata(ParquetMetadataCache cache, TempFile tempFile, long modificationTime)
+            throws IOException
+    {
+        Path path = getPath(tempFile);
+        try (FSDataInputStream inputStream = open(path)) {
+            return cache.getParquetMetadata(inputStream, path, tempFile.getFile().length(), modificationTime);
+        }
+    }
+
+    private static FSDataInputStream open(Path path)
+            throws IOException
+    {
+        return path.getFileSystem(new Configuration()).open(path);
+    }
+
+    private static Path getPath(TempFile tempFile)
+    {
+        return new Path(tempFile.getFile().toURI());
+    }
+}
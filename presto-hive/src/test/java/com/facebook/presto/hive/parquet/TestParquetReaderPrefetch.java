@@ -0,0 +1,308 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet;
+
+import com.facebook.presto.hive.parquet.ParquetTester.TempFile;
+import com.facebook.presto.hive.parquet.reader.ParquetReader;
+import com.facebook.presto.memory.context.AggregatedMemoryContext;
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.mapred.JobConf;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import parquet.hadoop.metadata.BlockMetaData;
+import parquet.hadoop.metadata.ColumnChunkMetaData;
+import parquet.hadoop.metadata.ParquetMetadata;
+import parquet.io.MessageColumnIO;
+import parquet.schema.MessageType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.hive.parquet.ParquetTester.createTableProperties;
+import static com.facebook.presto.hive.parquet.ParquetTester.writeParquetColumn;
+import static com.facebook.presto.hive.parquet.ParquetTypeUtils.getColumnIO;
+import static com.facebook.presto.hive.parquet.ParquetTypeUtils.lookupColumnByName;
+import static com.facebook.presto.hive.parquet.reader.ParquetMetadataReader.readFooter;
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static java.lang.Math.toIntExact;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory.getStandardStructObjectInspector;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaLongObjectInspector;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static parquet.column.ParquetProperties.WriterVersion.PARQUET_1_0;
+import static parquet.hadoop.ParquetOutputFormat.BLOCK_SIZE;
+import static parquet.hadoop.ParquetOutputFormat.COMPRESSION;
+import static parquet.hadoop.ParquetOutputFormat.WRITER_VERSION;
+import static parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static parquet.io.ColumnIOConverter.constructField;
+
+public class TestParquetReaderPrefetch
+{
+    private static final int POSITION_COUNT = 100_000;
+    private static final String COLUMN_NAME = "test";
+
+    private List<Long> values;
+    private byte[] data;
+    private ParquetMetadata parquetMetadata;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        Random random = new Random();
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            values.add(random.nextLong());
+        }
+        this.values = values.build();
+
+        try (TempFile tempFile = new TempFile("test", "parquet")) {
+            JobConf jobConf = new JobConf();
+            jobConf.setEnum(COMPRESSION, UNCOMPRESSED);
+            jobConf.setEnum(WRITER_VERSION, PARQUET_1_0);
+            // several row groups, so that the next row group is read while the current one is decoded
+            jobConf.setInt(BLOCK_SIZE, 100_000);
+            List<ObjectInspector> objectInspectors = singletonList(javaLongObjectInspector);
+            writeParquetColumn(
+                    jobConf,
+                    tempFile.getFile(),
+                    UNCOMPRESSED,
+                    createTableProperties(singletonList(COLUMN_NAME), objectInspectors),
+                    getStandardStructObjectInspector(singletonList(COLUMN_NAME), objectInspectors),
+                    new Iterator<?>[] {this.values.iterator()},
+                    Optional.empty(),
+                    false);
+            data = Files.readAllBytes(tempFile.getFile().toPath());
+            Path path = new Path(tempFile.getFile().toURI());
+            parquetMetadata = readFooter(path.getFileSystem(new Configuration()), path, data.length);
+        }
+        assertTrue(parquetMetadata.getBlocks().size() > 1);
+
+        executor = newSingleThreadExecutor();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPrefetch()
+            throws IOException
+    {
+        InMemoryParquetDataSource dataSource = new InMemoryParquetDataSource(data, true, false);
+        assertEquals(readValues(dataSource, executor), values);
+        // every column chunk was served from a read in the background
+        assertEquals(dataSource.getForegroundReads(), 0);
+        assertEquals(dataSource.getBackgroundReads(), parquetMetadata.getBlocks().size());
+        assertFalse(dataSource.getReadThreads().contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testConcurrentReadNotSupported()
+            throws IOException
+    {
+        InMemoryParquetDataSource dataSource = new InMemoryParquetDataSource(data, false, false);
+        assertEquals(readValues(dataSource, executor), values);
+        assertEquals(dataSource.getBackgroundReads(), 0);
+        assertEquals(dataSource.getReadThreads(), ImmutableSet.of(Thread.currentThread()));
+    }
+
+    @Test
+    public void testFailedPrefetch()
+            throws IOException
+    {
+        InMemoryParquetDataSource dataSource = new InMemoryParquetDataSource(data, true, true);
+        assertEquals(readValues(dataSource, executor), values);
+        // the column chunks are read on demand instead
+        assertEquals(dataSource.getForegroundReads(), parquetMetadata.getBlocks().size());
+    }
+
+    @Test
+    public void testMemoryAccounting()
+            throws IOException
+    {
+        List<Runnable> tasks = new ArrayList<>();
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+        InMemoryParquetDataSource dataSource = new InMemoryParquetDataSource(data, true, false);
+        ParquetReader parquetReader = createParquetReader(dataSource, memoryContext, tasks::add);
+
+        // the first row group is read as soon as the reader is created
+        assertEquals(memoryContext.getBytes(), getRowGroupSize(0));
+        assertFalse(parquetReader.isBlocked().isDone());
+        runAll(tasks);
+        assertTrue(parquetReader.isBlocked().isDone());
+
+        // the first row group is decoded while the second one is read
+        assertTrue(parquetReader.nextBatch() > 0);
+        assertEquals(memoryContext.getBytes(), getRowGroupSize(0) + getRowGroupSize(1));
+        assertEquals(tasks.size(), 1);
+        assertTrue(parquetReader.isBlocked().isDone());
+
+        parquetReader.close();
+        assertEquals(memoryContext.getBytes(), 0);
+        assertEquals(dataSource.getForegroundReads(), 0);
+    }
+
+    private long getRowGroupSize(int index)
+    {
+        BlockMetaData block = parquetMetadata.getBlocks().get(index);
+        return block.getColumns().stream()
+                .mapToLong(ColumnChunkMetaData::getTotalSize)
+                .sum();
+    }
+
+    private static void runAll(List<Runnable> tasks)
+    {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private List<Long> readValues(ParquetDataSource dataSource, Executor executor)
+            throws IOException
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        try (ParquetReader parquetReader = createParquetReader(dataSource, newSimpleAggregatedMemoryContext(), executor)) {
+            MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+            Field field = constructField(BIGINT, lookupColumnByName(getColumnIO(fileSchema, fileSchema), COLUMN_NAME)).get();
+            while (parquetReader.nextBatch() > 0) {
+                Block block = parquetReader.readBlock(field);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    values.add(BIGINT.getLong(block, position));
+                }
+            }
+        }
+        return values.build();
+    }
+
+    private ParquetReader createParquetReader(ParquetDataSource dataSource, AggregatedMemoryContext memoryContext, Executor executor)
+    {
+        MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+        MessageColumnIO messageColumnIO = getColumnIO(fileSchema, fileSchema);
+        return new ParquetReader(messageColumnIO, parquetMetadata.getBlocks(), dataSource, memoryContext, Optional.of(executor));
+    }
+
+    private static class InMemoryParquetDataSource
+            implements ParquetDataSource
+    {
+        private final byte[] data;
+        private final boolean concurrentReadSupported;
+        private final boolean failBackgroundReads;
+        private final Set<Thread> readThreads = Sets.newConcurrentHashSet();
+        private final AtomicInteger foregroundReads = new AtomicInteger();
+        private final AtomicInteger backgroundReads = new AtomicInteger();
+        private long readTimeNanos;
+
+        public InMemoryParquetDataSource(byte[] data, boolean concurrentReadSupported, boolean failBackgroundReads)
+        {
+            this.data = data;
+            this.concurrentReadSupported = concurrentReadSupported;
+            this.failBackgroundReads = failBackgroundReads;
+        }
+
+        public Set<Thread> getReadThreads()
+        {
+            return readThreads;
+        }
+
+        public int getForegroundReads()
+        {
+            return foregroundReads.get();
+        }
+
+        public int getBackgroundReads()
+        {
+            return backgroundReads.get();
+        }
+
+        @Override
+        public long getReadBytes()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getReadTimeNanos()
+        {
+            return readTimeNanos;
+        }
+
+        @Override
+        public long getSize()
+        {
+            return data.length;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            foregroundReads.incrementAndGet();
+            readThreads.add(Thread.currentThread());
+            System.arraycopy(data, toIntExact(position), buffer, bufferOffset, bufferLength);
+        }
+
+        @Override
+        public void readFullyInBackground(long position, byte[] buffer)
+        {
+            if (failBackgroundReads) {
+                throw new UncheckedIOException(new IOException("background read failed"));
+            }
+            backgroundReads.incrementAndGet();
+            readThreads.add(Thread.currentThread());
+            System.arraycopy(data, toIntExact(position), buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void addReadTimeNanos(long nanos)
+        {
+            readTimeNanos += nanos;
+        }
+
+        @Override
+        public boolean isConcurrentReadSupported()
+        {
+            return concurrentReadSupported;
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package com.facebook.presto.hive.parquet;
 
 import com.facebook.presto.spi.PrestoException;
+import io.airlift.slice.DynamicSliceOutput;
 import org.apache.hadoop.hive.ql.io.parquet.timestamp.NanoTimeUtils;
 import org.testng.annotations.Test;
 import parquet.io.api.Binary;
@@ -22,6 +23,7 @@ import java.sql.Timestamp;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_BAD_DATA;
 import static com.facebook.presto.hive.parquet.ParquetTimestampUtils.getTimestampMillis;
+import static com.facebook.presto.hive.parquet.ParquetTimestampUtils.writeTimestampMillis;
 import static org.testng.Assert.assertEquals;
 
 public class TestParquetTimestampUtils
@@ -34,6 +36,16 @@ public class TestParquetTimestampUtils
         assertTimestampCorrect("2015-12-31 23:59:59.999999999");
     }
 
+    @Test
+    public void testWriteTimestampMillis()
+    {
+        assertTimestampRoundTrip(0);
+        assertTimestampRoundTrip(1);
+        assertTimestampRoundTrip(-1);
+        assertTimestampRoundTrip(Timestamp.valueOf("2015-12-31 23:59:59.999").getTime());
+        assertTimestampRoundTrip(Timestamp.valueOf("1899-01-01 12:34:56.789").getTime());
+    }
+
     @Test
     public void testInvalidBinaryLength()
     {
@@ -54,4 +66,12 @@ public class TestParquetTimestampUtils
         long decodedTimestampMillis = getTimestampMillis(timestampBytes);
         assertEquals(decodedTimestampMillis, timestamp.getTime());
     }
+
+    private static void assertTimestampRoundTrip(long timestampMillis)
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(12);
+        writeTimestampMillis(output, timestampMillis);
+        assertEquals(output.size(), 12);
+        assertEquals(getTimestampMillis(Binary.fromByteArray(output.slice().getBytes())), timestampMillis);
+    }
 }
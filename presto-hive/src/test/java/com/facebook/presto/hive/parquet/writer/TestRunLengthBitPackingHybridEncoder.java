@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.parquet.writer;
+
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+import parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+public class TestRunLengthBitPackingHybridEncoder
+{
+    @Test
+    public void testRepeatedValues()
+            throws IOException
+    {
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 500 ? 1 : 0;
+        }
+        assertRoundTrip(1, values);
+    }
+
+    @Test
+    public void testBitPackedValues()
+            throws IOException
+    {
+        // more than 63 groups forces multiple bit-packed runs
+        int[] values = new int[1003];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7;
+        }
+        assertRoundTrip(3, values);
+    }
+
+    @Test
+    public void testMixedRuns()
+            throws IOException
+    {
+        Random random = new Random(42);
+        for (int bitWidth : new int[] {1, 5, 8, 13, 20}) {
+            int[] values = new int[5000];
+            int index = 0;
+            while (index < values.length) {
+                int value = random.nextInt(1 << bitWidth);
+                int runLength = random.nextBoolean() ? 1 : random.nextInt(30);
+                for (int i = 0; i < runLength && index < values.length; i++) {
+                    values[index] = value;
+                    index++;
+                }
+            }
+            assertRoundTrip(bitWidth, values);
+        }
+    }
+
+    @Test
+    public void testZeroBitWidth()
+            throws IOException
+    {
+        assertRoundTrip(0, new int[100]);
+    }
+
+    @Test
+    public void testReset()
+            throws IOException
+    {
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(4, 16);
+        encoder.writeInt(3);
+        encoder.toSlice();
+        encoder.reset();
+
+        int[] values = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int value : values) {
+            encoder.writeInt(value);
+        }
+        assertDecoded(4, encoder.toSlice(), values);
+    }
+
+    private static void assertRoundTrip(int bitWidth, int[] values)
+            throws IOException
+    {
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 16);
+        for (int value : values) {
+            encoder.writeInt(value);
+        }
+        assertDecoded(bitWidth, encoder.toSlice(), values);
+    }
+
+    private static void assertDecoded(int bitWidth, Slice encoded, int[] values)
+            throws IOException
+    {
+        RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(bitWidth, new ByteArrayInputStream(encoded.getBytes()));
+        for (int value : values) {
+            assertEquals(decoder.readInt(), value);
+        }
+    }
+}
@@ -14,14 +14,38 @@
 package com.facebook.presto.hive.s3;
 
 import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.http.HttpStatus.SC_OK;
 
 public class MockAmazonS3
@@ -29,8 +53,18 @@ public class MockAmazonS3
 {
     private int getObjectHttpCode = SC_OK;
     private int getObjectMetadataHttpCode = SC_OK;
+    private volatile int uploadPartHttpCode = SC_OK;
     private GetObjectMetadataRequest getObjectMetadataRequest;
 
+    @GuardedBy("this")
+    private final Map<String, byte[]> objects = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<String, Map<Integer, byte[]>> multipartUploads = new HashMap<>();
+    @GuardedBy("this")
+    private final List<String> abortedUploads = new ArrayList<>();
+    @GuardedBy("this")
+    private int uploadedParts;
+
     public void setGetObjectHttpErrorCode(int getObjectHttpErrorCode)
     {
         this.getObjectHttpCode = getObjectHttpErrorCode;
@@ -41,11 +75,31 @@ public class MockAmazonS3
         this.getObjectMetadataHttpCode = getObjectMetadataHttpCode;
     }
 
+    public void setUploadPartHttpCode(int uploadPartHttpCode)
+    {
+        this.uploadPartHttpCode = uploadPartHttpCode;
+    }
+
     public GetObjectMetadataRequest getGetObjectMetadataRequest()
     {
         return getObjectMetadataRequest;
     }
 
+    public synchronized Optional<byte[]> getObjectContent(String key)
+    {
+        return Optional.ofNullable(objects.get(key));
+    }
+
+    public synchronized int getUploadedParts()
+    {
+        return uploadedParts;
+    }
+
+    public synchronized List<String> getAbortedUploads()
+    {
+        return ImmutableList.copyOf(abortedUploads);
+    }
+
     @Override
     public ObjectMetadata getObjectMetadata(GetObjectMetadataRequest getObjectMetadataRequest)
     {
@@ -72,9 +126,81 @@ public class MockAmazonS3
     @Override
     public PutObjectResult putObject(PutObjectRequest putObjectRequest)
     {
+        if (putObjectRequest.getInputStream() != null) {
+            byte[] content = readContent(putObjectRequest.getInputStream());
+            synchronized (this) {
+                objects.put(putObjectRequest.getKey(), content);
+            }
+        }
         return new PutObjectResult();
     }
 
+    @Override
+    public synchronized InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest request)
+    {
+        String uploadId = UUID.randomUUID().toString();
+        multipartUploads.put(uploadId, new HashMap<>());
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setBucketName(request.getBucketName());
+        result.setKey(request.getKey());
+        result.setUploadId(uploadId);
+        return result;
+    }
+
+    @Override
+    public UploadPartResult uploadPart(UploadPartRequest request)
+    {
+        if (uploadPartHttpCode != SC_OK) {
+            AmazonS3Exception exception = new AmazonS3Exception("Failing uploadPart call with " + uploadPartHttpCode);
+            exception.setStatusCode(uploadPartHttpCode);
+            throw exception;
+        }
+
+        byte[] content = readContent(request.getInputStream());
+        checkArgument(content.length == request.getPartSize(), "part size does not match content");
+        synchronized (this) {
+            Map<Integer, byte[]> parts = multipartUploads.get(request.getUploadId());
+            checkArgument(parts != null, "unknown upload: %s", request.getUploadId());
+            parts.put(request.getPartNumber(), content);
+            uploadedParts++;
+        }
+
+        UploadPartResult result = new UploadPartResult();
+        result.setPartNumber(request.getPartNumber());
+        result.setETag(String.valueOf(request.getPartNumber()));
+        return result;
+    }
+
+    @Override
+    public synchronized CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest request)
+    {
+        Map<Integer, byte[]> parts = multipartUploads.remove(request.getUploadId());
+        checkArgument(parts != null, "unknown upload: %s", request.getUploadId());
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        int previousPartNumber = 0;
+        for (PartETag partETag : request.getPartETags()) {
+            checkArgument(partETag.getPartNumber() > previousPartNumber, "parts are not in ascending order");
+            previousPartNumber = partETag.getPartNumber();
+            byte[] part = parts.get(partETag.getPartNumber());
+            checkArgument(part != null, "unknown part: %s", partETag.getPartNumber());
+            content.write(part, 0, part.length);
+        }
+        objects.put(request.getKey(), content.toByteArray());
+
+        CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+        result.setBucketName(request.getBucketName());
+        result.setKey(request.getKey());
+        return result;
+    }
+
+    @Override
+    public synchronized void abortMultipartUpload(AbortMultipartUploadRequest request)
+    {
+        multipartUploads.remove(request.getUploadId());
+        abortedUploads.add(request.getUploadId());
+    }
+
     @Override
     public PutObjectResult putObject(String bucketName, String key, String content)
     {
@@ -85,4 +211,14 @@ public class MockAmazonS3
     public void shutdown()
     {
     }
+
+    private static byte[] readContent(InputStream inputStream)
+    {
+        try {
+            return ByteStreams.toByteArray(inputStream);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -54,6 +54,10 @@ public class TestHiveS3Config
                 .setS3SocketTimeout(new Duration(5, TimeUnit.SECONDS))
                 .setS3MultipartMinFileSize(new DataSize(16, Unit.MEGABYTE))
                 .setS3MultipartMinPartSize(new DataSize(5, Unit.MEGABYTE))
+                .setS3StreamingUploadEnabled(false)
+                .setS3StreamingPartSize(new DataSize(16, Unit.MEGABYTE))
+                .setS3StreamingMaxConcurrentParts(4)
+                .setS3StreamingMaxBufferMemory(new DataSize(512, Unit.MEGABYTE))
                 .setS3MaxConnections(500)
                 .setS3StagingDirectory(new File(StandardSystemProperty.JAVA_IO_TMPDIR.value()))
                 .setPinS3ClientToCurrentRegion(false)
@@ -84,6 +88,10 @@ public class TestHiveS3Config
                 .put("hive.s3.socket-timeout", "4m")
                 .put("hive.s3.multipart.min-file-size", "32MB")
                 .put("hive.s3.multipart.min-part-size", "15MB")
+                .put("hive.s3.streaming.enabled", "true")
+                .put("hive.s3.streaming.part-size", "32MB")
+                .put("hive.s3.streaming.max-concurrent-parts", "8")
+                .put("hive.s3.streaming.max-buffer-memory", "1GB")
                 .put("hive.s3.max-connections", "77")
                 .put("hive.s3.staging-directory", "/s3-staging")
                 .put("hive.s3.pin-client-to-current-region", "true")
@@ -111,6 +119,10 @@ public class TestHiveS3Config
                 .setS3SocketTimeout(new Duration(4, TimeUnit.MINUTES))
                 .setS3MultipartMinFileSize(new DataSize(32, Unit.MEGABYTE))
                 .setS3MultipartMinPartSize(new DataSize(15, Unit.MEGABYTE))
+                .setS3StreamingUploadEnabled(true)
+                .setS3StreamingPartSize(new DataSize(32, Unit.MEGABYTE))
+                .setS3StreamingMaxConcurrentParts(8)
+                .setS3StreamingMaxBufferMemory(new DataSize(1, Unit.GIGABYTE))
                 .setS3MaxConnections(77)
                 .setS3StagingDirectory(new File("/s3-staging"))
                 .setPinS3ClientToCurrentRegion(true)
@@ -42,7 +42,9 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+import static com.facebook.presto.hive.HiveWriteUtils.getRetainedSizeInBytes;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACCESS_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_CREDENTIALS_PROVIDER;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ENCRYPTION_MATERIALS_PROVIDER;
@@ -56,6 +58,9 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_PIN_CLIENT_T
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SECRET_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SIGNER_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STAGING_DIRECTORY;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_ENABLED;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_STREAMING_UPLOAD_PART_SIZE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_PREFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_SUFFIX;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USE_INSTANCE_CREDENTIALS;
@@ -70,7 +75,9 @@ import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class TestPrestoS3FileSystem
 {
@@ -334,6 +341,112 @@ public class TestPrestoS3FileSystem
         }
     }
 
+    @Test
+    public void testStreamingUpload()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), streamingUploadConfiguration(1000, 2));
+            fs.setS3Client(s3);
+
+            byte[] data = new byte[10_500];
+            ThreadLocalRandom.current().nextBytes(data);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(data, 0, 1);
+                stream.write(data, 1, 2499);
+                for (int i = 2500; i < 3000; i++) {
+                    stream.write(data[i]);
+                }
+                stream.write(data, 3000, data.length - 3000);
+            }
+
+            assertEquals(s3.getObjectContent("test").get(), data);
+            assertEquals(s3.getUploadedParts(), 11);
+            assertTrue(s3.getAbortedUploads().isEmpty());
+        }
+    }
+
+    @Test
+    public void testStreamingUploadRetainedSize()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), streamingUploadConfiguration(1000, 2));
+            fs.setS3Client(s3);
+
+            FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"));
+            stream.write(new byte[500]);
+            assertEquals(getRetainedSizeInBytes(stream), 1000);
+
+            // two parts in flight, and the buffer of the third one
+            stream.write(new byte[2000]);
+            assertEquals(getRetainedSizeInBytes(stream), 3000);
+
+            stream.close();
+            assertEquals(getRetainedSizeInBytes(stream), 0);
+            assertEquals(s3.getUploadedParts(), 3);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadSinglePart()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), streamingUploadConfiguration(1000, 2));
+            fs.setS3Client(s3);
+
+            byte[] data = new byte[1000];
+            ThreadLocalRandom.current().nextBytes(data);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(data);
+            }
+
+            assertEquals(s3.getObjectContent("test").get(), data);
+            assertEquals(s3.getUploadedParts(), 0);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadFailure()
+            throws Exception
+    {
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            s3.setUploadPartHttpCode(SC_INTERNAL_SERVER_ERROR);
+            fs.initialize(new URI("s3n://test-bucket/"), streamingUploadConfiguration(1000, 1));
+            fs.setS3Client(s3);
+
+            FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"));
+            try {
+                stream.write(new byte[5000]);
+                stream.close();
+                fail("expected upload to fail");
+            }
+            catch (IOException e) {
+                assertTrue(e.getCause().getMessage().contains("Failing uploadPart call with " + SC_INTERNAL_SERVER_ERROR), e.getCause().getMessage());
+            }
+            stream.close();
+
+            assertFalse(s3.getObjectContent("test").isPresent());
+            assertEquals(s3.getAbortedUploads().size(), 1);
+        }
+    }
+
+    private static Configuration streamingUploadConfiguration(int partSize, int maxConcurrentParts)
+    {
+        Configuration conf = new Configuration();
+        conf.setBoolean(S3_STREAMING_UPLOAD_ENABLED, true);
+        conf.setLong(S3_STREAMING_UPLOAD_PART_SIZE, partSize);
+        conf.setInt(S3_STREAMING_UPLOAD_MAX_CONCURRENT_PARTS, maxConcurrentParts);
+        // streaming uploads must not need a staging directory
+        conf.set(S3_STAGING_DIRECTORY, "/dev/null/staging");
+        return conf;
+    }
+
     @Test
     public void testReadRequestRangeNotSatisfiable()
             throws Exception
@@ -21,6 +21,7 @@ import com.facebook.presto.spi.session.PropertyMetadata;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import com.facebook.presto.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
+import com.facebook.presto.sql.planner.optimizations.SkewedJoinKeys;
 import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
@@ -28,12 +29,15 @@ import io.airlift.units.Duration;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
 import static com.facebook.presto.spi.session.PropertyMetadata.booleanProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.doubleProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.integerProperty;
+import static com.facebook.presto.spi.session.PropertyMetadata.longProperty;
 import static com.facebook.presto.spi.session.PropertyMetadata.stringProperty;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
@@ -51,6 +55,11 @@ public final class SystemSessionProperties
 {
     public static final String OPTIMIZE_HASH_GENERATION = "optimize_hash_generation";
     public static final String JOIN_DISTRIBUTION_TYPE = "join_distribution_type";
+    public static final String JOIN_MAX_BROADCAST_TABLE_SIZE = "join_max_broadcast_table_size";
+    public static final String ENFORCE_BROADCAST_JOIN_SIZE_LIMIT = "enforce_broadcast_join_size_limit";
+    public static final String DISTRIBUTE_NULL_JOIN_KEYS = "distribute_null_join_keys";
+    public static final String SKEWED_JOIN_KEYS = "skewed_join_keys";
+    public static final String SKEWED_JOIN_SALT_COUNT = "skewed_join_salt_count";
     public static final String DISTRIBUTED_JOIN = "distributed_join";
     public static final String DISTRIBUTED_INDEX_JOIN = "distributed_index_join";
     public static final String HASH_PARTITION_COUNT = "hash_partition_count";
@@ -74,6 +83,7 @@ public final class SystemSessionProperties
     public static final String DICTIONARY_AGGREGATION = "dictionary_aggregation";
     public static final String PLAN_WITH_TABLE_NODE_PARTITIONING = "plan_with_table_node_partitioning";
     public static final String SPATIAL_JOIN = "spatial_join";
+    public static final String SPATIAL_PARTITIONING_TABLE_NAME = "spatial_partitioning_table_name";
     public static final String COLOCATED_JOIN = "colocated_join";
     public static final String CONCURRENT_LIFESPANS_PER_NODE = "concurrent_lifespans_per_task";
     public static final String REORDER_JOINS = "reorder_joins";
@@ -83,8 +93,11 @@ public final class SystemSessionProperties
     public static final String SPLIT_CONCURRENCY_ADJUSTMENT_INTERVAL = "split_concurrency_adjustment_interval";
     public static final String OPTIMIZE_METADATA_QUERIES = "optimize_metadata_queries";
     public static final String FAST_INEQUALITY_JOINS = "fast_inequality_joins";
+    public static final String BATCHED_JOIN_PROBE = "batched_join_probe";
     public static final String QUERY_PRIORITY = "query_priority";
     public static final String SPILL_ENABLED = "spill_enabled";
+    public static final String SPILL_ORDER_BY = "spill_order_by";
+    public static final String SPILL_WINDOW_OPERATOR = "spill_window_operator";
     public static final String AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT = "aggregation_operator_unspill_memory_limit";
     public static final String OPTIMIZE_DISTINCT_AGGREGATIONS = "optimize_mixed_distinct_aggregations";
     public static final String LEGACY_ROUND_N_BIGINT = "legacy_round_n_bigint";
@@ -105,6 +118,12 @@ public final class SystemSessionProperties
     public static final String PREFER_PARTITIAL_AGGREGATION = "prefer_partial_aggregation";
     public static final String MAX_GROUPING_SETS = "max_grouping_sets";
     public static final String LEGACY_UNNEST = "legacy_unnest";
+    public static final String ENABLE_DYNAMIC_FILTERING = "enable_dynamic_filtering";
+    public static final String DYNAMIC_FILTERING_MAX_DISTINCT_VALUES = "dynamic_filtering_max_distinct_values";
+    public static final String DYNAMIC_FILTERING_BLOOM_FILTER_SIZE = "dynamic_filtering_bloom_filter_size";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION = "adaptive_partial_aggregation";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS = "adaptive_partial_aggregation_min_rows";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -148,6 +167,39 @@ public final class SystemSessionProperties
                         false,
                         value -> JoinDistributionType.valueOf(((String) value).toUpperCase()),
                         JoinDistributionType::name),
+                new PropertyMetadata<>(
+                        JOIN_MAX_BROADCAST_TABLE_SIZE,
+                        "Maximum size of the build side for a join to be broadcast when the join distribution type is AUTOMATIC, zero to not use size estimates",
+                        VARCHAR,
+                        DataSize.class,
+                        featuresConfig.getJoinMaxBroadcastTableSize(),
+                        false,
+                        value -> DataSize.valueOf((String) value),
+                        DataSize::toString),
+                booleanProperty(
+                        ENFORCE_BROADCAST_JOIN_SIZE_LIMIT,
+                        "Fail the query when the build side of a join broadcast because of its estimated size exceeds the broadcast limit at runtime",
+                        featuresConfig.isEnforceBroadcastJoinSizeLimit(),
+                        false),
+                booleanProperty(
+                        DISTRIBUTE_NULL_JOIN_KEYS,
+                        "Remove or randomly distribute rows with null keys in hash distributed joins",
+                        featuresConfig.isDistributeNullJoinKeys(),
+                        false),
+                new PropertyMetadata<>(
+                        SKEWED_JOIN_KEYS,
+                        "Hot values of join key columns, as [schema.]table.column=value|value;..., that are spread over several nodes in hash distributed joins",
+                        VARCHAR,
+                        SkewedJoinKeys.class,
+                        SkewedJoinKeys.valueOf(featuresConfig.getSkewedJoinKeys()),
+                        false,
+                        value -> SkewedJoinKeys.valueOf((String) value),
+                        SkewedJoinKeys::toString),
+                integerProperty(
+                        SKEWED_JOIN_SALT_COUNT,
+                        "Number of nodes the rows with a hot join key are spread over",
+                        featuresConfig.getSkewedJoinSaltCount(),
+                        false),
                 booleanProperty(
                         DISTRIBUTED_INDEX_JOIN,
                         "Distribute index joins on join keys instead of executing inline",
@@ -341,6 +393,11 @@ public final class SystemSessionProperties
                         "Use faster handling of inequality join if it is possible",
                         featuresConfig.isFastInequalityJoins(),
                         false),
+                booleanProperty(
+                        BATCHED_JOIN_PROBE,
+                        "Probe hash joins on BIGINT, INTEGER and DATE keys a page at a time",
+                        featuresConfig.isBatchedJoinProbe(),
+                        false),
                 booleanProperty(
                         COLOCATED_JOIN,
                         "Experimental: Use a colocated join when possible",
@@ -351,6 +408,11 @@ public final class SystemSessionProperties
                         "Use spatial index for spatial join when possible",
                         featuresConfig.isSpatialJoinsEnabled(),
                         false),
+                stringProperty(
+                        SPATIAL_PARTITIONING_TABLE_NAME,
+                        "Name of the table holding the KDB tree built by spatial_partitioning(), used to run spatial joins distributed",
+                        null,
+                        false),
                 integerProperty(
                         CONCURRENT_LIFESPANS_PER_NODE,
                         "Experimental: Run a fixed number of groups concurrently for eligible JOINs",
@@ -373,6 +435,16 @@ public final class SystemSessionProperties
                             return spillEnabled;
                         },
                         value -> value),
+                booleanProperty(
+                        SPILL_ORDER_BY,
+                        "Spill in OrderBy if spill_enabled is also set",
+                        featuresConfig.isSpillOrderBy(),
+                        false),
+                booleanProperty(
+                        SPILL_WINDOW_OPERATOR,
+                        "Spill in WindowOperator and TopNRowNumberOperator if spill_enabled is also set",
+                        featuresConfig.isSpillWindowOperator(),
+                        false),
                 new PropertyMetadata<>(
                         AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT,
                         "Experimental: How much memory can should be allocated per aggragation operator in unspilling process",
@@ -484,6 +556,40 @@ public final class SystemSessionProperties
                         LEGACY_UNNEST,
                         "Using legacy unnest semantic, where unnest(array(row)) will create one column of type row",
                         featuresConfig.isLegacyUnnestArrayRows(),
+                        false),
+                booleanProperty(
+                        ENABLE_DYNAMIC_FILTERING,
+                        "Experimental: Filter probe side table scans using the join keys collected from the build side",
+                        featuresConfig.isDynamicFilteringEnabled(),
+                        false),
+                integerProperty(
+                        DYNAMIC_FILTERING_MAX_DISTINCT_VALUES,
+                        "Experimental: Maximum number of distinct build side values per join key collected for dynamic filtering",
+                        featuresConfig.getDynamicFilteringMaxDistinctValues(),
+                        false),
+                new PropertyMetadata<>(
+                        DYNAMIC_FILTERING_BLOOM_FILTER_SIZE,
+                        "Experimental: Size of the bloom filter built per join key when there are too many distinct build side values, or 0B to disable",
+                        VARCHAR,
+                        DataSize.class,
+                        featuresConfig.getDynamicFilteringBloomFilterSize(),
+                        false,
+                        value -> DataSize.valueOf((String) value),
+                        DataSize::toString),
+                booleanProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION,
+                        "Experimental: Switch partial aggregation to pass-through mode when it does not reduce the number of rows",
+                        featuresConfig.isAdaptivePartialAggregationEnabled(),
+                        false),
+                longProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS,
+                        "Experimental: Number of rows a partial aggregation must process before it can be switched to pass-through mode",
+                        featuresConfig.getAdaptivePartialAggregationMinRows(),
+                        false),
+                doubleProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD,
+                        "Experimental: Ratio of output groups to input rows above which partial aggregation is switched to pass-through mode",
+                        featuresConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
                         false));
     }
 
@@ -516,6 +622,31 @@ public final class SystemSessionProperties
         return session.getSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.class);
     }
 
+    public static DataSize getJoinMaxBroadcastTableSize(Session session)
+    {
+        return session.getSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, DataSize.class);
+    }
+
+    public static boolean isEnforceBroadcastJoinSizeLimit(Session session)
+    {
+        return session.getSystemProperty(ENFORCE_BROADCAST_JOIN_SIZE_LIMIT, Boolean.class);
+    }
+
+    public static boolean isDistributeNullJoinKeys(Session session)
+    {
+        return session.getSystemProperty(DISTRIBUTE_NULL_JOIN_KEYS, Boolean.class);
+    }
+
+    public static SkewedJoinKeys getSkewedJoinKeys(Session session)
+    {
+        return session.getSystemProperty(SKEWED_JOIN_KEYS, SkewedJoinKeys.class);
+    }
+
+    public static int getSkewedJoinSaltCount(Session session)
+    {
+        return session.getSystemProperty(SKEWED_JOIN_SALT_COUNT, Integer.class);
+    }
+
     public static boolean isDistributedIndexJoinEnabled(Session session)
     {
         return session.getSystemProperty(DISTRIBUTED_INDEX_JOIN, Boolean.class);
@@ -621,6 +752,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(FAST_INEQUALITY_JOINS, Boolean.class);
     }
 
+    public static boolean isBatchedJoinProbeEnabled(Session session)
+    {
+        return session.getSystemProperty(BATCHED_JOIN_PROBE, Boolean.class);
+    }
+
     public static JoinReorderingStrategy getJoinReorderingStrategy(Session session)
     {
         Boolean reorderJoins = session.getSystemProperty(REORDER_JOINS, Boolean.class);
@@ -648,6 +784,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(SPATIAL_JOIN, Boolean.class);
     }
 
+    public static Optional<String> getSpatialPartitioningTableName(Session session)
+    {
+        return Optional.ofNullable(session.getSystemProperty(SPATIAL_PARTITIONING_TABLE_NAME, String.class));
+    }
+
     public static OptionalInt getConcurrentLifespansPerNode(Session session)
     {
         Integer result = session.getSystemProperty(CONCURRENT_LIFESPANS_PER_NODE, Integer.class);
@@ -687,6 +828,16 @@ public final class SystemSessionProperties
         return session.getSystemProperty(SPILL_ENABLED, Boolean.class);
     }
 
+    public static boolean isSpillOrderBy(Session session)
+    {
+        return session.getSystemProperty(SPILL_ORDER_BY, Boolean.class);
+    }
+
+    public static boolean isSpillWindowOperator(Session session)
+    {
+        return session.getSystemProperty(SPILL_WINDOW_OPERATOR, Boolean.class);
+    }
+
     public static DataSize getAggregationOperatorUnspillMemoryLimit(Session session)
     {
         DataSize memoryLimitForMerge = session.getSystemProperty(AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT, DataSize.class);
@@ -791,6 +942,36 @@ public final class SystemSessionProperties
         return session.getSystemProperty(LEGACY_UNNEST, Boolean.class);
     }
 
+    public static boolean isDynamicFilteringEnabled(Session session)
+    {
+        return session.getSystemProperty(ENABLE_DYNAMIC_FILTERING, Boolean.class);
+    }
+
+    public static int getDynamicFilteringMaxDistinctValues(Session session)
+    {
+        return session.getSystemProperty(DYNAMIC_FILTERING_MAX_DISTINCT_VALUES, Integer.class);
+    }
+
+    public static DataSize getDynamicFilteringBloomFilterSize(Session session)
+    {
+        return session.getSystemProperty(DYNAMIC_FILTERING_BLOOM_FILTER_SIZE, DataSize.class);
+    }
+
+    public static boolean isAdaptivePartialAggregationEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION, Boolean.class);
+    }
+
+    public static long getAdaptivePartialAggregationMinRows(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, Long.class);
+    }
+
+    public static double getAdaptivePartialAggregationUniqueRowsRatioThreshold(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
+    }
+
     private static int validateValueIsPowerOfTwo(Object value, String property)
     {
         int intValue = ((Number) requireNonNull(value, "value is null")).intValue();
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.facebook.presto.operator.DynamicFilterSummary;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dynamic filter summaries published by a task, keyed by the id of the join producing them.
+ * The version increases every time a summary is added.
+ */
+public class DynamicFilterSummaries
+{
+    public static final DynamicFilterSummaries EMPTY = new DynamicFilterSummaries(0, ImmutableMap.of());
+
+    private final long version;
+    private final Map<PlanNodeId, DynamicFilterSummary> summaries;
+
+    @JsonCreator
+    public DynamicFilterSummaries(
+            @JsonProperty("version") long version,
+            @JsonProperty("summaries") Map<PlanNodeId, DynamicFilterSummary> summaries)
+    {
+        checkArgument(version >= 0, "version is negative");
+        this.version = version;
+        this.summaries = ImmutableMap.copyOf(requireNonNull(summaries, "summaries is null"));
+    }
+
+    @JsonProperty
+    public long getVersion()
+    {
+        return version;
+    }
+
+    @JsonProperty
+    public Map<PlanNodeId, DynamicFilterSummary> getSummaries()
+    {
+        return summaries;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("version", version)
+                .add("summaries", summaries.keySet())
+                .toString();
+    }
+}
@@ -15,6 +15,8 @@ package com.facebook.presto.execution;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.resultcache.CachedQueryResult;
+import com.facebook.presto.execution.resultcache.QueryResultCacheKey;
 import com.facebook.presto.memory.VersionedMemoryPoolId;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.resourceGroups.ResourceGroupId;
@@ -78,6 +80,8 @@ public interface QueryExecution
      * contain the full location set, but may be empty.  Users of this data should keep a private copy of the seen buffers to
      * handle out of order events from the listener.  Once noMoreBufferLocations is set the locations will never change, and
      * it is guaranteed that all previously sent locations are contained in the buffer locations.
+     * If the output is served from the query result cache, the cached result is set and there are no buffer locations.
+     * Otherwise, if the output of the query can be cached, the result cache key is set.
      */
     class QueryOutputInfo
     {
@@ -85,13 +89,23 @@ public interface QueryExecution
         private final List<Type> columnTypes;
         private final Set<URI> bufferLocations;
         private final boolean noMoreBufferLocations;
-
-        public QueryOutputInfo(List<String> columnNames, List<Type> columnTypes, Set<URI> bufferLocations, boolean noMoreBufferLocations)
+        private final Optional<QueryResultCacheKey> resultCacheKey;
+        private final Optional<CachedQueryResult> cachedResult;
+
+        public QueryOutputInfo(
+                List<String> columnNames,
+                List<Type> columnTypes,
+                Set<URI> bufferLocations,
+                boolean noMoreBufferLocations,
+                Optional<QueryResultCacheKey> resultCacheKey,
+                Optional<CachedQueryResult> cachedResult)
         {
             this.columnNames = ImmutableList.copyOf(requireNonNull(columnNames, "columnNames is null"));
             this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
             this.bufferLocations = ImmutableSet.copyOf(requireNonNull(bufferLocations, "bufferLocations is null"));
             this.noMoreBufferLocations = noMoreBufferLocations;
+            this.resultCacheKey = requireNonNull(resultCacheKey, "resultCacheKey is null");
+            this.cachedResult = requireNonNull(cachedResult, "cachedResult is null");
         }
 
         public List<String> getColumnNames()
@@ -113,5 +127,15 @@ public interface QueryExecution
         {
             return noMoreBufferLocations;
         }
+
+        public Optional<QueryResultCacheKey> getResultCacheKey()
+        {
+            return resultCacheKey;
+        }
+
+        public Optional<CachedQueryResult> getCachedResult()
+        {
+            return cachedResult;
+        }
     }
 }
@@ -16,6 +16,8 @@ package com.facebook.presto.execution;
 import com.facebook.presto.Session;
 import com.facebook.presto.execution.QueryExecution.QueryOutputInfo;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.resultcache.CachedQueryResult;
+import com.facebook.presto.execution.resultcache.QueryResultCacheKey;
 import com.facebook.presto.memory.VersionedMemoryPoolId;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.operator.BlockedReason;
@@ -522,6 +524,16 @@ public class QueryStateMachine
         outputManager.updateOutputLocations(newExchangeLocations, noMoreExchangeLocations);
     }
 
+    public void setResultCacheKey(QueryResultCacheKey resultCacheKey)
+    {
+        outputManager.setResultCacheKey(resultCacheKey);
+    }
+
+    public void setCachedResult(CachedQueryResult cachedResult)
+    {
+        outputManager.setCachedResult(cachedResult);
+    }
+
     public void setInputs(List<Input> inputs)
     {
         requireNonNull(inputs, "inputs is null");
@@ -963,6 +975,10 @@ public class QueryStateMachine
         private final Set<URI> exchangeLocations = new LinkedHashSet<>();
         @GuardedBy("this")
         private boolean noMoreExchangeLocations;
+        @GuardedBy("this")
+        private Optional<QueryResultCacheKey> resultCacheKey = Optional.empty();
+        @GuardedBy("this")
+        private Optional<CachedQueryResult> cachedResult = Optional.empty();
 
         public QueryOutputManager(Executor executor)
         {
@@ -1000,6 +1016,33 @@ public class QueryStateMachine
             queryOutputInfo.ifPresent(info -> fireStateChanged(info, outputInfoListeners));
         }
 
+        public synchronized void setResultCacheKey(QueryResultCacheKey resultCacheKey)
+        {
+            requireNonNull(resultCacheKey, "resultCacheKey is null");
+            checkState(this.columnNames == null && this.columnTypes == null, "output fields already set");
+            this.resultCacheKey = Optional.of(resultCacheKey);
+        }
+
+        public void setCachedResult(CachedQueryResult cachedResult)
+        {
+            requireNonNull(cachedResult, "cachedResult is null");
+
+            Optional<QueryOutputInfo> queryOutputInfo;
+            List<Consumer<QueryOutputInfo>> outputInfoListeners;
+            synchronized (this) {
+                checkState(this.columnNames == null && this.columnTypes == null, "output fields already set");
+                this.columnNames = cachedResult.getColumnNames();
+                this.columnTypes = cachedResult.getColumnTypes();
+                this.cachedResult = Optional.of(cachedResult);
+                this.resultCacheKey = Optional.empty();
+                this.noMoreExchangeLocations = true;
+
+                queryOutputInfo = getQueryOutputInfo();
+                outputInfoListeners = ImmutableList.copyOf(this.outputInfoListeners);
+            }
+            queryOutputInfo.ifPresent(info -> fireStateChanged(info, outputInfoListeners));
+        }
+
         public void updateOutputLocations(Set<URI> newExchangeLocations, boolean noMoreExchangeLocations)
         {
             requireNonNull(newExchangeLocations, "newExchangeLocations is null");
@@ -1025,7 +1068,7 @@ public class QueryStateMachine
             if (columnNames == null || columnTypes == null) {
                 return Optional.empty();
             }
-            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations));
+            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations, resultCacheKey, cachedResult));
         }
 
         private void fireStateChanged(QueryOutputInfo queryOutputInfo, List<Consumer<QueryOutputInfo>> outputInfoListeners)
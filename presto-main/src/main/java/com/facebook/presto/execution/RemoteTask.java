@@ -16,10 +16,13 @@ package com.facebook.presto.execution;
 import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.Map;
+
 public interface RemoteTask
 {
     TaskId getTaskId();
@@ -42,6 +45,16 @@ public interface RemoteTask
 
     void addStateChangeListener(StateChangeListener<TaskStatus> stateChangeListener);
 
+    /**
+     * Listens to the dynamic filter summaries published by the task.
+     */
+    void addDynamicFilterSummariesListener(StateChangeListener<DynamicFilterSummaries> stateChangeListener);
+
+    /**
+     * Sends the dynamic filters collected from other stages to the task.
+     */
+    void addDynamicFilters(Map<PlanNodeId, DynamicFilterSummary> dynamicFilters);
+
     ListenableFuture<?> whenSplitQueueHasSpace(int threshold);
 
     void cancel();
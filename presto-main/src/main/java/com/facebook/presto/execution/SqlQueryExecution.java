@@ -19,6 +19,12 @@ import com.facebook.presto.Session;
 import com.facebook.presto.SystemSessionProperties;
 import com.facebook.presto.connector.ConnectorId;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.plancache.CachedPlan;
+import com.facebook.presto.execution.plancache.PlanCache;
+import com.facebook.presto.execution.plancache.PlanCacheKey;
+import com.facebook.presto.execution.resultcache.CachedQueryResult;
+import com.facebook.presto.execution.resultcache.QueryResultCache;
+import com.facebook.presto.execution.resultcache.QueryResultCacheKey;
 import com.facebook.presto.execution.scheduler.ExecutionPolicy;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
@@ -82,8 +88,11 @@ import java.util.function.Consumer;
 import static com.facebook.presto.OutputBuffers.BROADCAST_PARTITION_ID;
 import static com.facebook.presto.OutputBuffers.createInitialEmptyOutputBuffers;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.facebook.presto.sql.planner.LogicalPlanner.Stage.CREATED;
+import static com.facebook.presto.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static java.util.Objects.requireNonNull;
@@ -100,6 +109,7 @@ public class SqlQueryExecution
     private final QueryStateMachine stateMachine;
 
     private final Metadata metadata;
+    private final AccessControl accessControl;
     private final SqlParser sqlParser;
     private final SplitManager splitManager;
     private final NodePartitioningManager nodePartitioningManager;
@@ -112,13 +122,20 @@ public class SqlQueryExecution
     private final ExecutorService queryExecutor;
     private final ScheduledExecutorService schedulerExecutor;
     private final FailureDetector failureDetector;
+    private final QueryExplainer queryExplainer;
 
     private final AtomicReference<SqlQueryScheduler> queryScheduler = new AtomicReference<>();
     private final AtomicReference<Plan> queryPlan = new AtomicReference<>();
     private final NodeTaskMap nodeTaskMap;
     private final ExecutionPolicy executionPolicy;
     private final SplitSchedulerStats schedulerStats;
-    private final Analysis analysis;
+    private final QueryResultCache resultCache;
+    private final PlanCache planCache;
+    private final List<Expression> parameters;
+    private final Statement statement;
+    private final Optional<Analysis> analysis;
+    private final Optional<PlanCacheKey> planCacheKey;
+    private final Optional<CachedPlan> cachedPlan;
 
     public SqlQueryExecution(QueryId queryId,
             String query,
@@ -144,10 +161,13 @@ public class SqlQueryExecution
             QueryExplainer queryExplainer,
             ExecutionPolicy executionPolicy,
             List<Expression> parameters,
-            SplitSchedulerStats schedulerStats)
+            SplitSchedulerStats schedulerStats,
+            QueryResultCache resultCache,
+            PlanCache planCache)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", queryId)) {
             this.metadata = requireNonNull(metadata, "metadata is null");
+            this.accessControl = requireNonNull(accessControl, "accessControl is null");
             this.sqlParser = requireNonNull(sqlParser, "sqlParser is null");
             this.splitManager = requireNonNull(splitManager, "splitManager is null");
             this.nodePartitioningManager = requireNonNull(nodePartitioningManager, "nodePartitioningManager is null");
@@ -158,9 +178,13 @@ public class SqlQueryExecution
             this.queryExecutor = requireNonNull(queryExecutor, "queryExecutor is null");
             this.schedulerExecutor = requireNonNull(schedulerExecutor, "schedulerExecutor is null");
             this.failureDetector = requireNonNull(failureDetector, "failureDetector is null");
+            this.queryExplainer = requireNonNull(queryExplainer, "queryExplainer is null");
             this.nodeTaskMap = requireNonNull(nodeTaskMap, "nodeTaskMap is null");
             this.executionPolicy = requireNonNull(executionPolicy, "executionPolicy is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
+            this.resultCache = requireNonNull(resultCache, "resultCache is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
+            this.parameters = requireNonNull(parameters, "parameters is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -171,11 +195,29 @@ public class SqlQueryExecution
             requireNonNull(self, "self is null");
             this.stateMachine = QueryStateMachine.begin(queryId, query, session, self, false, transactionManager, accessControl, queryExecutor, metadata);
 
-            // analyze query
-            Analyzer analyzer = new Analyzer(stateMachine.getSession(), metadata, sqlParser, accessControl, Optional.of(queryExplainer), parameters);
-            this.analysis = analyzer.analyze(statement);
-
-            stateMachine.setUpdateType(analysis.getUpdateType());
+            // plans read within an explicit transaction may depend on uncommitted changes
+            if (planCache.isEnabled() && stateMachine.isAutoCommit()) {
+                this.planCacheKey = planCache.createKey(stateMachine.getSession(), statement, parameters);
+            }
+            else {
+                this.planCacheKey = Optional.empty();
+            }
+            this.statement = requireNonNull(statement, "statement is null");
+            this.cachedPlan = planCacheKey.flatMap(key -> planCache.get(stateMachine.getSession(), key));
+
+            if (cachedPlan.isPresent()) {
+                // skip the analysis of the statement, but check the access to the columns read by the plan for the current user
+                this.analysis = Optional.empty();
+                cachedPlan.get().checkColumnAccessPermissions(stateMachine.getSession(), accessControl);
+                stateMachine.setUpdateType(null);
+            }
+            else {
+                // analyze query, with placeholders for the parameters if the plan is cached
+                List<Expression> analysisParameters = planCacheKey.map(PlanCache::createParameterPlaceholders).orElse(parameters);
+                Analyzer analyzer = new Analyzer(stateMachine.getSession(), metadata, sqlParser, accessControl, Optional.of(queryExplainer), analysisParameters);
+                this.analysis = Optional.of(analyzer.analyze(statement));
+                stateMachine.setUpdateType(analysis.get().getUpdateType());
+            }
 
             // when the query finishes cache the final query info, and clear the reference to the output stage
             stateMachine.addStateChangeListener(state -> {
@@ -285,6 +327,19 @@ public class SqlQueryExecution
                     return;
                 }
 
+                Optional<QueryResultCacheKey> resultCacheKey = createResultCacheKey();
+                if (resultCacheKey.isPresent()) {
+                    Optional<CachedQueryResult> cachedResult = resultCache.get(resultCacheKey.get());
+                    if (cachedResult.isPresent()) {
+                        // serve the output from the cache without planning or scheduling the query
+                        if (stateMachine.transitionToStarting() && stateMachine.transitionToRunning()) {
+                            stateMachine.setCachedResult(cachedResult.get());
+                        }
+                        return;
+                    }
+                    stateMachine.setResultCacheKey(resultCacheKey.get());
+                }
+
                 // analyze query
                 PlanRoot plan = analyzeQuery();
 
@@ -339,6 +394,21 @@ public class SqlQueryExecution
         stateMachine.addQueryInfoStateChangeListener(stateChangeListener);
     }
 
+    private Optional<QueryResultCacheKey> createResultCacheKey()
+    {
+        // results read within an explicit transaction may include uncommitted changes
+        if (!resultCache.isEnabled() || !stateMachine.isAutoCommit()) {
+            return Optional.empty();
+        }
+        if (analysis.isPresent()) {
+            return resultCache.createKey(stateMachine.getSession(), analysis.get(), parameters);
+        }
+        if (!cachedPlan.get().isResultCacheable()) {
+            return Optional.empty();
+        }
+        return resultCache.createKey(stateMachine.getSession(), statement, cachedPlan.get().getTables(), parameters);
+    }
+
     private PlanRoot analyzeQuery()
     {
         try {
@@ -354,10 +424,34 @@ public class SqlQueryExecution
         // time analysis phase
         long analysisStart = System.nanoTime();
 
-        // plan query
-        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
-        LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, idAllocator, metadata, sqlParser);
-        Plan plan = logicalPlanner.plan(analysis);
+        // plan query, unless the logical plan of the statement is cached
+        Plan plan;
+        if (cachedPlan.isPresent()) {
+            // cached plans can always be bound
+            Plan logicalPlan = planCache.bind(stateMachine.getSession(), planCacheKey.get(), cachedPlan.get().getPlan(), parameters).get();
+            LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, cachedPlan.get().createPlanNodeIdAllocator(), metadata, sqlParser);
+            plan = logicalPlanner.optimize(logicalPlan, OPTIMIZED_AND_VALIDATED);
+        }
+        else if (planCacheKey.isPresent()) {
+            LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, new PlanNodeIdAllocator(), metadata, sqlParser);
+            Plan logicalPlan = logicalPlanner.plan(analysis.get(), CREATED);
+            Optional<Plan> boundPlan = planCache.bind(stateMachine.getSession(), planCacheKey.get(), logicalPlan, parameters);
+            if (boundPlan.isPresent()) {
+                planCache.put(stateMachine.getSession(), planCacheKey.get(), analysis.get(), logicalPlan);
+                plan = logicalPlanner.optimize(boundPlan.get(), OPTIMIZED_AND_VALIDATED);
+            }
+            else {
+                // the statement was analyzed with placeholders the values of the parameters can not be put in place of
+                Analyzer analyzer = new Analyzer(stateMachine.getSession(), metadata, sqlParser, accessControl, Optional.of(queryExplainer), parameters);
+                logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, new PlanNodeIdAllocator(), metadata, sqlParser);
+                plan = logicalPlanner.plan(analyzer.analyze(statement));
+            }
+        }
+        else {
+            PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+            LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(), planOptimizers, idAllocator, metadata, sqlParser);
+            plan = logicalPlanner.plan(analysis.get());
+        }
         queryPlan.set(plan);
 
         // extract inputs
@@ -374,8 +468,15 @@ public class SqlQueryExecution
         // record analysis time
         stateMachine.recordAnalysisTime(analysisStart);
 
-        boolean explainAnalyze = analysis.getStatement() instanceof Explain && ((Explain) analysis.getStatement()).isAnalyze();
-        return new PlanRoot(fragmentedPlan, !explainAnalyze, extractConnectors(analysis));
+        if (!analysis.isPresent()) {
+            Set<ConnectorId> connectors = cachedPlan.get().getTables().stream()
+                    .map(TableHandle::getConnectorId)
+                    .collect(toImmutableSet());
+            return new PlanRoot(fragmentedPlan, true, connectors);
+        }
+
+        boolean explainAnalyze = analysis.get().getStatement() instanceof Explain && ((Explain) analysis.get().getStatement()).isAnalyze();
+        return new PlanRoot(fragmentedPlan, !explainAnalyze, extractConnectors(analysis.get()));
     }
 
     private Set<ConnectorId> extractConnectors(Analysis analysis)
@@ -505,7 +606,13 @@ public class SqlQueryExecution
     @Override
     public void addOutputInfoListener(Consumer<QueryOutputInfo> listener)
     {
-        stateMachine.addOutputInfoListener(listener);
+        stateMachine.addOutputInfoListener(outputInfo -> {
+            listener.accept(outputInfo);
+            // a query served from the result cache is finished once the cached output has been handed over
+            if (outputInfo.getCachedResult().isPresent()) {
+                stateMachine.transitionToFinishing();
+            }
+        });
     }
 
     @Override
@@ -642,6 +749,8 @@ public class SqlQueryExecution
         private final Map<String, ExecutionPolicy> executionPolicies;
         private final ClusterMemoryManager clusterMemoryManager;
         private final DataSize preAllocateMemoryThreshold;
+        private final QueryResultCache resultCache;
+        private final PlanCache planCache;
 
         @Inject
         SqlQueryExecutionFactory(QueryManagerConfig config,
@@ -664,7 +773,9 @@ public class SqlQueryExecution
                 QueryExplainer queryExplainer,
                 Map<String, ExecutionPolicy> executionPolicies,
                 SplitSchedulerStats schedulerStats,
-                ClusterMemoryManager clusterMemoryManager)
+                ClusterMemoryManager clusterMemoryManager,
+                QueryResultCache resultCache,
+                PlanCache planCache)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -689,6 +800,8 @@ public class SqlQueryExecution
             this.clusterMemoryManager = requireNonNull(clusterMemoryManager, "clusterMemoryManager is null");
             this.preAllocateMemoryThreshold = requireNonNull(featuresConfig, "featuresConfig is null").getPreAllocateMemoryThreshold();
             this.planOptimizers = planOptimizers.get();
+            this.resultCache = requireNonNull(resultCache, "resultCache is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -723,7 +836,9 @@ public class SqlQueryExecution
                     queryExplainer,
                     executionPolicy,
                     parameters,
-                    schedulerStats);
+                    schedulerStats,
+                    resultCache,
+                    planCache);
 
             if (preAllocateMemoryThreshold.toBytes() > 0 && session.getResourceEstimates().getPeakMemory().isPresent() &&
                     session.getResourceEstimates().getPeakMemory().get().compareTo(preAllocateMemoryThreshold) >= 0) {
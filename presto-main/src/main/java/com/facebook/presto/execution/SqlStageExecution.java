@@ -20,6 +20,7 @@ import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
 import com.facebook.presto.failureDetector.FailureDetector;
 import com.facebook.presto.metadata.RemoteTransactionHandle;
 import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.StandardErrorCode;
@@ -28,6 +29,7 @@ import com.facebook.presto.sql.planner.PlanFragment;
 import com.facebook.presto.sql.planner.plan.PlanFragmentId;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -37,12 +39,15 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import io.airlift.units.Duration;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -93,6 +98,17 @@ public final class SqlStageExecution
 
     private final ListenerManager<Set<Lifespan>> completedLifespansChangeListeners = new ListenerManager<>();
 
+    // summaries of the dynamic filters of the joins of this stage, by join and task
+    @GuardedBy("this")
+    private final Map<PlanNodeId, Map<TaskId, DynamicFilterSummary>> dynamicFilterSummaries = new HashMap<>();
+    @GuardedBy("this")
+    private final Multimap<PlanNodeId, Consumer<DynamicFilterSummary>> dynamicFilterListeners = ArrayListMultimap.create();
+    @GuardedBy("this")
+    private boolean allTasksScheduled;
+    // dynamic filters collected by other stages for the table scans of this stage
+    @GuardedBy("this")
+    private final Map<PlanNodeId, DynamicFilterSummary> dynamicFilters = new HashMap<>();
+
     public SqlStageExecution(
             StageId stageId,
             URI location,
@@ -183,6 +199,9 @@ public final class SqlStageExecution
             return;
         }
 
+        allTasksScheduled = true;
+        completeDynamicFilters();
+
         if (getAllTasks().stream().anyMatch(task -> getState() == StageState.RUNNING)) {
             stateMachine.transitionToRunning();
         }
@@ -203,6 +222,59 @@ public final class SqlStageExecution
         completeSources.add(partitionedSource);
     }
 
+    /**
+     * Registers a listener notified with the summary of the build rows of the join in all the tasks of this stage.
+     */
+    public synchronized void addDynamicFilterListener(PlanNodeId joinId, Consumer<DynamicFilterSummary> listener)
+    {
+        requireNonNull(joinId, "joinId is null");
+        requireNonNull(listener, "listener is null");
+        dynamicFilterListeners.put(joinId, listener);
+    }
+
+    /**
+     * Delivers the dynamic filters collected by other stages to the current and future tasks of this stage.
+     */
+    public synchronized void addDynamicFilters(Map<PlanNodeId, DynamicFilterSummary> newDynamicFilters)
+    {
+        requireNonNull(newDynamicFilters, "newDynamicFilters is null");
+        dynamicFilters.putAll(newDynamicFilters);
+        for (RemoteTask task : getAllTasks()) {
+            task.addDynamicFilters(newDynamicFilters);
+        }
+    }
+
+    private synchronized void updateDynamicFilterSummaries(TaskId taskId, DynamicFilterSummaries summaries)
+    {
+        summaries.getSummaries().forEach((joinId, summary) -> {
+            if (dynamicFilterListeners.containsKey(joinId)) {
+                dynamicFilterSummaries.computeIfAbsent(joinId, key -> new HashMap<>()).put(taskId, summary);
+            }
+        });
+        completeDynamicFilters();
+    }
+
+    @GuardedBy("this")
+    private void completeDynamicFilters()
+    {
+        // the summary of a join is complete once every task of the stage has published it
+        if (!allTasksScheduled) {
+            return;
+        }
+        Iterator<Entry<PlanNodeId, Map<TaskId, DynamicFilterSummary>>> iterator = dynamicFilterSummaries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<PlanNodeId, Map<TaskId, DynamicFilterSummary>> entry = iterator.next();
+            if (!entry.getValue().keySet().containsAll(allTasks)) {
+                continue;
+            }
+            DynamicFilterSummary summary = DynamicFilterSummary.union(ImmutableList.copyOf(entry.getValue().values()));
+            for (Consumer<DynamicFilterSummary> listener : dynamicFilterListeners.removeAll(entry.getKey())) {
+                executor.execute(() -> listener.accept(summary));
+            }
+            iterator.remove();
+        }
+    }
+
     public synchronized void cancel()
     {
         stateMachine.transitionToCanceled();
@@ -384,12 +456,18 @@ public final class SqlStageExecution
                 summarizeTaskInfo);
 
         completeSources.forEach(task::noMoreSplits);
+        if (!dynamicFilters.isEmpty()) {
+            task.addDynamicFilters(ImmutableMap.copyOf(dynamicFilters));
+        }
 
         allTasks.add(taskId);
         tasks.computeIfAbsent(node, key -> newConcurrentHashSet()).add(task);
         nodeTaskMap.addTask(node, task);
 
         task.addStateChangeListener(new StageTaskListener());
+        if (!dynamicFilterListeners.isEmpty()) {
+            task.addDynamicFilterSummariesListener(summaries -> updateDynamicFilterSummaries(taskId, summaries));
+        }
 
         if (!stateMachine.getState().isDone()) {
             task.start();
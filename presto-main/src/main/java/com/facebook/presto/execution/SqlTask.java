@@ -22,6 +22,7 @@ import com.facebook.presto.execution.buffer.BufferResult;
 import com.facebook.presto.execution.buffer.LazyOutputBuffer;
 import com.facebook.presto.execution.buffer.OutputBuffer;
 import com.facebook.presto.memory.QueryContext;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.operator.PipelineContext;
 import com.facebook.presto.operator.PipelineStatus;
 import com.facebook.presto.operator.TaskContext;
@@ -44,6 +45,7 @@ import javax.annotation.Nullable;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
@@ -222,6 +224,7 @@ public class SqlTask
         Set<Lifespan> completedDriverGroups = ImmutableSet.of();
         long fullGcCount = 0;
         Duration fullGcTime = new Duration(0, MILLISECONDS);
+        long dynamicFiltersVersion = 0;
         if (taskHolder.getFinalTaskInfo() != null) {
             TaskStats taskStats = taskHolder.getFinalTaskInfo().getStats();
             queuedPartitionedDrivers = taskStats.getQueuedPartitionedDrivers();
@@ -247,6 +250,7 @@ public class SqlTask
             completedDriverGroups = taskContext.getCompletedDriverGroups();
             fullGcCount = taskContext.getFullGcCount();
             fullGcTime = taskContext.getFullGcTime();
+            dynamicFiltersVersion = taskContext.getDynamicFilters().getVersion();
         }
 
         return new TaskStatus(taskStateMachine.getTaskId(),
@@ -264,7 +268,8 @@ public class SqlTask
                 userMemoryReservation,
                 systemMemoryReservation,
                 fullGcCount,
-                fullGcTime);
+                fullGcTime,
+                dynamicFiltersVersion);
     }
 
     private TaskStats getTaskStats(TaskHolder taskHolder)
@@ -379,6 +384,26 @@ public class SqlTask
         return getTaskInfo();
     }
 
+    public DynamicFilterSummaries getDynamicFilterSummaries()
+    {
+        SqlTaskExecution taskExecution = taskHolderReference.get().getTaskExecution();
+        if (taskExecution == null) {
+            return DynamicFilterSummaries.EMPTY;
+        }
+        return taskExecution.getTaskContext().getDynamicFilters().getSummaries();
+    }
+
+    public void addDynamicFilters(Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
+    {
+        requireNonNull(dynamicFilters, "dynamicFilters is null");
+
+        // the filters are useless once the task has finished
+        SqlTaskExecution taskExecution = taskHolderReference.get().getTaskExecution();
+        if (taskExecution != null) {
+            taskExecution.getTaskContext().getDynamicFilters().addRemoteSummaries(dynamicFilters);
+        }
+    }
+
     public ListenableFuture<BufferResult> getTaskResults(OutputBufferId bufferId, long startingSequenceId, DataSize maxSize)
     {
         requireNonNull(bufferId, "bufferId is null");
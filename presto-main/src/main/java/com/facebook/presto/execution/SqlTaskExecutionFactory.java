@@ -84,6 +84,7 @@ public class SqlTaskExecutionFactory
                         fragment.getPartitioningScheme(),
                         fragment.getStageExecutionStrategy(),
                         fragment.getPartitionedSources(),
+                        fragment.getRemoteDynamicFilters(),
                         outputBuffer);
             }
             catch (Throwable e) {
@@ -28,12 +28,14 @@ import com.facebook.presto.memory.MemoryPoolAssignment;
 import com.facebook.presto.memory.MemoryPoolAssignmentsRequest;
 import com.facebook.presto.memory.NodeMemoryConfig;
 import com.facebook.presto.memory.QueryContext;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spiller.LocalSpillManager;
 import com.facebook.presto.spiller.NodeSpillConfig;
 import com.facebook.presto.sql.planner.LocalExecutionPlanner;
 import com.facebook.presto.sql.planner.PlanFragment;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -59,6 +61,7 @@ import javax.inject.Inject;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.ExecutorService;
@@ -365,6 +368,23 @@ public class SqlTaskManager
         return sqlTask.updateTask(session, fragment, sources, outputBuffers, totalPartitions);
     }
 
+    @Override
+    public DynamicFilterSummaries getDynamicFilterSummaries(TaskId taskId)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        return tasks.getUnchecked(taskId).getDynamicFilterSummaries();
+    }
+
+    @Override
+    public void addDynamicFilters(TaskId taskId, Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
+    {
+        requireNonNull(taskId, "taskId is null");
+        requireNonNull(dynamicFilters, "dynamicFilters is null");
+
+        tasks.getUnchecked(taskId).addDynamicFilters(dynamicFilters);
+    }
+
     @Override
     public ListenableFuture<BufferResult> getTaskResults(TaskId taskId, OutputBufferId bufferId, long startingSequenceId, DataSize maxSize)
     {
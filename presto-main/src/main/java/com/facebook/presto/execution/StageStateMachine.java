@@ -18,6 +18,7 @@ import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
 import com.facebook.presto.operator.BlockedReason;
 import com.facebook.presto.operator.OperatorStats;
+import com.facebook.presto.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import com.facebook.presto.operator.PipelineStats;
 import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.spi.eventlistener.StageGcStatistics;
@@ -313,6 +314,13 @@ public class StageStateMachine
             }
         }
 
+        double outputPartitionSkew = 0;
+        for (OperatorStats operatorStats : operatorToStats.values()) {
+            if (operatorStats.getInfo() instanceof PartitionedOutputInfo) {
+                outputPartitionSkew = Math.max(outputPartitionSkew, ((PartitionedOutputInfo) operatorStats.getInfo()).getPartitionSkew());
+            }
+        }
+
         StageStats stageStats = new StageStats(
                 schedulingComplete.get(),
                 getSplitDistribution.snapshot(),
@@ -347,6 +355,7 @@ public class StageStateMachine
                 succinctBytes(bufferedDataSize),
                 succinctBytes(outputDataSize),
                 outputPositions,
+                outputPartitionSkew,
                 succinctBytes(physicalWrittenDataSize),
 
                 new StageGcStatistics(
@@ -73,6 +73,7 @@ public class StageStats
     private final DataSize bufferedDataSize;
     private final DataSize outputDataSize;
     private final long outputPositions;
+    private final double outputPartitionSkew;
 
     private final DataSize physicalWrittenDataSize;
 
@@ -119,6 +120,7 @@ public class StageStats
             @JsonProperty("bufferedDataSize") DataSize bufferedDataSize,
             @JsonProperty("outputDataSize") DataSize outputDataSize,
             @JsonProperty("outputPositions") long outputPositions,
+            @JsonProperty("outputPartitionSkew") double outputPartitionSkew,
 
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
@@ -173,6 +175,8 @@ public class StageStats
         this.outputDataSize = requireNonNull(outputDataSize, "outputDataSize is null");
         checkArgument(outputPositions >= 0, "outputPositions is negative");
         this.outputPositions = outputPositions;
+        checkArgument(outputPartitionSkew >= 0, "outputPartitionSkew is negative");
+        this.outputPartitionSkew = outputPartitionSkew;
 
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "writtenDataSize is null");
 
@@ -355,6 +359,16 @@ public class StageStats
         return outputPositions;
     }
 
+    /**
+     * Ratio of the rows sent to the largest output partition to the average rows per
+     * output partition, or 0 if the stage does not hash partition its output.
+     */
+    @JsonProperty
+    public double getOutputPartitionSkew()
+    {
+        return outputPartitionSkew;
+    }
+
     @JsonProperty
     public DataSize getPhysicalWrittenDataSize()
     {
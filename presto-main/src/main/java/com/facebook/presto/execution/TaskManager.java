@@ -20,11 +20,14 @@ import com.facebook.presto.TaskSource;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.buffer.BufferResult;
 import com.facebook.presto.memory.MemoryPoolAssignmentsRequest;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.sql.planner.PlanFragment;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 
@@ -86,6 +89,17 @@ public interface TaskManager
      */
     TaskInfo updateTask(Session session, TaskId taskId, Optional<PlanFragment> fragment, List<TaskSource> sources, OutputBuffers outputBuffers, OptionalInt totalPartitions);
 
+    /**
+     * Gets the dynamic filter summaries published by the task.
+     */
+    DynamicFilterSummaries getDynamicFilterSummaries(TaskId taskId);
+
+    /**
+     * Delivers the dynamic filters collected by the coordinator from other stages
+     * to the table scans of the task, keyed by the id of the join producing them.
+     */
+    void addDynamicFilters(TaskId taskId, Map<PlanNodeId, DynamicFilterSummary> dynamicFilters);
+
     /**
      * Cancels a task.  If the task does not already exist, is is created and then
      * canceled.
@@ -69,6 +69,8 @@ public class TaskStatus
     private final long fullGcCount;
     private final Duration fullGcTime;
 
+    private final long dynamicFiltersVersion;
+
     private final List<ExecutionFailureInfo> failures;
 
     @JsonCreator
@@ -88,7 +90,8 @@ public class TaskStatus
             @JsonProperty("memoryReservation") DataSize memoryReservation,
             @JsonProperty("systemMemoryReservation") DataSize systemMemoryReservation,
             @JsonProperty("fullGcCount") long fullGcCount,
-            @JsonProperty("fullGcTime") Duration fullGcTime)
+            @JsonProperty("fullGcTime") Duration fullGcTime,
+            @JsonProperty("dynamicFiltersVersion") long dynamicFiltersVersion)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
@@ -117,6 +120,9 @@ public class TaskStatus
         checkArgument(fullGcCount >= 0, "fullGcCount is negative");
         this.fullGcCount = fullGcCount;
         this.fullGcTime = requireNonNull(fullGcTime, "fullGcTime is null");
+
+        checkArgument(dynamicFiltersVersion >= 0, "dynamicFiltersVersion is negative");
+        this.dynamicFiltersVersion = dynamicFiltersVersion;
     }
 
     @JsonProperty
@@ -215,6 +221,12 @@ public class TaskStatus
         return fullGcTime;
     }
 
+    @JsonProperty
+    public long getDynamicFiltersVersion()
+    {
+        return dynamicFiltersVersion;
+    }
+
     @Override
     public String toString()
     {
@@ -242,7 +254,8 @@ public class TaskStatus
                 new DataSize(0, BYTE),
                 new DataSize(0, BYTE),
                 0,
-                new Duration(0, MILLISECONDS));
+                new Duration(0, MILLISECONDS),
+                0);
     }
 
     public static TaskStatus failWith(TaskStatus taskStatus, TaskState state, List<ExecutionFailureInfo> exceptions)
@@ -263,6 +276,7 @@ public class TaskStatus
                 taskStatus.getMemoryReservation(),
                 taskStatus.getSystemMemoryReservation(),
                 taskStatus.getFullGcCount(),
-                taskStatus.getFullGcTime());
+                taskStatus.getFullGcTime(),
+                taskStatus.getDynamicFiltersVersion());
     }
 }
@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+public enum CompressionCodec
+{
+    NONE(PageCompression.UNCOMPRESSED),
+    LZ4(PageCompression.LZ4),
+    DEFLATE(PageCompression.DEFLATE);
+
+    private final PageCompression pageCompression;
+
+    CompressionCodec(PageCompression pageCompression)
+    {
+        this.pageCompression = pageCompression;
+    }
+
+    public PageCompression getPageCompression()
+    {
+        return pageCompression;
+    }
+}
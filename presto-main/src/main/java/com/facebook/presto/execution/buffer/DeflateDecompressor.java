@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.buffer;
+
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.MalformedInputException;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+class DeflateDecompressor
+        implements Decompressor
+{
+    @Override
+    public int decompress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset, int maxOutputLength)
+            throws MalformedInputException
+    {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input, inputOffset, inputLength);
+            int uncompressedLength = inflater.inflate(output, outputOffset, maxOutputLength);
+            if (!inflater.finished()) {
+                throw new MalformedInputException(inflater.getBytesRead(), "Could not decompress all input (output buffer too small?)");
+            }
+            return uncompressedLength;
+        }
+        catch (DataFormatException e) {
+            throw new MalformedInputException(inflater.getBytesRead(), "Invalid compressed stream: " + e.getMessage());
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public void decompress(ByteBuffer input, ByteBuffer output)
+            throws MalformedInputException
+    {
+        throw new UnsupportedOperationException("Decompression of byte buffer not supported for deflate");
+    }
+}
@@ -17,61 +17,99 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
-import static com.facebook.presto.execution.buffer.PageCompression.COMPRESSED;
 import static com.facebook.presto.execution.buffer.PageCompression.UNCOMPRESSED;
 import static com.facebook.presto.execution.buffer.PagesSerdeUtil.readRawPage;
 import static com.facebook.presto.execution.buffer.PagesSerdeUtil.writeRawPage;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.airlift.compress.lz4.Lz4RawCompressor.maxCompressedLength;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 @NotThreadSafe
 public class PagesSerde
 {
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+    // upper bound of the number of pages sent uncompressed after a page did not compress well
+    private static final int MAX_SKIPPED_PAGES = 64;
 
     private final BlockEncodingSerde blockEncodingSerde;
+    private final PageCompression compression;
     private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    private final Map<PageCompression, Decompressor> decompressors = new EnumMap<>(PageCompression.class);
+
+    // compression is not attempted for the next pagesToSkip pages, the interval doubles every time a sampled page does not compress well
+    private int skipInterval;
+    private int pagesToSkip;
+
+    private long uncompressedSizeInBytes;
+    private long serializedSizeInBytes;
+    private long compressionCpuNanos;
+
+    public PagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec)
+    {
+        this(blockEncodingSerde, compressionCodec, DEFAULT_COMPRESSION_LEVEL);
+    }
 
-    public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor)
+    /**
+     * @param compressionLevel level of the codecs which support one, from 1 (fastest) to 9 (smallest output)
+     */
+    public PagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec, int compressionLevel)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
-        checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
+        this.compression = requireNonNull(compressionCodec, "compressionCodec is null").getPageCompression();
+        this.compressor = createCompressor(compression, compressionLevel);
     }
 
     public SerializedPage serialize(Page page)
     {
         SliceOutput serializationBuffer = new DynamicSliceOutput(toIntExact((page.getSizeInBytes() + Integer.BYTES))); // block length is an int
         writeRawPage(page, serializationBuffer, blockEncodingSerde);
+        uncompressedSizeInBytes += serializationBuffer.size();
 
-        if (!compressor.isPresent()) {
+        if (!compressor.isPresent() || pagesToSkip > 0) {
+            pagesToSkip = max(pagesToSkip - 1, 0);
+            serializedSizeInBytes += serializationBuffer.size();
             return new SerializedPage(serializationBuffer.slice(), UNCOMPRESSED, page.getPositionCount(), serializationBuffer.size());
         }
 
-        int maxCompressedLength = maxCompressedLength(serializationBuffer.size());
+        long start = currentThreadCpuTime();
+        int maxCompressedLength = compressor.get().maxCompressedLength(serializationBuffer.size());
         byte[] compressionBuffer = new byte[maxCompressedLength];
         int actualCompressedLength = compressor.get().compress(serializationBuffer.slice().getBytes(), 0, serializationBuffer.size(), compressionBuffer, 0, maxCompressedLength);
+        compressionCpuNanos += currentThreadCpuTime() - start;
 
         if (((1.0 * actualCompressedLength) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
+            skipInterval = min(max(skipInterval * 2, 1), MAX_SKIPPED_PAGES);
+            pagesToSkip = skipInterval;
+            serializedSizeInBytes += serializationBuffer.size();
             return new SerializedPage(serializationBuffer.slice(), UNCOMPRESSED, page.getPositionCount(), serializationBuffer.size());
         }
 
+        skipInterval = 0;
+        serializedSizeInBytes += actualCompressedLength;
         return new SerializedPage(
                 Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
-                COMPRESSED,
+                compression,
                 page.getPositionCount(),
                 serializationBuffer.size());
     }
@@ -80,15 +118,70 @@ public class PagesSerde
     {
         checkArgument(serializedPage != null, "serializedPage is null");
 
-        if (!decompressor.isPresent() || serializedPage.getCompression() == UNCOMPRESSED) {
+        if (serializedPage.getCompression() == UNCOMPRESSED) {
             return readRawPage(serializedPage.getPositionCount(), serializedPage.getSlice().getInput(), blockEncodingSerde);
         }
 
+        // pages are decompressed with the codec they were written with, which may differ from the codec of this serde
+        Decompressor decompressor = decompressors.computeIfAbsent(serializedPage.getCompression(), PagesSerde::createDecompressor);
         int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
         byte[] decompressed = new byte[uncompressedSize];
-        int actualUncompressedSize = decompressor.get().decompress(serializedPage.getSlice().getBytes(), 0, serializedPage.getSlice().length(), decompressed, 0, uncompressedSize);
+        int actualUncompressedSize = decompressor.decompress(serializedPage.getSlice().getBytes(), 0, serializedPage.getSlice().length(), decompressed, 0, uncompressedSize);
         checkState(uncompressedSize == actualUncompressedSize);
 
         return readRawPage(serializedPage.getPositionCount(), Slices.wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), blockEncodingSerde);
     }
+
+    /**
+     * Size of the pages serialized by this serde before compression
+     */
+    public long getUncompressedSizeInBytes()
+    {
+        return uncompressedSizeInBytes;
+    }
+
+    /**
+     * Size of the pages serialized by this serde after compression, including the pages which were not compressed
+     */
+    public long getSerializedSizeInBytes()
+    {
+        return serializedSizeInBytes;
+    }
+
+    public long getCompressionCpuNanos()
+    {
+        return compressionCpuNanos;
+    }
+
+    private static Optional<Compressor> createCompressor(PageCompression compression, int compressionLevel)
+    {
+        switch (compression) {
+            case UNCOMPRESSED:
+                return Optional.empty();
+            case LZ4:
+                return Optional.of(new Lz4Compressor());
+            case DEFLATE:
+                return Optional.of(new DeflateCompressor(compressionLevel));
+        }
+        throw new IllegalArgumentException("Unsupported compression: " + compression);
+    }
+
+    private static Decompressor createDecompressor(PageCompression compression)
+    {
+        switch (compression) {
+            case LZ4:
+                return new Lz4Decompressor();
+            case DEFLATE:
+                return new DeflateDecompressor();
+        }
+        throw new IllegalArgumentException("Unsupported compression: " + compression);
+    }
+
+    private static long currentThreadCpuTime()
+    {
+        if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+            return 0;
+        }
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
 }
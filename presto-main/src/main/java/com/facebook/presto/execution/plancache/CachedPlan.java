@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.plancache;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.QualifiedObjectName;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.security.AccessControl;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Logical plan of a statement, together with the versions of the tables it was computed from
+ * and the facts from the analysis of the statement that executions of the plan depend on.
+ * The plan is bound to the parameters of each execution and optimized before it is used.
+ */
+@Immutable
+public final class CachedPlan
+{
+    private final Plan plan;
+    private final int nextPlanNodeId;
+    private final Map<TableHandle, Long> tableVersions;
+    private final Map<QualifiedObjectName, Set<String>> tableColumnReferences;
+    private final boolean resultCacheable;
+
+    public CachedPlan(Plan plan, Map<TableHandle, Long> tableVersions, Map<QualifiedObjectName, Set<String>> tableColumnReferences, boolean resultCacheable)
+    {
+        this.plan = requireNonNull(plan, "plan is null");
+        this.nextPlanNodeId = searchFrom(plan.getRoot()).findAll().stream()
+                .mapToInt(node -> Integer.parseInt(node.getId().toString()))
+                .max()
+                .orElse(-1) + 1;
+        this.tableVersions = ImmutableMap.copyOf(requireNonNull(tableVersions, "tableVersions is null"));
+        this.tableColumnReferences = requireNonNull(tableColumnReferences, "tableColumnReferences is null").entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> ImmutableSet.copyOf(entry.getValue())));
+        this.resultCacheable = resultCacheable;
+    }
+
+    /**
+     * @return the logical plan, which must be bound with {@link PlanCache#bind} and optimized before it is executed
+     */
+    public Plan getPlan()
+    {
+        return plan;
+    }
+
+    /**
+     * @return the allocator of the ids of the nodes the optimizers add to the plan
+     */
+    public PlanNodeIdAllocator createPlanNodeIdAllocator()
+    {
+        return new PlanNodeIdAllocator(nextPlanNodeId);
+    }
+
+    public Map<TableHandle, Long> getTableVersions()
+    {
+        return tableVersions;
+    }
+
+    public Set<TableHandle> getTables()
+    {
+        return tableVersions.keySet();
+    }
+
+    /**
+     * @return true if the result of the statement can be cached, see {@link com.facebook.presto.execution.resultcache.QueryResultCache#isCacheable}
+     */
+    public boolean isResultCacheable()
+    {
+        return resultCacheable;
+    }
+
+    /**
+     * Checks the access of the user of the session to the columns read by the plan.
+     */
+    public void checkColumnAccessPermissions(Session session, AccessControl accessControl)
+    {
+        tableColumnReferences.forEach((tableName, columns) ->
+                accessControl.checkCanSelectFromColumns(session.getRequiredTransactionId(), session.getIdentity(), tableName, columns));
+    }
+}
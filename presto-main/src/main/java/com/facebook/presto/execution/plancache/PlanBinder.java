@@ -0,0 +1,261 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.plancache;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.operator.scalar.ParameterFunction;
+import com.facebook.presto.sql.planner.LiteralInterpreter;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Aggregation;
+import com.facebook.presto.sql.planner.plan.ApplyNode;
+import com.facebook.presto.sql.planner.plan.AssignUniqueId;
+import com.facebook.presto.sql.planner.plan.DistinctLimitNode;
+import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
+import com.facebook.presto.sql.planner.plan.ExceptNode;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
+import com.facebook.presto.sql.planner.plan.IntersectNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.MarkDistinctNode;
+import com.facebook.presto.sql.planner.plan.OutputNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.RowNumberNode;
+import com.facebook.presto.sql.planner.plan.SampleNode;
+import com.facebook.presto.sql.planner.plan.SemiJoinNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.planner.plan.TopNRowNumberNode;
+import com.facebook.presto.sql.planner.plan.UnionNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.facebook.presto.sql.planner.plan.ValuesNode;
+import com.facebook.presto.sql.planner.plan.WindowNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.ExpressionRewriter;
+import com.facebook.presto.sql.tree.ExpressionTreeRewriter;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.sql.planner.plan.SimplePlanRewriter.rewriteWith;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces the placeholders for the parameters of a statement in its cached logical plan with the
+ * values of the parameters, so that the plan can be optimized for the values. Only the expressions
+ * of the node types the binder knows are rewritten, see {@link #canBind}.
+ */
+class PlanBinder
+        extends SimplePlanRewriter<Void>
+{
+    private static final QualifiedName PARAMETER_FUNCTION = QualifiedName.of(ParameterFunction.NAME);
+
+    // the nodes of a logical plan that do not have expressions
+    private static final Set<Class<? extends PlanNode>> NODES_WITHOUT_EXPRESSIONS = ImmutableSet.of(
+            AssignUniqueId.class,
+            DistinctLimitNode.class,
+            EnforceSingleRowNode.class,
+            ExceptNode.class,
+            GroupIdNode.class,
+            IntersectNode.class,
+            LateralJoinNode.class,
+            LimitNode.class,
+            MarkDistinctNode.class,
+            OutputNode.class,
+            RowNumberNode.class,
+            SampleNode.class,
+            SemiJoinNode.class,
+            SortNode.class,
+            TableScanNode.class,
+            TopNNode.class,
+            TopNRowNumberNode.class,
+            UnionNode.class,
+            UnnestNode.class);
+
+    // the nodes whose expressions are rewritten by the binder
+    private static final Set<Class<? extends PlanNode>> NODES_WITH_EXPRESSIONS = ImmutableSet.of(
+            AggregationNode.class,
+            ApplyNode.class,
+            FilterNode.class,
+            JoinNode.class,
+            ProjectNode.class,
+            ValuesNode.class,
+            WindowNode.class);
+
+    private final Session session;
+    private final Metadata metadata;
+    private final List<Expression> parameterValues;
+
+    private PlanBinder(Session session, Metadata metadata, List<Expression> parameterValues)
+    {
+        this.session = requireNonNull(session, "session is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.parameterValues = ImmutableList.copyOf(requireNonNull(parameterValues, "parameterValues is null"));
+    }
+
+    /**
+     * @return true if every placeholder in the plan is in an expression the binder replaces placeholders in
+     */
+    public static boolean canBind(Plan plan)
+    {
+        return !searchFrom(plan.getRoot())
+                .where(node -> !NODES_WITH_EXPRESSIONS.contains(node.getClass()) && !NODES_WITHOUT_EXPRESSIONS.contains(node.getClass()))
+                .findFirst()
+                .isPresent();
+    }
+
+    /**
+     * @param parameterValues the literal values of the parameters of the statement
+     * @see #canBind
+     */
+    public static Plan bind(Session session, Metadata metadata, Plan plan, List<Expression> parameterValues)
+    {
+        PlanBinder binder = new PlanBinder(session, metadata, parameterValues);
+        return new Plan(rewriteWith(binder, plan.getRoot()), plan.getTypes());
+    }
+
+    @Override
+    public PlanNode visitFilter(FilterNode node, RewriteContext<Void> context)
+    {
+        return new FilterNode(node.getId(), context.rewrite(node.getSource()), bind(node.getPredicate()));
+    }
+
+    @Override
+    public PlanNode visitProject(ProjectNode node, RewriteContext<Void> context)
+    {
+        return new ProjectNode(node.getId(), context.rewrite(node.getSource()), node.getAssignments().rewrite(this::bind));
+    }
+
+    @Override
+    public PlanNode visitValues(ValuesNode node, RewriteContext<Void> context)
+    {
+        ImmutableList.Builder<List<Expression>> rows = ImmutableList.builder();
+        for (List<Expression> row : node.getRows()) {
+            ImmutableList.Builder<Expression> newRow = ImmutableList.builder();
+            for (Expression expression : row) {
+                newRow.add(bind(expression));
+            }
+            rows.add(newRow.build());
+        }
+        return new ValuesNode(node.getId(), node.getOutputSymbols(), rows.build());
+    }
+
+    @Override
+    public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+    {
+        return new JoinNode(
+                node.getId(),
+                node.getType(),
+                context.rewrite(node.getLeft()),
+                context.rewrite(node.getRight()),
+                node.getCriteria(),
+                node.getOutputSymbols(),
+                node.getFilter().map(this::bind),
+                node.getLeftHashSymbol(),
+                node.getRightHashSymbol(),
+                node.getDistributionType());
+    }
+
+    @Override
+    public PlanNode visitApply(ApplyNode node, RewriteContext<Void> context)
+    {
+        return new ApplyNode(
+                node.getId(),
+                context.rewrite(node.getInput()),
+                context.rewrite(node.getSubquery()),
+                node.getSubqueryAssignments().rewrite(this::bind),
+                node.getCorrelation(),
+                node.getOriginSubquery());
+    }
+
+    @Override
+    public PlanNode visitAggregation(AggregationNode node, RewriteContext<Void> context)
+    {
+        ImmutableMap.Builder<Symbol, Aggregation> aggregations = ImmutableMap.builder();
+        for (Map.Entry<Symbol, Aggregation> entry : node.getAggregations().entrySet()) {
+            Aggregation aggregation = entry.getValue();
+            aggregations.put(entry.getKey(), new Aggregation((FunctionCall) bind(aggregation.getCall()), aggregation.getSignature(), aggregation.getMask()));
+        }
+        return new AggregationNode(
+                node.getId(),
+                context.rewrite(node.getSource()),
+                aggregations.build(),
+                node.getGroupingSets(),
+                node.getPreGroupedSymbols(),
+                node.getStep(),
+                node.getHashSymbol(),
+                node.getGroupIdSymbol());
+    }
+
+    @Override
+    public PlanNode visitWindow(WindowNode node, RewriteContext<Void> context)
+    {
+        ImmutableMap.Builder<Symbol, WindowNode.Function> functions = ImmutableMap.builder();
+        for (Map.Entry<Symbol, WindowNode.Function> entry : node.getWindowFunctions().entrySet()) {
+            WindowNode.Function function = entry.getValue();
+            WindowNode.Frame frame = function.getFrame();
+            functions.put(entry.getKey(), new WindowNode.Function(
+                    (FunctionCall) bind(function.getFunctionCall()),
+                    function.getSignature(),
+                    new WindowNode.Frame(
+                            frame.getType(),
+                            frame.getStartType(),
+                            frame.getStartValue(),
+                            frame.getEndType(),
+                            frame.getEndValue(),
+                            frame.getOriginalStartValue().map(this::bind),
+                            frame.getOriginalEndValue().map(this::bind))));
+        }
+        return new WindowNode(
+                node.getId(),
+                context.rewrite(node.getSource()),
+                node.getSpecification(),
+                functions.build(),
+                node.getHashSymbol(),
+                node.getPrePartitionedInputs(),
+                node.getPreSortedOrderPrefix());
+    }
+
+    private Expression bind(Expression expression)
+    {
+        return ExpressionTreeRewriter.rewriteWith(new ExpressionRewriter<Void>()
+        {
+            @Override
+            public Expression rewriteFunctionCall(FunctionCall node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                if (!node.getName().equals(PARAMETER_FUNCTION)) {
+                    return treeRewriter.defaultRewrite(node, context);
+                }
+                Number position = (Number) LiteralInterpreter.evaluate(metadata, session.toConnectorSession(), node.getArguments().get(1));
+                checkArgument(position.intValue() < parameterValues.size(), "No value for parameter %s", position);
+                return parameterValues.get(position.intValue());
+            }
+        }, expression);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.plancache;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.QualifiedObjectName;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.operator.scalar.ParameterFunction;
+import com.facebook.presto.spi.TableNotFoundException;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarcharType;
+import com.facebook.presto.sql.analyzer.Analysis;
+import com.facebook.presto.sql.analyzer.ExpressionAnalyzer;
+import com.facebook.presto.sql.analyzer.Scope;
+import com.facebook.presto.sql.planner.LiteralEncoder;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.tree.Cast;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.NodeRef;
+import com.facebook.presto.sql.tree.NullLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.Query;
+import com.facebook.presto.sql.tree.SampledRelation;
+import com.facebook.presto.sql.tree.Statement;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.execution.resultcache.QueryResultCache.isCacheable;
+import static com.facebook.presto.execution.resultcache.QueryResultCache.isStartTimeDependent;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.facebook.presto.sql.SqlFormatter.formatSql;
+import static com.facebook.presto.sql.analyzer.ExpressionAnalyzer.createConstantAnalyzer;
+import static com.facebook.presto.sql.planner.ExpressionInterpreter.evaluateConstantExpression;
+import static com.facebook.presto.sql.util.AstUtils.preOrder;
+import static com.facebook.presto.type.UnknownType.UNKNOWN;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coordinator cache of the logical plans of queries, which lets repeated executions of a
+ * statement skip analysis and logical planning. Plans are cached per statement with placeholders
+ * for its parameters, so the executions of a prepared statement with different parameter
+ * values share a plan. Every execution replaces the placeholders with the values of its
+ * parameters before the plan is optimized, so the optimizers see the values, for example to
+ * push predicates into the connectors or to prune partitions, and the plan is optimized in the
+ * transaction of the execution. A cached plan is reused only while the versions of all the
+ * tables it reads are unchanged, so connectors that do not report table versions never produce
+ * cache hits.
+ */
+@ThreadSafe
+public class PlanCache
+{
+    private final Metadata metadata;
+    private final LiteralEncoder literalEncoder;
+    private final boolean enabled;
+    private final Cache<PlanCacheKey, CachedPlan> cache;
+    private final AtomicLong staleCount = new AtomicLong();
+
+    @Inject
+    public PlanCache(PlanCacheConfig config, Metadata metadata)
+    {
+        requireNonNull(config, "config is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.literalEncoder = new LiteralEncoder(metadata.getBlockEncodingSerde());
+        this.enabled = config.isEnabled();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return the key of the plan of the statement, or empty if the plan of the statement can not be cached
+     */
+    public Optional<PlanCacheKey> createKey(Session session, Statement statement, List<Expression> parameters)
+    {
+        if (!enabled || !(statement instanceof Query)) {
+            return Optional.empty();
+        }
+        // the analyzer evaluates the sample percentage, which therefore can not be a placeholder
+        if (!parameters.isEmpty() && preOrder(statement).anyMatch(SampledRelation.class::isInstance)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new PlanCacheKey(
+                formatSql(statement, Optional.empty()),
+                getParameterTypes(session, parameters),
+                session.getUser(),
+                session.getCatalog(),
+                session.getSchema(),
+                session.getPath(),
+                session.getTimeZoneKey(),
+                session.getSystemProperties(),
+                session.getConnectorProperties()));
+    }
+
+    /**
+     * @return the expressions to analyze the statement of the key with, in place of the values of its parameters
+     */
+    public static List<Expression> createParameterPlaceholders(PlanCacheKey key)
+    {
+        ImmutableList.Builder<Expression> placeholders = ImmutableList.builder();
+        List<Type> parameterTypes = key.getParameterTypes();
+        for (int position = 0; position < parameterTypes.size(); position++) {
+            Type type = parameterTypes.get(position);
+            Expression typedNull = type.equals(UNKNOWN) ? new NullLiteral() : new Cast(new NullLiteral(), type.getTypeSignature().toString());
+            placeholders.add(new FunctionCall(QualifiedName.of(ParameterFunction.NAME), ImmutableList.of(typedNull, new LongLiteral(String.valueOf(position)))));
+        }
+        return placeholders.build();
+    }
+
+    /**
+     * @return the cached plan, or empty if there is no plan for the key or a table read by the plan has changed since it was cached
+     */
+    public Optional<CachedPlan> get(Session session, PlanCacheKey key)
+    {
+        requireNonNull(key, "key is null");
+        CachedPlan plan = cache.getIfPresent(key);
+        if (plan == null) {
+            return Optional.empty();
+        }
+
+        for (Map.Entry<TableHandle, Long> entry : plan.getTableVersions().entrySet()) {
+            OptionalLong version;
+            try {
+                version = metadata.getTableVersion(session, entry.getKey());
+            }
+            catch (TableNotFoundException e) {
+                version = OptionalLong.empty();
+            }
+            if (!version.isPresent() || version.getAsLong() != entry.getValue()) {
+                cache.invalidate(key);
+                staleCount.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+        return Optional.of(plan);
+    }
+
+    /**
+     * Caches the logical plan of the statement analyzed with the placeholders for its parameters,
+     * unless the plan depends on anything but the key and the tables it reads, or it has
+     * placeholders that can not be replaced with the values of the parameters.
+     */
+    public void put(Session session, PlanCacheKey key, Analysis analysis, Plan plan)
+    {
+        requireNonNull(key, "key is null");
+        requireNonNull(analysis, "analysis is null");
+        requireNonNull(plan, "plan is null");
+
+        // views are expanded during analysis, and their definitions are not versioned
+        if (analysis.getUpdateType() != null || analysis.isViewsReferenced() || isStartTimeDependent(analysis)) {
+            return;
+        }
+        if (!key.getParameterTypes().isEmpty() && !PlanBinder.canBind(plan)) {
+            return;
+        }
+
+        Map<TableHandle, Long> tableVersions = new HashMap<>();
+        for (TableHandle table : analysis.getTables()) {
+            OptionalLong version = metadata.getTableVersion(session, table);
+            if (!version.isPresent()) {
+                return;
+            }
+            tableVersions.put(table, version.getAsLong());
+        }
+
+        // the plan is shared by queries of different sessions, so only the columns are kept of the access control information
+        Map<QualifiedObjectName, Set<String>> tableColumnReferences = new HashMap<>();
+        analysis.getTableColumnReferences().values().forEach(references ->
+                references.forEach((table, columns) -> tableColumnReferences.computeIfAbsent(table, ignored -> new HashSet<>()).addAll(columns)));
+
+        cache.put(key, new CachedPlan(plan, tableVersions, tableColumnReferences, isCacheable(metadata, analysis)));
+    }
+
+    /**
+     * @return the logical plan of the key with the placeholders for the parameters replaced by their values,
+     * or empty if the plan has placeholders the values can not be put in place of, which cached plans never have
+     */
+    public Optional<Plan> bind(Session session, PlanCacheKey key, Plan plan, List<Expression> parameters)
+    {
+        List<Type> parameterTypes = key.getParameterTypes();
+        checkArgument(parameters.size() == parameterTypes.size(), "expected %s parameters, but found %s", parameterTypes.size(), parameters.size());
+        if (parameters.isEmpty()) {
+            return Optional.of(plan);
+        }
+        if (!PlanBinder.canBind(plan)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<Expression> parameterValues = ImmutableList.builder();
+        for (int position = 0; position < parameters.size(); position++) {
+            Type type = parameterTypes.get(position);
+            if (type.equals(UNKNOWN)) {
+                parameterValues.add(new NullLiteral());
+                continue;
+            }
+            Object value = evaluateConstantExpression(parameters.get(position), type, metadata, session, parameters);
+            parameterValues.add(literalEncoder.toExpression(value, type));
+        }
+        return Optional.of(PlanBinder.bind(session, metadata, plan, parameterValues.build()));
+    }
+
+    private List<Type> getParameterTypes(Session session, List<Expression> parameters)
+    {
+        ImmutableList.Builder<Type> types = ImmutableList.builder();
+        ExpressionAnalyzer analyzer = createConstantAnalyzer(metadata, session, parameters);
+        for (Expression parameter : parameters) {
+            analyzer.analyze(parameter, Scope.create());
+            Type type = analyzer.getExpressionTypes().get(NodeRef.of(parameter));
+            // the length of a string literal is part of its type, which would keep the executions with different strings from sharing a plan
+            if (type instanceof VarcharType) {
+                type = VARCHAR;
+            }
+            types.add(type);
+        }
+        return types.build();
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount() - staleCount.get();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getStaleCount()
+    {
+        return staleCount.get();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+}
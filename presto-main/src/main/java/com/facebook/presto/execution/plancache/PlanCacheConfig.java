@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.plancache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class PlanCacheConfig
+{
+    private boolean enabled;
+    private int maxEntries = 1000;
+    private Duration ttl = new Duration(1, HOURS);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("query.plan-cache.enabled")
+    @ConfigDescription("Reuse the analysis and the optimized plan of repeated statements over unchanged tables")
+    public PlanCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    @Config("query.plan-cache.max-entries")
+    @ConfigDescription("Maximum number of plans cached on the coordinator")
+    public PlanCacheConfig setMaxEntries(int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getTtl()
+    {
+        return ttl;
+    }
+
+    @Config("query.plan-cache.ttl")
+    @ConfigDescription("Time after which a cached plan is discarded")
+    public PlanCacheConfig setTtl(Duration ttl)
+    {
+        this.ttl = ttl;
+        return this;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.resultcache;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.FunctionRegistry;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.operator.scalar.ParameterFunction;
+import com.facebook.presto.sql.analyzer.Analysis;
+import com.facebook.presto.sql.tree.CurrentTime;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.NodeRef;
+import com.facebook.presto.sql.tree.Query;
+import com.facebook.presto.sql.tree.Statement;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.facebook.presto.metadata.FunctionKind.SCALAR;
+import static com.facebook.presto.sql.SqlFormatter.formatSql;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coordinator cache of the complete results of deterministic queries. A result is reused
+ * only when the query text, the session and the versions of all tables read by the query
+ * are identical, so connectors that do not report table versions never produce cache hits.
+ */
+@ThreadSafe
+public class QueryResultCache
+{
+    // functions whose result depends on the start time of the query
+    private static final Set<String> SESSION_TIME_FUNCTIONS = ImmutableSet.of(
+            "current_date",
+            "current_time",
+            "current_timestamp",
+            "now",
+            "localtime",
+            "localtimestamp");
+
+    private final Metadata metadata;
+    private final boolean enabled;
+    private final long maxEntrySizeInBytes;
+    private final Cache<QueryResultCacheKey, CachedQueryResult> cache;
+
+    @Inject
+    public QueryResultCache(QueryResultCacheConfig config, Metadata metadata)
+    {
+        requireNonNull(config, "config is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.enabled = config.isEnabled();
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .<QueryResultCacheKey, CachedQueryResult>weigher((key, result) -> (int) min(result.getRetainedSizeInBytes(), Integer.MAX_VALUE))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    /**
+     * @return the key of the result of the analyzed query, or empty if the result of the query can not be cached
+     */
+    public Optional<QueryResultCacheKey> createKey(Session session, Analysis analysis, List<Expression> parameters)
+    {
+        if (!enabled || !isCacheable(metadata, analysis)) {
+            return Optional.empty();
+        }
+        return createKey(session, analysis.getStatement(), analysis.getTables(), parameters);
+    }
+
+    /**
+     * @return the key of the result of a statement that reads the given tables, and whose analysis is cacheable, or empty if the result can not be cached
+     */
+    public Optional<QueryResultCacheKey> createKey(Session session, Statement statement, Collection<TableHandle> tables, List<Expression> parameters)
+    {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Map<TableHandle, Long> tableVersions = new HashMap<>();
+        for (TableHandle table : tables) {
+            OptionalLong version = metadata.getTableVersion(session, table);
+            if (!version.isPresent()) {
+                return Optional.empty();
+            }
+            tableVersions.put(table, version.getAsLong());
+        }
+
+        return Optional.of(new QueryResultCacheKey(
+                formatSql(statement, Optional.of(parameters)),
+                session.getUser(),
+                session.getCatalog(),
+                session.getSchema(),
+                session.getPath(),
+                session.getTimeZoneKey(),
+                session.getSystemProperties(),
+                session.getConnectorProperties(),
+                tableVersions));
+    }
+
+    /**
+     * @return true if the result of the analyzed statement is determined by its text, the session and the versions of the tables it reads
+     */
+    public static boolean isCacheable(Metadata metadata, Analysis analysis)
+    {
+        return analysis.getStatement() instanceof Query &&
+                analysis.getUpdateType() == null &&
+                !analysis.hasSampledRelations() &&
+                isDeterministic(metadata, analysis);
+    }
+
+    private static boolean isDeterministic(Metadata metadata, Analysis analysis)
+    {
+        if (isStartTimeDependent(analysis)) {
+            return false;
+        }
+        FunctionRegistry functionRegistry = metadata.getFunctionRegistry();
+        for (NodeRef<Expression> reference : analysis.getTypes().keySet()) {
+            Expression expression = reference.getNode();
+            if (expression instanceof FunctionCall) {
+                Signature signature = analysis.getFunctionSignature((FunctionCall) expression);
+                // the parameters of a cached plan are bound to constants before it is executed
+                if (signature != null && signature.getName().equals(ParameterFunction.NAME)) {
+                    continue;
+                }
+                if (signature != null && signature.getKind() == SCALAR && !functionRegistry.getScalarFunctionImplementation(signature).isDeterministic()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the analyzed query references the start time of the query, which the planner folds into constants
+     */
+    public static boolean isStartTimeDependent(Analysis analysis)
+    {
+        // the analysis records the type of every expression of the query, including the expressions of the views it references
+        for (NodeRef<Expression> reference : analysis.getTypes().keySet()) {
+            Expression expression = reference.getNode();
+            if (expression instanceof CurrentTime) {
+                return true;
+            }
+            if (expression instanceof FunctionCall) {
+                Signature signature = analysis.getFunctionSignature((FunctionCall) expression);
+                if (signature != null && SESSION_TIME_FUNCTIONS.contains(signature.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public Optional<CachedQueryResult> get(QueryResultCacheKey key)
+    {
+        requireNonNull(key, "key is null");
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(QueryResultCacheKey key, CachedQueryResult result)
+    {
+        requireNonNull(key, "key is null");
+        requireNonNull(result, "result is null");
+        if (result.getRetainedSizeInBytes() <= maxEntrySizeInBytes) {
+            cache.put(key, result);
+        }
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getRetainedSizeInBytes()
+    {
+        return cache.asMap().values().stream()
+                .mapToLong(CachedQueryResult::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.resultcache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.airlift.units.MinDuration;
+
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class QueryResultCacheConfig
+{
+    private boolean enabled;
+    private DataSize maxSize = new DataSize(256, MEGABYTE);
+    private DataSize maxEntrySize = new DataSize(16, MEGABYTE);
+    private Duration ttl = new Duration(10, MINUTES);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("query.result-cache.enabled")
+    @ConfigDescription("Reuse the results of identical deterministic queries over unchanged tables")
+    public QueryResultCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("query.result-cache.max-size")
+    @ConfigDescription("Maximum memory used by the cached query results on the coordinator")
+    public QueryResultCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxEntrySize()
+    {
+        return maxEntrySize;
+    }
+
+    @Config("query.result-cache.max-entry-size")
+    @ConfigDescription("Results of queries producing more data are not cached")
+    public QueryResultCacheConfig setMaxEntrySize(DataSize maxEntrySize)
+    {
+        this.maxEntrySize = maxEntrySize;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getTtl()
+    {
+        return ttl;
+    }
+
+    @Config("query.result-cache.ttl")
+    @ConfigDescription("Time after which a cached query result is discarded")
+    public QueryResultCacheConfig setTtl(Duration ttl)
+    {
+        this.ttl = ttl;
+        return this;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.resultcache;
+
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.spi.type.TimeZoneKey;
+import com.facebook.presto.sql.SqlPath;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Identifies the result of a query: the normalized text of the query, everything in the session
+ * that can affect its result, and the version of every table it reads.
+ */
+@Immutable
+public final class QueryResultCacheKey
+{
+    private final String sql;
+    private final String user;
+    private final Optional<String> catalog;
+    private final Optional<String> schema;
+    private final SqlPath path;
+    private final TimeZoneKey timeZoneKey;
+    private final Map<String, String> systemProperties;
+    private final Map<ConnectorId, Map<String, String>> connectorProperties;
+    private final Map<TableHandle, Long> tableVersions;
+
+    public QueryResultCacheKey(
+            String sql,
+            String user,
+            Optional<String> catalog,
+            Optional<String> schema,
+            SqlPath path,
+            TimeZoneKey timeZoneKey,
+            Map<String, String> systemProperties,
+            Map<ConnectorId, Map<String, String>> connectorProperties,
+            Map<TableHandle, Long> tableVersions)
+    {
+        this.sql = requireNonNull(sql, "sql is null");
+        this.user = requireNonNull(user, "user is null");
+        this.catalog = requireNonNull(catalog, "catalog is null");
+        this.schema = requireNonNull(schema, "schema is null");
+        this.path = requireNonNull(path, "path is null");
+        this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+        this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+        this.connectorProperties = ImmutableMap.copyOf(requireNonNull(connectorProperties, "connectorProperties is null"));
+        this.tableVersions = ImmutableMap.copyOf(requireNonNull(tableVersions, "tableVersions is null"));
+    }
+
+    public String getSql()
+    {
+        return sql;
+    }
+
+    public Map<TableHandle, Long> getTableVersions()
+    {
+        return tableVersions;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QueryResultCacheKey that = (QueryResultCacheKey) o;
+        return Objects.equals(sql, that.sql) &&
+                Objects.equals(user, that.user) &&
+                Objects.equals(catalog, that.catalog) &&
+                Objects.equals(schema, that.schema) &&
+                Objects.equals(path, that.path) &&
+                Objects.equals(timeZoneKey, that.timeZoneKey) &&
+                Objects.equals(systemProperties, that.systemProperties) &&
+                Objects.equals(connectorProperties, that.connectorProperties) &&
+                Objects.equals(tableVersions, that.tableVersions);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(sql, user, catalog, schema, path, timeZoneKey, systemProperties, connectorProperties, tableVersions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("sql", sql)
+                .add("user", user)
+                .add("catalog", catalog.orElse(null))
+                .add("schema", schema.orElse(null))
+                .add("tableVersions", tableVersions)
+                .toString();
+    }
+}
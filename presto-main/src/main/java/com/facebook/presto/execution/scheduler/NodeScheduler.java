@@ -29,6 +29,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Ordering;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.stats.CounterStat;
 
@@ -53,8 +54,10 @@ import static com.facebook.presto.spi.NodeState.ACTIVE;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.hash.Hashing.murmur3_128;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.whenAnyCompleteCancelOthers;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 public class NodeScheduler
@@ -69,6 +72,7 @@ public class NodeScheduler
     private final int maxPendingSplitsPerTask;
     private final NodeTaskMap nodeTaskMap;
     private final boolean useNetworkTopology;
+    private final boolean splitAffinityEnabled;
 
     @Inject
     public NodeScheduler(NetworkTopology networkTopology, InternalNodeManager nodeManager, NodeSchedulerConfig config, NodeTaskMap nodeTaskMap)
@@ -92,6 +96,7 @@ public class NodeScheduler
         this.nodeTaskMap = requireNonNull(nodeTaskMap, "nodeTaskMap is null");
         checkArgument(maxSplitsPerNode > maxPendingSplitsPerTask, "maxSplitsPerNode must be > maxPendingSplitsPerTask");
         this.useNetworkTopology = !config.getNetworkTopology().equals(NetworkTopologyType.LEGACY);
+        this.splitAffinityEnabled = config.isSplitAffinityEnabled();
 
         ImmutableList.Builder<CounterStat> builder = ImmutableList.builder();
         if (useNetworkTopology) {
@@ -177,7 +182,7 @@ public class NodeScheduler
                     networkLocationCache);
         }
         else {
-            return new SimpleNodeSelector(nodeManager, nodeTaskMap, includeCoordinator, nodeMap, minCandidates, maxSplitsPerNode, maxPendingSplitsPerTask);
+            return new SimpleNodeSelector(nodeManager, nodeTaskMap, includeCoordinator, nodeMap, minCandidates, maxSplitsPerNode, maxPendingSplitsPerTask, splitAffinityEnabled);
         }
     }
 
@@ -202,6 +207,27 @@ public class NodeScheduler
         return new ResettableRandomizedIterator<>(nodes);
     }
 
+    /**
+     * Ranks the nodes for the given affinity key using rendezvous hashing, which is a form of consistent
+     * hashing: adding or removing a node only moves the keys owned by that node.
+     */
+    public static List<Node> selectAffinityNodes(String affinityKey, List<Node> nodes, int limit)
+    {
+        checkArgument(limit > 0, "limit must be at least 1");
+
+        Ordering<Node> ordering = Ordering.natural().onResultOf(node -> affinityScore(affinityKey, node));
+        return ImmutableList.copyOf(ordering.greatestOf(nodes, limit));
+    }
+
+    private static long affinityScore(String affinityKey, Node node)
+    {
+        return murmur3_128().newHasher()
+                .putString(affinityKey, UTF_8)
+                .putString(node.getNodeIdentifier(), UTF_8)
+                .hash()
+                .asLong();
+    }
+
     public static List<Node> selectExactNodes(NodeMap nodeMap, List<HostAddress> hosts, boolean includeCoordinator)
     {
         Set<Node> chosen = new LinkedHashSet<>();
@@ -35,6 +35,7 @@ public class NodeSchedulerConfig
     private int maxSplitsPerNode = 100;
     private int maxPendingSplitsPerTask = 10;
     private String networkTopology = NetworkTopologyType.LEGACY;
+    private boolean splitAffinityEnabled;
 
     @NotNull
     public String getNetworkTopology()
@@ -98,4 +99,16 @@ public class NodeSchedulerConfig
         this.maxSplitsPerNode = maxSplitsPerNode;
         return this;
     }
+
+    public boolean isSplitAffinityEnabled()
+    {
+        return splitAffinityEnabled;
+    }
+
+    @Config("node-scheduler.split-affinity-enabled")
+    public NodeSchedulerConfig setSplitAffinityEnabled(boolean splitAffinityEnabled)
+    {
+        this.splitAffinityEnabled = splitAffinityEnabled;
+        return this;
+    }
 }
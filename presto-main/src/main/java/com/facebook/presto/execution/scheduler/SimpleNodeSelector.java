@@ -31,16 +31,19 @@ import io.airlift.log.Logger;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.facebook.presto.execution.scheduler.NodeScheduler.calculateLowWatermark;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.randomizedNodes;
+import static com.facebook.presto.execution.scheduler.NodeScheduler.selectAffinityNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.selectDistributionNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.selectExactNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.selectNodes;
 import static com.facebook.presto.execution.scheduler.NodeScheduler.toWhenHasSplitQueueSpaceFuture;
 import static com.facebook.presto.spi.StandardErrorCode.NO_NODES_AVAILABLE;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public class SimpleNodeSelector
@@ -48,6 +51,9 @@ public class SimpleNodeSelector
 {
     private static final Logger log = Logger.get(SimpleNodeSelector.class);
 
+    // number of preferred nodes tried for a split with an affinity key before falling back to the least loaded node
+    private static final int AFFINITY_CANDIDATES = 2;
+
     private final InternalNodeManager nodeManager;
     private final NodeTaskMap nodeTaskMap;
     private final boolean includeCoordinator;
@@ -55,6 +61,7 @@ public class SimpleNodeSelector
     private final int minCandidates;
     private final int maxSplitsPerNode;
     private final int maxPendingSplitsPerTask;
+    private final boolean splitAffinityEnabled;
 
     public SimpleNodeSelector(
             InternalNodeManager nodeManager,
@@ -63,7 +70,8 @@ public class SimpleNodeSelector
             Supplier<NodeMap> nodeMap,
             int minCandidates,
             int maxSplitsPerNode,
-            int maxPendingSplitsPerTask)
+            int maxPendingSplitsPerTask,
+            boolean splitAffinityEnabled)
     {
         this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
         this.nodeTaskMap = requireNonNull(nodeTaskMap, "nodeTaskMap is null");
@@ -72,6 +80,7 @@ public class SimpleNodeSelector
         this.minCandidates = minCandidates;
         this.maxSplitsPerNode = maxSplitsPerNode;
         this.maxPendingSplitsPerTask = maxPendingSplitsPerTask;
+        this.splitAffinityEnabled = splitAffinityEnabled;
     }
 
     @Override
@@ -107,11 +116,30 @@ public class SimpleNodeSelector
         NodeAssignmentStats assignmentStats = new NodeAssignmentStats(nodeTaskMap, nodeMap, existingTasks);
 
         ResettableRandomizedIterator<Node> randomCandidates = randomizedNodes(nodeMap, includeCoordinator, ImmutableSet.of());
+        List<Node> affinityCandidates = ImmutableList.of();
+        if (splitAffinityEnabled) {
+            affinityCandidates = nodeMap.getNodesByHostAndPort().values().stream()
+                    .filter(node -> includeCoordinator || !nodeMap.getCoordinatorNodeIds().contains(node.getNodeIdentifier()))
+                    .collect(toImmutableList());
+        }
         Set<Node> blockedExactNodes = new HashSet<>();
         boolean splitWaitingForAnyNode = false;
         for (Split split : splits) {
             randomCandidates.reset();
 
+            if (splitAffinityEnabled && split.isRemotelyAccessible() && split.getAffinityKey().isPresent()) {
+                // the affinity is soft: a split goes to the least loaded node when the preferred nodes are full
+                Optional<Node> preferredNode = selectAffinityNodes(split.getAffinityKey().get(), affinityCandidates, AFFINITY_CANDIDATES).stream()
+                        .filter(node -> assignmentStats.getTotalSplitCount(node) < maxSplitsPerNode)
+                        .filter(node -> assignmentStats.getQueuedSplitCountForStage(node) < maxPendingSplitsPerTask)
+                        .findFirst();
+                if (preferredNode.isPresent()) {
+                    assignment.put(preferredNode.get(), split);
+                    assignmentStats.addAssignedSplit(preferredNode.get());
+                    continue;
+                }
+            }
+
             List<Node> candidateNodes;
             if (!split.isRemotelyAccessible()) {
                 candidateNodes = selectExactNodes(nodeMap, split.getAddresses(), includeCoordinator);
@@ -36,6 +36,7 @@ import com.facebook.presto.split.SplitSource;
 import com.facebook.presto.sql.planner.NodePartitionMap;
 import com.facebook.presto.sql.planner.NodePartitioningManager;
 import com.facebook.presto.sql.planner.PartitioningHandle;
+import com.facebook.presto.sql.planner.RemoteDynamicFilter;
 import com.facebook.presto.sql.planner.StageExecutionPlan;
 import com.facebook.presto.sql.planner.plan.PlanFragmentId;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
@@ -173,6 +174,20 @@ public class SqlQueryScheduler
         this.stages = stages.stream()
                 .collect(toImmutableMap(SqlStageExecution::getStageId, identity()));
 
+        // deliver the dynamic filters collected by the stages running joins to the stages scanning their probe side
+        Map<PlanFragmentId, SqlStageExecution> stagesByFragment = stages.stream()
+                .collect(toImmutableMap(stage -> stage.getFragment().getId(), identity()));
+        for (SqlStageExecution stage : stages) {
+            for (RemoteDynamicFilter remoteDynamicFilter : stage.getFragment().getRemoteDynamicFilters()) {
+                if (remoteDynamicFilter.getJoinFragmentId().equals(stage.getFragment().getId())) {
+                    SqlStageExecution tableScanStage = stagesByFragment.get(remoteDynamicFilter.getTableScanFragmentId());
+                    stage.addDynamicFilterListener(
+                            remoteDynamicFilter.getJoinNodeId(),
+                            summary -> tableScanStage.addDynamicFilters(ImmutableMap.of(remoteDynamicFilter.getJoinNodeId(), summary)));
+                }
+            }
+        }
+
         this.stageSchedulers = stageSchedulers.build();
         this.stageLinkages = stageLinkages.build();
 
@@ -15,12 +15,16 @@ package com.facebook.presto.metadata;
 
 import com.facebook.presto.Session;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.CatalogSchemaName;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorOutputMetadata;
@@ -81,6 +85,11 @@ public interface Metadata
      */
     TableMetadata getTableMetadata(Session session, TableHandle tableHandle);
 
+    /**
+     * Return an opaque version of the table contents, or empty if the connector does not track it.
+     */
+    OptionalLong getTableVersion(Session session, TableHandle tableHandle);
+
     /**
      * Return statistics for specified table for given filtering contraint.
      */
@@ -268,6 +277,21 @@ public interface Metadata
      */
     Optional<ResolvedIndex> resolveIndex(Session session, TableHandle tableHandle, Set<ColumnHandle> indexableColumns, Set<ColumnHandle> outputColumns, TupleDomain<ColumnHandle> tupleDomain);
 
+    /**
+     * Try to compute the aggregation of the rows of the table layout in the connector.
+     */
+    Optional<AggregationApplicationResult<TableHandle>> applyAggregation(Session session, TableLayoutHandle layoutHandle, List<AggregateFunction> aggregates, List<ColumnHandle> groupingColumns);
+
+    /**
+     * Try to limit the number of rows produced by the table layout in the connector.
+     */
+    Optional<LimitApplicationResult<TableHandle>> applyLimit(Session session, TableLayoutHandle layoutHandle, long limit);
+
+    /**
+     * Try to produce only the first rows of the table layout in the given order in the connector.
+     */
+    Optional<LimitApplicationResult<TableHandle>> applyTopN(Session session, TableLayoutHandle layoutHandle, long topNCount, List<SortingProperty<ColumnHandle>> sortItems);
+
     /**
      * Grants the specified privilege to the specified user on the specified table
      */
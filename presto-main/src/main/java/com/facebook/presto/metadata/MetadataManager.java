@@ -16,6 +16,8 @@ package com.facebook.presto.metadata;
 import com.facebook.presto.Session;
 import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.CatalogSchemaName;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
@@ -29,10 +31,12 @@ import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
@@ -82,6 +86,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import static com.facebook.presto.connector.ConnectorId.isInternalSystemConnector;
 import static com.facebook.presto.metadata.QualifiedObjectName.convertFromSchemaTableName;
 import static com.facebook.presto.metadata.TableLayout.fromConnectorLayout;
 import static com.facebook.presto.metadata.ViewDefinition.ViewColumn;
@@ -393,6 +398,22 @@ public class MetadataManager
         return new TableMetadata(connectorId, tableMetadata);
     }
 
+    @Override
+    public OptionalLong getTableVersion(Session session, TableHandle tableHandle)
+    {
+        ConnectorId connectorId = tableHandle.getConnectorId();
+        if (isInternalSystemConnector(connectorId)) {
+            return OptionalLong.empty();
+        }
+        // the handle may come from a plan cached by another transaction, which is yet to access the catalog
+        Optional<CatalogMetadata> catalog = getOptionalCatalogMetadata(session, connectorId.getCatalogName());
+        if (!catalog.isPresent()) {
+            return OptionalLong.empty();
+        }
+        ConnectorMetadata metadata = catalog.get().getMetadataFor(connectorId);
+        return metadata.getTableVersion(session.toConnectorSession(connectorId), tableHandle.getConnectorHandle());
+    }
+
     @Override
     public TableStatistics getTableStatistics(Session session, TableHandle tableHandle, Constraint<ColumnHandle> constraint)
     {
@@ -842,6 +863,33 @@ public class MetadataManager
         return resolvedIndex.map(resolved -> new ResolvedIndex(tableHandle.getConnectorId(), transaction, resolved));
     }
 
+    @Override
+    public Optional<AggregationApplicationResult<TableHandle>> applyAggregation(Session session, TableLayoutHandle layoutHandle, List<AggregateFunction> aggregates, List<ColumnHandle> groupingColumns)
+    {
+        ConnectorId connectorId = layoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.applyAggregation(session.toConnectorSession(connectorId), layoutHandle.getConnectorHandle(), aggregates, groupingColumns)
+                .map(result -> result.transform(handle -> new TableHandle(connectorId, handle)));
+    }
+
+    @Override
+    public Optional<LimitApplicationResult<TableHandle>> applyLimit(Session session, TableLayoutHandle layoutHandle, long limit)
+    {
+        ConnectorId connectorId = layoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.applyLimit(session.toConnectorSession(connectorId), layoutHandle.getConnectorHandle(), limit)
+                .map(result -> result.transform(handle -> new TableHandle(connectorId, handle)));
+    }
+
+    @Override
+    public Optional<LimitApplicationResult<TableHandle>> applyTopN(Session session, TableLayoutHandle layoutHandle, long topNCount, List<SortingProperty<ColumnHandle>> sortItems)
+    {
+        ConnectorId connectorId = layoutHandle.getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+        return metadata.applyTopN(session.toConnectorSession(connectorId), layoutHandle.getConnectorHandle(), topNCount, sortItems)
+                .map(result -> result.transform(handle -> new TableHandle(connectorId, handle)));
+    }
+
     @Override
     public void grantTablePrivileges(Session session, QualifiedObjectName tableName, Set<Privilege> privileges, String grantee, boolean grantOption)
     {
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -91,6 +92,11 @@ public final class Split
         return connectorSplit.isRemotelyAccessible();
     }
 
+    public Optional<String> getAffinityKey()
+    {
+        return connectorSplit.getAffinityKey();
+    }
+
     @Override
     public String toString()
     {
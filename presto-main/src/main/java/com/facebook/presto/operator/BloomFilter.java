@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.openjdk.jol.info.ClassLayout;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Fixed size bloom filter over 64-bit value hashes (as produced by {@link com.facebook.presto.spi.type.Type#hash}).
+ * Filters of the same size can be merged, which allows every build partition of a join to fill
+ * its own filter and the union to be computed once all partitions have finished.
+ */
+public final class BloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilter.class).instanceSize();
+    private static final int HASH_FUNCTION_COUNT = 3;
+
+    private final long[] bits;
+    private final long bitMask;
+
+    /**
+     * @param sizeInBytes the size of the filter, rounded down to a power of two
+     */
+    public static BloomFilter create(long sizeInBytes)
+    {
+        checkArgument(sizeInBytes > 0, "sizeInBytes must be positive");
+        return new BloomFilter(toIntExact(Long.highestOneBit(Math.max(sizeInBytes, Long.BYTES)) / Long.BYTES));
+    }
+
+    @JsonCreator
+    public static BloomFilter fromBits(long[] bits)
+    {
+        return new BloomFilter(bits.clone());
+    }
+
+    private BloomFilter(int wordCount)
+    {
+        this(new long[wordCount]);
+    }
+
+    private BloomFilter(long[] bits)
+    {
+        checkArgument(Integer.bitCount(bits.length) == 1, "wordCount must be a power of two");
+        this.bits = bits;
+        this.bitMask = ((long) bits.length * Long.SIZE) - 1;
+    }
+
+    @JsonValue
+    public long[] getBits()
+    {
+        return bits.clone();
+    }
+
+    public BloomFilter copy()
+    {
+        return new BloomFilter(bits.clone());
+    }
+
+    public void add(long hash)
+    {
+        long mixed = murmurHash3(hash);
+        int hash1 = (int) mixed;
+        int hash2 = (int) (mixed >>> 32);
+        for (int i = 1; i <= HASH_FUNCTION_COUNT; i++) {
+            long bit = (hash1 + (long) i * hash2) & bitMask;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(long hash)
+    {
+        long mixed = murmurHash3(hash);
+        int hash1 = (int) mixed;
+        int hash2 = (int) (mixed >>> 32);
+        for (int i = 1; i <= HASH_FUNCTION_COUNT; i++) {
+            long bit = (hash1 + (long) i * hash2) & bitMask;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void merge(BloomFilter other)
+    {
+        checkArgument(bits.length == other.bits.length, "Bloom filters have different sizes: %s and %s", bits.length, other.bits.length);
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+    }
+
+    public long getSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(bits);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.spi.type.TypeUtils.readNativeValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getDone;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Probe side view of a {@link LocalDynamicFilter}, with the join keys mapped to the
+ * columns of the table scan that feeds the probe side of the join.
+ */
+public class DynamicFilter
+{
+    private final ListenableFuture<TupleDomain<ColumnHandle>> domain;
+    private final ListenableFuture<Map<ColumnHandle, BloomFilter>> bloomFilters;
+    private final Map<ColumnHandle, Type> columnTypes;
+
+    public static DynamicFilter create(LocalDynamicFilter source, Map<Integer, ColumnHandle> joinKeyColumns)
+    {
+        Map<Integer, ColumnHandle> columns = ImmutableMap.copyOf(requireNonNull(joinKeyColumns, "joinKeyColumns is null"));
+        ImmutableMap.Builder<ColumnHandle, Type> columnTypes = ImmutableMap.builder();
+        for (Map.Entry<Integer, ColumnHandle> entry : columns.entrySet()) {
+            columnTypes.put(entry.getValue(), source.getTypes().get(entry.getKey()));
+        }
+        return new DynamicFilter(
+                Futures.transform(source.getResult(), result -> result.transform(columns::get), directExecutor()),
+                Futures.transform(source.getBloomFilters(), bloomFilters -> mapBloomFilters(bloomFilters, columns), directExecutor()),
+                columnTypes.build());
+    }
+
+    public DynamicFilter(ListenableFuture<TupleDomain<ColumnHandle>> domain)
+    {
+        this(domain, immediateFuture(ImmutableMap.of()), ImmutableMap.of());
+    }
+
+    /**
+     * @param bloomFilters must complete before {@code domain}
+     */
+    public DynamicFilter(ListenableFuture<TupleDomain<ColumnHandle>> domain, ListenableFuture<Map<ColumnHandle, BloomFilter>> bloomFilters, Map<ColumnHandle, Type> columnTypes)
+    {
+        this.domain = requireNonNull(domain, "domain is null");
+        this.bloomFilters = requireNonNull(bloomFilters, "bloomFilters is null");
+        this.columnTypes = ImmutableMap.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
+    }
+
+    private static Map<ColumnHandle, BloomFilter> mapBloomFilters(Map<Integer, BloomFilter> bloomFilters, Map<Integer, ColumnHandle> columns)
+    {
+        ImmutableMap.Builder<ColumnHandle, BloomFilter> result = ImmutableMap.builder();
+        for (Map.Entry<Integer, BloomFilter> entry : bloomFilters.entrySet()) {
+            ColumnHandle column = columns.get(entry.getKey());
+            if (column != null) {
+                result.put(column, entry.getValue());
+            }
+        }
+        return result.build();
+    }
+
+    public boolean isReady()
+    {
+        return domain.isDone();
+    }
+
+    /**
+     * @return the domain collected from the build side, or {@link TupleDomain#all()} if the build side has not finished yet
+     */
+    public TupleDomain<ColumnHandle> getCurrentDomain()
+    {
+        if (!domain.isDone()) {
+            return TupleDomain.all();
+        }
+        return getDone(domain);
+    }
+
+    /**
+     * @return filter for pages with the given layout, or empty if the build side has not finished yet
+     */
+    public Optional<PageFilter> createPageFilter(List<ColumnHandle> columns)
+    {
+        if (!domain.isDone()) {
+            return Optional.empty();
+        }
+        return Optional.of(new PageFilter(getDone(domain), getDone(bloomFilters), columnTypes, columns));
+    }
+
+    public static class PageFilter
+    {
+        private final boolean filterAll;
+        private final int[] channels;
+        private final Domain[] domains;
+        private final int[] bloomFilterChannels;
+        private final Type[] bloomFilterTypes;
+        private final BloomFilter[] bloomFilters;
+
+        private PageFilter(TupleDomain<ColumnHandle> tupleDomain, Map<ColumnHandle, BloomFilter> columnBloomFilters, Map<ColumnHandle, Type> columnTypes, List<ColumnHandle> columns)
+        {
+            requireNonNull(tupleDomain, "tupleDomain is null");
+            requireNonNull(columnBloomFilters, "columnBloomFilters is null");
+            requireNonNull(columnTypes, "columnTypes is null");
+            requireNonNull(columns, "columns is null");
+
+            filterAll = tupleDomain.isNone();
+            Map<ColumnHandle, Domain> columnDomains = tupleDomain.getDomains().orElse(ImmutableMap.of());
+            channels = new int[columnDomains.size()];
+            domains = new Domain[columnDomains.size()];
+            int index = 0;
+            for (Map.Entry<ColumnHandle, Domain> entry : columnDomains.entrySet()) {
+                int channel = columns.indexOf(entry.getKey());
+                checkArgument(channel >= 0, "Column %s is not produced by the table scan", entry.getKey());
+                channels[index] = channel;
+                domains[index] = entry.getValue();
+                index++;
+            }
+
+            bloomFilterChannels = new int[columnBloomFilters.size()];
+            bloomFilterTypes = new Type[columnBloomFilters.size()];
+            bloomFilters = new BloomFilter[columnBloomFilters.size()];
+            index = 0;
+            for (Map.Entry<ColumnHandle, BloomFilter> entry : columnBloomFilters.entrySet()) {
+                int channel = columns.indexOf(entry.getKey());
+                checkArgument(channel >= 0, "Column %s is not produced by the table scan", entry.getKey());
+                bloomFilterChannels[index] = channel;
+                bloomFilterTypes[index] = requireNonNull(columnTypes.get(entry.getKey()), "No type for column");
+                bloomFilters[index] = entry.getValue();
+                index++;
+            }
+        }
+
+        public boolean isFilterAll()
+        {
+            return filterAll;
+        }
+
+        public boolean isFilterNone()
+        {
+            return !filterAll && channels.length == 0 && bloomFilterChannels.length == 0;
+        }
+
+        public Page filter(Page page)
+        {
+            if (filterAll) {
+                return page.getRegion(0, 0);
+            }
+            if (isFilterNone()) {
+                return page;
+            }
+
+            int[] retainedPositions = new int[page.getPositionCount()];
+            int retainedPositionCount = 0;
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                if (matches(page, position)) {
+                    retainedPositions[retainedPositionCount] = position;
+                    retainedPositionCount++;
+                }
+            }
+
+            if (retainedPositionCount == page.getPositionCount()) {
+                return page;
+            }
+            return page.getPositions(retainedPositions, 0, retainedPositionCount);
+        }
+
+        private boolean matches(Page page, int position)
+        {
+            for (int i = 0; i < channels.length; i++) {
+                Block block = page.getBlock(channels[i]);
+                Object value = block.isNull(position) ? null : readNativeValue(domains[i].getType(), block, position);
+                if (!domains[i].includesNullableValue(value)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < bloomFilterChannels.length; i++) {
+                // null keys never match in an equi-join
+                Block block = page.getBlock(bloomFilterChannels[i]);
+                if (block.isNull(position) || !bloomFilters[i].mightContain(bloomFilterTypes[i].hash(block, position))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
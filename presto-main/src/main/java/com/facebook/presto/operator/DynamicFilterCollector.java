@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import javax.annotation.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.facebook.presto.operator.LocalDynamicFilter.isSupportedType;
+import static com.facebook.presto.spi.type.TypeUtils.readNativeValue;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Summarizes the join key channels of the build side pages into a {@link TupleDomain}
+ * keyed by the position of the join key. Up to {@code maxDistinctValues} distinct values
+ * are tracked per key; past that only the minimum and maximum value are retained, together with
+ * a {@link BloomFilter} of the values if {@code bloomFilterSize} is positive.
+ */
+class DynamicFilterCollector
+{
+    private final List<Integer> channels;
+    private final List<KeyCollector> keyCollectors;
+
+    public DynamicFilterCollector(List<Integer> channels, List<Type> types, int maxDistinctValues, long bloomFilterSize)
+    {
+        requireNonNull(channels, "channels is null");
+        requireNonNull(types, "types is null");
+        checkArgument(channels.size() == types.size(), "channels and types do not match");
+        checkArgument(maxDistinctValues > 0, "maxDistinctValues must be positive");
+        checkArgument(bloomFilterSize >= 0, "bloomFilterSize is negative");
+
+        this.channels = ImmutableList.copyOf(channels);
+        ImmutableList.Builder<KeyCollector> keyCollectors = ImmutableList.builder();
+        for (Type type : types) {
+            keyCollectors.add(new KeyCollector(type, maxDistinctValues, bloomFilterSize));
+        }
+        this.keyCollectors = keyCollectors.build();
+    }
+
+    public void addPage(Page page)
+    {
+        for (int i = 0; i < channels.size(); i++) {
+            keyCollectors.get(i).add(page.getBlock(channels.get(i)));
+        }
+    }
+
+    public DynamicFilterSummary build()
+    {
+        ImmutableMap.Builder<Integer, Domain> domains = ImmutableMap.builder();
+        ImmutableMap.Builder<Integer, BloomFilter> bloomFilters = ImmutableMap.builder();
+        ImmutableMap.Builder<Integer, long[]> valueHashes = ImmutableMap.builder();
+        for (int i = 0; i < keyCollectors.size(); i++) {
+            KeyCollector keyCollector = keyCollectors.get(i);
+            domains.put(i, keyCollector.build());
+            if (keyCollector.bloomFilter != null) {
+                bloomFilters.put(i, keyCollector.bloomFilter);
+            }
+            if (keyCollector.distinctValueHashes != null) {
+                valueHashes.put(i, keyCollector.distinctValueHashes.toLongArray());
+            }
+        }
+        return new DynamicFilterSummary(TupleDomain.withColumnDomains(domains.build()), bloomFilters.build(), valueHashes.build());
+    }
+
+    private static class KeyCollector
+    {
+        private final Type type;
+        private final int maxDistinctValues;
+        private final long bloomFilterSize;
+        private final boolean supported;
+
+        // set to null once the number of distinct values exceeds maxDistinctValues
+        @Nullable
+        private Set<Object> distinctValues = new HashSet<>();
+        // hashes of distinctValues, tracked only if a bloom filter is requested
+        @Nullable
+        private LongArrayList distinctValueHashes;
+        // created once distinctValues is dropped
+        @Nullable
+        private BloomFilter bloomFilter;
+        @Nullable
+        private Block min;
+        @Nullable
+        private Block max;
+
+        public KeyCollector(Type type, int maxDistinctValues, long bloomFilterSize)
+        {
+            this.type = requireNonNull(type, "type is null");
+            this.maxDistinctValues = maxDistinctValues;
+            this.bloomFilterSize = bloomFilterSize;
+            this.supported = isSupportedType(type);
+            if (supported && bloomFilterSize > 0) {
+                distinctValueHashes = new LongArrayList();
+            }
+        }
+
+        public void add(Block block)
+        {
+            if (!supported || (distinctValues == null && bloomFilter == null && !type.isOrderable())) {
+                return;
+            }
+
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                // null keys never match in an equi-join
+                if (block.isNull(position)) {
+                    continue;
+                }
+
+                if (distinctValues != null) {
+                    if (distinctValues.add(readNativeValue(type, block, position)) && distinctValueHashes != null) {
+                        distinctValueHashes.add(type.hash(block, position));
+                    }
+                    if (distinctValues.size() > maxDistinctValues) {
+                        distinctValues = null;
+                        if (distinctValueHashes != null) {
+                            bloomFilter = BloomFilter.create(bloomFilterSize);
+                            for (int i = 0; i < distinctValueHashes.size(); i++) {
+                                bloomFilter.add(distinctValueHashes.getLong(i));
+                            }
+                            distinctValueHashes = null;
+                        }
+                    }
+                }
+                else if (bloomFilter != null) {
+                    bloomFilter.add(type.hash(block, position));
+                }
+
+                if (type.isOrderable()) {
+                    if (min == null || type.compareTo(block, position, min, 0) < 0) {
+                        min = block.getSingleValueBlock(position);
+                    }
+                    if (max == null || type.compareTo(block, position, max, 0) > 0) {
+                        max = block.getSingleValueBlock(position);
+                    }
+                }
+            }
+        }
+
+        public Domain build()
+        {
+            if (!supported) {
+                return Domain.all(type);
+            }
+            if (distinctValues != null) {
+                if (distinctValues.isEmpty()) {
+                    return Domain.none(type);
+                }
+                return Domain.create(ValueSet.copyOf(type, distinctValues), false);
+            }
+            if (min != null && max != null) {
+                return Domain.create(ValueSet.ofRanges(Range.range(type, readNativeValue(type, min, 0), true, readNativeValue(type, max, 0), true)), false);
+            }
+            return Domain.all(type);
+        }
+    }
+}
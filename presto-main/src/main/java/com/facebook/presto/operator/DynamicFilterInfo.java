@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.util.Mergeable;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+public class DynamicFilterInfo
+        implements Mergeable<DynamicFilterInfo>, OperatorInfo
+{
+    private final long inputPositions;
+    private final long prunedPositions;
+    private final long prunedSplits;
+    // NOTE: this deserializes to a map instead of the expected type
+    private final Object splitInfo;
+
+    @JsonCreator
+    public DynamicFilterInfo(
+            @JsonProperty("inputPositions") long inputPositions,
+            @JsonProperty("prunedPositions") long prunedPositions,
+            @JsonProperty("prunedSplits") long prunedSplits,
+            @JsonProperty("splitInfo") @Nullable Object splitInfo)
+    {
+        this.inputPositions = inputPositions;
+        this.prunedPositions = prunedPositions;
+        this.prunedSplits = prunedSplits;
+        this.splitInfo = splitInfo;
+    }
+
+    @JsonProperty
+    public long getInputPositions()
+    {
+        return inputPositions;
+    }
+
+    @JsonProperty
+    public long getPrunedPositions()
+    {
+        return prunedPositions;
+    }
+
+    @JsonProperty
+    public long getPrunedSplits()
+    {
+        return prunedSplits;
+    }
+
+    /**
+     * Info of the split being scanned, as reported by {@link SplitOperatorInfo} for table scans without a dynamic filter.
+     */
+    @Nullable
+    @JsonProperty
+    public Object getSplitInfo()
+    {
+        return splitInfo;
+    }
+
+    @Override
+    public DynamicFilterInfo mergeWith(DynamicFilterInfo other)
+    {
+        return new DynamicFilterInfo(
+                inputPositions + other.getInputPositions(),
+                prunedPositions + other.getPrunedPositions(),
+                prunedSplits + other.getPrunedSplits(),
+                null);
+    }
+
+    @Override
+    public boolean isFinal()
+    {
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("inputPositions", inputPositions)
+                .add("prunedPositions", prunedPositions)
+                .add("prunedSplits", prunedSplits)
+                .add("splitInfo", splitInfo)
+                .toString();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Join key summary published by a build partition, or by all the build partitions of a
+ * task. In addition to the domain of every key, keys with too many distinct values for an
+ * exact domain carry a {@link BloomFilter}, while keys collected exactly carry the hashes
+ * of their values, so that the bloom filters of all partitions can be combined.
+ */
+public class DynamicFilterSummary
+{
+    private final TupleDomain<Integer> domain;
+    private final Map<Integer, BloomFilter> bloomFilters;
+    private final Map<Integer, long[]> valueHashes;
+
+    @JsonCreator
+    public DynamicFilterSummary(
+            @JsonProperty("domain") TupleDomain<Integer> domain,
+            @JsonProperty("bloomFilters") Map<Integer, BloomFilter> bloomFilters,
+            @JsonProperty("valueHashes") Map<Integer, long[]> valueHashes)
+    {
+        this.domain = requireNonNull(domain, "domain is null");
+        this.bloomFilters = ImmutableMap.copyOf(requireNonNull(bloomFilters, "bloomFilters is null"));
+        this.valueHashes = ImmutableMap.copyOf(requireNonNull(valueHashes, "valueHashes is null"));
+    }
+
+    @JsonProperty
+    public TupleDomain<Integer> getDomain()
+    {
+        return domain;
+    }
+
+    @JsonProperty
+    public Map<Integer, BloomFilter> getBloomFilters()
+    {
+        return bloomFilters;
+    }
+
+    @JsonProperty
+    public Map<Integer, long[]> getValueHashes()
+    {
+        return valueHashes;
+    }
+
+    /**
+     * Computes the summary of the union of the build rows of all the partitions. A key gets a
+     * bloom filter only if every partition reported either a bloom filter or the value hashes
+     * for it, and keeps the value hashes only if no partition needed a bloom filter.
+     */
+    public static DynamicFilterSummary union(List<DynamicFilterSummary> partitions)
+    {
+        checkArgument(!partitions.isEmpty(), "partitions is empty");
+        if (partitions.size() == 1) {
+            return partitions.get(0);
+        }
+
+        ImmutableList.Builder<TupleDomain<Integer>> domains = ImmutableList.builder();
+        Set<Integer> keys = new HashSet<>();
+        for (DynamicFilterSummary partition : partitions) {
+            domains.add(partition.getDomain());
+            keys.addAll(partition.getBloomFilters().keySet());
+            keys.addAll(partition.getValueHashes().keySet());
+        }
+
+        ImmutableMap.Builder<Integer, BloomFilter> bloomFilters = ImmutableMap.builder();
+        ImmutableMap.Builder<Integer, long[]> valueHashes = ImmutableMap.builder();
+        for (Integer key : keys) {
+            BloomFilter bloomFilter = null;
+            ImmutableList.Builder<long[]> hashes = ImmutableList.builder();
+            boolean complete = true;
+            for (DynamicFilterSummary partition : partitions) {
+                BloomFilter partitionFilter = partition.getBloomFilters().get(key);
+                long[] partitionHashes = partition.getValueHashes().get(key);
+                if (partitionFilter != null) {
+                    if (bloomFilter == null) {
+                        bloomFilter = partitionFilter.copy();
+                    }
+                    else {
+                        bloomFilter.merge(partitionFilter);
+                    }
+                }
+                else if (partitionHashes != null) {
+                    hashes.add(partitionHashes);
+                }
+                else {
+                    complete = false;
+                    break;
+                }
+            }
+            if (!complete) {
+                continue;
+            }
+
+            long[] allHashes = Longs.concat(hashes.build().toArray(new long[0][]));
+            if (bloomFilter == null) {
+                valueHashes.put(key, allHashes);
+                continue;
+            }
+            for (long hash : allHashes) {
+                bloomFilter.add(hash);
+            }
+            bloomFilters.put(key, bloomFilter);
+        }
+        return new DynamicFilterSummary(TupleDomain.columnWiseUnion(domains.build()), bloomFilters.build(), valueHashes.build());
+    }
+}
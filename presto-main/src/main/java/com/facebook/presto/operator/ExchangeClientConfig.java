@@ -36,6 +36,7 @@ public class ExchangeClientConfig
     private int clientThreads = 25;
     private int pageBufferClientMaxCallbackThreads = 25;
     private boolean acknowledgePages = true;
+    private boolean localTransferEnabled = true;
 
     @NotNull
     public DataSize getMaxBufferSize()
@@ -141,4 +142,16 @@ public class ExchangeClientConfig
         this.acknowledgePages = acknowledgePages;
         return this;
     }
+
+    public boolean isLocalTransferEnabled()
+    {
+        return localTransferEnabled;
+    }
+
+    @Config("exchange.local-transfer-enabled")
+    public ExchangeClientConfig setLocalTransferEnabled(boolean localTransferEnabled)
+    {
+        this.localTransferEnabled = localTransferEnabled;
+        return this;
+    }
 }
@@ -24,6 +24,7 @@ import org.weakref.jmx.Nested;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -46,12 +47,31 @@ public class ExchangeClientFactory
     private final ScheduledExecutorService scheduler;
     private final ThreadPoolExecutorMBean executorMBean;
     private final ExecutorService pageBufferClientCallbackExecutor;
+    private final Optional<LocalTaskResultsProvider> localTaskResultsProvider;
 
     @Inject
     public ExchangeClientFactory(
             ExchangeClientConfig config,
             @ForExchange HttpClient httpClient,
-            @ForExchange ScheduledExecutorService scheduler)
+            @ForExchange ScheduledExecutorService scheduler,
+            LocalTaskResultsProvider localTaskResultsProvider)
+    {
+        this(config, httpClient, scheduler, config.isLocalTransferEnabled() ? Optional.of(localTaskResultsProvider) : Optional.empty());
+    }
+
+    public ExchangeClientFactory(
+            ExchangeClientConfig config,
+            HttpClient httpClient,
+            ScheduledExecutorService scheduler)
+    {
+        this(config, httpClient, scheduler, Optional.empty());
+    }
+
+    private ExchangeClientFactory(
+            ExchangeClientConfig config,
+            HttpClient httpClient,
+            ScheduledExecutorService scheduler,
+            Optional<LocalTaskResultsProvider> localTaskResultsProvider)
     {
         this(
                 config.getMaxBufferSize(),
@@ -61,7 +81,8 @@ public class ExchangeClientFactory
                 config.isAcknowledgePages(),
                 config.getPageBufferClientMaxCallbackThreads(),
                 httpClient,
-                scheduler);
+                scheduler,
+                localTaskResultsProvider);
     }
 
     public ExchangeClientFactory(
@@ -72,7 +93,8 @@ public class ExchangeClientFactory
             boolean acknowledgePages,
             int pageBufferClientMaxCallbackThreads,
             HttpClient httpClient,
-            ScheduledExecutorService scheduler)
+            ScheduledExecutorService scheduler,
+            Optional<LocalTaskResultsProvider> localTaskResultsProvider)
     {
         this.maxBufferedBytes = requireNonNull(maxBufferedBytes, "maxBufferedBytes is null");
         this.concurrentRequestMultiplier = concurrentRequestMultiplier;
@@ -87,6 +109,7 @@ public class ExchangeClientFactory
         this.maxResponseSize = new DataSize(maxResponseSizeBytes, BYTE);
 
         this.scheduler = requireNonNull(scheduler, "scheduler is null");
+        this.localTaskResultsProvider = requireNonNull(localTaskResultsProvider, "localTaskResultsProvider is null");
 
         this.pageBufferClientCallbackExecutor = newFixedThreadPool(pageBufferClientMaxCallbackThreads, daemonThreadsNamed("page-buffer-client-callback-%s"));
         this.executorMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) pageBufferClientCallbackExecutor);
@@ -121,6 +144,7 @@ public class ExchangeClientFactory
                 httpClient,
                 scheduler,
                 systemMemoryContext,
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                localTaskResultsProvider);
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.execution.buffer.PagesSerde;
+import com.facebook.presto.util.Mergeable;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.units.Duration;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compression statistics of the pages an output operator sends to the exchange.
+ */
+public class ExchangeCompressionInfo
+        implements Mergeable<ExchangeCompressionInfo>, OperatorInfo
+{
+    private final long uncompressedBytes;
+    private final long compressedBytes;
+    private final long compressionCpuNanos;
+
+    public static ExchangeCompressionInfo from(PagesSerde serde)
+    {
+        return new ExchangeCompressionInfo(serde.getUncompressedSizeInBytes(), serde.getSerializedSizeInBytes(), serde.getCompressionCpuNanos());
+    }
+
+    @JsonCreator
+    public ExchangeCompressionInfo(
+            @JsonProperty("uncompressedBytes") long uncompressedBytes,
+            @JsonProperty("compressedBytes") long compressedBytes,
+            @JsonProperty("compressionCpuNanos") long compressionCpuNanos)
+    {
+        this.uncompressedBytes = uncompressedBytes;
+        this.compressedBytes = compressedBytes;
+        this.compressionCpuNanos = compressionCpuNanos;
+    }
+
+    /**
+     * Size of the serialized pages before compression
+     */
+    @JsonProperty
+    public long getUncompressedBytes()
+    {
+        return uncompressedBytes;
+    }
+
+    /**
+     * Size of the serialized pages sent to the exchange, including the pages which were not compressed
+     */
+    @JsonProperty
+    public long getCompressedBytes()
+    {
+        return compressedBytes;
+    }
+
+    @JsonProperty
+    public long getCompressionCpuNanos()
+    {
+        return compressionCpuNanos;
+    }
+
+    public Duration getCompressionCpuTime()
+    {
+        return new Duration(compressionCpuNanos, NANOSECONDS).convertToMostSuccinctTimeUnit();
+    }
+
+    @Override
+    public ExchangeCompressionInfo mergeWith(ExchangeCompressionInfo other)
+    {
+        return new ExchangeCompressionInfo(
+                uncompressedBytes + other.uncompressedBytes,
+                compressedBytes + other.compressedBytes,
+                compressionCpuNanos + other.compressionCpuNanos);
+    }
+
+    @Override
+    public boolean isFinal()
+    {
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("uncompressedBytes", uncompressedBytes)
+                .add("compressedBytes", compressedBytes)
+                .add("compressionCpuTime", getCompressionCpuTime())
+                .toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.util.Mergeable;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Info of a partial {@link HashAggregationOperator} that adapts to the reduction it achieves.
+ */
+public class HashAggregationInfo
+        implements Mergeable<HashAggregationInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long aggregatedInputPositions;
+    private final long aggregatedOutputPositions;
+    private final long passThroughPositions;
+    private final boolean partialAggregationDisabled;
+
+    @JsonCreator
+    public HashAggregationInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("aggregatedInputPositions") long aggregatedInputPositions,
+            @JsonProperty("aggregatedOutputPositions") long aggregatedOutputPositions,
+            @JsonProperty("passThroughPositions") long passThroughPositions,
+            @JsonProperty("partialAggregationDisabled") boolean partialAggregationDisabled)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.aggregatedInputPositions = aggregatedInputPositions;
+        this.aggregatedOutputPositions = aggregatedOutputPositions;
+        this.passThroughPositions = passThroughPositions;
+        this.partialAggregationDisabled = partialAggregationDisabled;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * @return number of rows that were aggregated in the hash tables
+     */
+    @JsonProperty
+    public long getAggregatedInputPositions()
+    {
+        return aggregatedInputPositions;
+    }
+
+    /**
+     * @return number of groups the hash tables produced
+     */
+    @JsonProperty
+    public long getAggregatedOutputPositions()
+    {
+        return aggregatedOutputPositions;
+    }
+
+    /**
+     * @return number of rows that were passed through without aggregation
+     */
+    @JsonProperty
+    public long getPassThroughPositions()
+    {
+        return passThroughPositions;
+    }
+
+    @JsonProperty
+    public boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationDisabled;
+    }
+
+    public double getUniqueRowsRatio()
+    {
+        if (aggregatedInputPositions == 0) {
+            return 0;
+        }
+        return (double) aggregatedOutputPositions / aggregatedInputPositions;
+    }
+
+    @Override
+    public HashAggregationInfo mergeWith(HashAggregationInfo other)
+    {
+        return new HashAggregationInfo(
+                hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                aggregatedInputPositions + other.getAggregatedInputPositions(),
+                aggregatedOutputPositions + other.getAggregatedOutputPositions(),
+                passThroughPositions + other.getPassThroughPositions(),
+                partialAggregationDisabled || other.isPartialAggregationDisabled());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("aggregatedInputPositions", aggregatedInputPositions)
+                .add("aggregatedOutputPositions", aggregatedOutputPositions)
+                .add("passThroughPositions", passThroughPositions)
+                .add("partialAggregationDisabled", partialAggregationDisabled)
+                .toString();
+    }
+}
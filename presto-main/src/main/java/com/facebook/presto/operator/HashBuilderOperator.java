@@ -68,6 +68,8 @@ public class HashBuilderOperator
         private final int expectedPositions;
         private final boolean spillEnabled;
         private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+        private final Optional<LocalDynamicFilter> dynamicFilter;
+        private final Optional<ReplicatedBuildSizeTracker> replicatedBuildSizeTracker;
 
         private final Map<Lifespan, Integer> partitionIndexManager = new HashMap<>();
 
@@ -86,7 +88,9 @@ public class HashBuilderOperator
                 int expectedPositions,
                 PagesIndex.Factory pagesIndexFactory,
                 boolean spillEnabled,
-                SingleStreamSpillerFactory singleStreamSpillerFactory)
+                SingleStreamSpillerFactory singleStreamSpillerFactory,
+                Optional<LocalDynamicFilter> dynamicFilter,
+                Optional<ReplicatedBuildSizeTracker> replicatedBuildSizeTracker)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -104,6 +108,8 @@ public class HashBuilderOperator
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
             this.spillEnabled = spillEnabled;
             this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+            this.replicatedBuildSizeTracker = requireNonNull(replicatedBuildSizeTracker, "replicatedBuildSizeTracker is null");
 
             this.expectedPositions = expectedPositions;
         }
@@ -130,7 +136,9 @@ public class HashBuilderOperator
                     expectedPositions,
                     pagesIndexFactory,
                     spillEnabled,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    dynamicFilter,
+                    replicatedBuildSizeTracker);
         }
 
         @Override
@@ -213,6 +221,11 @@ public class HashBuilderOperator
 
     private final HashCollisionsCounter hashCollisionsCounter;
 
+    private final Optional<LocalDynamicFilter> dynamicFilter;
+    private final Optional<DynamicFilterCollector> dynamicFilterCollector;
+    private boolean dynamicFilterPublished;
+    private final Optional<ReplicatedBuildSizeTracker> replicatedBuildSizeTracker;
+
     private State state = State.CONSUMING_INPUT;
     private Optional<ListenableFuture<?>> lookupSourceNotNeeded = Optional.empty();
     private final SpilledLookupSourceHandle spilledLookupSourceHandle = new SpilledLookupSourceHandle();
@@ -238,7 +251,9 @@ public class HashBuilderOperator
             int expectedPositions,
             PagesIndex.Factory pagesIndexFactory,
             boolean spillEnabled,
-            SingleStreamSpillerFactory singleStreamSpillerFactory)
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            Optional<LocalDynamicFilter> dynamicFilter,
+            Optional<ReplicatedBuildSizeTracker> replicatedBuildSizeTracker)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
 
@@ -259,10 +274,20 @@ public class HashBuilderOperator
         this.preComputedHashChannel = preComputedHashChannel;
 
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
-        operatorContext.setInfoSupplier(hashCollisionsCounter);
+        this.replicatedBuildSizeTracker = requireNonNull(replicatedBuildSizeTracker, "replicatedBuildSizeTracker is null");
+        if (replicatedBuildSizeTracker.isPresent()) {
+            ReplicatedBuildSizeTracker tracker = replicatedBuildSizeTracker.get();
+            operatorContext.setInfoSupplier(() -> tracker.getInfo(hashCollisionsCounter.get()));
+        }
+        else {
+            operatorContext.setInfoSupplier(hashCollisionsCounter);
+        }
 
         this.spillEnabled = spillEnabled;
         this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.dynamicFilterCollector = dynamicFilter.map(filter -> filter.createCollector(hashChannels));
     }
 
     @Override
@@ -324,6 +349,9 @@ public class HashBuilderOperator
             return;
         }
 
+        replicatedBuildSizeTracker.ifPresent(tracker -> tracker.addPage(page));
+        dynamicFilterCollector.ifPresent(collector -> collector.addPage(page));
+
         if (state == State.SPILLING_INPUT) {
             spillInput(page);
             return;
@@ -483,6 +511,8 @@ public class HashBuilderOperator
             return;
         }
 
+        publishDynamicFilter();
+
         LookupSourceSupplier partition = buildLookupSource();
         if (spillEnabled) {
             localRevocableMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
@@ -518,9 +548,19 @@ public class HashBuilderOperator
             return;
         }
         checkSuccess(spillInProgress, "spilling failed");
+        publishDynamicFilter();
         state = State.INPUT_SPILLED;
     }
 
+    private void publishDynamicFilter()
+    {
+        if (dynamicFilterPublished) {
+            return;
+        }
+        dynamicFilterPublished = true;
+        dynamicFilterCollector.ifPresent(collector -> dynamicFilter.get().addPartition(collector.build()));
+    }
+
     private void unspillLookupSourceIfRequested()
     {
         checkState(state == State.INPUT_SPILLED);
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.net.MediaType;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpClient.HttpResponseFuture;
 import io.airlift.http.client.HttpStatus;
@@ -46,6 +47,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.concurrent.Executor;
@@ -76,7 +78,6 @@ import static io.airlift.http.client.HttpStatus.familyForStatusCode;
 import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.prepareGet;
 import static io.airlift.http.client.ResponseHandlerUtils.propagate;
-import static io.airlift.http.client.StatusResponseHandler.StatusResponse;
 import static io.airlift.http.client.StatusResponseHandler.createStatusResponseHandler;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -113,6 +114,7 @@ public final class HttpPageBufferClient
     private final DataSize maxResponseSize;
     private final boolean acknowledgePages;
     private final URI location;
+    private final Optional<LocalTaskResults> localTaskResults;
     private final ClientCallback clientCallback;
     private final ScheduledExecutorService scheduler;
     private final Backoff backoff;
@@ -120,7 +122,7 @@ public final class HttpPageBufferClient
     @GuardedBy("this")
     private boolean closed;
     @GuardedBy("this")
-    private HttpResponseFuture<?> future;
+    private ListenableFuture<?> future;
     @GuardedBy("this")
     private DateTime lastUpdate = DateTime.now();
     @GuardedBy("this")
@@ -167,11 +169,31 @@ public final class HttpPageBufferClient
             ScheduledExecutorService scheduler,
             Ticker ticker,
             Executor pageBufferClientCallbackExecutor)
+    {
+        this(httpClient, maxResponseSize, maxErrorDuration, acknowledgePages, location, Optional.empty(), clientCallback, scheduler, ticker, pageBufferClientCallbackExecutor);
+    }
+
+    /**
+     * @param localTaskResults if present, the buffer at {@code location} belongs to a task running
+     * in this process and is read directly instead of through {@code httpClient}
+     */
+    public HttpPageBufferClient(
+            HttpClient httpClient,
+            DataSize maxResponseSize,
+            Duration maxErrorDuration,
+            boolean acknowledgePages,
+            URI location,
+            Optional<LocalTaskResults> localTaskResults,
+            ClientCallback clientCallback,
+            ScheduledExecutorService scheduler,
+            Ticker ticker,
+            Executor pageBufferClientCallbackExecutor)
     {
         this.httpClient = requireNonNull(httpClient, "httpClient is null");
         this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
         this.acknowledgePages = acknowledgePages;
         this.location = requireNonNull(location, "location is null");
+        this.localTaskResults = requireNonNull(localTaskResults, "localTaskResults is null");
         this.clientCallback = requireNonNull(clientCallback, "clientCallback is null");
         this.scheduler = requireNonNull(scheduler, "scheduler is null");
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
@@ -199,8 +221,11 @@ public final class HttpPageBufferClient
             state = "queued";
         }
         String httpRequestState = "not scheduled";
-        if (future != null) {
-            httpRequestState = future.getState();
+        if (future instanceof HttpResponseFuture) {
+            httpRequestState = ((HttpResponseFuture<?>) future).getState();
+        }
+        else if (future != null) {
+            httpRequestState = "local";
         }
 
         long rejectedRows = rowsRejected.get();
@@ -297,11 +322,17 @@ public final class HttpPageBufferClient
     private synchronized void sendGetResults()
     {
         URI uri = HttpUriBuilder.uriBuilderFrom(location).appendPath(String.valueOf(token)).build();
-        HttpResponseFuture<PagesResponse> resultFuture = httpClient.executeAsync(
-                prepareGet()
-                        .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
-                        .setUri(uri).build(),
-                new PageResponseHandler());
+        ListenableFuture<PagesResponse> resultFuture;
+        if (localTaskResults.isPresent()) {
+            resultFuture = localTaskResults.get().getResults(token, maxResponseSize);
+        }
+        else {
+            resultFuture = httpClient.executeAsync(
+                    prepareGet()
+                            .setHeader(PRESTO_MAX_SIZE, maxResponseSize.toString())
+                            .setUri(uri).build(),
+                    new PageResponseHandler());
+        }
 
         future = resultFuture;
         Futures.addCallback(resultFuture, new FutureCallback<PagesResponse>()
@@ -336,7 +367,10 @@ public final class HttpPageBufferClient
                         }
                     }
 
-                    if (shouldAcknowledge && acknowledgePages) {
+                    if (shouldAcknowledge && acknowledgePages && localTaskResults.isPresent()) {
+                        localTaskResults.get().acknowledgeResults(result.getNextToken());
+                    }
+                    else if (shouldAcknowledge && acknowledgePages) {
                         // Acknowledge token without handling the response.
                         // The next request will also make sure the token is acknowledged.
                         // This is to fast release the pages on the buffer side.
@@ -417,12 +451,18 @@ public final class HttpPageBufferClient
 
     private synchronized void sendDelete()
     {
-        HttpResponseFuture<StatusResponse> resultFuture = httpClient.executeAsync(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        ListenableFuture<?> resultFuture;
+        if (localTaskResults.isPresent()) {
+            resultFuture = localTaskResults.get().abortResults();
+        }
+        else {
+            resultFuture = httpClient.executeAsync(prepareDelete().setUri(location).build(), createStatusResponseHandler());
+        }
         future = resultFuture;
-        Futures.addCallback(resultFuture, new FutureCallback<StatusResponse>()
+        Futures.addCallback(resultFuture, new FutureCallback<Object>()
         {
             @Override
-            public void onSuccess(@Nullable StatusResponse result)
+            public void onSuccess(@Nullable Object result)
             {
                 checkNotHoldsLock(this);
                 backoff.success();
@@ -461,7 +501,7 @@ public final class HttpPageBufferClient
         checkState(!Thread.holdsLock(lock), "Cannot execute this method while holding a lock");
     }
 
-    private void handleFailure(Throwable t, HttpResponseFuture<?> expectedFuture)
+    private void handleFailure(Throwable t, ListenableFuture<?> expectedFuture)
     {
         // Can not delegate to other callback while holding a lock on this
         checkNotHoldsLock(this);
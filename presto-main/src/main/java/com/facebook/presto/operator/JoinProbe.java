@@ -16,6 +16,9 @@ package com.facebook.presto.operator;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -52,6 +55,12 @@ public class JoinProbe
 
     private int position = -1;
 
+    // join positions of all the rows of the page, looked up in a single batch on first use
+    @Nullable
+    private LookupSource joinPositionsLookupSource;
+    @Nullable
+    private long[] joinPositions;
+
     private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
     {
         this.probeOutputChannels = probeOutputChannels;
@@ -79,14 +88,49 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (currentRowContainsNull()) {
-            return -1;
+        if (joinPositions == null || joinPositionsLookupSource != lookupSource) {
+            lookupJoinPositions(lookupSource);
+        }
+        return joinPositions[position];
+    }
+
+    private void lookupJoinPositions(LookupSource lookupSource)
+    {
+        // rows with a null in any join channel never match
+        int[] positions = new int[positionCount];
+        int nonNullPositionCount = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!rowContainsNull(position)) {
+                positions[nonNullPositionCount] = position;
+                nonNullPositionCount++;
+            }
         }
+
+        long[] rawHashes = null;
         if (probeHashBlock.isPresent()) {
-            long rawHash = BIGINT.getLong(probeHashBlock.get(), position);
-            return lookupSource.getJoinPosition(position, probePage, page, rawHash);
+            Block hashBlock = probeHashBlock.get();
+            rawHashes = new long[nonNullPositionCount];
+            for (int i = 0; i < nonNullPositionCount; i++) {
+                rawHashes[i] = BIGINT.getLong(hashBlock, positions[i]);
+            }
+        }
+
+        long[] batchJoinPositions = new long[nonNullPositionCount];
+        lookupSource.getJoinPositions(positions, nonNullPositionCount, probePage, page, rawHashes, batchJoinPositions);
+
+        long[] joinPositions;
+        if (nonNullPositionCount == positionCount) {
+            joinPositions = batchJoinPositions;
+        }
+        else {
+            joinPositions = new long[positionCount];
+            Arrays.fill(joinPositions, -1);
+            for (int i = 0; i < nonNullPositionCount; i++) {
+                joinPositions[positions[i]] = batchJoinPositions[i];
+            }
         }
-        return lookupSource.getJoinPosition(position, probePage, page);
+        this.joinPositions = joinPositions;
+        this.joinPositionsLookupSource = lookupSource;
     }
 
     public int getPosition()
@@ -99,10 +143,10 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
-            if (probeBlock.isNull(position)) {
+            if (probeBlock.mayHaveNull() && probeBlock.isNull(position)) {
                 return true;
             }
         }
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.slice.Slice;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dynamic filter of a single hash join or semi join within a task. Every {@link HashBuilderOperator}
+ * partition of the join (or the {@link SetBuilderOperator} of the semi join) publishes the summary
+ * of its join keys, and once all partitions have reported, the column-wise union of the summaries
+ * is made available to the probe side. The resulting {@link TupleDomain} and bloom filters are keyed
+ * by the position of the join key in the join criteria.
+ */
+@ThreadSafe
+public class LocalDynamicFilter
+{
+    private final List<Type> types;
+    private final int maxDistinctValues;
+    private final long bloomFilterSize;
+    private final SettableFuture<TupleDomain<Integer>> result = SettableFuture.create();
+    private final SettableFuture<Map<Integer, BloomFilter>> bloomFilters = SettableFuture.create();
+    private final SettableFuture<DynamicFilterSummary> summary = SettableFuture.create();
+
+    @GuardedBy("this")
+    private int expectedPartitions;
+    @GuardedBy("this")
+    private final List<DynamicFilterSummary> partitions = new ArrayList<>();
+
+    /**
+     * @param bloomFilterSize size in bytes of the bloom filter built for keys with more than
+     * {@code maxDistinctValues} distinct values, or zero to only collect the key ranges
+     */
+    public LocalDynamicFilter(List<Type> types, int maxDistinctValues, long bloomFilterSize)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        checkArgument(maxDistinctValues > 0, "maxDistinctValues must be positive");
+        checkArgument(bloomFilterSize >= 0, "bloomFilterSize is negative");
+        this.maxDistinctValues = maxDistinctValues;
+        this.bloomFilterSize = bloomFilterSize;
+    }
+
+    /**
+     * Must be called once while planning the build side, before any partition is published.
+     */
+    public synchronized void setPartitionCount(int partitionCount)
+    {
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+        checkState(expectedPartitions == 0, "partitionCount is already set");
+        expectedPartitions = partitionCount;
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        Class<?> javaType = type.getJavaType();
+        return type.isComparable() && (javaType == long.class || javaType == double.class || javaType == boolean.class || javaType == Slice.class);
+    }
+
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    public ListenableFuture<TupleDomain<Integer>> getResult()
+    {
+        return result;
+    }
+
+    /**
+     * Completes before {@link #getResult()}.
+     */
+    public ListenableFuture<Map<Integer, BloomFilter>> getBloomFilters()
+    {
+        return bloomFilters;
+    }
+
+    /**
+     * Summary of the build rows of all partitions, including the value hashes required
+     * to merge it with the summaries of other tasks. Completes before {@link #getBloomFilters()}.
+     */
+    public ListenableFuture<DynamicFilterSummary> getSummary()
+    {
+        return summary;
+    }
+
+    DynamicFilterCollector createCollector(List<Integer> hashChannels)
+    {
+        return new DynamicFilterCollector(hashChannels, types, maxDistinctValues, bloomFilterSize);
+    }
+
+    synchronized void addPartition(DynamicFilterSummary partition)
+    {
+        requireNonNull(partition, "partition is null");
+        checkState(expectedPartitions > 0, "partitionCount is not set");
+        checkState(!result.isDone(), "All partitions have already been published");
+
+        partitions.add(partition);
+        if (partitions.size() == expectedPartitions) {
+            DynamicFilterSummary union = DynamicFilterSummary.union(partitions);
+            summary.set(union);
+            bloomFilters.set(union.getBloomFilters());
+            result.set(union.getDomain());
+            partitions.clear();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.OutputBuffers.OutputBufferId;
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskManager;
+import com.facebook.presto.execution.buffer.BufferResult;
+import com.facebook.presto.operator.HttpPageBufferClient.PagesResponse;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.presto.operator.HttpPageBufferClient.PagesResponse.createPagesResponse;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Output buffer of a task running on this node. Mirrors the results resource of
+ * {@link com.facebook.presto.server.TaskResource}, but hands out the serialized pages
+ * held by the buffer without copying them through the HTTP stack.
+ */
+public class LocalTaskResults
+{
+    // same wait as the results resource, so that a reader of a failed or aborted buffer is not blocked forever
+    private static final Duration MAX_WAIT_TIME = new Duration(2, SECONDS);
+
+    private final TaskManager taskManager;
+    private final TaskId taskId;
+    private final OutputBufferId bufferId;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    public LocalTaskResults(TaskManager taskManager, TaskId taskId, OutputBufferId bufferId, ScheduledExecutorService timeoutExecutor)
+    {
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.bufferId = requireNonNull(bufferId, "bufferId is null");
+        this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+    }
+
+    public ListenableFuture<PagesResponse> getResults(long token, DataSize maxSize)
+    {
+        try {
+            ListenableFuture<BufferResult> bufferResultFuture = addTimeout(
+                    taskManager.getTaskResults(taskId, bufferId, token, maxSize),
+                    () -> BufferResult.emptyResults(taskManager.getTaskInstanceId(taskId), token, false),
+                    MAX_WAIT_TIME,
+                    timeoutExecutor);
+            return Futures.transform(
+                    bufferResultFuture,
+                    result -> createPagesResponse(result.getTaskInstanceId(), result.getToken(), result.getNextToken(), result.getSerializedPages(), result.isBufferComplete()),
+                    directExecutor());
+        }
+        catch (RuntimeException e) {
+            return immediateFailedFuture(e);
+        }
+    }
+
+    public void acknowledgeResults(long token)
+    {
+        taskManager.acknowledgeTaskResults(taskId, bufferId, token);
+    }
+
+    public ListenableFuture<?> abortResults()
+    {
+        try {
+            taskManager.abortTaskResults(taskId, bufferId);
+            return immediateFuture(null);
+        }
+        catch (RuntimeException e) {
+            return immediateFailedFuture(e);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("bufferId", bufferId)
+                .toString();
+    }
+}
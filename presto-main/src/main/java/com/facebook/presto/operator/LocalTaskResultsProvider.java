@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.OutputBuffers.OutputBufferId;
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskManager;
+import com.facebook.presto.metadata.InternalNodeManager;
+import com.facebook.presto.server.ForAsyncHttp;
+import com.google.common.base.Splitter;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Resolves exchange locations that point at an output buffer of a task running on this
+ * node, so that the pages can be read directly from the {@link TaskManager} instead of
+ * being sent over loopback HTTP.
+ */
+public class LocalTaskResultsProvider
+{
+    private final Supplier<URI> localNodeUri;
+    // the task manager depends on the exchange client supplier through the local execution planner
+    private final Provider<TaskManager> taskManager;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    @Inject
+    public LocalTaskResultsProvider(InternalNodeManager nodeManager, Provider<TaskManager> taskManager, @ForAsyncHttp ScheduledExecutorService timeoutExecutor)
+    {
+        requireNonNull(nodeManager, "nodeManager is null");
+        this.localNodeUri = () -> nodeManager.getCurrentNode().getHttpUri();
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+    }
+
+    public LocalTaskResultsProvider(URI localNodeUri, Provider<TaskManager> taskManager, ScheduledExecutorService timeoutExecutor)
+    {
+        requireNonNull(localNodeUri, "localNodeUri is null");
+        this.localNodeUri = () -> localNodeUri;
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+    }
+
+    /**
+     * Returns the local task results for a location of the form
+     * {@code <node uri>/v1/task/<task id>/results/<buffer id>} served by this node.
+     */
+    public Optional<LocalTaskResults> getLocalTaskResults(URI location)
+    {
+        requireNonNull(location, "location is null");
+
+        URI nodeUri = localNodeUri.get();
+        if (!Objects.equals(location.getScheme(), nodeUri.getScheme()) ||
+                !Objects.equals(location.getHost(), nodeUri.getHost()) ||
+                location.getPort() != nodeUri.getPort() ||
+                location.getPath() == null) {
+            return Optional.empty();
+        }
+
+        List<String> path = Splitter.on('/').omitEmptyStrings().splitToList(location.getPath());
+        if (path.size() != 5 || !path.get(0).equals("v1") || !path.get(1).equals("task") || !path.get(3).equals("results")) {
+            return Optional.empty();
+        }
+
+        TaskId taskId;
+        OutputBufferId bufferId;
+        try {
+            taskId = TaskId.valueOf(path.get(2));
+            bufferId = OutputBufferId.fromString(path.get(4));
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalTaskResults(taskManager.get(), taskId, bufferId, timeoutExecutor));
+    }
+}
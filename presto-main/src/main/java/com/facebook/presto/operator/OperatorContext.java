@@ -87,6 +87,7 @@ public class OperatorContext
     private final AtomicReference<SettableFuture<?>> revocableMemoryFuture;
     private final AtomicReference<BlockedMonitor> blockedMonitor = new AtomicReference<>();
     private final AtomicLong blockedWallNanos = new AtomicLong();
+    private final AtomicLong ioWaitWallNanos = new AtomicLong();
 
     private final AtomicLong finishCalls = new AtomicLong();
     private final AtomicLong finishWallNanos = new AtomicLong();
@@ -190,6 +191,7 @@ public class OperatorContext
         inputDataSize.update(sizeInBytes);
         inputPositions.update(positions);
         recordInputWallNanos(readNanos);
+        ioWaitWallNanos.getAndAdd(readNanos);
     }
 
     public long recordInputWallNanos(long readNanos)
@@ -486,6 +488,7 @@ public class OperatorContext
                 succinctBytes(physicalWrittenDataSize.get()),
 
                 new Duration(blockedWallNanos.get(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                new Duration(ioWaitWallNanos.get(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
                 finishCalls.get(),
                 new Duration(finishWallNanos.get(), NANOSECONDS).convertToMostSuccinctTimeUnit(),
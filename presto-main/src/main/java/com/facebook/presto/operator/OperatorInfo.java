@@ -29,9 +29,13 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
         @JsonSubTypes.Type(value = TableFinishInfo.class, name = "tableFinish"),
         @JsonSubTypes.Type(value = SplitOperatorInfo.class, name = "splitOperator"),
         @JsonSubTypes.Type(value = HashCollisionsInfo.class, name = "hashCollisionsInfo"),
+        @JsonSubTypes.Type(value = HashAggregationInfo.class, name = "hashAggregationInfo"),
+        @JsonSubTypes.Type(value = ReplicatedBuildInfo.class, name = "replicatedBuildInfo"),
         @JsonSubTypes.Type(value = PartitionedOutputInfo.class, name = "partitionedOutput"),
         @JsonSubTypes.Type(value = JoinOperatorInfo.class, name = "joinOperatorInfo"),
         @JsonSubTypes.Type(value = WindowInfo.class, name = "windowInfo"),
+        @JsonSubTypes.Type(value = DynamicFilterInfo.class, name = "dynamicFilterInfo"),
+        @JsonSubTypes.Type(value = ExchangeCompressionInfo.class, name = "exchangeCompressionInfo"),
         @JsonSubTypes.Type(value = TableWriterInfo.class, name = "tableWriter")})
 public interface OperatorInfo
 {
@@ -60,6 +60,7 @@ public class OperatorStats
     private final DataSize physicalWrittenDataSize;
 
     private final Duration blockedWall;
+    private final Duration ioWaitWall;
 
     private final long finishCalls;
     private final Duration finishWall;
@@ -104,6 +105,7 @@ public class OperatorStats
             @JsonProperty("physicalWrittenDataSize") DataSize physicalWrittenDataSize,
 
             @JsonProperty("blockedWall") Duration blockedWall,
+            @JsonProperty("ioWaitWall") Duration ioWaitWall,
 
             @JsonProperty("finishCalls") long finishCalls,
             @JsonProperty("finishWall") Duration finishWall,
@@ -150,6 +152,7 @@ public class OperatorStats
         this.physicalWrittenDataSize = requireNonNull(physicalWrittenDataSize, "writtenDataSize is null");
 
         this.blockedWall = requireNonNull(blockedWall, "blockedWall is null");
+        this.ioWaitWall = requireNonNull(ioWaitWall, "ioWaitWall is null");
 
         this.finishCalls = finishCalls;
         this.finishWall = requireNonNull(finishWall, "finishWall is null");
@@ -289,6 +292,15 @@ public class OperatorStats
         return blockedWall;
     }
 
+    /**
+     * Time the operator spent waiting for the data source to read its input, included in the input wall time.
+     */
+    @JsonProperty
+    public Duration getIoWaitWall()
+    {
+        return ioWaitWall;
+    }
+
     @JsonProperty
     public long getFinishCalls()
     {
@@ -389,6 +401,7 @@ public class OperatorStats
         long physicalWrittenDataSize = this.physicalWrittenDataSize.toBytes();
 
         long blockedWall = this.blockedWall.roundTo(NANOSECONDS);
+        long ioWaitWall = this.ioWaitWall.roundTo(NANOSECONDS);
 
         long finishCalls = this.finishCalls;
         long finishWall = this.finishWall.roundTo(NANOSECONDS);
@@ -433,6 +446,7 @@ public class OperatorStats
             finishUser += operator.getFinishUser().roundTo(NANOSECONDS);
 
             blockedWall += operator.getBlockedWall().roundTo(NANOSECONDS);
+            ioWaitWall += operator.getIoWaitWall().roundTo(NANOSECONDS);
 
             memoryReservation += operator.getUserMemoryReservation().toBytes();
             revocableMemoryReservation += operator.getRevocableMemoryReservation().toBytes();
@@ -478,6 +492,7 @@ public class OperatorStats
                 succinctBytes(physicalWrittenDataSize),
 
                 new Duration(blockedWall, NANOSECONDS).convertToMostSuccinctTimeUnit(),
+                new Duration(ioWaitWall, NANOSECONDS).convertToMostSuccinctTimeUnit(),
 
                 finishCalls,
                 new Duration(finishWall, NANOSECONDS).convertToMostSuccinctTimeUnit(),
@@ -535,6 +550,7 @@ public class OperatorStats
                 outputPositions,
                 physicalWrittenDataSize,
                 blockedWall,
+                ioWaitWall,
                 finishCalls,
                 finishWall,
                 finishCpu,
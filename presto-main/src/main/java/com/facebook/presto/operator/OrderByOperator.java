@@ -16,15 +16,26 @@ package com.facebook.presto.operator;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
+import com.facebook.presto.sql.gen.OrderingCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
+import java.util.Optional;
 
+import static com.facebook.presto.util.MergeSortedPages.mergeSortedPages;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Objects.requireNonNull;
 
 public class OrderByOperator
@@ -42,6 +53,9 @@ public class OrderByOperator
         private final List<SortOrder> sortOrder;
         private boolean closed;
         private final PagesIndex.Factory pagesIndexFactory;
+        private final boolean spillEnabled;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final OrderingCompiler orderingCompiler;
 
         public OrderByOperatorFactory(
                 int operatorId,
@@ -51,7 +65,10 @@ public class OrderByOperator
                 int expectedPositions,
                 List<Integer> sortChannels,
                 List<SortOrder> sortOrder,
-                PagesIndex.Factory pagesIndexFactory)
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                Optional<SpillerFactory> spillerFactory,
+                OrderingCompiler orderingCompiler)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -62,6 +79,10 @@ public class OrderByOperator
             this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
 
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+            this.spillEnabled = spillEnabled;
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+            checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
         }
 
         @Override
@@ -77,7 +98,10 @@ public class OrderByOperator
                     expectedPositions,
                     sortChannels,
                     sortOrder,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
 
         @Override
@@ -89,7 +113,18 @@ public class OrderByOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new OrderByOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, expectedPositions, sortChannels, sortOrder, pagesIndexFactory);
+            return new OrderByOperatorFactory(
+                    operatorId,
+                    planNodeId,
+                    sourceTypes,
+                    outputChannels,
+                    expectedPositions,
+                    sortChannels,
+                    sortOrder,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
     }
 
@@ -101,16 +136,27 @@ public class OrderByOperator
     }
 
     private final OperatorContext operatorContext;
+    private final List<Type> sourceTypes;
     private final List<Integer> sortChannels;
     private final List<SortOrder> sortOrder;
     private final int[] outputChannels;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private final PagesIndex pageIndex;
 
     private final PageBuilder pageBuilder;
     private int currentPosition;
 
+    private final boolean spillEnabled;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final OrderingCompiler orderingCompiler;
+
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private Optional<WorkProcessor<Page>> mergedSpilledPages = Optional.empty();
+
     private State state = State.NEEDS_INPUT;
 
     public OrderByOperator(
@@ -120,19 +166,29 @@ public class OrderByOperator
             int expectedPositions,
             List<Integer> sortChannels,
             List<SortOrder> sortOrder,
-            PagesIndex.Factory pagesIndexFactory)
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory,
+            OrderingCompiler orderingCompiler)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
 
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.sourceTypes = ImmutableList.copyOf(requireNonNull(sourceTypes, "sourceTypes is null"));
         this.outputChannels = Ints.toArray(requireNonNull(outputChannels, "outputChannels is null"));
         this.sortChannels = ImmutableList.copyOf(requireNonNull(sortChannels, "sortChannels is null"));
         this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
         this.pageIndex = pagesIndexFactory.newPagesIndex(sourceTypes, expectedPositions);
 
         this.pageBuilder = new PageBuilder(toTypes(sourceTypes, outputChannels));
+
+        this.spillEnabled = spillEnabled;
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
     }
 
     @Override
@@ -147,8 +203,19 @@ public class OrderByOperator
         if (state == State.NEEDS_INPUT) {
             state = State.HAS_OUTPUT;
 
-            // sort the index
-            pageIndex.sort(sortChannels, sortOrder);
+            if (spiller.isPresent()) {
+                // spill the remaining rows as the last sorted run, and stream the output from the merge of all runs
+                if (pageIndex.getPositionCount() > 0) {
+                    getFutureValue(spillToDisk());
+                    pageIndex.clear();
+                }
+                mergedSpilledPages = Optional.of(mergeSpilledPages());
+            }
+            else {
+                // sort the index
+                pageIndex.sort(sortChannels, sortOrder);
+            }
+            updateMemoryUsage();
         }
     }
 
@@ -169,13 +236,10 @@ public class OrderByOperator
     {
         checkState(state == State.NEEDS_INPUT, "Operator is already finishing");
         requireNonNull(page, "page is null");
+        checkSpillSucceeded();
 
         pageIndex.addPage(page);
-
-        if (!localUserMemoryContext.trySetBytes(pageIndex.getEstimatedSize().toBytes())) {
-            pageIndex.compact();
-            localUserMemoryContext.setBytes(pageIndex.getEstimatedSize().toBytes());
-        }
+        updateMemoryUsage();
     }
 
     @Override
@@ -185,6 +249,10 @@ public class OrderByOperator
             return null;
         }
 
+        if (mergedSpilledPages.isPresent()) {
+            return getMergedOutput(mergedSpilledPages.get());
+        }
+
         if (currentPosition >= pageIndex.getPositionCount()) {
             state = State.FINISHED;
             return null;
@@ -204,10 +272,114 @@ public class OrderByOperator
         return page;
     }
 
+    private Page getMergedOutput(WorkProcessor<Page> mergedPages)
+    {
+        if (!mergedPages.process()) {
+            return null;
+        }
+
+        if (mergedPages.isFinished()) {
+            state = State.FINISHED;
+            return null;
+        }
+
+        Page page = mergedPages.getResult();
+        Block[] blocks = new Block[outputChannels.length];
+        for (int i = 0; i < outputChannels.length; i++) {
+            blocks[i] = page.getBlock(outputChannels[i]);
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(!finishMemoryRevoke.isPresent(), "Memory revoke is already in progress");
+        if (!spillEnabled || state != State.NEEDS_INPUT || pageIndex.getPositionCount() == 0) {
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        ListenableFuture<?> spillFuture = spillToDisk();
+        finishMemoryRevoke = Optional.of(() -> {
+            pageIndex.clear();
+            updateMemoryUsage();
+        });
+        return spillFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        checkSpillSucceeded();
+
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(
+                    sourceTypes,
+                    operatorContext.getSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+
+        // every spill writes a single sorted run
+        pageIndex.sort(sortChannels, sortOrder);
+        spillInProgress = spiller.get().spill(pageIndex.getSortedPages());
+        return spillInProgress;
+    }
+
+    private WorkProcessor<Page> mergeSpilledPages()
+    {
+        checkState(spiller.isPresent());
+
+        List<WorkProcessor<Page>> sortedRuns = spiller.get().getSpills().stream()
+                .map(WorkProcessor::fromIterator)
+                .collect(toImmutableList());
+
+        return mergeSortedPages(
+                sortedRuns,
+                orderingCompiler.compilePageWithPositionComparator(sourceTypes, sortChannels, sortOrder),
+                sourceTypes,
+                operatorContext.aggregateUserMemoryContext(),
+                operatorContext.getDriverContext().getYieldSignal());
+    }
+
+    private void checkSpillSucceeded()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill hasn't yet finished");
+        // check for exception from previous spill for early failure
+        getFutureValue(spillInProgress);
+    }
+
+    private void updateMemoryUsage()
+    {
+        long indexSize = pageIndex.getEstimatedSize().toBytes();
+        if (spillEnabled && state == State.NEEDS_INPUT) {
+            // while collecting input, the whole index can be spilled
+            localUserMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(pageIndex.getPositionCount() == 0 ? 0 : indexSize);
+            return;
+        }
+
+        localRevocableMemoryContext.setBytes(0);
+        if (!localUserMemoryContext.trySetBytes(indexSize)) {
+            pageIndex.compact();
+            localUserMemoryContext.setBytes(pageIndex.getEstimatedSize().toBytes());
+        }
+    }
+
     @Override
     public void close()
     {
         pageIndex.clear();
+        spiller.ifPresent(Spiller::close);
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
     }
 
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels)
@@ -15,12 +15,17 @@ package com.facebook.presto.operator;
 
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.Type;
 import io.airlift.units.DataSize;
 import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.Nullable;
+
 import java.util.Arrays;
+import java.util.Optional;
 
 import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
 import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
@@ -50,14 +55,28 @@ public final class PagesHash
     private final long hashCollisions;
     private final double expectedHashCollisions;
 
+    // we unwrap Optional<PrimitiveJoinKeys> to actual keys or null in constructor for performance reasons
+    @Nullable
+    private final PrimitiveJoinKeys primitiveJoinKeys;
+
     public PagesHash(
             LongArrayList addresses,
             PagesHashStrategy pagesHashStrategy,
             PositionLinks.FactoryBuilder positionLinks)
+    {
+        this(addresses, pagesHashStrategy, positionLinks, Optional.empty());
+    }
+
+    public PagesHash(
+            LongArrayList addresses,
+            PagesHashStrategy pagesHashStrategy,
+            PositionLinks.FactoryBuilder positionLinks,
+            Optional<PrimitiveJoinKeys> primitiveJoinKeys)
     {
         this.addresses = requireNonNull(addresses, "addresses is null");
         this.pagesHashStrategy = requireNonNull(pagesHashStrategy, "pagesHashStrategy is null");
         this.channelCount = pagesHashStrategy.getChannelCount();
+        this.primitiveJoinKeys = requireNonNull(primitiveJoinKeys, "primitiveJoinKeys is null").orElse(null);
 
         // reserve memory for the arrays
         int hashSize = HashCommon.arraySize(addresses.size(), 0.75f);
@@ -119,7 +138,8 @@ public final class PagesHash
         }
 
         size = sizeOf(addresses.elements()) + pagesHashStrategy.getSizeInBytes() +
-                sizeOf(key) + sizeOf(positionToHashes);
+                sizeOf(key) + sizeOf(positionToHashes) +
+                (this.primitiveJoinKeys == null ? 0 : this.primitiveJoinKeys.getSizeInBytes());
         hashCollisions = hashCollisionsLocal;
         expectedHashCollisions = estimateNumberOfHashCollisions(addresses.size(), hashSize);
     }
@@ -168,6 +188,110 @@ public final class PagesHash
         return -1;
     }
 
+    /**
+     * Looks up the address indexes of a batch of probe rows. The probe rows must not contain nulls in the join channels.
+     *
+     * @param rawHashes hashes of the probe rows in the same order as {@code positions}, or null to compute them from {@code hashChannelsPage}
+     */
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, @Nullable long[] rawHashes, int[] addressIndexes)
+    {
+        if (primitiveJoinKeys != null) {
+            getPrimitiveAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, addressIndexes);
+            return;
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            if (rawHashes == null) {
+                addressIndexes[i] = getAddressIndex(positions[i], hashChannelsPage);
+            }
+            else {
+                addressIndexes[i] = getAddressIndex(positions[i], hashChannelsPage, rawHashes[i]);
+            }
+        }
+    }
+
+    private void getPrimitiveAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, @Nullable long[] rawHashes, int[] addressIndexes)
+    {
+        int keyChannelCount = primitiveJoinKeys.getChannelCount();
+
+        // copy the probe keys out of the blocks so the loops below only touch primitive arrays
+        long[][] probeKeys = new long[keyChannelCount][];
+        for (int channel = 0; channel < keyChannelCount; channel++) {
+            Type type = primitiveJoinKeys.getType(channel);
+            Block block = hashChannelsPage.getBlock(channel);
+            long[] values = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                values[i] = type.getLong(block, positions[i]);
+            }
+            probeKeys[channel] = values;
+        }
+
+        long[] hashes = rawHashes;
+        if (hashes == null) {
+            hashes = new long[positionCount];
+            for (int channel = 0; channel < keyChannelCount; channel++) {
+                long[] values = probeKeys[channel];
+                for (int i = 0; i < positionCount; i++) {
+                    hashes[i] = hashes[i] * 31 + PrimitiveJoinKeys.hash(values[i]);
+                }
+            }
+        }
+
+        // compute all the slots first, so the loads of the probe loop below do not depend on the hashing
+        int[] slots = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            slots[i] = getHashPosition(hashes[i], mask);
+        }
+
+        if (keyChannelCount == 1) {
+            long[] buildKeys = primitiveJoinKeys.getValues(0);
+            long[] values = probeKeys[0];
+            for (int i = 0; i < positionCount; i++) {
+                byte hash = (byte) hashes[i];
+                long value = values[i];
+                int pos = slots[i];
+                int addressIndex = -1;
+                while (key[pos] != -1) {
+                    int candidate = key[pos];
+                    if (positionToHashes[candidate] == hash && buildKeys[candidate] == value) {
+                        addressIndex = candidate;
+                        break;
+                    }
+                    // increment position and mask to handler wrap around
+                    pos = (pos + 1) & mask;
+                }
+                addressIndexes[i] = addressIndex;
+            }
+            return;
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            byte hash = (byte) hashes[i];
+            int pos = slots[i];
+            int addressIndex = -1;
+            while (key[pos] != -1) {
+                int candidate = key[pos];
+                if (positionToHashes[candidate] == hash && primitiveKeysEqual(candidate, probeKeys, i)) {
+                    addressIndex = candidate;
+                    break;
+                }
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+            }
+            addressIndexes[i] = addressIndex;
+        }
+    }
+
+    private boolean primitiveKeysEqual(int buildPosition, long[][] probeKeys, int probeIndex)
+    {
+        for (int channel = 0; channel < probeKeys.length; channel++) {
+            if (primitiveJoinKeys.getValues(channel)[buildPosition] != probeKeys[channel][probeIndex]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
     {
         long pageAddress = addresses.getLong(toIntExact(position));
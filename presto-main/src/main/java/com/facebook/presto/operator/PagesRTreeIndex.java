@@ -15,6 +15,7 @@ package com.facebook.presto.operator;
 
 import com.esri.core.geometry.ogc.OGCGeometry;
 import com.facebook.presto.Session;
+import com.facebook.presto.geospatial.Rectangle;
 import com.facebook.presto.operator.SpatialIndexBuilderOperator.SpatialPredicate;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
@@ -29,6 +30,7 @@ import org.locationtech.jts.index.strtree.STRtree;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
 
@@ -36,7 +38,10 @@ import static com.facebook.presto.geospatial.serde.GeometrySerde.deserialize;
 import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
 import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 public class PagesRTreeIndex
@@ -52,16 +57,19 @@ public class PagesRTreeIndex
     private final int radiusChannel;
     private final SpatialPredicate spatialRelationshipTest;
     private final JoinFilterFunction filterFunction;
+    private final Map<Integer, Rectangle> partitions;
 
     public static final class GeometryWithPosition
     {
         private static final int INSTANCE_SIZE = ClassLayout.parseClass(GeometryWithPosition.class).instanceSize();
         private final OGCGeometry ogcGeometry;
+        private final int partition;
         private final int position;
 
-        public GeometryWithPosition(OGCGeometry ogcGeometry, int position)
+        public GeometryWithPosition(OGCGeometry ogcGeometry, int partition, int position)
         {
             this.ogcGeometry = ogcGeometry;
+            this.partition = partition;
             this.position = position;
         }
 
@@ -79,8 +87,10 @@ public class PagesRTreeIndex
             List<List<Block>> channels,
             STRtree rtree,
             Optional<Integer> radiusChannel,
+            Optional<Integer> partitionChannel,
             SpatialPredicate spatialRelationshipTest,
-            Optional<JoinFilterFunctionFactory> filterFunctionFactory)
+            Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+            Map<Integer, Rectangle> partitions)
     {
         this.addresses = requireNonNull(addresses, "addresses is null");
         this.types = types;
@@ -90,6 +100,8 @@ public class PagesRTreeIndex
         this.radiusChannel = radiusChannel.orElse(-1);
         this.spatialRelationshipTest = requireNonNull(spatialRelationshipTest, "spatial relationship is null");
         this.filterFunction = filterFunctionFactory.map(factory -> factory.create(session.toConnectorSession(), addresses, channels)).orElse(null);
+        this.partitions = requireNonNull(partitions, "partitions is null");
+        checkArgument(partitionChannel.isPresent() != partitions.isEmpty(), "partitions must be provided for the partition channel");
     }
 
     private static Envelope getEnvelope(OGCGeometry ogcGeometry)
@@ -106,9 +118,13 @@ public class PagesRTreeIndex
      * <p>
      * The caller is responsible for calling {@link #isJoinPositionEligible(int, int, Page)}
      * for each of these addresses to apply additional join filters.
+     * <p>
+     * For a partitioned join, only rows of the same partition match, and a matching pair is
+     * returned only if the partition contains the lower left corner of the intersection of the
+     * envelopes, so that rows assigned to multiple partitions are not joined multiple times.
      */
     @Override
-    public int[] findJoinPositions(int probePosition, Page probe, int probeGeometryChannel)
+    public int[] findJoinPositions(int probePosition, Page probe, int probeGeometryChannel, Optional<Integer> probePartitionChannel)
     {
         Block probeGeometryBlock = probe.getBlock(probeGeometryChannel);
         if (probeGeometryBlock.isNull(probePosition)) {
@@ -122,13 +138,16 @@ public class PagesRTreeIndex
             return EMPTY_ADDRESSES;
         }
 
+        int probePartition = probePartitionChannel.map(channel -> toIntExact(INTEGER.getLong(probe.getBlock(channel), probePosition))).orElse(-1);
+
         IntArrayList matchingPositions = new IntArrayList();
 
         Envelope envelope = getEnvelope(probeGeometry);
         if (radiusChannel == -1) {
             rtree.query(envelope, item -> {
                 GeometryWithPosition geometryWithPosition = (GeometryWithPosition) item;
-                if (spatialRelationshipTest.apply(geometryWithPosition.ogcGeometry, probeGeometry, OptionalDouble.empty())) {
+                if ((probePartition == -1 || isAssignedToPartition(probePartition, envelope, geometryWithPosition, 0))
+                        && spatialRelationshipTest.apply(geometryWithPosition.ogcGeometry, probeGeometry, OptionalDouble.empty())) {
                     matchingPositions.add(geometryWithPosition.position);
                 }
             });
@@ -136,7 +155,9 @@ public class PagesRTreeIndex
         else {
             rtree.query(envelope, item -> {
                 GeometryWithPosition geometryWithPosition = (GeometryWithPosition) item;
-                if (spatialRelationshipTest.apply(geometryWithPosition.ogcGeometry, probeGeometry, OptionalDouble.of(getRadius(geometryWithPosition.position)))) {
+                double radius = getRadius(geometryWithPosition.position);
+                if ((probePartition == -1 || isAssignedToPartition(probePartition, envelope, geometryWithPosition, radius))
+                        && spatialRelationshipTest.apply(geometryWithPosition.ogcGeometry, probeGeometry, OptionalDouble.of(radius))) {
                     matchingPositions.add(geometryWithPosition.position);
                 }
             });
@@ -145,6 +166,21 @@ public class PagesRTreeIndex
         return matchingPositions.toIntArray(null);
     }
 
+    private boolean isAssignedToPartition(int probePartition, Envelope probeEnvelope, GeometryWithPosition buildGeometry, double radius)
+    {
+        if (probePartition != buildGeometry.partition) {
+            return false;
+        }
+
+        com.esri.core.geometry.Envelope buildEnvelope = new com.esri.core.geometry.Envelope();
+        buildGeometry.ogcGeometry.getEsriGeometry().queryEnvelope(buildEnvelope);
+
+        // the build side was assigned to partitions using envelopes expanded by the radius
+        double x = Math.max(probeEnvelope.getMinX(), buildEnvelope.getXMin() - radius);
+        double y = Math.max(probeEnvelope.getMinY(), buildEnvelope.getYMin() - radius);
+        return partitions.get(probePartition).containsHalfOpen(x, y);
+    }
+
     private double getRadius(int joinPosition)
     {
         long joinAddress = addresses.getLong(joinPosition);
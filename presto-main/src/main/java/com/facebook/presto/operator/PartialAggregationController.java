@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decides, for all the drivers of a partial {@link HashAggregationOperator}, whether partial
+ * aggregation is worth doing. Every driver reports how many rows went into each of its hash
+ * tables and how many groups came out. Once enough rows have been seen and the ratio of groups
+ * to rows is above the threshold, partial aggregation is disabled and the operators pass the
+ * rows through to the final aggregation instead.
+ */
+@ThreadSafe
+public class PartialAggregationController
+{
+    private final long minRows;
+    private final double uniqueRowsRatioThreshold;
+
+    private volatile boolean partialAggregationDisabled;
+    @GuardedBy("this")
+    private long totalRows;
+    @GuardedBy("this")
+    private long totalUniqueRows;
+
+    public PartialAggregationController(long minRows, double uniqueRowsRatioThreshold)
+    {
+        checkArgument(minRows >= 0, "minRows is negative");
+        checkArgument(uniqueRowsRatioThreshold >= 0 && uniqueRowsRatioThreshold <= 1, "uniqueRowsRatioThreshold must be between 0 and 1");
+        this.minRows = minRows;
+        this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+    }
+
+    public boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationDisabled;
+    }
+
+    public synchronized void onFlush(long rows, long uniqueRows)
+    {
+        checkArgument(rows >= 0, "rows is negative");
+        checkArgument(uniqueRows >= 0, "uniqueRows is negative");
+        if (partialAggregationDisabled) {
+            return;
+        }
+
+        totalRows += rows;
+        totalUniqueRows += uniqueRows;
+        if (totalRows >= minRows && totalUniqueRows > totalRows * uniqueRowsRatioThreshold) {
+            partialAggregationDisabled = true;
+        }
+    }
+
+    public synchronized double getUniqueRowsRatio()
+    {
+        if (totalRows == 0) {
+            return 0;
+        }
+        return (double) totalUniqueRows / totalRows;
+    }
+}
@@ -147,6 +147,66 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (lookupSources.length == 1) {
+            lookupSources[0].getJoinPositions(positions, positionCount, hashChannelsPage, allChannelsPage, rawHashes, joinPositions);
+            for (int i = 0; i < positionCount; i++) {
+                if (joinPositions[i] >= 0) {
+                    joinPositions[i] = encodePartitionedJoinPosition(0, toIntExact(joinPositions[i]));
+                }
+            }
+            return;
+        }
+
+        long[] hashes = rawHashes;
+        if (hashes == null) {
+            hashes = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                hashes[i] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+            }
+        }
+
+        // group the probe rows by partition, so every partition is probed with a single batch
+        int[] partitions = new int[positionCount];
+        int[] partitionOffsets = new int[lookupSources.length + 1];
+        for (int i = 0; i < positionCount; i++) {
+            int partition = partitionGenerator.getPartition(hashes[i]);
+            partitions[i] = partition;
+            partitionOffsets[partition + 1]++;
+        }
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
+        int[] sortedIndexes = new int[positionCount];
+        int[] nextIndex = Arrays.copyOf(partitionOffsets, lookupSources.length);
+        for (int i = 0; i < positionCount; i++) {
+            sortedIndexes[nextIndex[partitions[i]]++] = i;
+        }
+
+        int[] partitionPositions = new int[positionCount];
+        long[] partitionHashes = new long[positionCount];
+        long[] partitionJoinPositions = new long[positionCount];
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            int offset = partitionOffsets[partition];
+            int count = partitionOffsets[partition + 1] - offset;
+            if (count == 0) {
+                continue;
+            }
+            for (int j = 0; j < count; j++) {
+                int index = sortedIndexes[offset + j];
+                partitionPositions[j] = positions[index];
+                partitionHashes[j] = hashes[index];
+            }
+            lookupSources[partition].getJoinPositions(partitionPositions, count, hashChannelsPage, allChannelsPage, partitionHashes, partitionJoinPositions);
+            for (int j = 0; j < count; j++) {
+                long joinPosition = partitionJoinPositions[j];
+                joinPositions[sortedIndexes[offset + j]] = joinPosition < 0 ? joinPosition : encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
+            }
+        }
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
@@ -31,10 +31,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.DataSize;
 
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 
 import static com.facebook.presto.execution.buffer.PageSplitterUtil.splitPage;
@@ -307,6 +311,7 @@ public class PartitionedOutputOperator
         private final OptionalInt nullChannel; // when present, send the position to every partition if this channel is null.
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
+        private final AtomicLongArray partitionRowsAdded;
         private boolean hasAnyRowBeenReplicated;
 
         public PagePartitioner(
@@ -336,6 +341,7 @@ public class PartitionedOutputOperator
             pageSize = max(1, pageSize);
 
             this.pageBuilders = new PageBuilder[partitionCount];
+            this.partitionRowsAdded = new AtomicLongArray(partitionCount);
             for (int i = 0; i < partitionCount; i++) {
                 pageBuilders[i] = PageBuilder.withMaxPageSize(pageSize, sourceTypes);
             }
@@ -371,7 +377,11 @@ public class PartitionedOutputOperator
 
         public PartitionedOutputInfo getInfo()
         {
-            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage());
+            long[] partitionRows = new long[partitionRowsAdded.length()];
+            for (int partition = 0; partition < partitionRows.length; partition++) {
+                partitionRows[partition] = partitionRowsAdded.get(partition);
+            }
+            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage(), ExchangeCompressionInfo.from(serde), partitionRows);
         }
 
         public void partitionPage(Page page)
@@ -437,6 +447,7 @@ public class PartitionedOutputOperator
                     outputBuffer.enqueue(partition, serializedPages);
                     pagesAdded.incrementAndGet();
                     rowsAdded.addAndGet(pagePartition.getPositionCount());
+                    partitionRowsAdded.addAndGet(partition, pagePartition.getPositionCount());
                 }
             }
         }
@@ -448,16 +459,24 @@ public class PartitionedOutputOperator
         private final long rowsAdded;
         private final long pagesAdded;
         private final long outputBufferPeakMemoryUsage;
+        private final ExchangeCompressionInfo compressionInfo;
+        // rows sent to each partition, used to detect skewed partitioning keys
+        private final long[] partitionRowsAdded;
 
         @JsonCreator
         public PartitionedOutputInfo(
                 @JsonProperty("rowsAdded") long rowsAdded,
                 @JsonProperty("pagesAdded") long pagesAdded,
-                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage)
+                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage,
+                @JsonProperty("compressionInfo") @Nullable ExchangeCompressionInfo compressionInfo,
+                @JsonProperty("partitionRowsAdded") @Nullable long[] partitionRowsAdded)
         {
             this.rowsAdded = rowsAdded;
             this.pagesAdded = pagesAdded;
             this.outputBufferPeakMemoryUsage = outputBufferPeakMemoryUsage;
+            // not reported by workers running an older version
+            this.compressionInfo = compressionInfo == null ? new ExchangeCompressionInfo(0, 0, 0) : compressionInfo;
+            this.partitionRowsAdded = partitionRowsAdded == null ? new long[0] : partitionRowsAdded;
         }
 
         @JsonProperty
@@ -478,13 +497,52 @@ public class PartitionedOutputOperator
             return outputBufferPeakMemoryUsage;
         }
 
+        @JsonProperty
+        public ExchangeCompressionInfo getCompressionInfo()
+        {
+            return compressionInfo;
+        }
+
+        @JsonProperty
+        public long[] getPartitionRowsAdded()
+        {
+            return partitionRowsAdded;
+        }
+
+        /**
+         * Ratio of the number of rows sent to the largest partition to the average number
+         * of rows per partition. A value of 1 means the rows are evenly distributed, a value
+         * close to the number of partitions means a single partition receives almost all rows.
+         * Returns 0 if no rows have been added yet.
+         */
+        public double getPartitionSkew()
+        {
+            long maxRows = 0;
+            long totalRows = 0;
+            for (long rows : partitionRowsAdded) {
+                maxRows = Math.max(maxRows, rows);
+                totalRows += rows;
+            }
+            if (totalRows == 0) {
+                return 0;
+            }
+            return maxRows * partitionRowsAdded.length / (double) totalRows;
+        }
+
         @Override
         public PartitionedOutputInfo mergeWith(PartitionedOutputInfo other)
         {
+            // all tasks of a stage partition their output the same way
+            long[] partitionRows = Arrays.copyOf(partitionRowsAdded, Math.max(partitionRowsAdded.length, other.partitionRowsAdded.length));
+            for (int partition = 0; partition < other.partitionRowsAdded.length; partition++) {
+                partitionRows[partition] += other.partitionRowsAdded[partition];
+            }
             return new PartitionedOutputInfo(
                     rowsAdded + other.rowsAdded,
                     pagesAdded + other.pagesAdded,
-                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage));
+                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage),
+                    compressionInfo.mergeWith(other.compressionInfo),
+                    partitionRows);
         }
 
         @Override
@@ -500,6 +558,8 @@ public class PartitionedOutputOperator
                     .add("rowsAdded", rowsAdded)
                     .add("pagesAdded", pagesAdded)
                     .add("outputBufferPeakMemoryUsage", outputBufferPeakMemoryUsage)
+                    .add("compressionInfo", compressionInfo)
+                    .add("partitionSkew", getPartitionSkew())
                     .toString();
         }
     }
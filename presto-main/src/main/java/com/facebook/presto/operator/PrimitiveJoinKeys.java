@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.AbstractLongType;
+import com.facebook.presto.spi.type.Type;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.operator.SyntheticAddress.decodePosition;
+import static com.facebook.presto.operator.SyntheticAddress.decodeSliceIndex;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DateType.DATE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Build side join keys of primitive types copied out of the blocks into one {@code long[]} per join channel,
+ * indexed by the position in {@link PagesHash}. This allows the probe side to compare keys without
+ * decoding the synthetic addresses and without calls to the {@link PagesHashStrategy}.
+ * <p>
+ * This class must be public as it is used by {@link PagesHash}, which is loaded in an isolated class loader.
+ */
+public final class PrimitiveJoinKeys
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(PrimitiveJoinKeys.class).instanceSize();
+
+    private final Type[] types;
+    private final long[][] values;
+    private final long sizeInBytes;
+
+    public static boolean isSupportedType(Type type)
+    {
+        // hash and equality of these types are the hash and equality of their long representation
+        return type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DATE);
+    }
+
+    public static Optional<PrimitiveJoinKeys> create(List<Type> joinChannelTypes, List<List<Block>> joinChannels, LongArrayList addresses)
+    {
+        checkArgument(joinChannelTypes.size() == joinChannels.size(), "joinChannelTypes and joinChannels do not match");
+        if (joinChannelTypes.isEmpty() || !joinChannelTypes.stream().allMatch(PrimitiveJoinKeys::isSupportedType)) {
+            return Optional.empty();
+        }
+
+        Type[] types = joinChannelTypes.toArray(new Type[0]);
+        long[][] values = new long[types.length][];
+        for (int channel = 0; channel < types.length; channel++) {
+            Type type = types[channel];
+            List<Block> blocks = joinChannels.get(channel);
+            long[] channelValues = new long[addresses.size()];
+            for (int position = 0; position < addresses.size(); position++) {
+                long pageAddress = addresses.getLong(position);
+                Block block = blocks.get(decodeSliceIndex(pageAddress));
+                int blockPosition = decodePosition(pageAddress);
+                // rows with null keys are never added to the hash table
+                if (!block.isNull(blockPosition)) {
+                    channelValues[position] = type.getLong(block, blockPosition);
+                }
+            }
+            values[channel] = channelValues;
+        }
+        return Optional.of(new PrimitiveJoinKeys(types, values));
+    }
+
+    private PrimitiveJoinKeys(Type[] types, long[][] values)
+    {
+        this.types = types;
+        this.values = values;
+
+        long size = INSTANCE_SIZE + sizeOf(types) + sizeOf(values);
+        for (long[] channelValues : values) {
+            size += sizeOf(channelValues);
+        }
+        this.sizeInBytes = size;
+    }
+
+    public int getChannelCount()
+    {
+        return types.length;
+    }
+
+    public Type getType(int channel)
+    {
+        return types[channel];
+    }
+
+    public long[] getValues(int channel)
+    {
+        return values[channel];
+    }
+
+    public long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    /**
+     * Same as {@link Type#hash(Block, int)} for all the supported types.
+     */
+    public static long hash(long value)
+    {
+        return AbstractLongType.hash(value);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.util.Mergeable;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.units.DataSize;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.Ordering.natural;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Info of a {@link HashBuilderOperator} building the replicated side of a join that the
+ * planner chose to broadcast based on the estimated size of the build side.
+ */
+public class ReplicatedBuildInfo
+        implements Mergeable<ReplicatedBuildInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final DataSize buildDataSize;
+    private final DataSize maxBroadcastTableSize;
+
+    @JsonCreator
+    public ReplicatedBuildInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("buildDataSize") DataSize buildDataSize,
+            @JsonProperty("maxBroadcastTableSize") DataSize maxBroadcastTableSize)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.buildDataSize = requireNonNull(buildDataSize, "buildDataSize is null");
+        this.maxBroadcastTableSize = requireNonNull(maxBroadcastTableSize, "maxBroadcastTableSize is null");
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * @return size of the build side received by a single task, the largest one when merged across tasks
+     */
+    @JsonProperty
+    public DataSize getBuildDataSize()
+    {
+        return buildDataSize;
+    }
+
+    @JsonProperty
+    public DataSize getMaxBroadcastTableSize()
+    {
+        return maxBroadcastTableSize;
+    }
+
+    @Override
+    public ReplicatedBuildInfo mergeWith(ReplicatedBuildInfo other)
+    {
+        // every task receives the whole build side, so sizes are not additive
+        return new ReplicatedBuildInfo(
+                hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                natural().max(buildDataSize, other.getBuildDataSize()),
+                natural().max(maxBroadcastTableSize, other.getMaxBroadcastTableSize()));
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("buildDataSize", buildDataSize)
+                .add("maxBroadcastTableSize", maxBroadcastTableSize)
+                .toString();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import io.airlift.units.DataSize;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.facebook.presto.SystemSessionProperties.ENFORCE_BROADCAST_JOIN_SIZE_LIMIT;
+import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.JOIN_MAX_BROADCAST_TABLE_SIZE;
+import static com.facebook.presto.spi.StandardErrorCode.EXCEEDED_BROADCAST_MEMORY_LIMIT;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Measures the build side of a broadcast join across all the build operators of a task, so that
+ * the size can be compared with the broadcast limit the planner used. The limit applies to size
+ * estimates, while the build side is measured as retained in-memory size, so exceeding it only
+ * fails the query when enforcement is explicitly enabled.
+ */
+@ThreadSafe
+public class ReplicatedBuildSizeTracker
+{
+    private final DataSize maxBroadcastTableSize;
+    private final boolean enforced;
+    private final AtomicLong buildBytes = new AtomicLong();
+
+    public ReplicatedBuildSizeTracker(DataSize maxBroadcastTableSize, boolean enforced)
+    {
+        this.maxBroadcastTableSize = requireNonNull(maxBroadcastTableSize, "maxBroadcastTableSize is null");
+        this.enforced = enforced;
+    }
+
+    public void addPage(Page page)
+    {
+        long bytes = buildBytes.addAndGet(page.getSizeInBytes());
+        if (enforced && bytes > maxBroadcastTableSize.toBytes()) {
+            throw new PrestoException(EXCEEDED_BROADCAST_MEMORY_LIMIT, format(
+                    "Build side of broadcast join exceeded the broadcast limit of %s. Set session property %s to PARTITIONED, increase %s or disable %s",
+                    maxBroadcastTableSize,
+                    JOIN_DISTRIBUTION_TYPE,
+                    JOIN_MAX_BROADCAST_TABLE_SIZE,
+                    ENFORCE_BROADCAST_JOIN_SIZE_LIMIT));
+        }
+    }
+
+    public ReplicatedBuildInfo getInfo(HashCollisionsInfo hashCollisionsInfo)
+    {
+        return new ReplicatedBuildInfo(hashCollisionsInfo, new DataSize(buildBytes.get(), BYTE), maxBroadcastTableSize);
+    }
+}
@@ -63,6 +63,7 @@ public class ScanFilterAndProjectOperator
     private final LocalMemoryContext pageBuilderMemoryContext;
     private final SettableFuture<?> blocked = SettableFuture.create();
     private final MergingPageOutput mergingOutput;
+    private final Optional<TableScanDynamicFilter> dynamicFilter;
 
     private RecordCursor cursor;
     private ConnectorPageSource pageSource;
@@ -82,7 +83,8 @@ public class ScanFilterAndProjectOperator
             PageProcessor pageProcessor,
             Iterable<ColumnHandle> columns,
             Iterable<Type> types,
-            MergingPageOutput mergingOutput)
+            MergingPageOutput mergingOutput,
+            Optional<DynamicFilter> dynamicFilter)
     {
         this.cursorProcessor = requireNonNull(cursorProcessor, "cursorProcessor is null");
         this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
@@ -93,6 +95,7 @@ public class ScanFilterAndProjectOperator
         this.pageSourceMemoryContext = operatorContext.newLocalSystemMemoryContext(ScanFilterAndProjectOperator.class.getSimpleName());
         this.pageBuilderMemoryContext = operatorContext.newLocalSystemMemoryContext(ScanFilterAndProjectOperator.class.getSimpleName());
         this.mergingOutput = requireNonNull(mergingOutput, "mergingOutput is null");
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null").map(filter -> new TableScanDynamicFilter(filter, this.columns));
 
         this.pageBuilder = new PageBuilder(ImmutableList.copyOf(requireNonNull(types, "types is null")));
     }
@@ -122,7 +125,11 @@ public class ScanFilterAndProjectOperator
         this.split = split;
 
         Object splitInfo = split.getInfo();
-        if (splitInfo != null) {
+        if (dynamicFilter.isPresent()) {
+            TableScanDynamicFilter filter = dynamicFilter.get();
+            operatorContext.setInfoSupplier(() -> filter.getInfo(splitInfo));
+        }
+        else if (splitInfo != null) {
             operatorContext.setInfoSupplier(() -> new SplitOperatorInfo(splitInfo));
         }
         blocked.set(null);
@@ -213,7 +220,7 @@ public class ScanFilterAndProjectOperator
         }
 
         if (!finishing && pageSource == null && cursor == null) {
-            ConnectorPageSource source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
+            ConnectorPageSource source = createPageSource();
             if (source instanceof RecordPageSource) {
                 cursor = ((RecordPageSource) source).getCursor();
             }
@@ -230,6 +237,14 @@ public class ScanFilterAndProjectOperator
         }
     }
 
+    private ConnectorPageSource createPageSource()
+    {
+        if (dynamicFilter.isPresent()) {
+            return dynamicFilter.get().createPageSource(pageSourceProvider, operatorContext.getSession(), split);
+        }
+        return pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
+    }
+
     private Page processColumnSource()
     {
         DriverYieldSignal yieldSignal = operatorContext.getDriverContext().getYieldSignal();
@@ -275,8 +290,13 @@ public class ScanFilterAndProjectOperator
                 completedBytes = endCompletedBytes;
                 readTimeNanos = endReadTimeNanos;
 
-                PageProcessorOutput output = pageProcessor.process(operatorContext.getSession().toConnectorSession(), yieldSignal, page);
-                mergingOutput.addInput(output);
+                if (dynamicFilter.isPresent()) {
+                    page = dynamicFilter.get().filter(page);
+                }
+                if (page.getPositionCount() > 0) {
+                    PageProcessorOutput output = pageProcessor.process(operatorContext.getSession().toConnectorSession(), yieldSignal, page);
+                    mergingOutput.addInput(output);
+                }
             }
 
             if (finishing) {
@@ -302,6 +322,7 @@ public class ScanFilterAndProjectOperator
         private final List<Type> types;
         private final DataSize minOutputPageSize;
         private final int minOutputPageRowCount;
+        private final Optional<DynamicFilter> dynamicFilter;
         private boolean closed;
 
         public ScanFilterAndProjectOperatorFactory(
@@ -314,7 +335,8 @@ public class ScanFilterAndProjectOperator
                 Iterable<ColumnHandle> columns,
                 List<Type> types,
                 DataSize minOutputPageSize,
-                int minOutputPageRowCount)
+                int minOutputPageRowCount,
+                Optional<DynamicFilter> dynamicFilter)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -326,6 +348,7 @@ public class ScanFilterAndProjectOperator
             this.types = requireNonNull(types, "types is null");
             this.minOutputPageSize = requireNonNull(minOutputPageSize, "minOutputPageSize is null");
             this.minOutputPageRowCount = minOutputPageRowCount;
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
         }
 
         @Override
@@ -347,7 +370,8 @@ public class ScanFilterAndProjectOperator
                     pageProcessor.get(),
                     columns,
                     types,
-                    new MergingPageOutput(types, minOutputPageSize.toBytes(), minOutputPageRowCount));
+                    new MergingPageOutput(types, minOutputPageSize.toBytes(), minOutputPageRowCount),
+                    dynamicFilter);
         }
 
         @Override
@@ -14,18 +14,22 @@
 package com.facebook.presto.operator;
 
 import com.esri.core.geometry.ogc.OGCGeometry;
+import com.facebook.presto.geospatial.Rectangle;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
@@ -48,6 +52,8 @@ public class SpatialIndexBuilderOperator
         private final List<Integer> outputChannels;
         private final int indexChannel;
         private final Optional<Integer> radiusChannel;
+        private final Optional<Integer> partitionChannel;
+        private final Map<Integer, Rectangle> partitions;
         private final SpatialPredicate spatialRelationshipTest;
         private final Optional<JoinFilterFunctionFactory> filterFunctionFactory;
         private final PagesIndex.Factory pagesIndexFactory;
@@ -63,6 +69,8 @@ public class SpatialIndexBuilderOperator
                 List<Integer> outputChannels,
                 int indexChannel,
                 Optional<Integer> radiusChannel,
+                Optional<Integer> partitionChannel,
+                Map<Integer, Rectangle> partitions,
                 SpatialPredicate spatialRelationshipTest,
                 Optional<JoinFilterFunctionFactory> filterFunctionFactory,
                 int expectedPositions,
@@ -79,6 +87,9 @@ public class SpatialIndexBuilderOperator
 
             this.indexChannel = indexChannel;
             this.radiusChannel = radiusChannel;
+            this.partitionChannel = requireNonNull(partitionChannel, "partitionChannel is null");
+            this.partitions = ImmutableMap.copyOf(requireNonNull(partitions, "partitions is null"));
+            checkArgument(partitionChannel.isPresent() != partitions.isEmpty(), "partitions must be provided for the partition channel");
             this.spatialRelationshipTest = spatialRelationshipTest;
             this.filterFunctionFactory = requireNonNull(filterFunctionFactory, "filterFunctionFactory is null");
             this.pagesIndexFactory = pagesIndexFactory;
@@ -101,6 +112,8 @@ public class SpatialIndexBuilderOperator
                     outputChannels,
                     indexChannel,
                     radiusChannel,
+                    partitionChannel,
+                    partitions,
                     spatialRelationshipTest,
                     filterFunctionFactory,
                     expectedPositions,
@@ -127,6 +140,8 @@ public class SpatialIndexBuilderOperator
     private final List<Integer> outputChannels;
     private final int indexChannel;
     private final Optional<Integer> radiusChannel;
+    private final Optional<Integer> partitionChannel;
+    private final Map<Integer, Rectangle> partitions;
     private final SpatialPredicate spatialRelationshipTest;
     private final Optional<JoinFilterFunctionFactory> filterFunctionFactory;
 
@@ -142,6 +157,8 @@ public class SpatialIndexBuilderOperator
             List<Integer> outputChannels,
             int indexChannel,
             Optional<Integer> radiusChannel,
+            Optional<Integer> partitionChannel,
+            Map<Integer, Rectangle> partitions,
             SpatialPredicate spatialRelationshipTest,
             Optional<JoinFilterFunctionFactory> filterFunctionFactory,
             int expectedPositions,
@@ -158,6 +175,8 @@ public class SpatialIndexBuilderOperator
         this.outputChannels = requireNonNull(outputChannels, "outputChannels is null");
         this.indexChannel = indexChannel;
         this.radiusChannel = radiusChannel;
+        this.partitionChannel = partitionChannel;
+        this.partitions = partitions;
     }
 
     @Override
@@ -211,7 +230,7 @@ public class SpatialIndexBuilderOperator
         }
 
         finishing = true;
-        PagesSpatialIndexSupplier spatialIndex = index.createPagesSpatialIndex(operatorContext.getSession(), indexChannel, radiusChannel, spatialRelationshipTest, filterFunctionFactory, outputChannels);
+        PagesSpatialIndexSupplier spatialIndex = index.createPagesSpatialIndex(operatorContext.getSession(), indexChannel, radiusChannel, partitionChannel, spatialRelationshipTest, filterFunctionFactory, outputChannels, partitions);
         localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes() + spatialIndex.getEstimatedSize().toBytes());
         indexNotNeeded = pagesSpatialIndexFactory.lendPagesSpatialIndex(spatialIndex);
     }
@@ -26,6 +26,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
@@ -34,6 +35,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.concurrent.MoreFutures.getDone;
 import static io.airlift.slice.SizeOf.sizeOf;
+import static java.util.Objects.requireNonNull;
 
 public class SpatialJoinOperator
         implements Operator
@@ -47,6 +49,7 @@ public class SpatialJoinOperator
         private final List<Type> probeTypes;
         private final List<Integer> probeOutputChannels;
         private final int probeGeometryChannel;
+        private final Optional<Integer> partitionChannel;
         private final PagesSpatialIndexFactory pagesSpatialIndexFactory;
 
         private boolean closed;
@@ -58,15 +61,18 @@ public class SpatialJoinOperator
                 List<Type> probeTypes,
                 List<Integer> probeOutputChannels,
                 int probeGeometryChannel,
+                Optional<Integer> partitionChannel,
                 PagesSpatialIndexFactory pagesSpatialIndexFactory)
         {
             checkArgument(joinType == INNER || joinType == LEFT, "unsupported join type: %s", joinType);
+            checkArgument(joinType == INNER || !partitionChannel.isPresent(), "partitioned spatial join must be an inner join");
             this.operatorId = operatorId;
             this.planNodeId = planNodeId;
             this.joinType = joinType;
             this.probeTypes = ImmutableList.copyOf(probeTypes);
             this.probeOutputChannels = ImmutableList.copyOf(probeOutputChannels);
             this.probeGeometryChannel = probeGeometryChannel;
+            this.partitionChannel = requireNonNull(partitionChannel, "partitionChannel is null");
             this.pagesSpatialIndexFactory = pagesSpatialIndexFactory;
         }
 
@@ -84,6 +90,7 @@ public class SpatialJoinOperator
                     probeTypes,
                     probeOutputChannels,
                     probeGeometryChannel,
+                    partitionChannel,
                     pagesSpatialIndexFactory);
         }
 
@@ -101,7 +108,7 @@ public class SpatialJoinOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new SpatialJoinOperatorFactory(operatorId, planNodeId, joinType, probeTypes, probeOutputChannels, probeGeometryChannel, pagesSpatialIndexFactory);
+            return new SpatialJoinOperatorFactory(operatorId, planNodeId, joinType, probeTypes, probeOutputChannels, probeGeometryChannel, partitionChannel, pagesSpatialIndexFactory);
         }
     }
 
@@ -111,6 +118,7 @@ public class SpatialJoinOperator
     private final List<Type> probeTypes;
     private final List<Integer> probeOutputChannels;
     private final int probeGeometryChannel;
+    private final Optional<Integer> partitionChannel;
     private final PagesSpatialIndexFactory pagesSpatialIndexFactory;
 
     private ListenableFuture<PagesSpatialIndex> pagesSpatialIndexFuture;
@@ -135,6 +143,7 @@ public class SpatialJoinOperator
             List<Type> probeTypes,
             List<Integer> probeOutputChannels,
             int probeGeometryChannel,
+            Optional<Integer> partitionChannel,
             PagesSpatialIndexFactory pagesSpatialIndexFactory)
     {
         this.operatorContext = operatorContext;
@@ -143,6 +152,7 @@ public class SpatialJoinOperator
         this.probeTypes = ImmutableList.copyOf(probeTypes);
         this.probeOutputChannels = ImmutableList.copyOf(probeOutputChannels);
         this.probeGeometryChannel = probeGeometryChannel;
+        this.partitionChannel = requireNonNull(partitionChannel, "partitionChannel is null");
         this.pagesSpatialIndexFactory = pagesSpatialIndexFactory;
         this.pagesSpatialIndexFuture = pagesSpatialIndexFactory.createPagesSpatialIndex();
         this.pageBuilder = new PageBuilder(ImmutableList.<Type>builder()
@@ -212,7 +222,7 @@ public class SpatialJoinOperator
         DriverYieldSignal yieldSignal = operatorContext.getDriverContext().getYieldSignal();
         while (probePosition < probe.getPositionCount()) {
             if (joinPositions == null) {
-                joinPositions = pagesSpatialIndex.findJoinPositions(probePosition, probe, probeGeometryChannel);
+                joinPositions = pagesSpatialIndex.findJoinPositions(probePosition, probe, probeGeometryChannel, partitionChannel);
                 localUserMemoryContext.setBytes(sizeOf(joinPositions));
                 nextJoinPositionIndex = 0;
                 matchFound = false;
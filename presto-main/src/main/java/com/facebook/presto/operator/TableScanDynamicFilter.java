@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.split.EmptySplitPageSource;
+import com.facebook.presto.split.PageSourceProvider;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Applies a dynamic filter to the splits of a table scan operator and keeps the
+ * pruning statistics reported as the operator info.
+ */
+@NotThreadSafe
+class TableScanDynamicFilter
+{
+    private final DynamicFilter dynamicFilter;
+    private final List<ColumnHandle> columns;
+
+    private Optional<DynamicFilter.PageFilter> pageFilter = Optional.empty();
+    private long inputPositions;
+    private long prunedPositions;
+    private long prunedSplits;
+
+    public TableScanDynamicFilter(DynamicFilter dynamicFilter, List<ColumnHandle> columns)
+    {
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+    }
+
+    public ConnectorPageSource createPageSource(PageSourceProvider pageSourceProvider, Session session, Split split)
+    {
+        TupleDomain<ColumnHandle> domain = dynamicFilter.getCurrentDomain();
+        if (domain.isNone()) {
+            // the build side of the join is empty, so no row of this split can match
+            prunedSplits++;
+            return new EmptySplitPageSource();
+        }
+        return pageSourceProvider.createPageSource(session, split, columns, domain);
+    }
+
+    public Page filter(Page page)
+    {
+        if (!pageFilter.isPresent()) {
+            pageFilter = dynamicFilter.createPageFilter(columns);
+            if (!pageFilter.isPresent()) {
+                return page;
+            }
+        }
+
+        Page filtered = pageFilter.get().filter(page);
+        inputPositions += page.getPositionCount();
+        prunedPositions += page.getPositionCount() - filtered.getPositionCount();
+        return filtered;
+    }
+
+    public DynamicFilterInfo getInfo(@Nullable Object splitInfo)
+    {
+        return new DynamicFilterInfo(inputPositions, prunedPositions, prunedSplits, splitInfo);
+    }
+}
@@ -49,18 +49,21 @@ public class TableScanOperator
         private final PlanNodeId sourceId;
         private final PageSourceProvider pageSourceProvider;
         private final List<ColumnHandle> columns;
+        private final Optional<DynamicFilter> dynamicFilter;
         private boolean closed;
 
         public TableScanOperatorFactory(
                 int operatorId,
                 PlanNodeId sourceId,
                 PageSourceProvider pageSourceProvider,
-                Iterable<ColumnHandle> columns)
+                Iterable<ColumnHandle> columns,
+                Optional<DynamicFilter> dynamicFilter)
         {
             this.operatorId = operatorId;
             this.sourceId = requireNonNull(sourceId, "sourceId is null");
             this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
         }
 
         @Override
@@ -78,7 +81,8 @@ public class TableScanOperator
                     operatorContext,
                     sourceId,
                     pageSourceProvider,
-                    columns);
+                    columns,
+                    dynamicFilter);
         }
 
         @Override
@@ -92,6 +96,7 @@ public class TableScanOperator
     private final PlanNodeId planNodeId;
     private final PageSourceProvider pageSourceProvider;
     private final List<ColumnHandle> columns;
+    private final Optional<TableScanDynamicFilter> dynamicFilter;
     private final LocalMemoryContext systemMemoryContext;
     private final SettableFuture<?> blocked = SettableFuture.create();
 
@@ -107,12 +112,14 @@ public class TableScanOperator
             OperatorContext operatorContext,
             PlanNodeId planNodeId,
             PageSourceProvider pageSourceProvider,
-            Iterable<ColumnHandle> columns)
+            Iterable<ColumnHandle> columns,
+            Optional<DynamicFilter> dynamicFilter)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
         this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null").map(filter -> new TableScanDynamicFilter(filter, this.columns));
         this.systemMemoryContext = operatorContext.newLocalSystemMemoryContext(TableScanOperator.class.getSimpleName());
     }
 
@@ -141,7 +148,11 @@ public class TableScanOperator
         this.split = split;
 
         Object splitInfo = split.getInfo();
-        if (splitInfo != null) {
+        if (dynamicFilter.isPresent()) {
+            TableScanDynamicFilter filter = dynamicFilter.get();
+            operatorContext.setInfoSupplier(() -> filter.getInfo(splitInfo));
+        }
+        else if (splitInfo != null) {
             operatorContext.setInfoSupplier(() -> new SplitOperatorInfo(splitInfo));
         }
 
@@ -236,7 +247,7 @@ public class TableScanOperator
             return null;
         }
         if (source == null) {
-            source = pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
+            source = createPageSource();
         }
 
         Page page = source.getNextPage();
@@ -250,6 +261,13 @@ public class TableScanOperator
             operatorContext.recordGeneratedInput(endCompletedBytes - completedBytes, page.getPositionCount(), endReadTimeNanos - readTimeNanos);
             completedBytes = endCompletedBytes;
             readTimeNanos = endReadTimeNanos;
+
+            if (dynamicFilter.isPresent()) {
+                page = dynamicFilter.get().filter(page);
+            }
+            if (page.getPositionCount() == 0) {
+                page = null;
+            }
         }
 
         // updating system memory usage should happen after page is loaded.
@@ -257,4 +275,12 @@ public class TableScanOperator
 
         return page;
     }
+
+    private ConnectorPageSource createPageSource()
+    {
+        if (dynamicFilter.isPresent()) {
+            return dynamicFilter.get().createPageSource(pageSourceProvider, operatorContext.getSession(), split);
+        }
+        return pageSourceProvider.createPageSource(operatorContext.getSession(), split, columns);
+    }
 }
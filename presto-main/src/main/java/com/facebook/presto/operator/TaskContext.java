@@ -84,6 +84,8 @@ public class TaskContext
 
     private final Set<Lifespan> completedDriverGroups = newConcurrentHashSet();
 
+    private final TaskDynamicFilters dynamicFilters = new TaskDynamicFilters();
+
     private final List<PipelineContext> pipelineContexts = new CopyOnWriteArrayList<>();
 
     private final boolean verboseStats;
@@ -259,6 +261,11 @@ public class TaskContext
         completedDriverGroups.add(driverGroup);
     }
 
+    public TaskDynamicFilters getDynamicFilters()
+    {
+        return dynamicFilters;
+    }
+
     public List<PipelineContext> getPipelineContexts()
     {
         return pipelineContexts;
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.execution.DynamicFilterSummaries;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dynamic filters exchanged between a task and the coordinator, keyed by the id of the join
+ * producing them. A join whose probe side is scanned by another stage publishes the summary of
+ * its build rows here, to be merged by the coordinator with the summaries of the other tasks of
+ * the stage. The merged summary is then delivered to the tasks scanning the probe side.
+ */
+@ThreadSafe
+public class TaskDynamicFilters
+{
+    @GuardedBy("this")
+    private final Map<PlanNodeId, DynamicFilterSummary> summaries = new HashMap<>();
+    @GuardedBy("this")
+    private long version;
+    @GuardedBy("this")
+    private final Map<PlanNodeId, LocalDynamicFilter> remoteFilters = new HashMap<>();
+
+    /**
+     * Publishes the summary of the dynamic filter once all its build partitions have finished.
+     */
+    public void addSource(PlanNodeId joinId, LocalDynamicFilter dynamicFilter)
+    {
+        requireNonNull(joinId, "joinId is null");
+        addSuccessCallback(dynamicFilter.getSummary(), summary -> addSummary(joinId, summary));
+    }
+
+    private synchronized void addSummary(PlanNodeId joinId, DynamicFilterSummary summary)
+    {
+        summaries.put(joinId, summary);
+        version++;
+    }
+
+    public synchronized long getVersion()
+    {
+        return version;
+    }
+
+    public synchronized DynamicFilterSummaries getSummaries()
+    {
+        return new DynamicFilterSummaries(version, summaries);
+    }
+
+    /**
+     * Registers a dynamic filter completed by the summary the coordinator collects from the
+     * stage running the join.
+     */
+    public synchronized void addRemoteFilter(PlanNodeId joinId, LocalDynamicFilter dynamicFilter)
+    {
+        requireNonNull(joinId, "joinId is null");
+        dynamicFilter.setPartitionCount(1);
+        checkState(remoteFilters.putIfAbsent(joinId, dynamicFilter) == null, "Dynamic filter for join %s is already registered", joinId);
+    }
+
+    public void addRemoteSummaries(Map<PlanNodeId, DynamicFilterSummary> remoteSummaries)
+    {
+        ImmutableMap.Builder<LocalDynamicFilter, DynamicFilterSummary> ready = ImmutableMap.builder();
+        synchronized (this) {
+            remoteSummaries.forEach((joinId, summary) -> {
+                // the coordinator sends the summary again to tasks which have not acknowledged it yet
+                LocalDynamicFilter dynamicFilter = remoteFilters.remove(joinId);
+                if (dynamicFilter != null) {
+                    ready.put(dynamicFilter, summary);
+                }
+            });
+        }
+        // complete the filters outside of the lock, as this runs their listeners
+        ready.build().forEach(LocalDynamicFilter::addPartition);
+    }
+}
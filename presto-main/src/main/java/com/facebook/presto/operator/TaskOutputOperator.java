@@ -99,6 +99,7 @@ public class TaskOutputOperator
         this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
         this.pagePreprocessor = requireNonNull(pagePreprocessor, "pagePreprocessor is null");
         this.serde = requireNonNull(serdeFactory, "serdeFactory is null").createPagesSerde();
+        operatorContext.setInfoSupplier(() -> ExchangeCompressionInfo.from(serde));
     }
 
     @Override
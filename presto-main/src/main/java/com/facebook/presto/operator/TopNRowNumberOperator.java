@@ -14,16 +14,24 @@
 package com.facebook.presto.operator;
 
 import com.facebook.presto.memory.context.LocalMemoryContext;
+import com.facebook.presto.operator.exchange.LocalPartitionGenerator;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.PartitioningSpillerFactory;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +41,10 @@ import static com.facebook.presto.operator.GroupByHash.createGroupByHash;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class TopNRowNumberOperator
@@ -59,6 +71,8 @@ public class TopNRowNumberOperator
         private final boolean generateRowNumber;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public TopNRowNumberOperatorFactory(
                 int operatorId,
@@ -73,7 +87,9 @@ public class TopNRowNumberOperator
                 boolean partial,
                 Optional<Integer> hashChannel,
                 int expectedPositions,
-                JoinCompiler joinCompiler)
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -91,6 +107,8 @@ public class TopNRowNumberOperator
             this.generateRowNumber = !partial;
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -110,7 +128,9 @@ public class TopNRowNumberOperator
                     generateRowNumber,
                     hashChannel,
                     expectedPositions,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
 
         @Override
@@ -122,22 +142,62 @@ public class TopNRowNumberOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new TopNRowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler);
+            return new TopNRowNumberOperatorFactory(
+                    operatorId,
+                    planNodeId,
+                    sourceTypes,
+                    outputChannels,
+                    partitionChannels,
+                    partitionTypes,
+                    sortChannels,
+                    sortOrder,
+                    maxRowCountPerPartition,
+                    partial,
+                    hashChannel,
+                    expectedPositions,
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
     }
 
+    // number of partitions the spilled rows are split into; each one is read back and processed separately
+    private static final int SPILL_PARTITION_COUNT = 16;
+
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
+    private final List<Type> sourceTypes;
     private final List<Integer> outputChannels;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final PageWithPositionComparator comparator;
+    private final int maxRowCountPerPartition;
+    private final boolean generateRowNumber;
+
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
 
-    private final GroupByHash groupByHash;
-    private final GroupedTopNBuilder groupedTopNBuilder;
+    private GroupByHash groupByHash;
+    private GroupedTopNBuilder groupedTopNBuilder;
 
     private boolean finishing;
     private Work<?> unfinishedWork;
     private Iterator<Page> outputIterator;
 
+    private Optional<PartitioningSpiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    // set while the rows left in memory at the end of the input are being spilled
+    private boolean spillingRemainingRows;
+    // partition of the spilled rows that is currently being read back, or -1 if unspilling has not started
+    private int unspillPartition = -1;
+    private Iterator<Page> unspilledPages = emptyIterator();
+
     public TopNRowNumberOperator(
             OperatorContext operatorContext,
             List<? extends Type> sourceTypes,
@@ -150,10 +210,13 @@ public class TopNRowNumberOperator
             boolean generateRowNumber,
             Optional<Integer> hashChannel,
             int expectedPositions,
-            JoinCompiler joinCompiler)
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
         ImmutableList.Builder<Integer> outputChannelsBuilder = ImmutableList.builder();
         for (int channel : requireNonNull(outputChannels, "outputChannels is null")) {
@@ -165,29 +228,25 @@ public class TopNRowNumberOperator
         this.outputChannels = outputChannelsBuilder.build();
 
         checkArgument(maxRowCountPerPartition > 0, "maxRowCountPerPartition must be > 0");
-
         if (!partitionChannels.isEmpty()) {
             checkArgument(expectedPositions > 0, "expectedPositions must be > 0");
-            groupByHash = createGroupByHash(
-                    partitionTypes,
-                    Ints.toArray(partitionChannels),
-                    hashChannel,
-                    expectedPositions,
-                    isDictionaryAggregationEnabled(operatorContext.getSession()),
-                    joinCompiler,
-                    this::updateMemoryReservation);
-        }
-        else {
-            groupByHash = new NoChannelGroupByHash();
         }
 
-        List<Type> types = toTypes(sourceTypes, outputChannels, generateRowNumber);
-        this.groupedTopNBuilder = new GroupedTopNBuilder(
-                ImmutableList.copyOf(sourceTypes),
-                new SimplePageWithPositionComparator(types, sortChannels, sortOrders),
-                maxRowCountPerPartition,
-                generateRowNumber,
-                groupByHash);
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.partitionChannels = ImmutableList.copyOf(requireNonNull(partitionChannels, "partitionChannels is null"));
+        this.partitionTypes = ImmutableList.copyOf(requireNonNull(partitionTypes, "partitionTypes is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.comparator = new SimplePageWithPositionComparator(toTypes(sourceTypes, outputChannels, generateRowNumber), sortChannels, sortOrders);
+        this.maxRowCountPerPartition = maxRowCountPerPartition;
+        this.generateRowNumber = generateRowNumber;
+
+        // without partition channels all the rows belong to a single partition, which has to fit in memory anyway
+        this.spillEnabled = spillEnabled && !partitionChannels.isEmpty();
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+
+        resetGroupedTopNBuilder();
     }
 
     @Override
@@ -205,8 +264,18 @@ public class TopNRowNumberOperator
     @Override
     public boolean isFinished()
     {
-        // has no more input, has finished flushing, and has no unfinished work
-        return finishing && outputIterator != null && !outputIterator.hasNext() && unfinishedWork == null;
+        // has no more input, has finished flushing all the spilled partitions, and has no unfinished work
+        return finishing &&
+                outputIterator != null &&
+                !outputIterator.hasNext() &&
+                unfinishedWork == null &&
+                (!spiller.isPresent() || (unspillPartition == SPILL_PARTITION_COUNT - 1 && !unspilledPages.hasNext()));
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
@@ -223,6 +292,7 @@ public class TopNRowNumberOperator
         checkState(unfinishedWork == null, "Cannot add input with the operator when unfinished work is not empty");
         checkState(outputIterator == null, "Cannot add input with the operator when flushing");
         requireNonNull(page, "page is null");
+        checkSpillSucceeded();
         unfinishedWork = groupedTopNBuilder.processPage(page);
         if (unfinishedWork.process()) {
             unfinishedWork = null;
@@ -246,6 +316,10 @@ public class TopNRowNumberOperator
             return null;
         }
 
+        if (spiller.isPresent() && !prepareSpilledPartition()) {
+            return null;
+        }
+
         if (outputIterator == null) {
             // start flushing
             outputIterator = groupedTopNBuilder.buildResult();
@@ -265,6 +339,155 @@ public class TopNRowNumberOperator
         return output;
     }
 
+    /**
+     * Loads the rows of the current spilled partition into the builder, moving on to the next
+     * partition once the output of the current one has been produced.
+     *
+     * @return true if the builder holds all the rows of the current partition
+     */
+    private boolean prepareSpilledPartition()
+    {
+        if (unspillPartition < 0) {
+            if (!spillInProgress.isDone()) {
+                return false;
+            }
+            if (spillingRemainingRows) {
+                spillingRemainingRows = false;
+                resetGroupedTopNBuilder();
+            }
+            else if (groupByHash.getGroupCount() > 0) {
+                // spill the rows that are still in memory, so that every partition is read back from disk
+                spillToDisk();
+                spillingRemainingRows = true;
+                return false;
+            }
+            checkSpillSucceeded();
+            unspillPartition = 0;
+            unspilledPages = spiller.get().getSpilledPages(unspillPartition);
+        }
+
+        if (outputIterator != null && !outputIterator.hasNext() && unspillPartition < SPILL_PARTITION_COUNT - 1) {
+            // the current partition is done
+            resetGroupedTopNBuilder();
+            outputIterator = null;
+            unspillPartition++;
+            unspilledPages = spiller.get().getSpilledPages(unspillPartition);
+        }
+
+        if (outputIterator != null) {
+            return true;
+        }
+
+        if (unspilledPages.hasNext()) {
+            unfinishedWork = groupedTopNBuilder.processPage(unspilledPages.next());
+            if (unfinishedWork.process()) {
+                unfinishedWork = null;
+            }
+            updateMemoryReservation();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(!finishMemoryRevoke.isPresent(), "Memory revoke is already in progress");
+        if (!spillEnabled || finishing || unfinishedWork != null || groupByHash.getGroupCount() == 0) {
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        ListenableFuture<?> spillFuture = spillToDisk();
+        finishMemoryRevoke = Optional.of(() -> {
+            resetGroupedTopNBuilder();
+            updateMemoryReservation();
+        });
+        return spillFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        checkSpillSucceeded();
+
+        if (!spiller.isPresent()) {
+            HashGenerator hashGenerator = hashChannel.isPresent()
+                    ? new PrecomputedHashGenerator(hashChannel.get())
+                    : new InterpretedHashGenerator(partitionTypes, partitionChannels);
+            spiller = Optional.of(partitioningSpillerFactory.create(
+                    sourceTypes,
+                    new LocalPartitionGenerator(hashGenerator, SPILL_PARTITION_COUNT),
+                    operatorContext.getSpillContext().newLocalSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+
+        // only the current top rows of every partition need to be kept
+        spillInProgress = spillPages(spiller.get(), groupedTopNBuilder.buildResult());
+        return spillInProgress;
+    }
+
+    /**
+     * Spills the pages one after another. The partitioning spiller does not accept a page while the
+     * previous one is being written, so the remaining pages are spilled when that write completes
+     * rather than by blocking the driver.
+     */
+    private ListenableFuture<?> spillPages(PartitioningSpiller spiller, Iterator<Page> pages)
+    {
+        while (pages.hasNext()) {
+            Page page = pages.next();
+            if (generateRowNumber) {
+                // row numbers are assigned again when the partition is read back
+                page = dropLastChannel(page);
+            }
+            ListenableFuture<?> spillingFuture = spiller.partitionAndSpill(page, partition -> true).getSpillingFuture();
+            if (!spillingFuture.isDone()) {
+                return Futures.transformAsync(spillingFuture, ignored -> spillPages(spiller, pages), directExecutor());
+            }
+            // propagate a failure of the write
+            getFutureValue(spillingFuture);
+        }
+        return immediateFuture(null);
+    }
+
+    private void checkSpillSucceeded()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill hasn't yet finished");
+        // check for exception from previous spill for early failure
+        getFutureValue(spillInProgress);
+    }
+
+    private void resetGroupedTopNBuilder()
+    {
+        if (!partitionChannels.isEmpty()) {
+            groupByHash = createGroupByHash(
+                    partitionTypes,
+                    Ints.toArray(partitionChannels),
+                    hashChannel,
+                    expectedPositions,
+                    isDictionaryAggregationEnabled(operatorContext.getSession()),
+                    joinCompiler,
+                    this::updateMemoryReservation);
+        }
+        else {
+            groupByHash = new NoChannelGroupByHash();
+        }
+
+        groupedTopNBuilder = new GroupedTopNBuilder(
+                sourceTypes,
+                comparator,
+                maxRowCountPerPartition,
+                generateRowNumber,
+                groupByHash);
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
@@ -274,11 +497,42 @@ public class TopNRowNumberOperator
 
     private boolean updateMemoryReservation()
     {
+        long builderSize = groupedTopNBuilder.getEstimatedSizeInBytes();
+        if (spillEnabled && !finishing) {
+            // while collecting input, the whole builder can be spilled
+            localUserMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(groupByHash.getGroupCount() == 0 ? 0 : builderSize);
+            return true;
+        }
+
+        localRevocableMemoryContext.setBytes(0);
         // TODO: may need to use trySetMemoryReservation with a compaction to free memory (but that may cause GC pressure)
-        localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+        localUserMemoryContext.setBytes(builderSize);
         return operatorContext.isWaitingForMemory().isDone();
     }
 
+    @Override
+    public void close()
+    {
+        try (Closer closer = Closer.create()) {
+            spiller.ifPresent(closer::register);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
+    private static Page dropLastChannel(Page page)
+    {
+        Block[] blocks = new Block[page.getChannelCount() - 1];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = page.getBlock(channel);
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels, boolean generateRowNumber)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
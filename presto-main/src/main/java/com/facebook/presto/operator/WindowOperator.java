@@ -21,12 +21,16 @@ import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.Spiller;
+import com.facebook.presto.spiller.SpillerFactory;
+import com.facebook.presto.sql.gen.OrderingCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,11 +40,14 @@ import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 
 import static com.facebook.presto.spi.block.SortOrder.ASC_NULLS_LAST;
+import static com.facebook.presto.util.MergeSortedPages.mergeSortedPages;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkPositionIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.concat;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
 
@@ -63,6 +70,9 @@ public class WindowOperator
         private final int expectedPositions;
         private boolean closed;
         private final PagesIndex.Factory pagesIndexFactory;
+        private final boolean spillEnabled;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final OrderingCompiler orderingCompiler;
 
         public WindowOperatorFactory(
                 int operatorId,
@@ -76,7 +86,10 @@ public class WindowOperator
                 List<SortOrder> sortOrder,
                 int preSortedChannelPrefix,
                 int expectedPositions,
-                PagesIndex.Factory pagesIndexFactory)
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                Optional<SpillerFactory> spillerFactory,
+                OrderingCompiler orderingCompiler)
         {
             requireNonNull(sourceTypes, "sourceTypes is null");
             requireNonNull(planNodeId, "planNodeId is null");
@@ -88,6 +101,9 @@ public class WindowOperator
             requireNonNull(sortChannels, "sortChannels is null");
             requireNonNull(sortOrder, "sortOrder is null");
             requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+            requireNonNull(spillerFactory, "spillerFactory is null");
+            requireNonNull(orderingCompiler, "orderingCompiler is null");
+            checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
             checkArgument(sortChannels.size() == sortOrder.size(), "Must have same number of sort channels as sort orders");
             checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
             checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
@@ -104,6 +120,9 @@ public class WindowOperator
             this.sortOrder = ImmutableList.copyOf(sortOrder);
             this.preSortedChannelPrefix = preSortedChannelPrefix;
             this.expectedPositions = expectedPositions;
+            this.spillEnabled = spillEnabled;
+            this.spillerFactory = spillerFactory;
+            this.orderingCompiler = orderingCompiler;
         }
 
         @Override
@@ -123,7 +142,10 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     expectedPositions,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
 
         @Override
@@ -147,7 +169,10 @@ public class WindowOperator
                     sortOrder,
                     preSortedChannelPrefix,
                     expectedPositions,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    spillEnabled,
+                    spillerFactory,
+                    orderingCompiler);
         }
     }
 
@@ -165,8 +190,11 @@ public class WindowOperator
     private final List<Integer> orderChannels;
     private final List<SortOrder> ordering;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
+    private final List<Type> sourceTypes;
     private final int[] preGroupedChannels;
+    private final int[] unGroupedPartitionChannels;
 
     private final PagesHashStrategy preGroupedPartitionHashStrategy;
     private final PagesHashStrategy unGroupedPartitionHashStrategy;
@@ -186,6 +214,15 @@ public class WindowOperator
 
     private Page pendingInput;
 
+    private final boolean spillEnabled;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final OrderingCompiler orderingCompiler;
+
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private Optional<WorkProcessor<Page>> mergedSpilledPages = Optional.empty();
+
     public WindowOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -197,7 +234,10 @@ public class WindowOperator
             List<SortOrder> sortOrder,
             int preSortedChannelPrefix,
             int expectedPositions,
-            PagesIndex.Factory pagesIndexFactory)
+            PagesIndex.Factory pagesIndexFactory,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory,
+            OrderingCompiler orderingCompiler)
     {
         requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(outputChannels, "outputChannels is null");
@@ -208,12 +248,17 @@ public class WindowOperator
         requireNonNull(sortChannels, "sortChannels is null");
         requireNonNull(sortOrder, "sortOrder is null");
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+        requireNonNull(spillerFactory, "spillerFactory is null");
+        requireNonNull(orderingCompiler, "orderingCompiler is null");
+        checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
         checkArgument(sortChannels.size() == sortOrder.size(), "Must have same number of sort channels as sort orders");
         checkArgument(preSortedChannelPrefix <= sortChannels.size(), "Cannot have more pre-sorted channels than specified sorted channels");
         checkArgument(preSortedChannelPrefix == 0 || ImmutableSet.copyOf(preGroupedChannels).equals(ImmutableSet.copyOf(partitionChannels)), "preSortedChannelPrefix can only be greater than zero if all partition channels are pre-grouped");
 
         this.operatorContext = operatorContext;
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
         this.outputChannels = Ints.toArray(outputChannels);
         this.windowFunctions = windowFunctionDefinitions.stream()
                 .map(functionDefinition -> new FramedWindowFunction(functionDefinition.createWindowFunction(), functionDefinition.getFrameInfo()))
@@ -232,6 +277,7 @@ public class WindowOperator
         List<Integer> unGroupedPartitionChannels = partitionChannels.stream()
                 .filter(channel -> !preGroupedChannels.contains(channel))
                 .collect(toImmutableList());
+        this.unGroupedPartitionChannels = Ints.toArray(unGroupedPartitionChannels);
         this.unGroupedPartitionHashStrategy = pagesIndex.createPagesHashStrategy(unGroupedPartitionChannels, OptionalInt.empty());
         List<Integer> preSortedChannels = sortChannels.stream()
                 .limit(preSortedChannelPrefix)
@@ -252,6 +298,12 @@ public class WindowOperator
             this.ordering = ImmutableList.copyOf(concat(nCopies(unGroupedPartitionChannels.size(), ASC_NULLS_LAST), sortOrder));
         }
 
+        // Only input that is not pre-grouped is buffered until the end, and spilling
+        // input that forms a single partition would not reduce the memory needed to process it
+        this.spillEnabled = spillEnabled && preGroupedChannels.isEmpty() && !partitionChannels.isEmpty();
+        this.spillerFactory = spillerFactory;
+        this.orderingCompiler = orderingCompiler;
+
         windowInfo = new WindowInfo.DriverWindowInfoBuilder();
         operatorContext.setInfoSupplier(this::getWindowInfo);
     }
@@ -270,7 +322,18 @@ public class WindowOperator
     @Override
     public void finish()
     {
-        if (state == State.FINISHING || state == State.FINISHED) {
+        if (state == State.FINISHING || state == State.FINISHED || mergedSpilledPages.isPresent()) {
+            return;
+        }
+        if (state == State.NEEDS_INPUT && spiller.isPresent()) {
+            // Spill the rest of the input as the last sorted run, and process the partitions from the merge of all runs
+            if (pagesIndex.getPositionCount() > 0) {
+                getFutureValue(spillToDisk());
+                pagesIndex.clear();
+            }
+            mergedSpilledPages = Optional.of(mergeSpilledPages());
+            state = State.HAS_OUTPUT;
+            updateMemoryUsage();
             return;
         }
         if (state == State.NEEDS_INPUT) {
@@ -278,6 +341,7 @@ public class WindowOperator
             finishPagesIndex();
         }
         state = State.FINISHING;
+        updateMemoryUsage();
     }
 
     @Override
@@ -298,6 +362,7 @@ public class WindowOperator
         checkState(state == State.NEEDS_INPUT, "Operator can not take input at this time");
         requireNonNull(page, "page is null");
         checkState(pendingInput == null, "Operator already has pending input");
+        checkSpillSucceeded();
 
         if (page.getPositionCount() == 0) {
             return;
@@ -307,7 +372,7 @@ public class WindowOperator
         if (processPendingInput()) {
             state = State.HAS_OUTPUT;
         }
-        localUserMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryUsage();
     }
 
     /**
@@ -316,7 +381,13 @@ public class WindowOperator
     private boolean processPendingInput()
     {
         checkState(pendingInput != null);
-        pendingInput = updatePagesIndex(pendingInput);
+        if (mergedSpilledPages.isPresent()) {
+            // Merged spilled input is sorted on all of the partition channels
+            pendingInput = updatePagesIndex(pendingInput, unGroupedPartitionChannels, unGroupedPartitionHashStrategy);
+        }
+        else {
+            pendingInput = updatePagesIndex(pendingInput, preGroupedChannels, preGroupedPartitionHashStrategy);
+        }
 
         // If we have unused input or are finishing, then we have buffered a full group
         if (pendingInput != null || state == State.FINISHING) {
@@ -332,15 +403,15 @@ public class WindowOperator
      * @return the unused section of the page, or null if fully applied.
      * pagesIndex guaranteed to have at least one row after this method returns
      */
-    private Page updatePagesIndex(Page page)
+    private Page updatePagesIndex(Page page, int[] groupedChannels, PagesHashStrategy groupedHashStrategy)
     {
         checkArgument(page.getPositionCount() > 0);
 
         // TODO: Fix pagesHashStrategy to allow specifying channels for comparison, it currently requires us to rearrange the right side blocks in consecutive channel order
-        Page preGroupedPage = rearrangePage(page, preGroupedChannels);
-        if (pagesIndex.getPositionCount() == 0 || pagesIndex.positionEqualsRow(preGroupedPartitionHashStrategy, 0, 0, preGroupedPage)) {
+        Page preGroupedPage = rearrangePage(page, groupedChannels);
+        if (pagesIndex.getPositionCount() == 0 || pagesIndex.positionEqualsRow(groupedHashStrategy, 0, 0, preGroupedPage)) {
             // Find the position where the pre-grouped columns change
-            int groupEnd = findGroupEnd(preGroupedPage, preGroupedPartitionHashStrategy, 0);
+            int groupEnd = findGroupEnd(preGroupedPage, groupedHashStrategy, 0);
 
             // Add the section of the page that contains values for the current group
             pagesIndex.addPage(page.getRegion(0, groupEnd));
@@ -377,12 +448,17 @@ public class WindowOperator
         }
 
         Page page = extractOutput();
-        localUserMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes());
+        updateMemoryUsage();
         return page;
     }
 
     private Page extractOutput()
     {
+        // Resume buffering the merged spilled input if the merge has yielded before a full partition was buffered
+        if (mergedSpilledPages.isPresent() && state == State.HAS_OUTPUT && partition == null && !loadSpilledPartitions()) {
+            return null;
+        }
+
         // INVARIANT: pagesIndex contains the full grouped & sorted data for one or more partitions
 
         // Iterate through the positions sequentially until we have one full page
@@ -402,12 +478,13 @@ public class WindowOperator
                     else if (state == State.FINISHING) {
                         state = State.FINISHED;
                         // Output the remaining page if we have anything buffered
-                        if (!pageBuilder.isEmpty()) {
-                            Page page = pageBuilder.build();
-                            pageBuilder.reset();
-                            return page;
+                        return flushPageBuilder();
+                    }
+                    else if (mergedSpilledPages.isPresent()) {
+                        if (!loadSpilledPartitions()) {
+                            return flushPageBuilder();
                         }
-                        return null;
+                        continue;
                     }
                     else {
                         state = State.NEEDS_INPUT;
@@ -428,6 +505,122 @@ public class WindowOperator
         return page;
     }
 
+    private Page flushPageBuilder()
+    {
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    /**
+     * Buffers the merged spilled input until pagesIndex contains at least one full partition.
+     *
+     * @return false if the merge has yielded before a full partition was buffered
+     */
+    private boolean loadSpilledPartitions()
+    {
+        WorkProcessor<Page> spilledPages = mergedSpilledPages.get();
+        while (pendingInput == null || !processPendingInput()) {
+            if (!spilledPages.process()) {
+                return false;
+            }
+
+            if (spilledPages.isFinished()) {
+                state = State.FINISHING;
+                if (pagesIndex.getPositionCount() > 0) {
+                    finishPagesIndex();
+                }
+                return true;
+            }
+
+            Page page = spilledPages.getResult();
+            if (page.getPositionCount() > 0) {
+                pendingInput = page;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(!finishMemoryRevoke.isPresent(), "Memory revoke is already in progress");
+        if (!spillEnabled || state != State.NEEDS_INPUT || pagesIndex.getPositionCount() == 0) {
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        ListenableFuture<?> spillFuture = spillToDisk();
+        finishMemoryRevoke = Optional.of(() -> {
+            pagesIndex.clear();
+            updateMemoryUsage();
+        });
+        return spillFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        checkSpillSucceeded();
+
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(spillerFactory.get().create(
+                    sourceTypes,
+                    operatorContext.getSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+        }
+
+        // Every spill writes a run sorted on the partition channels followed by the sort channels
+        sortPagesIndexIfNecessary();
+        spillInProgress = spiller.get().spill(pagesIndex.getSortedPages());
+        return spillInProgress;
+    }
+
+    private WorkProcessor<Page> mergeSpilledPages()
+    {
+        checkState(spiller.isPresent());
+
+        List<WorkProcessor<Page>> sortedRuns = spiller.get().getSpills().stream()
+                .map(WorkProcessor::fromIterator)
+                .collect(toImmutableList());
+
+        return mergeSortedPages(
+                sortedRuns,
+                orderingCompiler.compilePageWithPositionComparator(sourceTypes, orderChannels, ordering),
+                sourceTypes,
+                operatorContext.aggregateUserMemoryContext(),
+                operatorContext.getDriverContext().getYieldSignal());
+    }
+
+    private void checkSpillSucceeded()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill hasn't yet finished");
+        // check for exception from previous spill for early failure
+        getFutureValue(spillInProgress);
+    }
+
+    private void updateMemoryUsage()
+    {
+        if (spillEnabled && state == State.NEEDS_INPUT) {
+            // While collecting input, the whole index can be spilled
+            localUserMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(pagesIndex.getPositionCount() == 0 ? 0 : pagesIndex.getEstimatedSize().toBytes());
+            return;
+        }
+        localRevocableMemoryContext.setBytes(0);
+        localUserMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes());
+    }
+
     private void sortPagesIndexIfNecessary()
     {
         if (pagesIndex.getPositionCount() > 1 && !orderChannels.isEmpty()) {
@@ -442,7 +635,9 @@ public class WindowOperator
 
     private void finishPagesIndex()
     {
-        sortPagesIndexIfNecessary();
+        if (!mergedSpilledPages.isPresent()) {
+            sortPagesIndexIfNecessary();
+        }
         windowInfo.addIndex(pagesIndex);
     }
 
@@ -525,5 +720,8 @@ public class WindowOperator
     public void close()
     {
         driverWindowInfo.set(Optional.of(windowInfo.build()));
+        spiller.ifPresent(Spiller::close);
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
     }
 }
@@ -33,6 +33,22 @@ public interface Accumulator
 
     void addInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition);
 
+    /**
+     * @return true if {@link #removeInput} is supported, i.e. the aggregation has a {@code @RemoveInputFunction}
+     */
+    default boolean hasRemoveInput()
+    {
+        return false;
+    }
+
+    /**
+     * Reverts the effect of a previous {@link #addInput(WindowIndex, List, int, int)} call for the given positions.
+     */
+    default void removeInput(WindowIndex index, List<Integer> channels, int startPosition, int endPosition)
+    {
+        throw new UnsupportedOperationException("removeInput is not supported by " + getClass().getName());
+    }
+
     void addIntermediate(Block block);
 
     void evaluateIntermediate(BlockBuilder blockBuilder);
@@ -64,6 +64,7 @@ import static io.airlift.bytecode.ParameterizedType.type;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantFalse;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantInt;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantString;
+import static io.airlift.bytecode.expression.BytecodeExpressions.constantTrue;
 import static io.airlift.bytecode.expression.BytecodeExpressions.invokeDynamic;
 import static io.airlift.bytecode.expression.BytecodeExpressions.invokeStatic;
 import static io.airlift.bytecode.expression.BytecodeExpressions.not;
@@ -130,7 +131,11 @@ public class AccumulatorCompiler
 
         // Generate methods
         generateAddInput(definition, stateField, inputChannelsField, maskChannelField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder, grouped);
-        generateAddInputWindowIndex(definition, stateField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder);
+        generateAddInputWindowIndex(definition, "addInput", stateField, metadata.getInputMetadata(), metadata.getInputFunction(), callSiteBinder);
+        if (!grouped && metadata.getRemoveInputFunction().isPresent()) {
+            generateAddInputWindowIndex(definition, "removeInput", stateField, metadata.getInputMetadata(), metadata.getRemoveInputFunction().get(), callSiteBinder);
+            generateHasRemoveInput(definition);
+        }
         generateGetEstimatedSize(definition, stateField);
         generateGetIntermediateType(definition, callSiteBinder, stateSerializer.getSerializedType());
         generateGetFinalType(definition, callSiteBinder, metadata.getOutputType());
@@ -246,8 +251,17 @@ public class AccumulatorCompiler
         body.ret();
     }
 
+    private static void generateHasRemoveInput(ClassDefinition definition)
+    {
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), "hasRemoveInput", type(boolean.class));
+        method.getBody()
+                .append(constantTrue())
+                .retBoolean();
+    }
+
     private static void generateAddInputWindowIndex(
             ClassDefinition definition,
+            String methodName,
             FieldDefinition stateField,
             List<ParameterMetadata> parameterMetadatas,
             MethodHandle inputFunction,
@@ -260,7 +274,7 @@ public class AccumulatorCompiler
         Parameter startPosition = arg("startPosition", int.class);
         Parameter endPosition = arg("endPosition", int.class);
 
-        MethodDefinition method = definition.declareMethod(a(PUBLIC), "addInput", type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
+        MethodDefinition method = definition.declareMethod(a(PUBLIC), methodName, type(void.class), ImmutableList.of(index, channels, startPosition, endPosition));
         Scope scope = method.getScope();
 
         Variable position = scope.declareVariable(int.class, "position");
@@ -25,6 +25,7 @@ import io.airlift.slice.Slice;
 import java.lang.invoke.MethodHandle;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.presto.operator.aggregation.AggregationMetadata.ParameterMetadata.ParameterType.BLOCK_INDEX;
@@ -43,6 +44,7 @@ public class AggregationMetadata
     private final String name;
     private final List<ParameterMetadata> inputMetadata;
     private final MethodHandle inputFunction;
+    private final Optional<MethodHandle> removeInputFunction;
     private final MethodHandle combineFunction;
     private final MethodHandle outputFunction;
     private final AccumulatorStateSerializer<?> stateSerializer;
@@ -59,17 +61,34 @@ public class AggregationMetadata
             AccumulatorStateSerializer<?> stateSerializer,
             AccumulatorStateFactory<?> stateFactory,
             Type outputType)
+    {
+        this(name, inputMetadata, inputFunction, Optional.empty(), combineFunction, outputFunction, stateInterface, stateSerializer, stateFactory, outputType);
+    }
+
+    public AggregationMetadata(
+            String name,
+            List<ParameterMetadata> inputMetadata,
+            MethodHandle inputFunction,
+            Optional<MethodHandle> removeInputFunction,
+            MethodHandle combineFunction,
+            MethodHandle outputFunction,
+            Class<?> stateInterface,
+            AccumulatorStateSerializer<?> stateSerializer,
+            AccumulatorStateFactory<?> stateFactory,
+            Type outputType)
     {
         this.outputType = requireNonNull(outputType);
         this.inputMetadata = ImmutableList.copyOf(requireNonNull(inputMetadata, "inputMetadata is null"));
         this.name = requireNonNull(name, "name is null");
         this.inputFunction = requireNonNull(inputFunction, "inputFunction is null");
+        this.removeInputFunction = requireNonNull(removeInputFunction, "removeInputFunction is null");
         this.combineFunction = requireNonNull(combineFunction, "combineFunction is null");
         this.outputFunction = requireNonNull(outputFunction, "outputFunction is null");
         this.stateSerializer = requireNonNull(stateSerializer, "stateSerializer is null");
         this.stateFactory = requireNonNull(stateFactory, "stateFactory is null");
 
         verifyInputFunctionSignature(inputFunction, inputMetadata, stateInterface);
+        removeInputFunction.ifPresent(function -> verifyRemoveInputFunction(function, inputFunction, inputMetadata));
         verifyCombineFunction(combineFunction, stateInterface);
         verifyExactOutputFunction(outputFunction, stateInterface);
     }
@@ -94,6 +113,11 @@ public class AggregationMetadata
         return inputFunction;
     }
 
+    public Optional<MethodHandle> getRemoveInputFunction()
+    {
+        return removeInputFunction;
+    }
+
     public MethodHandle getCombineFunction()
     {
         return combineFunction;
@@ -148,6 +172,14 @@ public class AggregationMetadata
         }
     }
 
+    private static void verifyRemoveInputFunction(MethodHandle method, MethodHandle inputFunction, List<ParameterMetadata> parameterMetadatas)
+    {
+        checkArgument(method.type().equals(inputFunction.type()), "Remove input function must have the same signature as the input function");
+        // null positions are never passed to the input function, so the frame of a window function
+        // can be restored to its initial state by counting the non-null positions that are left
+        checkArgument(parameterMetadatas.stream().noneMatch(metadata -> metadata.getParameterType() == NULLABLE_BLOCK_INPUT_CHANNEL), "Remove input function does not support nullable input channels");
+    }
+
     private static void verifyCombineFunction(MethodHandle method, Class<?> stateInterface)
     {
         Class<?>[] parameterTypes = method.type().parameterArray();
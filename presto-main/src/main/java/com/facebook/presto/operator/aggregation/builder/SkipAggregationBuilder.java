@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.aggregation.builder;
+
+import com.facebook.presto.memory.context.LocalMemoryContext;
+import com.facebook.presto.operator.CompletedWork;
+import com.facebook.presto.operator.GroupByIdBlock;
+import com.facebook.presto.operator.HashCollisionsCounter;
+import com.facebook.presto.operator.Work;
+import com.facebook.presto.operator.WorkProcessor;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.operator.aggregation.GroupedAccumulator;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.block.LongArrayBlock;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partial aggregation that does not aggregate. Every input row becomes a group of its own,
+ * and is emitted with the intermediate state of the aggregations for that single row, so the
+ * output has the same layout as the output of {@link InMemoryHashAggregationBuilder}.
+ * The builder holds at most one page, and reports itself full until the page is taken.
+ * The retained size of that page is reported to the memory context of the operator.
+ */
+public class SkipAggregationBuilder
+        implements HashAggregationBuilder
+{
+    private final List<Integer> groupByChannels;
+    private final Optional<Integer> hashChannel;
+    private final List<AccumulatorFactory> accumulatorFactories;
+    private final LocalMemoryContext memoryContext;
+
+    @Nullable
+    private Page currentPage;
+
+    public SkipAggregationBuilder(
+            List<Integer> groupByChannels,
+            Optional<Integer> hashChannel,
+            List<AccumulatorFactory> accumulatorFactories,
+            LocalMemoryContext memoryContext)
+    {
+        this.groupByChannels = ImmutableList.copyOf(requireNonNull(groupByChannels, "groupByChannels is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.accumulatorFactories = ImmutableList.copyOf(requireNonNull(accumulatorFactories, "accumulatorFactories is null"));
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        checkArgument(this.accumulatorFactories.stream().noneMatch(factory -> factory.hasOrderBy() || factory.hasDistinct()), "aggregations with ORDER BY or DISTINCT are not supported");
+    }
+
+    @Override
+    public Work<?> processPage(Page page)
+    {
+        checkState(currentPage == null, "Previous page has not been consumed");
+        currentPage = page;
+        return new CompletedWork<>(page);
+    }
+
+    @Override
+    public WorkProcessor<Page> buildResult()
+    {
+        if (currentPage == null) {
+            return WorkProcessor.fromIterable(ImmutableList.of());
+        }
+
+        Page result = buildOutputPage(currentPage);
+        currentPage = null;
+        updateMemory();
+        return WorkProcessor.fromIterable(ImmutableList.of(result));
+    }
+
+    @Override
+    public boolean isFull()
+    {
+        return currentPage != null;
+    }
+
+    @Override
+    public void updateMemory()
+    {
+        memoryContext.setBytes(currentPage == null ? 0 : currentPage.getRetainedSizeInBytes());
+    }
+
+    @Override
+    public void recordHashCollisions(HashCollisionsCounter hashCollisionsCounter)
+    {
+        // no hash table is used
+    }
+
+    @Override
+    public void close()
+    {
+        currentPage = null;
+        memoryContext.setBytes(0);
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        throw new UnsupportedOperationException("startMemoryRevoke not supported for SkipAggregationBuilder");
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        throw new UnsupportedOperationException("finishMemoryRevoke not supported for SkipAggregationBuilder");
+    }
+
+    private Page buildOutputPage(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        Block[] outputBlocks = new Block[groupByChannels.size() + (hashChannel.isPresent() ? 1 : 0) + accumulatorFactories.size()];
+        int outputChannel = 0;
+        for (int groupByChannel : groupByChannels) {
+            outputBlocks[outputChannel] = page.getBlock(groupByChannel);
+            outputChannel++;
+        }
+        if (hashChannel.isPresent()) {
+            outputBlocks[outputChannel] = page.getBlock(hashChannel.get());
+            outputChannel++;
+        }
+
+        // every row is a group of its own
+        long[] groupIds = new long[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            groupIds[position] = position;
+        }
+        GroupByIdBlock groupByIdBlock = new GroupByIdBlock(positionCount, new LongArrayBlock(positionCount, Optional.empty(), groupIds));
+
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            GroupedAccumulator accumulator = accumulatorFactory.createGroupedAccumulator();
+            accumulator.addInput(groupByIdBlock, page);
+            BlockBuilder blockBuilder = accumulator.getIntermediateType().createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                accumulator.evaluateIntermediate(position, blockBuilder);
+            }
+            outputBlocks[outputChannel] = blockBuilder.build();
+            outputChannel++;
+        }
+        return new Page(positionCount, outputBlocks);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.ScalarFunction;
+import com.facebook.presto.spi.function.SqlNullable;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.spi.function.TypeParameter;
+import com.facebook.presto.spi.function.TypeParameterSpecialization;
+import com.facebook.presto.spi.type.StandardTypes;
+import io.airlift.slice.Slice;
+
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+
+/**
+ * Stands for a parameter of a prepared statement in a plan that is shared by the executions
+ * of the statement with different parameter values. The first argument only carries the type
+ * of the parameter. The function is not deterministic so that the planner does not fold it,
+ * and it must be replaced with the value of the parameter before the plan is executed.
+ */
+@Description("internal placeholder for a parameter of a cached plan")
+@ScalarFunction(value = ParameterFunction.NAME, hidden = true, deterministic = false)
+public final class ParameterFunction
+{
+    public static final String NAME = "$parameter";
+
+    private ParameterFunction() {}
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = long.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Long parameterLong(@SqlNullable @SqlType("T") Long type, @SqlType(StandardTypes.INTEGER) long position)
+    {
+        throw unboundParameter(position);
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = double.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Double parameterDouble(@SqlNullable @SqlType("T") Double type, @SqlType(StandardTypes.INTEGER) long position)
+    {
+        throw unboundParameter(position);
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = boolean.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Boolean parameterBoolean(@SqlNullable @SqlType("T") Boolean type, @SqlType(StandardTypes.INTEGER) long position)
+    {
+        throw unboundParameter(position);
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = Slice.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Slice parameterSlice(@SqlNullable @SqlType("T") Slice type, @SqlType(StandardTypes.INTEGER) long position)
+    {
+        throw unboundParameter(position);
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = Block.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Block parameterBlock(@SqlNullable @SqlType("T") Block type, @SqlType(StandardTypes.INTEGER) long position)
+    {
+        throw unboundParameter(position);
+    }
+
+    private static PrestoException unboundParameter(long position)
+    {
+        return new PrestoException(GENERIC_INTERNAL_ERROR, "Parameter " + position + " of the cached plan is not bound");
+    }
+}
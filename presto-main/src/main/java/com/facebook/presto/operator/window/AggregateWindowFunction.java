@@ -20,6 +20,7 @@ import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.function.WindowFunction;
 import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 
 import java.util.List;
@@ -32,16 +33,25 @@ public class AggregateWindowFunction
 {
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    private final Type intermediateType;
+    private final boolean segmentTreeSupported;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
     private int currentStart;
     private int currentEnd;
+    // positions of the current frame with non-null arguments, only maintained for aggregations with remove input
+    private int nonNullPositions;
+    // positions aggregated from scratch for frames that could not be updated incrementally
+    private long recomputedPositions;
+    private WindowSegmentTree segmentTree;
 
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
+        this.intermediateType = function.getIntermediateType();
+        this.segmentTreeSupported = function.isDecomposable() && WindowSegmentTree.isSupported(intermediateType);
     }
 
     @Override
@@ -49,6 +59,8 @@ public class AggregateWindowFunction
     {
         this.windowIndex = windowIndex;
         resetAccumulator();
+        recomputedPositions = 0;
+        segmentTree = null;
     }
 
     @Override
@@ -63,6 +75,16 @@ public class AggregateWindowFunction
             accumulate(currentEnd + 1, frameEnd);
             currentEnd = frameEnd;
         }
+        else if (accumulator.hasRemoveInput() && isCheaperToSlide(frameStart, frameEnd)) {
+            // overlapping frame
+            slide(frameStart, frameEnd);
+        }
+        else if (useSegmentTree(frameStart, frameEnd)) {
+            // different frame, combined from the states of the segment tree
+            accumulator = segmentTree.aggregate(frameStart, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+        }
         else {
             // different frame
             resetAccumulator();
@@ -74,9 +96,92 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    private boolean isCheaperToSlide(int frameStart, int frameEnd)
+    {
+        if (currentStart < 0 || frameStart > currentEnd || frameEnd < currentStart) {
+            return false;
+        }
+        int changedPositions = Math.abs(frameStart - currentStart) + Math.abs(frameEnd - currentEnd);
+        return changedPositions < frameEnd - frameStart + 1;
+    }
+
+    private void slide(int frameStart, int frameEnd)
+    {
+        // remove first, so that the state never holds more values than the larger of the two frames,
+        // e.g. sum must not overflow when only the union of the frames exceeds the range of the type
+        if (frameStart > currentStart) {
+            remove(currentStart, frameStart - 1);
+        }
+        if (frameEnd < currentEnd) {
+            remove(frameEnd + 1, currentEnd);
+        }
+        if (frameStart < currentStart) {
+            accumulate(frameStart, currentStart - 1);
+        }
+        if (frameEnd > currentEnd) {
+            accumulate(currentEnd + 1, frameEnd);
+        }
+        currentStart = frameStart;
+        currentEnd = frameEnd;
+
+        if (nonNullPositions == 0) {
+            // removing all the values does not necessarily restore the initial state, e.g. sum is null and not zero
+            accumulator = accumulatorFactory.createAccumulator();
+        }
+    }
+
+    private boolean useSegmentTree(int frameStart, int frameEnd)
+    {
+        if (segmentTree != null) {
+            return true;
+        }
+        if (!segmentTreeSupported || accumulator.hasRemoveInput()) {
+            return false;
+        }
+
+        // The tree is built once aggregating frames from scratch has cost more than building
+        // the tree would, which bounds the total work to a small multiple of the optimum.
+        recomputedPositions += frameEnd - frameStart + 1;
+        if (recomputedPositions <= 2L * windowIndex.size()) {
+            return false;
+        }
+        segmentTree = new WindowSegmentTree(accumulatorFactory, intermediateType, windowIndex, argumentChannels);
+        return true;
+    }
+
     private void accumulate(int start, int end)
     {
         accumulator.addInput(windowIndex, argumentChannels, start, end);
+        if (accumulator.hasRemoveInput()) {
+            nonNullPositions += countNonNullPositions(start, end);
+        }
+    }
+
+    private void remove(int start, int end)
+    {
+        accumulator.removeInput(windowIndex, argumentChannels, start, end);
+        nonNullPositions -= countNonNullPositions(start, end);
+    }
+
+    private int countNonNullPositions(int start, int end)
+    {
+        int count = 0;
+        for (int position = start; position <= end; position++) {
+            if (!hasNullArgument(position)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean hasNullArgument(int position)
+    {
+        for (int channel : argumentChannels) {
+            if (windowIndex.isNull(channel, position)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void resetAccumulator()
@@ -85,6 +190,7 @@ public class AggregateWindowFunction
             accumulator = accumulatorFactory.createAccumulator();
             currentStart = -1;
             currentEnd = -1;
+            nonNullPositions = 0;
         }
     }
 
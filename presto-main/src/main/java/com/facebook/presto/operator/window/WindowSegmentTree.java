@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.type.FixedWidthType;
+import com.facebook.presto.spi.type.RowType;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Intermediate states of an aggregation over a window partition, arranged as a
+ * binary tree. Level 0 holds the state of every single position of the partition and
+ * every position of level {@code n} combines two adjacent positions of level {@code n - 1},
+ * so the aggregation of any frame combines at most two states per level.
+ */
+class WindowSegmentTree
+{
+    private final AccumulatorFactory accumulatorFactory;
+    private final List<Block> levels;
+
+    public WindowSegmentTree(AccumulatorFactory accumulatorFactory, Type intermediateType, WindowIndex windowIndex, List<Integer> argumentChannels)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        requireNonNull(intermediateType, "intermediateType is null");
+        requireNonNull(windowIndex, "windowIndex is null");
+        requireNonNull(argumentChannels, "argumentChannels is null");
+
+        ImmutableList.Builder<Block> levels = ImmutableList.builder();
+
+        BlockBuilder leaves = intermediateType.createBlockBuilder(null, windowIndex.size());
+        for (int position = 0; position < windowIndex.size(); position++) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            accumulator.addInput(windowIndex, argumentChannels, position, position);
+            accumulator.evaluateIntermediate(leaves);
+        }
+        Block level = leaves.build();
+        levels.add(level);
+
+        while (level.getPositionCount() > 1) {
+            int positionCount = (level.getPositionCount() + 1) / 2;
+            BlockBuilder parents = intermediateType.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                int childPosition = position * 2;
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addIntermediate(level.getRegion(childPosition, Math.min(2, level.getPositionCount() - childPosition)));
+                accumulator.evaluateIntermediate(parents);
+            }
+            level = parents.build();
+            levels.add(level);
+        }
+        this.levels = levels.build();
+    }
+
+    /**
+     * Only aggregations with a bounded intermediate state are kept in the tree, as the
+     * tree retains roughly twice as many states as there are positions in the partition.
+     */
+    public static boolean isSupported(Type intermediateType)
+    {
+        if (intermediateType instanceof FixedWidthType) {
+            return true;
+        }
+        if (intermediateType instanceof RowType) {
+            return intermediateType.getTypeParameters().stream().allMatch(FixedWidthType.class::isInstance);
+        }
+        return false;
+    }
+
+    /**
+     * @return a new accumulator that contains the positions from {@code start} to {@code end}, inclusive
+     */
+    public Accumulator aggregate(int start, int end)
+    {
+        checkArgument(start >= 0 && start <= end && end < levels.get(0).getPositionCount(), "Invalid frame: [%s, %s]", start, end);
+
+        // states on the right side of the frame are collected backwards, so that
+        // the states are combined in the order of the positions they represent
+        List<Block> rightStates = new ArrayList<>();
+        Accumulator accumulator = accumulatorFactory.createAccumulator();
+        int left = start;
+        int right = end;
+        for (int depth = 0; left <= right; depth++) {
+            Block level = levels.get(depth);
+            if (left == right) {
+                accumulator.addIntermediate(level.getRegion(left, 1));
+                break;
+            }
+            if ((left & 1) == 1) {
+                accumulator.addIntermediate(level.getRegion(left, 1));
+                left++;
+            }
+            if ((right & 1) == 0) {
+                rightStates.add(level.getRegion(right, 1));
+                right--;
+            }
+            left /= 2;
+            right /= 2;
+        }
+        for (int i = rightStates.size() - 1; i >= 0; i--) {
+            accumulator.addIntermediate(rightStates.get(i));
+        }
+        return accumulator;
+    }
+}
@@ -15,6 +15,7 @@ package com.facebook.presto.server;
 
 import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.Session;
+import com.facebook.presto.execution.DynamicFilterSummaries;
 import com.facebook.presto.execution.LocationFactory;
 import com.facebook.presto.execution.NodeTaskMap.PartitionedSplitCountTracker;
 import com.facebook.presto.execution.QueryManagerConfig;
@@ -28,6 +29,7 @@ import com.facebook.presto.metadata.Split;
 import com.facebook.presto.operator.ForScheduler;
 import com.facebook.presto.server.remotetask.HttpRemoteTask;
 import com.facebook.presto.server.remotetask.RemoteTaskStats;
+import com.facebook.presto.server.smile.SmileCodec;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.sql.planner.PlanFragment;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
@@ -62,6 +64,12 @@ public class HttpRemoteTaskFactory
     private final JsonCodec<TaskStatus> taskStatusCodec;
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+    private final SmileCodec<TaskStatus> taskStatusSmileCodec;
+    private final SmileCodec<TaskInfo> taskInfoSmileCodec;
+    private final SmileCodec<TaskUpdateRequest> taskUpdateRequestSmileCodec;
+    private final JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec;
+    private final SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec;
+    private final boolean binaryTransportEnabled;
     private final Duration maxErrorDuration;
     private final Duration taskStatusRefreshMaxWait;
     private final Duration taskInfoUpdateInterval;
@@ -75,11 +83,17 @@ public class HttpRemoteTaskFactory
     @Inject
     public HttpRemoteTaskFactory(QueryManagerConfig config,
             TaskManagerConfig taskConfig,
+            InternalCommunicationConfig communicationConfig,
             @ForScheduler HttpClient httpClient,
             LocationFactory locationFactory,
             JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+            SmileCodec<TaskStatus> taskStatusSmileCodec,
+            SmileCodec<TaskInfo> taskInfoSmileCodec,
+            SmileCodec<TaskUpdateRequest> taskUpdateRequestSmileCodec,
+            JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec,
+            SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec,
             RemoteTaskStats stats)
     {
         this.httpClient = httpClient;
@@ -87,6 +101,12 @@ public class HttpRemoteTaskFactory
         this.taskStatusCodec = taskStatusCodec;
         this.taskInfoCodec = taskInfoCodec;
         this.taskUpdateRequestCodec = taskUpdateRequestCodec;
+        this.taskStatusSmileCodec = taskStatusSmileCodec;
+        this.taskInfoSmileCodec = taskInfoSmileCodec;
+        this.taskUpdateRequestSmileCodec = taskUpdateRequestSmileCodec;
+        this.dynamicFilterSummariesCodec = dynamicFilterSummariesCodec;
+        this.dynamicFilterSummariesSmileCodec = dynamicFilterSummariesSmileCodec;
+        this.binaryTransportEnabled = communicationConfig.isBinaryTransportEnabled();
         this.maxErrorDuration = config.getRemoteTaskMaxErrorDuration();
         this.taskStatusRefreshMaxWait = taskConfig.getStatusRefreshMaxWait();
         this.taskInfoUpdateInterval = taskConfig.getInfoUpdateInterval();
@@ -144,6 +164,12 @@ public class HttpRemoteTaskFactory
                 taskStatusCodec,
                 taskInfoCodec,
                 taskUpdateRequestCodec,
+                taskStatusSmileCodec,
+                taskInfoSmileCodec,
+                taskUpdateRequestSmileCodec,
+                dynamicFilterSummariesCodec,
+                dynamicFilterSummariesSmileCodec,
+                binaryTransportEnabled,
                 partitionedSplitCountTracker,
                 stats);
     }
@@ -14,6 +14,7 @@
 package com.facebook.presto.server;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
 
 public class InternalCommunicationConfig
@@ -25,6 +26,7 @@ public class InternalCommunicationConfig
     private String keyStorePassword;
     private boolean kerberosEnabled;
     private boolean kerberosUseCanonicalHostname = true;
+    private boolean binaryTransportEnabled;
 
     public boolean isHttpsRequired()
     {
@@ -86,4 +88,17 @@ public class InternalCommunicationConfig
         this.kerberosUseCanonicalHostname = kerberosUseCanonicalHostname;
         return this;
     }
+
+    public boolean isBinaryTransportEnabled()
+    {
+        return binaryTransportEnabled;
+    }
+
+    @Config("internal-communication.binary-transport.enabled")
+    @ConfigDescription("Exchange task updates, task status and task info with workers in the Smile binary format instead of JSON")
+    public InternalCommunicationConfig setBinaryTransportEnabled(boolean binaryTransportEnabled)
+    {
+        this.binaryTransportEnabled = binaryTransportEnabled;
+        return this;
+    }
 }
@@ -16,12 +16,16 @@ package com.facebook.presto.server;
 import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.SessionRepresentation;
 import com.facebook.presto.TaskSource;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.sql.planner.PlanFragment;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 
@@ -35,6 +39,7 @@ public class TaskUpdateRequest
     private final List<TaskSource> sources;
     private final OutputBuffers outputIds;
     private final OptionalInt totalPartitions;
+    private final Map<PlanNodeId, DynamicFilterSummary> dynamicFilters;
 
     @JsonCreator
     public TaskUpdateRequest(
@@ -42,19 +47,22 @@ public class TaskUpdateRequest
             @JsonProperty("fragment") Optional<PlanFragment> fragment,
             @JsonProperty("sources") List<TaskSource> sources,
             @JsonProperty("outputIds") OutputBuffers outputIds,
-            @JsonProperty("totalPartitions") OptionalInt totalPartitions)
+            @JsonProperty("totalPartitions") OptionalInt totalPartitions,
+            @JsonProperty("dynamicFilters") Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
     {
         requireNonNull(session, "session is null");
         requireNonNull(fragment, "fragment is null");
         requireNonNull(sources, "sources is null");
         requireNonNull(outputIds, "outputIds is null");
         requireNonNull(totalPartitions, "totalPartitions is null");
+        requireNonNull(dynamicFilters, "dynamicFilters is null");
 
         this.session = session;
         this.fragment = fragment;
         this.sources = ImmutableList.copyOf(sources);
         this.outputIds = outputIds;
         this.totalPartitions = totalPartitions;
+        this.dynamicFilters = ImmutableMap.copyOf(dynamicFilters);
     }
 
     @JsonProperty
@@ -87,6 +95,12 @@ public class TaskUpdateRequest
         return totalPartitions;
     }
 
+    @JsonProperty
+    public Map<PlanNodeId, DynamicFilterSummary> getDynamicFilters()
+    {
+        return dynamicFilters;
+    }
+
     @Override
     public String toString()
     {
@@ -96,6 +110,7 @@ public class TaskUpdateRequest
                 .add("sources", sources)
                 .add("outputIds", outputIds)
                 .add("totalPartitions", totalPartitions)
+                .add("dynamicFilters", dynamicFilters.keySet())
                 .toString();
     }
 }
@@ -30,6 +30,9 @@ import com.facebook.presto.execution.TaskInfo;
 import com.facebook.presto.execution.buffer.PagesSerde;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.execution.buffer.SerializedPage;
+import com.facebook.presto.execution.resultcache.CachedQueryResult;
+import com.facebook.presto.execution.resultcache.QueryResultCache;
+import com.facebook.presto.execution.resultcache.QueryResultCacheKey;
 import com.facebook.presto.metadata.SessionPropertyManager;
 import com.facebook.presto.operator.ExchangeClient;
 import com.facebook.presto.server.SessionContext;
@@ -61,6 +64,9 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -78,6 +84,7 @@ import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.facebook.presto.util.Failures.toFailure;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
@@ -109,6 +116,7 @@ class Query
     private final QuerySubmissionFuture submissionFuture;
     private final SessionPropertyManager sessionPropertyManager;
     private final BlockEncodingSerde blockEncodingSerde;
+    private final QueryResultCache resultCache;
 
     @GuardedBy("this")
     private Session session;
@@ -155,6 +163,22 @@ class Query
     @GuardedBy("this")
     private Long updateCount;
 
+    @GuardedBy("this")
+    private Optional<QueryResultCacheKey> resultCacheKey = Optional.empty();
+
+    // output pages received so far, or null if the output is not cached
+    @GuardedBy("this")
+    private List<SerializedPage> resultCachePages;
+
+    @GuardedBy("this")
+    private long resultCachePagesRetainedSizeInBytes;
+
+    @GuardedBy("this")
+    private boolean servedFromResultCache;
+
+    @GuardedBy("this")
+    private final Deque<SerializedPage> cachedPages = new ArrayDeque<>();
+
     public static Query create(
             SessionContext sessionContext,
             String query,
@@ -163,9 +187,10 @@ class Query
             ExchangeClient exchangeClient,
             Executor dataProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache resultCache)
     {
-        Query result = new Query(sessionContext, query, queryManager, sessionPropertyManager, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde);
+        Query result = new Query(sessionContext, query, queryManager, sessionPropertyManager, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde, resultCache);
 
         // register listeners after submission finishes
         addSuccessCallback(result.submissionFuture, () -> {
@@ -190,7 +215,8 @@ class Query
             ExchangeClient exchangeClient,
             Executor resultsProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache resultCache)
     {
         requireNonNull(sessionContext, "sessionContext is null");
         requireNonNull(query, "query is null");
@@ -200,6 +226,7 @@ class Query
         requireNonNull(resultsProcessorExecutor, "resultsProcessorExecutor is null");
         requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         requireNonNull(blockEncodingSerde, "serde is null");
+        requireNonNull(resultCache, "resultCache is null");
 
         this.queryManager = queryManager;
         this.sessionPropertyManager = sessionPropertyManager;
@@ -210,6 +237,7 @@ class Query
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
         this.blockEncodingSerde = blockEncodingSerde;
+        this.resultCache = resultCache;
     }
 
     public boolean isSubmissionFinished()
@@ -406,7 +434,7 @@ class Query
             long bytes = 0;
             long rows = 0;
             while (bytes < DESIRED_RESULT_BYTES) {
-                SerializedPage serializedPage = exchangeClient.pollPage();
+                SerializedPage serializedPage = pollPage();
                 if (serializedPage == null) {
                     break;
                 }
@@ -446,16 +474,19 @@ class Query
         closeExchangeClientIfNecessary(queryInfo);
 
         // for queries with no output, return a fake result for clients that require it
-        if ((queryInfo.getState() == QueryState.FINISHED) && !queryInfo.getOutputStage().isPresent()) {
+        if ((queryInfo.getState() == QueryState.FINISHED) && !queryInfo.getOutputStage().isPresent() && !servedFromResultCache) {
             columns = ImmutableList.of(new Column("result", BooleanType.BOOLEAN));
             data = ImmutableSet.of(ImmutableList.of(true));
         }
 
         // only return a next if the query is not done or there is more data to send (due to buffering)
         URI nextResultsUri = null;
-        if (!queryInfo.isFinalQueryInfo() || !exchangeClient.isClosed()) {
+        if (!queryInfo.isFinalQueryInfo() || !exchangeClient.isClosed() || !cachedPages.isEmpty()) {
             nextResultsUri = createNextResultsUri(scheme, uriInfo);
         }
+        else if (queryInfo.getState() == QueryState.FINISHED) {
+            cacheResult();
+        }
 
         // update catalog, schema, and path
         setCatalog = queryInfo.getSetCatalog();
@@ -491,6 +522,38 @@ class Query
         return queryResults;
     }
 
+    private synchronized SerializedPage pollPage()
+    {
+        if (!cachedPages.isEmpty()) {
+            return cachedPages.poll();
+        }
+
+        SerializedPage page = exchangeClient.pollPage();
+        if (page != null && resultCachePages != null) {
+            resultCachePagesRetainedSizeInBytes += page.getRetainedSizeInBytes();
+            if (resultCachePagesRetainedSizeInBytes > resultCache.getMaxEntrySizeInBytes()) {
+                // output is too large to be cached
+                resultCachePages = null;
+            }
+            else {
+                resultCachePages.add(page);
+            }
+        }
+        return page;
+    }
+
+    private synchronized void cacheResult()
+    {
+        if (!resultCacheKey.isPresent() || resultCachePages == null) {
+            return;
+        }
+        List<String> columnNames = columns.stream()
+                .map(Column::getName)
+                .collect(toImmutableList());
+        resultCache.put(resultCacheKey.get(), new CachedQueryResult(columnNames, types, resultCachePages));
+        resultCachePages = null;
+    }
+
     private synchronized void cacheLastResults(QueryResults queryResults)
     {
         // cache the last results
@@ -528,6 +591,15 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+
+            resultCacheKey = outputInfo.getResultCacheKey();
+            if (resultCacheKey.isPresent()) {
+                resultCachePages = new ArrayList<>();
+            }
+            if (outputInfo.getCachedResult().isPresent()) {
+                servedFromResultCache = true;
+                cachedPages.addAll(outputInfo.getCachedResult().get().getPages());
+            }
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
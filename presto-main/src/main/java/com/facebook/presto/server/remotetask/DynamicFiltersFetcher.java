@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.remotetask;
+
+import com.facebook.presto.execution.DynamicFilterSummaries;
+import com.facebook.presto.execution.StateMachine;
+import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.server.smile.BaseResponse;
+import com.facebook.presto.server.smile.SmileCodec;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.concurrent.SetThreadName;
+import io.airlift.http.client.HttpClient;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.ResponseHandler;
+import io.airlift.json.JsonCodec;
+import io.airlift.units.Duration;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static com.facebook.presto.PrestoMediaTypes.APPLICATION_JACKSON_SMILE;
+import static com.facebook.presto.server.smile.AdaptingJsonResponseHandler.createAdaptingJsonResponseHandler;
+import static com.facebook.presto.server.smile.FullSmileResponseHandler.createFullSmileResponseHandler;
+import static com.google.common.net.HttpHeaders.ACCEPT;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
+import static io.airlift.http.client.Request.Builder.prepareGet;
+import static io.airlift.units.Duration.nanosSince;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Fetches the dynamic filter summaries published by a task whenever the task status
+ * reports a newer dynamic filters version than the one already fetched.
+ */
+public class DynamicFiltersFetcher
+        implements SimpleHttpResponseCallback<DynamicFilterSummaries>
+{
+    private final TaskId taskId;
+    private final URI taskUri;
+    private final Consumer<Throwable> onFail;
+    private final StateMachine<DynamicFilterSummaries> dynamicFilterSummaries;
+    private final JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec;
+    private final SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec;
+    private final boolean binaryTransportEnabled;
+
+    private final Executor executor;
+    private final HttpClient httpClient;
+    private final RequestErrorTracker errorTracker;
+    private final RemoteTaskStats stats;
+
+    @GuardedBy("this")
+    private long reportedVersion;
+
+    @GuardedBy("this")
+    private long currentRequestStartNanos;
+
+    @GuardedBy("this")
+    private boolean running = true;
+
+    @GuardedBy("this")
+    private ListenableFuture<BaseResponse<DynamicFilterSummaries>> future;
+
+    public DynamicFiltersFetcher(
+            Consumer<Throwable> onFail,
+            TaskId taskId,
+            URI taskUri,
+            HttpClient httpClient,
+            JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec,
+            SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec,
+            boolean binaryTransportEnabled,
+            Duration maxErrorDuration,
+            Executor executor,
+            ScheduledExecutorService errorScheduledExecutor,
+            RemoteTaskStats stats)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        this.taskUri = requireNonNull(taskUri, "taskUri is null");
+        this.onFail = requireNonNull(onFail, "onFail is null");
+        this.dynamicFilterSummaries = new StateMachine<>("task " + taskId, executor, DynamicFilterSummaries.EMPTY);
+        this.dynamicFilterSummariesCodec = requireNonNull(dynamicFilterSummariesCodec, "dynamicFilterSummariesCodec is null");
+        this.dynamicFilterSummariesSmileCodec = requireNonNull(dynamicFilterSummariesSmileCodec, "dynamicFilterSummariesSmileCodec is null");
+        this.binaryTransportEnabled = binaryTransportEnabled;
+
+        this.executor = requireNonNull(executor, "executor is null");
+        this.httpClient = requireNonNull(httpClient, "httpClient is null");
+        this.errorTracker = new RequestErrorTracker(taskId, taskUri, maxErrorDuration, errorScheduledExecutor, "getting dynamic filters for task");
+        this.stats = requireNonNull(stats, "stats is null");
+    }
+
+    public void addStateChangeListener(StateChangeListener<DynamicFilterSummaries> stateChangeListener)
+    {
+        dynamicFilterSummaries.addStateChangeListener(stateChangeListener);
+    }
+
+    /**
+     * Called with the dynamic filters version of every task status update.
+     */
+    public synchronized void updateDynamicFiltersVersion(long newVersion)
+    {
+        if (newVersion <= reportedVersion) {
+            return;
+        }
+        reportedVersion = newVersion;
+        sendNextRequest();
+    }
+
+    public synchronized void stop()
+    {
+        running = false;
+        if (future != null) {
+            future.cancel(true);
+            future = null;
+        }
+    }
+
+    private synchronized void sendNextRequest()
+    {
+        if (!running || dynamicFilterSummaries.get().getVersion() >= reportedVersion) {
+            return;
+        }
+
+        // if we have an outstanding request
+        if (future != null && !future.isDone()) {
+            return;
+        }
+
+        // if throttled due to error, asynchronously wait for timeout and try again
+        ListenableFuture<?> errorRateLimit = errorTracker.acquireRequestPermit();
+        if (!errorRateLimit.isDone()) {
+            errorRateLimit.addListener(this::sendNextRequest, executor);
+            return;
+        }
+
+        Request.Builder requestBuilder = prepareGet()
+                .setUri(uriBuilderFrom(taskUri).appendPath("dynamicfilters").build());
+
+        ResponseHandler<BaseResponse<DynamicFilterSummaries>, RuntimeException> responseHandler;
+        if (binaryTransportEnabled) {
+            requestBuilder.setHeader(ACCEPT, APPLICATION_JACKSON_SMILE);
+            responseHandler = createFullSmileResponseHandler(dynamicFilterSummariesSmileCodec);
+        }
+        else {
+            requestBuilder.setHeader(CONTENT_TYPE, JSON_UTF_8.toString());
+            requestBuilder.setHeader(ACCEPT, JSON_UTF_8.toString());
+            responseHandler = createAdaptingJsonResponseHandler(dynamicFilterSummariesCodec);
+        }
+        Request request = requestBuilder.build();
+
+        errorTracker.startRequest();
+        future = httpClient.executeAsync(request, responseHandler);
+        currentRequestStartNanos = System.nanoTime();
+        Futures.addCallback(future, new SimpleHttpResponseHandler<>(this, request.getUri(), stats), executor);
+    }
+
+    @Override
+    public void success(DynamicFilterSummaries newValue)
+    {
+        try (SetThreadName ignored = new SetThreadName("DynamicFiltersFetcher-%s", taskId)) {
+            synchronized (this) {
+                future = null;
+                stats.infoRoundTripMillis(nanosSince(currentRequestStartNanos).toMillis());
+            }
+            errorTracker.requestSucceeded();
+            dynamicFilterSummaries.setIf(newValue, oldValue -> newValue.getVersion() > oldValue.getVersion());
+            // more summaries may have been published while the request was running
+            sendNextRequest();
+        }
+    }
+
+    @Override
+    public void failed(Throwable cause)
+    {
+        try (SetThreadName ignored = new SetThreadName("DynamicFiltersFetcher-%s", taskId)) {
+            synchronized (this) {
+                future = null;
+                if (!running) {
+                    // the task is done
+                    return;
+                }
+            }
+            try {
+                errorTracker.requestFailed(cause);
+            }
+            catch (Error e) {
+                onFail.accept(e);
+                throw e;
+            }
+            catch (RuntimeException e) {
+                onFail.accept(e);
+                return;
+            }
+            sendNextRequest();
+        }
+    }
+
+    @Override
+    public void fatal(Throwable cause)
+    {
+        try (SetThreadName ignored = new SetThreadName("DynamicFiltersFetcher-%s", taskId)) {
+            onFail.accept(cause);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.ScheduledSplit;
 import com.facebook.presto.Session;
 import com.facebook.presto.TaskSource;
+import com.facebook.presto.execution.DynamicFilterSummaries;
 import com.facebook.presto.execution.FutureStateChange;
 import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.NodeTaskMap.PartitionedSplitCountTracker;
@@ -29,14 +30,18 @@ import com.facebook.presto.execution.TaskStatus;
 import com.facebook.presto.execution.buffer.BufferInfo;
 import com.facebook.presto.execution.buffer.PageBufferInfo;
 import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.server.TaskUpdateRequest;
+import com.facebook.presto.server.smile.BaseResponse;
+import com.facebook.presto.server.smile.SmileCodec;
 import com.facebook.presto.sql.planner.PlanFragment;
 import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.base.Ticker;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.net.HttpHeaders;
@@ -45,10 +50,10 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.SetThreadName;
-import io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
 import io.airlift.http.client.HttpClient;
 import io.airlift.http.client.HttpUriBuilder;
 import io.airlift.http.client.Request;
+import io.airlift.http.client.ResponseHandler;
 import io.airlift.json.JsonCodec;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
@@ -76,22 +81,25 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import static com.facebook.presto.PrestoMediaTypes.APPLICATION_JACKSON_SMILE;
 import static com.facebook.presto.execution.TaskInfo.createInitialTask;
 import static com.facebook.presto.execution.TaskState.ABORTED;
 import static com.facebook.presto.execution.TaskState.FAILED;
 import static com.facebook.presto.execution.TaskStatus.failWith;
 import static com.facebook.presto.server.remotetask.RequestErrorTracker.logError;
+import static com.facebook.presto.server.smile.AdaptingJsonResponseHandler.createAdaptingJsonResponseHandler;
+import static com.facebook.presto.server.smile.FullSmileResponseHandler.createFullSmileResponseHandler;
 import static com.facebook.presto.util.Failures.toFailure;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
-import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.airlift.http.client.JsonBodyGenerator.jsonBodyGenerator;
 import static io.airlift.http.client.Request.Builder.prepareDelete;
 import static io.airlift.http.client.Request.Builder.preparePost;
+import static io.airlift.http.client.StaticBodyGenerator.createStaticBodyGenerator;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
@@ -114,6 +122,7 @@ public final class HttpRemoteTask
     private final RemoteTaskStats stats;
     private final TaskInfoFetcher taskInfoFetcher;
     private final ContinuousTaskStatusFetcher taskStatusFetcher;
+    private final DynamicFiltersFetcher dynamicFiltersFetcher;
 
     @GuardedBy("this")
     private Future<?> currentRequest;
@@ -131,6 +140,8 @@ public final class HttpRemoteTask
     // The boolean value of each entry represents whether the "no more splits" notification is pending delivery to workers.
     private final Map<PlanNodeId, Boolean> noMoreSplits = new HashMap<>();
     @GuardedBy("this")
+    private final Map<PlanNodeId, DynamicFilterSummary> pendingDynamicFilters = new HashMap<>();
+    @GuardedBy("this")
     private final AtomicReference<OutputBuffers> outputBuffers = new AtomicReference<>();
     private final FutureStateChange<?> whenSplitQueueHasSpace = new FutureStateChange<>();
     @GuardedBy("this")
@@ -146,6 +157,9 @@ public final class HttpRemoteTask
 
     private final JsonCodec<TaskInfo> taskInfoCodec;
     private final JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+    private final SmileCodec<TaskInfo> taskInfoSmileCodec;
+    private final SmileCodec<TaskUpdateRequest> taskUpdateRequestSmileCodec;
+    private final boolean binaryTransportEnabled;
 
     private final RequestErrorTracker updateErrorTracker;
 
@@ -175,6 +189,12 @@ public final class HttpRemoteTask
             JsonCodec<TaskStatus> taskStatusCodec,
             JsonCodec<TaskInfo> taskInfoCodec,
             JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+            SmileCodec<TaskStatus> taskStatusSmileCodec,
+            SmileCodec<TaskInfo> taskInfoSmileCodec,
+            SmileCodec<TaskUpdateRequest> taskUpdateRequestSmileCodec,
+            JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec,
+            SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec,
+            boolean binaryTransportEnabled,
             PartitionedSplitCountTracker partitionedSplitCountTracker,
             RemoteTaskStats stats)
     {
@@ -190,6 +210,11 @@ public final class HttpRemoteTask
         requireNonNull(taskStatusCodec, "taskStatusCodec is null");
         requireNonNull(taskInfoCodec, "taskInfoCodec is null");
         requireNonNull(taskUpdateRequestCodec, "taskUpdateRequestCodec is null");
+        requireNonNull(taskStatusSmileCodec, "taskStatusSmileCodec is null");
+        requireNonNull(taskInfoSmileCodec, "taskInfoSmileCodec is null");
+        requireNonNull(taskUpdateRequestSmileCodec, "taskUpdateRequestSmileCodec is null");
+        requireNonNull(dynamicFilterSummariesCodec, "dynamicFilterSummariesCodec is null");
+        requireNonNull(dynamicFilterSummariesSmileCodec, "dynamicFilterSummariesSmileCodec is null");
         requireNonNull(partitionedSplitCountTracker, "partitionedSplitCountTracker is null");
         requireNonNull(stats, "stats is null");
 
@@ -206,6 +231,9 @@ public final class HttpRemoteTask
             this.summarizeTaskInfo = summarizeTaskInfo;
             this.taskInfoCodec = taskInfoCodec;
             this.taskUpdateRequestCodec = taskUpdateRequestCodec;
+            this.taskInfoSmileCodec = taskInfoSmileCodec;
+            this.taskUpdateRequestSmileCodec = taskUpdateRequestSmileCodec;
+            this.binaryTransportEnabled = binaryTransportEnabled;
             this.updateErrorTracker = new RequestErrorTracker(taskId, location, maxErrorDuration, errorScheduledExecutor, "updating task");
             this.partitionedSplitCountTracker = requireNonNull(partitionedSplitCountTracker, "partitionedSplitCountTracker is null");
             this.stats = stats;
@@ -231,6 +259,8 @@ public final class HttpRemoteTask
                     initialTask.getTaskStatus(),
                     taskStatusRefreshMaxWait,
                     taskStatusCodec,
+                    taskStatusSmileCodec,
+                    binaryTransportEnabled,
                     executor,
                     httpClient,
                     maxErrorDuration,
@@ -243,6 +273,8 @@ public final class HttpRemoteTask
                     httpClient,
                     taskInfoUpdateInterval,
                     taskInfoCodec,
+                    taskInfoSmileCodec,
+                    binaryTransportEnabled,
                     maxErrorDuration,
                     summarizeTaskInfo,
                     executor,
@@ -250,12 +282,26 @@ public final class HttpRemoteTask
                     errorScheduledExecutor,
                     stats);
 
+            this.dynamicFiltersFetcher = new DynamicFiltersFetcher(
+                    this::failTask,
+                    taskId,
+                    location,
+                    httpClient,
+                    dynamicFilterSummariesCodec,
+                    dynamicFilterSummariesSmileCodec,
+                    binaryTransportEnabled,
+                    maxErrorDuration,
+                    executor,
+                    errorScheduledExecutor,
+                    stats);
+
             taskStatusFetcher.addStateChangeListener(newStatus -> {
                 TaskState state = newStatus.getState();
                 if (state.isDone()) {
                     cleanUpTask();
                 }
                 else {
+                    dynamicFiltersFetcher.updateDynamicFiltersVersion(newStatus.getDynamicFiltersVersion());
                     partitionedSplitCountTracker.setPartitionedSplitCount(getPartitionedSplitCount());
                     updateSplitQueueSpace();
                 }
@@ -359,6 +405,20 @@ public final class HttpRemoteTask
         }
     }
 
+    @Override
+    public synchronized void addDynamicFilters(Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
+    {
+        requireNonNull(dynamicFilters, "dynamicFilters is null");
+
+        if (getTaskStatus().getState().isDone() || dynamicFilters.isEmpty()) {
+            return;
+        }
+
+        pendingDynamicFilters.putAll(dynamicFilters);
+        needsUpdate.set(true);
+        scheduleUpdate();
+    }
+
     @Override
     public synchronized void setOutputBuffers(OutputBuffers newOutputBuffers)
     {
@@ -407,6 +467,14 @@ public final class HttpRemoteTask
         }
     }
 
+    @Override
+    public void addDynamicFilterSummariesListener(StateChangeListener<DynamicFilterSummaries> stateChangeListener)
+    {
+        try (SetThreadName ignored = new SetThreadName("HttpRemoteTask-%s", taskId)) {
+            dynamicFiltersFetcher.addStateChangeListener(stateChangeListener);
+        }
+    }
+
     @Override
     public synchronized ListenableFuture<?> whenSplitQueueHasSpace(int threshold)
     {
@@ -434,10 +502,13 @@ public final class HttpRemoteTask
         }
     }
 
-    private synchronized void processTaskUpdate(TaskInfo newValue, List<TaskSource> sources)
+    private synchronized void processTaskUpdate(TaskInfo newValue, List<TaskSource> sources, Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
     {
         updateTaskInfo(newValue);
 
+        // remove acknowledged dynamic filters
+        dynamicFilters.forEach(pendingDynamicFilters::remove);
+
         // remove acknowledged splits, which frees memory
         for (TaskSource source : sources) {
             PlanNodeId planNodeId = source.getPlanNodeId();
@@ -494,6 +565,7 @@ public final class HttpRemoteTask
         }
 
         List<TaskSource> sources = getSources();
+        Map<PlanNodeId, DynamicFilterSummary> dynamicFilters = ImmutableMap.copyOf(pendingDynamicFilters);
 
         Optional<PlanFragment> fragment = Optional.empty();
         if (sendPlan.get()) {
@@ -504,18 +576,26 @@ public final class HttpRemoteTask
                 fragment,
                 sources,
                 outputBuffers.get(),
-                totalPartitions);
+                totalPartitions,
+                dynamicFilters);
 
         HttpUriBuilder uriBuilder = getHttpUriBuilder(taskStatus);
-        Request request = preparePost()
+        Request.Builder requestBuilder = preparePost()
                 .setUri(uriBuilder.build())
-                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
-                .setBodyGenerator(jsonBodyGenerator(taskUpdateRequestCodec, updateRequest))
-                .build();
+                .setHeader(HttpHeaders.ACCEPT, getTaskInfoMediaType());
+        if (binaryTransportEnabled) {
+            requestBuilder.setHeader(HttpHeaders.CONTENT_TYPE, APPLICATION_JACKSON_SMILE)
+                    .setBodyGenerator(createStaticBodyGenerator(taskUpdateRequestSmileCodec.toSmile(updateRequest)));
+        }
+        else {
+            requestBuilder.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.JSON_UTF_8.toString())
+                    .setBodyGenerator(jsonBodyGenerator(taskUpdateRequestCodec, updateRequest));
+        }
+        Request request = requestBuilder.build();
 
         updateErrorTracker.startRequest();
 
-        ListenableFuture<JsonResponse<TaskInfo>> future = httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec));
+        ListenableFuture<BaseResponse<TaskInfo>> future = httpClient.executeAsync(request, createTaskInfoResponseHandler());
         currentRequest = future;
         currentRequestStartNanos = System.nanoTime();
 
@@ -523,7 +603,7 @@ public final class HttpRemoteTask
         // and does so without grabbing the instance lock.
         needsUpdate.set(false);
 
-        Futures.addCallback(future, new SimpleHttpResponseHandler<>(new UpdateResponseHandler(sources), request.getUri(), stats), executor);
+        Futures.addCallback(future, new SimpleHttpResponseHandler<>(new UpdateResponseHandler(sources, dynamicFilters), request.getUri(), stats), executor);
     }
 
     private synchronized List<TaskSource> getSources()
@@ -563,6 +643,7 @@ public final class HttpRemoteTask
             HttpUriBuilder uriBuilder = getHttpUriBuilder(taskStatus).addParameter("abort", "false");
             Request request = prepareDelete()
                     .setUri(uriBuilder.build())
+                    .setHeader(HttpHeaders.ACCEPT, getTaskInfoMediaType())
                     .build();
             scheduleAsyncCleanupRequest(createCleanupBackoff(), request, "cancel");
         }
@@ -572,8 +653,9 @@ public final class HttpRemoteTask
     {
         checkState(getTaskStatus().getState().isDone(), "attempt to clean up a task that is not done yet");
 
-        // clear pending splits to free memory
+        // clear pending splits and dynamic filters to free memory
         pendingSplits.clear();
+        pendingDynamicFilters.clear();
         pendingSourceSplitCount = 0;
         partitionedSplitCountTracker.setPartitionedSplitCount(getPartitionedSplitCount());
         splitQueueHasSpace = true;
@@ -587,12 +669,14 @@ public final class HttpRemoteTask
         }
 
         taskStatusFetcher.stop();
+        dynamicFiltersFetcher.stop();
 
         // The remote task is likely to get a delete from the PageBufferClient first.
         // We send an additional delete anyway to get the final TaskInfo
         HttpUriBuilder uriBuilder = getHttpUriBuilder(getTaskStatus());
         Request request = prepareDelete()
                 .setUri(uriBuilder.build())
+                .setHeader(HttpHeaders.ACCEPT, getTaskInfoMediaType())
                 .build();
 
         scheduleAsyncCleanupRequest(createCleanupBackoff(), request, "cleanup");
@@ -619,6 +703,7 @@ public final class HttpRemoteTask
             HttpUriBuilder uriBuilder = getHttpUriBuilder(getTaskStatus());
             Request request = prepareDelete()
                     .setUri(uriBuilder.build())
+                    .setHeader(HttpHeaders.ACCEPT, getTaskInfoMediaType())
                     .build();
             scheduleAsyncCleanupRequest(createCleanupBackoff(), request, "abort");
         }
@@ -636,10 +721,10 @@ public final class HttpRemoteTask
 
     private void doScheduleAsyncCleanupRequest(Backoff cleanupBackoff, Request request, String action)
     {
-        Futures.addCallback(httpClient.executeAsync(request, createFullJsonResponseHandler(taskInfoCodec)), new FutureCallback<JsonResponse<TaskInfo>>()
+        Futures.addCallback(httpClient.executeAsync(request, createTaskInfoResponseHandler()), new FutureCallback<BaseResponse<TaskInfo>>()
         {
             @Override
-            public void onSuccess(JsonResponse<TaskInfo> result)
+            public void onSuccess(BaseResponse<TaskInfo> result)
             {
                 try {
                     updateTaskInfo(result.getValue());
@@ -722,6 +807,19 @@ public final class HttpRemoteTask
         return uriBuilder;
     }
 
+    private String getTaskInfoMediaType()
+    {
+        return binaryTransportEnabled ? APPLICATION_JACKSON_SMILE : MediaType.JSON_UTF_8.toString();
+    }
+
+    private ResponseHandler<BaseResponse<TaskInfo>, RuntimeException> createTaskInfoResponseHandler()
+    {
+        if (binaryTransportEnabled) {
+            return createFullSmileResponseHandler(taskInfoSmileCodec);
+        }
+        return createAdaptingJsonResponseHandler(taskInfoCodec);
+    }
+
     private static Backoff createCleanupBackoff()
     {
         return new Backoff(10, new Duration(10, TimeUnit.MINUTES), Ticker.systemTicker(), ImmutableList.<Duration>builder()
@@ -745,10 +843,12 @@ public final class HttpRemoteTask
             implements SimpleHttpResponseCallback<TaskInfo>
     {
         private final List<TaskSource> sources;
+        private final Map<PlanNodeId, DynamicFilterSummary> dynamicFilters;
 
-        private UpdateResponseHandler(List<TaskSource> sources)
+        private UpdateResponseHandler(List<TaskSource> sources, Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
         {
             this.sources = ImmutableList.copyOf(requireNonNull(sources, "sources is null"));
+            this.dynamicFilters = ImmutableMap.copyOf(requireNonNull(dynamicFilters, "dynamicFilters is null"));
         }
 
         @Override
@@ -763,7 +863,7 @@ public final class HttpRemoteTask
                         currentRequestStartNanos = HttpRemoteTask.this.currentRequestStartNanos;
                     }
                     updateStats(currentRequestStartNanos);
-                    processTaskUpdate(value, sources);
+                    processTaskUpdate(value, sources, dynamicFilters);
                     updateErrorTracker.requestSucceeded();
                 }
                 finally {
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.google.common.collect.ListMultimap;
+import io.airlift.http.client.FullJsonResponseHandler;
+import io.airlift.http.client.FullJsonResponseHandler.JsonResponse;
+import io.airlift.http.client.HeaderName;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+import io.airlift.json.JsonCodec;
+
+import java.util.List;
+
+import static io.airlift.http.client.FullJsonResponseHandler.createFullJsonResponseHandler;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Adapts the responses of {@link FullJsonResponseHandler} to {@link BaseResponse}.
+ */
+public class AdaptingJsonResponseHandler<T>
+        implements ResponseHandler<BaseResponse<T>, RuntimeException>
+{
+    private final FullJsonResponseHandler<T> jsonResponseHandler;
+
+    private AdaptingJsonResponseHandler(FullJsonResponseHandler<T> jsonResponseHandler)
+    {
+        this.jsonResponseHandler = requireNonNull(jsonResponseHandler, "jsonResponseHandler is null");
+    }
+
+    public static <T> AdaptingJsonResponseHandler<T> createAdaptingJsonResponseHandler(JsonCodec<T> jsonCodec)
+    {
+        return new AdaptingJsonResponseHandler<>(createFullJsonResponseHandler(jsonCodec));
+    }
+
+    @Override
+    public BaseResponse<T> handleException(Request request, Exception exception)
+    {
+        return new JsonResponseWrapper<>(jsonResponseHandler.handleException(request, exception));
+    }
+
+    @Override
+    public BaseResponse<T> handle(Request request, Response response)
+    {
+        return new JsonResponseWrapper<>(jsonResponseHandler.handle(request, response));
+    }
+
+    private static class JsonResponseWrapper<T>
+            implements BaseResponse<T>
+    {
+        private final JsonResponse<T> response;
+
+        public JsonResponseWrapper(JsonResponse<T> response)
+        {
+            this.response = requireNonNull(response, "response is null");
+        }
+
+        @Override
+        public int getStatusCode()
+        {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusMessage()
+        {
+            return response.getStatusMessage();
+        }
+
+        @Override
+        public String getHeader(String name)
+        {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public List<String> getHeaders(String name)
+        {
+            return response.getHeaders(name);
+        }
+
+        @Override
+        public ListMultimap<HeaderName, String> getHeaders()
+        {
+            return response.getHeaders();
+        }
+
+        @Override
+        public boolean hasValue()
+        {
+            return response.hasValue();
+        }
+
+        @Override
+        public T getValue()
+        {
+            return response.getValue();
+        }
+
+        @Override
+        public int getResponseSize()
+        {
+            return response.getResponseSize();
+        }
+
+        @Override
+        public byte[] getResponseBytes()
+        {
+            return response.getResponseBytes();
+        }
+
+        @Override
+        public String getResponseBody()
+        {
+            return response.getResponseBody();
+        }
+
+        @Override
+        public Exception getException()
+        {
+            return response.getException();
+        }
+
+        @Override
+        public String toString()
+        {
+            return response.toString();
+        }
+    }
+}
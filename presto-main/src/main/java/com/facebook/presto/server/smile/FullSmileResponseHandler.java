@@ -0,0 +1,209 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+import io.airlift.http.client.HeaderName;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static com.facebook.presto.PrestoMediaTypes.JACKSON_SMILE;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.http.client.ResponseHandlerUtils.propagate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binary counterpart of {@link io.airlift.http.client.FullJsonResponseHandler}. Responses
+ * that are not encoded in Smile, such as error messages, are returned without a value.
+ */
+public class FullSmileResponseHandler<T>
+        implements ResponseHandler<BaseResponse<T>, RuntimeException>
+{
+    private final SmileCodec<T> smileCodec;
+
+    private FullSmileResponseHandler(SmileCodec<T> smileCodec)
+    {
+        this.smileCodec = requireNonNull(smileCodec, "smileCodec is null");
+    }
+
+    public static <T> FullSmileResponseHandler<T> createFullSmileResponseHandler(SmileCodec<T> smileCodec)
+    {
+        return new FullSmileResponseHandler<>(smileCodec);
+    }
+
+    @Override
+    public BaseResponse<T> handleException(Request request, Exception exception)
+    {
+        throw propagate(request, exception);
+    }
+
+    @Override
+    public BaseResponse<T> handle(Request request, Response response)
+    {
+        byte[] bytes = readResponseBytes(response);
+        String contentType = response.getHeader(CONTENT_TYPE);
+        if ((contentType == null) || !MediaType.parse(contentType).is(JACKSON_SMILE)) {
+            return new SmileResponse<>(response.getStatusCode(), response.getStatusMessage(), response.getHeaders(), bytes);
+        }
+        return new SmileResponse<>(response.getStatusCode(), response.getStatusMessage(), response.getHeaders(), smileCodec, bytes);
+    }
+
+    private static byte[] readResponseBytes(Response response)
+    {
+        try (InputStream input = response.getInputStream()) {
+            return ByteStreams.toByteArray(input);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error reading response from server", e);
+        }
+    }
+
+    public static class SmileResponse<T>
+            implements BaseResponse<T>
+    {
+        private final int statusCode;
+        private final String statusMessage;
+        private final ListMultimap<HeaderName, String> headers;
+        private final boolean hasValue;
+        private final byte[] responseBytes;
+        private final T value;
+        private final IllegalArgumentException exception;
+
+        public SmileResponse(int statusCode, String statusMessage, ListMultimap<HeaderName, String> headers, byte[] responseBytes)
+        {
+            this.statusCode = statusCode;
+            this.statusMessage = statusMessage;
+            this.headers = ImmutableListMultimap.copyOf(headers);
+            this.hasValue = false;
+            this.responseBytes = requireNonNull(responseBytes, "responseBytes is null");
+            this.value = null;
+            this.exception = null;
+        }
+
+        public SmileResponse(int statusCode, String statusMessage, ListMultimap<HeaderName, String> headers, SmileCodec<T> smileCodec, byte[] smileBytes)
+        {
+            this.statusCode = statusCode;
+            this.statusMessage = statusMessage;
+            this.headers = ImmutableListMultimap.copyOf(headers);
+            this.responseBytes = requireNonNull(smileBytes, "smileBytes is null");
+
+            T value = null;
+            IllegalArgumentException exception = null;
+            try {
+                value = smileCodec.fromSmile(smileBytes);
+            }
+            catch (IllegalArgumentException e) {
+                exception = new IllegalArgumentException("Unable to create " + smileCodec.getType() + " from SMILE response", e);
+            }
+            this.hasValue = (exception == null);
+            this.value = value;
+            this.exception = exception;
+        }
+
+        @Override
+        public int getStatusCode()
+        {
+            return statusCode;
+        }
+
+        @Override
+        public String getStatusMessage()
+        {
+            return statusMessage;
+        }
+
+        @Override
+        public String getHeader(String name)
+        {
+            List<String> values = getHeaders(name);
+            if (values.isEmpty()) {
+                return null;
+            }
+            return values.get(0);
+        }
+
+        @Override
+        public List<String> getHeaders(String name)
+        {
+            return headers.get(HeaderName.of(name));
+        }
+
+        @Override
+        public ListMultimap<HeaderName, String> getHeaders()
+        {
+            return headers;
+        }
+
+        @Override
+        public boolean hasValue()
+        {
+            return hasValue;
+        }
+
+        @Override
+        public T getValue()
+        {
+            if (!hasValue) {
+                throw new IllegalStateException("Response does not contain a SMILE value", exception);
+            }
+            return value;
+        }
+
+        @Override
+        public int getResponseSize()
+        {
+            return responseBytes.length;
+        }
+
+        @Override
+        public byte[] getResponseBytes()
+        {
+            return responseBytes.clone();
+        }
+
+        @Override
+        public String getResponseBody()
+        {
+            return new String(responseBytes, UTF_8);
+        }
+
+        @Override
+        public IllegalArgumentException getException()
+        {
+            return exception;
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statusCode", statusCode)
+                    .add("statusMessage", statusMessage)
+                    .add("headers", headers)
+                    .add("hasValue", hasValue)
+                    .add("value", value)
+                    .toString();
+        }
+    }
+}
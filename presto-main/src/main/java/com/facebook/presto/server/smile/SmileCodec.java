@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binary counterpart of {@link io.airlift.json.JsonCodec}. Values are encoded in the
+ * Jackson Smile format, using the same object mapper, and therefore the same serializers,
+ * as the JSON codecs.
+ */
+public class SmileCodec<T>
+{
+    private static final SmileFactory SMILE_FACTORY = createSmileFactory();
+
+    private final ObjectMapper mapper;
+    private final Type type;
+    private final JavaType javaType;
+
+    SmileCodec(ObjectMapper mapper, Type type)
+    {
+        this.mapper = requireNonNull(mapper, "mapper is null");
+        this.type = requireNonNull(type, "type is null");
+        this.javaType = mapper.getTypeFactory().constructType(type);
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a valid Smile encoding of the type of the codec
+     */
+    public T fromSmile(byte[] bytes)
+            throws IllegalArgumentException
+    {
+        try (JsonParser parser = SMILE_FACTORY.createParser(bytes)) {
+            return readValue(mapper, javaType, parser);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(format("Invalid SMILE bytes for %s", javaType), e);
+        }
+    }
+
+    public byte[] toSmile(T instance)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            writeValue(mapper, javaType, output, instance);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(format("%s could not be converted to SMILE", instance.getClass().getName()), e);
+        }
+        return output.toByteArray();
+    }
+
+    static Object readValue(ObjectMapper mapper, JavaType javaType, InputStream input)
+            throws IOException
+    {
+        try (JsonParser parser = SMILE_FACTORY.createParser(input)) {
+            return readValue(mapper, javaType, parser);
+        }
+    }
+
+    static void writeValue(ObjectMapper mapper, JavaType javaType, OutputStream output, Object value)
+            throws IOException
+    {
+        try (JsonGenerator generator = SMILE_FACTORY.createGenerator(output)) {
+            // the codec is used by serializers that delegate to the mapper
+            generator.setCodec(mapper);
+            mapper.writerFor(javaType).writeValue(generator, value);
+        }
+    }
+
+    private static SmileFactory createSmileFactory()
+    {
+        // the disable methods of JsonFactory return JsonFactory, so they cannot be chained
+        SmileFactory factory = new SmileFactory();
+        factory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        factory.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return factory;
+    }
+
+    private static <T> T readValue(ObjectMapper mapper, JavaType javaType, JsonParser parser)
+            throws IOException
+    {
+        // the codec is used by deserializers that delegate to the mapper
+        parser.setCodec(mapper);
+        return mapper.readerFor(javaType).readValue(parser);
+    }
+}
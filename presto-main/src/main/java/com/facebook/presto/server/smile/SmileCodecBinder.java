@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.google.inject.Binder;
+import com.google.inject.Inject;
+import com.google.inject.TypeLiteral;
+import com.google.inject.util.Types;
+
+import javax.inject.Provider;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import static java.util.Objects.requireNonNull;
+
+public class SmileCodecBinder
+{
+    private final Binder binder;
+
+    public static SmileCodecBinder smileCodecBinder(Binder binder)
+    {
+        return new SmileCodecBinder(binder);
+    }
+
+    private SmileCodecBinder(Binder binder)
+    {
+        this.binder = requireNonNull(binder, "binder is null").skipSources(getClass());
+    }
+
+    public void bindSmileCodec(Class<?> type)
+    {
+        requireNonNull(type, "type is null");
+        bindSmileCodec(type, Types.newParameterizedType(SmileCodec.class, type));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bindSmileCodec(Type type, ParameterizedType smileCodecType)
+    {
+        TypeLiteral<SmileCodec<?>> typeLiteral = (TypeLiteral<SmileCodec<?>>) TypeLiteral.get(smileCodecType);
+        binder.bind(typeLiteral).toProvider(new SmileCodecProvider(type));
+    }
+
+    private static class SmileCodecProvider
+            implements Provider<SmileCodec<?>>
+    {
+        private final Type type;
+        private SmileCodecFactory smileCodecFactory;
+
+        public SmileCodecProvider(Type type)
+        {
+            this.type = type;
+        }
+
+        @Inject
+        public void setSmileCodecFactory(SmileCodecFactory smileCodecFactory)
+        {
+            this.smileCodecFactory = smileCodecFactory;
+        }
+
+        @Override
+        public SmileCodec<?> get()
+        {
+            return smileCodecFactory.smileCodec(type);
+        }
+    }
+}
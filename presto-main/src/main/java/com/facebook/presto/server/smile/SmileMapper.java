@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import static com.facebook.presto.PrestoMediaTypes.APPLICATION_JACKSON_SMILE;
+import static com.facebook.presto.server.smile.SmileCodec.readValue;
+import static com.facebook.presto.server.smile.SmileCodec.writeValue;
+import static java.util.Objects.requireNonNull;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+
+/**
+ * Reads and writes the entities of resources that accept or produce {@code application/x-jackson-smile}.
+ */
+@Provider
+@Consumes(APPLICATION_JACKSON_SMILE)
+@Produces(APPLICATION_JACKSON_SMILE)
+public class SmileMapper
+        implements MessageBodyReader<Object>, MessageBodyWriter<Object>
+{
+    private static final MediaType JACKSON_SMILE_TYPE = MediaType.valueOf(APPLICATION_JACKSON_SMILE);
+
+    private final ObjectMapper objectMapper;
+
+    // resources without a declared media type must keep producing JSON for clients that accept any type
+    @Context
+    private HttpHeaders headers;
+
+    @Inject
+    public SmileMapper(ObjectMapper objectMapper)
+    {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return mediaType.isCompatible(JACKSON_SMILE_TYPE);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type,
+            Type genericType,
+            Annotation[] annotations,
+            MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders,
+            InputStream input)
+            throws IOException, WebApplicationException
+    {
+        try {
+            return readValue(objectMapper, constructType(genericType), input);
+        }
+        catch (JsonProcessingException e) {
+            throw new WebApplicationException(e, Response.status(BAD_REQUEST)
+                    .type(TEXT_PLAIN_TYPE)
+                    .entity("Invalid SMILE entity: " + e.getOriginalMessage())
+                    .build());
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return mediaType.isCompatible(JACKSON_SMILE_TYPE) && isSmileAccepted();
+    }
+
+    @Override
+    public long getSize(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object value,
+            Class<?> type,
+            Type genericType,
+            Annotation[] annotations,
+            MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders,
+            OutputStream output)
+            throws IOException, WebApplicationException
+    {
+        writeValue(objectMapper, constructType(genericType), output, value);
+    }
+
+    private boolean isSmileAccepted()
+    {
+        if (headers == null) {
+            return true;
+        }
+        return headers.getAcceptableMediaTypes().stream()
+                .anyMatch(acceptable -> !acceptable.isWildcardType() && !acceptable.isWildcardSubtype() && acceptable.isCompatible(JACKSON_SMILE_TYPE));
+    }
+
+    private JavaType constructType(Type genericType)
+    {
+        return objectMapper.getTypeFactory().constructType(genericType);
+    }
+}
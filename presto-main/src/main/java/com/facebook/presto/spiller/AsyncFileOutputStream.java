@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes to a file using two buffers: while one buffer is written to the file in the background,
+ * the other one is being filled by the caller.
+ */
+@NotThreadSafe
+final class AsyncFileOutputStream
+        extends OutputStream
+{
+    private final AsynchronousFileChannel channel;
+    private ByteBuffer buffer;
+    private ByteBuffer writeBuffer;
+    private CompletableFuture<?> pendingWrite = CompletableFuture.completedFuture(null);
+    private long position;
+    private boolean closed;
+
+    public AsyncFileOutputStream(AsynchronousFileChannel channel, long position, int bufferSize)
+    {
+        this.channel = requireNonNull(channel, "channel is null");
+        checkArgument(position >= 0, "position is negative");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+        this.position = position;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.writeBuffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Position in the file following the last byte written to this stream
+     */
+    public long getPosition()
+    {
+        return position + buffer.position();
+    }
+
+    @Override
+    public void write(int value)
+            throws IOException
+    {
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.put((byte) value);
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length)
+            throws IOException
+    {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            int chunk = min(length, buffer.remaining());
+            buffer.put(source, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush()
+            throws IOException
+    {
+        writeBuffer();
+        waitForPendingWrite();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer()
+            throws IOException
+    {
+        // the other buffer can only be reused once its write has completed
+        waitForPendingWrite();
+        if (buffer.position() == 0) {
+            return;
+        }
+
+        ByteBuffer filled = buffer;
+        buffer = writeBuffer;
+        writeBuffer = filled;
+        buffer.clear();
+
+        filled.flip();
+        long filePosition = position;
+        // the write may complete, and drain the buffer, before writeFully returns
+        position += filled.remaining();
+        pendingWrite = writeFully(filled, filePosition);
+    }
+
+    private CompletableFuture<?> writeFully(ByteBuffer source, long filePosition)
+    {
+        CompletableFuture<?> future = new CompletableFuture<>();
+        channel.write(source, filePosition, null, new CompletionHandler<Integer, Void>()
+        {
+            @Override
+            public void completed(Integer written, Void attachment)
+            {
+                if (source.hasRemaining()) {
+                    // partial write, the buffer position has been advanced by the bytes written
+                    channel.write(source, filePosition + source.position(), null, this);
+                    return;
+                }
+                future.complete(null);
+            }
+
+            @Override
+            public void failed(Throwable throwable, Void attachment)
+            {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    private void waitForPendingWrite()
+            throws IOException
+    {
+        try {
+            pendingWrite.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing spill file");
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Failed to write spill file", e.getCause());
+        }
+    }
+}
@@ -18,9 +18,8 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -42,18 +41,11 @@ final class FileHolder
         this.filePath = requireNonNull(filePath, "filePath is null");
     }
 
-    public synchronized OutputStream newOutputStream(OpenOption... options)
+    public synchronized AsynchronousFileChannel newAsynchronousFileChannel(OpenOption... options)
             throws IOException
     {
         checkState(!deleted, "File already deleted");
-        return Files.newOutputStream(filePath, options);
-    }
-
-    public synchronized InputStream newInputStream(OpenOption... options)
-            throws IOException
-    {
-        checkState(!deleted, "File already deleted");
-        return Files.newInputStream(filePath, options);
+        return AsynchronousFileChannel.open(filePath, options);
     }
 
     @Override
@@ -14,7 +14,6 @@
 package com.facebook.presto.spiller;
 
 import com.facebook.presto.execution.buffer.PagesSerde;
-import com.facebook.presto.execution.buffer.PagesSerdeUtil;
 import com.facebook.presto.execution.buffer.SerializedPage;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.SpillContext;
@@ -22,6 +21,7 @@ import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.util.PrestoIterators;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
@@ -29,7 +29,9 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import io.airlift.slice.InputStreamSliceInput;
 import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.XxHash64;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -41,32 +43,41 @@ import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 
+import static com.facebook.presto.execution.buffer.PagesSerdeUtil.readSerializedPage;
 import static com.facebook.presto.execution.buffer.PagesSerdeUtil.writeSerializedPage;
 import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.facebook.presto.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
 import static com.facebook.presto.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
 import static com.google.common.base.Preconditions.checkState;
-import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Objects.requireNonNull;
 
 @NotThreadSafe
 public class FileSingleStreamSpiller
         implements SingleStreamSpiller
 {
+    // buffer of the slice output and input wrapping the file streams
+    private static final int SLICE_BUFFER_SIZE = 4 * 1024;
+    // size of each of the two buffers of the file streams, one is filled or drained while the other one is being written or read
+    private static final int FILE_BUFFER_SIZE = 32 * 1024;
     @VisibleForTesting
-    static final int BUFFER_SIZE = 4 * 1024;
+    static final int BUFFER_SIZE = SLICE_BUFFER_SIZE + 2 * FILE_BUFFER_SIZE;
 
     private final FileHolder targetFile;
     private final Closer closer = Closer.create();
     private final PagesSerde serde;
     private final SpillerStats spillerStats;
+    private final SpillPathStats spillPathStats;
     private final SpillContext localSpillContext;
     private final LocalMemoryContext memoryContext;
+    private final boolean checksumEnabled;
 
     private final ListeningExecutorService executor;
 
     private boolean writable = true;
     private long spilledPagesInMemorySize;
+    private long fileSize;
     private ListenableFuture<?> spillInProgress = Futures.immediateFuture(null);
 
     public FileSingleStreamSpiller(
@@ -75,13 +86,16 @@ public class FileSingleStreamSpiller
             Path spillPath,
             SpillerStats spillerStats,
             SpillContext spillContext,
-            LocalMemoryContext memoryContext)
+            LocalMemoryContext memoryContext,
+            boolean checksumEnabled)
     {
         this.serde = requireNonNull(serde, "serde is null");
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.spillPathStats = spillerStats.getSpillPathStats(spillPath);
         this.localSpillContext = spillContext.newLocalSpillContext();
         this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        this.checksumEnabled = checksumEnabled;
         // HACK!
         // The writePages() method is called in a separate thread pool and it's possible that
         // these spiller thread can run concurrently with the close() method.
@@ -132,7 +146,10 @@ public class FileSingleStreamSpiller
     private void writePages(Iterator<Page> pageIterator)
     {
         checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
-        try (SliceOutput output = new OutputStreamSliceOutput(targetFile.newOutputStream(APPEND), BUFFER_SIZE)) {
+        long start = System.nanoTime();
+        long startFileSize = fileSize;
+        try (AsyncFileOutputStream fileOutput = new AsyncFileOutputStream(targetFile.newAsynchronousFileChannel(WRITE), fileSize, FILE_BUFFER_SIZE);
+                SliceOutput output = new OutputStreamSliceOutput(fileOutput, SLICE_BUFFER_SIZE)) {
             while (pageIterator.hasNext()) {
                 Page page = pageIterator.next();
                 spilledPagesInMemorySize += page.getSizeInBytes();
@@ -140,12 +157,19 @@ public class FileSingleStreamSpiller
                 long pageSize = serializedPage.getSizeInBytes();
                 localSpillContext.updateBytes(pageSize);
                 spillerStats.addToTotalSpilledBytes(pageSize);
+                spillerStats.addToTotalUncompressedSpilledBytes(serializedPage.getUncompressedSizeInBytes());
                 writeSerializedPage(output, serializedPage);
+                if (checksumEnabled) {
+                    output.writeLong(checksum(serializedPage));
+                }
             }
+            output.flush();
+            fileSize = fileOutput.getPosition();
         }
         catch (UncheckedIOException | IOException e) {
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
         }
+        spillPathStats.recordWrite(fileSize - startFileSize, System.nanoTime() - start);
     }
 
     private Iterator<Page> readPages()
@@ -154,8 +178,8 @@ public class FileSingleStreamSpiller
         writable = false;
 
         try {
-            InputStream input = closer.register(targetFile.newInputStream());
-            Iterator<Page> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
+            InputStream input = closer.register(new ReadAheadFileInputStream(targetFile.newAsynchronousFileChannel(READ), FILE_BUFFER_SIZE));
+            Iterator<Page> pages = new SpilledPageReader(new InputStreamSliceInput(input, SLICE_BUFFER_SIZE));
             return PrestoIterators.closeWhenExhausted(pages, input);
         }
         catch (IOException e) {
@@ -183,4 +207,38 @@ public class FileSingleStreamSpiller
     {
         checkState(spillInProgress.isDone(), "spill in progress");
     }
+
+    private static long checksum(SerializedPage page)
+    {
+        long header = ((long) page.getPositionCount() << 32) | (page.getUncompressedSizeInBytes() & 0xFFFF_FFFFL);
+        return XxHash64.hash(XxHash64.hash(header) + page.getCompression().getMarker(), page.getSlice());
+    }
+
+    private class SpilledPageReader
+            extends AbstractIterator<Page>
+    {
+        private final SliceInput input;
+
+        public SpilledPageReader(SliceInput input)
+        {
+            this.input = requireNonNull(input, "input is null");
+        }
+
+        @Override
+        protected Page computeNext()
+        {
+            if (!input.isReadable()) {
+                return endOfData();
+            }
+
+            long start = System.nanoTime();
+            SerializedPage serializedPage = readSerializedPage(input);
+            if (checksumEnabled && input.readLong() != checksum(serializedPage)) {
+                throw new PrestoException(GENERIC_INTERNAL_ERROR, "Spill file is corrupted, checksum of a spilled page does not match");
+            }
+            Page page = serde.deserialize(serializedPage);
+            spillPathStats.recordRead(serializedPage.getSizeInBytes(), System.nanoTime() - start);
+            return page;
+        }
+    }
 }
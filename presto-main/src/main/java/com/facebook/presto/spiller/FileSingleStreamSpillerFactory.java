@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.spiller;
 
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.SpillContext;
@@ -35,6 +36,7 @@ import java.nio.file.FileStore;
 import java.nio.file.Path;
 import java.util.List;
 
+import static com.facebook.presto.execution.buffer.PagesSerde.DEFAULT_COMPRESSION_LEVEL;
 import static com.facebook.presto.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -62,6 +64,7 @@ public class FileSingleStreamSpillerFactory
     private final List<Path> spillPaths;
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
+    private final boolean checksumEnabled;
     private int roundRobinIndex;
 
     @Inject
@@ -74,7 +77,10 @@ public class FileSingleStreamSpillerFactory
                 blockEncodingSerde,
                 spillerStats,
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
-                requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold());
+                requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
+                requireNonNull(featuresConfig, "featuresConfig is null").getSpillCompressionCodec(),
+                requireNonNull(featuresConfig, "featuresConfig is null").getSpillCompressionLevel(),
+                requireNonNull(featuresConfig, "featuresConfig is null").isSpillChecksumEnabled());
     }
 
     @VisibleForTesting
@@ -83,9 +89,25 @@ public class FileSingleStreamSpillerFactory
             BlockEncodingSerde blockEncodingSerde,
             SpillerStats spillerStats,
             List<Path> spillPaths,
-            double maxUsedSpaceThreshold)
+            double maxUsedSpaceThreshold,
+            CompressionCodec compressionCodec,
+            boolean checksumEnabled)
     {
-        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), false);
+        this(executor, blockEncodingSerde, spillerStats, spillPaths, maxUsedSpaceThreshold, compressionCodec, DEFAULT_COMPRESSION_LEVEL, checksumEnabled);
+    }
+
+    @VisibleForTesting
+    public FileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            CompressionCodec compressionCodec,
+            int compressionLevel,
+            boolean checksumEnabled)
+    {
+        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), requireNonNull(compressionCodec, "compressionCodec is null"), compressionLevel);
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats can not be null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -104,6 +126,7 @@ public class FileSingleStreamSpillerFactory
             }
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
+        this.checksumEnabled = checksumEnabled;
         this.roundRobinIndex = 0;
     }
 
@@ -140,7 +163,7 @@ public class FileSingleStreamSpillerFactory
     @Override
     public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
     {
-        return new FileSingleStreamSpiller(serdeFactory.createPagesSerde(), executor, getNextSpillPath(), spillerStats, spillContext, memoryContext);
+        return new FileSingleStreamSpiller(serdeFactory.createPagesSerde(), executor, getNextSpillPath(), spillerStats, spillContext, memoryContext, checksumEnabled);
     }
 
     private synchronized Path getNextSpillPath()
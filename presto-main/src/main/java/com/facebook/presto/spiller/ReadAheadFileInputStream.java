@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a file using two buffers: while the caller consumes one buffer, the next part of the
+ * file is read into the other one in the background.
+ */
+@NotThreadSafe
+final class ReadAheadFileInputStream
+        extends InputStream
+{
+    private final AsynchronousFileChannel channel;
+    private ByteBuffer buffer;
+    private ByteBuffer readAheadBuffer;
+    private Future<Integer> pendingRead;
+    private long position;
+    private boolean endOfFile;
+    private boolean closed;
+
+    public ReadAheadFileInputStream(AsynchronousFileChannel channel, int bufferSize)
+    {
+        this.channel = requireNonNull(channel, "channel is null");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+        this.readAheadBuffer = ByteBuffer.allocate(bufferSize);
+        this.pendingRead = channel.read(readAheadBuffer, position);
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        if (!buffer.hasRemaining() && !fillBuffer()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] destination, int offset, int length)
+            throws IOException
+    {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining() && !fillBuffer()) {
+            return -1;
+        }
+        int chunk = min(length, buffer.remaining());
+        buffer.get(destination, offset, chunk);
+        return chunk;
+    }
+
+    @Override
+    public int available()
+    {
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // an outstanding read fails once the channel is closed, its result is not needed
+        channel.close();
+    }
+
+    private boolean fillBuffer()
+            throws IOException
+    {
+        while (!buffer.hasRemaining()) {
+            if (endOfFile) {
+                return false;
+            }
+
+            int bytesRead = waitForPendingRead();
+            if (bytesRead < 0) {
+                endOfFile = true;
+                return false;
+            }
+
+            ByteBuffer consumed = buffer;
+            buffer = readAheadBuffer;
+            readAheadBuffer = consumed;
+            buffer.flip();
+            position += bytesRead;
+
+            readAheadBuffer.clear();
+            pendingRead = channel.read(readAheadBuffer, position);
+        }
+        return true;
+    }
+
+    private int waitForPendingRead()
+            throws IOException
+    {
+        try {
+            return pendingRead.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading spill file");
+        }
+        catch (ExecutionException e) {
+            throw new IOException("Failed to read spill file", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import org.weakref.jmx.Managed;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Amount of data written to and read from the spill files of a single spill path, and the time
+ * spent doing so, including serialization and compression.
+ */
+public class SpillPathStats
+{
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+
+    public void recordWrite(long bytes, long nanos)
+    {
+        writtenBytes.addAndGet(bytes);
+        writeNanos.addAndGet(nanos);
+    }
+
+    public void recordRead(long bytes, long nanos)
+    {
+        readBytes.addAndGet(bytes);
+        readNanos.addAndGet(nanos);
+    }
+
+    @Managed
+    public long getWrittenBytes()
+    {
+        return writtenBytes.get();
+    }
+
+    @Managed
+    public long getWriteTimeMillis()
+    {
+        return NANOSECONDS.toMillis(writeNanos.get());
+    }
+
+    @Managed
+    public double getWriteBytesPerSecond()
+    {
+        return bytesPerSecond(writtenBytes.get(), writeNanos.get());
+    }
+
+    @Managed
+    public long getReadBytes()
+    {
+        return readBytes.get();
+    }
+
+    @Managed
+    public long getReadTimeMillis()
+    {
+        return NANOSECONDS.toMillis(readNanos.get());
+    }
+
+    @Managed
+    public double getReadBytesPerSecond()
+    {
+        return bytesPerSecond(readBytes.get(), readNanos.get());
+    }
+
+    private static double bytesPerSecond(long bytes, long nanos)
+    {
+        if (nanos == 0) {
+            return 0;
+        }
+        return bytes * (double) SECONDS.toNanos(1) / nanos;
+    }
+}
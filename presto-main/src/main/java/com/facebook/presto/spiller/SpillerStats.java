@@ -15,12 +15,20 @@ package com.facebook.presto.spiller;
 
 import org.weakref.jmx.Managed;
 
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SpillerStats
 {
     protected final AtomicLong totalSpilledBytes = new AtomicLong();
+    protected final AtomicLong totalUncompressedSpilledBytes = new AtomicLong();
+    private final Map<Path, SpillPathStats> spillPathStats = new ConcurrentHashMap<>();
 
+    /**
+     * Bytes written to spill files, after compression
+     */
     @Managed
     public long getTotalSpilledBytes()
     {
@@ -31,4 +39,23 @@ public class SpillerStats
     {
         totalSpilledBytes.addAndGet(delta);
     }
+
+    /**
+     * Bytes of the spilled pages before compression
+     */
+    @Managed
+    public long getTotalUncompressedSpilledBytes()
+    {
+        return totalUncompressedSpilledBytes.get();
+    }
+
+    public void addToTotalUncompressedSpilledBytes(long delta)
+    {
+        totalUncompressedSpilledBytes.addAndGet(delta);
+    }
+
+    public SpillPathStats getSpillPathStats(Path spillPath)
+    {
+        return spillPathStats.computeIfAbsent(spillPath, path -> new SpillPathStats());
+    }
 }
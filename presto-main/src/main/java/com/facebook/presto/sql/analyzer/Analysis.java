@@ -136,6 +136,8 @@ public class Analysis
     // for recursive view detection
     private final Deque<Table> tablesForView = new ArrayDeque<>();
 
+    private boolean viewsReferenced;
+
     public Analysis(@Nullable Statement root, List<Expression> parameters, boolean isDescribe)
     {
         requireNonNull(parameters);
@@ -562,6 +564,7 @@ public class Analysis
     public void registerTableForView(Table tableReference)
     {
         tablesForView.push(requireNonNull(tableReference, "table is null"));
+        viewsReferenced = true;
     }
 
     public void unregisterTableForView()
@@ -574,6 +577,11 @@ public class Analysis
         return tablesForView.contains(tableReference);
     }
 
+    public boolean isViewsReferenced()
+    {
+        return viewsReferenced;
+    }
+
     public void setSampleRatio(SampledRelation relation, double ratio)
     {
         sampleRatios.put(NodeRef.of(relation), ratio);
@@ -586,6 +594,11 @@ public class Analysis
         return sampleRatios.get(key);
     }
 
+    public boolean hasSampledRelations()
+    {
+        return !sampleRatios.isEmpty();
+    }
+
     public void setGroupingOperations(QuerySpecification querySpecification, List<GroupingOperation> groupingOperations)
     {
         this.groupingOperations.put(NodeRef.of(querySpecification), ImmutableList.copyOf(groupingOperations));
@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.sql.analyzer;
 
+import com.facebook.presto.execution.buffer.CompressionCodec;
+import com.facebook.presto.execution.buffer.PagesSerde;
 import com.facebook.presto.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import com.facebook.presto.operator.aggregation.histogram.HistogramGroupImplementation;
 import com.google.common.annotations.VisibleForTesting;
@@ -28,6 +30,7 @@ import io.airlift.units.MaxDataSize;
 import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
@@ -64,11 +67,17 @@ public class FeaturesConfig
     private double networkCostWeight = 15;
     private boolean distributedIndexJoinsEnabled;
     private JoinDistributionType joinDistributionType = PARTITIONED;
+    private DataSize joinMaxBroadcastTableSize = new DataSize(100, DataSize.Unit.MEGABYTE);
+    private boolean enforceBroadcastJoinSizeLimit;
+    private boolean distributeNullJoinKeys;
+    private String skewedJoinKeys = "";
+    private int skewedJoinSaltCount = 8;
     private boolean colocatedJoinsEnabled;
     private boolean groupedExecutionForAggregationEnabled;
     private int concurrentLifespansPerTask;
     private boolean spatialJoinsEnabled = true;
     private boolean fastInequalityJoins = true;
+    private boolean batchedJoinProbe = true;
     private JoinReorderingStrategy joinReorderingStrategy = ELIMINATE_CROSS_JOINS;
     private int maxReorderedJoins = 9;
     private boolean redistributeWrites = true;
@@ -100,10 +109,15 @@ public class FeaturesConfig
     private HistogramGroupImplementation histogramGroupImplementation = HistogramGroupImplementation.NEW;
     private ArrayAggGroupImplementation arrayAggGroupImplementation = ArrayAggGroupImplementation.NEW;
     private boolean spillEnabled;
+    private boolean spillOrderBy = true;
+    private boolean spillWindowOperator = true;
     private DataSize aggregationOperatorUnspillMemoryLimit = new DataSize(4, DataSize.Unit.MEGABYTE);
     private List<Path> spillerSpillPaths = ImmutableList.of();
     private int spillerThreads = 4;
     private double spillMaxUsedSpaceThreshold = 0.9;
+    private CompressionCodec spillCompressionCodec = CompressionCodec.NONE;
+    private int spillCompressionLevel = PagesSerde.DEFAULT_COMPRESSION_LEVEL;
+    private boolean spillChecksumEnabled;
     private boolean iterativeOptimizerEnabled = true;
     private boolean enableNewStatsCalculator = true;
     private boolean pushAggregationThroughJoin = true;
@@ -120,6 +134,12 @@ public class FeaturesConfig
     private int filterAndProjectMinOutputPageRowCount = 256;
     private int maxGroupingSets = 2048;
     private boolean legacyUnnestArrayRows;
+    private boolean dynamicFilteringEnabled;
+    private int dynamicFilteringMaxDistinctValues = 1_000;
+    private DataSize dynamicFilteringBloomFilterSize = new DataSize(1, DataSize.Unit.MEGABYTE);
+    private boolean adaptivePartialAggregationEnabled;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
 
     public enum JoinReorderingStrategy
     {
@@ -301,6 +321,74 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getJoinMaxBroadcastTableSize()
+    {
+        return joinMaxBroadcastTableSize;
+    }
+
+    @Config("join-max-broadcast-table-size")
+    @ConfigDescription("Maximum size of the build side for a join to be broadcast when the join distribution type is AUTOMATIC, zero to not use size estimates")
+    public FeaturesConfig setJoinMaxBroadcastTableSize(DataSize joinMaxBroadcastTableSize)
+    {
+        this.joinMaxBroadcastTableSize = joinMaxBroadcastTableSize;
+        return this;
+    }
+
+    public boolean isEnforceBroadcastJoinSizeLimit()
+    {
+        return enforceBroadcastJoinSizeLimit;
+    }
+
+    @Config("enforce-broadcast-join-size-limit")
+    @ConfigDescription("Fail the query when the in-memory build side of a broadcast join exceeds join-max-broadcast-table-size")
+    public FeaturesConfig setEnforceBroadcastJoinSizeLimit(boolean enforceBroadcastJoinSizeLimit)
+    {
+        this.enforceBroadcastJoinSizeLimit = enforceBroadcastJoinSizeLimit;
+        return this;
+    }
+
+    public boolean isDistributeNullJoinKeys()
+    {
+        return distributeNullJoinKeys;
+    }
+
+    @Config("optimizer.distribute-null-join-keys")
+    @ConfigDescription("Remove or randomly distribute rows with null keys in hash distributed joins")
+    public FeaturesConfig setDistributeNullJoinKeys(boolean distributeNullJoinKeys)
+    {
+        this.distributeNullJoinKeys = distributeNullJoinKeys;
+        return this;
+    }
+
+    @NotNull
+    public String getSkewedJoinKeys()
+    {
+        return skewedJoinKeys;
+    }
+
+    @Config("optimizer.skewed-join-keys")
+    @ConfigDescription("Hot values of join key columns, as [schema.]table.column=value|value;..., that are spread over several nodes in hash distributed joins")
+    public FeaturesConfig setSkewedJoinKeys(String skewedJoinKeys)
+    {
+        this.skewedJoinKeys = skewedJoinKeys;
+        return this;
+    }
+
+    @Min(2)
+    public int getSkewedJoinSaltCount()
+    {
+        return skewedJoinSaltCount;
+    }
+
+    @Config("optimizer.skewed-join-salt-count")
+    @ConfigDescription("Number of nodes the rows with a hot join key are spread over")
+    public FeaturesConfig setSkewedJoinSaltCount(int skewedJoinSaltCount)
+    {
+        this.skewedJoinSaltCount = skewedJoinSaltCount;
+        return this;
+    }
+
     public boolean isGroupedExecutionForAggregationEnabled()
     {
         return groupedExecutionForAggregationEnabled;
@@ -368,6 +456,19 @@ public class FeaturesConfig
         return fastInequalityJoins;
     }
 
+    @Config("batched-join-probe")
+    @ConfigDescription("Probe hash joins on BIGINT, INTEGER and DATE keys a page at a time using keys copied into primitive arrays")
+    public FeaturesConfig setBatchedJoinProbe(boolean batchedJoinProbe)
+    {
+        this.batchedJoinProbe = batchedJoinProbe;
+        return this;
+    }
+
+    public boolean isBatchedJoinProbe()
+    {
+        return batchedJoinProbe;
+    }
+
     public JoinReorderingStrategy getJoinReorderingStrategy()
     {
         return joinReorderingStrategy;
@@ -555,6 +656,32 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isSpillOrderBy()
+    {
+        return spillOrderBy;
+    }
+
+    @Config("experimental.spill-order-by")
+    @ConfigDescription("Spill in OrderBy if spill-enabled is also set")
+    public FeaturesConfig setSpillOrderBy(boolean spillOrderBy)
+    {
+        this.spillOrderBy = spillOrderBy;
+        return this;
+    }
+
+    public boolean isSpillWindowOperator()
+    {
+        return spillWindowOperator;
+    }
+
+    @Config("experimental.spill-window-operator")
+    @ConfigDescription("Spill in WindowOperator and TopNRowNumberOperator if spill-enabled is also set")
+    public FeaturesConfig setSpillWindowOperator(boolean spillWindowOperator)
+    {
+        this.spillWindowOperator = spillWindowOperator;
+        return this;
+    }
+
     public boolean isIterativeOptimizerEnabled()
     {
         return iterativeOptimizerEnabled;
@@ -677,6 +804,48 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getSpillCompressionCodec()
+    {
+        return spillCompressionCodec;
+    }
+
+    @Config("experimental.spill-compression-codec")
+    @ConfigDescription("Codec used to compress spilled pages")
+    public FeaturesConfig setSpillCompressionCodec(CompressionCodec spillCompressionCodec)
+    {
+        this.spillCompressionCodec = spillCompressionCodec;
+        return this;
+    }
+
+    @Min(1)
+    @Max(9)
+    public int getSpillCompressionLevel()
+    {
+        return spillCompressionLevel;
+    }
+
+    @Config("experimental.spill-compression-level")
+    @ConfigDescription("Compression level of the DEFLATE spill codec, from 1 (fastest) to 9 (smallest spill files)")
+    public FeaturesConfig setSpillCompressionLevel(int spillCompressionLevel)
+    {
+        this.spillCompressionLevel = spillCompressionLevel;
+        return this;
+    }
+
+    public boolean isSpillChecksumEnabled()
+    {
+        return spillChecksumEnabled;
+    }
+
+    @Config("experimental.spill-checksum-enabled")
+    @ConfigDescription("Verify a checksum of every spilled page when reading it back")
+    public FeaturesConfig setSpillChecksumEnabled(boolean spillChecksumEnabled)
+    {
+        this.spillChecksumEnabled = spillChecksumEnabled;
+        return this;
+    }
+
     public boolean isOptimizeMixedDistinctAggregations()
     {
         return optimizeMixedDistinctAggregations;
@@ -859,4 +1028,87 @@ public class FeaturesConfig
         this.legacyUnnestArrayRows = legacyUnnestArrayRows;
         return this;
     }
+
+    public boolean isDynamicFilteringEnabled()
+    {
+        return dynamicFilteringEnabled;
+    }
+
+    @Config("experimental.enable-dynamic-filtering")
+    public FeaturesConfig setDynamicFilteringEnabled(boolean dynamicFilteringEnabled)
+    {
+        this.dynamicFilteringEnabled = dynamicFilteringEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getDynamicFilteringMaxDistinctValues()
+    {
+        return dynamicFilteringMaxDistinctValues;
+    }
+
+    @Config("experimental.dynamic-filtering-max-distinct-values")
+    @ConfigDescription("Maximum number of distinct build side join key values collected per key before the dynamic filter falls back to a min/max range")
+    public FeaturesConfig setDynamicFilteringMaxDistinctValues(int dynamicFilteringMaxDistinctValues)
+    {
+        this.dynamicFilteringMaxDistinctValues = dynamicFilteringMaxDistinctValues;
+        return this;
+    }
+
+    @NotNull
+    @MaxDataSize("256MB")
+    public DataSize getDynamicFilteringBloomFilterSize()
+    {
+        return dynamicFilteringBloomFilterSize;
+    }
+
+    @Config("experimental.dynamic-filtering-bloom-filter-size")
+    @ConfigDescription("Size of the bloom filter built per join key when the build side has too many distinct values for an exact dynamic filter, or 0B to disable bloom filters")
+    public FeaturesConfig setDynamicFilteringBloomFilterSize(DataSize dynamicFilteringBloomFilterSize)
+    {
+        this.dynamicFilteringBloomFilterSize = dynamicFilteringBloomFilterSize;
+        return this;
+    }
+
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("experimental.adaptive-partial-aggregation")
+    @ConfigDescription("Switch partial aggregation to pass-through mode when it does not reduce the number of rows")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(0)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("experimental.adaptive-partial-aggregation-min-rows")
+    @ConfigDescription("Number of rows a partial aggregation must process before it can be switched to pass-through mode")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("experimental.adaptive-partial-aggregation-unique-rows-ratio-threshold")
+    @ConfigDescription("Ratio of output groups to input rows above which partial aggregation is switched to pass-through mode")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
 }
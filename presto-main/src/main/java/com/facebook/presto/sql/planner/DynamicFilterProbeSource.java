@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.operator.LocalDynamicFilter;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.Assignments;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.RemoteSourceNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Node producing the probe side join keys of a dynamic filter, found by following the keys
+ * down through filters and identity projections. A dynamic filter can only be applied to a
+ * table scan reached this way.
+ */
+final class DynamicFilterProbeSource
+{
+    private final PlanNode node;
+    // symbol produced by the node for every join key that could be followed, by position of the key
+    private final Map<Integer, Symbol> keySymbols;
+
+    private DynamicFilterProbeSource(PlanNode node, Map<Integer, Symbol> keySymbols)
+    {
+        this.node = requireNonNull(node, "node is null");
+        this.keySymbols = ImmutableMap.copyOf(requireNonNull(keySymbols, "keySymbols is null"));
+    }
+
+    public static DynamicFilterProbeSource trace(PlanNode probeNode, List<Symbol> probeSymbols)
+    {
+        Map<Integer, Symbol> keySymbols = new HashMap<>();
+        for (int i = 0; i < probeSymbols.size(); i++) {
+            keySymbols.put(i, probeSymbols.get(i));
+        }
+        return trace(probeNode, keySymbols);
+    }
+
+    private static DynamicFilterProbeSource trace(PlanNode probeNode, Map<Integer, Symbol> keySymbols)
+    {
+        PlanNode current = probeNode;
+        while (current instanceof FilterNode || current instanceof ProjectNode) {
+            if (current instanceof ProjectNode) {
+                Assignments assignments = ((ProjectNode) current).getAssignments();
+                for (Map.Entry<Integer, Symbol> entry : ImmutableList.copyOf(keySymbols.entrySet())) {
+                    Expression expression = assignments.get(entry.getValue());
+                    if (expression instanceof SymbolReference) {
+                        keySymbols.put(entry.getKey(), Symbol.from(expression));
+                    }
+                    else {
+                        keySymbols.remove(entry.getKey());
+                    }
+                }
+            }
+            current = current.getSources().get(0);
+        }
+        return new DynamicFilterProbeSource(current, keySymbols);
+    }
+
+    public PlanNode getNode()
+    {
+        return node;
+    }
+
+    public boolean isTableScan()
+    {
+        return node instanceof TableScanNode;
+    }
+
+    /**
+     * Continues following the keys produced by a remote source into the fragment producing its output.
+     */
+    public DynamicFilterProbeSource traceRemoteSource(PlanFragment sourceFragment)
+    {
+        checkState(node instanceof RemoteSourceNode, "Probe side is not a remote source");
+        // the outputs of the remote source are the outputs of the source fragment, in the same order
+        List<Symbol> outputs = node.getOutputSymbols();
+        List<Symbol> sourceOutputs = sourceFragment.getPartitioningScheme().getOutputLayout();
+        Map<Integer, Symbol> sourceKeySymbols = new HashMap<>();
+        keySymbols.forEach((key, symbol) -> sourceKeySymbols.put(key, sourceOutputs.get(outputs.indexOf(symbol))));
+        return trace(sourceFragment.getRoot(), sourceKeySymbols);
+    }
+
+    /**
+     * Returns the table scan column of every join key the dynamic filter can be applied to.
+     *
+     * @param keyTypes types of the build side join keys
+     */
+    public Map<Integer, ColumnHandle> getTableScanColumns(List<Type> keyTypes)
+    {
+        checkState(isTableScan(), "Probe side is not a table scan");
+        Map<Symbol, ColumnHandle> assignments = ((TableScanNode) node).getAssignments();
+
+        ImmutableMap.Builder<Integer, ColumnHandle> columns = ImmutableMap.builder();
+        Map<ColumnHandle, Integer> keys = new HashMap<>();
+        for (int i = 0; i < keyTypes.size(); i++) {
+            Symbol symbol = keySymbols.get(i);
+            if (symbol == null || !LocalDynamicFilter.isSupportedType(keyTypes.get(i))) {
+                continue;
+            }
+            ColumnHandle column = assignments.get(symbol);
+            if (column != null && keys.putIfAbsent(column, i) == null) {
+                columns.put(i, column);
+            }
+        }
+        return columns.build();
+    }
+}
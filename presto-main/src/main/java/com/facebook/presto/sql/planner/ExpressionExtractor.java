@@ -21,6 +21,7 @@ import com.facebook.presto.sql.planner.plan.FilterNode;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.ValuesNode;
 import com.facebook.presto.sql.tree.Expression;
 import com.google.common.collect.ImmutableList;
@@ -114,6 +115,13 @@ public class ExpressionExtractor
             return super.visitJoin(node, context);
         }
 
+        @Override
+        public Void visitSpatialJoin(SpatialJoinNode node, ImmutableList.Builder<Expression> context)
+        {
+            context.add(node.getFilter());
+            return super.visitSpatialJoin(node, context);
+        }
+
         @Override
         public Void visitValues(ValuesNode node, ImmutableList.Builder<Expression> context)
         {
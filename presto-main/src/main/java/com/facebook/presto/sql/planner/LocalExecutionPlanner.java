@@ -21,6 +21,8 @@ import com.facebook.presto.execution.StageId;
 import com.facebook.presto.execution.TaskManagerConfig;
 import com.facebook.presto.execution.buffer.OutputBuffer;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
+import com.facebook.presto.geospatial.KdbTreeUtils;
+import com.facebook.presto.geospatial.Rectangle;
 import com.facebook.presto.index.IndexManager;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.Signature;
@@ -29,6 +31,7 @@ import com.facebook.presto.operator.AssignUniqueIdOperator;
 import com.facebook.presto.operator.DeleteOperator.DeleteOperatorFactory;
 import com.facebook.presto.operator.DevNullOperator.DevNullOperatorFactory;
 import com.facebook.presto.operator.DriverFactory;
+import com.facebook.presto.operator.DynamicFilter;
 import com.facebook.presto.operator.EnforceSingleRowOperator;
 import com.facebook.presto.operator.ExchangeClientSupplier;
 import com.facebook.presto.operator.ExchangeOperator.ExchangeOperatorFactory;
@@ -41,6 +44,7 @@ import com.facebook.presto.operator.HashSemiJoinOperator.HashSemiJoinOperatorFac
 import com.facebook.presto.operator.JoinBridgeDataManager;
 import com.facebook.presto.operator.JoinOperatorFactory;
 import com.facebook.presto.operator.LimitOperator.LimitOperatorFactory;
+import com.facebook.presto.operator.LocalDynamicFilter;
 import com.facebook.presto.operator.LocalPlannerAware;
 import com.facebook.presto.operator.LookupJoinOperators;
 import com.facebook.presto.operator.LookupOuterOperator.LookupOuterOperatorFactory;
@@ -55,10 +59,12 @@ import com.facebook.presto.operator.OrderByOperator.OrderByOperatorFactory;
 import com.facebook.presto.operator.OutputFactory;
 import com.facebook.presto.operator.PagesIndex;
 import com.facebook.presto.operator.PagesSpatialIndexFactory;
+import com.facebook.presto.operator.PartialAggregationController;
 import com.facebook.presto.operator.PartitionFunction;
 import com.facebook.presto.operator.PartitionedLookupSourceFactory;
 import com.facebook.presto.operator.PartitionedOutputOperator.PartitionedOutputFactory;
 import com.facebook.presto.operator.PipelineExecutionStrategy;
+import com.facebook.presto.operator.ReplicatedBuildSizeTracker;
 import com.facebook.presto.operator.RowNumberOperator;
 import com.facebook.presto.operator.ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory;
 import com.facebook.presto.operator.SetBuilderOperator.SetBuilderOperatorFactory;
@@ -71,6 +77,7 @@ import com.facebook.presto.operator.StageExecutionStrategy;
 import com.facebook.presto.operator.StreamingAggregationOperator.StreamingAggregationOperatorFactory;
 import com.facebook.presto.operator.TableScanOperator.TableScanOperatorFactory;
 import com.facebook.presto.operator.TaskContext;
+import com.facebook.presto.operator.TaskDynamicFilters;
 import com.facebook.presto.operator.TaskOutputOperator.TaskOutputFactory;
 import com.facebook.presto.operator.TopNOperator.TopNOperatorFactory;
 import com.facebook.presto.operator.TopNRowNumberOperator;
@@ -146,6 +153,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.StatisticAggregationsDescriptor;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
@@ -191,6 +199,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -204,13 +213,24 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.facebook.presto.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static com.facebook.presto.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
 import static com.facebook.presto.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static com.facebook.presto.SystemSessionProperties.getDynamicFilteringBloomFilterSize;
+import static com.facebook.presto.SystemSessionProperties.getDynamicFilteringMaxDistinctValues;
 import static com.facebook.presto.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static com.facebook.presto.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
+import static com.facebook.presto.SystemSessionProperties.getJoinDistributionType;
+import static com.facebook.presto.SystemSessionProperties.getJoinMaxBroadcastTableSize;
 import static com.facebook.presto.SystemSessionProperties.getTaskConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskWriterCount;
+import static com.facebook.presto.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
+import static com.facebook.presto.SystemSessionProperties.isDynamicFilteringEnabled;
+import static com.facebook.presto.SystemSessionProperties.isEnforceBroadcastJoinSizeLimit;
 import static com.facebook.presto.SystemSessionProperties.isExchangeCompressionEnabled;
 import static com.facebook.presto.SystemSessionProperties.isSpillEnabled;
+import static com.facebook.presto.SystemSessionProperties.isSpillOrderBy;
+import static com.facebook.presto.SystemSessionProperties.isSpillWindowOperator;
 import static com.facebook.presto.metadata.FunctionKind.SCALAR;
 import static com.facebook.presto.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
 import static com.facebook.presto.operator.NestedLoopBuildOperator.NestedLoopBuildOperatorFactory;
@@ -227,18 +247,23 @@ import static com.facebook.presto.operator.WindowFunctionDefinition.window;
 import static com.facebook.presto.spi.StandardErrorCode.COMPILER_ERROR;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.TypeUtils.writeNativeValue;
+import static com.facebook.presto.sql.ExpressionUtils.extractConjuncts;
 import static com.facebook.presto.sql.analyzer.ExpressionAnalyzer.getExpressionTypes;
 import static com.facebook.presto.sql.analyzer.ExpressionAnalyzer.getExpressionTypesFromInput;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
 import static com.facebook.presto.sql.planner.ExpressionNodeInliner.replaceExpression;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.FINAL;
 import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.PARTIAL;
 import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.LOCAL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.CreateHandle;
 import static com.facebook.presto.sql.planner.plan.TableWriterNode.InsertHandle;
@@ -354,6 +379,7 @@ public class LocalExecutionPlanner
             PartitioningScheme partitioningScheme,
             StageExecutionStrategy stageExecutionStrategy,
             List<PlanNodeId> partitionedSourceOrder,
+            List<RemoteDynamicFilter> remoteDynamicFilters,
             OutputBuffer outputBuffer)
     {
         List<Symbol> outputLayout = partitioningScheme.getOutputLayout();
@@ -363,7 +389,7 @@ public class LocalExecutionPlanner
                 partitioningScheme.getPartitioning().getHandle().equals(SCALED_WRITER_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(SINGLE_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(COORDINATOR_DISTRIBUTION)) {
-            return plan(taskContext, stageExecutionStrategy, plan, outputLayout, types, partitionedSourceOrder, new TaskOutputFactory(outputBuffer));
+            return plan(taskContext, stageExecutionStrategy, plan, outputLayout, types, partitionedSourceOrder, remoteDynamicFilters, new TaskOutputFactory(outputBuffer));
         }
 
         // We can convert the symbols directly into channels, because the root must be a sink and therefore the layout is fixed
@@ -415,6 +441,7 @@ public class LocalExecutionPlanner
                 outputLayout,
                 types,
                 partitionedSourceOrder,
+                remoteDynamicFilters,
                 new PartitionedOutputFactory(
                         partitionFunction,
                         partitionChannels,
@@ -432,12 +459,35 @@ public class LocalExecutionPlanner
             List<Symbol> outputLayout,
             TypeProvider types,
             List<PlanNodeId> partitionedSourceOrder,
+            List<RemoteDynamicFilter> remoteDynamicFilters,
             OutputFactory outputOperatorFactory)
     {
         Session session = taskContext.getSession();
         LocalExecutionPlanContext context = new LocalExecutionPlanContext(taskContext, types);
 
-        PhysicalOperation physicalOperation = plan.accept(new Visitor(session, stageExecutionStrategy), context);
+        // the filters produced by joins of other stages for the table scans of this plan are completed
+        // by the coordinator, and the filters produced by the joins of this plan are published to it
+        Set<PlanNodeId> tableScanIds = searchFrom(plan)
+                .where(TableScanNode.class::isInstance)
+                .findAll().stream()
+                .map(PlanNode::getId)
+                .collect(toImmutableSet());
+        ImmutableMap.Builder<PlanNodeId, RemoteDynamicFilter> producedDynamicFilters = ImmutableMap.builder();
+        for (RemoteDynamicFilter remoteDynamicFilter : remoteDynamicFilters) {
+            if (tableScanIds.contains(remoteDynamicFilter.getTableScanNodeId())) {
+                LocalDynamicFilter dynamicFilter = new LocalDynamicFilter(
+                        remoteDynamicFilter.getKeyTypes(),
+                        getDynamicFilteringMaxDistinctValues(session),
+                        getDynamicFilteringBloomFilterSize(session).toBytes());
+                taskContext.getDynamicFilters().addRemoteFilter(remoteDynamicFilter.getJoinNodeId(), dynamicFilter);
+                context.addDynamicFilter(remoteDynamicFilter.getTableScanNodeId(), DynamicFilter.create(dynamicFilter, remoteDynamicFilter.getColumns()));
+            }
+            else {
+                producedDynamicFilters.put(remoteDynamicFilter.getJoinNodeId(), remoteDynamicFilter);
+            }
+        }
+
+        PhysicalOperation physicalOperation = plan.accept(new Visitor(session, stageExecutionStrategy, producedDynamicFilters.build()), context);
 
         Function<Page, Page> pagePreprocessor = enforceLayoutProcessor(outputLayout, physicalOperation.getLayout());
 
@@ -512,6 +562,7 @@ public class LocalExecutionPlanner
 
         // this is shared with all subContexts
         private final AtomicInteger nextPipelineId;
+        private final Map<PlanNodeId, DynamicFilter> dynamicFilters;
 
         private int nextOperatorId;
         private boolean inputDriver = true;
@@ -519,7 +570,7 @@ public class LocalExecutionPlanner
 
         public LocalExecutionPlanContext(TaskContext taskContext, TypeProvider types)
         {
-            this(taskContext, types, new ArrayList<>(), Optional.empty(), new AtomicInteger(0));
+            this(taskContext, types, new ArrayList<>(), Optional.empty(), new AtomicInteger(0), new HashMap<>());
         }
 
         private LocalExecutionPlanContext(
@@ -527,13 +578,15 @@ public class LocalExecutionPlanner
                 TypeProvider types,
                 List<DriverFactory> driverFactories,
                 Optional<IndexSourceContext> indexSourceContext,
-                AtomicInteger nextPipelineId)
+                AtomicInteger nextPipelineId,
+                Map<PlanNodeId, DynamicFilter> dynamicFilters)
         {
             this.taskContext = taskContext;
             this.types = types;
             this.driverFactories = driverFactories;
             this.indexSourceContext = indexSourceContext;
             this.nextPipelineId = nextPipelineId;
+            this.dynamicFilters = dynamicFilters;
         }
 
         public void addDriverFactory(boolean inputDriver, boolean outputDriver, List<OperatorFactory> operatorFactories, OptionalInt driverInstances, PipelineExecutionStrategy pipelineExecutionStrategy)
@@ -565,6 +618,11 @@ public class LocalExecutionPlanner
             return taskContext.getTaskId().getStageId();
         }
 
+        public TaskDynamicFilters getTaskDynamicFilters()
+        {
+            return taskContext.getDynamicFilters();
+        }
+
         public TypeProvider getTypes()
         {
             return types;
@@ -598,12 +656,27 @@ public class LocalExecutionPlanner
         public LocalExecutionPlanContext createSubContext()
         {
             checkState(!indexSourceContext.isPresent(), "index build plan can not have sub-contexts");
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, indexSourceContext, nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, driverFactories, indexSourceContext, nextPipelineId, dynamicFilters);
         }
 
         public LocalExecutionPlanContext createIndexSourceSubContext(IndexSourceContext indexSourceContext)
         {
-            return new LocalExecutionPlanContext(taskContext, types, driverFactories, Optional.of(indexSourceContext), nextPipelineId);
+            return new LocalExecutionPlanContext(taskContext, types, driverFactories, Optional.of(indexSourceContext), nextPipelineId, dynamicFilters);
+        }
+
+        public void addDynamicFilter(PlanNodeId tableScanId, DynamicFilter dynamicFilter)
+        {
+            checkState(dynamicFilters.putIfAbsent(tableScanId, dynamicFilter) == null, "Dynamic filter for table scan %s is already registered", tableScanId);
+        }
+
+        public boolean hasDynamicFilter(PlanNodeId tableScanId)
+        {
+            return dynamicFilters.containsKey(tableScanId);
+        }
+
+        public Optional<DynamicFilter> getDynamicFilter(PlanNodeId tableScanId)
+        {
+            return Optional.ofNullable(dynamicFilters.get(tableScanId));
         }
 
         public OptionalInt getDriverInstanceCount()
@@ -670,11 +743,16 @@ public class LocalExecutionPlanner
     {
         private final Session session;
         private final StageExecutionStrategy stageExecutionStrategy;
+        // semi joins whose output is a conjunct of the filter directly above them
+        private final Set<PlanNodeId> filteringSemiJoins = new HashSet<>();
+        // filters of the joins whose probe side is scanned by another stage, by join id
+        private final Map<PlanNodeId, RemoteDynamicFilter> remoteDynamicFilters;
 
-        private Visitor(Session session, StageExecutionStrategy stageExecutionStrategy)
+        private Visitor(Session session, StageExecutionStrategy stageExecutionStrategy, Map<PlanNodeId, RemoteDynamicFilter> remoteDynamicFilters)
         {
             this.session = session;
             this.stageExecutionStrategy = stageExecutionStrategy;
+            this.remoteDynamicFilters = remoteDynamicFilters;
         }
 
         @Override
@@ -845,7 +923,9 @@ public class LocalExecutionPlanner
                     node.isPartial(),
                     hashChannel,
                     1000,
-                    joinCompiler);
+                    joinCompiler,
+                    isSpillEnabled(context.getSession()) && isSpillWindowOperator(context.getSession()),
+                    partitioningSpillerFactory);
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, source);
         }
@@ -930,7 +1010,10 @@ public class LocalExecutionPlanner
                     sortOrder,
                     node.getPreSortedOrderPrefix(),
                     10_000,
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    isSpillEnabled(context.getSession()) && isSpillWindowOperator(context.getSession()),
+                    Optional.of(spillerFactory),
+                    orderingCompiler);
 
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, source);
         }
@@ -987,7 +1070,10 @@ public class LocalExecutionPlanner
                     10_000,
                     orderByChannels,
                     sortOrder.build(),
-                    pagesIndexFactory);
+                    pagesIndexFactory,
+                    isSpillEnabled(context.getSession()) && isSpillOrderBy(context.getSession()),
+                    Optional.of(spillerFactory),
+                    orderingCompiler);
 
             return new PhysicalOperation(operator, source.getLayout(), context, source);
         }
@@ -1173,6 +1259,13 @@ public class LocalExecutionPlanner
                 }
             }
             else {
+                if (sourceNode instanceof SemiJoinNode && filterExpression.isPresent()) {
+                    SemiJoinNode semiJoin = (SemiJoinNode) sourceNode;
+                    if (extractConjuncts(filterExpression.get()).contains(semiJoin.getSemiJoinOutput().toSymbolReference())) {
+                        filteringSemiJoins.add(semiJoin.getId());
+                    }
+                }
+
                 // plan source
                 source = sourceNode.accept(this, context);
                 sourceLayout = source.getLayout();
@@ -1224,7 +1317,8 @@ public class LocalExecutionPlanner
                             columns,
                             getTypes(rewrittenProjections, expressionTypes),
                             getFilterAndProjectMinOutputPageSize(session),
-                            getFilterAndProjectMinOutputPageRowCount(session));
+                            getFilterAndProjectMinOutputPageRowCount(session),
+                            context.getDynamicFilter(sourceNode.getId()));
 
                     return new PhysicalOperation(operatorFactory, outputMappings, context, stageExecutionStrategy.isGroupedExecution(sourceNode.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
                 }
@@ -1270,7 +1364,7 @@ public class LocalExecutionPlanner
                 columns.add(node.getAssignments().get(symbol));
             }
 
-            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, columns);
+            OperatorFactory operatorFactory = new TableScanOperatorFactory(context.getNextOperatorId(), node.getId(), pageSourceProvider, columns, context.getDynamicFilter(node.getId()));
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, stageExecutionStrategy.isGroupedExecution(node.getId()) ? GROUPED_EXECUTION : UNGROUPED_EXECUTION);
         }
 
@@ -1567,7 +1661,8 @@ public class LocalExecutionPlanner
         public PhysicalOperation visitJoin(JoinNode node, LocalExecutionPlanContext context)
         {
             if (node.isSpatialJoin()) {
-                return createSpatialJoin(node, context);
+                verify(node.getFilter().isPresent() && node.getCriteria().isEmpty());
+                return createSpatialJoin(node, node.getType(), node.getLeft(), node.getRight(), node.getFilter().get(), Optional.empty(), Optional.empty(), ImmutableMap.of(), context);
             }
 
             if (node.isCrossJoin()) {
@@ -1589,13 +1684,37 @@ public class LocalExecutionPlanner
             }
         }
 
-        private PhysicalOperation createSpatialJoin(JoinNode node, LocalExecutionPlanContext context)
+        @Override
+        public PhysicalOperation visitSpatialJoin(SpatialJoinNode node, LocalExecutionPlanContext context)
+        {
+            Map<Integer, Rectangle> partitions = KdbTreeUtils.fromJson(node.getKdbTree()).getLeaves();
+            return createSpatialJoin(
+                    node,
+                    INNER,
+                    node.getLeft(),
+                    node.getRight(),
+                    node.getFilter(),
+                    Optional.of(node.getLeftPartitionSymbol()),
+                    Optional.of(node.getRightPartitionSymbol()),
+                    partitions,
+                    context);
+        }
+
+        private PhysicalOperation createSpatialJoin(
+                PlanNode node,
+                JoinNode.Type joinType,
+                PlanNode probeNode,
+                PlanNode buildNode,
+                Expression filterExpression,
+                Optional<Symbol> probePartitionSymbol,
+                Optional<Symbol> buildPartitionSymbol,
+                Map<Integer, Rectangle> partitions,
+                LocalExecutionPlanContext context)
         {
-            verify(node.getFilter().isPresent() && node.getCriteria().isEmpty());
-            Expression filterExpression = node.getFilter().get();
+            SpatialJoin join = new SpatialJoin(node, joinType, probeNode, buildNode, probePartitionSymbol, buildPartitionSymbol, partitions);
             List<FunctionCall> spatialFunctions = extractSupportedSpatialFunctions(filterExpression);
             for (FunctionCall spatialFunction : spatialFunctions) {
-                Optional<PhysicalOperation> operation = tryCreateSpatialJoin(context, node, removeExpressionFromFilter(filterExpression, spatialFunction), spatialFunction, Optional.empty(), Optional.empty());
+                Optional<PhysicalOperation> operation = tryCreateSpatialJoin(context, join, removeExpressionFromFilter(filterExpression, spatialFunction), spatialFunction, Optional.empty(), Optional.empty());
                 if (operation.isPresent()) {
                     return operation.get();
                 }
@@ -1606,9 +1725,9 @@ public class LocalExecutionPlanner
                 if (spatialComparison.getOperator() == LESS_THAN || spatialComparison.getOperator() == LESS_THAN_OR_EQUAL) {
                     // ST_Distance(a, b) <= r
                     Expression radius = spatialComparison.getRight();
-                    if (radius instanceof SymbolReference && getSymbolReferences(node.getRight().getOutputSymbols()).contains(radius)) {
+                    if (radius instanceof SymbolReference && getSymbolReferences(buildNode.getOutputSymbols()).contains(radius)) {
                         FunctionCall spatialFunction = (FunctionCall) spatialComparison.getLeft();
-                        Optional<PhysicalOperation> operation = tryCreateSpatialJoin(context, node, removeExpressionFromFilter(filterExpression, spatialComparison), spatialFunction, Optional.of(radius), Optional.of(spatialComparison.getOperator()));
+                        Optional<PhysicalOperation> operation = tryCreateSpatialJoin(context, join, removeExpressionFromFilter(filterExpression, spatialComparison), spatialFunction, Optional.of(radius), Optional.of(spatialComparison.getOperator()));
                         if (operation.isPresent()) {
                             return operation.get();
                         }
@@ -1621,7 +1740,7 @@ public class LocalExecutionPlanner
 
         private Optional<PhysicalOperation> tryCreateSpatialJoin(
                 LocalExecutionPlanContext context,
-                JoinNode node,
+                SpatialJoin join,
                 Optional<Expression> filterExpression,
                 FunctionCall spatialFunction,
                 Optional<Expression> radius,
@@ -1637,15 +1756,15 @@ public class LocalExecutionPlanner
             SymbolReference firstSymbol = (SymbolReference) arguments.get(0);
             SymbolReference secondSymbol = (SymbolReference) arguments.get(1);
 
-            PlanNode probeNode = node.getLeft();
+            PlanNode probeNode = join.getProbeNode();
             Set<SymbolReference> probeSymbols = getSymbolReferences(probeNode.getOutputSymbols());
 
-            PlanNode buildNode = node.getRight();
+            PlanNode buildNode = join.getBuildNode();
             Set<SymbolReference> buildSymbols = getSymbolReferences(buildNode.getOutputSymbols());
 
             if (probeSymbols.contains(firstSymbol) && buildSymbols.contains(secondSymbol)) {
                 return Optional.of(createSpatialLookupJoin(
-                        node,
+                        join,
                         probeNode,
                         Symbol.from(firstSymbol),
                         buildNode,
@@ -1657,7 +1776,7 @@ public class LocalExecutionPlanner
             }
             else if (probeSymbols.contains(secondSymbol) && buildSymbols.contains(firstSymbol)) {
                 return Optional.of(createSpatialLookupJoin(
-                        node,
+                        join,
                         probeNode,
                         Symbol.from(secondSymbol),
                         buildNode,
@@ -1755,7 +1874,7 @@ public class LocalExecutionPlanner
         }
 
         private PhysicalOperation createSpatialLookupJoin(
-                JoinNode node,
+                SpatialJoin join,
                 PlanNode probeNode,
                 Symbol probeSymbol,
                 PlanNode buildNode,
@@ -1769,7 +1888,7 @@ public class LocalExecutionPlanner
             PhysicalOperation probeSource = probeNode.accept(this, context);
 
             // Plan build
-            PagesSpatialIndexFactory pagesSpatialIndexFactory = createPagesSpatialIndexFactory(node,
+            PagesSpatialIndexFactory pagesSpatialIndexFactory = createPagesSpatialIndexFactory(join,
                     buildNode,
                     buildSymbol,
                     radiusSymbol,
@@ -1778,10 +1897,10 @@ public class LocalExecutionPlanner
                     joinFilter,
                     context);
 
-            OperatorFactory operator = createSpatialLookupJoin(node, probeNode, probeSource, probeSymbol, pagesSpatialIndexFactory, context);
+            OperatorFactory operator = createSpatialLookupJoin(join, probeNode, probeSource, probeSymbol, pagesSpatialIndexFactory, context);
 
             ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
-            List<Symbol> outputSymbols = node.getOutputSymbols();
+            List<Symbol> outputSymbols = join.getNode().getOutputSymbols();
             for (int i = 0; i < outputSymbols.size(); i++) {
                 Symbol symbol = outputSymbols.get(i);
                 outputMappings.put(symbol, i);
@@ -1790,7 +1909,7 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operator, outputMappings.build(), context, probeSource);
         }
 
-        private OperatorFactory createSpatialLookupJoin(JoinNode node,
+        private OperatorFactory createSpatialLookupJoin(SpatialJoin join,
                 PlanNode probeNode,
                 PhysicalOperation probeSource,
                 Symbol probeSymbol,
@@ -1798,24 +1917,27 @@ public class LocalExecutionPlanner
                 LocalExecutionPlanContext context)
         {
             List<Type> probeTypes = probeSource.getTypes();
-            List<Symbol> probeOutputSymbols = node.getOutputSymbols().stream()
+            List<Symbol> probeOutputSymbols = join.getNode().getOutputSymbols().stream()
                     .filter(symbol -> probeNode.getOutputSymbols().contains(symbol))
                     .collect(toImmutableList());
             List<Integer> probeOutputChannels = ImmutableList.copyOf(getChannelsForSymbols(probeOutputSymbols, probeSource.getLayout()));
-            Integer probeChannel = channelGetter(probeSource).apply(probeSymbol);
+            Function<Symbol, Integer> probeChannelGetter = channelGetter(probeSource);
+            Integer probeChannel = probeChannelGetter.apply(probeSymbol);
+            Optional<Integer> partitionChannel = join.getProbePartitionSymbol().map(probeChannelGetter);
 
             return new SpatialJoinOperatorFactory(
                     context.getNextOperatorId(),
-                    node.getId(),
-                    node.getType(),
+                    join.getNode().getId(),
+                    join.getJoinType(),
                     probeTypes,
                     probeOutputChannels,
                     probeChannel,
+                    partitionChannel,
                     pagesSpatialIndexFactory);
         }
 
         private PagesSpatialIndexFactory createPagesSpatialIndexFactory(
-                JoinNode node,
+                SpatialJoin join,
                 PlanNode buildNode,
                 Symbol buildSymbol,
                 Optional<Symbol> radiusSymbol,
@@ -1826,7 +1948,7 @@ public class LocalExecutionPlanner
         {
             LocalExecutionPlanContext buildContext = context.createSubContext();
             PhysicalOperation buildSource = buildNode.accept(this, buildContext);
-            List<Symbol> buildOutputSymbols = node.getOutputSymbols().stream()
+            List<Symbol> buildOutputSymbols = join.getNode().getOutputSymbols().stream()
                     .filter(symbol -> buildNode.getOutputSymbols().contains(symbol))
                     .collect(toImmutableList());
             Map<Symbol, Integer> buildLayout = buildSource.getLayout();
@@ -1834,6 +1956,7 @@ public class LocalExecutionPlanner
             Function<Symbol, Integer> buildChannelGetter = channelGetter(buildSource);
             Integer buildChannel = buildChannelGetter.apply(buildSymbol);
             Optional<Integer> radiusChannel = radiusSymbol.map(buildChannelGetter::apply);
+            Optional<Integer> partitionChannel = join.getBuildPartitionSymbol().map(buildChannelGetter);
 
             Optional<JoinFilterFunctionFactory> filterFunctionFactory = joinFilter
                     .map(filterExpression -> compileJoinFilterFunction(
@@ -1845,11 +1968,13 @@ public class LocalExecutionPlanner
 
             SpatialIndexBuilderOperatorFactory builderOperatorFactory = new SpatialIndexBuilderOperatorFactory(
                     buildContext.getNextOperatorId(),
-                    node.getId(),
+                    join.getNode().getId(),
                     buildSource.getTypes(),
                     buildOutputChannels,
                     buildChannel,
                     radiusChannel,
+                    partitionChannel,
+                    join.getPartitions(),
                     spatialRelationshipTest,
                     filterFunctionFactory,
                     10_000,
@@ -1877,12 +2002,14 @@ public class LocalExecutionPlanner
                 Optional<Symbol> buildHashSymbol,
                 LocalExecutionPlanContext context)
         {
+            Optional<LocalDynamicFilter> dynamicFilter = createDynamicFilter(node, probeNode, probeSymbols, buildSymbols, context);
+
             // Plan probe
             PhysicalOperation probeSource = probeNode.accept(this, context);
 
             // Plan build
             JoinBridgeDataManager<LookupSourceFactory> lookupSourceFactory =
-                    createLookupSourceFactory(node, buildNode, buildSymbols, buildHashSymbol, probeSource, context);
+                    createLookupSourceFactory(node, buildNode, buildSymbols, buildHashSymbol, probeSource, dynamicFilter, context);
 
             OperatorFactory operator = createLookupJoin(node, probeSource, probeSymbols, probeHashSymbol, lookupSourceFactory, context);
 
@@ -1896,12 +2023,89 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operator, outputMappings.build(), context, probeSource);
         }
 
+        /**
+         * Registers a dynamic filter for the table scan feeding the probe side of the join, if the
+         * probe side is a (possibly filtered and projected) table scan planned in the same pipeline.
+         */
+        private Optional<LocalDynamicFilter> createDynamicFilter(
+                JoinNode node,
+                PlanNode probeNode,
+                List<Symbol> probeSymbols,
+                List<Symbol> buildSymbols,
+                LocalExecutionPlanContext context)
+        {
+            // only joins which drop the probe rows without a match can be filtered
+            if (!isDynamicFilteringEnabled(session) || (node.getType() != INNER && node.getType() != RIGHT) || probeSymbols.isEmpty()) {
+                return Optional.empty();
+            }
+            RemoteDynamicFilter remoteDynamicFilter = remoteDynamicFilters.get(node.getId());
+            if (remoteDynamicFilter != null) {
+                return Optional.of(createRemoteDynamicFilter(remoteDynamicFilter, context));
+            }
+            return createDynamicFilter(probeNode, probeSymbols, buildSymbols, context);
+        }
+
+        /**
+         * Registers a dynamic filter for the table scan feeding the source side of a semi join whose
+         * output is only used to filter the source rows, as in {@code WHERE x IN (SELECT ...)}.
+         */
+        private Optional<LocalDynamicFilter> createDynamicFilter(SemiJoinNode node, LocalExecutionPlanContext context)
+        {
+            if (!isDynamicFilteringEnabled(session) || !filteringSemiJoins.contains(node.getId())) {
+                return Optional.empty();
+            }
+            return createDynamicFilter(node.getSource(), ImmutableList.of(node.getSourceJoinSymbol()), ImmutableList.of(node.getFilteringSourceJoinSymbol()), context);
+        }
+
+        private Optional<LocalDynamicFilter> createDynamicFilter(
+                PlanNode probeNode,
+                List<Symbol> probeSymbols,
+                List<Symbol> buildSymbols,
+                LocalExecutionPlanContext context)
+        {
+            DynamicFilterProbeSource probeSource = DynamicFilterProbeSource.trace(probeNode, probeSymbols);
+            PlanNodeId tableScanId = probeSource.getNode().getId();
+            if (!probeSource.isTableScan() || stageExecutionStrategy.isGroupedExecution(tableScanId) || context.hasDynamicFilter(tableScanId)) {
+                return Optional.empty();
+            }
+
+            List<Type> keyTypes = buildSymbols.stream()
+                    .map(context.getTypes()::get)
+                    .collect(toImmutableList());
+            Map<Integer, ColumnHandle> joinKeyColumns = probeSource.getTableScanColumns(keyTypes);
+            if (joinKeyColumns.isEmpty()) {
+                return Optional.empty();
+            }
+
+            LocalDynamicFilter dynamicFilter = new LocalDynamicFilter(
+                    keyTypes,
+                    getDynamicFilteringMaxDistinctValues(session),
+                    getDynamicFilteringBloomFilterSize(session).toBytes());
+            context.addDynamicFilter(tableScanId, DynamicFilter.create(dynamicFilter, joinKeyColumns));
+            return Optional.of(dynamicFilter);
+        }
+
+        /**
+         * Creates the dynamic filter of a join whose probe side is scanned by another stage, and
+         * publishes it to the coordinator once all the build partitions of the task have finished.
+         */
+        private LocalDynamicFilter createRemoteDynamicFilter(RemoteDynamicFilter remoteDynamicFilter, LocalExecutionPlanContext context)
+        {
+            LocalDynamicFilter dynamicFilter = new LocalDynamicFilter(
+                    remoteDynamicFilter.getKeyTypes(),
+                    getDynamicFilteringMaxDistinctValues(session),
+                    getDynamicFilteringBloomFilterSize(session).toBytes());
+            context.getTaskDynamicFilters().addSource(remoteDynamicFilter.getJoinNodeId(), dynamicFilter);
+            return dynamicFilter;
+        }
+
         private JoinBridgeDataManager<LookupSourceFactory> createLookupSourceFactory(
                 JoinNode node,
                 PlanNode buildNode,
                 List<Symbol> buildSymbols,
                 Optional<Symbol> buildHashSymbol,
                 PhysicalOperation probeSource,
+                Optional<LocalDynamicFilter> dynamicFilter,
                 LocalExecutionPlanContext context)
         {
             LocalExecutionPlanContext buildContext = context.createSubContext();
@@ -1924,6 +2128,7 @@ public class LocalExecutionPlanner
             boolean spillEnabled = isSpillEnabled(context.getSession());
             boolean buildOuter = node.getType() == RIGHT || node.getType() == FULL;
             int partitionCount = buildContext.getDriverInstanceCount().orElse(1);
+            dynamicFilter.ifPresent(filter -> filter.setPartitionCount(partitionCount));
 
             Optional<JoinFilterFunctionFactory> filterFunctionFactory = node.getFilter()
                     .map(filterExpression -> compileJoinFilterFunction(
@@ -1983,7 +2188,9 @@ public class LocalExecutionPlanner
                     10_000,
                     pagesIndexFactory,
                     spillEnabled && !buildOuter && partitionCount > 1,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    dynamicFilter,
+                    createReplicatedBuildSizeTracker(node, context.getSession()));
 
             context.addDriverFactory(
                     buildContext.isInputDriver(),
@@ -1998,6 +2205,23 @@ public class LocalExecutionPlanner
             return lookupSourceFactoryManager;
         }
 
+        /**
+         * Returns the tracker for the build side of the join, if the join is broadcast
+         * because the planner estimated the build side to fit within the broadcast limit.
+         */
+        private Optional<ReplicatedBuildSizeTracker> createReplicatedBuildSizeTracker(JoinNode node, Session session)
+        {
+            DataSize maxBroadcastTableSize = getJoinMaxBroadcastTableSize(session);
+            if (node.getDistributionType().orElse(null) != REPLICATED
+                    || node.getCriteria().isEmpty()
+                    || getJoinDistributionType(session) != AUTOMATIC
+                    || maxBroadcastTableSize.toBytes() == 0) {
+                // joins without criteria can only be broadcast
+                return Optional.empty();
+            }
+            return Optional.of(new ReplicatedBuildSizeTracker(maxBroadcastTableSize, isEnforceBroadcastJoinSizeLimit(session)));
+        }
+
         private JoinFilterFunctionFactory compileJoinFilterFunction(
                 Expression filterExpression,
                 Map<Symbol, Integer> probeLayout,
@@ -2088,6 +2312,8 @@ public class LocalExecutionPlanner
         @Override
         public PhysicalOperation visitSemiJoin(SemiJoinNode node, LocalExecutionPlanContext context)
         {
+            Optional<LocalDynamicFilter> dynamicFilter = createDynamicFilter(node, context);
+
             // Plan probe
             PhysicalOperation probeSource = node.getSource().accept(this, context);
 
@@ -2096,6 +2322,7 @@ public class LocalExecutionPlanner
             PhysicalOperation buildSource = node.getFilteringSource().accept(this, buildContext);
             checkState(buildSource.getPipelineExecutionStrategy() == probeSource.getPipelineExecutionStrategy(), "build and probe have different pipelineExecutionStrategy");
             checkArgument(buildContext.getDriverInstanceCount().orElse(1) == 1, "Expected local execution to not be parallel");
+            dynamicFilter.ifPresent(filter -> filter.setPartitionCount(1));
 
             int probeChannel = probeSource.getLayout().get(node.getSourceJoinSymbol());
             int buildChannel = buildSource.getLayout().get(node.getFilteringSourceJoinSymbol());
@@ -2109,7 +2336,8 @@ public class LocalExecutionPlanner
                     buildChannel,
                     buildHashChannel,
                     10_000,
-                    joinCompiler);
+                    joinCompiler,
+                    dynamicFilter);
             SetSupplier setProvider = setBuilderOperatorFactory.getSetProvider();
             context.addDriverFactory(
                     buildContext.isInputDriver(),
@@ -2174,6 +2402,7 @@ public class LocalExecutionPlanner
                         false,
                         false,
                         new DataSize(0, BYTE),
+                        false,
                         context,
                         2,
                         outputMapping);
@@ -2228,6 +2457,7 @@ public class LocalExecutionPlanner
                         false,
                         false,
                         new DataSize(0, BYTE),
+                        false,
                         context,
                         0,
                         outputMapping);
@@ -2544,6 +2774,7 @@ public class LocalExecutionPlanner
                     spillEnabled,
                     node.isStreamable(),
                     unspillMemoryLimit,
+                    isAdaptivePartialAggregationEnabled(context.getSession()),
                     context,
                     0,
                     mappings);
@@ -2563,6 +2794,7 @@ public class LocalExecutionPlanner
                 boolean spillEnabled,
                 boolean isStreamable,
                 DataSize unspillMemoryLimit,
+                boolean adaptivePartialAggregationEnabled,
                 LocalExecutionPlanContext context,
                 int startOutputChannel,
                 ImmutableMap.Builder<Symbol, Integer> outputMappings)
@@ -2617,6 +2849,12 @@ public class LocalExecutionPlanner
             }
             else {
                 Optional<Integer> hashChannel = hashSymbol.map(channelGetter(source));
+                Optional<PartialAggregationController> partialAggregationController = Optional.empty();
+                if (adaptivePartialAggregationEnabled && step == PARTIAL && accumulatorFactories.stream().noneMatch(factory -> factory.hasOrderBy() || factory.hasDistinct())) {
+                    partialAggregationController = Optional.of(new PartialAggregationController(
+                            getAdaptivePartialAggregationMinRows(context.getSession()),
+                            getAdaptivePartialAggregationUniqueRowsRatioThreshold(context.getSession())));
+                }
                 return new HashAggregationOperatorFactory(
                         context.getNextOperatorId(),
                         planNodeId,
@@ -2633,7 +2871,8 @@ public class LocalExecutionPlanner
                         spillEnabled,
                         unspillMemoryLimit,
                         spillerFactory,
-                        joinCompiler);
+                        joinCompiler,
+                        partialAggregationController);
             }
         }
     }
@@ -2804,4 +3043,68 @@ public class LocalExecutionPlanner
             return source;
         }
     }
+
+    private static class SpatialJoin
+    {
+        private final PlanNode node;
+        private final JoinNode.Type joinType;
+        private final PlanNode probeNode;
+        private final PlanNode buildNode;
+        private final Optional<Symbol> probePartitionSymbol;
+        private final Optional<Symbol> buildPartitionSymbol;
+        private final Map<Integer, Rectangle> partitions;
+
+        public SpatialJoin(
+                PlanNode node,
+                JoinNode.Type joinType,
+                PlanNode probeNode,
+                PlanNode buildNode,
+                Optional<Symbol> probePartitionSymbol,
+                Optional<Symbol> buildPartitionSymbol,
+                Map<Integer, Rectangle> partitions)
+        {
+            this.node = node;
+            this.joinType = joinType;
+            this.probeNode = probeNode;
+            this.buildNode = buildNode;
+            this.probePartitionSymbol = probePartitionSymbol;
+            this.buildPartitionSymbol = buildPartitionSymbol;
+            this.partitions = partitions;
+        }
+
+        public PlanNode getNode()
+        {
+            return node;
+        }
+
+        public JoinNode.Type getJoinType()
+        {
+            return joinType;
+        }
+
+        public PlanNode getProbeNode()
+        {
+            return probeNode;
+        }
+
+        public PlanNode getBuildNode()
+        {
+            return buildNode;
+        }
+
+        public Optional<Symbol> getProbePartitionSymbol()
+        {
+            return probePartitionSymbol;
+        }
+
+        public Optional<Symbol> getBuildPartitionSymbol()
+        {
+            return buildPartitionSymbol;
+        }
+
+        public Map<Integer, Rectangle> getPartitions()
+        {
+            return partitions;
+        }
+    }
 }
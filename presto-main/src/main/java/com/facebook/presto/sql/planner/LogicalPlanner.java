@@ -145,6 +145,18 @@ public class LogicalPlanner
 
         planSanityChecker.validateIntermediatePlan(root, session, metadata, sqlParser, symbolAllocator.getTypes());
 
+        return optimize(new Plan(root, symbolAllocator.getTypes()), stage);
+    }
+
+    /**
+     * Optimizes a plan created by {@link #plan(Analysis, Stage)} with {@link Stage#CREATED}, such as a plan of the plan cache.
+     * The id allocator of the planner must not allocate the ids of the nodes of the plan.
+     */
+    public Plan optimize(Plan plan, Stage stage)
+    {
+        PlanNode root = plan.getRoot();
+        SymbolAllocator symbolAllocator = new SymbolAllocator(plan.getTypes().allTypes());
+
         if (stage.ordinal() >= Stage.OPTIMIZED.ordinal()) {
             for (PlanOptimizer optimizer : planOptimizers) {
                 root = optimizer.optimize(root, session, symbolAllocator.getTypes(), symbolAllocator, idAllocator);
@@ -191,6 +191,11 @@ public final class Partitioning
         return Optional.of(new Partitioning(handle, newArguments.build()));
     }
 
+    public Partitioning withHandle(PartitioningHandle handle)
+    {
+        return new Partitioning(handle, arguments);
+    }
+
     @Override
     public int hashCode()
     {
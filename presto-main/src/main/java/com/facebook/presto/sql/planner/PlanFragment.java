@@ -51,6 +51,7 @@ public class PlanFragment
     private final List<RemoteSourceNode> remoteSourceNodes;
     private final PartitioningScheme partitioningScheme;
     private final StageExecutionStrategy stageExecutionStrategy;
+    private final List<RemoteDynamicFilter> remoteDynamicFilters;
 
     @JsonCreator
     public PlanFragment(
@@ -60,7 +61,8 @@ public class PlanFragment
             @JsonProperty("partitioning") PartitioningHandle partitioning,
             @JsonProperty("partitionedSources") List<PlanNodeId> partitionedSources,
             @JsonProperty("partitioningScheme") PartitioningScheme partitioningScheme,
-            @JsonProperty("stageExecutionStrategy") StageExecutionStrategy stageExecutionStrategy)
+            @JsonProperty("stageExecutionStrategy") StageExecutionStrategy stageExecutionStrategy,
+            @JsonProperty("remoteDynamicFilters") List<RemoteDynamicFilter> remoteDynamicFilters)
     {
         this.id = requireNonNull(id, "id is null");
         this.root = requireNonNull(root, "root is null");
@@ -69,6 +71,7 @@ public class PlanFragment
         this.partitionedSources = ImmutableList.copyOf(requireNonNull(partitionedSources, "partitionedSources is null"));
         this.partitionedSourcesSet = ImmutableSet.copyOf(partitionedSources);
         this.stageExecutionStrategy = requireNonNull(stageExecutionStrategy, "stageExecutionStrategy is null");
+        this.remoteDynamicFilters = ImmutableList.copyOf(requireNonNull(remoteDynamicFilters, "remoteDynamicFilters is null"));
 
         checkArgument(partitionedSourcesSet.size() == partitionedSources.size(), "partitionedSources contains duplicates");
         checkArgument(ImmutableSet.copyOf(root.getOutputSymbols()).containsAll(partitioningScheme.getOutputLayout()),
@@ -134,6 +137,17 @@ public class PlanFragment
         return stageExecutionStrategy;
     }
 
+    /**
+     * Dynamic filters produced by the joins of this fragment for the table scans of another
+     * fragment, and dynamic filters produced by joins of other fragments for the table scans
+     * of this fragment.
+     */
+    @JsonProperty
+    public List<RemoteDynamicFilter> getRemoteDynamicFilters()
+    {
+        return remoteDynamicFilters;
+    }
+
     public List<Type> getTypes()
     {
         return types;
@@ -185,12 +199,17 @@ public class PlanFragment
 
     public PlanFragment withBucketToPartition(Optional<int[]> bucketToPartition)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition), stageExecutionStrategy);
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition), stageExecutionStrategy, remoteDynamicFilters);
     }
 
     public PlanFragment withGroupedExecution(List<PlanNodeId> capableTableScanNodes)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionStrategy.groupedExecution(capableTableScanNodes));
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionStrategy.groupedExecution(capableTableScanNodes), remoteDynamicFilters);
+    }
+
+    public PlanFragment withRemoteDynamicFilters(List<RemoteDynamicFilter> remoteDynamicFilters)
+    {
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, stageExecutionStrategy, remoteDynamicFilters);
     }
 
     @Override
@@ -20,9 +20,11 @@ import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.TableLayout;
 import com.facebook.presto.metadata.TableLayout.TablePartitioning;
 import com.facebook.presto.operator.StageExecutionStrategy;
+import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.connector.ConnectorPartitionHandle;
 import com.facebook.presto.spi.connector.ConnectorPartitioningHandle;
+import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.sql.planner.plan.AggregationNode;
 import com.facebook.presto.sql.planner.plan.ExchangeNode;
 import com.facebook.presto.sql.planner.plan.ExplainAnalyzeNode;
@@ -39,7 +41,9 @@ import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.ValuesNode;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 
 import javax.inject.Inject;
@@ -47,10 +51,12 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static com.facebook.presto.SystemSessionProperties.getQueryMaxStageCount;
+import static com.facebook.presto.SystemSessionProperties.isDynamicFilteringEnabled;
 import static com.facebook.presto.SystemSessionProperties.isForceSingleNodeOutput;
 import static com.facebook.presto.spi.StandardErrorCode.QUERY_HAS_TOO_MANY_STAGES;
 import static com.facebook.presto.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
@@ -58,13 +64,19 @@ import static com.facebook.presto.sql.planner.SchedulingOrderVisitor.scheduleOrd
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static com.facebook.presto.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static com.facebook.presto.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Predicates.in;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 
 /**
  * Splits a logical plan into fragments that can be shipped and executed on distributed nodes
@@ -92,6 +104,7 @@ public class PlanFragmenter
 
         SubPlan subPlan = fragmenter.buildRootFragment(root, properties);
         subPlan = analyzeGroupedExecution(session, metadata, nodePartitioningManager, subPlan);
+        subPlan = analyzeRemoteDynamicFilters(session, subPlan);
 
         checkState(!isForceSingleNodeOutput(session) || subPlan.getFragment().getPartitioning().isSingleNode(), "Root of PlanFragment is not single node");
         sanityCheckFragmentedPlan(subPlan, getQueryMaxStageCount(session));
@@ -126,6 +139,98 @@ public class PlanFragmenter
         return new SubPlan(fragment, result.build());
     }
 
+    /**
+     * Finds the joins whose probe side is a (possibly filtered and projected) table scan of a
+     * child fragment, so that the coordinator can deliver the summary of the build rows of all
+     * the tasks running the join to the tasks running the table scan.
+     */
+    private static SubPlan analyzeRemoteDynamicFilters(Session session, SubPlan subPlan)
+    {
+        if (!isDynamicFilteringEnabled(session)) {
+            return subPlan;
+        }
+
+        List<PlanFragment> allFragments = subPlan.getAllFragments();
+        Map<PlanFragmentId, PlanFragment> fragments = allFragments.stream()
+                .collect(toImmutableMap(PlanFragment::getId, identity()));
+        ImmutableListMultimap.Builder<PlanFragmentId, RemoteDynamicFilter> remoteDynamicFilters = ImmutableListMultimap.builder();
+        // a table scan is filtered by a single join
+        Set<PlanNodeId> filteredTableScans = new HashSet<>();
+        for (PlanFragment fragment : allFragments) {
+            List<JoinNode> joins = searchFrom(fragment.getRoot())
+                    .where(JoinNode.class::isInstance)
+                    .findAll();
+            for (JoinNode join : joins) {
+                // only joins which drop the probe rows without a match can be filtered
+                if ((join.getType() != INNER && join.getType() != RIGHT) || join.getCriteria().isEmpty()) {
+                    continue;
+                }
+                List<Symbol> probeSymbols = join.getCriteria().stream()
+                        .map(JoinNode.EquiJoinClause::getLeft)
+                        .collect(toImmutableList());
+                List<Symbol> buildSymbols = join.getCriteria().stream()
+                        .map(JoinNode.EquiJoinClause::getRight)
+                        .collect(toImmutableList());
+                createRemoteDynamicFilter(join.getId(), fragment, join.getLeft(), probeSymbols, buildSymbols, fragments)
+                        .filter(remoteDynamicFilter -> filteredTableScans.add(remoteDynamicFilter.getTableScanNodeId()))
+                        .ifPresent(remoteDynamicFilter -> remoteDynamicFilters
+                                .put(remoteDynamicFilter.getJoinFragmentId(), remoteDynamicFilter)
+                                .put(remoteDynamicFilter.getTableScanFragmentId(), remoteDynamicFilter));
+            }
+        }
+        return withRemoteDynamicFilters(subPlan, remoteDynamicFilters.build());
+    }
+
+    private static Optional<RemoteDynamicFilter> createRemoteDynamicFilter(
+            PlanNodeId joinId,
+            PlanFragment joinFragment,
+            PlanNode probeNode,
+            List<Symbol> probeSymbols,
+            List<Symbol> buildSymbols,
+            Map<PlanFragmentId, PlanFragment> fragments)
+    {
+        if (joinFragment.getStageExecutionStrategy().isAnyScanGroupedExecution()) {
+            return Optional.empty();
+        }
+        DynamicFilterProbeSource probeSource = DynamicFilterProbeSource.trace(probeNode, probeSymbols);
+        if (!(probeSource.getNode() instanceof RemoteSourceNode)) {
+            return Optional.empty();
+        }
+        List<PlanFragmentId> sourceFragmentIds = ((RemoteSourceNode) probeSource.getNode()).getSourceFragmentIds();
+        if (sourceFragmentIds.size() != 1) {
+            return Optional.empty();
+        }
+
+        PlanFragment tableScanFragment = fragments.get(getOnlyElement(sourceFragmentIds));
+        probeSource = probeSource.traceRemoteSource(tableScanFragment);
+        if (!probeSource.isTableScan() || tableScanFragment.getStageExecutionStrategy().isGroupedExecution(probeSource.getNode().getId())) {
+            return Optional.empty();
+        }
+
+        List<Type> keyTypes = buildSymbols.stream()
+                .map(joinFragment.getSymbols()::get)
+                .collect(toImmutableList());
+        Map<Integer, ColumnHandle> columns = probeSource.getTableScanColumns(keyTypes);
+        if (columns.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RemoteDynamicFilter(joinId, joinFragment.getId(), probeSource.getNode().getId(), tableScanFragment.getId(), keyTypes, columns));
+    }
+
+    private static SubPlan withRemoteDynamicFilters(SubPlan subPlan, ListMultimap<PlanFragmentId, RemoteDynamicFilter> remoteDynamicFilters)
+    {
+        PlanFragment fragment = subPlan.getFragment();
+        List<RemoteDynamicFilter> fragmentDynamicFilters = remoteDynamicFilters.get(fragment.getId());
+        if (!fragmentDynamicFilters.isEmpty()) {
+            fragment = fragment.withRemoteDynamicFilters(fragmentDynamicFilters);
+        }
+        ImmutableList.Builder<SubPlan> result = ImmutableList.builder();
+        for (SubPlan child : subPlan.getChildren()) {
+            result.add(withRemoteDynamicFilters(child, remoteDynamicFilters));
+        }
+        return new SubPlan(fragment, result.build());
+    }
+
     private static class Fragmenter
             extends SimplePlanRewriter<FragmentProperties>
     {
@@ -168,7 +273,8 @@ public class PlanFragmenter
                     properties.getPartitioningHandle(),
                     schedulingOrder,
                     properties.getPartitioningScheme(),
-                    StageExecutionStrategy.ungroupedExecution());
+                    StageExecutionStrategy.ungroupedExecution(),
+                    ImmutableList.of());
 
             return new SubPlan(fragment, properties.getChildren());
         }
@@ -15,10 +15,26 @@ package com.facebook.presto.sql.planner;
 
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 public class PlanNodeIdAllocator
 {
     private int nextId;
 
+    public PlanNodeIdAllocator()
+    {
+        this(0);
+    }
+
+    /**
+     * Creates an allocator of ids for the nodes added to a plan whose node ids are all below {@code nextId}.
+     */
+    public PlanNodeIdAllocator(int nextId)
+    {
+        checkArgument(nextId >= 0, "nextId is negative");
+        this.nextId = nextId;
+    }
+
     public PlanNodeId getNextId()
     {
         return new PlanNodeId(Integer.toString(nextId++));
@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.plan.PlanFragmentId;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dynamic filter of a join whose probe side is scanned by another fragment. The tasks running
+ * the join publish the summary of their build rows, which the coordinator merges and delivers
+ * to the tasks running the table scan. The join keys are identified by their position in the
+ * join criteria.
+ */
+@Immutable
+public class RemoteDynamicFilter
+{
+    private final PlanNodeId joinNodeId;
+    private final PlanFragmentId joinFragmentId;
+    private final PlanNodeId tableScanNodeId;
+    private final PlanFragmentId tableScanFragmentId;
+    private final List<Type> keyTypes;
+    private final Map<Integer, ColumnHandle> columns;
+
+    @JsonCreator
+    public RemoteDynamicFilter(
+            @JsonProperty("joinNodeId") PlanNodeId joinNodeId,
+            @JsonProperty("joinFragmentId") PlanFragmentId joinFragmentId,
+            @JsonProperty("tableScanNodeId") PlanNodeId tableScanNodeId,
+            @JsonProperty("tableScanFragmentId") PlanFragmentId tableScanFragmentId,
+            @JsonProperty("keyTypes") List<Type> keyTypes,
+            @JsonProperty("columns") Map<Integer, ColumnHandle> columns)
+    {
+        this.joinNodeId = requireNonNull(joinNodeId, "joinNodeId is null");
+        this.joinFragmentId = requireNonNull(joinFragmentId, "joinFragmentId is null");
+        this.tableScanNodeId = requireNonNull(tableScanNodeId, "tableScanNodeId is null");
+        this.tableScanFragmentId = requireNonNull(tableScanFragmentId, "tableScanFragmentId is null");
+        this.keyTypes = ImmutableList.copyOf(requireNonNull(keyTypes, "keyTypes is null"));
+        this.columns = ImmutableMap.copyOf(requireNonNull(columns, "columns is null"));
+        checkArgument(!joinFragmentId.equals(tableScanFragmentId), "join and table scan are in the same fragment");
+        checkArgument(!columns.isEmpty(), "columns is empty");
+        checkArgument(columns.keySet().stream().allMatch(key -> key >= 0 && key < keyTypes.size()), "columns do not match the join keys");
+    }
+
+    /**
+     * Id of the join (or semi join) whose build side produces the filter.
+     */
+    @JsonProperty
+    public PlanNodeId getJoinNodeId()
+    {
+        return joinNodeId;
+    }
+
+    @JsonProperty
+    public PlanFragmentId getJoinFragmentId()
+    {
+        return joinFragmentId;
+    }
+
+    @JsonProperty
+    public PlanNodeId getTableScanNodeId()
+    {
+        return tableScanNodeId;
+    }
+
+    @JsonProperty
+    public PlanFragmentId getTableScanFragmentId()
+    {
+        return tableScanFragmentId;
+    }
+
+    /**
+     * Types of the build side join keys.
+     */
+    @JsonProperty
+    public List<Type> getKeyTypes()
+    {
+        return keyTypes;
+    }
+
+    /**
+     * Table scan column of every join key the filter applies to.
+     */
+    @JsonProperty
+    public Map<Integer, ColumnHandle> getColumns()
+    {
+        return columns;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RemoteDynamicFilter that = (RemoteDynamicFilter) o;
+        return Objects.equals(joinNodeId, that.joinNodeId) &&
+                Objects.equals(joinFragmentId, that.joinFragmentId) &&
+                Objects.equals(tableScanNodeId, that.tableScanNodeId) &&
+                Objects.equals(tableScanFragmentId, that.tableScanFragmentId) &&
+                Objects.equals(keyTypes, that.keyTypes) &&
+                Objects.equals(columns, that.columns);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(joinNodeId, joinFragmentId, tableScanNodeId, tableScanFragmentId, keyTypes, columns);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("joinNodeId", joinNodeId)
+                .add("joinFragmentId", joinFragmentId)
+                .add("tableScanNodeId", tableScanNodeId)
+                .add("tableScanFragmentId", tableScanFragmentId)
+                .add("keyTypes", keyTypes)
+                .add("columns", columns)
+                .toString();
+    }
+}
@@ -14,13 +14,21 @@
 
 package com.facebook.presto.sql.planner.iterative.rule;
 
+import com.facebook.presto.cost.PlanNodeStatsEstimate;
 import com.facebook.presto.matching.Captures;
 import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.spi.type.FixedWidthType;
+import com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.TypeProvider;
 import com.facebook.presto.sql.planner.iterative.Rule;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.JoinNode.DistributionType;
+import com.facebook.presto.sql.planner.plan.PlanNode;
 
 import static com.facebook.presto.SystemSessionProperties.getJoinDistributionType;
+import static com.facebook.presto.SystemSessionProperties.getJoinMaxBroadcastTableSize;
+import static com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
 import static com.facebook.presto.sql.planner.optimizations.QueryCardinalityUtil.isAtMostScalar;
 import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
 import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
@@ -29,6 +37,8 @@ import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
 import static com.facebook.presto.sql.planner.plan.Patterns.join;
+import static java.lang.Double.NaN;
+import static java.lang.Double.isNaN;
 
 public class DetermineJoinDistributionType
         implements Rule<JoinNode>
@@ -65,10 +75,56 @@ public class DetermineJoinDistributionType
             return REPLICATED;
         }
 
-        if (getJoinDistributionType(context.getSession()).canPartition()) {
+        JoinDistributionType joinDistributionType = getJoinDistributionType(context.getSession());
+        if (joinDistributionType == AUTOMATIC && isBelowMaxBroadcastSize(node.getRight(), context)) {
+            return REPLICATED;
+        }
+
+        if (joinDistributionType.canPartition()) {
             return PARTITIONED;
         }
 
         return REPLICATED;
     }
+
+    /**
+     * Returns true if a broadcast limit is set and the build side is estimated from statistics
+     * to fit within it.
+     */
+    static boolean isBelowMaxBroadcastSize(PlanNode buildSide, Context context)
+    {
+        long maxBroadcastSize = getJoinMaxBroadcastTableSize(context.getSession()).toBytes();
+        double buildSideSize = getReliableOutputSize(buildSide, context);
+        return maxBroadcastSize > 0 && !isNaN(buildSideSize) && buildSideSize <= maxBroadcastSize;
+    }
+
+    /**
+     * Returns true if a broadcast limit is set and the build side is estimated from statistics
+     * to exceed it.
+     */
+    static boolean isAboveMaxBroadcastSize(PlanNode buildSide, Context context)
+    {
+        long maxBroadcastSize = getJoinMaxBroadcastTableSize(context.getSession()).toBytes();
+        double buildSideSize = getReliableOutputSize(buildSide, context);
+        return maxBroadcastSize > 0 && !isNaN(buildSideSize) && buildSideSize > maxBroadcastSize;
+    }
+
+    /**
+     * Returns the estimated output size of the node, or NaN if the estimate would be based on
+     * guesses, that is if the row count or the average size of a variable width column is unknown.
+     */
+    private static double getReliableOutputSize(PlanNode node, Context context)
+    {
+        PlanNodeStatsEstimate stats = context.getStatsProvider().getStats(node);
+        if (isNaN(stats.getOutputRowCount())) {
+            return NaN;
+        }
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+        for (Symbol symbol : node.getOutputSymbols()) {
+            if (!(types.get(symbol) instanceof FixedWidthType) && isNaN(stats.getSymbolStatistics(symbol).getAverageRowSize())) {
+                return NaN;
+            }
+        }
+        return stats.getOutputSizeInBytes(node.getOutputSymbols(), types);
+    }
 }
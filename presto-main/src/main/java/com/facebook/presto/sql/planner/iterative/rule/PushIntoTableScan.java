@@ -0,0 +1,298 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.matching.Capture;
+import com.facebook.presto.matching.Captures;
+import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.metadata.TableLayoutResult;
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
+import com.facebook.presto.spi.SortingProperty;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.planner.plan.AggregationNode;
+import com.facebook.presto.sql.planner.plan.AggregationNode.Aggregation;
+import com.facebook.presto.sql.planner.plan.LimitNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.TopNNode;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.matching.Capture.newCapture;
+import static com.facebook.presto.sql.planner.iterative.rule.PreconditionRules.checkRulesAreFiredBeforeAddExchangesRule;
+import static com.facebook.presto.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static com.facebook.presto.sql.planner.plan.Patterns.aggregation;
+import static com.facebook.presto.sql.planner.plan.Patterns.limit;
+import static com.facebook.presto.sql.planner.plan.Patterns.source;
+import static com.facebook.presto.sql.planner.plan.Patterns.tableScan;
+import static com.facebook.presto.sql.planner.plan.Patterns.topN;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Offers aggregations, limits and top N directly over a table scan to the connector.
+ * These rules must run after {@link PickTableLayout}, as the connector is given the
+ * layout of the table scan, including the predicates it enforces.
+ */
+public class PushIntoTableScan
+{
+    private static final Capture<TableScanNode> TABLE_SCAN = newCapture();
+
+    private final Metadata metadata;
+
+    public PushIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    public Set<Rule<?>> rules()
+    {
+        return ImmutableSet.of(
+                checkRulesAreFiredBeforeAddExchangesRule(),
+                pushAggregationIntoTableScan(),
+                pushLimitIntoTableScan(),
+                pushTopNIntoTableScan());
+    }
+
+    public PushAggregationIntoTableScan pushAggregationIntoTableScan()
+    {
+        return new PushAggregationIntoTableScan(metadata);
+    }
+
+    public PushLimitIntoTableScan pushLimitIntoTableScan()
+    {
+        return new PushLimitIntoTableScan(metadata);
+    }
+
+    public PushTopNIntoTableScan pushTopNIntoTableScan()
+    {
+        return new PushTopNIntoTableScan(metadata);
+    }
+
+    private static final class PushAggregationIntoTableScan
+            implements Rule<AggregationNode>
+    {
+        private static final Pattern<AggregationNode> PATTERN = aggregation()
+                .matching(PushAggregationIntoTableScan::isSupportedAggregation)
+                .with(source().matching(tableScan().capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushAggregationIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<AggregationNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        private static boolean isSupportedAggregation(AggregationNode node)
+        {
+            return node.getStep() == SINGLE &&
+                    node.getGroupingSetCount() == 1 &&
+                    !node.getHashSymbol().isPresent() &&
+                    !node.getGroupIdSymbol().isPresent() &&
+                    node.getAggregations().values().stream().allMatch(PushAggregationIntoTableScan::isSupportedAggregation);
+        }
+
+        private static boolean isSupportedAggregation(Aggregation aggregation)
+        {
+            FunctionCall call = aggregation.getCall();
+            return !aggregation.getMask().isPresent() &&
+                    !call.getFilter().isPresent() &&
+                    !call.getOrderBy().isPresent() &&
+                    call.getArguments().stream().allMatch(SymbolReference.class::isInstance);
+        }
+
+        @Override
+        public Result apply(AggregationNode node, Captures captures, Context context)
+        {
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            if (!tableScan.getLayout().isPresent()) {
+                return Result.empty();
+            }
+
+            Map<Symbol, ColumnHandle> assignments = tableScan.getAssignments();
+            List<Symbol> aggregationSymbols = ImmutableList.copyOf(node.getAggregations().keySet());
+            ImmutableList.Builder<AggregateFunction> aggregates = ImmutableList.builder();
+            for (Symbol symbol : aggregationSymbols) {
+                FunctionCall call = node.getAggregations().get(symbol).getCall();
+                List<ColumnHandle> arguments = call.getArguments().stream()
+                        .map(Symbol::from)
+                        .map(assignments::get)
+                        .collect(toImmutableList());
+                aggregates.add(new AggregateFunction(
+                        node.getAggregations().get(symbol).getSignature().getName(),
+                        context.getSymbolAllocator().getTypes().get(symbol),
+                        arguments,
+                        call.isDistinct()));
+            }
+            List<ColumnHandle> groupingColumns = node.getGroupingKeys().stream()
+                    .map(assignments::get)
+                    .collect(toImmutableList());
+
+            Optional<AggregationApplicationResult<TableHandle>> result = metadata.applyAggregation(
+                    context.getSession(),
+                    tableScan.getLayout().get(),
+                    aggregates.build(),
+                    groupingColumns);
+            if (!result.isPresent()) {
+                return Result.empty();
+            }
+
+            ImmutableMap.Builder<Symbol, ColumnHandle> newAssignments = ImmutableMap.builder();
+            for (Symbol symbol : node.getGroupingKeys()) {
+                newAssignments.put(symbol, assignments.get(symbol));
+            }
+            for (int i = 0; i < aggregationSymbols.size(); i++) {
+                newAssignments.put(aggregationSymbols.get(i), result.get().getAggregateColumns().get(i));
+            }
+
+            return createTableScan(metadata, context.getSession(), tableScan, result.get().getHandle(), node.getOutputSymbols(), newAssignments.build())
+                    .map(Result::ofPlanNode)
+                    .orElse(Result.empty());
+        }
+    }
+
+    private static final class PushLimitIntoTableScan
+            implements Rule<LimitNode>
+    {
+        private static final Pattern<LimitNode> PATTERN = limit()
+                .with(source().matching(tableScan().capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushLimitIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<LimitNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(LimitNode node, Captures captures, Context context)
+        {
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            if (!tableScan.getLayout().isPresent()) {
+                return Result.empty();
+            }
+
+            Optional<LimitApplicationResult<TableHandle>> result = metadata.applyLimit(context.getSession(), tableScan.getLayout().get(), node.getCount());
+            if (!result.isPresent()) {
+                return Result.empty();
+            }
+
+            return createTableScan(metadata, context.getSession(), tableScan, result.get().getHandle(), tableScan.getOutputSymbols(), tableScan.getAssignments())
+                    .map(newTableScan -> result.get().isLimitGuaranteed() ? newTableScan : node.replaceChildren(ImmutableList.of(newTableScan)))
+                    .map(Result::ofPlanNode)
+                    .orElse(Result.empty());
+        }
+    }
+
+    private static final class PushTopNIntoTableScan
+            implements Rule<TopNNode>
+    {
+        private static final Pattern<TopNNode> PATTERN = topN()
+                .matching(topN -> topN.getStep() == TopNNode.Step.SINGLE)
+                .with(source().matching(tableScan().capturedAs(TABLE_SCAN)));
+
+        private final Metadata metadata;
+
+        private PushTopNIntoTableScan(Metadata metadata)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+        }
+
+        @Override
+        public Pattern<TopNNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(TopNNode node, Captures captures, Context context)
+        {
+            TableScanNode tableScan = captures.get(TABLE_SCAN);
+            if (!tableScan.getLayout().isPresent()) {
+                return Result.empty();
+            }
+
+            List<SortingProperty<ColumnHandle>> sortItems = node.getOrderingScheme().getOrderBy().stream()
+                    .map(symbol -> new SortingProperty<>(tableScan.getAssignments().get(symbol), node.getOrderingScheme().getOrdering(symbol)))
+                    .collect(toImmutableList());
+
+            Optional<LimitApplicationResult<TableHandle>> result = metadata.applyTopN(context.getSession(), tableScan.getLayout().get(), node.getCount(), sortItems);
+            if (!result.isPresent()) {
+                return Result.empty();
+            }
+
+            return createTableScan(metadata, context.getSession(), tableScan, result.get().getHandle(), tableScan.getOutputSymbols(), tableScan.getAssignments())
+                    .map(newTableScan -> result.get().isLimitGuaranteed() ? newTableScan : node.replaceChildren(ImmutableList.of(newTableScan)))
+                    .map(Result::ofPlanNode)
+                    .orElse(Result.empty());
+        }
+    }
+
+    private static Optional<TableScanNode> createTableScan(
+            Metadata metadata,
+            Session session,
+            TableScanNode tableScan,
+            TableHandle table,
+            List<Symbol> outputSymbols,
+            Map<Symbol, ColumnHandle> assignments)
+    {
+        // the new table handle retains the predicate enforced by the original layout
+        List<TableLayoutResult> layouts = metadata.getLayouts(
+                session,
+                table,
+                Constraint.alwaysTrue(),
+                Optional.of(ImmutableSet.copyOf(assignments.values())));
+        Optional<TableLayoutResult> layout = layouts.stream()
+                .filter(result -> result.getUnenforcedConstraint().isAll())
+                .findFirst();
+        if (!layout.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new TableScanNode(
+                tableScan.getId(),
+                table,
+                outputSymbols,
+                assignments,
+                Optional.of(layout.get().getLayout().getHandle()),
+                layout.get().getLayout().getPredicate()));
+    }
+}
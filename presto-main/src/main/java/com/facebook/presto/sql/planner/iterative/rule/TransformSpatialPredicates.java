@@ -14,11 +14,29 @@
 package com.facebook.presto.sql.planner.iterative.rule;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.execution.Lifespan;
+import com.facebook.presto.geospatial.KdbTree;
+import com.facebook.presto.geospatial.KdbTreeUtils;
 import com.facebook.presto.matching.Capture;
 import com.facebook.presto.matching.Captures;
 import com.facebook.presto.matching.Pattern;
 import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.QualifiedObjectName;
+import com.facebook.presto.metadata.Split;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.metadata.TableLayoutResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorPageSource;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.type.ArrayType;
 import com.facebook.presto.spi.type.TypeSignature;
+import com.facebook.presto.split.PageSourceManager;
+import com.facebook.presto.split.SplitManager;
+import com.facebook.presto.split.SplitSource;
+import com.facebook.presto.split.SplitSource.SplitBatch;
 import com.facebook.presto.sql.planner.Symbol;
 import com.facebook.presto.sql.planner.iterative.Rule;
 import com.facebook.presto.sql.planner.iterative.Rule.Context;
@@ -29,25 +47,40 @@ import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.PlanNode;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.facebook.presto.sql.tree.Cast;
 import com.facebook.presto.sql.tree.ComparisonExpression;
 import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.StringLiteral;
 import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static com.facebook.presto.SystemSessionProperties.getSpatialPartitioningTableName;
 import static com.facebook.presto.SystemSessionProperties.isSpatialJoinEnabled;
 import static com.facebook.presto.matching.Capture.newCapture;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_SPATIAL_PARTITIONING;
+import static com.facebook.presto.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy.UNGROUPED_SCHEDULING;
+import static com.facebook.presto.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.sql.planner.ExpressionNodeInliner.replaceExpression;
 import static com.facebook.presto.sql.planner.SymbolsExtractor.extractUnique;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
 import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
 import static com.facebook.presto.sql.planner.plan.Patterns.filter;
 import static com.facebook.presto.sql.planner.plan.Patterns.join;
@@ -57,6 +90,10 @@ import static com.facebook.presto.sql.tree.ComparisonExpression.Operator.LESS_TH
 import static com.facebook.presto.util.SpatialJoinUtils.extractSupportedSpatialComparisons;
 import static com.facebook.presto.util.SpatialJoinUtils.extractSupportedSpatialFunctions;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -105,16 +142,25 @@ import static java.util.Objects.requireNonNull;
  *      ST_Distance(st_point_a, st_point_b) <= radius
  * with st_point_a -> 'ST_Point(a.lon, a.lat)', st_point_b -> 'ST_Point(b.lon, b.lat)'
  * and radius -> '10 / (111.321 * cos(radians(b.lat)))' projections on top of child nodes.
+ * <p>
+ * If spatial_partitioning_table_name session property is set, inner joins are planned as
+ * partitioned spatial joins instead. Both sides are assigned to the cells of the KDB tree
+ * stored in that table via spatial_partitions function, unnested and joined within each cell
+ * by a {@link SpatialJoinNode}. This rule must run before AddExchanges.
  */
 public class TransformSpatialPredicates
 {
     private static final TypeSignature GEOMETRY_TYPE_SIGNATURE = parseTypeSignature("Geometry");
 
     private final Metadata metadata;
+    private final SplitManager splitManager;
+    private final PageSourceManager pageSourceManager;
 
-    public TransformSpatialPredicates(Metadata metadata)
+    public TransformSpatialPredicates(Metadata metadata, SplitManager splitManager, PageSourceManager pageSourceManager)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
+        this.splitManager = requireNonNull(splitManager, "splitManager is null");
+        this.pageSourceManager = requireNonNull(pageSourceManager, "pageSourceManager is null");
     }
 
     public Set<Rule<?>> rules()
@@ -124,6 +170,11 @@ public class TransformSpatialPredicates
                 new TransformSpatialPredicateToLeftJoin(metadata));
     }
 
+    public Set<Rule<?>> partitionedJoinRules()
+    {
+        return ImmutableSet.of(new TransformSpatialPredicateToPartitionedJoin(metadata, splitManager, pageSourceManager));
+    }
+
     public static final class TransformSpatialPredicateToJoin
             implements Rule<FilterNode>
     {
@@ -159,7 +210,7 @@ public class TransformSpatialPredicates
             List<FunctionCall> spatialFunctions = extractSupportedSpatialFunctions(filter);
 
             for (FunctionCall spatialFunction : spatialFunctions) {
-                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialFunction, metadata);
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialFunction, Optional.empty(), metadata, Optional.empty());
                 if (!result.isEmpty()) {
                     return result;
                 }
@@ -167,7 +218,7 @@ public class TransformSpatialPredicates
 
             List<ComparisonExpression> spatialComparisons = extractSupportedSpatialComparisons(filter);
             for (ComparisonExpression spatialComparison : spatialComparisons) {
-                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialComparison, metadata);
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialComparison, metadata, Optional.empty());
                 if (!result.isEmpty()) {
                     return result;
                 }
@@ -208,15 +259,78 @@ public class TransformSpatialPredicates
             List<FunctionCall> spatialFunctions = extractSupportedSpatialFunctions(filter);
 
             for (FunctionCall spatialFunction : spatialFunctions) {
-                Result result = tryCreateSpatialJoin(context, joinNode, filter, joinNode.getId(), joinNode.getOutputSymbols(), spatialFunction, metadata);
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, joinNode.getId(), joinNode.getOutputSymbols(), spatialFunction, Optional.empty(), metadata, Optional.empty());
+                if (!result.isEmpty()) {
+                    return result;
+                }
+            }
+
+            List<ComparisonExpression> spatialComparisons = extractSupportedSpatialComparisons(filter);
+            for (ComparisonExpression spatialComparison : spatialComparisons) {
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, joinNode.getId(), joinNode.getOutputSymbols(), spatialComparison, metadata, Optional.empty());
                 if (!result.isEmpty()) {
                     return result;
                 }
             }
 
+            return Result.empty();
+        }
+    }
+
+    public static final class TransformSpatialPredicateToPartitionedJoin
+            implements Rule<FilterNode>
+    {
+        private static final Capture<JoinNode> JOIN = newCapture();
+        private static final Pattern<FilterNode> PATTERN = filter()
+                .with(source().matching(join().capturedAs(JOIN).matching(JoinNode::isCrossJoin)));
+
+        private final Metadata metadata;
+        private final SplitManager splitManager;
+        private final PageSourceManager pageSourceManager;
+
+        public TransformSpatialPredicateToPartitionedJoin(Metadata metadata, SplitManager splitManager, PageSourceManager pageSourceManager)
+        {
+            this.metadata = requireNonNull(metadata, "metadata is null");
+            this.splitManager = requireNonNull(splitManager, "splitManager is null");
+            this.pageSourceManager = requireNonNull(pageSourceManager, "pageSourceManager is null");
+        }
+
+        @Override
+        public boolean isEnabled(Session session)
+        {
+            return isSpatialJoinEnabled(session) && getSpatialPartitioningTableName(session).isPresent();
+        }
+
+        @Override
+        public Pattern<FilterNode> getPattern()
+        {
+            return PATTERN;
+        }
+
+        @Override
+        public Result apply(FilterNode node, Captures captures, Context context)
+        {
+            JoinNode joinNode = captures.get(JOIN);
+
+            Expression filter = node.getPredicate();
+            List<FunctionCall> spatialFunctions = extractSupportedSpatialFunctions(filter);
             List<ComparisonExpression> spatialComparisons = extractSupportedSpatialComparisons(filter);
+            if (spatialFunctions.isEmpty() && spatialComparisons.isEmpty()) {
+                return Result.empty();
+            }
+
+            Session session = context.getSession();
+            Optional<KdbTree> kdbTree = Optional.of(loadKdbTree(getSpatialPartitioningTableName(session).get(), session, metadata, splitManager, pageSourceManager));
+
+            for (FunctionCall spatialFunction : spatialFunctions) {
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialFunction, Optional.empty(), metadata, kdbTree);
+                if (!result.isEmpty()) {
+                    return result;
+                }
+            }
+
             for (ComparisonExpression spatialComparison : spatialComparisons) {
-                Result result = tryCreateSpatialJoin(context, joinNode, filter, joinNode.getId(), joinNode.getOutputSymbols(), spatialComparison, metadata);
+                Result result = tryCreateSpatialJoin(context, joinNode, filter, node.getId(), node.getOutputSymbols(), spatialComparison, metadata, kdbTree);
                 if (!result.isEmpty()) {
                     return result;
                 }
@@ -226,7 +340,7 @@ public class TransformSpatialPredicates
         }
     }
 
-    private static Result tryCreateSpatialJoin(Context context, JoinNode joinNode, Expression filter, PlanNodeId nodeId, List<Symbol> outputSymbols, ComparisonExpression spatialComparison, Metadata metadata)
+    private static Result tryCreateSpatialJoin(Context context, JoinNode joinNode, Expression filter, PlanNodeId nodeId, List<Symbol> outputSymbols, ComparisonExpression spatialComparison, Metadata metadata, Optional<KdbTree> kdbTree)
     {
         PlanNode leftNode = joinNode.getLeft();
         PlanNode rightNode = joinNode.getRight();
@@ -277,10 +391,19 @@ public class TransformSpatialPredicates
                 joinNode.getRightHashSymbol(),
                 joinNode.getDistributionType());
 
-        return tryCreateSpatialJoin(context, newJoinNode, newFilter, nodeId, outputSymbols, (FunctionCall) newComparison.getLeft(), metadata);
+        return tryCreateSpatialJoin(context, newJoinNode, newFilter, nodeId, outputSymbols, (FunctionCall) newComparison.getLeft(), Optional.of(newComparison.getRight()), metadata, kdbTree);
     }
 
-    private static Result tryCreateSpatialJoin(Context context, JoinNode joinNode, Expression filter, PlanNodeId nodeId, List<Symbol> outputSymbols, FunctionCall spatialFunction, Metadata metadata)
+    private static Result tryCreateSpatialJoin(
+            Context context,
+            JoinNode joinNode,
+            Expression filter,
+            PlanNodeId nodeId,
+            List<Symbol> outputSymbols,
+            FunctionCall spatialFunction,
+            Optional<Expression> radius,
+            Metadata metadata,
+            Optional<KdbTree> kdbTree)
     {
         List<Expression> arguments = spatialFunction.getArguments();
         verify(arguments.size() == 2);
@@ -304,12 +427,22 @@ public class TransformSpatialPredicates
         PlanNode newLeftNode;
         PlanNode newRightNode;
 
+        Expression newFirstArgument = toExpression(newFirstSymbol, firstArgument);
+        Expression newSecondArgument = toExpression(newSecondSymbol, secondArgument);
+
+        Expression leftGeometry;
+        Expression rightGeometry;
+
         int alignment = checkAlignment(joinNode, firstSymbols, secondSymbols);
         if (alignment > 0) {
+            leftGeometry = newFirstArgument;
+            rightGeometry = newSecondArgument;
             newLeftNode = newFirstSymbol.map(symbol -> addProjection(context, leftNode, symbol, firstArgument)).orElse(leftNode);
             newRightNode = newSecondSymbol.map(symbol -> addProjection(context, rightNode, symbol, secondArgument)).orElse(rightNode);
         }
         else if (alignment < 0) {
+            leftGeometry = newSecondArgument;
+            rightGeometry = newFirstArgument;
             newLeftNode = newSecondSymbol.map(symbol -> addProjection(context, leftNode, symbol, secondArgument)).orElse(leftNode);
             newRightNode = newFirstSymbol.map(symbol -> addProjection(context, rightNode, symbol, firstArgument)).orElse(rightNode);
         }
@@ -317,12 +450,26 @@ public class TransformSpatialPredicates
             return Result.empty();
         }
 
-        Expression newFirstArgument = toExpression(newFirstSymbol, firstArgument);
-        Expression newSecondArgument = toExpression(newSecondSymbol, secondArgument);
-
         Expression newSpatialFunction = new FunctionCall(spatialFunction.getName(), ImmutableList.of(newFirstArgument, newSecondArgument));
         Expression newFilter = replaceExpression(filter, ImmutableMap.of(spatialFunction, newSpatialFunction));
 
+        if (kdbTree.isPresent()) {
+            verify(joinNode.getType() == INNER, "Partitioned spatial join must be an inner join");
+            String kdbTreeJson = KdbTreeUtils.toJson(kdbTree.get());
+            Symbol leftPartitionSymbol = context.getSymbolAllocator().newSymbol("pid", INTEGER);
+            Symbol rightPartitionSymbol = context.getSymbolAllocator().newSymbol("pid", INTEGER);
+            // only the build side geometries are expanded by the radius
+            return Result.ofPlanNode(new SpatialJoinNode(
+                    nodeId,
+                    addPartitioningNodes(context, newLeftNode, leftPartitionSymbol, kdbTreeJson, leftGeometry, Optional.empty()),
+                    addPartitioningNodes(context, newRightNode, rightPartitionSymbol, kdbTreeJson, rightGeometry, radius),
+                    outputSymbols,
+                    newFilter,
+                    leftPartitionSymbol,
+                    rightPartitionSymbol,
+                    kdbTreeJson));
+        }
+
         return Result.ofPlanNode(new JoinNode(
                 nodeId,
                 joinNode.getType(),
@@ -392,6 +539,104 @@ public class TransformSpatialPredicates
         return new ProjectNode(context.getIdAllocator().getNextId(), node, projections.build());
     }
 
+    private static PlanNode addPartitioningNodes(Context context, PlanNode node, Symbol partitionSymbol, String kdbTreeJson, Expression geometry, Optional<Expression> radius)
+    {
+        ImmutableList.Builder<Expression> arguments = ImmutableList.<Expression>builder()
+                .add(new Cast(new StringLiteral(kdbTreeJson), VARCHAR.getTypeSignature().toString()))
+                .add(geometry);
+        radius.ifPresent(arguments::add);
+        FunctionCall partitions = new FunctionCall(QualifiedName.of("spatial_partitions"), arguments.build());
+
+        Symbol partitionsSymbol = context.getSymbolAllocator().newSymbol(partitions, new ArrayType(INTEGER));
+        PlanNode project = addProjection(context, node, partitionsSymbol, partitions);
+
+        return new UnnestNode(
+                context.getIdAllocator().getNextId(),
+                project,
+                node.getOutputSymbols(),
+                ImmutableMap.of(partitionsSymbol, ImmutableList.of(partitionSymbol)),
+                Optional.empty());
+    }
+
+    private static KdbTree loadKdbTree(String tableName, Session session, Metadata metadata, SplitManager splitManager, PageSourceManager pageSourceManager)
+    {
+        QualifiedObjectName name = toQualifiedObjectName(tableName, session);
+        Optional<TableHandle> tableHandle = metadata.getTableHandle(session, name);
+        checkSpatialPartitioningTable(tableHandle.isPresent(), "Table not found: %s", name);
+
+        List<ColumnHandle> visibleColumnHandles = metadata.getColumnHandles(session, tableHandle.get()).values().stream()
+                .filter(handle -> !metadata.getColumnMetadata(session, tableHandle.get(), handle).isHidden())
+                .collect(toImmutableList());
+        checkSpatialPartitioningTable(visibleColumnHandles.size() == 1, "Expected single column for table %s, but found %s columns", name, visibleColumnHandles.size());
+        ColumnHandle kdbTreeColumn = getOnlyElement(visibleColumnHandles);
+
+        List<TableLayoutResult> layouts = metadata.getLayouts(session, tableHandle.get(), Constraint.alwaysTrue(), Optional.of(ImmutableSet.of(kdbTreeColumn)));
+        checkSpatialPartitioningTable(!layouts.isEmpty(), "Table has no layouts: %s", name);
+
+        Optional<KdbTree> kdbTree = Optional.empty();
+        try (SplitSource splitSource = splitManager.getSplits(session, layouts.get(0).getLayout().getHandle(), UNGROUPED_SCHEDULING)) {
+            while (true) {
+                SplitBatch splitBatch = getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, Lifespan.taskWide(), 1000));
+                for (Split split : splitBatch.getSplits()) {
+                    try (ConnectorPageSource pageSource = pageSourceManager.createPageSource(session, split, ImmutableList.of(kdbTreeColumn))) {
+                        while (!pageSource.isFinished()) {
+                            getFutureValue(pageSource.isBlocked());
+                            Page page = pageSource.getNextPage();
+                            if (page == null || page.getPositionCount() == 0) {
+                                continue;
+                            }
+                            checkSpatialPartitioningTable(!kdbTree.isPresent() && page.getPositionCount() == 1, "Expected exactly one row for table %s, but found more", name);
+                            Block block = page.getBlock(0);
+                            checkSpatialPartitioningTable(!block.isNull(0), "KDB tree in table %s is null", name);
+                            kdbTree = Optional.of(parseKdbTree(VARCHAR.getSlice(block, 0).toStringUtf8(), name));
+                        }
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                if (splitBatch.isLastBatch()) {
+                    break;
+                }
+            }
+        }
+
+        checkSpatialPartitioningTable(kdbTree.isPresent(), "Expected exactly one row for table %s, but got none", name);
+        return kdbTree.get();
+    }
+
+    private static QualifiedObjectName toQualifiedObjectName(String name, Session session)
+    {
+        List<String> parts = Splitter.on('.').splitToList(name);
+        checkSpatialPartitioningTable(parts.size() <= 3, "Invalid spatial partitioning table name: %s", name);
+        if (parts.size() == 3) {
+            return new QualifiedObjectName(parts.get(0), parts.get(1), parts.get(2));
+        }
+        checkSpatialPartitioningTable(session.getCatalog().isPresent(), "Catalog must be specified for spatial partitioning table: %s", name);
+        if (parts.size() == 2) {
+            return new QualifiedObjectName(session.getCatalog().get(), parts.get(0), parts.get(1));
+        }
+        checkSpatialPartitioningTable(session.getSchema().isPresent(), "Schema must be specified for spatial partitioning table: %s", name);
+        return new QualifiedObjectName(session.getCatalog().get(), session.getSchema().get(), parts.get(0));
+    }
+
+    private static KdbTree parseKdbTree(String json, QualifiedObjectName tableName)
+    {
+        try {
+            return KdbTreeUtils.fromJson(json);
+        }
+        catch (IllegalArgumentException e) {
+            throw new PrestoException(INVALID_SPATIAL_PARTITIONING, format("Invalid JSON string for KDB tree in table %s", tableName), e);
+        }
+    }
+
+    private static void checkSpatialPartitioningTable(boolean condition, String message, Object... arguments)
+    {
+        if (!condition) {
+            throw new PrestoException(INVALID_SPATIAL_PARTITIONING, format(message, arguments));
+        }
+    }
+
     private static boolean containsNone(Collection<Symbol> values, Collection<Symbol> testValues)
     {
         return values.stream().noneMatch(ImmutableSet.copyOf(testValues)::contains);
@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.TypeProvider;
+import com.facebook.presto.sql.planner.plan.Assignments;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.IfExpression;
+import com.facebook.presto.sql.tree.IsNotNullPredicate;
+import com.facebook.presto.sql.tree.IsNullPredicate;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.isDistributeNullJoinKeys;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.sql.ExpressionUtils.combineConjuncts;
+import static com.facebook.presto.sql.ExpressionUtils.or;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.RIGHT;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Null join keys never match, but in a partitioned join all rows with a null key hash to
+ * the same partition, which makes a single task process all of them. This optimizer removes
+ * such rows up front from the sides of the join that do not produce unmatched rows, and
+ * spreads them over all partitions on the other sides by adding a random salt to the join
+ * criteria which is zero for rows with non-null keys:
+ * <pre>
+ *     left_salt = IF(left_key IS NULL, random(n), 0)
+ *     right_salt = IF(right_key IS NULL, random(n), 0)
+ *     ON left_key = right_key AND left_salt = right_salt
+ * </pre>
+ * As the salt is part of the partitioning, the join output is not considered partitioned on
+ * the original join keys any more.
+ */
+public class DistributeNullJoinKeys
+        implements PlanOptimizer
+{
+    private static final Expression SALT_BOUND = new LongLiteral(String.valueOf(Integer.MAX_VALUE));
+    private static final Expression NO_SALT = new LongLiteral("0");
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, TypeProvider types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(session, "session is null");
+        requireNonNull(symbolAllocator, "symbolAllocator is null");
+        requireNonNull(idAllocator, "idAllocator is null");
+
+        if (!isDistributeNullJoinKeys(session)) {
+            return plan;
+        }
+        return SimplePlanRewriter.rewriteWith(new Rewriter(symbolAllocator, idAllocator), plan);
+    }
+
+    private static class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final SymbolAllocator symbolAllocator;
+        private final PlanNodeIdAllocator idAllocator;
+
+        public Rewriter(SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+        {
+            this.symbolAllocator = symbolAllocator;
+            this.idAllocator = idAllocator;
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            PlanNode left = context.rewrite(node.getLeft());
+            PlanNode right = context.rewrite(node.getRight());
+
+            if (node.getCriteria().isEmpty() || node.isSpatialJoin() || node.getDistributionType().orElse(null) != PARTITIONED) {
+                return node.replaceChildren(ImmutableList.of(left, right));
+            }
+
+            List<Symbol> leftKeys = node.getCriteria().stream()
+                    .map(JoinNode.EquiJoinClause::getLeft)
+                    .collect(toImmutableList());
+            List<Symbol> rightKeys = node.getCriteria().stream()
+                    .map(JoinNode.EquiJoinClause::getRight)
+                    .collect(toImmutableList());
+
+            boolean leftPreserved = node.getType() == LEFT || node.getType() == FULL;
+            boolean rightPreserved = node.getType() == RIGHT || node.getType() == FULL;
+            if (!leftPreserved) {
+                left = filterNullKeys(left, leftKeys);
+            }
+            if (!rightPreserved) {
+                right = filterNullKeys(right, rightKeys);
+            }
+            if (!leftPreserved && !rightPreserved) {
+                return new JoinNode(
+                        node.getId(),
+                        node.getType(),
+                        left,
+                        right,
+                        node.getCriteria(),
+                        node.getOutputSymbols(),
+                        node.getFilter(),
+                        node.getLeftHashSymbol(),
+                        node.getRightHashSymbol(),
+                        node.getDistributionType());
+            }
+
+            // a filtered side has no rows with a null key left, so its salt is always zero
+            Symbol leftSalt = symbolAllocator.newSymbol("salt", INTEGER);
+            Symbol rightSalt = symbolAllocator.newSymbol("salt", INTEGER);
+            return new JoinNode(
+                    node.getId(),
+                    node.getType(),
+                    addSalt(left, leftKeys, leftSalt),
+                    addSalt(right, rightKeys, rightSalt),
+                    ImmutableList.<JoinNode.EquiJoinClause>builder()
+                            .addAll(node.getCriteria())
+                            .add(new JoinNode.EquiJoinClause(leftSalt, rightSalt))
+                            .build(),
+                    node.getOutputSymbols(),
+                    node.getFilter(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    node.getDistributionType());
+        }
+
+        private PlanNode filterNullKeys(PlanNode source, List<Symbol> keys)
+        {
+            return new FilterNode(
+                    idAllocator.getNextId(),
+                    source,
+                    combineConjuncts(keys.stream()
+                            .map(key -> new IsNotNullPredicate(key.toSymbolReference()))
+                            .collect(toImmutableList())));
+        }
+
+        private PlanNode addSalt(PlanNode source, List<Symbol> keys, Symbol salt)
+        {
+            Expression saltExpression = new IfExpression(
+                    or(keys.stream()
+                            .map(key -> new IsNullPredicate(key.toSymbolReference()))
+                            .collect(toImmutableList())),
+                    new FunctionCall(QualifiedName.of("random"), ImmutableList.of(SALT_BOUND)),
+                    NO_SALT);
+            return new ProjectNode(
+                    idAllocator.getNextId(),
+                    source,
+                    Assignments.builder()
+                            .putIdentities(source.getOutputSymbols())
+                            .put(salt, saltExpression)
+                            .build());
+        }
+    }
+}
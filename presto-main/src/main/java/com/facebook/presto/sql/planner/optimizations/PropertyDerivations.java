@@ -57,6 +57,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -431,6 +432,21 @@ public class PropertyDerivations
             }
         }
 
+        @Override
+        public ActualProperties visitSpatialJoin(SpatialJoinNode node, List<ActualProperties> inputProperties)
+        {
+            ActualProperties probeProperties = inputProperties.get(0).translate(column -> filterIfMissing(node.getOutputSymbols(), column));
+            ActualProperties buildProperties = inputProperties.get(1).translate(column -> filterIfMissing(node.getOutputSymbols(), column));
+
+            Map<Symbol, NullableValue> constants = new HashMap<>();
+            constants.putAll(probeProperties.getConstants());
+            constants.putAll(buildProperties.getConstants());
+
+            return ActualProperties.builderFrom(probeProperties)
+                    .constants(constants)
+                    .build();
+        }
+
         @Override
         public ActualProperties visitSemiJoin(SemiJoinNode node, List<ActualProperties> inputProperties)
         {
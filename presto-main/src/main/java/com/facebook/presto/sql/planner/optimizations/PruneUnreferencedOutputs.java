@@ -48,6 +48,7 @@ import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.StatisticAggregations;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
@@ -224,6 +225,35 @@ public class PruneUnreferencedOutputs
             return new JoinNode(node.getId(), node.getType(), left, right, node.getCriteria(), outputSymbols, node.getFilter(), node.getLeftHashSymbol(), node.getRightHashSymbol(), node.getDistributionType());
         }
 
+        @Override
+        public PlanNode visitSpatialJoin(SpatialJoinNode node, RewriteContext<Set<Symbol>> context)
+        {
+            Set<Symbol> requiredInputs = ImmutableSet.<Symbol>builder()
+                    .addAll(SymbolsExtractor.extractUnique(node.getFilter()))
+                    .addAll(context.get())
+                    .build();
+
+            Set<Symbol> leftInputs = ImmutableSet.<Symbol>builder()
+                    .addAll(requiredInputs)
+                    .add(node.getLeftPartitionSymbol())
+                    .build();
+            Set<Symbol> rightInputs = ImmutableSet.<Symbol>builder()
+                    .addAll(requiredInputs)
+                    .add(node.getRightPartitionSymbol())
+                    .build();
+
+            PlanNode left = context.rewrite(node.getLeft(), leftInputs);
+            PlanNode right = context.rewrite(node.getRight(), rightInputs);
+
+            Set<Symbol> seenSymbol = new HashSet<>();
+            List<Symbol> outputSymbols = node.getOutputSymbols().stream()
+                    .filter(context.get()::contains)
+                    .filter(seenSymbol::add)
+                    .collect(toImmutableList());
+
+            return new SpatialJoinNode(node.getId(), left, right, outputSymbols, node.getFilter(), node.getLeftPartitionSymbol(), node.getRightPartitionSymbol(), node.getKdbTree());
+        }
+
         @Override
         public PlanNode visitSemiJoin(SemiJoinNode node, RewriteContext<Set<Symbol>> context)
         {
@@ -0,0 +1,267 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.type.ArrayType;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.planner.LiteralEncoder;
+import com.facebook.presto.sql.planner.PlanNodeIdAllocator;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.SymbolAllocator;
+import com.facebook.presto.sql.planner.TypeProvider;
+import com.facebook.presto.sql.planner.plan.Assignments;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.PlanNode;
+import com.facebook.presto.sql.planner.plan.ProjectNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.facebook.presto.sql.tree.ArrayConstructor;
+import com.facebook.presto.sql.tree.Cast;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.sql.tree.IfExpression;
+import com.facebook.presto.sql.tree.InListExpression;
+import com.facebook.presto.sql.tree.InPredicate;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.sql.tree.QualifiedName;
+import com.facebook.presto.sql.tree.StringLiteral;
+import com.facebook.presto.sql.tree.SymbolReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.facebook.presto.SystemSessionProperties.getSkewedJoinKeys;
+import static com.facebook.presto.SystemSessionProperties.getSkewedJoinSaltCount;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_SESSION_PROPERTY;
+import static com.facebook.presto.spi.type.IntegerType.INTEGER;
+import static com.facebook.presto.sql.planner.ExpressionInterpreter.evaluateConstantExpression;
+import static com.facebook.presto.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In a partitioned join all rows with the same key hash to the same partition, so a few hot keys
+ * make a single task process most of the rows. For the columns configured with hot values in
+ * {@link com.facebook.presto.SystemSessionProperties#SKEWED_JOIN_KEYS}, this optimizer spreads the
+ * probe rows with a hot key over {@code n} partitions with a random salt, and replicates the build
+ * rows with a hot key to each of these partitions:
+ * <pre>
+ *     probe_salt = IF(probe_key IN (hot values), random(n), 0)
+ *     build_salt = UNNEST(IF(build_key IN (hot values), ARRAY[0, ..., n - 1], ARRAY[0]))
+ *     ON probe_key = build_key AND probe_salt = build_salt
+ * </pre>
+ * Replicated build rows would be reported as unmatched more than once, so only inner and left
+ * joins are salted. As the salt is part of the partitioning, the join output is not considered
+ * partitioned on the original join keys any more.
+ */
+public class SaltSkewedJoinKeys
+        implements PlanOptimizer
+{
+    private static final Expression NO_SALT = new LongLiteral("0");
+
+    private final Metadata metadata;
+    private final LiteralEncoder literalEncoder;
+
+    public SaltSkewedJoinKeys(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.literalEncoder = new LiteralEncoder(metadata.getBlockEncodingSerde());
+    }
+
+    @Override
+    public PlanNode optimize(PlanNode plan, Session session, TypeProvider types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(session, "session is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(symbolAllocator, "symbolAllocator is null");
+        requireNonNull(idAllocator, "idAllocator is null");
+
+        SkewedJoinKeys skewedJoinKeys = getSkewedJoinKeys(session);
+        if (skewedJoinKeys.isEmpty()) {
+            return plan;
+        }
+        return SimplePlanRewriter.rewriteWith(new Rewriter(session, types, symbolAllocator, idAllocator, skewedJoinKeys, getSkewedJoinSaltCount(session)), plan);
+    }
+
+    private class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final Session session;
+        private final TypeProvider types;
+        private final SymbolAllocator symbolAllocator;
+        private final PlanNodeIdAllocator idAllocator;
+        private final SkewedJoinKeys skewedJoinKeys;
+        private final int saltCount;
+
+        public Rewriter(Session session, TypeProvider types, SymbolAllocator symbolAllocator, PlanNodeIdAllocator idAllocator, SkewedJoinKeys skewedJoinKeys, int saltCount)
+        {
+            this.session = session;
+            this.types = types;
+            this.symbolAllocator = symbolAllocator;
+            this.idAllocator = idAllocator;
+            this.skewedJoinKeys = skewedJoinKeys;
+            this.saltCount = saltCount;
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            PlanNode left = context.rewrite(node.getLeft());
+            PlanNode right = context.rewrite(node.getRight());
+
+            if ((node.getType() != INNER && node.getType() != LEFT) || node.isSpatialJoin() || node.getDistributionType().orElse(null) != PARTITIONED) {
+                return node.replaceChildren(ImmutableList.of(left, right));
+            }
+
+            // the keys are equal in matching rows, so the hot values of a column on either side apply to both sides
+            for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+                List<String> hotValues = getHotValues(left, clause.getLeft());
+                if (hotValues.isEmpty()) {
+                    hotValues = getHotValues(right, clause.getRight());
+                }
+                if (hotValues.isEmpty()) {
+                    continue;
+                }
+
+                Symbol leftSalt = symbolAllocator.newSymbol("salt", INTEGER);
+                Symbol rightSalt = symbolAllocator.newSymbol("salt", INTEGER);
+                return new JoinNode(
+                        node.getId(),
+                        node.getType(),
+                        addSalt(left, clause.getLeft(), hotValues, leftSalt),
+                        replicateHotRows(right, clause.getRight(), hotValues, rightSalt),
+                        ImmutableList.<JoinNode.EquiJoinClause>builder()
+                                .addAll(node.getCriteria())
+                                .add(new JoinNode.EquiJoinClause(leftSalt, rightSalt))
+                                .build(),
+                        node.getOutputSymbols(),
+                        node.getFilter(),
+                        Optional.empty(),
+                        Optional.empty(),
+                        node.getDistributionType());
+            }
+            return node.replaceChildren(ImmutableList.of(left, right));
+        }
+
+        /**
+         * @return the hot values of the table column the symbol is read from, empty if the symbol is not a column or the column has no hot values
+         */
+        private List<String> getHotValues(PlanNode node, Symbol symbol)
+        {
+            if (node instanceof TableScanNode) {
+                TableScanNode tableScan = (TableScanNode) node;
+                ColumnHandle column = tableScan.getAssignments().get(symbol);
+                if (column == null) {
+                    return ImmutableList.of();
+                }
+                SchemaTableName table = metadata.getTableMetadata(session, tableScan.getTable()).getTable();
+                return skewedJoinKeys.getHotValues(table, metadata.getColumnMetadata(session, tableScan.getTable(), column).getName());
+            }
+            if (node instanceof ProjectNode) {
+                Expression expression = ((ProjectNode) node).getAssignments().get(symbol);
+                if (!(expression instanceof SymbolReference)) {
+                    return ImmutableList.of();
+                }
+                return getHotValues(((ProjectNode) node).getSource(), Symbol.from(expression));
+            }
+            if (node instanceof FilterNode) {
+                return getHotValues(((FilterNode) node).getSource(), symbol);
+            }
+            if (node instanceof JoinNode) {
+                for (PlanNode source : node.getSources()) {
+                    if (source.getOutputSymbols().contains(symbol)) {
+                        return getHotValues(source, symbol);
+                    }
+                }
+            }
+            return ImmutableList.of();
+        }
+
+        private PlanNode addSalt(PlanNode source, Symbol key, List<String> hotValues, Symbol salt)
+        {
+            Expression saltExpression = new IfExpression(
+                    isHotKey(key, hotValues),
+                    new FunctionCall(QualifiedName.of("random"), ImmutableList.of(new LongLiteral(String.valueOf(saltCount)))),
+                    NO_SALT);
+            return new ProjectNode(
+                    idAllocator.getNextId(),
+                    source,
+                    Assignments.builder()
+                            .putIdentities(source.getOutputSymbols())
+                            .put(salt, saltExpression)
+                            .build());
+        }
+
+        private PlanNode replicateHotRows(PlanNode source, Symbol key, List<String> hotValues, Symbol salt)
+        {
+            Symbol salts = symbolAllocator.newSymbol("salts", new ArrayType(INTEGER));
+            Expression saltsExpression = new IfExpression(
+                    isHotKey(key, hotValues),
+                    new ArrayConstructor(IntStream.range(0, saltCount)
+                            .mapToObj(value -> new LongLiteral(String.valueOf(value)))
+                            .collect(toImmutableList())),
+                    new ArrayConstructor(ImmutableList.of(NO_SALT)));
+            ProjectNode project = new ProjectNode(
+                    idAllocator.getNextId(),
+                    source,
+                    Assignments.builder()
+                            .putIdentities(source.getOutputSymbols())
+                            .put(salts, saltsExpression)
+                            .build());
+            return new UnnestNode(
+                    idAllocator.getNextId(),
+                    project,
+                    source.getOutputSymbols(),
+                    ImmutableMap.of(salts, ImmutableList.of(salt)),
+                    Optional.empty());
+        }
+
+        private Expression isHotKey(Symbol key, List<String> hotValues)
+        {
+            Type type = types.get(key);
+            return new InPredicate(
+                    key.toSymbolReference(),
+                    new InListExpression(hotValues.stream()
+                            .map(value -> toLiteral(value, type))
+                            .collect(toImmutableList())));
+        }
+
+        private Expression toLiteral(String value, Type type)
+        {
+            Object object;
+            try {
+                object = evaluateConstantExpression(new Cast(new StringLiteral(value), type.getTypeSignature().toString()), type, metadata, session, emptyList());
+            }
+            catch (PrestoException e) {
+                throw new PrestoException(INVALID_SESSION_PROPERTY, format("Hot value '%s' of a skewed join key is not a valid %s", value, type), e);
+            }
+            return literalEncoder.toExpression(object, type);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hot values of the columns that tables are joined on, written as {@code table.column=value|value},
+ * where the table may be qualified with its schema, and the entries for different columns are
+ * separated by semicolons, as commas separate the session properties sent by clients. For
+ * example {@code orders.custkey=0|-1;tpch.lineitem.partkey=1}.
+ */
+public final class SkewedJoinKeys
+{
+    public static final SkewedJoinKeys NONE = valueOf("");
+
+    private final String value;
+    // hot values by the qualified name of the column
+    private final Map<String, List<String>> hotValues;
+
+    private SkewedJoinKeys(String value, Map<String, List<String>> hotValues)
+    {
+        this.value = requireNonNull(value, "value is null");
+        this.hotValues = ImmutableMap.copyOf(requireNonNull(hotValues, "hotValues is null"));
+    }
+
+    public static SkewedJoinKeys valueOf(String value)
+    {
+        ImmutableMap.Builder<String, List<String>> hotValues = ImmutableMap.builder();
+        for (String entry : Splitter.on(';').trimResults().omitEmptyStrings().split(value)) {
+            List<String> parts = Splitter.on('=').limit(2).trimResults().splitToList(entry);
+            checkArgument(parts.size() == 2, "Skewed join key '%s' has no values", entry);
+            String column = parts.get(0).toLowerCase(ENGLISH);
+            int nameParts = Splitter.on('.').splitToList(column).size();
+            checkArgument(nameParts == 2 || nameParts == 3, "Skewed join key column '%s' is not of the form [schema.]table.column", parts.get(0));
+            List<String> values = Splitter.on('|').trimResults().omitEmptyStrings().splitToList(parts.get(1));
+            checkArgument(!values.isEmpty(), "Skewed join key '%s' has no values", entry);
+            hotValues.put(column, ImmutableList.copyOf(values));
+        }
+        return new SkewedJoinKeys(value, hotValues.build());
+    }
+
+    public boolean isEmpty()
+    {
+        return hotValues.isEmpty();
+    }
+
+    /**
+     * @return the hot values of the column, empty if the column has none
+     */
+    public List<String> getHotValues(SchemaTableName table, String column)
+    {
+        List<String> values = hotValues.get(table.getSchemaName() + "." + table.getTableName() + "." + column.toLowerCase(ENGLISH));
+        if (values == null) {
+            values = hotValues.get(table.getTableName() + "." + column.toLowerCase(ENGLISH));
+        }
+        return values == null ? ImmutableList.of() : values;
+    }
+
+    @Override
+    public String toString()
+    {
+        return value;
+    }
+}
@@ -46,6 +46,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -201,6 +202,13 @@ public final class StreamPropertyDerivations
             }
         }
 
+        @Override
+        public StreamProperties visitSpatialJoin(SpatialJoinNode node, List<StreamProperties> inputProperties)
+        {
+            return inputProperties.get(0)
+                    .translate(column -> PropertyDerivations.filterIfMissing(node.getOutputSymbols(), column));
+        }
+
         @Override
         public StreamProperties visitIndexJoin(IndexJoinNode node, List<StreamProperties> inputProperties)
         {
@@ -52,6 +52,7 @@ import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -484,6 +485,23 @@ public class UnaliasSymbolReferences
             return new JoinNode(node.getId(), node.getType(), left, right, canonicalCriteria, canonicalizeAndDistinct(node.getOutputSymbols()), canonicalFilter, canonicalLeftHashSymbol, canonicalRightHashSymbol, node.getDistributionType());
         }
 
+        @Override
+        public PlanNode visitSpatialJoin(SpatialJoinNode node, RewriteContext<Void> context)
+        {
+            PlanNode left = context.rewrite(node.getLeft());
+            PlanNode right = context.rewrite(node.getRight());
+
+            return new SpatialJoinNode(
+                    node.getId(),
+                    left,
+                    right,
+                    canonicalizeAndDistinct(node.getOutputSymbols()),
+                    canonicalize(node.getFilter()),
+                    canonicalize(node.getLeftPartitionSymbol()),
+                    canonicalize(node.getRightPartitionSymbol()),
+                    node.getKdbTree());
+        }
+
         @Override
         public PlanNode visitSemiJoin(SemiJoinNode node, RewriteContext<Void> context)
         {
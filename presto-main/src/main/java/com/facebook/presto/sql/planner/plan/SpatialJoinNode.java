@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.plan;
+
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.tree.Expression;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Inner spatial join of two sides partitioned by the cells of a KDB tree. Every row is
+ * replicated to each cell its geometry envelope intersects, identified by the partition
+ * symbols; rows match only within a cell, and a matching pair is emitted only by the cell
+ * which contains the lower left corner of the intersection of both envelopes.
+ * <p>
+ * Broadcast spatial joins are represented by a {@link JoinNode} with a spatial filter.
+ */
+@Immutable
+public class SpatialJoinNode
+        extends PlanNode
+{
+    private final PlanNode left;
+    private final PlanNode right;
+    private final List<Symbol> outputSymbols;
+    private final Expression filter;
+    private final Symbol leftPartitionSymbol;
+    private final Symbol rightPartitionSymbol;
+    private final String kdbTree;
+
+    @JsonCreator
+    public SpatialJoinNode(
+            @JsonProperty("id") PlanNodeId id,
+            @JsonProperty("left") PlanNode left,
+            @JsonProperty("right") PlanNode right,
+            @JsonProperty("outputSymbols") List<Symbol> outputSymbols,
+            @JsonProperty("filter") Expression filter,
+            @JsonProperty("leftPartitionSymbol") Symbol leftPartitionSymbol,
+            @JsonProperty("rightPartitionSymbol") Symbol rightPartitionSymbol,
+            @JsonProperty("kdbTree") String kdbTree)
+    {
+        super(id);
+
+        this.left = requireNonNull(left, "left is null");
+        this.right = requireNonNull(right, "right is null");
+        this.outputSymbols = ImmutableList.copyOf(requireNonNull(outputSymbols, "outputSymbols is null"));
+        this.filter = requireNonNull(filter, "filter is null");
+        this.leftPartitionSymbol = requireNonNull(leftPartitionSymbol, "leftPartitionSymbol is null");
+        this.rightPartitionSymbol = requireNonNull(rightPartitionSymbol, "rightPartitionSymbol is null");
+        this.kdbTree = requireNonNull(kdbTree, "kdbTree is null");
+
+        Set<Symbol> inputSymbols = ImmutableSet.<Symbol>builder()
+                .addAll(left.getOutputSymbols())
+                .addAll(right.getOutputSymbols())
+                .build();
+        checkArgument(inputSymbols.containsAll(outputSymbols), "Left and right join inputs do not contain all output symbols");
+        checkArgument(left.getOutputSymbols().contains(leftPartitionSymbol), "Left join input does not contain left partition symbol");
+        checkArgument(right.getOutputSymbols().contains(rightPartitionSymbol), "Right join input does not contain right partition symbol");
+    }
+
+    @JsonProperty("left")
+    public PlanNode getLeft()
+    {
+        return left;
+    }
+
+    @JsonProperty("right")
+    public PlanNode getRight()
+    {
+        return right;
+    }
+
+    @JsonProperty("filter")
+    public Expression getFilter()
+    {
+        return filter;
+    }
+
+    @JsonProperty("leftPartitionSymbol")
+    public Symbol getLeftPartitionSymbol()
+    {
+        return leftPartitionSymbol;
+    }
+
+    @JsonProperty("rightPartitionSymbol")
+    public Symbol getRightPartitionSymbol()
+    {
+        return rightPartitionSymbol;
+    }
+
+    /**
+     * KDB tree in JSON format, as produced by the {@code spatial_partitioning} aggregation.
+     */
+    @JsonProperty("kdbTree")
+    public String getKdbTree()
+    {
+        return kdbTree;
+    }
+
+    @Override
+    public List<PlanNode> getSources()
+    {
+        return ImmutableList.of(left, right);
+    }
+
+    @Override
+    @JsonProperty("outputSymbols")
+    public List<Symbol> getOutputSymbols()
+    {
+        return outputSymbols;
+    }
+
+    @Override
+    public <R, C> R accept(PlanVisitor<R, C> visitor, C context)
+    {
+        return visitor.visitSpatialJoin(this, context);
+    }
+
+    @Override
+    public PlanNode replaceChildren(List<PlanNode> newChildren)
+    {
+        checkArgument(newChildren.size() == 2, "expected newChildren to contain 2 nodes");
+        return new SpatialJoinNode(getId(), newChildren.get(0), newChildren.get(1), outputSymbols, filter, leftPartitionSymbol, rightPartitionSymbol, kdbTree);
+    }
+}
@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.sql.planner.planPrinter;
 
+import com.facebook.presto.operator.HashAggregationInfo;
+import com.facebook.presto.operator.ReplicatedBuildInfo;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.util.Mergeable;
 import io.airlift.units.DataSize;
@@ -47,6 +49,8 @@ public class PlanNodeStats
     private final Map<String, OperatorInputStats> operatorInputStats;
     private final Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats;
     private final Optional<WindowOperatorStats> windowOperatorStats;
+    private final Optional<HashAggregationInfo> partialAggregationInfo;
+    private final Optional<ReplicatedBuildInfo> replicatedBuildInfo;
 
     PlanNodeStats(
             PlanNodeId planNodeId,
@@ -57,7 +61,9 @@ public class PlanNodeStats
             DataSize planNodeOutputDataSize,
             Map<String, OperatorInputStats> operatorInputStats,
             Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats,
-            Optional<WindowOperatorStats> windowOperatorStats)
+            Optional<WindowOperatorStats> windowOperatorStats,
+            Optional<HashAggregationInfo> partialAggregationInfo,
+            Optional<ReplicatedBuildInfo> replicatedBuildInfo)
     {
         this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
 
@@ -70,6 +76,8 @@ public class PlanNodeStats
         this.operatorInputStats = requireNonNull(operatorInputStats, "operatorInputStats is null");
         this.operatorHashCollisionsStats = requireNonNull(operatorHashCollisionsStats, "operatorHashCollisionsStats is null");
         this.windowOperatorStats = requireNonNull(windowOperatorStats, "windowOperatorStats is null");
+        this.partialAggregationInfo = requireNonNull(partialAggregationInfo, "partialAggregationInfo is null");
+        this.replicatedBuildInfo = requireNonNull(replicatedBuildInfo, "replicatedBuildInfo is null");
     }
 
     private static double computedStdDev(double sumSquared, double sum, long n)
@@ -174,6 +182,16 @@ public class PlanNodeStats
         return windowOperatorStats;
     }
 
+    public Optional<HashAggregationInfo> getPartialAggregationInfo()
+    {
+        return partialAggregationInfo;
+    }
+
+    public Optional<ReplicatedBuildInfo> getReplicatedBuildInfo()
+    {
+        return replicatedBuildInfo;
+    }
+
     @Override
     public PlanNodeStats mergeWith(PlanNodeStats other)
     {
@@ -187,6 +205,8 @@ public class PlanNodeStats
         Map<String, OperatorInputStats> operatorInputStats = mergeMaps(this.operatorInputStats, other.operatorInputStats, OperatorInputStats::merge);
         Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats = mergeMaps(this.operatorHashCollisionsStats, other.operatorHashCollisionsStats, OperatorHashCollisionsStats::merge);
         Optional<WindowOperatorStats> windowNodeStats = Mergeable.merge(this.windowOperatorStats, other.windowOperatorStats);
+        Optional<HashAggregationInfo> partialAggregationInfo = Mergeable.merge(this.partialAggregationInfo, other.partialAggregationInfo);
+        Optional<ReplicatedBuildInfo> replicatedBuildInfo = Mergeable.merge(this.replicatedBuildInfo, other.replicatedBuildInfo);
 
         return new PlanNodeStats(
                 planNodeId,
@@ -195,6 +215,8 @@ public class PlanNodeStats
                 planNodeOutputPositions, planNodeOutputDataSize,
                 operatorInputStats,
                 operatorHashCollisionsStats,
-                windowNodeStats);
+                windowNodeStats,
+                partialAggregationInfo,
+                replicatedBuildInfo);
     }
 }
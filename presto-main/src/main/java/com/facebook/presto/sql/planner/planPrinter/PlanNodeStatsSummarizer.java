@@ -15,9 +15,11 @@ package com.facebook.presto.sql.planner.planPrinter;
 
 import com.facebook.presto.execution.StageInfo;
 import com.facebook.presto.execution.TaskInfo;
+import com.facebook.presto.operator.HashAggregationInfo;
 import com.facebook.presto.operator.HashCollisionsInfo;
 import com.facebook.presto.operator.OperatorStats;
 import com.facebook.presto.operator.PipelineStats;
+import com.facebook.presto.operator.ReplicatedBuildInfo;
 import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.operator.WindowInfo;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
@@ -74,6 +76,8 @@ public class PlanNodeStatsSummarizer
         Map<PlanNodeId, Map<String, OperatorInputStats>> operatorInputStats = new HashMap<>();
         Map<PlanNodeId, Map<String, OperatorHashCollisionsStats>> operatorHashCollisionsStats = new HashMap<>();
         Map<PlanNodeId, WindowOperatorStats> windowNodeStats = new HashMap<>();
+        Map<PlanNodeId, HashAggregationInfo> partialAggregationInfos = new HashMap<>();
+        Map<PlanNodeId, ReplicatedBuildInfo> replicatedBuildInfos = new HashMap<>();
 
         for (PipelineStats pipelineStats : taskStats.getPipelines()) {
             // Due to eventual consistently collected stats, these could be empty
@@ -109,8 +113,21 @@ public class PlanNodeStatsSummarizer
                                         operatorStats.getSumSquaredInputPositions())),
                         (map1, map2) -> mergeMaps(map1, map2, OperatorInputStats::merge));
 
+                HashCollisionsInfo hashCollisionsInfo = null;
                 if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                }
+                if (operatorStats.getInfo() instanceof HashAggregationInfo) {
+                    HashAggregationInfo hashAggregationInfo = (HashAggregationInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = hashAggregationInfo.getHashCollisionsInfo();
+                    partialAggregationInfos.merge(planNodeId, hashAggregationInfo, HashAggregationInfo::mergeWith);
+                }
+                if (operatorStats.getInfo() instanceof ReplicatedBuildInfo) {
+                    ReplicatedBuildInfo replicatedBuildInfo = (ReplicatedBuildInfo) operatorStats.getInfo();
+                    hashCollisionsInfo = replicatedBuildInfo.getHashCollisionsInfo();
+                    replicatedBuildInfos.merge(planNodeId, replicatedBuildInfo, ReplicatedBuildInfo::mergeWith);
+                }
+                if (hashCollisionsInfo != null) {
                     operatorHashCollisionsStats.merge(planNodeId,
                             ImmutableMap.of(
                                     operatorStats.getOperatorType(),
@@ -168,7 +185,9 @@ public class PlanNodeStatsSummarizer
                     operatorInputStats.get(planNodeId),
                     // Only some operators emit hash collisions statistics
                     operatorHashCollisionsStats.getOrDefault(planNodeId, emptyMap()),
-                    Optional.ofNullable(windowNodeStats.get(planNodeId))));
+                    Optional.ofNullable(windowNodeStats.get(planNodeId)),
+                    Optional.ofNullable(partialAggregationInfos.get(planNodeId)),
+                    Optional.ofNullable(replicatedBuildInfos.get(planNodeId))));
         }
         return stats;
     }
@@ -35,6 +35,8 @@ import com.facebook.presto.metadata.InternalNodeManager;
 import com.facebook.presto.metadata.OperatorNotFoundException;
 import com.facebook.presto.metadata.Signature;
 import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.operator.HashAggregationInfo;
+import com.facebook.presto.operator.ReplicatedBuildInfo;
 import com.facebook.presto.operator.StageExecutionStrategy;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
@@ -88,6 +90,7 @@ import com.facebook.presto.sql.planner.plan.RowNumberNode;
 import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.StatisticAggregations;
 import com.facebook.presto.sql.planner.plan.StatisticAggregationsDescriptor;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
@@ -251,6 +254,10 @@ public class PlanPrinter
                             formatDouble(sdAmongTasks),
                             formatPositions(stageStats.getOutputPositions()),
                             stageStats.getOutputDataSize()));
+            if (stageStats.getOutputPartitionSkew() > 0) {
+                builder.append(indentString(1))
+                        .append(format("Output partition skew: %s\n", formatDouble(stageStats.getOutputPartitionSkew())));
+            }
         }
 
         PartitioningScheme partitioningScheme = fragment.getPartitioningScheme();
@@ -306,7 +313,8 @@ public class PlanPrinter
                 SINGLE_DISTRIBUTION,
                 ImmutableList.of(plan.getId()),
                 new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), plan.getOutputSymbols()),
-                StageExecutionStrategy.ungroupedExecution());
+                StageExecutionStrategy.ungroupedExecution(),
+                ImmutableList.of());
         return GraphvizPrinter.printLogical(ImmutableList.of(fragment));
     }
 
@@ -387,6 +395,33 @@ public class PlanPrinter
             // TODO: Once PlanNodeStats becomes broken into smaller classes, we should rely on toString() method of WindowOperatorStats here
             printWindowOperatorStats(indent, nodeStats.getWindowOperatorStats().get());
         }
+
+        if (nodeStats.getPartialAggregationInfo().isPresent()) {
+            printPartialAggregationInfo(indent, nodeStats.getPartialAggregationInfo().get());
+        }
+
+        if (nodeStats.getReplicatedBuildInfo().isPresent()) {
+            printReplicatedBuildInfo(indent, nodeStats.getReplicatedBuildInfo().get());
+        }
+    }
+
+    private void printPartialAggregationInfo(int indent, HashAggregationInfo info)
+    {
+        output.append(indentString(indent));
+        output.append(format(Locale.US, "Partial aggregation: unique rows ratio: %s%%", formatDouble(100.0d * info.getUniqueRowsRatio())));
+        if (info.isPartialAggregationDisabled()) {
+            output.append(format(", disabled, passed through: %s", formatPositions(info.getPassThroughPositions())));
+        }
+        output.append('\n');
+    }
+
+    private void printReplicatedBuildInfo(int indent, ReplicatedBuildInfo info)
+    {
+        output.append(indentString(indent));
+        output.append(format("Broadcast build: %s per task, limit: %s",
+                info.getBuildDataSize().convertToMostSuccinctDataSize(),
+                info.getMaxBroadcastTableSize()));
+        output.append('\n');
     }
 
     private void printDistributions(int indent, PlanNodeStats nodeStats)
@@ -578,6 +613,21 @@ public class PlanPrinter
             return null;
         }
 
+        @Override
+        public Void visitSpatialJoin(SpatialJoinNode node, Integer indent)
+        {
+            print(indent, "- SpatialInnerJoin[%s] => [%s]",
+                    node.getFilter(),
+                    formatOutputs(node.getOutputSymbols()));
+            print(indent + 2, "Partitioning: [%s = %s]", node.getLeftPartitionSymbol(), node.getRightPartitionSymbol());
+            printPlanNodesStatsAndCost(indent + 2, node);
+            printStats(indent + 2, node.getId());
+            node.getLeft().accept(this, indent + 1);
+            node.getRight().accept(this, indent + 1);
+
+            return null;
+        }
+
         @Override
         public Void visitSemiJoin(SemiJoinNode node, Integer indent)
         {
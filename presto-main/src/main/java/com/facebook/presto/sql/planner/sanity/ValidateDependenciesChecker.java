@@ -49,6 +49,7 @@ import com.facebook.presto.sql.planner.plan.SampleNode;
 import com.facebook.presto.sql.planner.plan.SemiJoinNode;
 import com.facebook.presto.sql.planner.plan.SetOperationNode;
 import com.facebook.presto.sql.planner.plan.SortNode;
+import com.facebook.presto.sql.planner.plan.SpatialJoinNode;
 import com.facebook.presto.sql.planner.plan.TableFinishNode;
 import com.facebook.presto.sql.planner.plan.TableScanNode;
 import com.facebook.presto.sql.planner.plan.TableWriterNode;
@@ -372,6 +373,34 @@ public final class ValidateDependenciesChecker
             return null;
         }
 
+        @Override
+        public Void visitSpatialJoin(SpatialJoinNode node, Set<Symbol> boundSymbols)
+        {
+            node.getLeft().accept(this, boundSymbols);
+            node.getRight().accept(this, boundSymbols);
+
+            Set<Symbol> leftInputs = createInputs(node.getLeft(), boundSymbols);
+            Set<Symbol> rightInputs = createInputs(node.getRight(), boundSymbols);
+            Set<Symbol> allInputs = ImmutableSet.<Symbol>builder()
+                    .addAll(leftInputs)
+                    .addAll(rightInputs)
+                    .build();
+
+            checkArgument(leftInputs.contains(node.getLeftPartitionSymbol()), "Symbol from spatial join partitioning (%s) not in left source (%s)", node.getLeftPartitionSymbol(), node.getLeft().getOutputSymbols());
+            checkArgument(rightInputs.contains(node.getRightPartitionSymbol()), "Symbol from spatial join partitioning (%s) not in right source (%s)", node.getRightPartitionSymbol(), node.getRight().getOutputSymbols());
+
+            Set<Symbol> predicateSymbols = SymbolsExtractor.extractUnique(node.getFilter());
+            checkArgument(
+                    allInputs.containsAll(predicateSymbols),
+                    "Symbol from filter (%s) not in sources (%s)",
+                    predicateSymbols,
+                    allInputs);
+
+            checkDependencies(allInputs, node.getOutputSymbols(), "Symbol from spatial join output (%s) not in sources (%s)", node.getOutputSymbols(), allInputs);
+
+            return null;
+        }
+
         @Override
         public Void visitSemiJoin(SemiJoinNode node, Set<Symbol> boundSymbols)
         {
@@ -55,6 +55,9 @@ import com.facebook.presto.execution.SetPathTask;
 import com.facebook.presto.execution.SetSessionTask;
 import com.facebook.presto.execution.StartTransactionTask;
 import com.facebook.presto.execution.TaskManagerConfig;
+import com.facebook.presto.execution.plancache.CachedPlan;
+import com.facebook.presto.execution.plancache.PlanCache;
+import com.facebook.presto.execution.plancache.PlanCacheKey;
 import com.facebook.presto.execution.resourceGroups.NoOpResourceGroupManager;
 import com.facebook.presto.execution.scheduler.LegacyNetworkTopology;
 import com.facebook.presto.execution.scheduler.NodeScheduler;
@@ -468,11 +471,13 @@ public class LocalQueryRunner
         return nodePartitioningManager;
     }
 
+    @Override
     public PageSourceManager getPageSourceManager()
     {
         return pageSourceManager;
     }
 
+    @Override
     public SplitManager getSplitManager()
     {
         return splitManager;
@@ -705,6 +710,7 @@ public class LocalQueryRunner
                 subplan.getFragment().getPartitioningScheme().getOutputLayout(),
                 plan.getTypes(),
                 subplan.getFragment().getPartitionedSources(),
+                subplan.getFragment().getRemoteDynamicFilters(),
                 outputFactory);
 
         // generate sources
@@ -794,6 +800,8 @@ public class LocalQueryRunner
                 featuresConfig,
                 forceSingleNode,
                 new MBeanExporter(new TestingMBeanServer()),
+                splitManager,
+                pageSourceManager,
                 statsCalculator,
                 costCalculator,
                 estimatedExchangesCostCalculator,
@@ -806,18 +814,32 @@ public class LocalQueryRunner
     }
 
     public Plan createPlan(Session session, @Language("SQL") String sql, List<PlanOptimizer> optimizers, LogicalPlanner.Stage stage)
+    {
+        return createPlan(session, sql, optimizers, stage, Optional.empty());
+    }
+
+    /**
+     * Reuses the logical plans cached in the plan cache, if any.
+     */
+    public Plan createPlan(Session session, @Language("SQL") String sql, List<PlanOptimizer> optimizers, LogicalPlanner.Stage stage, Optional<PlanCache> planCache)
     {
         Statement wrapped = sqlParser.createStatement(sql, createParsingOptions(session));
         Statement statement = unwrapExecuteStatement(wrapped, sqlParser, session);
 
-        List<Expression> parameters = emptyList();
-        if (wrapped instanceof Execute) {
-            parameters = ((Execute) wrapped).getParameters();
-        }
+        List<Expression> parameters = wrapped instanceof Execute ? ((Execute) wrapped).getParameters() : emptyList();
         validateParameters(statement, parameters);
 
         assertFormattedSql(sqlParser, createParsingOptions(session), statement);
 
+        Optional<PlanCacheKey> planCacheKey = planCache.flatMap(cache -> cache.createKey(session, statement, parameters));
+        Optional<CachedPlan> cachedPlan = planCacheKey.flatMap(key -> planCache.get().get(session, key));
+        if (cachedPlan.isPresent()) {
+            cachedPlan.get().checkColumnAccessPermissions(session, accessControl);
+            Plan plan = planCache.get().bind(session, planCacheKey.get(), cachedPlan.get().getPlan(), parameters).get();
+            return new LogicalPlanner(session, optimizers, new PlanSanityChecker(true), cachedPlan.get().createPlanNodeIdAllocator(), metadata, sqlParser)
+                    .optimize(plan, stage);
+        }
+
         PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
 
         QueryExplainer queryExplainer = new QueryExplainer(
@@ -832,12 +854,22 @@ public class LocalQueryRunner
                 nodeManager,
                 nodeSchedulerConfig,
                 dataDefinitionTask);
-        Analyzer analyzer = new Analyzer(session, metadata, sqlParser, accessControl, Optional.of(queryExplainer), parameters);
+        List<Expression> analysisParameters = planCacheKey.map(PlanCache::createParameterPlaceholders).orElse(parameters);
+        Analyzer analyzer = new Analyzer(session, metadata, sqlParser, accessControl, Optional.of(queryExplainer), analysisParameters);
 
         LogicalPlanner logicalPlanner = new LogicalPlanner(session, optimizers, new PlanSanityChecker(true), idAllocator, metadata, sqlParser);
 
         Analysis analysis = analyzer.analyze(statement);
-        return logicalPlanner.plan(analysis, stage);
+        if (!planCacheKey.isPresent()) {
+            return logicalPlanner.plan(analysis, stage);
+        }
+        Plan plan = logicalPlanner.plan(analysis, LogicalPlanner.Stage.CREATED);
+        Optional<Plan> boundPlan = planCache.get().bind(session, planCacheKey.get(), plan, parameters);
+        if (!boundPlan.isPresent()) {
+            return createPlan(session, sql, optimizers, stage);
+        }
+        planCache.get().put(session, planCacheKey.get(), analysis, plan);
+        return logicalPlanner.optimize(boundPlan.get(), stage);
     }
 
     private static List<Split> getNextBatch(SplitSource splitSource)
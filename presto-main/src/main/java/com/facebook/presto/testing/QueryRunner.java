@@ -18,6 +18,8 @@ import com.facebook.presto.cost.StatsCalculator;
 import com.facebook.presto.metadata.Metadata;
 import com.facebook.presto.metadata.QualifiedObjectName;
 import com.facebook.presto.spi.Plugin;
+import com.facebook.presto.split.PageSourceManager;
+import com.facebook.presto.split.SplitManager;
 import com.facebook.presto.sql.planner.NodePartitioningManager;
 import com.facebook.presto.sql.planner.Plan;
 import com.facebook.presto.transaction.TransactionManager;
@@ -44,6 +46,10 @@ public interface QueryRunner
 
     NodePartitioningManager getNodePartitioningManager();
 
+    SplitManager getSplitManager();
+
+    PageSourceManager getPageSourceManager();
+
     StatsCalculator getStatsCalculator();
 
     TestingAccessControlManager getAccessControl();
@@ -24,6 +24,7 @@ import com.facebook.presto.memory.MemoryPool;
 import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
 import com.facebook.presto.metadata.Split;
 import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.operator.StageExecutionStrategy;
 import com.facebook.presto.operator.TaskContext;
 import com.facebook.presto.operator.TaskStats;
@@ -59,6 +60,7 @@ import javax.annotation.concurrent.GuardedBy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -118,7 +120,8 @@ public class MockRemoteTaskFactory
                 SOURCE_DISTRIBUTION,
                 ImmutableList.of(sourceId),
                 new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), ImmutableList.of(symbol)),
-                StageExecutionStrategy.ungroupedExecution());
+                StageExecutionStrategy.ungroupedExecution(),
+                ImmutableList.of());
 
         ImmutableMultimap.Builder<PlanNodeId, Split> initialSplits = ImmutableMultimap.builder();
         for (Split sourceSplit : splits) {
@@ -169,6 +172,11 @@ public class MockRemoteTaskFactory
 
         private final PartitionedSplitCountTracker partitionedSplitCountTracker;
 
+        private final StateMachine<DynamicFilterSummaries> dynamicFilterSummaries;
+
+        @GuardedBy("this")
+        private final Map<PlanNodeId, DynamicFilterSummary> dynamicFilters = new HashMap<>();
+
         public MockRemoteTask(TaskId taskId,
                 PlanFragment fragment,
                 String nodeId,
@@ -179,6 +187,7 @@ public class MockRemoteTaskFactory
                 PartitionedSplitCountTracker partitionedSplitCountTracker)
         {
             this.taskStateMachine = new TaskStateMachine(requireNonNull(taskId, "taskId is null"), requireNonNull(executor, "executor is null"));
+            this.dynamicFilterSummaries = new StateMachine<>("task " + taskId, executor, DynamicFilterSummaries.EMPTY);
 
             MemoryPool memoryPool = new MemoryPool(new MemoryPoolId("test"), new DataSize(1, GIGABYTE));
             SpillSpaceTracker spillSpaceTracker = new SpillSpaceTracker(new DataSize(1, GIGABYTE));
@@ -248,7 +257,8 @@ public class MockRemoteTaskFactory
                             new DataSize(0, BYTE),
                             new DataSize(0, BYTE),
                             0,
-                            new Duration(0, MILLISECONDS)),
+                            new Duration(0, MILLISECONDS),
+                            dynamicFilterSummaries.get().getVersion()),
                     DateTime.now(),
                     outputBuffer.getInfo(),
                     ImmutableSet.of(),
@@ -276,7 +286,8 @@ public class MockRemoteTaskFactory
                     stats.getUserMemoryReservation(),
                     stats.getSystemMemoryReservation(),
                     0,
-                    new Duration(0, MILLISECONDS));
+                    new Duration(0, MILLISECONDS),
+                    dynamicFilterSummaries.get().getVersion());
         }
 
         private synchronized void updateSplitQueueSpace()
@@ -374,6 +385,28 @@ public class MockRemoteTaskFactory
             taskStateMachine.addStateChangeListener(newValue -> stateChangeListener.stateChanged(getTaskStatus()));
         }
 
+        @Override
+        public void addDynamicFilterSummariesListener(StateChangeListener<DynamicFilterSummaries> stateChangeListener)
+        {
+            dynamicFilterSummaries.addStateChangeListener(stateChangeListener);
+        }
+
+        public void publishDynamicFilterSummaries(DynamicFilterSummaries summaries)
+        {
+            dynamicFilterSummaries.set(summaries);
+        }
+
+        @Override
+        public synchronized void addDynamicFilters(Map<PlanNodeId, DynamicFilterSummary> dynamicFilters)
+        {
+            this.dynamicFilters.putAll(dynamicFilters);
+        }
+
+        public synchronized Map<PlanNodeId, DynamicFilterSummary> getDynamicFilters()
+        {
+            return ImmutableMap.copyOf(dynamicFilters);
+        }
+
         @Override
         public synchronized ListenableFuture<?> whenSplitQueueHasSpace(int threshold)
         {
@@ -113,7 +113,8 @@ public final class TaskTestUtils
             ImmutableList.of(TABLE_SCAN_NODE_ID),
             new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), ImmutableList.of(SYMBOL))
                     .withBucketToPartition(Optional.of(new int[1])),
-            StageExecutionStrategy.ungroupedExecution());
+            StageExecutionStrategy.ungroupedExecution(),
+            ImmutableList.of());
 
     public static LocalExecutionPlanner createTestingPlanner()
     {
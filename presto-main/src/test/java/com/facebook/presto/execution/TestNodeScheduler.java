@@ -49,6 +49,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -394,6 +395,52 @@ public class TestNodeScheduler
         assertEquals(nodeTaskMap.getPartitionedSplitsOnNode(chosenNode), 0);
     }
 
+    @Test
+    public void testSplitAffinity()
+    {
+        NodeSelector nodeSelector = createAffinityNodeSelector();
+
+        Map<String, Node> owners = new HashMap<>();
+        for (int round = 0; round < 2; round++) {
+            Set<Split> splits = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), new TestAffinitySplit("file" + i)));
+                splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), new TestAffinitySplit("file" + i)));
+            }
+            Multimap<Node, Split> assignments = nodeSelector.computeAssignments(splits, ImmutableList.of()).getAssignments();
+            assertEquals(assignments.size(), 20);
+            for (Map.Entry<Node, Split> entry : assignments.entries()) {
+                String key = entry.getValue().getAffinityKey().get();
+                Node owner = owners.computeIfAbsent(key, ignored -> entry.getKey());
+                // splits of the same file are always placed on the same node
+                assertEquals(entry.getKey(), owner);
+            }
+        }
+    }
+
+    @Test
+    public void testSplitAffinityFallback()
+    {
+        NodeSelector nodeSelector = createAffinityNodeSelector();
+
+        Set<Split> splits = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            splits.add(new Split(CONNECTOR_ID, TestingTransactionHandle.create(), new TestAffinitySplit("file")));
+        }
+        Multimap<Node, Split> assignments = nodeSelector.computeAssignments(splits, ImmutableList.of()).getAssignments();
+
+        // once a preferred node has max-pending-splits-per-task queued splits the next preferred node is used,
+        // and once both are full the remaining splits go to the least loaded node
+        assertEquals(assignments.size(), 25);
+        assertEquals(assignments.keySet().size(), 3);
+        List<Integer> splitsPerNode = new ArrayList<>();
+        for (Node node : assignments.keySet()) {
+            splitsPerNode.add(assignments.get(node).size());
+        }
+        Collections.sort(splitsPerNode);
+        assertEquals(splitsPerNode, ImmutableList.of(5, 10, 10));
+    }
+
     @Test
     public void testSplitCount()
     {
@@ -481,6 +528,34 @@ public class TestNodeScheduler
         }
     }
 
+    private NodeSelector createAffinityNodeSelector()
+    {
+        NodeSchedulerConfig nodeSchedulerConfig = new NodeSchedulerConfig()
+                .setMaxSplitsPerNode(20)
+                .setIncludeCoordinator(false)
+                .setMaxPendingSplitsPerTask(10)
+                .setSplitAffinityEnabled(true);
+        NodeScheduler nodeScheduler = new NodeScheduler(new LegacyNetworkTopology(), nodeManager, nodeSchedulerConfig, nodeTaskMap);
+        return nodeScheduler.createNodeSelector(CONNECTOR_ID);
+    }
+
+    private static class TestAffinitySplit
+            extends TestSplitRemote
+    {
+        private final String affinityKey;
+
+        public TestAffinitySplit(String affinityKey)
+        {
+            this.affinityKey = requireNonNull(affinityKey, "affinityKey is null");
+        }
+
+        @Override
+        public Optional<String> getAffinityKey()
+        {
+            return Optional.of(affinityKey);
+        }
+    }
+
     private static class TestNetworkTopology
             implements NetworkTopology
     {
@@ -59,6 +59,7 @@ public class TestQueryStats
                     1L,
                     succinctBytes(1L),
                     new Duration(1, NANOSECONDS),
+                    new Duration(1, NANOSECONDS),
                     0L,
                     new Duration(1, NANOSECONDS),
                     new Duration(1, NANOSECONDS),
@@ -92,6 +93,7 @@ public class TestQueryStats
                     100L,
                     succinctBytes(1L),
                     new Duration(1, NANOSECONDS),
+                    new Duration(1, NANOSECONDS),
                     0L,
                     new Duration(1, NANOSECONDS),
                     new Duration(1, NANOSECONDS),
@@ -125,6 +127,7 @@ public class TestQueryStats
                     1L,
                     succinctBytes(1L),
                     new Duration(1, NANOSECONDS),
+                    new Duration(1, NANOSECONDS),
                     0L,
                     new Duration(1, NANOSECONDS),
                     new Duration(1, NANOSECONDS),
@@ -19,6 +19,7 @@ import com.facebook.presto.ScheduledSplit;
 import com.facebook.presto.TaskSource;
 import com.facebook.presto.execution.buffer.BufferResult;
 import com.facebook.presto.execution.buffer.BufferState;
+import com.facebook.presto.execution.buffer.SerializedPage;
 import com.facebook.presto.execution.executor.TaskExecutor;
 import com.facebook.presto.memory.LocalMemoryManager;
 import com.facebook.presto.memory.NodeMemoryConfig;
@@ -26,6 +27,7 @@ import com.facebook.presto.memory.ReservedSystemMemoryConfig;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.ExchangeClient;
 import com.facebook.presto.operator.ExchangeClientSupplier;
+import com.facebook.presto.operator.LocalTaskResultsProvider;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spiller.LocalSpillManager;
@@ -33,6 +35,7 @@ import com.facebook.presto.spiller.NodeSpillConfig;
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.http.client.testing.TestingHttpClient;
 import io.airlift.node.NodeInfo;
 import io.airlift.stats.TestingGcMonitor;
 import io.airlift.units.DataSize;
@@ -44,6 +47,8 @@ import org.testng.annotations.Test;
 import java.net.URI;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static com.facebook.presto.OutputBuffers.BufferType.PARTITIONED;
@@ -54,12 +59,18 @@ import static com.facebook.presto.execution.TaskTestUtils.SPLIT;
 import static com.facebook.presto.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
 import static com.facebook.presto.execution.TaskTestUtils.createTestQueryMonitor;
 import static com.facebook.presto.execution.TaskTestUtils.createTestingPlanner;
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
 
 @Test
 public class TestSqlTaskManager
@@ -141,6 +152,68 @@ public class TestSqlTaskManager
         }
     }
 
+    @Test
+    public void testLocalExchange()
+            throws Exception
+    {
+        URI nodeUri = URI.create("http://127.0.0.1:8080");
+        ScheduledExecutorService scheduler = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduler-%s"));
+        ExecutorService callbackExecutor = newCachedThreadPool(daemonThreadsNamed("test-callback-%s"));
+        try (SqlTaskManager sqlTaskManager = createSqlTaskManager(new TaskManagerConfig())) {
+            TaskId taskId = TASK_ID;
+            TaskInfo taskInfo = createTask(sqlTaskManager, taskId, ImmutableSet.of(SPLIT), createInitialEmptyOutputBuffers(PARTITIONED).withBuffer(OUT, 0).withNoMoreBufferIds());
+            assertEquals(taskInfo.getTaskStatus().getState(), TaskState.RUNNING);
+
+            LocalTaskResultsProvider localTaskResultsProvider = new LocalTaskResultsProvider(nodeUri, () -> sqlTaskManager, scheduler);
+            assertFalse(localTaskResultsProvider.getLocalTaskResults(URI.create("http://127.0.0.2:8080/v1/task/" + taskId + "/results/0")).isPresent());
+            assertFalse(localTaskResultsProvider.getLocalTaskResults(URI.create("http://127.0.0.1:8080/v1/task/" + taskId)).isPresent());
+
+            // the output buffer must be read without going through HTTP
+            TestingHttpClient httpClient = new TestingHttpClient(request -> {
+                throw new AssertionError("Unexpected request " + request.getUri());
+            });
+            try (ExchangeClient exchangeClient = new ExchangeClient(
+                    new DataSize(32, Unit.MEGABYTE),
+                    new DataSize(1, Unit.MEGABYTE),
+                    1,
+                    new Duration(1, TimeUnit.MINUTES),
+                    true,
+                    httpClient,
+                    scheduler,
+                    newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"),
+                    callbackExecutor,
+                    Optional.of(localTaskResultsProvider))) {
+                exchangeClient.addLocation(URI.create(nodeUri + "/v1/task/" + taskId + "/results/" + OUT.getId()));
+                exchangeClient.noMoreLocations();
+
+                long positions = 0;
+                long start = System.nanoTime();
+                while (!exchangeClient.isFinished()) {
+                    SerializedPage page = exchangeClient.pollPage();
+                    if (page != null) {
+                        positions += page.getPositionCount();
+                    }
+                    else {
+                        exchangeClient.isBlocked().get(10, TimeUnit.SECONDS);
+                    }
+                    if (Duration.nanosSince(start).getValue(TimeUnit.SECONDS) > 10) {
+                        fail("Exchange did not finish");
+                    }
+                }
+                assertEquals(positions, 1);
+            }
+
+            // the exchange client aborts the buffer once it is complete
+            taskInfo = sqlTaskManager.getTaskInfo(taskId, taskInfo.getTaskStatus().getState()).get(10, TimeUnit.SECONDS);
+            assertEquals(taskInfo.getTaskStatus().getState(), TaskState.FINISHED);
+            assertEquals(taskInfo.getOutputBuffers().getState(), BufferState.FINISHED);
+        }
+        finally {
+            scheduler.shutdownNow();
+            callbackExecutor.shutdownNow();
+        }
+    }
+
     @Test
     public void testCancel()
     {
@@ -68,6 +68,7 @@ public class TestStageStats
             new DataSize(23, BYTE),
             new DataSize(24, BYTE),
             25,
+            2.5,
 
             new DataSize(26, BYTE),
 
@@ -130,6 +131,7 @@ public class TestStageStats
         assertEquals(actual.getBufferedDataSize(), new DataSize(23, BYTE));
         assertEquals(actual.getOutputDataSize(), new DataSize(24, BYTE));
         assertEquals(actual.getOutputPositions(), 25);
+        assertEquals(actual.getOutputPartitionSkew(), 2.5);
 
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(26, BYTE));
 
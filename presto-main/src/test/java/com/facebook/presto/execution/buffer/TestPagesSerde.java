@@ -13,9 +13,11 @@
  */
 package com.facebook.presto.execution.buffer;
 
+import com.facebook.presto.block.BlockEncodingManager;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
 import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.type.TestingTypeManager;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.DynamicSliceOutput;
@@ -24,7 +26,10 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.PageCompression.UNCOMPRESSED;
 import static com.facebook.presto.execution.buffer.PagesSerdeUtil.readPages;
 import static com.facebook.presto.execution.buffer.PagesSerdeUtil.writePages;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
@@ -32,6 +37,7 @@ import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -59,6 +65,70 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCodecs()
+    {
+        Page page = new Page(createCompressibleBlock(10_000));
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = createPagesSerde(codec);
+            SerializedPage serializedPage = serde.serialize(page);
+            assertEquals(serializedPage.getCompression(), codec.getPageCompression());
+            assertEquals(serde.getUncompressedSizeInBytes(), serializedPage.getUncompressedSizeInBytes());
+            assertEquals(serde.getSerializedSizeInBytes(), serializedPage.getSizeInBytes());
+
+            // pages are readable regardless of the codec of the reading serde
+            for (CompressionCodec readerCodec : CompressionCodec.values()) {
+                assertPageEquals(ImmutableList.of(BIGINT), createPagesSerde(readerCodec).deserialize(serializedPage), page);
+            }
+        }
+    }
+
+    @Test
+    public void testSkipCompressionOfIncompressiblePages()
+    {
+        PagesSerde serde = createPagesSerde(LZ4);
+        Page incompressible = new Page(createRandomBlock(10_000));
+        Page compressible = new Page(createCompressibleBlock(10_000));
+
+        // the first page is compressed, but does not compress well
+        assertEquals(serde.serialize(incompressible).getCompression(), UNCOMPRESSED);
+
+        // compression is not attempted for the next page, and then the interval doubles
+        assertEquals(serde.serialize(compressible).getCompression(), UNCOMPRESSED);
+        assertEquals(serde.serialize(incompressible).getCompression(), UNCOMPRESSED);
+        assertEquals(serde.serialize(compressible).getCompression(), UNCOMPRESSED);
+        assertEquals(serde.serialize(compressible).getCompression(), UNCOMPRESSED);
+
+        // the next sampled page compresses well, so compression is enabled again
+        assertEquals(serde.serialize(compressible).getCompression(), LZ4.getPageCompression());
+        assertEquals(serde.serialize(compressible).getCompression(), LZ4.getPageCompression());
+        assertTrue(serde.getSerializedSizeInBytes() < serde.getUncompressedSizeInBytes());
+    }
+
+    private static PagesSerde createPagesSerde(CompressionCodec codec)
+    {
+        return new PagesSerdeFactory(new BlockEncodingManager(new TestingTypeManager()), codec).createPagesSerde();
+    }
+
+    private static Block createCompressibleBlock(int positionCount)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            BIGINT.writeLong(builder, i / 100);
+        }
+        return builder.build();
+    }
+
+    private static Block createRandomBlock(int positionCount)
+    {
+        Random random = new Random(0);
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            BIGINT.writeLong(builder, random.nextLong());
+        }
+        return builder.build();
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
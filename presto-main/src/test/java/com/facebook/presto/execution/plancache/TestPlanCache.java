@@ -0,0 +1,407 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.plancache;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.ViewDefinition;
+import com.facebook.presto.metadata.ViewDefinition.ViewColumn;
+import com.facebook.presto.operator.scalar.ParameterFunction;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorHandleResolver;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.ConnectorTableHandle;
+import com.facebook.presto.spi.ConnectorViewDefinition;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.connector.Connector;
+import com.facebook.presto.spi.connector.ConnectorContext;
+import com.facebook.presto.spi.connector.ConnectorFactory;
+import com.facebook.presto.spi.connector.ConnectorMetadata;
+import com.facebook.presto.spi.connector.ConnectorNodePartitioningProvider;
+import com.facebook.presto.spi.connector.ConnectorRecordSetProvider;
+import com.facebook.presto.spi.connector.ConnectorSplitManager;
+import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.facebook.presto.spi.connector.classloader.ClassLoaderSafeConnectorMetadata;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.security.AccessDeniedException;
+import com.facebook.presto.spi.transaction.IsolationLevel;
+import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.plan.FilterNode;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.FunctionCall;
+import com.facebook.presto.testing.LocalQueryRunner;
+import com.facebook.presto.tpch.TpchConnectorFactory;
+import com.facebook.presto.tpch.TpchHandleResolver;
+import com.facebook.presto.tpch.TpchTransactionHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.json.JsonCodec;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.ExpressionExtractor.extractExpressionsNonRecursive;
+import static com.facebook.presto.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.sql.util.AstUtils.preOrder;
+import static com.facebook.presto.testing.TestingAccessControlManager.TestingPrivilegeType.SELECT_COLUMN;
+import static com.facebook.presto.testing.TestingAccessControlManager.privilege;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.testing.Closeables.closeAllRuntimeException;
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestPlanCache
+{
+    private static final String CATALOG = "versioned";
+    private static final JsonCodec<ViewDefinition> VIEW_CODEC = JsonCodec.jsonCodec(ViewDefinition.class);
+
+    private LocalQueryRunner queryRunner;
+    private PlanCache planCache;
+    // the version reported for every table, if any
+    private OptionalLong tableVersion;
+
+    @BeforeClass
+    public void setUp()
+    {
+        Session session = testSessionBuilder()
+                .setCatalog(CATALOG)
+                .setSchema("tiny")
+                .build();
+        queryRunner = new LocalQueryRunner(session);
+        queryRunner.createCatalog(CATALOG, new VersionedTpchConnectorFactory(), ImmutableMap.of());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        closeAllRuntimeException(queryRunner);
+        queryRunner = null;
+    }
+
+    @BeforeMethod
+    public void setUpMethod()
+    {
+        planCache = new PlanCache(new PlanCacheConfig().setEnabled(true), queryRunner.getMetadata());
+        tableVersion = OptionalLong.of(0);
+        queryRunner.getAccessControl().reset();
+    }
+
+    @Test
+    public void testRepeatedQuery()
+    {
+        createPlan("SELECT name FROM nation WHERE regionkey = 1");
+        assertEquals(planCache.getEntryCount(), 1);
+        assertEquals(planCache.getMissCount(), 1);
+
+        createPlan("SELECT name FROM nation WHERE regionkey = 1");
+        assertEquals(planCache.getHitCount(), 1);
+
+        // a different statement
+        createPlan("SELECT name FROM nation WHERE regionkey = 2");
+        assertEquals(planCache.getEntryCount(), 2);
+        assertEquals(planCache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testCachedPlanBoundToTransaction()
+    {
+        createPlan("SELECT name FROM nation");
+
+        // every transaction of the connector has a handle of its own, which the layout chosen for the cached plan must use
+        queryRunner.inTransaction(transactionSession -> {
+            Plan plan = createPlan(transactionSession, "SELECT name FROM nation");
+            TableScanNode tableScan = searchFrom(plan.getRoot()).where(TableScanNode.class::isInstance).findOnlyElement();
+            ConnectorTransactionHandle transactionHandle = queryRunner.getTransactionManager().getConnectorTransaction(
+                    transactionSession.getRequiredTransactionId(),
+                    new ConnectorId(CATALOG));
+            assertSame(tableScan.getLayout().get().getTransactionHandle(), transactionHandle);
+            return null;
+        });
+        assertEquals(planCache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testPreparedStatementWithDifferentParameters()
+    {
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .addPreparedStatement("my_query", "SELECT name FROM nation WHERE regionkey = ?")
+                .build();
+
+        Plan plan = queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 1"));
+        assertEquals(getFilterPredicate(plan), "(\"regionkey\" = BIGINT '1')");
+        assertEquals(planCache.getMissCount(), 1);
+
+        // the plan of the statement is shared by the executions with other values of the parameters
+        plan = queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 2"));
+        assertEquals(getFilterPredicate(plan), "(\"regionkey\" = BIGINT '2')");
+        assertEquals(planCache.getHitCount(), 1);
+        assertEquals(planCache.getEntryCount(), 1);
+
+        // but not with parameters of other types
+        queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING BIGINT '2'"));
+        assertEquals(planCache.getEntryCount(), 2);
+    }
+
+    @Test
+    public void testPreparedStatementWithStringParameters()
+    {
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .addPreparedStatement("my_query", "SELECT regionkey FROM nation WHERE name = ?")
+                .build();
+
+        queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 'CHINA'"));
+        Plan plan = queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 'GERMANY'"));
+        assertEquals(getFilterPredicate(plan), "(CAST(\"name\" AS varchar) = CAST('GERMANY' AS varchar))");
+        assertEquals(planCache.getHitCount(), 1);
+        assertEquals(planCache.getEntryCount(), 1);
+    }
+
+    @Test
+    public void testPredicatePushedDownWithParameters()
+    {
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .addPreparedStatement("my_query", "SELECT orderkey FROM orders WHERE orderstatus = ?")
+                .build();
+
+        queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 'F'"));
+        Plan plan = queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, "EXECUTE my_query USING 'O'"));
+        assertEquals(planCache.getHitCount(), 1);
+
+        // the value of the parameter is pushed into the scan as if it was a literal of the statement
+        Plan expected = queryRunner.inTransaction(transactionSession -> queryRunner.createPlan(
+                transactionSession,
+                "SELECT orderkey FROM orders WHERE orderstatus = 'O'",
+                queryRunner.getPlanOptimizers(false),
+                OPTIMIZED_AND_VALIDATED));
+        TupleDomain<ColumnHandle> constraint = getTableScan(plan).getCurrentConstraint();
+        assertFalse(constraint.isAll());
+        assertEquals(constraint, getTableScan(expected).getCurrentConstraint());
+    }
+
+    @Test
+    public void testParametersBoundInAllExpressions()
+    {
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .addPreparedStatement("my_query", "" +
+                        "SELECT regionkey, sum(nationkey + ?), count(*) FILTER (WHERE name > ?), max(nationkey) OVER (PARTITION BY regionkey) + ? " +
+                        "FROM nation " +
+                        "WHERE regionkey IN (SELECT regionkey FROM region WHERE name <> ?) AND EXISTS (SELECT * FROM region r WHERE r.regionkey = nation.regionkey AND r.name <> ?) " +
+                        "GROUP BY regionkey, nationkey " +
+                        "UNION ALL VALUES (?, ?, ?, ?)")
+                .build();
+
+        String execute = "EXECUTE my_query USING %s, 'A', 1, 'B', 'C', 1, 2, 3, 4";
+        queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, format(execute, 1)));
+        Plan plan = queryRunner.inTransaction(session, transactionSession -> createPlan(transactionSession, format(execute, 2)));
+        assertEquals(planCache.getHitCount(), 1);
+
+        List<Expression> expressions = searchFrom(plan.getRoot()).findAll().stream()
+                .flatMap(node -> extractExpressionsNonRecursive(node).stream())
+                .collect(toImmutableList());
+        assertFalse(expressions.isEmpty());
+        for (Expression expression : expressions) {
+            assertFalse(
+                    preOrder(expression).anyMatch(node -> node instanceof FunctionCall && ((FunctionCall) node).getName().toString().equals(ParameterFunction.NAME)),
+                    "unbound parameter in " + expression);
+        }
+    }
+
+    @Test
+    public void testTableVersionChanged()
+    {
+        createPlan("SELECT name FROM nation");
+
+        tableVersion = OptionalLong.of(1);
+        createPlan("SELECT name FROM nation");
+        assertEquals(planCache.getStaleCount(), 1);
+        assertEquals(planCache.getHitCount(), 0);
+
+        // the plan for the new version is cached
+        createPlan("SELECT name FROM nation");
+        assertEquals(planCache.getHitCount(), 1);
+
+        // the plan can not be validated if the version is no longer reported
+        tableVersion = OptionalLong.empty();
+        createPlan("SELECT name FROM nation");
+        assertEquals(planCache.getStaleCount(), 2);
+        assertEquals(planCache.getHitCount(), 1);
+        assertEquals(planCache.getEntryCount(), 0);
+    }
+
+    @Test
+    public void testAccessControlCheckedOnHit()
+    {
+        createPlan("SELECT name FROM nation");
+
+        queryRunner.getAccessControl().deny(privilege("nation", SELECT_COLUMN));
+        try {
+            createPlan("SELECT name FROM nation");
+            fail("expected access to be denied for the cached plan");
+        }
+        catch (AccessDeniedException expected) {
+        }
+        assertEquals(planCache.getHitCount(), 1);
+    }
+
+    @Test
+    public void testViewNotCached()
+    {
+        createPlan("SELECT * FROM nation_view");
+        assertEquals(planCache.getEntryCount(), 0);
+    }
+
+    @Test
+    public void testStartTimeDependentQueryNotCached()
+    {
+        createPlan("SELECT name, now() FROM nation");
+        createPlan("SELECT name FROM nation WHERE current_date > DATE '2000-01-01'");
+        assertEquals(planCache.getEntryCount(), 0);
+    }
+
+    private Plan createPlan(@Language("SQL") String sql)
+    {
+        return queryRunner.inTransaction(transactionSession -> createPlan(transactionSession, sql));
+    }
+
+    private Plan createPlan(Session transactionSession, @Language("SQL") String sql)
+    {
+        return queryRunner.createPlan(
+                transactionSession,
+                sql,
+                queryRunner.getPlanOptimizers(false),
+                OPTIMIZED_AND_VALIDATED,
+                Optional.of(planCache));
+    }
+
+    private static TableScanNode getTableScan(Plan plan)
+    {
+        return searchFrom(plan.getRoot()).where(TableScanNode.class::isInstance).findOnlyElement();
+    }
+
+    private static String getFilterPredicate(Plan plan)
+    {
+        FilterNode filter = searchFrom(plan.getRoot()).where(FilterNode.class::isInstance).findOnlyElement();
+        return filter.getPredicate().toString();
+    }
+
+    /**
+     * Handle of a transaction of the versioned connector, which is equal only to itself.
+     */
+    public static class VersionedTransactionHandle
+            implements ConnectorTransactionHandle
+    {
+    }
+
+    /**
+     * The TPCH connector with table versions controlled by the test, and a view on the nation table.
+     */
+    private class VersionedTpchConnectorFactory
+            implements ConnectorFactory
+    {
+        private final ConnectorFactory delegate = new TpchConnectorFactory(1);
+
+        @Override
+        public String getName()
+        {
+            return CATALOG;
+        }
+
+        @Override
+        public ConnectorHandleResolver getHandleResolver()
+        {
+            return new TpchHandleResolver()
+            {
+                @Override
+                public Class<? extends ConnectorTransactionHandle> getTransactionHandleClass()
+                {
+                    return VersionedTransactionHandle.class;
+                }
+            };
+        }
+
+        @Override
+        public Connector create(String connectorId, Map<String, String> config, ConnectorContext context)
+        {
+            Connector connector = delegate.create(connectorId, config, context);
+            return new Connector()
+            {
+                @Override
+                public ConnectorTransactionHandle beginTransaction(IsolationLevel isolationLevel, boolean readOnly)
+                {
+                    return new VersionedTransactionHandle();
+                }
+
+                @Override
+                public ConnectorMetadata getMetadata(ConnectorTransactionHandle transactionHandle)
+                {
+                    return new ClassLoaderSafeConnectorMetadata(connector.getMetadata(TpchTransactionHandle.INSTANCE), getClass().getClassLoader())
+                    {
+                        @Override
+                        public OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+                        {
+                            return tableVersion;
+                        }
+
+                        @Override
+                        public Map<SchemaTableName, ConnectorViewDefinition> getViews(ConnectorSession session, SchemaTablePrefix prefix)
+                        {
+                            SchemaTableName viewName = new SchemaTableName("tiny", "nation_view");
+                            String viewData = VIEW_CODEC.toJson(new ViewDefinition(
+                                    "SELECT nationkey FROM nation",
+                                    Optional.of(CATALOG),
+                                    Optional.of("tiny"),
+                                    ImmutableList.of(new ViewColumn("nationkey", BIGINT)),
+                                    Optional.empty()));
+                            return ImmutableMap.of(viewName, new ConnectorViewDefinition(viewName, Optional.empty(), viewData));
+                        }
+                    };
+                }
+
+                @Override
+                public ConnectorSplitManager getSplitManager()
+                {
+                    return connector.getSplitManager();
+                }
+
+                @Override
+                public ConnectorRecordSetProvider getRecordSetProvider()
+                {
+                    return connector.getRecordSetProvider();
+                }
+
+                @Override
+                public ConnectorNodePartitioningProvider getNodePartitioningProvider()
+                {
+                    return connector.getNodePartitioningProvider();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution.resultcache;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class TestQueryResultCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(QueryResultCacheConfig.class)
+                .setEnabled(false)
+                .setMaxSize(new DataSize(256, MEGABYTE))
+                .setMaxEntrySize(new DataSize(16, MEGABYTE))
+                .setTtl(new Duration(10, MINUTES)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("query.result-cache.enabled", "true")
+                .put("query.result-cache.max-size", "1GB")
+                .put("query.result-cache.max-entry-size", "64MB")
+                .put("query.result-cache.ttl", "1h")
+                .build();
+
+        QueryResultCacheConfig expected = new QueryResultCacheConfig()
+                .setEnabled(true)
+                .setMaxSize(new DataSize(1, GIGABYTE))
+                .setMaxEntrySize(new DataSize(64, MEGABYTE))
+                .setTtl(new Duration(1, HOURS));
+
+        assertFullMapping(properties, expected);
+    }
+}
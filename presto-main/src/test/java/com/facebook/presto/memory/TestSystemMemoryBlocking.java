@@ -41,6 +41,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
@@ -103,7 +104,8 @@ public class TestSystemMemoryBlocking
                         .addSequencePage(10, 1)
                         .addSequencePage(10, 1)
                         .build()),
-                ImmutableList.of());
+                ImmutableList.of(),
+                Optional.empty());
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
         assertSame(driver.getDriverContext(), driverContext);
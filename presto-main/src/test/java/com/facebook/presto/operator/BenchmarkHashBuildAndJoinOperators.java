@@ -14,6 +14,7 @@
 package com.facebook.presto.operator;
 
 import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.Session;
 import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.operator.HashBuilderOperator.HashBuilderOperatorFactory;
 import com.facebook.presto.spi.Page;
@@ -51,6 +52,7 @@ import java.util.concurrent.ScheduledExecutorService;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.SystemSessionProperties.BATCHED_JOIN_PROBE;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
@@ -87,7 +89,7 @@ public class BenchmarkHashBuildAndJoinOperators
         protected static final int ROWS_PER_PAGE = 1024;
         protected static final int BUILD_ROWS_NUMBER = 8_000_000;
 
-        @Param({"varchar", "bigint", "all"})
+        @Param({"varchar", "bigint", "bigints", "all"})
         protected String hashColumns = "bigint";
 
         @Param({"false", "true"})
@@ -96,6 +98,9 @@ public class BenchmarkHashBuildAndJoinOperators
         @Param({"1", "5"})
         protected int buildRowsRepetition = 1;
 
+        @Param({"false", "true"})
+        protected boolean batchedJoinProbe = true;
+
         protected ExecutorService executor;
         protected ScheduledExecutorService scheduledExecutor;
         protected List<Page> buildPages;
@@ -113,6 +118,9 @@ public class BenchmarkHashBuildAndJoinOperators
                 case "bigint":
                     hashChannels = Ints.asList(1);
                     break;
+                case "bigints":
+                    hashChannels = Ints.asList(1, 2);
+                    break;
                 case "all":
                     hashChannels = Ints.asList(0, 1, 2);
                     break;
@@ -127,7 +135,10 @@ public class BenchmarkHashBuildAndJoinOperators
 
         public TaskContext createTaskContext()
         {
-            return TestingTaskContext.createTaskContext(executor, scheduledExecutor, TEST_SESSION, new DataSize(2, GIGABYTE));
+            Session session = Session.builder(TEST_SESSION)
+                    .setSystemProperty(BATCHED_JOIN_PROBE, String.valueOf(batchedJoinProbe))
+                    .build();
+            return TestingTaskContext.createTaskContext(executor, scheduledExecutor, session, new DataSize(2, GIGABYTE));
         }
 
         public OptionalInt getHashChannel()
@@ -308,7 +319,9 @@ public class BenchmarkHashBuildAndJoinOperators
                 10_000,
                 new PagesIndex.TestingFactory(false),
                 false,
-                SingleStreamSpillerFactory.unsupportedSingleStreamSpillerFactory());
+                SingleStreamSpillerFactory.unsupportedSingleStreamSpillerFactory(),
+                Optional.empty(),
+                Optional.empty());
 
         Operator operator = hashBuilderOperatorFactory.createOperator(driverContext);
         for (Page page : buildContext.getBuildPages()) {
@@ -45,6 +45,7 @@ import com.facebook.presto.spi.function.InputFunction;
 import com.facebook.presto.spi.function.LiteralParameters;
 import com.facebook.presto.spi.function.OperatorDependency;
 import com.facebook.presto.spi.function.OutputFunction;
+import com.facebook.presto.spi.function.RemoveInputFunction;
 import com.facebook.presto.spi.function.SqlType;
 import com.facebook.presto.spi.function.TypeParameter;
 import com.facebook.presto.spi.function.TypeParameterSpecialization;
@@ -66,6 +67,7 @@ import org.testng.annotations.Test;
 
 import java.lang.invoke.MethodHandle;
 import java.util.List;
+import java.util.Optional;
 
 import static com.facebook.presto.metadata.Signature.typeVariable;
 import static com.facebook.presto.operator.aggregation.AggregationFromAnnotationsParser.parseFunctionDefinition;
@@ -123,6 +125,7 @@ public class TestAnnotationEngineForAggregates
         assertImplementationCount(implementations, 1, 0, 0);
         AggregationImplementation implementation = getOnlyElement(implementations.getExactImplementations().values());
         assertFalse(implementation.getStateSerializerFactory().isPresent());
+        assertFalse(implementation.getRemoveInputFunction().isPresent());
         assertEquals(implementation.getDefinitionClass(), ExactAggregationFunction.class);
         assertDependencyCount(implementation, 0, 0, 0);
         assertFalse(implementation.hasSpecializedTypeParameters());
@@ -135,6 +138,46 @@ public class TestAnnotationEngineForAggregates
         assertEquals(specialized.name(), "simple_exact_aggregate");
     }
 
+    @AggregationFunction("removable_aggregate")
+    @Description("Aggregate with remove input function")
+    public static class RemoveInputAggregationFunction
+    {
+        @InputFunction
+        public static void input(@AggregationState NullableDoubleState state, @SqlType(DOUBLE) double value)
+        {
+            // noop this is only for annotation testing puproses
+        }
+
+        @RemoveInputFunction
+        public static void removeInput(@AggregationState NullableDoubleState state, @SqlType(DOUBLE) double value)
+        {
+            // noop this is only for annotation testing puproses
+        }
+
+        @CombineFunction
+        public static void combine(@AggregationState NullableDoubleState combine1, @AggregationState NullableDoubleState combine2)
+        {
+            // noop this is only for annotation testing puproses
+        }
+
+        @OutputFunction(DOUBLE)
+        public static void output(@AggregationState NullableDoubleState state, BlockBuilder out)
+        {
+            // noop this is only for annotation testing puproses
+        }
+    }
+
+    @Test
+    public void testRemoveInputAggregationParse()
+    {
+        ParametricAggregation aggregation = parseFunctionDefinition(RemoveInputAggregationFunction.class);
+        AggregationImplementation implementation = getOnlyElement(aggregation.getImplementations().getExactImplementations().values());
+        assertTrue(implementation.getRemoveInputFunction().isPresent());
+
+        InternalAggregationFunction specialized = aggregation.specialize(BoundVariables.builder().build(), 1, new TypeRegistry(), null);
+        assertTrue(specialized.bind(ImmutableList.of(0), Optional.empty()).createAccumulator().hasRemoveInput());
+    }
+
     @AggregationFunction("simple_exact_aggregate_aggregation_state_moved")
     @Description("Simple exact function which has @AggregationState on different than first positions")
     public static class StateOnDifferentThanFirstPositionAggregationFunction
@@ -44,6 +44,7 @@ import org.testng.annotations.Test;
 
 import java.io.Closeable;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -179,7 +180,8 @@ public class TestDriver
                                 .build());
                     }
                 },
-                ImmutableList.of());
+                ImmutableList.of(),
+                Optional.empty());
 
         PageConsumerOperator sink = createSinkOperator(types);
         Driver driver = Driver.createDriver(driverContext, source, sink);
@@ -484,7 +486,7 @@ public class TestDriver
                 PageSourceProvider pageSourceProvider,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, columns);
+            super(operatorContext, planNodeId, pageSourceProvider, columns, Optional.empty());
         }
 
         @Override
@@ -508,7 +510,7 @@ public class TestDriver
                 PageSourceProvider pageSourceProvider,
                 Iterable<ColumnHandle> columns)
         {
-            super(operatorContext, planNodeId, pageSourceProvider, columns);
+            super(operatorContext, planNodeId, pageSourceProvider, columns, Optional.empty());
         }
 
         @Override
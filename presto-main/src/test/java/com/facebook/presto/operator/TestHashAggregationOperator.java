@@ -73,6 +73,7 @@ import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -560,6 +561,104 @@ public class TestHashAggregationOperator
         }
     }
 
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(500, 0, 0)
+                .addSequencePage(500, 500, 500)
+                .addSequencePage(500, 1000, 1000)
+                .addSequencePage(500, 1500, 1500)
+                .build();
+
+        PartialAggregationController partialAggregationController = new PartialAggregationController(10, 0.5);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(1), Optional.empty()),
+                        COUNT.bind(ImmutableList.of(1), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                new DataSize(1, KILOBYTE),
+                false,
+                new DataSize(0, MEGABYTE),
+                spillerFactory,
+                joinCompiler,
+                Optional.of(partialAggregationController));
+
+        DriverContext driverContext = createDriverContext();
+        MaterializedResult.Builder expectedBuilder = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (long key = 0; key < 2000; key++) {
+            expectedBuilder.row(key, key, 1L);
+        }
+        MaterializedResult expected = expectedBuilder.build();
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            List<Page> outputPages = toPages(operator, input.iterator());
+            if (hashEnabled) {
+                // Drop the hashChannel for all pages
+                outputPages = dropChannel(outputPages, ImmutableList.of(1));
+            }
+            MaterializedResult actual = toMaterializedResult(operator.getOperatorContext().getSession(), expected.getTypes(), outputPages);
+            assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+            // every key is unique, so partial aggregation is disabled after the first flush
+            assertTrue(partialAggregationController.isPartialAggregationDisabled());
+            HashAggregationInfo info = (HashAggregationInfo) operator.getOperatorContext().getOperatorStats().getInfo();
+            assertTrue(info.isPartialAggregationDisabled());
+            assertEquals(info.getAggregatedInputPositions() + info.getPassThroughPositions(), 2000);
+            assertEquals(info.getAggregatedOutputPositions(), info.getAggregatedInputPositions());
+            assertGreaterThan(info.getPassThroughPositions(), 0L);
+        }
+    }
+
+    @Test
+    public void testSkippedPartialAggregationMemory()
+            throws Exception
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(BIGINT, BIGINT);
+        Page input = getOnlyElement(rowPagesBuilder.addSequencePage(500, 0, 0).build());
+
+        // partial aggregation is disabled before the operator sees any input
+        PartialAggregationController partialAggregationController = new PartialAggregationController(10, 0.5);
+        partialAggregationController.onFlush(100, 100);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                Ints.asList(0),
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(1), Optional.empty())),
+                Optional.empty(),
+                Optional.empty(),
+                100_000,
+                new DataSize(1, KILOBYTE),
+                false,
+                new DataSize(0, MEGABYTE),
+                spillerFactory,
+                joinCompiler,
+                Optional.of(partialAggregationController));
+
+        try (Operator operator = operatorFactory.createOperator(createDriverContext())) {
+            operator.addInput(input);
+            assertEquals(operator.getOperatorContext().getOperatorStats().getUserMemoryReservation().toBytes(), input.getRetainedSizeInBytes());
+
+            assertEquals(operator.getOutput().getPositionCount(), 500);
+            assertEquals(operator.getOperatorContext().getOperatorStats().getUserMemoryReservation().toBytes(), 0);
+        }
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -89,6 +89,7 @@ import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.Collections.nCopies;
@@ -188,6 +189,44 @@ public class TestHashJoinOperator
         assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true).addDriverContext(), probeInput, expected, true, getHashChannels(probePages, buildPages));
     }
 
+    @Test(dataProvider = "hashJoinTestValues")
+    public void testInnerJoinWithPrimitiveKeys(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
+    {
+        TaskContext taskContext = createTaskContext();
+
+        // build
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, Ints.asList(0), ImmutableList.of(BIGINT, BIGINT))
+                .row(1L, 10L)
+                .row(2L, 20L)
+                .row(null, 30L)
+                .pageBreak()
+                .row(-3L, 50L)
+                .row(Long.MAX_VALUE, 60L);
+        JoinBridgeDataManager<LookupSourceFactory> lookupSourceFactory = buildHash(parallelBuild, taskContext, Ints.asList(0), buildPages, Optional.empty());
+
+        // probe
+        RowPagesBuilder probePages = rowPagesBuilder(probeHashEnabled, Ints.asList(0), ImmutableList.of(BIGINT));
+        List<Page> probeInput = probePages
+                .row(2L)
+                .row((Long) null)
+                .row(4L)
+                .row(Long.MAX_VALUE)
+                .row(-3L)
+                .row(1L)
+                .build();
+        OperatorFactory joinOperatorFactory = innerJoinOperatorFactory(lookupSourceFactory, probePages, PARTITIONING_SPILLER_FACTORY);
+
+        // expected
+        MaterializedResult expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probePages.getTypesWithoutHash(), buildPages.getTypesWithoutHash()))
+                .row(2L, 2L, 20L)
+                .row(Long.MAX_VALUE, Long.MAX_VALUE, 60L)
+                .row(-3L, -3L, 50L)
+                .row(1L, 1L, 10L)
+                .build();
+
+        assertOperatorEquals(joinOperatorFactory, taskContext.addPipelineContext(0, true, true).addDriverContext(), probeInput, expected, true, getHashChannels(probePages, buildPages));
+    }
+
     @Test
     public void testYield()
     {
@@ -375,7 +414,7 @@ public class TestHashJoinOperator
                 .addSequencePage(4, 30, 300)
                 .addSequencePage(4, 40, 400);
 
-        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory);
+        BuildSideSetup buildSideSetup = setupBuildSide(true, taskContext, Ints.asList(0), buildPages, Optional.of(filterFunction), true, buildSpillerFactory, Optional.empty());
         List<Driver> buildDrivers = buildSideSetup.getBuildDrivers();
         int buildOperatorCount = buildDrivers.size();
         checkState(buildOperatorCount == whenSpill.size());
@@ -957,6 +996,58 @@ public class TestHashJoinOperator
         buildHash(parallelBuild, taskContext, Ints.asList(0), buildPages, Optional.empty());
     }
 
+    @Test(expectedExceptions = PrestoException.class, expectedExceptionsMessageRegExp = "Build side of broadcast join exceeded the broadcast limit of 100B.*", dataProvider = "testMemoryLimitProvider")
+    public void testBroadcastLimit(boolean parallelBuild, boolean buildHashEnabled)
+    {
+        TaskContext taskContext = createTaskContext();
+
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, Ints.asList(0), ImmutableList.of(VARCHAR, BIGINT, BIGINT))
+                .addSequencePage(10, 20, 30, 40);
+        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, Ints.asList(0), buildPages, Optional.empty(), false, SINGLE_STREAM_SPILLER_FACTORY, Optional.of(new ReplicatedBuildSizeTracker(new DataSize(100, BYTE), true)));
+        buildLookupSource(buildSideSetup);
+    }
+
+    @Test(dataProvider = "testMemoryLimitProvider")
+    public void testBroadcastLimitNotEnforced(boolean parallelBuild, boolean buildHashEnabled)
+    {
+        TaskContext taskContext = createTaskContext();
+
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, Ints.asList(0), ImmutableList.of(VARCHAR, BIGINT, BIGINT))
+                .addSequencePage(10, 20, 30, 40);
+        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, Ints.asList(0), buildPages, Optional.empty(), false, SINGLE_STREAM_SPILLER_FACTORY, Optional.of(new ReplicatedBuildSizeTracker(new DataSize(100, BYTE), false)));
+        buildLookupSource(buildSideSetup);
+
+        // the size over the limit is only reported
+        ReplicatedBuildInfo info = (ReplicatedBuildInfo) buildSideSetup.getBuildOperators().get(0).getOperatorContext().getOperatorStats().getInfo();
+        assertTrue(info.getBuildDataSize().toBytes() > 100);
+        assertEquals(info.getMaxBroadcastTableSize(), new DataSize(100, BYTE));
+    }
+
+    @Test(dataProvider = "testMemoryLimitProvider")
+    public void testBroadcastBuildInfo(boolean parallelBuild, boolean buildHashEnabled)
+    {
+        TaskContext taskContext = createTaskContext();
+
+        RowPagesBuilder buildPages = rowPagesBuilder(buildHashEnabled, Ints.asList(0), ImmutableList.of(VARCHAR, BIGINT, BIGINT))
+                .addSequencePage(10, 20, 30, 40)
+                .addSequencePage(10, 30, 40, 50);
+        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, Ints.asList(0), buildPages, Optional.empty(), false, SINGLE_STREAM_SPILLER_FACTORY, Optional.of(new ReplicatedBuildSizeTracker(new DataSize(1, MEGABYTE), false)));
+        buildLookupSource(buildSideSetup);
+
+        // every build operator reports the size of the build side received by the whole task
+        List<ReplicatedBuildInfo> infos = buildSideSetup.getBuildOperators().stream()
+                .map(operator -> (ReplicatedBuildInfo) operator.getOperatorContext().getOperatorStats().getInfo())
+                .collect(toImmutableList());
+        long inputBytes = buildSideSetup.getBuildOperators().stream()
+                .mapToLong(operator -> operator.getOperatorContext().getOperatorStats().getInputDataSize().toBytes())
+                .sum();
+        for (ReplicatedBuildInfo info : infos) {
+            assertEquals(info.getBuildDataSize().toBytes(), inputBytes);
+            assertEquals(info.getMaxBroadcastTableSize(), new DataSize(1, MEGABYTE));
+        }
+        assertEquals(infos.stream().reduce(ReplicatedBuildInfo::mergeWith).get().getBuildDataSize().toBytes(), inputBytes);
+    }
+
     @Test(dataProvider = "hashJoinTestValues")
     public void testInnerJoinWithEmptyLookupSource(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
     {
@@ -1195,7 +1286,7 @@ public class TestHashJoinOperator
             RowPagesBuilder buildPages,
             Optional<InternalJoinFilterFunction> filterFunction)
     {
-        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, hashChannels, buildPages, filterFunction, false, SINGLE_STREAM_SPILLER_FACTORY);
+        BuildSideSetup buildSideSetup = setupBuildSide(parallelBuild, taskContext, hashChannels, buildPages, filterFunction, false, SINGLE_STREAM_SPILLER_FACTORY, Optional.empty());
         buildLookupSource(buildSideSetup);
         return buildSideSetup.getLookupSourceFactoryManager();
     }
@@ -1207,7 +1298,8 @@ public class TestHashJoinOperator
             RowPagesBuilder buildPages,
             Optional<InternalJoinFilterFunction> filterFunction,
             boolean spillEnabled,
-            SingleStreamSpillerFactory singleStreamSpillerFactory)
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            Optional<ReplicatedBuildSizeTracker> replicatedBuildSizeTracker)
     {
         Optional<JoinFilterFunctionFactory> filterFunctionFactory = filterFunction
                 .map(function -> (session, addresses, channels) -> new StandardJoinFilterFunction(function, addresses, channels));
@@ -1265,7 +1357,9 @@ public class TestHashJoinOperator
                 100,
                 new PagesIndex.TestingFactory(false),
                 spillEnabled,
-                singleStreamSpillerFactory);
+                singleStreamSpillerFactory,
+                Optional.empty(),
+                replicatedBuildSizeTracker);
         PipelineContext buildPipeline = taskContext.addPipelineContext(1, true, true);
 
         List<Driver> buildDrivers = new ArrayList<>();
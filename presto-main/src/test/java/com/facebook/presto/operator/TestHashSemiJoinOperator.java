@@ -113,7 +113,8 @@ public class TestHashSemiJoinOperator
                 0,
                 rowPagesBuilder.getHashChannel(),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -165,7 +166,8 @@ public class TestHashSemiJoinOperator
                 0,
                 Optional.of(1),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
 
         // run test
         GroupByHashYieldAssertion.GroupByHashYieldResult result = finishOperatorWithYieldingGroupByHash(
@@ -204,7 +206,8 @@ public class TestHashSemiJoinOperator
                 0,
                 rowPagesBuilder.getHashChannel(),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -257,7 +260,8 @@ public class TestHashSemiJoinOperator
                 0,
                 rowPagesBuilder.getHashChannel(),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -314,7 +318,8 @@ public class TestHashSemiJoinOperator
                 0,
                 rowPagesBuilder.getHashChannel(),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
@@ -369,7 +374,8 @@ public class TestHashSemiJoinOperator
                 0,
                 rowPagesBuilder.getHashChannel(),
                 10,
-                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()));
+                new JoinCompiler(createTestMetadataManager(), new FeaturesConfig()),
+                Optional.empty());
         Operator setBuilderOperator = setBuilderOperatorFactory.createOperator(driverContext);
 
         Driver driver = Driver.createDriver(driverContext, buildOperator, setBuilderOperator);
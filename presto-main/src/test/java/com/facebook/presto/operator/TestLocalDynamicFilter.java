@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.testing.TestingMetadata.TestingColumnHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static io.airlift.concurrent.MoreFutures.getDone;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestLocalDynamicFilter
+{
+    @Test
+    public void testDistinctValues()
+    {
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 0);
+        filter.setPartitionCount(1);
+
+        DynamicFilterCollector collector = filter.createCollector(ImmutableList.of(0));
+        collector.addPage(new Page(createLongsBlock(3L, 1L, null, 3L)));
+        assertFalse(filter.getResult().isDone());
+
+        filter.addPartition(collector.build());
+        assertTrue(filter.getResult().isDone());
+        assertEquals(
+                getDone(filter.getResult()),
+                TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 3L)))));
+    }
+
+    @Test
+    public void testRangeWhenTooManyDistinctValues()
+    {
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 0);
+        filter.setPartitionCount(1);
+
+        DynamicFilterCollector collector = filter.createCollector(ImmutableList.of(0));
+        collector.addPage(new Page(createLongSequenceBlock(5, 100)));
+        filter.addPartition(collector.build());
+
+        assertEquals(
+                getDone(filter.getResult()),
+                TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 5L, true, 99L, true)), false))));
+    }
+
+    @Test
+    public void testEmptyBuildSide()
+    {
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 0);
+        filter.setPartitionCount(1);
+
+        filter.addPartition(filter.createCollector(ImmutableList.of(0)).build());
+        assertTrue(getDone(filter.getResult()).isNone());
+    }
+
+    @Test
+    public void testUnionOfPartitions()
+    {
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 0);
+        filter.setPartitionCount(2);
+
+        DynamicFilterCollector first = filter.createCollector(ImmutableList.of(0));
+        first.addPage(new Page(createLongsBlock(1L)));
+        filter.addPartition(first.build());
+        assertFalse(filter.getResult().isDone());
+
+        DynamicFilterCollector second = filter.createCollector(ImmutableList.of(0));
+        second.addPage(new Page(createLongsBlock(2L)));
+        filter.addPartition(second.build());
+
+        assertEquals(
+                getDone(filter.getResult()),
+                TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L)))));
+    }
+
+    @Test
+    public void testPageFilter()
+    {
+        ColumnHandle column = new TestingColumnHandle("column");
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 0);
+        filter.setPartitionCount(1);
+        DynamicFilter dynamicFilter = DynamicFilter.create(filter, ImmutableMap.of(0, column));
+        assertFalse(dynamicFilter.createPageFilter(ImmutableList.of(column)).isPresent());
+        assertTrue(dynamicFilter.getCurrentDomain().isAll());
+
+        DynamicFilterCollector collector = filter.createCollector(ImmutableList.of(0));
+        collector.addPage(new Page(createLongsBlock(2L, 4L)));
+        filter.addPartition(collector.build());
+
+        DynamicFilter.PageFilter pageFilter = dynamicFilter.createPageFilter(ImmutableList.of(column)).get();
+        Page filtered = pageFilter.filter(new Page(createLongSequenceBlock(0, 10)));
+        assertEquals(filtered.getPositionCount(), 2);
+        assertEquals(BIGINT.getLong(filtered.getBlock(0), 0), 2L);
+        assertEquals(BIGINT.getLong(filtered.getBlock(0), 1), 4L);
+    }
+
+    @Test
+    public void testBloomFilter()
+    {
+        ColumnHandle column = new TestingColumnHandle("column");
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 1024);
+        filter.setPartitionCount(2);
+        DynamicFilter dynamicFilter = DynamicFilter.create(filter, ImmutableMap.of(0, column));
+
+        // too many distinct values for an exact domain
+        DynamicFilterCollector first = filter.createCollector(ImmutableList.of(0));
+        first.addPage(new Page(createLongsBlock(LongStream.range(0, 100).map(value -> value * 2).boxed().toArray(Long[]::new))));
+        filter.addPartition(first.build());
+
+        // exact domain, merged into the bloom filter of the other partition
+        DynamicFilterCollector second = filter.createCollector(ImmutableList.of(0));
+        second.addPage(new Page(createLongsBlock(1000L, null)));
+        filter.addPartition(second.build());
+
+        assertEquals(
+                getDone(filter.getResult()),
+                TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 0L, true, 198L, true), Range.equal(BIGINT, 1000L)), false))));
+        assertEquals(getDone(filter.getBloomFilters()).keySet(), ImmutableSet.of(0));
+
+        Page filtered = dynamicFilter.createPageFilter(ImmutableList.of(column)).get().filter(new Page(createLongsBlock(
+                LongStream.concat(LongStream.range(-10, 2000), LongStream.of(1000L)).boxed().toArray(Long[]::new))));
+        Set<Long> retained = new HashSet<>();
+        for (int position = 0; position < filtered.getPositionCount(); position++) {
+            retained.add(BIGINT.getLong(filtered.getBlock(0), position));
+        }
+        for (long value = 0; value < 200; value += 2) {
+            assertTrue(retained.contains(value));
+        }
+        assertTrue(retained.contains(1000L));
+        // the domain removes everything outside of the build side range, the bloom filter most of the odd values
+        assertTrue(retained.size() < 110, "bloom filter retained " + retained.size() + " values");
+    }
+
+    @Test
+    public void testBloomFilterNotNeeded()
+    {
+        LocalDynamicFilter filter = new LocalDynamicFilter(ImmutableList.of(BIGINT), 10, 1024);
+        filter.setPartitionCount(1);
+
+        DynamicFilterCollector collector = filter.createCollector(ImmutableList.of(0));
+        collector.addPage(new Page(createLongsBlock(3L, 1L)));
+        filter.addPartition(collector.build());
+
+        assertTrue(getDone(filter.getBloomFilters()).isEmpty());
+    }
+}
@@ -30,7 +30,7 @@ import static org.testng.Assert.assertNull;
 public class TestOperatorStats
 {
     private static final SplitOperatorInfo NON_MERGEABLE_INFO = new SplitOperatorInfo("some_info");
-    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024);
+    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024, new ExchangeCompressionInfo(4096, 1024, 100), new long[] {1, 3});
 
     public static final OperatorStats EXPECTED = new OperatorStats(
             1,
@@ -58,6 +58,7 @@ public class TestOperatorStats
             new DataSize(23, BYTE),
 
             new Duration(15, NANOSECONDS),
+            new Duration(26, NANOSECONDS),
 
             16,
             new Duration(17, NANOSECONDS),
@@ -99,6 +100,7 @@ public class TestOperatorStats
             new DataSize(23, BYTE),
 
             new Duration(15, NANOSECONDS),
+            new Duration(26, NANOSECONDS),
 
             16,
             new Duration(17, NANOSECONDS),
@@ -149,6 +151,7 @@ public class TestOperatorStats
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(23, BYTE));
 
         assertEquals(actual.getBlockedWall(), new Duration(15, NANOSECONDS));
+        assertEquals(actual.getIoWaitWall(), new Duration(26, NANOSECONDS));
 
         assertEquals(actual.getFinishCalls(), 16);
         assertEquals(actual.getFinishWall(), new Duration(17, NANOSECONDS));
@@ -192,6 +195,7 @@ public class TestOperatorStats
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(3 * 23, BYTE));
 
         assertEquals(actual.getBlockedWall(), new Duration(3 * 15, NANOSECONDS));
+        assertEquals(actual.getIoWaitWall(), new Duration(3 * 26, NANOSECONDS));
 
         assertEquals(actual.getFinishCalls(), 3 * 16);
         assertEquals(actual.getFinishWall(), new Duration(3 * 17, NANOSECONDS));
@@ -233,6 +237,7 @@ public class TestOperatorStats
         assertEquals(actual.getPhysicalWrittenDataSize(), new DataSize(3 * 23, BYTE));
 
         assertEquals(actual.getBlockedWall(), new Duration(3 * 15, NANOSECONDS));
+        assertEquals(actual.getIoWaitWall(), new Duration(3 * 26, NANOSECONDS));
 
         assertEquals(actual.getFinishCalls(), 3 * 16);
         assertEquals(actual.getFinishWall(), new Duration(3 * 17, NANOSECONDS));
@@ -246,5 +251,24 @@ public class TestOperatorStats
         assertEquals(actual.getPeakTotalMemoryReservation(), new DataSize(25, BYTE));
         assertEquals(actual.getInfo().getClass(), PartitionedOutputInfo.class);
         assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPagesAdded(), 3 * MERGEABLE_INFO.getPagesAdded());
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getCompressionInfo().getCompressedBytes(), 3 * MERGEABLE_INFO.getCompressionInfo().getCompressedBytes());
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPartitionRowsAdded(), new long[] {3, 9});
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPartitionSkew(), 1.5);
+    }
+
+    @Test
+    public void testPartitionedOutputInfoFromOlderWorker()
+    {
+        JsonCodec<PartitionedOutputInfo> codec = JsonCodec.jsonCodec(PartitionedOutputInfo.class);
+
+        PartitionedOutputInfo info = codec.fromJson("{\"@type\":\"partitionedOutput\",\"rowsAdded\":1,\"pagesAdded\":2,\"outputBufferPeakMemoryUsage\":1024}");
+        assertEquals(info.getPagesAdded(), 2);
+        assertEquals(info.getCompressionInfo().getCompressedBytes(), 0);
+        assertEquals(info.getPartitionRowsAdded(), new long[0]);
+        assertEquals(info.getPartitionSkew(), 0.0);
+
+        PartitionedOutputInfo merged = info.mergeWith(MERGEABLE_INFO);
+        assertEquals(merged.getCompressionInfo().getCompressedBytes(), MERGEABLE_INFO.getCompressionInfo().getCompressedBytes());
+        assertEquals(merged.getPartitionRowsAdded(), MERGEABLE_INFO.getPartitionRowsAdded());
     }
 }
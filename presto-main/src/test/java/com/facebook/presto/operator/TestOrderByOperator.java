@@ -16,6 +16,7 @@ package com.facebook.presto.operator;
 import com.facebook.presto.ExceededMemoryLimitException;
 import com.facebook.presto.operator.OrderByOperator.OrderByOperatorFactory;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.sql.gen.OrderingCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
@@ -23,9 +24,11 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -41,8 +44,10 @@ import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.lang.String.format;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
 
 @Test(singleThreaded = true)
 public class TestOrderByOperator
@@ -50,6 +55,13 @@ public class TestOrderByOperator
     private ExecutorService executor;
     private ScheduledExecutorService scheduledExecutor;
     private DriverContext driverContext;
+    private DummySpillerFactory spillerFactory;
+
+    @DataProvider
+    public static Object[][] spillEnabled()
+    {
+        return new Object[][] {{false}, {true}};
+    }
 
     @BeforeMethod
     public void setUp()
@@ -59,6 +71,7 @@ public class TestOrderByOperator
         driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
                 .addPipelineContext(0, true, true)
                 .addDriverContext();
+        spillerFactory = new DummySpillerFactory();
     }
 
     @AfterMethod
@@ -66,10 +79,11 @@ public class TestOrderByOperator
     {
         executor.shutdownNow();
         scheduledExecutor.shutdownNow();
+        spillerFactory = null;
     }
 
-    @Test
-    public void testSingleFieldKey()
+    @Test(dataProvider = "spillEnabled")
+    public void testSingleFieldKey(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
                 .row(1L, 0.1)
@@ -87,7 +101,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(ASC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                spillEnabled,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE)
                 .row(-0.1)
@@ -97,10 +114,11 @@ public class TestOrderByOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testMultiFieldKey()
+    @Test(dataProvider = "spillEnabled")
+    public void testMultiFieldKey(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, BIGINT)
                 .row("a", 1L)
@@ -118,7 +136,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0, 1),
                 ImmutableList.of(ASC_NULLS_LAST, DESC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                spillEnabled,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
 
         MaterializedResult expected = MaterializedResult.resultBuilder(driverContext.getSession(), VARCHAR, BIGINT)
                 .row("a", 4L)
@@ -128,10 +149,11 @@ public class TestOrderByOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testReverseOrder()
+    @Test(dataProvider = "spillEnabled")
+    public void testReverseOrder(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
                 .row(1L, 0.1)
@@ -149,7 +171,10 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(DESC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                spillEnabled,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT)
                 .row(4L)
@@ -159,6 +184,7 @@ public class TestOrderByOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
     @Test(expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded per-node user memory limit of 10B")
@@ -184,8 +210,16 @@ public class TestOrderByOperator
                 10,
                 ImmutableList.of(0),
                 ImmutableList.of(ASC_NULLS_LAST),
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                false,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
 
         toPages(operatorFactory, driverContext, input);
     }
+
+    private void assertSpilled(boolean spillEnabled)
+    {
+        assertEquals(spillerFactory.getSpillsCount() > 0, spillEnabled, format("Spill state mismatch. Expected spill: %s, spill count: %s", spillEnabled, spillerFactory.getSpillsCount()));
+    }
 }
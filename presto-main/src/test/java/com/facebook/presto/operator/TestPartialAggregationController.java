@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPartialAggregationController
+{
+    @Test
+    public void testDisabledWhenRowsAreNotReduced()
+    {
+        PartialAggregationController controller = new PartialAggregationController(1000, 0.8);
+        controller.onFlush(500, 450);
+        // not enough rows seen yet
+        assertFalse(controller.isPartialAggregationDisabled());
+
+        controller.onFlush(500, 450);
+        assertTrue(controller.isPartialAggregationDisabled());
+        assertEquals(controller.getUniqueRowsRatio(), 0.9);
+    }
+
+    @Test
+    public void testEnabledWhenRowsAreReduced()
+    {
+        PartialAggregationController controller = new PartialAggregationController(1000, 0.8);
+        for (int i = 0; i < 10; i++) {
+            controller.onFlush(1000, 100);
+        }
+        assertFalse(controller.isPartialAggregationDisabled());
+        assertEquals(controller.getUniqueRowsRatio(), 0.1);
+    }
+
+    @Test
+    public void testDecisionIsFinal()
+    {
+        PartialAggregationController controller = new PartialAggregationController(0, 0.5);
+        controller.onFlush(100, 100);
+        assertTrue(controller.isPartialAggregationDisabled());
+
+        controller.onFlush(1_000_000, 1);
+        assertTrue(controller.isPartialAggregationDisabled());
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        PartialAggregationController controller = new PartialAggregationController(0, 0.5);
+        assertFalse(controller.isPartialAggregationDisabled());
+        assertEquals(controller.getUniqueRowsRatio(), 0.0);
+    }
+}
@@ -14,41 +14,61 @@
 package com.facebook.presto.operator;
 
 import com.facebook.presto.RowPagesBuilder;
+import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.metadata.MetadataManager;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spiller.GenericPartitioningSpillerFactory;
+import com.facebook.presto.spiller.PartitioningSpiller;
+import com.facebook.presto.spiller.PartitioningSpillerFactory;
+import com.facebook.presto.spiller.SingleStreamSpiller;
+import com.facebook.presto.spiller.SingleStreamSpillerFactory;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.facebook.presto.sql.gen.JoinCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.IntPredicate;
 
 import static com.facebook.presto.RowPagesBuilder.rowPagesBuilder;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
 import static com.facebook.presto.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
 import static com.facebook.presto.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
 import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEquals;
+import static com.facebook.presto.operator.OperatorAssertion.assertOperatorEqualsIgnoreOrder;
 import static com.facebook.presto.operator.TopNRowNumberOperator.TopNRowNumberOperatorFactory;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestTopNRowNumberOperator
@@ -57,6 +77,8 @@ public class TestTopNRowNumberOperator
     private ScheduledExecutorService scheduledExecutor;
     private DriverContext driverContext;
     private JoinCompiler joinCompiler;
+    private DummySingleStreamSpillerFactory singleStreamSpillerFactory;
+    private PartitioningSpillerFactory spillerFactory;
 
     @BeforeMethod
     public void setUp()
@@ -67,6 +89,8 @@ public class TestTopNRowNumberOperator
                 .addPipelineContext(0, true, true)
                 .addDriverContext();
         joinCompiler = new JoinCompiler(MetadataManager.createTestMetadataManager(), new FeaturesConfig());
+        singleStreamSpillerFactory = new DummySingleStreamSpillerFactory();
+        spillerFactory = new GenericPartitioningSpillerFactory(singleStreamSpillerFactory);
     }
 
     @AfterMethod
@@ -88,8 +112,14 @@ public class TestTopNRowNumberOperator
         return new Object[][] {{true}, {false}};
     }
 
-    @Test(dataProvider = "hashEnabledValues")
-    public void testPartitioned(boolean hashEnabled)
+    @DataProvider
+    public static Object[][] hashAndSpillEnabledValues()
+    {
+        return new Object[][] {{true, false}, {false, false}, {true, true}, {false, true}};
+    }
+
+    @Test(dataProvider = "hashAndSpillEnabledValues")
+    public void testPartitioned(boolean hashEnabled, boolean spillEnabled)
     {
         RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT, DOUBLE);
         List<Page> input = rowPagesBuilder
@@ -121,7 +151,9 @@ public class TestTopNRowNumberOperator
                 false,
                 Optional.empty(),
                 10,
-                joinCompiler);
+                joinCompiler,
+                spillEnabled,
+                spillerFactory);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.3, 1L, 1L)
@@ -134,7 +166,129 @@ public class TestTopNRowNumberOperator
                 .row(0.91, 3L, 2L)
                 .build();
 
-        assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        if (spillEnabled) {
+            // the groups are produced one spill partition at a time
+            assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected);
+            assertGreaterThan(singleStreamSpillerFactory.getSpilledPages(), 0L);
+        }
+        else {
+            assertOperatorEquals(operatorFactory, driverContext, input, expected);
+            assertEquals(singleStreamSpillerFactory.getSpilledPages(), 0L);
+        }
+    }
+
+    @Test
+    public void testSpillManyPartitions()
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(BIGINT, BIGINT);
+        for (int page = 0; page < 10; page++) {
+            for (long group = 0; group < 1_000; group++) {
+                rowPagesBuilder.row(group, page * 1_000L + group);
+            }
+            rowPagesBuilder.pageBreak();
+        }
+
+        TopNRowNumberOperatorFactory operatorFactory = new TopNRowNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, BIGINT),
+                Ints.asList(0, 1),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.DESC_NULLS_LAST),
+                2,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                true,
+                spillerFactory);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (long group = 0; group < 1_000; group++) {
+            expected.row(group, 9_000L + group, 1L);
+            expected.row(group, 8_000L + group, 2L);
+        }
+
+        assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, rowPagesBuilder.build(), expected.build());
+        assertGreaterThan(singleStreamSpillerFactory.getSpilledPages(), 0L);
+    }
+
+    @Test
+    public void testSpillDoesNotBlock()
+    {
+        List<SettableFuture<Void>> pendingSpills = new ArrayList<>();
+        PartitioningSpillerFactory delayingSpillerFactory = (types, partitionFunction, spillContext, memoryContext) ->
+                new DelayingPartitioningSpiller(spillerFactory.create(types, partitionFunction, spillContext, memoryContext), pendingSpills);
+
+        TopNRowNumberOperatorFactory operatorFactory = new TopNRowNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, BIGINT),
+                Ints.asList(0, 1),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.DESC_NULLS_LAST),
+                1,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                true,
+                delayingSpillerFactory);
+        TopNRowNumberOperator operator = (TopNRowNumberOperator) operatorFactory.createOperator(driverContext);
+
+        // enough groups for the builder to produce several pages
+        int groups = 150_000;
+        addInput(operator, new Page(createLongSequenceBlock(0, groups), createLongSequenceBlock(0, groups)));
+
+        ListenableFuture<?> revokeFuture = operator.startMemoryRevoke();
+        int spilledPages = 0;
+        while (!revokeFuture.isDone()) {
+            // every page is spilled once the write of the previous one completes
+            assertEquals(pendingSpills.size(), 1);
+            pendingSpills.remove(0).set(null);
+            spilledPages++;
+        }
+        assertGreaterThan(spilledPages, 1);
+        operator.finishMemoryRevoke();
+
+        addInput(operator, new Page(createLongSequenceBlock(0, groups), createLongSequenceBlock(groups, 2 * groups)));
+        operator.finish();
+
+        // the rows left in memory are spilled before the output is produced, without blocking the driver
+        assertNull(operator.getOutput());
+        assertFalse(operator.isBlocked().isDone());
+
+        int rows = 0;
+        while (!operator.isFinished()) {
+            if (!operator.isBlocked().isDone()) {
+                pendingSpills.remove(0).set(null);
+                continue;
+            }
+            Page page = operator.getOutput();
+            if (page == null) {
+                continue;
+            }
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                assertEquals(BIGINT.getLong(page.getBlock(1), position), BIGINT.getLong(page.getBlock(0), position) + groups);
+                assertEquals(BIGINT.getLong(page.getBlock(2), position), 1L);
+            }
+            rows += page.getPositionCount();
+        }
+        assertEquals(rows, groups);
+        operator.close();
+    }
+
+    private static void addInput(Operator operator, Page page)
+    {
+        assertTrue(operator.needsInput());
+        operator.addInput(page);
+        while (!operator.needsInput()) {
+            assertNull(operator.getOutput());
+        }
     }
 
     @Test(dataProvider = "partial")
@@ -169,7 +323,9 @@ public class TestTopNRowNumberOperator
                 partial,
                 Optional.empty(),
                 10,
-                joinCompiler);
+                joinCompiler,
+                false,
+                unsupportedPartitioningSpillerFactory());
 
         MaterializedResult expected;
         if (partial) {
@@ -208,7 +364,9 @@ public class TestTopNRowNumberOperator
                 false,
                 Optional.empty(),
                 10,
-                joinCompiler);
+                joinCompiler,
+                false,
+                unsupportedPartitioningSpillerFactory());
 
         // get result with yield; pick a relatively small buffer for heaps
         GroupByHashYieldAssertion.GroupByHashYieldResult result = finishOperatorWithYieldingGroupByHash(
@@ -230,4 +388,101 @@ public class TestTopNRowNumberOperator
         }
         assertEquals(count, 6_000 * 600);
     }
+
+    private static class DelayingPartitioningSpiller
+            implements PartitioningSpiller
+    {
+        private final PartitioningSpiller delegate;
+        private final List<SettableFuture<Void>> pendingSpills;
+
+        public DelayingPartitioningSpiller(PartitioningSpiller delegate, List<SettableFuture<Void>> pendingSpills)
+        {
+            this.delegate = delegate;
+            this.pendingSpills = pendingSpills;
+        }
+
+        @Override
+        public PartitioningSpillResult partitionAndSpill(Page page, IntPredicate spillPartitionMask)
+        {
+            PartitioningSpillResult result = delegate.partitionAndSpill(page, spillPartitionMask);
+            getFutureValue(result.getSpillingFuture());
+            SettableFuture<Void> future = SettableFuture.create();
+            pendingSpills.add(future);
+            return new PartitioningSpillResult(future, result.getRetained());
+        }
+
+        @Override
+        public Iterator<Page> getSpilledPages(int partition)
+        {
+            return delegate.getSpilledPages(partition);
+        }
+
+        @Override
+        public void verifyAllPartitionsRead()
+        {
+            delegate.verifyAllPartitionsRead();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            delegate.close();
+        }
+    }
+
+    private static class DummySingleStreamSpillerFactory
+            implements SingleStreamSpillerFactory
+    {
+        private long spilledPages;
+
+        @Override
+        public SingleStreamSpiller create(List<Type> types, SpillContext spillContext, LocalMemoryContext memoryContext)
+        {
+            return new SingleStreamSpiller()
+            {
+                private final List<Page> spills = new ArrayList<>();
+
+                @Override
+                public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+                {
+                    pageIterator.forEachRemaining(page -> {
+                        spills.add(page);
+                        spilledPages++;
+                    });
+                    return immediateFuture(null);
+                }
+
+                @Override
+                public Iterator<Page> getSpilledPages()
+                {
+                    return spills.iterator();
+                }
+
+                @Override
+                public long getSpilledPagesInMemorySize()
+                {
+                    return spills.stream()
+                            .mapToLong(Page::getSizeInBytes)
+                            .sum();
+                }
+
+                @Override
+                public ListenableFuture<List<Page>> getAllSpilledPages()
+                {
+                    return immediateFuture(ImmutableList.copyOf(spills));
+                }
+
+                @Override
+                public void close()
+                {
+                }
+            };
+        }
+
+        public long getSpilledPages()
+        {
+            return spilledPages;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import com.facebook.presto.operator.window.RowNumberFunction;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.SortOrder;
 import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.sql.gen.OrderingCompiler;
 import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.facebook.presto.testing.MaterializedResult;
 import com.google.common.collect.ImmutableList;
@@ -34,6 +35,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.util.List;
@@ -57,6 +59,7 @@ import static com.facebook.presto.sql.tree.WindowFrame.Type.RANGE;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
 import static com.facebook.presto.testing.TestingTaskContext.createTaskContext;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.lang.String.format;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
@@ -87,6 +90,13 @@ public class TestWindowOperator
     private ExecutorService executor;
     private ScheduledExecutorService scheduledExecutor;
     private DriverContext driverContext;
+    private DummySpillerFactory spillerFactory;
+
+    @DataProvider
+    public static Object[][] spillEnabled()
+    {
+        return new Object[][] {{false}, {true}};
+    }
 
     @BeforeMethod
     public void setUp()
@@ -96,6 +106,7 @@ public class TestWindowOperator
         driverContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION)
                 .addPipelineContext(0, true, true)
                 .addDriverContext();
+        spillerFactory = new DummySpillerFactory();
     }
 
     @AfterMethod
@@ -103,6 +114,7 @@ public class TestWindowOperator
     {
         executor.shutdownNow();
         scheduledExecutor.shutdownNow();
+        spillerFactory = null;
     }
 
     @Test
@@ -136,8 +148,8 @@ public class TestWindowOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
 
-    @Test
-    public void testRowNumberPartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testRowNumberPartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, BIGINT, DOUBLE, BOOLEAN)
                 .row("b", -1L, -0.1, true)
@@ -154,7 +166,8 @@ public class TestWindowOperator
                 ROW_NUMBER,
                 Ints.asList(0),
                 Ints.asList(1),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, DOUBLE, BOOLEAN, BIGINT)
                 .row("a", 2L, 0.3, false, 1L)
@@ -165,6 +178,7 @@ public class TestWindowOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
     @Test
@@ -230,8 +244,8 @@ public class TestWindowOperator
         toPages(operatorFactory, driverContext, input);
     }
 
-    @Test
-    public void testFirstValuePartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testFirstValuePartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("b", "A1", 1L, true, "")
@@ -249,7 +263,8 @@ public class TestWindowOperator
                 FIRST_VALUE,
                 Ints.asList(0),
                 Ints.asList(2),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("a", "A2", 1L, false, "A2")
@@ -261,10 +276,11 @@ public class TestWindowOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testLastValuePartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testLastValuePartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("b", "A1", 1L, true, "")
@@ -282,7 +298,8 @@ public class TestWindowOperator
                 LAST_VALUE,
                 Ints.asList(0),
                 Ints.asList(2),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("a", "A2", 1L, false, "C2")
@@ -293,10 +310,11 @@ public class TestWindowOperator
                 .row("c", "A3", 1L, true, "A3")
                 .build();
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testNthValuePartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testNthValuePartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BIGINT, BOOLEAN, VARCHAR)
                 .row("b", "A1", 1L, 2L, true, "")
@@ -314,7 +332,8 @@ public class TestWindowOperator
                 NTH_VALUE,
                 Ints.asList(0),
                 Ints.asList(2),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("a", "A2", 1L, false, "C2")
@@ -326,10 +345,11 @@ public class TestWindowOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testLagPartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testLagPartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BIGINT, VARCHAR, BOOLEAN, VARCHAR)
                 .row("b", "A1", 1L, 1L, "D", true, "")
@@ -347,7 +367,8 @@ public class TestWindowOperator
                 LAG,
                 Ints.asList(0),
                 Ints.asList(2),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("a", "A2", 1L, false, "D")
@@ -359,10 +380,11 @@ public class TestWindowOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
-    @Test
-    public void testLeadPartition()
+    @Test(dataProvider = "spillEnabled")
+    public void testLeadPartition(boolean spillEnabled)
     {
         List<Page> input = rowPagesBuilder(VARCHAR, VARCHAR, BIGINT, BIGINT, VARCHAR, BOOLEAN, VARCHAR)
                 .row("b", "A1", 1L, 1L, "D", true, "")
@@ -380,7 +402,8 @@ public class TestWindowOperator
                 LEAD,
                 Ints.asList(0),
                 Ints.asList(2),
-                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}));
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                spillEnabled);
 
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, VARCHAR, BIGINT, BOOLEAN, VARCHAR)
                 .row("a", "A2", 1L, false, "C2")
@@ -392,6 +415,7 @@ public class TestWindowOperator
                 .build();
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertSpilled(spillEnabled);
     }
 
     @Test
@@ -614,13 +638,37 @@ public class TestWindowOperator
         assertEquals(WindowOperator.findEndPosition(0, array.length, (first, second) -> array[first] == array[second]), expected);
     }
 
-    private static WindowOperatorFactory createFactoryUnbounded(
+    private void assertSpilled(boolean spillEnabled)
+    {
+        assertEquals(spillerFactory.getSpillsCount() > 0, spillEnabled, format("Spill state mismatch. Expected spill: %s, spill count: %s", spillEnabled, spillerFactory.getSpillsCount()));
+    }
+
+    private WindowOperatorFactory createFactoryUnbounded(
             List<? extends Type> sourceTypes,
             List<Integer> outputChannels,
             List<WindowFunctionDefinition> functions,
             List<Integer> partitionChannels,
             List<Integer> sortChannels,
             List<SortOrder> sortOrder)
+    {
+        return createFactoryUnbounded(
+                sourceTypes,
+                outputChannels,
+                functions,
+                partitionChannels,
+                sortChannels,
+                sortOrder,
+                false);
+    }
+
+    private WindowOperatorFactory createFactoryUnbounded(
+            List<? extends Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<WindowFunctionDefinition> functions,
+            List<Integer> partitionChannels,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            boolean spillEnabled)
     {
         return createFactoryUnbounded(
                 sourceTypes,
@@ -630,10 +678,11 @@ public class TestWindowOperator
                 ImmutableList.of(),
                 sortChannels,
                 sortOrder,
-                0);
+                0,
+                spillEnabled);
     }
 
-    private static WindowOperatorFactory createFactoryUnbounded(
+    private WindowOperatorFactory createFactoryUnbounded(
             List<? extends Type> sourceTypes,
             List<Integer> outputChannels,
             List<WindowFunctionDefinition> functions,
@@ -642,6 +691,29 @@ public class TestWindowOperator
             List<Integer> sortChannels,
             List<SortOrder> sortOrder,
             int preSortedChannelPrefix)
+    {
+        return createFactoryUnbounded(
+                sourceTypes,
+                outputChannels,
+                functions,
+                partitionChannels,
+                preGroupedChannels,
+                sortChannels,
+                sortOrder,
+                preSortedChannelPrefix,
+                false);
+    }
+
+    private WindowOperatorFactory createFactoryUnbounded(
+            List<? extends Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<WindowFunctionDefinition> functions,
+            List<Integer> partitionChannels,
+            List<Integer> preGroupedChannels,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrder,
+            int preSortedChannelPrefix,
+            boolean spillEnabled)
     {
         return new WindowOperatorFactory(
                 0,
@@ -655,6 +727,9 @@ public class TestWindowOperator
                 sortOrder,
                 preSortedChannelPrefix,
                 10,
-                new PagesIndex.TestingFactory(false));
+                new PagesIndex.TestingFactory(false),
+                spillEnabled,
+                Optional.of(spillerFactory),
+                new OrderingCompiler());
     }
 }
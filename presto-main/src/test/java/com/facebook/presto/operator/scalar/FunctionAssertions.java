@@ -937,7 +937,8 @@ public final class FunctionAssertions
                     ImmutableList.of(),
                     ImmutableList.of(projection.getType()),
                     new DataSize(0, BYTE),
-                    0);
+                    0,
+                    Optional.empty());
         }
         catch (Throwable e) {
             if (e instanceof UncheckedExecutionException) {
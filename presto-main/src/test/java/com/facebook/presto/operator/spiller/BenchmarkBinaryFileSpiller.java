@@ -14,6 +14,7 @@
 package com.facebook.presto.operator.spiller;
 
 import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.PageBuilder;
 import com.facebook.presto.spi.block.BlockEncodingSerde;
@@ -89,13 +90,15 @@ public class BenchmarkBinaryFileSpiller
     public static class BenchmarkData
     {
         private final SpillerStats spillerStats = new SpillerStats();
-        private final FileSingleStreamSpillerFactory singleStreamSpillerFactory = new FileSingleStreamSpillerFactory(
-                MoreExecutors.newDirectExecutorService(),
-                BLOCK_ENCODING_MANAGER,
-                spillerStats,
-                ImmutableList.of(SPILL_PATH),
-                1.0);
-        private final SpillerFactory spillerFactory = new GenericSpillerFactory(singleStreamSpillerFactory);
+
+        @Param({"NONE", "LZ4", "DEFLATE"})
+        private CompressionCodec compressionCodec = CompressionCodec.NONE;
+
+        @Param("6")
+        private int compressionLevel = 6;
+
+        @Param({"false", "true"})
+        private boolean checksumEnabled;
 
         @Param("10000")
         private int rowsPerPage = 10000;
@@ -103,6 +106,8 @@ public class BenchmarkBinaryFileSpiller
         @Param("10")
         private int pagesCount = 10;
 
+        private FileSingleStreamSpillerFactory singleStreamSpillerFactory;
+        private SpillerFactory spillerFactory;
         private List<Page> pages;
         private Spiller readSpiller;
 
@@ -110,6 +115,16 @@ public class BenchmarkBinaryFileSpiller
         public void setup()
                 throws ExecutionException, InterruptedException
         {
+            singleStreamSpillerFactory = new FileSingleStreamSpillerFactory(
+                    MoreExecutors.newDirectExecutorService(),
+                    BLOCK_ENCODING_MANAGER,
+                    spillerStats,
+                    ImmutableList.of(SPILL_PATH),
+                    1.0,
+                    compressionCodec,
+                    compressionLevel,
+                    checksumEnabled);
+            spillerFactory = new GenericSpillerFactory(singleStreamSpillerFactory);
             pages = createInputPages();
             readSpiller = spillerFactory.create(TYPES, bytes -> {}, newSimpleAggregatedMemoryContext());
             readSpiller.spill(pages.iterator()).get();
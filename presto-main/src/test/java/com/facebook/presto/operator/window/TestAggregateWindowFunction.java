@@ -22,6 +22,7 @@ import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.IntegerType.INTEGER;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.testing.MaterializedResult.resultBuilder;
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -430,6 +431,90 @@ public class TestAggregateWindowFunction
                         .build());
     }
 
+    @Test
+    public void testSumRollingWithNulls()
+    {
+        assertWindowQueryWithNulls("sum(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN CURRENT ROW AND 2 FOLLOWING)",
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT)
+                        .row(3L, "F", 14L)
+                        .row(5L, "F", 11L)
+                        .row(6L, "F", 6L)
+                        .row(null, "F", null)
+                        .row(34L, "O", 34L)
+                        .row(null, "O", null)
+                        .row(1L, null, 8L)
+                        .row(7L, null, 7L)
+                        .row(null, null, null)
+                        .row(null, null, null)
+                        .build());
+
+        assertWindowQueryWithNulls("count(orderkey) OVER (PARTITION BY orderstatus ORDER BY orderkey " +
+                        "ROWS BETWEEN CURRENT ROW AND 2 FOLLOWING)",
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT)
+                        .row(3L, "F", 3L)
+                        .row(5L, "F", 2L)
+                        .row(6L, "F", 1L)
+                        .row(null, "F", 0L)
+                        .row(34L, "O", 1L)
+                        .row(null, "O", 0L)
+                        .row(1L, null, 2L)
+                        .row(7L, null, 1L)
+                        .row(null, null, 0L)
+                        .row(null, null, 0L)
+                        .build());
+    }
+
+    @Test
+    public void testSumRollingNearOverflow()
+    {
+        // the sum of any two adjacent values fits in a bigint, but the sum of three does not
+        MaterializedResult actual = queryRunner.execute("" +
+                "SELECT x, sum(x) OVER (ORDER BY k ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)\n" +
+                "FROM (VALUES (1, 9223372036854775797), (2, 5), (3, 6), (4, 9223372036854775796), (5, 7)) t(k, x)");
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT)
+                .row(Long.MAX_VALUE - 10, Long.MAX_VALUE - 10)
+                .row(5L, Long.MAX_VALUE - 5)
+                .row(6L, 11L)
+                .row(Long.MAX_VALUE - 11, Long.MAX_VALUE - 5)
+                .row(7L, Long.MAX_VALUE - 4)
+                .build();
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+        // the sum of any three adjacent values fits in a bigint, but the sum of four does not
+        actual = queryRunner.execute("" +
+                "SELECT x, sum(x) OVER (ORDER BY k ROWS BETWEEN 2 PRECEDING AND CURRENT ROW)\n" +
+                "FROM (VALUES (1, 9223372036854775797), (2, 3), (3, 3), (4, 5), (5, 9223372036854775787), (6, 1)) t(k, x)");
+        expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT)
+                .row(Long.MAX_VALUE - 10, Long.MAX_VALUE - 10)
+                .row(3L, Long.MAX_VALUE - 7)
+                .row(3L, Long.MAX_VALUE - 4)
+                .row(5L, 11L)
+                .row(Long.MAX_VALUE - 20, Long.MAX_VALUE - 12)
+                .row(1L, Long.MAX_VALUE - 14)
+                .build();
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+    }
+
+    @Test
+    public void testMaxRolling()
+    {
+        assertWindowQuery("max(orderkey) OVER (ORDER BY orderkey " +
+                        "ROWS BETWEEN 5 PRECEDING AND 5 FOLLOWING)",
+                resultBuilder(TEST_SESSION, INTEGER, VARCHAR, INTEGER)
+                        .row(1, "O", 6)
+                        .row(2, "O", 7)
+                        .row(3, "F", 32)
+                        .row(4, "O", 33)
+                        .row(5, "F", 34)
+                        .row(6, "F", 34)
+                        .row(7, "O", 34)
+                        .row(32, "O", 34)
+                        .row(33, "F", 34)
+                        .row(34, "O", 34)
+                        .build());
+    }
+
     @Test
     public void testSumCurrentRow()
     {
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.window;
+
+import com.facebook.presto.metadata.MetadataManager;
+import com.facebook.presto.metadata.Signature;
+import com.facebook.presto.operator.PagesIndex;
+import com.facebook.presto.operator.aggregation.Accumulator;
+import com.facebook.presto.operator.aggregation.AccumulatorFactory;
+import com.facebook.presto.operator.aggregation.InternalAggregationFunction;
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.function.WindowIndex;
+import com.facebook.presto.spi.type.RowType;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.block.BlockAssertions.assertBlockEquals;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.metadata.FunctionKind.AGGREGATE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestWindowSegmentTree
+{
+    private static final MetadataManager metadata = MetadataManager.createTestMetadataManager();
+
+    private static final InternalAggregationFunction LONG_MAX = metadata.getFunctionRegistry().getAggregateFunctionImplementation(
+            new Signature("max", AGGREGATE, BIGINT.getTypeSignature(), BIGINT.getTypeSignature()));
+    private static final InternalAggregationFunction LONG_AVERAGE = metadata.getFunctionRegistry().getAggregateFunctionImplementation(
+            new Signature("avg", AGGREGATE, DOUBLE.getTypeSignature(), BIGINT.getTypeSignature()));
+
+    @Test
+    public void testIsSupported()
+    {
+        assertTrue(WindowSegmentTree.isSupported(BIGINT));
+        assertTrue(WindowSegmentTree.isSupported(RowType.anonymous(ImmutableList.of(BIGINT, DOUBLE))));
+        assertFalse(WindowSegmentTree.isSupported(VARCHAR));
+        assertFalse(WindowSegmentTree.isSupported(RowType.anonymous(ImmutableList.of(BIGINT, VARCHAR))));
+    }
+
+    @Test
+    public void testAllFrames()
+    {
+        WindowIndex windowIndex = createWindowIndex(createLongsBlock(5L, null, 3L, 8L, -2L, null, null, 11L, 4L, 7L, 0L));
+        assertAllFrames(LONG_MAX, windowIndex);
+        assertAllFrames(LONG_AVERAGE, windowIndex);
+    }
+
+    @Test
+    public void testSinglePosition()
+    {
+        assertAllFrames(LONG_MAX, createWindowIndex(createLongsBlock(42L)));
+    }
+
+    private static void assertAllFrames(InternalAggregationFunction function, WindowIndex windowIndex)
+    {
+        List<Integer> channels = ImmutableList.of(0);
+        AccumulatorFactory accumulatorFactory = function.bind(channels, Optional.empty());
+        WindowSegmentTree segmentTree = new WindowSegmentTree(accumulatorFactory, function.getIntermediateType(), windowIndex, channels);
+
+        for (int start = 0; start < windowIndex.size(); start++) {
+            for (int end = start; end < windowIndex.size(); end++) {
+                Accumulator expected = accumulatorFactory.createAccumulator();
+                expected.addInput(windowIndex, channels, start, end);
+                assertBlockEquals(function.getFinalType(), evaluateFinal(segmentTree.aggregate(start, end)), evaluateFinal(expected));
+            }
+        }
+    }
+
+    private static Block evaluateFinal(Accumulator accumulator)
+    {
+        BlockBuilder blockBuilder = accumulator.getFinalType().createBlockBuilder(null, 1);
+        accumulator.evaluateFinal(blockBuilder);
+        return blockBuilder.build();
+    }
+
+    private static WindowIndex createWindowIndex(Block block)
+    {
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(ImmutableList.of(BIGINT), block.getPositionCount());
+        pagesIndex.addPage(new Page(block));
+        return new PagesWindowIndex(pagesIndex, 0, pagesIndex.getPositionCount());
+    }
+}
@@ -15,8 +15,11 @@ package com.facebook.presto.server.remotetask;
 
 import com.facebook.presto.OutputBuffers;
 import com.facebook.presto.TaskSource;
+import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.block.BlockJsonSerde;
 import com.facebook.presto.client.NodeVersion;
 import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.execution.DynamicFilterSummaries;
 import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.NodeTaskMap;
 import com.facebook.presto.execution.QueryManagerConfig;
@@ -32,9 +35,19 @@ import com.facebook.presto.metadata.HandleJsonModule;
 import com.facebook.presto.metadata.HandleResolver;
 import com.facebook.presto.metadata.PrestoNode;
 import com.facebook.presto.metadata.Split;
+import com.facebook.presto.operator.DynamicFilterSummary;
 import com.facebook.presto.server.HttpRemoteTaskFactory;
+import com.facebook.presto.server.InternalCommunicationConfig;
 import com.facebook.presto.server.TaskUpdateRequest;
+import com.facebook.presto.server.smile.SmileCodec;
+import com.facebook.presto.server.smile.SmileCodecFactory;
+import com.facebook.presto.server.smile.SmileMapper;
 import com.facebook.presto.spi.ErrorCode;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockEncoding;
+import com.facebook.presto.spi.block.BlockEncodingSerde;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeManager;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
@@ -44,6 +57,7 @@ import com.facebook.presto.testing.TestingSplit;
 import com.facebook.presto.testing.TestingTransactionHandle;
 import com.facebook.presto.type.TypeDeserializer;
 import com.facebook.presto.type.TypeRegistry;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Binder;
@@ -84,12 +98,15 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
 
 import static com.facebook.presto.OutputBuffers.createInitialEmptyOutputBuffers;
+import static com.facebook.presto.PrestoMediaTypes.APPLICATION_JACKSON_SMILE;
 import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_WAIT;
 import static com.facebook.presto.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
+import static com.facebook.presto.server.smile.SmileCodecBinder.smileCodecBinder;
 import static com.facebook.presto.spi.StandardErrorCode.REMOTE_TASK_ERROR;
 import static com.facebook.presto.spi.StandardErrorCode.REMOTE_TASK_MISMATCH;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.testing.assertions.Assert.assertEquals;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.inject.multibindings.Multibinder.newSetBinder;
@@ -116,6 +133,7 @@ public class TestHttpRemoteTask
             .setInfoUpdateInterval(new Duration(IDLE_TIMEOUT.roundTo(MILLISECONDS) / 10, MILLISECONDS));
 
     private static final boolean TRACE_HTTP = false;
+    private static final PlanNodeId JOIN_NODE_ID = new PlanNodeId("join");
 
     @Test(timeOut = 30000)
     public void testRemoteTaskMismatch()
@@ -141,11 +159,24 @@ public class TestHttpRemoteTask
     @Test(timeOut = 30000)
     public void testRegular()
             throws Exception
+    {
+        runRegularTest(false);
+    }
+
+    @Test(timeOut = 30000)
+    public void testRegularBinaryTransport()
+            throws Exception
+    {
+        runRegularTest(true);
+    }
+
+    private void runRegularTest(boolean binaryTransportEnabled)
+            throws Exception
     {
         AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
         TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
 
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, binaryTransportEnabled);
 
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
@@ -163,6 +194,22 @@ public class TestHttpRemoteTask
         remoteTask.noMoreSplits(TABLE_SCAN_NODE_ID);
         poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).isNoMoreSplits());
 
+        // summaries published by the task are fetched once the task status reports a new version
+        AtomicReference<DynamicFilterSummaries> fetchedSummaries = new AtomicReference<>(DynamicFilterSummaries.EMPTY);
+        remoteTask.addDynamicFilterSummariesListener(fetchedSummaries::set);
+        DynamicFilterSummary summary = new DynamicFilterSummary(
+                TupleDomain.withColumnDomains(ImmutableMap.of(0, Domain.singleValue(BIGINT, 42L))),
+                ImmutableMap.of(),
+                ImmutableMap.of(0, new long[] {42}));
+        testingTaskResource.publishDynamicFilterSummary(JOIN_NODE_ID, summary);
+        poll(() -> fetchedSummaries.get().getSummaries().containsKey(JOIN_NODE_ID));
+        assertEquals(fetchedSummaries.get().getSummaries().get(JOIN_NODE_ID).getDomain(), summary.getDomain());
+
+        // filters of other stages are sent with the next task update
+        remoteTask.addDynamicFilters(ImmutableMap.of(JOIN_NODE_ID, summary));
+        poll(() -> testingTaskResource.getDynamicFilter(JOIN_NODE_ID) != null);
+        assertEquals(testingTaskResource.getDynamicFilter(JOIN_NODE_ID).getValueHashes().get(0), new long[] {42});
+
         remoteTask.cancel();
         poll(() -> remoteTask.getTaskStatus().getState().isDone());
         poll(() -> remoteTask.getTaskInfo().getTaskStatus().getState().isDone());
@@ -176,7 +223,7 @@ public class TestHttpRemoteTask
         AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
         TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, failureScenario);
 
-        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, false);
         RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory);
 
         testingTaskResource.setInitialTaskInfo(remoteTask.getTaskInfo());
@@ -217,7 +264,7 @@ public class TestHttpRemoteTask
                 true);
     }
 
-    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource)
+    private static HttpRemoteTaskFactory createHttpRemoteTaskFactory(TestingTaskResource testingTaskResource, boolean binaryTransportEnabled)
             throws Exception
     {
         Bootstrap app = new Bootstrap(
@@ -229,34 +276,58 @@ public class TestHttpRemoteTask
                     public void configure(Binder binder)
                     {
                         binder.bind(JsonMapper.class);
+                        binder.bind(SmileMapper.class);
                         configBinder(binder).bindConfig(FeaturesConfig.class);
                         binder.bind(TypeRegistry.class).in(Scopes.SINGLETON);
                         binder.bind(TypeManager.class).to(TypeRegistry.class).in(Scopes.SINGLETON);
                         jsonBinder(binder).addDeserializerBinding(Type.class).to(TypeDeserializer.class);
                         newSetBinder(binder, Type.class);
+                        binder.bind(BlockEncodingManager.class).in(Scopes.SINGLETON);
+                        binder.bind(BlockEncodingSerde.class).to(BlockEncodingManager.class).in(Scopes.SINGLETON);
+                        newSetBinder(binder, BlockEncoding.class);
+                        jsonBinder(binder).addSerializerBinding(Block.class).to(BlockJsonSerde.Serializer.class);
+                        jsonBinder(binder).addDeserializerBinding(Block.class).to(BlockJsonSerde.Deserializer.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskStatus.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskInfo.class);
                         jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+                        jsonCodecBinder(binder).bindJsonCodec(DynamicFilterSummaries.class);
+                        binder.bind(SmileCodecFactory.class).in(Scopes.SINGLETON);
+                        smileCodecBinder(binder).bindSmileCodec(TaskStatus.class);
+                        smileCodecBinder(binder).bindSmileCodec(TaskInfo.class);
+                        smileCodecBinder(binder).bindSmileCodec(TaskUpdateRequest.class);
+                        smileCodecBinder(binder).bindSmileCodec(DynamicFilterSummaries.class);
                     }
 
                     @Provides
                     private HttpRemoteTaskFactory createHttpRemoteTaskFactory(
                             JsonMapper jsonMapper,
+                            SmileMapper smileMapper,
                             JsonCodec<TaskStatus> taskStatusCodec,
                             JsonCodec<TaskInfo> taskInfoCodec,
-                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec)
+                            JsonCodec<TaskUpdateRequest> taskUpdateRequestCodec,
+                            SmileCodec<TaskStatus> taskStatusSmileCodec,
+                            SmileCodec<TaskInfo> taskInfoSmileCodec,
+                            SmileCodec<TaskUpdateRequest> taskUpdateRequestSmileCodec,
+                            JsonCodec<DynamicFilterSummaries> dynamicFilterSummariesCodec,
+                            SmileCodec<DynamicFilterSummaries> dynamicFilterSummariesSmileCodec)
                     {
-                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper);
+                        JaxrsTestingHttpProcessor jaxrsTestingHttpProcessor = new JaxrsTestingHttpProcessor(URI.create("http://fake.invalid/"), testingTaskResource, jsonMapper, smileMapper);
                         TestingHttpClient testingHttpClient = new TestingHttpClient(jaxrsTestingHttpProcessor.setTrace(TRACE_HTTP));
                         testingTaskResource.setHttpClient(testingHttpClient);
                         return new HttpRemoteTaskFactory(
                                 new QueryManagerConfig(),
                                 TASK_MANAGER_CONFIG,
+                                new InternalCommunicationConfig().setBinaryTransportEnabled(binaryTransportEnabled),
                                 testingHttpClient,
                                 new TestSqlTaskManager.MockLocationFactory(),
                                 taskStatusCodec,
                                 taskInfoCodec,
                                 taskUpdateRequestCodec,
+                                taskStatusSmileCodec,
+                                taskInfoSmileCodec,
+                                taskUpdateRequestSmileCodec,
+                                dynamicFilterSummariesCodec,
+                                dynamicFilterSummariesSmileCodec,
                                 new RemoteTaskStats());
                     }
                 });
@@ -344,7 +415,7 @@ public class TestHttpRemoteTask
 
         @GET
         @Path("{taskId}")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
         public synchronized TaskInfo getTaskInfo(
                 @PathParam("taskId") final TaskId taskId,
                 @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
@@ -356,11 +427,13 @@ public class TestHttpRemoteTask
         }
 
         Map<PlanNodeId, TaskSource> taskSourceMap = new HashMap<>();
+        Map<PlanNodeId, DynamicFilterSummary> dynamicFilters = new HashMap<>();
+        private DynamicFilterSummaries dynamicFilterSummaries = DynamicFilterSummaries.EMPTY;
 
         @POST
         @Path("{taskId}")
-        @Consumes(MediaType.APPLICATION_JSON)
-        @Produces(MediaType.APPLICATION_JSON)
+        @Consumes({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
+        @Produces({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
         public synchronized TaskInfo createOrUpdateTask(
                 @PathParam("taskId") TaskId taskId,
                 TaskUpdateRequest taskUpdateRequest,
@@ -369,6 +442,7 @@ public class TestHttpRemoteTask
             for (TaskSource source : taskUpdateRequest.getSources()) {
                 taskSourceMap.compute(source.getPlanNodeId(), (planNodeId, taskSource) -> taskSource == null ? source : taskSource.update(source));
             }
+            dynamicFilters.putAll(taskUpdateRequest.getDynamicFilters());
             lastActivityNanos.set(System.nanoTime());
             return buildTaskInfo();
         }
@@ -382,9 +456,33 @@ public class TestHttpRemoteTask
             return new TaskSource(source.getPlanNodeId(), source.getSplits(), source.getNoMoreSplitsForLifespan(), source.isNoMoreSplits());
         }
 
+        public synchronized DynamicFilterSummary getDynamicFilter(PlanNodeId joinNodeId)
+        {
+            return dynamicFilters.get(joinNodeId);
+        }
+
+        public synchronized void publishDynamicFilterSummary(PlanNodeId joinNodeId, DynamicFilterSummary summary)
+        {
+            dynamicFilterSummaries = new DynamicFilterSummaries(
+                    dynamicFilterSummaries.getVersion() + 1,
+                    ImmutableMap.<PlanNodeId, DynamicFilterSummary>builder()
+                            .putAll(dynamicFilterSummaries.getSummaries())
+                            .put(joinNodeId, summary)
+                            .build());
+        }
+
+        @GET
+        @Path("{taskId}/dynamicfilters")
+        @Produces({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
+        public synchronized DynamicFilterSummaries getDynamicFilterSummaries(@PathParam("taskId") TaskId taskId)
+        {
+            lastActivityNanos.set(System.nanoTime());
+            return dynamicFilterSummaries;
+        }
+
         @GET
         @Path("{taskId}/status")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
         public synchronized TaskStatus getTaskStatus(
                 @PathParam("taskId") TaskId taskId,
                 @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
@@ -400,7 +498,7 @@ public class TestHttpRemoteTask
 
         @DELETE
         @Path("{taskId}")
-        @Produces(MediaType.APPLICATION_JSON)
+        @Produces({MediaType.APPLICATION_JSON, APPLICATION_JACKSON_SMILE})
         public synchronized TaskInfo deleteTask(
                 @PathParam("taskId") TaskId taskId,
                 @QueryParam("abort") @DefaultValue("true") boolean abort,
@@ -485,7 +583,8 @@ public class TestHttpRemoteTask
                     initialTaskStatus.getMemoryReservation(),
                     initialTaskStatus.getSystemMemoryReservation(),
                     initialTaskStatus.getFullGcCount(),
-                    initialTaskStatus.getFullGcTime());
+                    initialTaskStatus.getFullGcTime(),
+                    dynamicFilterSummaries.getVersion());
         }
     }
 }
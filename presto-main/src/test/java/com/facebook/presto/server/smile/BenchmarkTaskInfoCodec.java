@@ -0,0 +1,164 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskInfo;
+import com.facebook.presto.operator.TaskStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonCodecFactory;
+import io.airlift.json.ObjectMapperProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.operator.TestTaskStats.EXPECTED;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares the cost of encoding and decoding the {@link TaskInfo} a worker returns for every
+ * status update with JSON and with Smile. The payload is derived from the test fixtures, with
+ * the pipeline, operator and driver lists replicated to the size of a typical multi-stage task.
+ * The encoded sizes of both formats are printed by {@link #main(String[])}.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Fork(1)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkTaskInfoCodec
+{
+    @Benchmark
+    public byte[] encodeJson(BenchmarkData data)
+    {
+        return data.jsonCodec.toJson(data.taskInfo).getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public TaskInfo decodeJson(BenchmarkData data)
+    {
+        return data.jsonCodec.fromJson(new String(data.json, UTF_8));
+    }
+
+    @Benchmark
+    public byte[] encodeSmile(BenchmarkData data)
+    {
+        return data.smileCodec.toSmile(data.taskInfo);
+    }
+
+    @Benchmark
+    public TaskInfo decodeSmile(BenchmarkData data)
+    {
+        return data.smileCodec.fromSmile(data.smile);
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"1", "5"})
+        private int pipelines = 5;
+
+        @Param("8")
+        private int operatorsPerPipeline = 8;
+
+        @Param({"0", "16", "128"})
+        private int driversPerPipeline = 16;
+
+        private JsonCodec<TaskInfo> jsonCodec;
+        private SmileCodec<TaskInfo> smileCodec;
+        private TaskInfo taskInfo;
+        private byte[] json;
+        private byte[] smile;
+
+        @Setup
+        public void setup()
+        {
+            ObjectMapperProvider objectMapperProvider = new ObjectMapperProvider();
+            ObjectMapper objectMapper = objectMapperProvider.get();
+            jsonCodec = new JsonCodecFactory(objectMapperProvider).jsonCodec(TaskInfo.class);
+            smileCodec = new SmileCodecFactory(objectMapper).smileCodec(TaskInfo.class);
+
+            TaskStats taskStats = createTaskStats(objectMapper);
+            taskInfo = TaskInfo.createInitialTask(new TaskId("20180101_000000_00000_abcde", 1, 7), URI.create("http://10.0.0.1:8080/v1/task/20180101_000000_00000_abcde.1.7"), "node", ImmutableList.of(), taskStats);
+            json = jsonCodec.toJson(taskInfo).getBytes(UTF_8);
+            smile = smileCodec.toSmile(taskInfo);
+        }
+
+        private TaskStats createTaskStats(ObjectMapper objectMapper)
+        {
+            ObjectNode taskStats = objectMapper.valueToTree(EXPECTED);
+            ObjectNode pipelineStats = (ObjectNode) taskStats.get("pipelines").get(0);
+            replicate(pipelineStats, "operatorSummaries", operatorsPerPipeline);
+            replicate(pipelineStats, "drivers", driversPerPipeline);
+            replicate(taskStats, "pipelines", pipelines);
+            try {
+                return objectMapper.treeToValue(taskStats, TaskStats.class);
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        private static void replicate(ObjectNode node, String field, int count)
+        {
+            JsonNode element = node.get(field).get(0);
+            ArrayNode elements = node.putArray(field);
+            for (int i = 0; i < count; i++) {
+                elements.add(element.deepCopy());
+            }
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        BenchmarkTaskInfoCodec benchmark = new BenchmarkTaskInfoCodec();
+        benchmark.decodeJson(data);
+        benchmark.decodeSmile(data);
+        System.out.printf("TaskInfo size: json=%s bytes, smile=%s bytes%n", data.json.length, data.smile.length);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkTaskInfoCodec.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.smile;
+
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskInfo;
+import com.facebook.presto.operator.TaskStats;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+
+import static com.facebook.presto.operator.TestTaskStats.EXPECTED;
+import static com.facebook.presto.operator.TestTaskStats.assertExpectedTaskStats;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSmileCodec
+{
+    private final SmileCodecFactory codecFactory = new SmileCodecFactory();
+
+    @Test
+    public void testRoundTrip()
+    {
+        SmileCodec<TaskStats> codec = codecFactory.smileCodec(TaskStats.class);
+        assertExpectedTaskStats(codec.fromSmile(codec.toSmile(EXPECTED)));
+    }
+
+    @Test
+    public void testSmallerThanJson()
+    {
+        TaskInfo taskInfo = TaskInfo.createInitialTask(new TaskId("query", 0, 0), URI.create("fake://task"), "node", ImmutableList.of(), EXPECTED);
+        JsonCodec<TaskInfo> jsonCodec = jsonCodec(TaskInfo.class);
+        SmileCodec<TaskInfo> smileCodec = codecFactory.smileCodec(TaskInfo.class);
+
+        byte[] smile = smileCodec.toSmile(taskInfo);
+        assertTrue(smile.length < jsonCodec.toJson(taskInfo).length());
+        TaskInfo actual = smileCodec.fromSmile(smile);
+        assertEquals(actual.getTaskStatus().getTaskId(), taskInfo.getTaskStatus().getTaskId());
+        assertEquals(actual.getTaskStatus().getState(), taskInfo.getTaskStatus().getState());
+        assertExpectedTaskStats(actual.getStats());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidInput()
+    {
+        codecFactory.smileCodec(TaskStats.class).fromSmile(new byte[] {1, 2, 3});
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spiller;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.io.ByteStreams.toByteArray;
+import static java.lang.Math.min;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.size;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestAsyncFileOutputStream
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    @Test
+    public void testWriteAndReadBack()
+            throws IOException
+    {
+        Path file = createTempFile("spill", ".bin");
+        try {
+            Random random = new Random(42);
+            byte[] first = randomBytes(random, 100 * BUFFER_SIZE + 17);
+            byte[] second = randomBytes(random, 50 * BUFFER_SIZE + 3);
+
+            // every write of a stream continues where the previous stream stopped, the way spill files are appended to
+            long position = write(file, 0, first, random);
+            position = write(file, position, second, random);
+            assertEquals(position, first.length + second.length);
+            assertEquals(size(file), position);
+
+            byte[] expected = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, expected, first.length, second.length);
+            try (InputStream input = new ReadAheadFileInputStream(AsynchronousFileChannel.open(file, READ), BUFFER_SIZE)) {
+                assertTrue(Arrays.equals(toByteArray(input), expected));
+            }
+        }
+        finally {
+            delete(file);
+        }
+    }
+
+    private static long write(Path file, long position, byte[] data, Random random)
+            throws IOException
+    {
+        try (AsyncFileOutputStream output = new AsyncFileOutputStream(AsynchronousFileChannel.open(file, WRITE), position, BUFFER_SIZE)) {
+            int offset = 0;
+            while (offset < data.length) {
+                int length = min(data.length - offset, random.nextInt(3 * BUFFER_SIZE) + 1);
+                output.write(data, offset, length);
+                offset += length;
+            }
+            output.flush();
+            return output.getPosition();
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length)
+    {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -35,17 +35,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import static com.facebook.presto.execution.buffer.CompressionCodec.DEFLATE;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.operator.PageAssertions.assertPageEquals;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static java.lang.Double.doubleToLongBits;
 import static java.util.Objects.requireNonNull;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestBinaryFileSpiller
@@ -113,6 +116,40 @@ public class TestBinaryFileSpiller
         }
     }
 
+    @Test
+    public void testCompressedFileSpiller()
+            throws Exception
+    {
+        FeaturesConfig featuresConfig = new FeaturesConfig();
+        featuresConfig.setSpillerSpillPaths(spillPath.getAbsolutePath());
+        featuresConfig.setSpillMaxUsedSpaceThreshold(1.0);
+        featuresConfig.setSpillCompressionCodec(DEFLATE);
+        featuresConfig.setSpillChecksumEnabled(true);
+        SpillerStats compressedSpillerStats = new SpillerStats();
+        FileSingleStreamSpillerFactory compressedSingleStreamSpillerFactory = new FileSingleStreamSpillerFactory(blockEncodingSerde, compressedSpillerStats, featuresConfig);
+        try {
+            RowPagesBuilder builder = RowPagesBuilder.rowPagesBuilder(TYPES);
+            for (int i = 0; i < 10; i++) {
+                builder.addSequencePage(1000, 0, 5, 10, 15);
+            }
+            List<Page> spill = builder.build();
+
+            try (Spiller spiller = new GenericSpillerFactory(compressedSingleStreamSpillerFactory).create(TYPES, bytes -> {}, memoryContext)) {
+                spiller.spill(spill.iterator()).get();
+                assertTrue(compressedSpillerStats.getTotalSpilledBytes() < compressedSpillerStats.getTotalUncompressedSpilledBytes());
+
+                List<Page> actualSpill = ImmutableList.copyOf(getOnlyElement(spiller.getSpills()));
+                assertEquals(actualSpill.size(), spill.size());
+                for (int i = 0; i < actualSpill.size(); i++) {
+                    assertPageEquals(TYPES, actualSpill.get(i), spill.get(i));
+                }
+            }
+        }
+        finally {
+            compressedSingleStreamSpillerFactory.destroy();
+        }
+    }
+
     private void testSimpleSpiller(Spiller spiller)
             throws ExecutionException, InterruptedException
     {
@@ -14,11 +14,13 @@
 package com.facebook.presto.spiller;
 
 import com.facebook.presto.block.BlockEncodingManager;
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import com.facebook.presto.execution.buffer.PagesSerde;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.operator.PageAssertions;
 import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.type.TypeRegistry;
@@ -27,30 +29,48 @@ import com.google.common.collect.Iterators;
 import com.google.common.io.Files;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 
+import static com.facebook.presto.execution.buffer.CompressionCodec.DEFLATE;
+import static com.facebook.presto.execution.buffer.CompressionCodec.LZ4;
+import static com.facebook.presto.execution.buffer.CompressionCodec.NONE;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.facebook.presto.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
 import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.MoreFiles.listFiles;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static java.lang.Double.doubleToLongBits;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 public class TestFileSingleStreamSpiller
 {
     private static final List<Type> TYPES = ImmutableList.of(BIGINT, DOUBLE, VARBINARY);
 
-    private final ListeningExecutorService executor = listeningDecorator(newCachedThreadPool());
-    private final File spillPath = Files.createTempDir();
+    private ListeningExecutorService executor;
+    private File spillPath;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = listeningDecorator(newCachedThreadPool());
+        spillPath = Files.createTempDir();
+    }
 
     @AfterMethod
     public void tearDown()
@@ -64,16 +84,70 @@ public class TestFileSingleStreamSpiller
     public void testSpill()
             throws Exception
     {
-        PagesSerdeFactory serdeFactory = new PagesSerdeFactory(new BlockEncodingManager(new TypeRegistry()), false);
+        assertSpill(NONE, false);
+    }
+
+    @Test
+    public void testSpillCompressed()
+            throws Exception
+    {
+        assertSpill(LZ4, false);
+        assertSpill(DEFLATE, false);
+    }
+
+    @Test
+    public void testSpillWithChecksum()
+            throws Exception
+    {
+        assertSpill(NONE, true);
+        assertSpill(LZ4, true);
+        assertSpill(DEFLATE, true);
+    }
+
+    @Test
+    public void testCorruptedSpillFile()
+            throws Exception
+    {
+        PagesSerde serde = new PagesSerdeFactory(new BlockEncodingManager(new TypeRegistry()), NONE).createPagesSerde();
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        FileSingleStreamSpiller spiller = new FileSingleStreamSpiller(serde, executor, spillPath.toPath(), new SpillerStats(), bytes -> {}, memoryContext, true);
+        try {
+            spiller.spill(buildPage()).get();
+
+            // flip a bit of the checksum following the page
+            Path spillFile = getOnlyElement(listFiles(spillPath.toPath()));
+            byte[] content = readAllBytes(spillFile);
+            content[content.length - 1] ^= 1;
+            write(spillFile, content);
+
+            Iterator<Page> spilledPages = spiller.getSpilledPages();
+            try {
+                spilledPages.next();
+                fail("expected checksum mismatch");
+            }
+            catch (PrestoException e) {
+                assertEquals(e.getErrorCode(), GENERIC_INTERNAL_ERROR.toErrorCode());
+                assertTrue(e.getMessage().startsWith("Spill file is corrupted"), e.getMessage());
+            }
+        }
+        finally {
+            spiller.close();
+        }
+    }
+
+    private void assertSpill(CompressionCodec compressionCodec, boolean checksumEnabled)
+            throws Exception
+    {
+        PagesSerdeFactory serdeFactory = new PagesSerdeFactory(new BlockEncodingManager(new TypeRegistry()), compressionCodec);
         PagesSerde serde = serdeFactory.createPagesSerde();
         SpillerStats spillerStats = new SpillerStats();
         LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
-        FileSingleStreamSpiller spiller = new FileSingleStreamSpiller(serde, executor, spillPath.toPath(), spillerStats, bytes -> {}, memoryContext);
+        FileSingleStreamSpiller spiller = new FileSingleStreamSpiller(serde, executor, spillPath.toPath(), spillerStats, bytes -> {}, memoryContext, checksumEnabled);
 
         Page page = buildPage();
 
         // The spillers will reserve memory in their constructors
-        assertEquals(memoryContext.getBytes(), 4096);
+        assertEquals(memoryContext.getBytes(), FileSingleStreamSpiller.BUFFER_SIZE);
         spiller.spill(page).get();
         spiller.spill(Iterators.forArray(page, page, page)).get();
         assertEquals(listFiles(spillPath.toPath()).size(), 1);
@@ -94,6 +168,16 @@ public class TestFileSingleStreamSpiller
             PageAssertions.assertPageEquals(TYPES, page, spilledPages.get(i));
         }
 
+        SpillPathStats spillPathStats = spillerStats.getSpillPathStats(spillPath.toPath());
+        assertEquals(spillPathStats.getWrittenBytes(), Files.asByteSource(getOnlyElement(listFiles(spillPath.toPath())).toFile()).size());
+        assertTrue(spillPathStats.getReadBytes() > 0);
+        if (compressionCodec == NONE) {
+            assertEquals(spillerStats.getTotalSpilledBytes(), spillerStats.getTotalUncompressedSpilledBytes());
+        }
+        else {
+            assertTrue(spillerStats.getTotalSpilledBytes() < spillerStats.getTotalUncompressedSpilledBytes());
+        }
+
         spiller.close();
         assertEquals(listFiles(spillPath.toPath()).size(), 0);
         assertEquals(memoryContext.getBytes(), 0);
@@ -105,9 +189,12 @@ public class TestFileSingleStreamSpiller
         BlockBuilder col2 = DOUBLE.createBlockBuilder(null, 1);
         BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 1);
 
-        col1.writeLong(42).closeEntry();
-        col2.writeLong(doubleToLongBits(43.0)).closeEntry();
-        col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
+        // repeated values, so that the page compresses well
+        for (int i = 0; i < 1000; i++) {
+            col1.writeLong(42).closeEntry();
+            col2.writeLong(doubleToLongBits(43.0)).closeEntry();
+            col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
+        }
 
         return new Page(col1.build(), col2.build(), col3.build());
     }
@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.sql.analyzer;
 
+import com.facebook.presto.execution.buffer.CompressionCodec;
 import com.facebook.presto.operator.aggregation.arrayagg.ArrayAggGroupImplementation;
 import com.facebook.presto.operator.aggregation.histogram.HistogramGroupImplementation;
 import com.google.common.collect.ImmutableMap;
@@ -52,9 +53,15 @@ public class TestFeaturesConfig
                 .setNetworkCostWeight(15)
                 .setDistributedIndexJoinsEnabled(false)
                 .setJoinDistributionType(PARTITIONED)
+                .setJoinMaxBroadcastTableSize(new DataSize(100, MEGABYTE))
+                .setEnforceBroadcastJoinSizeLimit(false)
+                .setDistributeNullJoinKeys(false)
+                .setSkewedJoinKeys("")
+                .setSkewedJoinSaltCount(8)
                 .setGroupedExecutionForAggregationEnabled(false)
                 .setConcurrentLifespansPerTask(0)
                 .setFastInequalityJoins(true)
+                .setBatchedJoinProbe(true)
                 .setColocatedJoinsEnabled(false)
                 .setSpatialJoinsEnabled(true)
                 .setJoinReorderingStrategy(ELIMINATE_CROSS_JOINS)
@@ -73,10 +80,15 @@ public class TestFeaturesConfig
                 .setRe2JDfaStatesLimit(Integer.MAX_VALUE)
                 .setRe2JDfaRetries(5)
                 .setSpillEnabled(false)
+                .setSpillOrderBy(true)
+                .setSpillWindowOperator(true)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("4MB"))
                 .setSpillerSpillPaths("")
                 .setSpillerThreads(4)
                 .setSpillMaxUsedSpaceThreshold(0.9)
+                .setSpillCompressionCodec(CompressionCodec.NONE)
+                .setSpillCompressionLevel(6)
+                .setSpillChecksumEnabled(false)
                 .setMemoryRevokingThreshold(0.9)
                 .setMemoryRevokingTarget(0.5)
                 .setOptimizeMixedDistinctAggregations(false)
@@ -103,7 +115,13 @@ public class TestFeaturesConfig
                 .setDistributedSortEnabled(true)
                 .setMaxGroupingSets(2048)
                 .setLegacyUnnestArrayRows(false)
-                .setPreAllocateMemoryThreshold(succinctBytes(0)));
+                .setPreAllocateMemoryThreshold(succinctBytes(0))
+                .setDynamicFilteringEnabled(false)
+                .setDynamicFilteringMaxDistinctValues(1_000)
+                .setDynamicFilteringBloomFilterSize(new DataSize(1, MEGABYTE))
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(100_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8));
     }
 
     @Test
@@ -125,9 +143,15 @@ public class TestFeaturesConfig
                 .put("deprecated.legacy-char-to-varchar-coercion", "true")
                 .put("distributed-index-joins-enabled", "true")
                 .put("join-distribution-type", "BROADCAST")
+                .put("join-max-broadcast-table-size", "42GB")
+                .put("enforce-broadcast-join-size-limit", "true")
+                .put("optimizer.distribute-null-join-keys", "true")
+                .put("optimizer.skewed-join-keys", "orders.custkey=0|-1")
+                .put("optimizer.skewed-join-salt-count", "16")
                 .put("grouped-execution-for-aggregation-enabled", "true")
                 .put("concurrent-lifespans-per-task", "1")
                 .put("fast-inequality-joins", "false")
+                .put("batched-join-probe", "false")
                 .put("colocated-joins-enabled", "true")
                 .put("spatial-joins-enabled", "false")
                 .put("optimizer.join-reordering-strategy", "NONE")
@@ -145,10 +169,15 @@ public class TestFeaturesConfig
                 .put("re2j.dfa-states-limit", "42")
                 .put("re2j.dfa-retries", "42")
                 .put("experimental.spill-enabled", "true")
+                .put("experimental.spill-order-by", "false")
+                .put("experimental.spill-window-operator", "false")
                 .put("experimental.aggregation-operator-unspill-memory-limit", "100MB")
                 .put("experimental.spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .put("experimental.spiller-threads", "42")
                 .put("experimental.spiller-max-used-space-threshold", "0.8")
+                .put("experimental.spill-compression-codec", "DEFLATE")
+                .put("experimental.spill-compression-level", "9")
+                .put("experimental.spill-checksum-enabled", "true")
                 .put("experimental.memory-revoking-threshold", "0.2")
                 .put("experimental.memory-revoking-target", "0.8")
                 .put("exchange.compression-enabled", "true")
@@ -167,6 +196,12 @@ public class TestFeaturesConfig
                 .put("analyzer.max-grouping-sets", "2047")
                 .put("deprecated.legacy-unnest-array-rows", "true")
                 .put("experimental.preallocate-memory-threshold", "5TB")
+                .put("experimental.enable-dynamic-filtering", "true")
+                .put("experimental.dynamic-filtering-max-distinct-values", "42")
+                .put("experimental.dynamic-filtering-bloom-filter-size", "4MB")
+                .put("experimental.adaptive-partial-aggregation", "true")
+                .put("experimental.adaptive-partial-aggregation-min-rows", "1000")
+                .put("experimental.adaptive-partial-aggregation-unique-rows-ratio-threshold", "0.5")
                 .build();
 
         FeaturesConfig expected = new FeaturesConfig()
@@ -178,9 +213,15 @@ public class TestFeaturesConfig
                 .setEnableNewStatsCalculator(false)
                 .setDistributedIndexJoinsEnabled(true)
                 .setJoinDistributionType(BROADCAST)
+                .setJoinMaxBroadcastTableSize(new DataSize(42, GIGABYTE))
+                .setEnforceBroadcastJoinSizeLimit(true)
+                .setDistributeNullJoinKeys(true)
+                .setSkewedJoinKeys("orders.custkey=0|-1")
+                .setSkewedJoinSaltCount(16)
                 .setGroupedExecutionForAggregationEnabled(true)
                 .setConcurrentLifespansPerTask(1)
                 .setFastInequalityJoins(false)
+                .setBatchedJoinProbe(false)
                 .setColocatedJoinsEnabled(true)
                 .setSpatialJoinsEnabled(false)
                 .setJoinReorderingStrategy(NONE)
@@ -201,10 +242,15 @@ public class TestFeaturesConfig
                 .setRe2JDfaStatesLimit(42)
                 .setRe2JDfaRetries(42)
                 .setSpillEnabled(true)
+                .setSpillOrderBy(false)
+                .setSpillWindowOperator(false)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("100MB"))
                 .setSpillerSpillPaths("/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .setSpillerThreads(42)
                 .setSpillMaxUsedSpaceThreshold(0.8)
+                .setSpillCompressionCodec(CompressionCodec.DEFLATE)
+                .setSpillCompressionLevel(9)
+                .setSpillChecksumEnabled(true)
                 .setMemoryRevokingThreshold(0.2)
                 .setMemoryRevokingTarget(0.8)
                 .setLegacyLogFunction(true)
@@ -226,7 +272,13 @@ public class TestFeaturesConfig
                 .setDistributedSortEnabled(false)
                 .setMaxGroupingSets(2047)
                 .setLegacyUnnestArrayRows(true)
-                .setPreAllocateMemoryThreshold(DataSize.valueOf("5TB"));
+                .setPreAllocateMemoryThreshold(DataSize.valueOf("5TB"))
+                .setDynamicFilteringEnabled(true)
+                .setDynamicFilteringMaxDistinctValues(42)
+                .setDynamicFilteringBloomFilterSize(new DataSize(4, MEGABYTE))
+                .setAdaptivePartialAggregationEnabled(true)
+                .setAdaptivePartialAggregationMinRows(1000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.5);
         assertFullMapping(properties, expected);
     }
 
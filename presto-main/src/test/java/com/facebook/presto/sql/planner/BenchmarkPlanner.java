@@ -14,6 +14,8 @@
 package com.facebook.presto.sql.planner;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.execution.plancache.PlanCache;
+import com.facebook.presto.execution.plancache.PlanCacheConfig;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.facebook.presto.tpch.ColumnNaming;
 import com.facebook.presto.tpch.TpchConnectorFactory;
@@ -42,6 +44,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
@@ -68,7 +71,11 @@ public class BenchmarkPlanner
         @Param({"optimized", "created"})
         private String stage = LogicalPlanner.Stage.OPTIMIZED.toString();
 
+        @Param({"false", "true"})
+        private String planCacheEnabled = "false";
+
         private LocalQueryRunner queryRunner;
+        private PlanCache planCache;
         private List<String> queries;
         private Session session;
 
@@ -85,6 +92,7 @@ public class BenchmarkPlanner
 
             queryRunner = new LocalQueryRunner(session);
             queryRunner.createCatalog(tpch, new TpchConnectorFactory(4), ImmutableMap.of(TPCH_COLUMN_NAMING_PROPERTY, ColumnNaming.STANDARD.name()));
+            planCache = new PlanCache(new PlanCacheConfig().setEnabled(Boolean.parseBoolean(planCacheEnabled)), queryRunner.getMetadata());
 
             queries = IntStream.rangeClosed(1, 22)
                     .boxed()
@@ -118,7 +126,12 @@ public class BenchmarkPlanner
         return benchmarkData.queryRunner.inTransaction(transactionSession -> {
             LogicalPlanner.Stage stage = LogicalPlanner.Stage.valueOf(benchmarkData.stage.toUpperCase());
             return benchmarkData.queries.stream()
-                    .map(query -> benchmarkData.queryRunner.createPlan(transactionSession, query, stage, false))
+                    .map(query -> benchmarkData.queryRunner.createPlan(
+                            transactionSession,
+                            query,
+                            benchmarkData.queryRunner.getPlanOptimizers(false),
+                            stage,
+                            Optional.of(benchmarkData.planCache)))
                     .collect(toImmutableList());
         });
     }
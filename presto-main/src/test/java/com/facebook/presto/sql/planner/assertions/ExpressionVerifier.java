@@ -25,6 +25,7 @@ import com.facebook.presto.sql.tree.DoubleLiteral;
 import com.facebook.presto.sql.tree.Expression;
 import com.facebook.presto.sql.tree.FunctionCall;
 import com.facebook.presto.sql.tree.GenericLiteral;
+import com.facebook.presto.sql.tree.IfExpression;
 import com.facebook.presto.sql.tree.InListExpression;
 import com.facebook.presto.sql.tree.InPredicate;
 import com.facebook.presto.sql.tree.IsNotNullPredicate;
@@ -334,6 +335,19 @@ final class ExpressionVerifier
         return false;
     }
 
+    @Override
+    protected Boolean visitIfExpression(IfExpression actual, Node expected)
+    {
+        if (!(expected instanceof IfExpression)) {
+            return false;
+        }
+        IfExpression expectedIf = (IfExpression) expected;
+
+        return process(actual.getCondition(), expectedIf.getCondition()) &&
+                process(actual.getTrueValue(), expectedIf.getTrueValue()) &&
+                process(actual.getFalseValue(), expectedIf.getFalseValue());
+    }
+
     @Override
     protected Boolean visitSimpleCaseExpression(SimpleCaseExpression actual, Node expected)
     {
@@ -13,11 +13,15 @@
  */
 package com.facebook.presto.sql.planner.iterative.rule;
 
+import com.facebook.presto.cost.PlanNodeStatsEstimate;
+import com.facebook.presto.cost.SymbolStatsEstimate;
 import com.facebook.presto.sql.analyzer.FeaturesConfig.JoinDistributionType;
+import com.facebook.presto.sql.planner.Symbol;
 import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
 import com.facebook.presto.sql.planner.plan.JoinNode;
 import com.facebook.presto.sql.planner.plan.JoinNode.DistributionType;
 import com.facebook.presto.sql.planner.plan.JoinNode.Type;
+import com.facebook.presto.sql.planner.plan.PlanNodeId;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.Test;
@@ -25,7 +29,10 @@ import org.testng.annotations.Test;
 import java.util.Optional;
 
 import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.JOIN_MAX_BROADCAST_TABLE_SIZE;
+import static com.facebook.presto.cost.PlanNodeStatsEstimate.UNKNOWN_STATS;
 import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.enforceSingleRow;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.equiJoinClause;
 import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.join;
@@ -46,7 +53,8 @@ public class TestDetermineJoinDistributionType
     {
         testDetermineDistributionType(JoinDistributionType.PARTITIONED, INNER, DistributionType.PARTITIONED);
         testDetermineDistributionType(JoinDistributionType.BROADCAST, INNER, DistributionType.REPLICATED);
-        testDetermineDistributionType(JoinDistributionType.AUTOMATIC, INNER, DistributionType.PARTITIONED);
+        // the build side is known to be well below the default broadcast limit
+        testDetermineDistributionType(JoinDistributionType.AUTOMATIC, INNER, DistributionType.REPLICATED);
     }
 
     @Test
@@ -54,7 +62,7 @@ public class TestDetermineJoinDistributionType
     {
         testDetermineDistributionType(JoinDistributionType.PARTITIONED, LEFT, DistributionType.PARTITIONED);
         testDetermineDistributionType(JoinDistributionType.BROADCAST, LEFT, DistributionType.REPLICATED);
-        testDetermineDistributionType(JoinDistributionType.AUTOMATIC, LEFT, DistributionType.PARTITIONED);
+        testDetermineDistributionType(JoinDistributionType.AUTOMATIC, LEFT, DistributionType.REPLICATED);
     }
 
     private void testDetermineDistributionType(JoinDistributionType sessionDistributedJoin, Type joinType, DistributionType expectedDistribution)
@@ -78,6 +86,102 @@ public class TestDetermineJoinDistributionType
                         values(ImmutableMap.of("A1", 0))));
     }
 
+    @Test
+    public void testAutomaticDistributionTypeForLargeBuildSide()
+    {
+        testAutomaticDistributionType(
+                PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(1_000_000)
+                        .addSymbolStatistics(new Symbol("B1"), new SymbolStatsEstimate(0, 100, 0, 1000, 100))
+                        .build(),
+                "100MB",
+                DistributionType.PARTITIONED);
+    }
+
+    @Test
+    public void testAutomaticDistributionTypeForUnknownBuildSide()
+    {
+        testAutomaticDistributionType(UNKNOWN_STATS, "100MB", DistributionType.PARTITIONED);
+    }
+
+    @Test
+    public void testAutomaticDistributionTypeForSmallBuildSide()
+    {
+        testAutomaticDistributionType(
+                PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(1000)
+                        .addSymbolStatistics(new Symbol("B1"), new SymbolStatsEstimate(0, 100, 0, 1000, 100))
+                        .build(),
+                "100MB",
+                DistributionType.REPLICATED);
+    }
+
+    @Test
+    public void testAutomaticDistributionTypeWithoutMaxBroadcastSize()
+    {
+        testAutomaticDistributionType(
+                PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(1000)
+                        .addSymbolStatistics(new Symbol("B1"), new SymbolStatsEstimate(0, 100, 0, 1000, 100))
+                        .build(),
+                "0B",
+                DistributionType.PARTITIONED);
+    }
+
+    @Test
+    public void testAutomaticDistributionTypeForUnknownVariableWidthColumnSize()
+    {
+        // the size of the build side would only be a guess, based on a default size per value
+        tester().assertThat(new DetermineJoinDistributionType())
+                .on(p ->
+                        p.join(
+                                INNER,
+                                p.values(new PlanNodeId("valuesA"), ImmutableList.of(p.symbol("A1", VARCHAR)), ImmutableList.of(expressions("'a'"), expressions("'b'"))),
+                                p.values(new PlanNodeId("valuesB"), ImmutableList.of(p.symbol("B1", VARCHAR)), ImmutableList.of(expressions("'c'"), expressions("'b'"))),
+                                ImmutableList.of(new JoinNode.EquiJoinClause(p.symbol("A1", VARCHAR), p.symbol("B1", VARCHAR))),
+                                ImmutableList.of(p.symbol("A1", VARCHAR), p.symbol("B1", VARCHAR)),
+                                Optional.empty()))
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.AUTOMATIC.name())
+                .setSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, "100MB")
+                .overrideStats("valuesB", PlanNodeStatsEstimate.builder()
+                        .setOutputRowCount(1000)
+                        .addSymbolStatistics(new Symbol("B1"), SymbolStatsEstimate.builder()
+                                .setNullsFraction(0)
+                                .setDistinctValuesCount(100)
+                                .build())
+                        .build())
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("A1", "B1")),
+                        Optional.empty(),
+                        Optional.of(DistributionType.PARTITIONED),
+                        values(ImmutableMap.of("A1", 0)),
+                        values(ImmutableMap.of("B1", 0))));
+    }
+
+    private void testAutomaticDistributionType(PlanNodeStatsEstimate buildSideStats, String maxBroadcastTableSize, DistributionType expectedDistribution)
+    {
+        tester().assertThat(new DetermineJoinDistributionType())
+                .on(p ->
+                        p.join(
+                                INNER,
+                                p.values(new PlanNodeId("valuesA"), ImmutableList.of(p.symbol("A1")), ImmutableList.of(expressions("10"), expressions("11"))),
+                                p.values(new PlanNodeId("valuesB"), ImmutableList.of(p.symbol("B1")), ImmutableList.of(expressions("50"), expressions("11"))),
+                                ImmutableList.of(new JoinNode.EquiJoinClause(p.symbol("A1", BIGINT), p.symbol("B1", BIGINT))),
+                                ImmutableList.of(p.symbol("A1", BIGINT), p.symbol("B1", BIGINT)),
+                                Optional.empty()))
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.AUTOMATIC.name())
+                .setSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, maxBroadcastTableSize)
+                .overrideStats("valuesB", buildSideStats)
+                .matches(join(
+                        INNER,
+                        ImmutableList.of(equiJoinClause("A1", "B1")),
+                        Optional.empty(),
+                        Optional.of(expectedDistribution),
+                        values(ImmutableMap.of("A1", 0)),
+                        values(ImmutableMap.of("B1", 0))));
+    }
+
     @Test
     public void testRepartitionRightOuter()
     {
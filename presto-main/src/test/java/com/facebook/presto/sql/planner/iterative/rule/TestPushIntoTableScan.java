@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.connector.ConnectorId;
+import com.facebook.presto.metadata.TableHandle;
+import com.facebook.presto.metadata.TableLayoutHandle;
+import com.facebook.presto.spi.predicate.TupleDomain;
+import com.facebook.presto.sql.planner.Symbol;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
+import com.facebook.presto.sql.planner.plan.TableScanNode;
+import com.facebook.presto.testing.TestingTransactionHandle;
+import com.facebook.presto.tpch.TpchColumnHandle;
+import com.facebook.presto.tpch.TpchTableHandle;
+import com.facebook.presto.tpch.TpchTableLayoutHandle;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.expression;
+
+public class TestPushIntoTableScan
+        extends BaseRuleTest
+{
+    private PushIntoTableScan pushIntoTableScan;
+    private TableHandle nationTableHandle;
+    private TableLayoutHandle nationTableLayoutHandle;
+
+    @BeforeClass
+    public void setUpBeforeClass()
+    {
+        pushIntoTableScan = new PushIntoTableScan(tester().getMetadata());
+
+        ConnectorId connectorId = tester().getCurrentConnectorId();
+        nationTableHandle = new TableHandle(
+                connectorId,
+                new TpchTableHandle(connectorId.toString(), "nation", 1.0));
+
+        nationTableLayoutHandle = new TableLayoutHandle(connectorId,
+                TestingTransactionHandle.create(),
+                new TpchTableLayoutHandle((TpchTableHandle) nationTableHandle.getConnectorHandle(), TupleDomain.all()));
+    }
+
+    @Test
+    public void doesNotFireIfNoTableScan()
+    {
+        for (Rule<?> rule : pushIntoTableScan.rules()) {
+            tester().assertThat(rule)
+                    .on(p -> p.values(p.symbol("a", BIGINT)))
+                    .doesNotFire();
+        }
+    }
+
+    @Test
+    public void doesNotFireIfTableScanHasNoTableLayout()
+    {
+        tester().assertThat(pushIntoTableScan.pushLimitIntoTableScan())
+                .on(p -> p.limit(10, nationTableScan(p, Optional.empty())))
+                .doesNotFire();
+    }
+
+    @Test
+    public void doesNotFireIfConnectorDoesNotSupportPushdown()
+    {
+        tester().assertThat(pushIntoTableScan.pushLimitIntoTableScan())
+                .on(p -> p.limit(10, nationTableScan(p, Optional.of(nationTableLayoutHandle))))
+                .doesNotFire();
+
+        tester().assertThat(pushIntoTableScan.pushTopNIntoTableScan())
+                .on(p -> p.topN(10, ImmutableList.of(p.symbol("nationkey", BIGINT)), nationTableScan(p, Optional.of(nationTableLayoutHandle))))
+                .doesNotFire();
+
+        tester().assertThat(pushIntoTableScan.pushAggregationIntoTableScan())
+                .on(p -> p.aggregation(aggregation -> aggregation
+                        .globalGrouping()
+                        .addAggregation(p.symbol("count", BIGINT), expression("count(nationkey)"), ImmutableList.of(BIGINT))
+                        .source(nationTableScan(p, Optional.of(nationTableLayoutHandle)))))
+                .doesNotFire();
+    }
+
+    private TableScanNode nationTableScan(PlanBuilder p, Optional<TableLayoutHandle> layout)
+    {
+        Symbol nationkey = p.symbol("nationkey", BIGINT);
+        return p.tableScan(
+                nationTableHandle,
+                ImmutableList.of(nationkey),
+                ImmutableMap.of(nationkey, new TpchColumnHandle("nationkey", BIGINT)),
+                layout);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.sql.planner.assertions.BasePlanTest;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.SystemSessionProperties.DISTRIBUTE_NULL_JOIN_KEYS;
+import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.anyTree;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.equiJoinClause;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.expression;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.filter;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.join;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.project;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.tableScan;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.FULL;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+
+public class TestDistributeNullJoinKeys
+        extends BasePlanTest
+{
+    public TestDistributeNullJoinKeys()
+    {
+        super(ImmutableMap.of(
+                DISTRIBUTE_NULL_JOIN_KEYS, "true",
+                JOIN_DISTRIBUTION_TYPE, "PARTITIONED"));
+    }
+
+    @Test
+    public void testInnerJoin()
+    {
+        assertDistributedPlan("SELECT * FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey",
+                anyTree(
+                        join(INNER, ImmutableList.of(equiJoinClause("O_ORDERKEY", "L_ORDERKEY")),
+                                anyTree(
+                                        filter("NOT (O_ORDERKEY IS NULL)",
+                                                tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey")))),
+                                anyTree(
+                                        filter("NOT (L_ORDERKEY IS NULL)",
+                                                tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey")))))));
+    }
+
+    @Test
+    public void testLeftJoin()
+    {
+        assertDistributedPlan("SELECT * FROM orders o LEFT JOIN lineitem l ON o.orderkey = l.orderkey",
+                anyTree(
+                        join(LEFT, ImmutableList.of(equiJoinClause("O_ORDERKEY", "L_ORDERKEY"), equiJoinClause("O_SALT", "L_SALT")),
+                                anyTree(
+                                        project(ImmutableMap.of("O_SALT", expression("IF(O_ORDERKEY IS NULL, random(2147483647), 0)")),
+                                                tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey")))),
+                                anyTree(
+                                        project(ImmutableMap.of("L_SALT", expression("IF(L_ORDERKEY IS NULL, random(2147483647), 0)")),
+                                                filter("NOT (L_ORDERKEY IS NULL)",
+                                                        tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey"))))))));
+    }
+
+    @Test
+    public void testFullJoinWithMultipleKeys()
+    {
+        assertDistributedPlan("SELECT * FROM orders o FULL JOIN lineitem l ON o.orderkey = l.orderkey AND o.custkey = l.partkey",
+                anyTree(
+                        join(FULL, ImmutableList.of(equiJoinClause("O_ORDERKEY", "L_ORDERKEY"), equiJoinClause("O_CUSTKEY", "L_PARTKEY"), equiJoinClause("O_SALT", "L_SALT")),
+                                anyTree(
+                                        project(ImmutableMap.of("O_SALT", expression("IF(O_ORDERKEY IS NULL OR O_CUSTKEY IS NULL, random(2147483647), 0)")),
+                                                tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey", "O_CUSTKEY", "custkey")))),
+                                anyTree(
+                                        project(ImmutableMap.of("L_SALT", expression("IF(L_ORDERKEY IS NULL OR L_PARTKEY IS NULL, random(2147483647), 0)")),
+                                                tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey", "L_PARTKEY", "partkey")))))));
+    }
+}
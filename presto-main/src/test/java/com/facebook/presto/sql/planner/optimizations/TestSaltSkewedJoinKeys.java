@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.optimizations;
+
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.sql.planner.assertions.BasePlanTest;
+import com.facebook.presto.sql.planner.assertions.PlanMatchPattern;
+import com.facebook.presto.sql.planner.plan.JoinNode;
+import com.facebook.presto.sql.planner.plan.UnnestNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static com.facebook.presto.SystemSessionProperties.SKEWED_JOIN_KEYS;
+import static com.facebook.presto.SystemSessionProperties.SKEWED_JOIN_SALT_COUNT;
+import static com.facebook.presto.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.anyTree;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.equiJoinClause;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.expression;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.join;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.node;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.project;
+import static com.facebook.presto.sql.planner.assertions.PlanMatchPattern.tableScan;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.INNER;
+import static com.facebook.presto.sql.planner.plan.JoinNode.Type.LEFT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestSaltSkewedJoinKeys
+        extends BasePlanTest
+{
+    public TestSaltSkewedJoinKeys()
+    {
+        super(ImmutableMap.of(
+                SKEWED_JOIN_KEYS, "orders.orderkey=1|2",
+                SKEWED_JOIN_SALT_COUNT, "4",
+                JOIN_DISTRIBUTION_TYPE, "PARTITIONED"));
+    }
+
+    @Test
+    public void testInnerJoin()
+    {
+        assertDistributedPlan("SELECT * FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey",
+                anyTree(
+                        join(INNER, ImmutableList.of(equiJoinClause("O_ORDERKEY", "L_ORDERKEY"), equiJoinClause("O_SALT", "L_SALT")),
+                                anyTree(
+                                        project(ImmutableMap.of("O_SALT", expression("IF(O_ORDERKEY IN (BIGINT '1', BIGINT '2'), random(4), 0)")),
+                                                tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey")))),
+                                anyTree(
+                                        replicatedHotRows("L_SALT",
+                                                project(
+                                                        tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey"))))))));
+    }
+
+    @Test
+    public void testHotValuesOfBuildSide()
+    {
+        assertDistributedPlan("SELECT * FROM lineitem l LEFT JOIN orders o ON l.orderkey = o.orderkey",
+                anyTree(
+                        join(LEFT, ImmutableList.of(equiJoinClause("L_ORDERKEY", "O_ORDERKEY"), equiJoinClause("L_SALT", "O_SALT")),
+                                anyTree(
+                                        project(ImmutableMap.of("L_SALT", expression("IF(L_ORDERKEY IN (BIGINT '1', BIGINT '2'), random(4), 0)")),
+                                                tableScan("lineitem", ImmutableMap.of("L_ORDERKEY", "orderkey")))),
+                                anyTree(
+                                        replicatedHotRows("O_SALT",
+                                                project(
+                                                        tableScan("orders", ImmutableMap.of("O_ORDERKEY", "orderkey"))))))));
+    }
+
+    @Test
+    public void testNoHotValues()
+    {
+        assertDistributedPlan("SELECT * FROM orders o JOIN lineitem l ON o.custkey = l.partkey",
+                anyTree(
+                        join(INNER, ImmutableList.of(equiJoinClause("O_CUSTKEY", "L_PARTKEY")),
+                                anyTree(
+                                        tableScan("orders", ImmutableMap.of("O_CUSTKEY", "custkey"))),
+                                anyTree(
+                                        tableScan("lineitem", ImmutableMap.of("L_PARTKEY", "partkey"))))));
+    }
+
+    @Test
+    public void testFullJoinNotSalted()
+    {
+        assertFalse(searchFrom(plan("SELECT * FROM orders o FULL JOIN lineitem l ON o.orderkey = l.orderkey", OPTIMIZED_AND_VALIDATED, false).getRoot())
+                .where(UnnestNode.class::isInstance)
+                .matches());
+        assertTrue(searchFrom(plan("SELECT * FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey", OPTIMIZED_AND_VALIDATED, false).getRoot())
+                .where(node -> node instanceof JoinNode && ((JoinNode) node).getCriteria().size() == 2)
+                .matches());
+    }
+
+    @Test
+    public void testParseSkewedJoinKeys()
+    {
+        SkewedJoinKeys keys = SkewedJoinKeys.valueOf("Orders.custkey=0|-1; tpch.lineitem.partkey = 1");
+        assertEquals(keys.getHotValues(new SchemaTableName("tiny", "orders"), "CUSTKEY"), ImmutableList.of("0", "-1"));
+        assertEquals(keys.getHotValues(new SchemaTableName("tpch", "lineitem"), "partkey"), ImmutableList.of("1"));
+        assertEquals(keys.getHotValues(new SchemaTableName("tiny", "lineitem"), "partkey"), ImmutableList.of());
+        assertTrue(SkewedJoinKeys.NONE.isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "Skewed join key 'orders.custkey' has no values")
+    public void testSkewedJoinKeyWithoutValues()
+    {
+        SkewedJoinKeys.valueOf("orders.custkey");
+    }
+
+    // the arrays of salts are constant folded, so only the unnested salt is matched
+    private static PlanMatchPattern replicatedHotRows(String saltAlias, PlanMatchPattern source)
+    {
+        return node(UnnestNode.class, source)
+                .withAlias(saltAlias, (node, session, metadata, symbolAliases) -> {
+                    if (!(node instanceof UnnestNode)) {
+                        return Optional.empty();
+                    }
+                    return ((UnnestNode) node).getUnnestSymbols().values().stream()
+                            .flatMap(List::stream)
+                            .findFirst();
+                });
+    }
+}
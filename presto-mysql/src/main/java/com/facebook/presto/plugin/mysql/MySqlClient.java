@@ -142,6 +142,14 @@ public class MySqlClient
                 resultSet.getString("TABLE_NAME").toLowerCase(ENGLISH));
     }
 
+    @Override
+    public String castToBigint(String expression)
+    {
+        // CAST(... AS SIGNED) saturates values out of range, whereas the driver fails to read
+        // such a DECIMAL result as a long, so leave the conversion to the driver
+        return expression;
+    }
+
     @Override
     protected String toSqlType(Type type)
     {
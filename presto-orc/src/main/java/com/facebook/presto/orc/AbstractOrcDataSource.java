@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.BasicSliceInput;
 import io.airlift.slice.ChunkedSliceInput;
@@ -25,9 +26,13 @@ import io.airlift.units.DataSize;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import static com.facebook.presto.orc.OrcDataSourceUtils.getDiskRangeSlice;
@@ -47,7 +52,8 @@ public abstract class AbstractOrcDataSource
     private final DataSize streamBufferSize;
     private final boolean lazyReadSmallRanges;
     private long readTimeNanos;
-    private long readBytes;
+    // also updated by reads in the background
+    private final AtomicLong readBytes = new AtomicLong();
 
     public AbstractOrcDataSource(OrcDataSourceId id, long size, DataSize maxMergeDistance, DataSize maxBufferSize, DataSize streamBufferSize, boolean lazyReadSmallRanges)
     {
@@ -65,6 +71,15 @@ public abstract class AbstractOrcDataSource
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException;
 
+    /**
+     * Returns true if {@link #readInternal} can be called while another read is in progress,
+     * which is required to read ahead from a background thread.
+     */
+    protected boolean isConcurrentReadSupported()
+    {
+        return false;
+    }
+
     @Override
     public OrcDataSourceId getId()
     {
@@ -74,7 +89,7 @@ public abstract class AbstractOrcDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
@@ -105,7 +120,23 @@ public abstract class AbstractOrcDataSource
         readInternal(position, buffer, bufferOffset, bufferLength);
 
         readTimeNanos += System.nanoTime() - start;
-        readBytes += bufferLength;
+        readBytes.addAndGet(bufferLength);
+    }
+
+    /**
+     * Reads from a background thread. The read time is not recorded; the reader thread
+     * records the time it waits for the read with {@link #addReadTimeNanos(long)} instead.
+     */
+    final void readFullyInBackground(long position, byte[] buffer)
+            throws IOException
+    {
+        readInternal(position, buffer, 0, buffer.length);
+        readBytes.addAndGet(buffer.length);
+    }
+
+    final void addReadTimeNanos(long nanos)
+    {
+        readTimeNanos += nanos;
     }
 
     @Override
@@ -145,6 +176,25 @@ public abstract class AbstractOrcDataSource
         return slices.build();
     }
 
+    /**
+     * Returns the regions in which {@link #readFully(Map)} reads the given ranges. Ranges
+     * that are too large for a single buffer are read lazily in chunks, and are not included.
+     */
+    final List<DiskRange> getMergedSmallDiskRanges(Collection<DiskRange> diskRanges)
+    {
+        long maxReadSizeBytes = maxBufferSize.toBytes();
+        List<DiskRange> smallRanges = new ArrayList<>();
+        for (DiskRange diskRange : diskRanges) {
+            if (diskRange.getLength() <= maxReadSizeBytes) {
+                smallRanges.add(diskRange);
+            }
+        }
+        if (smallRanges.isEmpty()) {
+            return ImmutableList.of();
+        }
+        return mergeAdjacentDiskRanges(smallRanges, maxMergeDistance, maxBufferSize);
+    }
+
     private <K> Map<K, OrcDataSourceInput> readSmallDiskRanges(Map<K, DiskRange> diskRanges)
             throws IOException
     {
@@ -18,31 +18,23 @@ import com.facebook.presto.orc.metadata.CompressionKind;
 import com.facebook.presto.orc.metadata.ExceptionWrappingMetadataReader;
 import com.facebook.presto.orc.metadata.Footer;
 import com.facebook.presto.orc.metadata.Metadata;
-import com.facebook.presto.orc.metadata.PostScript;
 import com.facebook.presto.orc.metadata.PostScript.HiveWriterVersion;
-import com.facebook.presto.orc.stream.OrcInputStream;
+import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.type.Type;
-import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
-import io.airlift.log.Logger;
-import io.airlift.slice.Slice;
-import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.orc.OrcDecompressor.createOrcDecompressor;
-import static com.facebook.presto.orc.metadata.PostScript.MAGIC;
-import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
-import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
@@ -52,12 +44,6 @@ public class OrcReader
     public static final int INITIAL_BATCH_SIZE = 1;
     public static final int BATCH_SIZE_GROWTH_FACTOR = 2;
 
-    private static final Logger log = Logger.get(OrcReader.class);
-
-    private static final int CURRENT_MAJOR_VERSION = 0;
-    private static final int CURRENT_MINOR_VERSION = 12;
-    private static final int EXPECTED_FOOTER_SIZE = 16 * 1024;
-
     private final OrcDataSource orcDataSource;
     private final ExceptionWrappingMetadataReader metadataReader;
     private final DataSize maxMergeDistance;
@@ -73,11 +59,23 @@ public class OrcReader
 
     private final Optional<OrcWriteValidation> writeValidation;
 
-    // This is based on the Apache Hive ORC code
     public OrcReader(OrcDataSource orcDataSource, OrcEncoding orcEncoding, DataSize maxMergeDistance, DataSize maxReadSize, DataSize tinyStripeThreshold, DataSize maxBlockSize)
             throws IOException
     {
-        this(orcDataSource, orcEncoding, maxMergeDistance, maxReadSize, tinyStripeThreshold, maxBlockSize, Optional.empty());
+        this(orcDataSource, orcEncoding, maxMergeDistance, maxReadSize, tinyStripeThreshold, maxBlockSize, OrcFileTailSource.STORAGE);
+    }
+
+    public OrcReader(
+            OrcDataSource orcDataSource,
+            OrcEncoding orcEncoding,
+            DataSize maxMergeDistance,
+            DataSize maxReadSize,
+            DataSize tinyStripeThreshold,
+            DataSize maxBlockSize,
+            OrcFileTailSource fileTailSource)
+            throws IOException
+    {
+        this(orcDataSource, orcEncoding, maxMergeDistance, maxReadSize, tinyStripeThreshold, maxBlockSize, fileTailSource, Optional.empty());
     }
 
     OrcReader(
@@ -87,9 +85,11 @@ public class OrcReader
             DataSize maxReadSize,
             DataSize tinyStripeThreshold,
             DataSize maxBlockSize,
+            OrcFileTailSource fileTailSource,
             Optional<OrcWriteValidation> writeValidation)
             throws IOException
     {
+        requireNonNull(fileTailSource, "fileTailSource is null");
         orcDataSource = wrapWithCacheIfTiny(orcDataSource, tinyStripeThreshold);
         this.orcDataSource = orcDataSource;
         requireNonNull(orcEncoding, "orcEncoding is null");
@@ -101,89 +101,17 @@ public class OrcReader
 
         this.writeValidation = requireNonNull(writeValidation, "writeValidation is null");
 
-        //
-        // Read the file tail:
-        //
-        // variable: Footer
-        // variable: Metadata
-        // variable: PostScript - contains length of footer and metadata
-        // 1 byte: postScriptSize
-
-        // figure out the size of the file using the option or filesystem
-        long size = orcDataSource.getSize();
-        if (size <= MAGIC.length()) {
-            throw new OrcCorruptionException(orcDataSource.getId(), "Invalid file size %s", size);
-        }
-
-        // Read the tail of the file
-        byte[] buffer = new byte[toIntExact(min(size, EXPECTED_FOOTER_SIZE))];
-        orcDataSource.readFully(size - buffer.length, buffer);
-
-        // get length of PostScript - last byte of the file
-        int postScriptSize = buffer[buffer.length - SIZE_OF_BYTE] & 0xff;
-        if (postScriptSize >= buffer.length) {
-            throw new OrcCorruptionException(orcDataSource.getId(), "Invalid postscript length %s", postScriptSize);
-        }
-
-        // decode the post script
-        PostScript postScript;
-        try {
-            postScript = metadataReader.readPostScript(buffer, buffer.length - SIZE_OF_BYTE - postScriptSize, postScriptSize);
-        }
-        catch (OrcCorruptionException e) {
-            // check if this is an ORC file and not an RCFile or something else
-            if (!isValidHeaderMagic(orcDataSource)) {
-                throw new OrcCorruptionException(orcDataSource.getId(), "Not an ORC file");
-            }
-            throw e;
-        }
-
-        // verify this is a supported version
-        checkOrcVersion(orcDataSource, postScript.getVersion());
-        validateWrite(validation -> validation.getVersion().equals(postScript.getVersion()), "Unexpected version");
-
-        this.bufferSize = toIntExact(postScript.getCompressionBlockSize());
+        OrcFileTail fileTail = fileTailSource.getOrcFileTail(orcDataSource, metadataReader);
+        validateWrite(validation -> validation.getVersion().equals(fileTail.getPostScript().getVersion()), "Unexpected version");
 
-        // check compression codec is supported
-        this.compressionKind = postScript.getCompression();
+        this.bufferSize = fileTail.getBufferSize();
+        this.compressionKind = fileTail.getCompressionKind();
         this.decompressor = createOrcDecompressor(orcDataSource.getId(), compressionKind, bufferSize);
         validateWrite(validation -> validation.getCompression() == compressionKind, "Unexpected compression");
 
-        this.hiveWriterVersion = postScript.getHiveWriterVersion();
-
-        int footerSize = toIntExact(postScript.getFooterLength());
-        int metadataSize = toIntExact(postScript.getMetadataLength());
-
-        // check if extra bytes need to be read
-        Slice completeFooterSlice;
-        int completeFooterSize = footerSize + metadataSize + postScriptSize + SIZE_OF_BYTE;
-        if (completeFooterSize > buffer.length) {
-            // allocate a new buffer large enough for the complete footer
-            byte[] newBuffer = new byte[completeFooterSize];
-            completeFooterSlice = Slices.wrappedBuffer(newBuffer);
-
-            // initial read was not large enough, so read missing section
-            orcDataSource.readFully(size - completeFooterSize, newBuffer, 0, completeFooterSize - buffer.length);
-
-            // copy already read bytes into the new buffer
-            completeFooterSlice.setBytes(completeFooterSize - buffer.length, buffer);
-        }
-        else {
-            // footer is already in the bytes in buffer, just adjust position, length
-            completeFooterSlice = Slices.wrappedBuffer(buffer, buffer.length - completeFooterSize, completeFooterSize);
-        }
-
-        // read metadata
-        Slice metadataSlice = completeFooterSlice.slice(0, metadataSize);
-        try (InputStream metadataInputStream = new OrcInputStream(orcDataSource.getId(), metadataSlice.getInput(), decompressor, newSimpleAggregatedMemoryContext(), metadataSize)) {
-            this.metadata = metadataReader.readMetadata(hiveWriterVersion, metadataInputStream);
-        }
-
-        // read footer
-        Slice footerSlice = completeFooterSlice.slice(metadataSize, footerSize);
-        try (InputStream footerInputStream = new OrcInputStream(orcDataSource.getId(), footerSlice.getInput(), decompressor, newSimpleAggregatedMemoryContext(), footerSize)) {
-            this.footer = metadataReader.readFooter(hiveWriterVersion, footerInputStream);
-        }
+        this.hiveWriterVersion = fileTail.getHiveWriterVersion();
+        this.footer = fileTail.getFooter();
+        this.metadata = fileTail.getMetadata();
 
         validateWrite(validation -> validation.getColumnNames().equals(getColumnNames()), "Unexpected column names");
         validateWrite(validation -> validation.getRowGroupMaxRowCount() == footer.getRowsInRowGroup(), "Unexpected rows in group");
@@ -232,10 +160,46 @@ public class OrcReader
             DateTimeZone hiveStorageTimeZone,
             AggregatedMemoryContext systemMemoryUsage,
             int initialBatchSize)
+    {
+        return createRecordReader(includedColumns, predicate, ImmutableMap.of(), offset, length, hiveStorageTimeZone, systemMemoryUsage, initialBatchSize);
+    }
+
+    /**
+     * @param columnDomains domains of the included columns that are evaluated while decoding; rows
+     * that are outside of the domains may be dropped, but it is not guaranteed that they all are
+     */
+    public OrcRecordReader createRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            Map<Integer, Domain> columnDomains,
+            long offset,
+            long length,
+            DateTimeZone hiveStorageTimeZone,
+            AggregatedMemoryContext systemMemoryUsage,
+            int initialBatchSize)
+    {
+        return createRecordReader(includedColumns, predicate, columnDomains, offset, length, hiveStorageTimeZone, systemMemoryUsage, initialBatchSize, Optional.empty());
+    }
+
+    /**
+     * @param prefetchExecutor executor used to read the next stripe while the current stripe is
+     * decoded; only used if the data source supports concurrent reads
+     */
+    public OrcRecordReader createRecordReader(
+            Map<Integer, Type> includedColumns,
+            OrcPredicate predicate,
+            Map<Integer, Domain> columnDomains,
+            long offset,
+            long length,
+            DateTimeZone hiveStorageTimeZone,
+            AggregatedMemoryContext systemMemoryUsage,
+            int initialBatchSize,
+            Optional<Executor> prefetchExecutor)
     {
         return new OrcRecordReader(
                 requireNonNull(includedColumns, "includedColumns is null"),
                 requireNonNull(predicate, "predicate is null"),
+                requireNonNull(columnDomains, "columnDomains is null"),
                 footer.getNumberOfRows(),
                 footer.getStripes(),
                 footer.getFileStats(),
@@ -255,7 +219,8 @@ public class OrcReader
                 footer.getUserMetadata(),
                 systemMemoryUsage,
                 writeValidation,
-                initialBatchSize);
+                initialBatchSize,
+                requireNonNull(prefetchExecutor, "prefetchExecutor is null"));
     }
 
     private static OrcDataSource wrapWithCacheIfTiny(OrcDataSource dataSource, DataSize maxCacheSize)
@@ -270,42 +235,6 @@ public class OrcReader
         return new CachingOrcDataSource(dataSource, desiredOffset -> diskRange);
     }
 
-    /**
-     * Does the file start with the ORC magic bytes?
-     */
-    private static boolean isValidHeaderMagic(OrcDataSource source)
-            throws IOException
-    {
-        byte[] headerMagic = new byte[MAGIC.length()];
-        source.readFully(0, headerMagic);
-
-        return MAGIC.equals(Slices.wrappedBuffer(headerMagic));
-    }
-
-    /**
-     * Check to see if this ORC file is from a future version and if so,
-     * warn the user that we may not be able to read all of the column encodings.
-     */
-    // This is based on the Apache Hive ORC code
-    private static void checkOrcVersion(OrcDataSource orcDataSource, List<Integer> version)
-    {
-        if (version.size() >= 1) {
-            int major = version.get(0);
-            int minor = 0;
-            if (version.size() > 1) {
-                minor = version.get(1);
-            }
-
-            if (major > CURRENT_MAJOR_VERSION || (major == CURRENT_MAJOR_VERSION && minor > CURRENT_MINOR_VERSION)) {
-                log.warn("ORC file %s was written by a newer Hive version %s. This file may not be readable by this version of Hive (%s.%s).",
-                        orcDataSource,
-                        Joiner.on('.').join(version),
-                        CURRENT_MAJOR_VERSION,
-                        CURRENT_MINOR_VERSION);
-            }
-        }
-    }
-
     private void validateWrite(Predicate<OrcWriteValidation> test, String messageFormat, Object... args)
             throws OrcCorruptionException
     {
@@ -327,7 +256,7 @@ public class OrcReader
             readTypes.put(columnIndex, types.get(columnIndex));
         }
         try {
-            OrcReader orcReader = new OrcReader(input, orcEncoding, new DataSize(1, MEGABYTE), new DataSize(8, MEGABYTE), new DataSize(8, MEGABYTE), new DataSize(16, MEGABYTE), Optional.of(writeValidation));
+            OrcReader orcReader = new OrcReader(input, orcEncoding, new DataSize(1, MEGABYTE), new DataSize(8, MEGABYTE), new DataSize(8, MEGABYTE), new DataSize(16, MEGABYTE), OrcFileTailSource.STORAGE, Optional.of(writeValidation));
             try (OrcRecordReader orcRecordReader = orcReader.createRecordReader(readTypes.build(), OrcPredicate.TRUE, hiveStorageTimeZone, newSimpleAggregatedMemoryContext(), INITIAL_BATCH_SIZE)) {
                 while (orcRecordReader.nextBatch() >= 0) {
                     // ignored
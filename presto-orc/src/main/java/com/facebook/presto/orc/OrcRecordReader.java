@@ -14,6 +14,7 @@
 package com.facebook.presto.orc;
 
 import com.facebook.presto.memory.context.AggregatedMemoryContext;
+import com.facebook.presto.memory.context.LocalMemoryContext;
 import com.facebook.presto.orc.OrcWriteValidation.StatisticsValidation;
 import com.facebook.presto.orc.OrcWriteValidation.WriteChecksum;
 import com.facebook.presto.orc.OrcWriteValidation.WriteChecksumBuilder;
@@ -22,14 +23,17 @@ import com.facebook.presto.orc.metadata.MetadataReader;
 import com.facebook.presto.orc.metadata.OrcType;
 import com.facebook.presto.orc.metadata.OrcType.OrcTypeKind;
 import com.facebook.presto.orc.metadata.PostScript.HiveWriterVersion;
+import com.facebook.presto.orc.metadata.StripeFooter;
 import com.facebook.presto.orc.metadata.StripeInformation;
 import com.facebook.presto.orc.metadata.statistics.ColumnStatistics;
 import com.facebook.presto.orc.metadata.statistics.StripeStatistics;
+import com.facebook.presto.orc.reader.ColumnFilter;
 import com.facebook.presto.orc.reader.StreamReader;
 import com.facebook.presto.orc.reader.StreamReaders;
 import com.facebook.presto.orc.stream.InputStreamSources;
 import com.facebook.presto.spi.Page;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
 import com.facebook.presto.spi.type.Type;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
@@ -38,6 +42,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
@@ -46,24 +52,37 @@ import org.openjdk.jol.info.ClassLayout;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static com.facebook.presto.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static com.facebook.presto.orc.OrcReader.MAX_BATCH_SIZE;
 import static com.facebook.presto.orc.OrcRecordReader.LinearProbeRangeFinder.createTinyStripesRangeFinder;
 import static com.facebook.presto.orc.OrcWriteValidation.WriteChecksumBuilder.createWriteChecksumBuilder;
+import static com.facebook.presto.orc.StripeReader.getStripeFooterRange;
+import static com.facebook.presto.orc.reader.ColumnFilter.createColumnFilter;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.util.concurrent.Futures.getDone;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
+import static java.util.Comparator.comparingDouble;
 import static java.util.Comparator.comparingLong;
 import static java.util.Objects.requireNonNull;
 
@@ -71,6 +90,7 @@ public class OrcRecordReader
         implements Closeable
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(OrcRecordReader.class).instanceSize();
+    private static final ListenableFuture<?> NOT_BLOCKED = immediateFuture(null);
 
     private final OrcDataSource orcDataSource;
 
@@ -78,6 +98,18 @@ public class OrcRecordReader
     private final long[] maxBytesPerCell;
     private long maxCombinedBytesPerRow;
 
+    // filters evaluated by the stream readers, indexed by column
+    private final ColumnFilter[] columnFilters;
+    private final List<Integer> filterColumns;
+    private final long[] filterInputPositions;
+    private final long[] filterOutputPositions;
+    // values of the filter columns that were read for the current batch, with the positions they were read for
+    private final Block[] filterBlocks;
+    private final int[][] filterBlockPositions;
+    // positions of the current batch that passed all filters
+    private int[] selectedPositions = new int[0];
+    private int selectedPositionCount;
+
     private final long totalRowCount;
     private final long splitLength;
     private final Set<Integer> presentColumns;
@@ -108,6 +140,17 @@ public class OrcRecordReader
 
     private final AggregatedMemoryContext systemMemoryUsage;
 
+    // reads the next stripe in the background while the current stripe is decoded
+    private final Optional<PrefetchingOrcDataSource> prefetchingDataSource;
+    // the footer of the next stripe is read first, and the streams are read once the footer is decoded
+    private int nextStripe;
+    private ListenableFuture<Map<DiskRange, Slice>> nextStripeFooter;
+    private ListenableFuture<Map<DiskRange, Slice>> nextStripeStreams;
+    private Map<DiskRange, Slice> nextStripeFooterRegions = ImmutableMap.of();
+    private final LocalMemoryContext prefetchMemoryContext;
+    private long currentStripePrefetchBytes;
+    private long nextStripePrefetchBytes;
+
     private final Optional<OrcWriteValidation> writeValidation;
     private final Optional<WriteChecksumBuilder> writeChecksumBuilder;
     private final Optional<StatisticsValidation> rowGroupStatisticsValidation;
@@ -117,6 +160,7 @@ public class OrcRecordReader
     public OrcRecordReader(
             Map<Integer, Type> includedColumns,
             OrcPredicate predicate,
+            Map<Integer, Domain> columnDomains,
             long numberOfRows,
             List<StripeInformation> fileStripes,
             List<ColumnStatistics> fileStats,
@@ -136,10 +180,12 @@ public class OrcRecordReader
             Map<String, Slice> userMetadata,
             AggregatedMemoryContext systemMemoryUsage,
             Optional<OrcWriteValidation> writeValidation,
-            int initialBatchSize)
+            int initialBatchSize,
+            Optional<Executor> prefetchExecutor)
     {
         requireNonNull(includedColumns, "includedColumns is null");
         requireNonNull(predicate, "predicate is null");
+        requireNonNull(columnDomains, "columnDomains is null");
         requireNonNull(fileStripes, "fileStripes is null");
         requireNonNull(stripeStats, "stripeStats is null");
         requireNonNull(orcDataSource, "orcDataSource is null");
@@ -148,6 +194,7 @@ public class OrcRecordReader
         requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
         requireNonNull(userMetadata, "userMetadata is null");
         requireNonNull(systemMemoryUsage, "systemMemoryUsage is null");
+        requireNonNull(prefetchExecutor, "prefetchExecutor is null");
 
         this.includedColumns = requireNonNull(includedColumns, "includedColumns is null");
         this.writeValidation = requireNonNull(writeValidation, "writeValidation is null");
@@ -209,6 +256,15 @@ public class OrcRecordReader
         this.stripeFilePositions = stripeFilePositions.build();
 
         orcDataSource = wrapWithCacheIfTinyStripes(orcDataSource, this.stripes, maxMergeDistance, tinyStripeThreshold);
+        // tiny stripes are read in a single request already
+        if (prefetchExecutor.isPresent() && orcDataSource instanceof AbstractOrcDataSource && ((AbstractOrcDataSource) orcDataSource).isConcurrentReadSupported()) {
+            PrefetchingOrcDataSource prefetchingDataSource = new PrefetchingOrcDataSource((AbstractOrcDataSource) orcDataSource, prefetchExecutor.get());
+            this.prefetchingDataSource = Optional.of(prefetchingDataSource);
+            orcDataSource = prefetchingDataSource;
+        }
+        else {
+            this.prefetchingDataSource = Optional.empty();
+        }
         this.orcDataSource = orcDataSource;
         this.splitLength = splitLength;
 
@@ -226,6 +282,7 @@ public class OrcRecordReader
         // ListStreamReader and StructStreamReader) instance sizes were not counted, because calling setBytes() in
         // their constructors is confusing.
         this.streamReadersSystemMemoryContext = this.systemMemoryUsage.newAggregatedMemoryContext();
+        this.prefetchMemoryContext = this.systemMemoryUsage.newLocalMemoryContext(OrcRecordReader.class.getSimpleName());
 
         stripeReader = new StripeReader(
                 orcDataSource,
@@ -241,6 +298,28 @@ public class OrcRecordReader
         streamReaders = createStreamReaders(orcDataSource, types, hiveStorageTimeZone, presentColumnsAndTypes.build(), streamReadersSystemMemoryContext);
         maxBytesPerCell = new long[streamReaders.length];
         nextBatchSize = initialBatchSize;
+
+        columnFilters = new ColumnFilter[streamReaders.length];
+        ImmutableList.Builder<Integer> filterColumns = ImmutableList.builder();
+        for (Map.Entry<Integer, Domain> entry : columnDomains.entrySet()) {
+            int columnIndex = entry.getKey();
+            // filters on columns missing from the file are left to the engine
+            if (this.presentColumns.contains(columnIndex)) {
+                Optional<ColumnFilter> filter = createColumnFilter(includedColumns.get(columnIndex), entry.getValue());
+                if (filter.isPresent()) {
+                    columnFilters[columnIndex] = filter.get();
+                    filterColumns.add(columnIndex);
+                }
+            }
+        }
+        this.filterColumns = new ArrayList<>(filterColumns.build());
+        checkArgument(this.filterColumns.isEmpty() || !writeValidation.isPresent(), "column filters can not be used with write validation");
+        filterInputPositions = new long[streamReaders.length];
+        filterOutputPositions = new long[streamReaders.length];
+        filterBlocks = new Block[streamReaders.length];
+        filterBlockPositions = new int[streamReaders.length][];
+
+        startPrefetch(0);
     }
 
     private static boolean splitContainsStripe(long splitOffset, long splitLength, StripeInformation stripe)
@@ -337,6 +416,7 @@ public class OrcRecordReader
     public void close()
             throws IOException
     {
+        cancelPrefetch();
         try (Closer closer = Closer.create()) {
             closer.register(orcDataSource);
             for (StreamReader column : streamReaders) {
@@ -368,8 +448,44 @@ public class OrcRecordReader
         return presentColumns.contains(hiveColumnIndex);
     }
 
+    /**
+     * Advances to the next batch of rows. When column filters are present, rows that do not
+     * match all of the filters are dropped, so the rows of the batch are not necessarily
+     * contiguous in the file, and batches with no matching rows are skipped.
+     *
+     * @return the number of rows in the batch, or -1 if there are no more rows
+     */
     public int nextBatch()
             throws IOException
+    {
+        while (true) {
+            int batchSize = advanceToNextBatch();
+            if (batchSize < 0 || filterColumns.isEmpty()) {
+                return batchSize;
+            }
+            int selectedCount = applyFilters(batchSize);
+            if (selectedCount > 0) {
+                return selectedCount;
+            }
+        }
+    }
+
+    /**
+     * Returns a future that completes when the next stripe has been read, if the rows of the
+     * current stripe are exhausted and the next stripe is read in the background. Otherwise,
+     * {@link #nextBatch()} does not wait for I/O, other than for streams too large to prefetch.
+     */
+    public ListenableFuture<?> isBlocked()
+    {
+        ListenableFuture<?> prefetch = updatePrefetch();
+        if (prefetch.isDone() || nextRowInGroup < currentGroupRowCount || rowGroups.hasNext()) {
+            return NOT_BLOCKED;
+        }
+        return whenDone(prefetch);
+    }
+
+    private int advanceToNextBatch()
+            throws IOException
     {
         // update position for current row group (advancing resets them)
         filePosition += currentBatchSize;
@@ -404,15 +520,96 @@ public class OrcRecordReader
             }
         }
         nextRowInGroup += currentBatchSize;
+        selectedPositionCount = currentBatchSize;
 
         validateWritePageChecksum();
         return currentBatchSize;
     }
 
+    /**
+     * Evaluates the filters on the current batch, starting with the filter that has
+     * removed the most rows so far, so that each of the following filter columns is
+     * only decoded at the positions that are still selected.
+     */
+    private int applyFilters(int batchSize)
+            throws IOException
+    {
+        if (selectedPositions.length < batchSize) {
+            selectedPositions = new int[batchSize];
+        }
+        for (int position = 0; position < batchSize; position++) {
+            selectedPositions[position] = position;
+        }
+        selectedPositionCount = batchSize;
+
+        filterColumns.sort(comparingDouble(this::getFilterSelectivity));
+        for (int columnIndex : filterColumns) {
+            filterBlocks[columnIndex] = null;
+        }
+        for (int columnIndex : filterColumns) {
+            if (selectedPositionCount == 0) {
+                break;
+            }
+            Block block = streamReaders[columnIndex].filter(includedColumns.get(columnIndex), columnFilters[columnIndex], selectedPositions, selectedPositionCount);
+            filterInputPositions[columnIndex] += selectedPositionCount;
+            filterOutputPositions[columnIndex] += block.getPositionCount();
+            selectedPositionCount = block.getPositionCount();
+
+            updateMaxBytesPerCell(columnIndex, block);
+            filterBlocks[columnIndex] = block;
+            filterBlockPositions[columnIndex] = Arrays.copyOf(selectedPositions, selectedPositionCount);
+        }
+        return selectedPositionCount;
+    }
+
+    private double getFilterSelectivity(int columnIndex)
+    {
+        // columns that have not been filtered yet are assumed to select half of the rows
+        return (filterOutputPositions[columnIndex] + 1.0) / (filterInputPositions[columnIndex] + 2.0);
+    }
+
     public Block readBlock(Type type, int columnIndex)
             throws IOException
     {
-        Block block = streamReaders[columnIndex].readBlock(type);
+        if (filterBlocks[columnIndex] != null) {
+            Block block = getFilterBlock(columnIndex);
+            filterBlocks[columnIndex] = null;
+            return block;
+        }
+
+        Block block;
+        if (selectedPositionCount < currentBatchSize) {
+            block = streamReaders[columnIndex].readBlock(type, selectedPositions, selectedPositionCount);
+        }
+        else {
+            block = streamReaders[columnIndex].readBlock(type);
+        }
+        updateMaxBytesPerCell(columnIndex, block);
+        return block;
+    }
+
+    private Block getFilterBlock(int columnIndex)
+    {
+        Block block = filterBlocks[columnIndex];
+        if (block.getPositionCount() == selectedPositionCount) {
+            return block;
+        }
+
+        // the block was read before the filters of the following columns were applied
+        int[] blockPositions = filterBlockPositions[columnIndex];
+        int[] indexes = new int[selectedPositionCount];
+        int index = 0;
+        for (int i = 0; i < selectedPositionCount; i++) {
+            while (blockPositions[index] != selectedPositions[i]) {
+                index++;
+            }
+            indexes[i] = index;
+        }
+        return block.copyPositions(indexes, 0, selectedPositionCount);
+    }
+
+    private void updateMaxBytesPerCell(int columnIndex, Block block)
+    {
         if (block.getPositionCount() > 0) {
             long bytesPerCell = block.getSizeInBytes() / block.getPositionCount();
             if (maxBytesPerCell[columnIndex] < bytesPerCell) {
@@ -421,7 +618,6 @@ public class OrcRecordReader
                 maxBatchSize = toIntExact(min(maxBatchSize, max(1, maxBlockBytes / maxCombinedBytesPerRow)));
             }
         }
-        return block;
     }
 
     public StreamReader getStreamReader(int index)
@@ -458,6 +654,9 @@ public class OrcRecordReader
             return false;
         }
 
+        // move the read of the next stripe along, if isBlocked is not polled
+        updatePrefetch();
+
         currentRowGroup++;
         RowGroup currentRowGroup = rowGroups.next();
         currentGroupRowCount = currentRowGroup.getRowCount();
@@ -507,6 +706,11 @@ public class OrcRecordReader
         StripeInformation stripeInformation = stripes.get(currentStripe);
         validateWriteStripe(stripeInformation.getNumberOfRows());
 
+        if (prefetchingDataSource.isPresent()) {
+            usePrefetchedStripe();
+            startPrefetch(currentStripe + 1);
+        }
+
         Stripe stripe = stripeReader.readStripe(stripeInformation, currentStripeSystemMemoryContext);
         if (stripe != null) {
             // Give readers access to dictionary streams
@@ -522,6 +726,146 @@ public class OrcRecordReader
         }
     }
 
+    /**
+     * Starts reading the footer of the stripe in the background.
+     */
+    private void startPrefetch(int stripeIndex)
+    {
+        nextStripe = stripeIndex;
+        nextStripeFooter = null;
+        nextStripeStreams = null;
+        nextStripeFooterRegions = ImmutableMap.of();
+        nextStripePrefetchBytes = 0;
+        if (!prefetchingDataSource.isPresent() || stripeIndex >= stripes.size() || stripes.get(stripeIndex).getFooterLength() == 0) {
+            return;
+        }
+        nextStripeFooter = prefetchingDataSource.get().prefetch(ImmutableList.of(getStripeFooterRange(stripes.get(stripeIndex))));
+    }
+
+    /**
+     * Starts reading the streams of the next stripe once its footer has been read, and returns
+     * a future for the read in progress. The footer is decoded on the reader thread, because the
+     * decompressor is not thread safe. If a read fails, the stripe is read on demand instead,
+     * which reports the error.
+     */
+    private ListenableFuture<?> updatePrefetch()
+    {
+        if (nextStripeStreams != null) {
+            return nextStripeStreams;
+        }
+        if (nextStripeFooter == null) {
+            return NOT_BLOCKED;
+        }
+        if (!nextStripeFooter.isDone()) {
+            return nextStripeFooter;
+        }
+
+        Optional<Map<DiskRange, Slice>> footerRegions = getPrefetchedRegions(nextStripeFooter);
+        nextStripeFooter = null;
+        if (!footerRegions.isPresent()) {
+            return NOT_BLOCKED;
+        }
+
+        StripeInformation stripe = stripes.get(nextStripe);
+        List<DiskRange> streamRegions;
+        try {
+            Slice footer = getOnlyElement(footerRegions.get().values());
+            StripeFooter stripeFooter = stripeReader.readStripeFooter(footer, newSimpleAggregatedMemoryContext());
+            streamRegions = prefetchingDataSource.get().getPrefetchRanges(stripeReader.getIncludedStreamDiskRanges(stripe, stripeFooter));
+        }
+        catch (IOException | RuntimeException e) {
+            return NOT_BLOCKED;
+        }
+
+        nextStripeFooterRegions = footerRegions.get();
+        nextStripePrefetchBytes = stripe.getFooterLength();
+        for (DiskRange region : streamRegions) {
+            nextStripePrefetchBytes += region.getLength();
+        }
+        prefetchMemoryContext.setBytes(currentStripePrefetchBytes + nextStripePrefetchBytes);
+
+        nextStripeStreams = prefetchingDataSource.get().prefetch(streamRegions);
+        return nextStripeStreams;
+    }
+
+    /**
+     * Waits for the read of the current stripe, which was started while the previous stripe was decoded, and serves the reads of the stripe from the prefetched regions.
+     */
+    private void usePrefetchedStripe()
+            throws IOException
+    {
+        long start = System.nanoTime();
+        try {
+            ListenableFuture<?> prefetch = updatePrefetch();
+            while (!prefetch.isDone()) {
+                try {
+                    prefetch.get();
+                }
+                catch (ExecutionException ignored) {
+                    // the stripe is read on demand
+                }
+                prefetch = updatePrefetch();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        finally {
+            prefetchingDataSource.get().addReadTimeNanos(System.nanoTime() - start);
+        }
+
+        ImmutableMap.Builder<DiskRange, Slice> regions = ImmutableMap.builder();
+        currentStripePrefetchBytes = 0;
+        if (nextStripeStreams != null) {
+            Optional<Map<DiskRange, Slice>> streamRegions = getPrefetchedRegions(nextStripeStreams);
+            if (streamRegions.isPresent()) {
+                regions.putAll(nextStripeFooterRegions);
+                regions.putAll(streamRegions.get());
+                currentStripePrefetchBytes = nextStripePrefetchBytes;
+            }
+        }
+        prefetchingDataSource.get().setBuffers(regions.build());
+        prefetchMemoryContext.setBytes(currentStripePrefetchBytes);
+    }
+
+    private void cancelPrefetch()
+    {
+        if (nextStripeFooter != null) {
+            nextStripeFooter.cancel(false);
+        }
+        if (nextStripeStreams != null) {
+            nextStripeStreams.cancel(false);
+        }
+        startPrefetch(stripes.size());
+        currentStripePrefetchBytes = 0;
+        prefetchMemoryContext.setBytes(0);
+    }
+
+    /**
+     * Returns a future that completes, but does not fail, when the read completes. A failed read
+     * is repeated on demand, which reports the error.
+     */
+    private static ListenableFuture<?> whenDone(ListenableFuture<?> future)
+    {
+        SettableFuture<?> done = SettableFuture.create();
+        future.addListener(() -> done.set(null), directExecutor());
+        return done;
+    }
+
+    private static Optional<Map<DiskRange, Slice>> getPrefetchedRegions(ListenableFuture<Map<DiskRange, Slice>> future)
+    {
+        try {
+            return Optional.of(getDone(future));
+        }
+        catch (ExecutionException | CancellationException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            return Optional.empty();
+        }
+    }
+
     private void validateWrite(Predicate<OrcWriteValidation> test, String messageFormat, Object... args)
             throws OrcCorruptionException
     {
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves reads from regions of the file that were read ahead on a background executor,
+ * so that reading the next stripe overlaps with decoding the current one. Reads of regions
+ * that were not prefetched are passed through to the underlying data source.
+ */
+class PrefetchingOrcDataSource
+        implements OrcDataSource
+{
+    private final AbstractOrcDataSource dataSource;
+    private final Executor executor;
+
+    // prefetched regions that reads are served from; only accessed by the reader thread
+    private Map<DiskRange, Slice> buffers = ImmutableMap.of();
+
+    public PrefetchingOrcDataSource(AbstractOrcDataSource dataSource, Executor executor)
+    {
+        this.dataSource = requireNonNull(dataSource, "dataSource is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    /**
+     * Returns the regions to prefetch for reading the given ranges.
+     */
+    public List<DiskRange> getPrefetchRanges(Collection<DiskRange> diskRanges)
+    {
+        return dataSource.getMergedSmallDiskRanges(diskRanges);
+    }
+
+    /**
+     * Reads the regions on the background executor. The future fails if any of the
+     * reads fails, in which case the regions should be read on demand.
+     */
+    public ListenableFuture<Map<DiskRange, Slice>> prefetch(List<DiskRange> diskRanges)
+    {
+        ListenableFutureTask<Map<DiskRange, Slice>> task = ListenableFutureTask.create(() -> {
+            ImmutableMap.Builder<DiskRange, Slice> regions = ImmutableMap.builder();
+            for (DiskRange diskRange : diskRanges) {
+                byte[] buffer = new byte[diskRange.getLength()];
+                dataSource.readFullyInBackground(diskRange.getOffset(), buffer);
+                regions.put(diskRange, Slices.wrappedBuffer(buffer));
+            }
+            return regions.build();
+        });
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            return immediateFailedFuture(e);
+        }
+        return task;
+    }
+
+    /**
+     * Replaces the regions that reads are served from.
+     */
+    public void setBuffers(Map<DiskRange, Slice> buffers)
+    {
+        this.buffers = ImmutableMap.copyOf(requireNonNull(buffers, "buffers is null"));
+    }
+
+    /**
+     * Records the time the reader thread was blocked waiting for prefetched regions.
+     */
+    public void addReadTimeNanos(long nanos)
+    {
+        dataSource.addReadTimeNanos(nanos);
+    }
+
+    @Override
+    public OrcDataSourceId getId()
+    {
+        return dataSource.getId();
+    }
+
+    @Override
+    public long getReadBytes()
+    {
+        return dataSource.getReadBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return dataSource.getReadTimeNanos();
+    }
+
+    @Override
+    public long getSize()
+    {
+        return dataSource.getSize();
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer)
+            throws IOException
+    {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int bufferOffset, int length)
+            throws IOException
+    {
+        Slice slice = length == 0 ? null : getPrefetchedSlice(new DiskRange(position, length));
+        if (slice == null) {
+            dataSource.readFully(position, buffer, bufferOffset, length);
+            return;
+        }
+        slice.getBytes(0, buffer, bufferOffset, length);
+    }
+
+    @Override
+    public <K> Map<K, OrcDataSourceInput> readFully(Map<K, DiskRange> diskRanges)
+            throws IOException
+    {
+        ImmutableMap.Builder<K, OrcDataSourceInput> inputs = ImmutableMap.builder();
+        ImmutableMap.Builder<K, DiskRange> remainingRanges = ImmutableMap.builder();
+        for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
+            Slice slice = getPrefetchedSlice(entry.getValue());
+            if (slice == null) {
+                remainingRanges.put(entry);
+            }
+            else {
+                // the memory of the prefetched regions is accounted by the record reader
+                inputs.put(entry.getKey(), new OrcDataSourceInput(slice.getInput(), 0));
+            }
+        }
+        inputs.putAll(dataSource.readFully(remainingRanges.build()));
+        return inputs.build();
+    }
+
+    private Slice getPrefetchedSlice(DiskRange diskRange)
+    {
+        for (Entry<DiskRange, Slice> entry : buffers.entrySet()) {
+            DiskRange bufferRange = entry.getKey();
+            if (bufferRange.contains(diskRange)) {
+                return entry.getValue().slice(toIntExact(diskRange.getOffset() - bufferRange.getOffset()), diskRange.getLength());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        buffers = ImmutableMap.of();
+        dataSource.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return dataSource.toString();
+    }
+}
@@ -40,6 +40,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
 import java.io.IOException;
@@ -357,17 +358,47 @@ public class StripeReader
     public StripeFooter readStripeFooter(StripeInformation stripe, AggregatedMemoryContext systemMemoryUsage)
             throws IOException
     {
-        long offset = stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength();
-        int tailLength = toIntExact(stripe.getFooterLength());
+        DiskRange footerRange = getStripeFooterRange(stripe);
+        int tailLength = footerRange.getLength();
 
         // read the footer
         byte[] tailBuffer = new byte[tailLength];
-        orcDataSource.readFully(offset, tailBuffer);
-        try (InputStream inputStream = new OrcInputStream(orcDataSource.getId(), Slices.wrappedBuffer(tailBuffer).getInput(), decompressor, systemMemoryUsage, tailLength)) {
+        orcDataSource.readFully(footerRange.getOffset(), tailBuffer);
+        return readStripeFooter(Slices.wrappedBuffer(tailBuffer), systemMemoryUsage);
+    }
+
+    /**
+     * Decodes a stripe footer that was already read from the region returned by {@link #getStripeFooterRange}.
+     */
+    public StripeFooter readStripeFooter(Slice footer, AggregatedMemoryContext systemMemoryUsage)
+            throws IOException
+    {
+        try (InputStream inputStream = new OrcInputStream(orcDataSource.getId(), footer.getInput(), decompressor, systemMemoryUsage, footer.length())) {
             return metadataReader.readStripeFooter(types, inputStream);
         }
     }
 
+    public static DiskRange getStripeFooterRange(StripeInformation stripe)
+    {
+        return new DiskRange(stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength(), toIntExact(stripe.getFooterLength()));
+    }
+
+    /**
+     * Returns the file regions of the streams of the included columns, which are read by
+     * {@link #readStripe} for a stripe with the given footer.
+     */
+    public List<DiskRange> getIncludedStreamDiskRanges(StripeInformation stripe, StripeFooter stripeFooter)
+    {
+        ImmutableList.Builder<DiskRange> diskRanges = ImmutableList.builder();
+        for (Entry<StreamId, DiskRange> entry : getDiskRanges(stripeFooter.getStreams()).entrySet()) {
+            if (includedOrcColumns.contains(entry.getKey().getColumn())) {
+                DiskRange diskRange = entry.getValue();
+                diskRanges.add(new DiskRange(stripe.getOffset() + diskRange.getOffset(), diskRange.getLength()));
+            }
+        }
+        return diskRanges.build();
+    }
+
     static boolean isIndexStream(Stream stream)
     {
         return stream.getStreamKind() == ROW_INDEX || stream.getStreamKind() == DICTIONARY_COUNT || stream.getStreamKind() == BLOOM_FILTER || stream.getStreamKind() == BLOOM_FILTER_UTF8;
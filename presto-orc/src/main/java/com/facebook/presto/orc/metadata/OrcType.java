@@ -20,6 +20,7 @@ import com.facebook.presto.spi.type.Type;
 import com.facebook.presto.spi.type.TypeSignatureParameter;
 import com.facebook.presto.spi.type.VarcharType;
 import com.google.common.collect.ImmutableList;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +42,8 @@ import static com.facebook.presto.spi.type.TinyintType.TINYINT;
 import static com.facebook.presto.spi.type.VarbinaryType.VARBINARY;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOfCharArray;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -74,6 +77,9 @@ public class OrcType
         UNION,
     }
 
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(OrcType.class).instanceSize();
+    private static final int STRING_INSTANCE_SIZE = ClassLayout.parseClass(String.class).instanceSize();
+
     private final OrcTypeKind orcTypeKind;
     private final List<Integer> fieldTypeIndexes;
     private final List<String> fieldNames;
@@ -162,6 +168,18 @@ public class OrcType
         return scale;
     }
 
+    public long getRetainedSizeInBytes()
+    {
+        long retainedSizeInBytes = INSTANCE_SIZE + sizeOfObjectArray(fieldTypeIndexes.size());
+        if (fieldNames != null) {
+            retainedSizeInBytes += sizeOfObjectArray(fieldNames.size());
+            for (String fieldName : fieldNames) {
+                retainedSizeInBytes += STRING_INSTANCE_SIZE + sizeOfCharArray(fieldName.length());
+            }
+        }
+        return retainedSizeInBytes;
+    }
+
     @Override
     public String toString()
     {
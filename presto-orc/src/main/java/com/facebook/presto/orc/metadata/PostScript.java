@@ -16,16 +16,20 @@ package com.facebook.presto.orc.metadata;
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static java.util.Objects.requireNonNull;
 
 public class PostScript
 {
     public static final Slice MAGIC = Slices.utf8Slice("ORC");
 
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(PostScript.class).instanceSize();
+
     public enum HiveWriterVersion
     {
         ORIGINAL(0), ORC_HIVE_8732(1);
@@ -90,6 +94,11 @@ public class PostScript
         return hiveWriterVersion;
     }
 
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOfObjectArray(version.size());
+    }
+
     @Override
     public String toString()
     {
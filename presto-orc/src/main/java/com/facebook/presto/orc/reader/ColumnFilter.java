@@ -0,0 +1,267 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.reader;
+
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Marker;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.SortedRangeSet;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.facebook.presto.spi.type.VarbinaryType;
+import com.facebook.presto.spi.type.VarcharType;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Per-column predicate that is evaluated by the stream readers while decoding. Filters
+ * are derived from the {@link Domain} of a column and support ranges, IN lists (which are
+ * single value ranges) and null checks on integral and variable width types.
+ */
+public abstract class ColumnFilter
+{
+    private final boolean nullAllowed;
+
+    private ColumnFilter(boolean nullAllowed)
+    {
+        this.nullAllowed = nullAllowed;
+    }
+
+    /**
+     * @return the filter for the domain, or empty if the domain does not restrict the
+     * values or cannot be evaluated by the stream readers
+     */
+    public static Optional<ColumnFilter> createColumnFilter(Type type, Domain domain)
+    {
+        requireNonNull(type, "type is null");
+        requireNonNull(domain, "domain is null");
+
+        if (domain.isAll()) {
+            return Optional.empty();
+        }
+        ValueSet values = domain.getValues();
+        if (!(values instanceof SortedRangeSet)) {
+            return Optional.empty();
+        }
+        List<Range> ranges = values.getRanges().getOrderedRanges();
+
+        if (type.getJavaType() == long.class && !type.equals(REAL)) {
+            return Optional.of(new LongRangeFilter(ranges, domain.isNullAllowed()));
+        }
+        if (type instanceof VarcharType || type instanceof VarbinaryType) {
+            return Optional.of(new SliceRangeFilter(ranges, domain.isNullAllowed()));
+        }
+        return Optional.empty();
+    }
+
+    public boolean isNullAllowed()
+    {
+        return nullAllowed;
+    }
+
+    public boolean testLong(long value)
+    {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support long values");
+    }
+
+    public boolean testSlice(Slice value)
+    {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support slice values");
+    }
+
+    public abstract boolean test(Type type, Block block, int position);
+
+    private static class LongRangeFilter
+            extends ColumnFilter
+    {
+        // inclusive bounds of the disjoint ranges, ordered by the lower bound
+        private final long[] lows;
+        private final long[] highs;
+
+        public LongRangeFilter(List<Range> ranges, boolean nullAllowed)
+        {
+            super(nullAllowed);
+
+            List<long[]> bounds = new ArrayList<>(ranges.size());
+            for (Range range : ranges) {
+                Marker low = range.getLow();
+                Marker high = range.getHigh();
+                long lowValue = Long.MIN_VALUE;
+                if (!low.isLowerUnbounded()) {
+                    lowValue = (long) low.getValue();
+                    if (low.getBound() == Marker.Bound.ABOVE) {
+                        if (lowValue == Long.MAX_VALUE) {
+                            continue;
+                        }
+                        lowValue++;
+                    }
+                }
+                long highValue = Long.MAX_VALUE;
+                if (!high.isUpperUnbounded()) {
+                    highValue = (long) high.getValue();
+                    if (high.getBound() == Marker.Bound.BELOW) {
+                        if (highValue == Long.MIN_VALUE) {
+                            continue;
+                        }
+                        highValue--;
+                    }
+                }
+                if (lowValue <= highValue) {
+                    bounds.add(new long[] {lowValue, highValue});
+                }
+            }
+
+            lows = new long[bounds.size()];
+            highs = new long[bounds.size()];
+            for (int i = 0; i < bounds.size(); i++) {
+                lows[i] = bounds.get(i)[0];
+                highs[i] = bounds.get(i)[1];
+            }
+        }
+
+        @Override
+        public boolean testLong(long value)
+        {
+            // find the last range starting at or before the value
+            int low = 0;
+            int high = lows.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (lows[middle] <= value) {
+                    candidate = middle;
+                    low = middle + 1;
+                }
+                else {
+                    high = middle - 1;
+                }
+            }
+            return candidate >= 0 && value <= highs[candidate];
+        }
+
+        @Override
+        public boolean test(Type type, Block block, int position)
+        {
+            if (block.isNull(position)) {
+                return isNullAllowed();
+            }
+            return testLong(type.getLong(block, position));
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("ranges", lows.length)
+                    .add("nullAllowed", isNullAllowed())
+                    .toString();
+        }
+    }
+
+    private static class SliceRangeFilter
+            extends ColumnFilter
+    {
+        // null bounds are unbounded
+        private final Slice[] lows;
+        private final boolean[] lowsInclusive;
+        private final Slice[] highs;
+        private final boolean[] highsInclusive;
+
+        public SliceRangeFilter(List<Range> ranges, boolean nullAllowed)
+        {
+            super(nullAllowed);
+
+            lows = new Slice[ranges.size()];
+            lowsInclusive = new boolean[ranges.size()];
+            highs = new Slice[ranges.size()];
+            highsInclusive = new boolean[ranges.size()];
+            for (int i = 0; i < ranges.size(); i++) {
+                Marker low = ranges.get(i).getLow();
+                if (!low.isLowerUnbounded()) {
+                    lows[i] = (Slice) low.getValue();
+                    lowsInclusive[i] = low.getBound() == Marker.Bound.EXACTLY;
+                }
+                Marker high = ranges.get(i).getHigh();
+                if (!high.isUpperUnbounded()) {
+                    highs[i] = (Slice) high.getValue();
+                    highsInclusive[i] = high.getBound() == Marker.Bound.EXACTLY;
+                }
+            }
+        }
+
+        @Override
+        public boolean testSlice(Slice value)
+        {
+            // find the last range starting at or before the value
+            int low = 0;
+            int high = lows.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (isAboveLow(value, middle)) {
+                    candidate = middle;
+                    low = middle + 1;
+                }
+                else {
+                    high = middle - 1;
+                }
+            }
+            return candidate >= 0 && isBelowHigh(value, candidate);
+        }
+
+        private boolean isAboveLow(Slice value, int range)
+        {
+            if (lows[range] == null) {
+                return true;
+            }
+            int comparison = value.compareTo(lows[range]);
+            return comparison > 0 || (comparison == 0 && lowsInclusive[range]);
+        }
+
+        private boolean isBelowHigh(Slice value, int range)
+        {
+            if (highs[range] == null) {
+                return true;
+            }
+            int comparison = value.compareTo(highs[range]);
+            return comparison < 0 || (comparison == 0 && highsInclusive[range]);
+        }
+
+        @Override
+        public boolean test(Type type, Block block, int position)
+        {
+            if (block.isNull(position)) {
+                return isNullAllowed();
+            }
+            return testSlice(type.getSlice(block, position));
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("ranges", lows.length)
+                    .add("nullAllowed", isNullAllowed())
+                    .toString();
+        }
+    }
+}
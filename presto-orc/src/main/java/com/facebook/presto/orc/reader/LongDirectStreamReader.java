@@ -87,19 +87,7 @@ public class LongDirectStreamReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        skipValues(readOffset);
 
         BlockBuilder builder = type.createBlockBuilder(null, nextBatchSize);
         if (presentStream == null) {
@@ -135,6 +123,84 @@ public class LongDirectStreamReader
         return builder.build();
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readSelectedPositions(type, null, positions, positionCount);
+    }
+
+    @Override
+    public Block filter(Type type, ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readSelectedPositions(type, filter, positions, positionCount);
+    }
+
+    private Block readSelectedPositions(Type type, @Nullable ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skipValues(readOffset);
+
+        // values are tested as they are decoded, and only the matching values are appended
+        BlockBuilder builder = type.createBlockBuilder(null, positionCount);
+        int matchingCount = 0;
+        int nextRow = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            skipValues(position - nextRow);
+            nextRow = position + 1;
+
+            if (presentStream != null && !presentStream.nextBit()) {
+                if (filter == null || filter.isNullAllowed()) {
+                    builder.appendNull();
+                    positions[matchingCount] = position;
+                    matchingCount++;
+                }
+                continue;
+            }
+
+            if (dataStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+            }
+            long value = dataStream.next();
+            if (filter == null || filter.testLong(value)) {
+                type.writeLong(builder, value);
+                positions[matchingCount] = position;
+                matchingCount++;
+            }
+        }
+        skipValues(nextBatchSize - nextRow);
+
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        return builder.build();
+    }
+
+    private void skipValues(int rows)
+            throws IOException
+    {
+        if (rows <= 0) {
+            return;
+        }
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            rows = presentStream.countBitsSet(rows);
+        }
+        if (rows > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+            }
+            dataStream.skip(rows);
+        }
+    }
+
     private void assureVectorSize()
     {
         int requiredVectorLength = min(nextBatchSize, MAX_BATCH_SIZE);
@@ -64,6 +64,20 @@ public class LongStreamReader
         return currentReader.readBlock(type);
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return currentReader.readBlock(type, positions, positionCount);
+    }
+
+    @Override
+    public Block filter(Type type, ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        return currentReader.filter(type, filter, positions, positionCount);
+    }
+
     @Override
     public void startStripe(InputStreamSources dictionaryStreamSources, List<ColumnEncoding> encoding)
             throws IOException
@@ -23,6 +23,7 @@ import com.facebook.presto.orc.stream.InputStreamSources;
 import com.facebook.presto.orc.stream.LongInputStream;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
 import com.facebook.presto.spi.block.VariableWidthBlock;
 import com.facebook.presto.spi.type.Type;
 import io.airlift.slice.Slice;
@@ -100,25 +101,7 @@ public class SliceDirectStreamReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the length reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (lengthStream == null) {
-                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but length stream is not present");
-                }
-                long dataSkipSize = lengthStream.sum(readOffset);
-                if (dataSkipSize > 0) {
-                    if (dataStream == null) {
-                        throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
-                    }
-                    dataStream.skip(dataSkipSize);
-                }
-            }
-        }
+        skipValues(readOffset);
 
         // create new isNullVector and offsetVector for VariableWidthBlock
         boolean[] isNullVector = null;
@@ -207,6 +190,103 @@ public class SliceDirectStreamReader
         return new VariableWidthBlock(currentBatchSize, slice, offsetVector, Optional.ofNullable(isNullVector));
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readSelectedPositions(type, null, positions, positionCount);
+    }
+
+    @Override
+    public Block filter(Type type, ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        return readSelectedPositions(type, filter, positions, positionCount);
+    }
+
+    private Block readSelectedPositions(Type type, @Nullable ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skipValues(readOffset);
+
+        // the data of the rows that are not selected is skipped without being copied
+        BlockBuilder builder = type.createBlockBuilder(null, positionCount);
+        byte[] buffer = new byte[0];
+        int matchingCount = 0;
+        int nextRow = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            skipValues(position - nextRow);
+            nextRow = position + 1;
+
+            if (presentStream != null && !presentStream.nextBit()) {
+                if (filter == null || filter.isNullAllowed()) {
+                    builder.appendNull();
+                    positions[matchingCount] = position;
+                    matchingCount++;
+                }
+                continue;
+            }
+
+            if (lengthStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but length stream is not present");
+            }
+            int length = toIntExact(lengthStream.next());
+            if (length > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+                }
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                dataStream.next(buffer, 0, length);
+            }
+
+            Slice value = Slices.wrappedBuffer(buffer, 0, length);
+            value = value.slice(0, computeTruncatedLength(value, 0, length, type));
+            if (filter == null || filter.testSlice(value)) {
+                type.writeSlice(builder, value);
+                positions[matchingCount] = position;
+                matchingCount++;
+            }
+        }
+        skipValues(nextBatchSize - nextRow);
+
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        return builder.build();
+    }
+
+    private void skipValues(int rows)
+            throws IOException
+    {
+        if (rows <= 0) {
+            return;
+        }
+        if (presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the length reader
+            rows = presentStream.countBitsSet(rows);
+        }
+        if (rows > 0) {
+            if (lengthStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but length stream is not present");
+            }
+            long dataSkipSize = lengthStream.sum(rows);
+            if (dataSkipSize > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is not present");
+                }
+                dataStream.skip(dataSkipSize);
+            }
+        }
+    }
+
     private void openRowGroup()
             throws IOException
     {
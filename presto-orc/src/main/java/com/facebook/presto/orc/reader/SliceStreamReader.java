@@ -66,6 +66,20 @@ public class SliceStreamReader
         return currentReader.readBlock(type);
     }
 
+    @Override
+    public Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        return currentReader.readBlock(type, positions, positionCount);
+    }
+
+    @Override
+    public Block filter(Type type, ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        return currentReader.filter(type, filter, positions, positionCount);
+    }
+
     @Override
     public void prepareNextRead(int batchSize)
     {
@@ -26,6 +26,46 @@ public interface StreamReader
     Block readBlock(Type type)
             throws IOException;
 
+    /**
+     * Reads only the values at the given positions of the next batch. The positions
+     * are relative to the start of the batch and are in increasing order.
+     */
+    default Block readBlock(Type type, int[] positions, int positionCount)
+            throws IOException
+    {
+        Block block = readBlock(type);
+        if (positionCount == block.getPositionCount()) {
+            return block;
+        }
+        return block.copyPositions(positions, 0, positionCount);
+    }
+
+    /**
+     * Reads the values at the given positions of the next batch, and retains the positions
+     * that match the filter. The matching positions are moved to the start of the positions
+     * array, in order, and the returned block contains the values for those positions.
+     */
+    default Block filter(Type type, ColumnFilter filter, int[] positions, int positionCount)
+            throws IOException
+    {
+        Block block = readBlock(type, positions, positionCount);
+
+        int[] matchingIndexes = new int[positionCount];
+        int matchingCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            if (filter.test(type, block, i)) {
+                matchingIndexes[matchingCount] = i;
+                positions[matchingCount] = positions[i];
+                matchingCount++;
+            }
+        }
+
+        if (matchingCount == positionCount) {
+            return block;
+        }
+        return block.copyPositions(matchingIndexes, 0, matchingCount);
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(InputStreamSources dictionaryStreamSources, List<ColumnEncoding> encoding)
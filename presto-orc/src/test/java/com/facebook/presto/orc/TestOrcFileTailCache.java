@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.metadata.OrcMetadataReader;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.stream.LongStream;
+
+import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
+import static com.facebook.presto.orc.OrcTester.writeOrcColumnHive;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestOrcFileTailCache
+{
+    private static final DataSize SIZE = new DataSize(1, MEGABYTE);
+
+    @Test
+    public void testCachedTail()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcColumnHive(tempFile.getFile(), ORC_12, ZLIB, BIGINT, LongStream.range(0, 10_000).boxed().iterator());
+            OrcFileTailCache cache = new OrcFileTailCache(SIZE);
+
+            TestingOrcDataSource dataSource = createDataSource(tempFile);
+            OrcReader reader = createReader(dataSource, cache.getFileTailSource(1));
+            assertEquals(dataSource.getReadCount(), 1);
+            assertEquals(cache.getMissCount(), 1);
+
+            dataSource = createDataSource(tempFile);
+            OrcReader cachedReader = createReader(dataSource, cache.getFileTailSource(1));
+            assertEquals(dataSource.getReadCount(), 0);
+            assertEquals(cache.getHitCount(), 1);
+            assertEquals(cachedReader.getFooter().getNumberOfRows(), 10_000);
+            assertEquals(cachedReader.getColumnNames(), reader.getColumnNames());
+            assertEquals(cachedReader.getCompressionKind(), ZLIB);
+
+            // a modified file is read again
+            dataSource = createDataSource(tempFile);
+            createReader(dataSource, cache.getFileTailSource(2));
+            assertEquals(dataSource.getReadCount(), 1);
+            assertEquals(cache.getMissCount(), 2);
+            assertEquals(cache.getSize(), 2);
+        }
+    }
+
+    @Test
+    public void testDisabled()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcColumnHive(tempFile.getFile(), ORC_12, ZLIB, BIGINT, LongStream.range(0, 100).boxed().iterator());
+            OrcFileTailCache cache = new OrcFileTailCache(new DataSize(0, BYTE));
+
+            for (int i = 0; i < 2; i++) {
+                TestingOrcDataSource dataSource = createDataSource(tempFile);
+                createReader(dataSource, cache.getFileTailSource(1));
+                assertEquals(dataSource.getReadCount(), 1);
+            }
+            assertEquals(cache.getRequestCount(), 0);
+        }
+    }
+
+    @Test
+    public void testRetainedSize()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcColumnHive(tempFile.getFile(), ORC_12, ZLIB, BIGINT, LongStream.range(0, 10_000).boxed().iterator());
+            OrcFileTail fileTail = OrcFileTail.readFrom(createDataSource(tempFile), new OrcMetadataReader());
+            // the cache is bounded by the size of the decoded tail, which is larger than the encoded one
+            assertTrue(fileTail.getRetainedSizeInBytes() > fileTail.getTailSize());
+        }
+    }
+
+    private static TestingOrcDataSource createDataSource(TempFile tempFile)
+            throws IOException
+    {
+        return new TestingOrcDataSource(new FileOrcDataSource(tempFile.getFile(), SIZE, SIZE, SIZE, true));
+    }
+
+    private static OrcReader createReader(OrcDataSource dataSource, OrcFileTailSource fileTailSource)
+            throws IOException
+    {
+        // no tiny stripe threshold, so the reader does not read the whole file up front
+        return new OrcReader(dataSource, ORC, SIZE, SIZE, new DataSize(0, BYTE), SIZE, fileTailSource);
+    }
+}
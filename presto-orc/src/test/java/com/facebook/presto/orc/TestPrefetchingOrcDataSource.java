@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.orc.OrcTester.Format;
+import com.facebook.presto.orc.metadata.CompressionKind;
+import com.facebook.presto.spi.block.Block;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.FileSinkOperator;
+import org.apache.hadoop.hive.ql.io.orc.OrcOutputFormat;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapred.JobConf;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcReader.INITIAL_BATCH_SIZE;
+import static com.facebook.presto.orc.OrcTester.Format.ORC_12;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.writeOrcFileColumnHive;
+import static com.facebook.presto.orc.metadata.CompressionKind.NONE;
+import static com.facebook.presto.orc.metadata.CompressionKind.ZLIB;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.apache.hadoop.hive.serde2.objectinspector.primitive.PrimitiveObjectInspectorFactory.javaStringObjectInspector;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestPrefetchingOrcDataSource
+{
+    private static final int POSITION_COUNT = 50000;
+    private static final DataSize MAX_MERGE_DISTANCE = new DataSize(1, MEGABYTE);
+    private static final DataSize MAX_READ_SIZE = new DataSize(1, MEGABYTE);
+
+    private List<String> values;
+    private byte[] data;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        Random random = new Random();
+        ImmutableList.Builder<String> values = ImmutableList.builder();
+        for (int i = 0; i < POSITION_COUNT; i++) {
+            values.add(Long.toHexString(random.nextLong()));
+        }
+        this.values = values.build();
+
+        try (TempFile tempFile = new TempFile()) {
+            writeOrcFileColumnHive(
+                    tempFile.getFile(),
+                    ORC_12,
+                    createOrcRecordWriter(tempFile.getFile(), ORC_12, ZLIB, javaStringObjectInspector),
+                    VARCHAR,
+                    this.values.iterator());
+            data = Files.readAllBytes(tempFile.getFile().toPath());
+        }
+
+        executor = newSingleThreadExecutor();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPrefetch()
+            throws IOException
+    {
+        InMemoryOrcDataSource dataSource = new InMemoryOrcDataSource(data, true);
+        assertEquals(readValues(dataSource, executor), values);
+        assertTrue(dataSource.getReadThreads().size() > 1, "no reads were issued in the background");
+    }
+
+    @Test
+    public void testConcurrentReadNotSupported()
+            throws IOException
+    {
+        InMemoryOrcDataSource dataSource = new InMemoryOrcDataSource(data, false);
+        assertEquals(readValues(dataSource, executor), values);
+        assertEquals(dataSource.getReadThreads(), ImmutableSet.of(Thread.currentThread()));
+    }
+
+    @Test
+    public void testIsBlocked()
+            throws IOException
+    {
+        List<Runnable> tasks = new ArrayList<>();
+        try (OrcRecordReader recordReader = createRecordReader(new InMemoryOrcDataSource(data, true), tasks::add)) {
+            // the footer of the first stripe
+            ListenableFuture<?> blocked = recordReader.isBlocked();
+            assertFalse(blocked.isDone());
+            runAll(tasks);
+            assertTrue(blocked.isDone());
+
+            // the streams of the first stripe, which are requested once the footer is decoded
+            blocked = recordReader.isBlocked();
+            assertFalse(blocked.isDone());
+            runAll(tasks);
+            assertTrue(blocked.isDone());
+            assertTrue(recordReader.isBlocked().isDone());
+
+            assertTrue(recordReader.nextBatch() > 0);
+            // the rows of the first stripe do not depend on the read of the second stripe
+            assertTrue(recordReader.isBlocked().isDone());
+            assertEquals(tasks.size(), 1);
+        }
+    }
+
+    private static void runAll(List<Runnable> tasks)
+    {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static List<String> readValues(OrcDataSource dataSource, Executor executor)
+            throws IOException
+    {
+        ImmutableList.Builder<String> values = ImmutableList.builder();
+        try (OrcRecordReader recordReader = createRecordReader(dataSource, executor)) {
+            while (true) {
+                int batchSize = recordReader.nextBatch();
+                if (batchSize <= 0) {
+                    break;
+                }
+                Block block = recordReader.readBlock(VARCHAR, 0);
+                for (int position = 0; position < block.getPositionCount(); position++) {
+                    values.add(VARCHAR.getSlice(block, position).toStringUtf8());
+                }
+            }
+        }
+        return values.build();
+    }
+
+    private static OrcRecordReader createRecordReader(OrcDataSource dataSource, Executor executor)
+            throws IOException
+    {
+        // stripes are never tiny, so that the reads are not cached
+        OrcReader orcReader = new OrcReader(dataSource, ORC, MAX_MERGE_DISTANCE, MAX_READ_SIZE, new DataSize(1, BYTE), new DataSize(1, MEGABYTE));
+        assertTrue(orcReader.getFooter().getStripes().size() > 1);
+        return orcReader.createRecordReader(
+                ImmutableMap.of(0, VARCHAR),
+                (numberOfRows, statisticsByColumnIndex) -> true,
+                ImmutableMap.of(),
+                0,
+                dataSource.getSize(),
+                HIVE_STORAGE_TIME_ZONE,
+                newSimpleAggregatedMemoryContext(),
+                INITIAL_BATCH_SIZE,
+                Optional.of(executor));
+    }
+
+    private static FileSinkOperator.RecordWriter createOrcRecordWriter(File outputFile, Format format, CompressionKind compression, ObjectInspector columnObjectInspector)
+            throws IOException
+    {
+        JobConf jobConf = new JobConf();
+        jobConf.set("hive.exec.orc.write.format", format == ORC_12 ? "0.12" : "0.11");
+        jobConf.set("hive.exec.orc.default.compress", compression.name());
+
+        Properties tableProperties = new Properties();
+        tableProperties.setProperty("columns", "test");
+        tableProperties.setProperty("columns.types", columnObjectInspector.getTypeName());
+        tableProperties.setProperty("orc.stripe.size", "1200000");
+
+        return new OrcOutputFormat().getHiveRecordWriter(
+                jobConf,
+                new Path(outputFile.toURI()),
+                Text.class,
+                compression != NONE,
+                tableProperties,
+                () -> {});
+    }
+
+    private static class InMemoryOrcDataSource
+            extends AbstractOrcDataSource
+    {
+        private final byte[] data;
+        private final boolean concurrentReadSupported;
+        private final Set<Thread> readThreads = Sets.newConcurrentHashSet();
+
+        public InMemoryOrcDataSource(byte[] data, boolean concurrentReadSupported)
+        {
+            super(new OrcDataSourceId("memory"), data.length, MAX_MERGE_DISTANCE, MAX_READ_SIZE, MAX_READ_SIZE, false);
+            this.data = data;
+            this.concurrentReadSupported = concurrentReadSupported;
+        }
+
+        public Set<Thread> getReadThreads()
+        {
+            return readThreads;
+        }
+
+        @Override
+        protected boolean isConcurrentReadSupported()
+        {
+            return concurrentReadSupported;
+        }
+
+        @Override
+        protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
+        {
+            readThreads.add(Thread.currentThread());
+            System.arraycopy(data, toIntExact(position), buffer, bufferOffset, bufferLength);
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc;
+
+import com.facebook.presto.spi.Page;
+import com.facebook.presto.spi.block.Block;
+import com.facebook.presto.spi.block.BlockBuilder;
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.facebook.presto.spi.type.Type;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.facebook.presto.orc.OrcEncoding.ORC;
+import static com.facebook.presto.orc.OrcReader.INITIAL_BATCH_SIZE;
+import static com.facebook.presto.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static com.facebook.presto.orc.OrcTester.MAX_BLOCK_SIZE;
+import static com.facebook.presto.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
+import static com.facebook.presto.orc.metadata.CompressionKind.NONE;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+
+public class TestSelectiveOrcReader
+{
+    private static final int ROW_COUNT = 30_000;
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, BIGINT);
+
+    private TempFile tempFile;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tempFile = new TempFile();
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                ImmutableList.of("key", "name", "value"),
+                TYPES,
+                ORC,
+                NONE,
+                new OrcWriterOptions(),
+                ImmutableMap.of(),
+                HIVE_STORAGE_TIME_ZONE,
+                false,
+                BOTH,
+                new OrcWriterStats());
+
+        BlockBuilder keys = BIGINT.createBlockBuilder(null, ROW_COUNT);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, ROW_COUNT);
+        BlockBuilder values = BIGINT.createBlockBuilder(null, ROW_COUNT);
+        for (int row = 0; row < ROW_COUNT; row++) {
+            List<Object> expected = createRow(row);
+            if (expected.get(0) == null) {
+                keys.appendNull();
+            }
+            else {
+                BIGINT.writeLong(keys, (long) expected.get(0));
+            }
+            if (expected.get(1) == null) {
+                names.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(names, utf8Slice((String) expected.get(1)));
+            }
+            BIGINT.writeLong(values, (long) expected.get(2));
+        }
+        writer.write(new Page(keys.build(), names.build(), values.build()));
+        writer.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        tempFile.close();
+    }
+
+    @Test
+    public void testNoFilter()
+            throws Exception
+    {
+        assertRows(ImmutableMap.of(), row -> true);
+    }
+
+    @Test
+    public void testRange()
+            throws Exception
+    {
+        assertRows(
+                ImmutableMap.of(0, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 1000L, true, 1500L, false)), false)),
+                row -> row.get(0) != null && (long) row.get(0) >= 1000 && (long) row.get(0) < 1500);
+    }
+
+    @Test
+    public void testInList()
+            throws Exception
+    {
+        assertRows(
+                ImmutableMap.of(1, Domain.multipleValues(VARCHAR, ImmutableList.of(utf8Slice("name_17"), utf8Slice("name_20001"), utf8Slice("missing")))),
+                row -> "name_17".equals(row.get(1)) || "name_20001".equals(row.get(1)));
+    }
+
+    @Test
+    public void testIsNull()
+            throws Exception
+    {
+        assertRows(ImmutableMap.of(0, Domain.onlyNull(BIGINT)), row -> row.get(0) == null);
+    }
+
+    @Test
+    public void testMultipleFilters()
+            throws Exception
+    {
+        assertRows(
+                ImmutableMap.of(
+                        0, Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 20_000L)), true),
+                        1, Domain.create(ValueSet.ofRanges(Range.lessThan(VARCHAR, utf8Slice("name_25"))), false)),
+                row -> (row.get(0) == null || (long) row.get(0) >= 20_000) && row.get(1) != null && ((String) row.get(1)).compareTo("name_25") < 0);
+    }
+
+    @Test
+    public void testNoMatch()
+            throws Exception
+    {
+        assertRows(ImmutableMap.of(2, Domain.singleValue(BIGINT, -1L)), row -> false);
+    }
+
+    private void assertRows(Map<Integer, Domain> columnDomains, Predicate<List<Object>> filter)
+            throws IOException
+    {
+        List<List<Object>> expected = new ArrayList<>();
+        for (int row = 0; row < ROW_COUNT; row++) {
+            if (filter.test(createRow(row))) {
+                expected.add(createRow(row));
+            }
+        }
+        assertEquals(readRows(columnDomains), expected);
+    }
+
+    private List<List<Object>> readRows(Map<Integer, Domain> columnDomains)
+            throws IOException
+    {
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), true);
+        OrcReader orcReader = new OrcReader(orcDataSource, ORC, new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), MAX_BLOCK_SIZE);
+
+        List<List<Object>> rows = new ArrayList<>();
+        try (OrcRecordReader reader = orcReader.createRecordReader(
+                ImmutableMap.of(0, TYPES.get(0), 1, TYPES.get(1), 2, TYPES.get(2)),
+                OrcPredicate.TRUE,
+                columnDomains,
+                0,
+                orcDataSource.getSize(),
+                HIVE_STORAGE_TIME_ZONE,
+                newSimpleAggregatedMemoryContext(),
+                INITIAL_BATCH_SIZE)) {
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                // read the columns in the opposite order of the filters to exercise the retained filter blocks
+                Block values = reader.readBlock(BIGINT, 2);
+                Block names = reader.readBlock(VARCHAR, 1);
+                Block keys = reader.readBlock(BIGINT, 0);
+                for (int position = 0; position < batchSize; position++) {
+                    rows.add(Arrays.asList(
+                            keys.isNull(position) ? null : BIGINT.getLong(keys, position),
+                            names.isNull(position) ? null : VARCHAR.getSlice(names, position).toStringUtf8(),
+                            BIGINT.getLong(values, position)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object> createRow(int row)
+    {
+        Long key = row % 7 == 0 ? null : (long) row;
+        String name = row % 11 == 0 ? null : "name_" + row;
+        return Arrays.asList(key, name, row * 2L);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.orc.reader;
+
+import com.facebook.presto.spi.predicate.Domain;
+import com.facebook.presto.spi.predicate.Range;
+import com.facebook.presto.spi.predicate.ValueSet;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.orc.reader.ColumnFilter.createColumnFilter;
+import static com.facebook.presto.spi.type.BigintType.BIGINT;
+import static com.facebook.presto.spi.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.spi.type.DoubleType.DOUBLE;
+import static com.facebook.presto.spi.type.RealType.REAL;
+import static com.facebook.presto.spi.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestColumnFilter
+{
+    @Test
+    public void testLongRanges()
+    {
+        ColumnFilter filter = createColumnFilter(BIGINT, Domain.create(ValueSet.ofRanges(
+                Range.lessThan(BIGINT, -10L),
+                Range.range(BIGINT, 0L, false, 10L, true),
+                Range.equal(BIGINT, 20L),
+                Range.greaterThanOrEqual(BIGINT, Long.MAX_VALUE)), false)).get();
+
+        assertTrue(filter.testLong(Long.MIN_VALUE));
+        assertTrue(filter.testLong(-11));
+        assertFalse(filter.testLong(-10));
+        assertFalse(filter.testLong(0));
+        assertTrue(filter.testLong(1));
+        assertTrue(filter.testLong(10));
+        assertFalse(filter.testLong(11));
+        assertFalse(filter.testLong(19));
+        assertTrue(filter.testLong(20));
+        assertFalse(filter.testLong(21));
+        assertTrue(filter.testLong(Long.MAX_VALUE));
+        assertFalse(filter.isNullAllowed());
+    }
+
+    @Test
+    public void testSliceRanges()
+    {
+        ColumnFilter filter = createColumnFilter(VARCHAR, Domain.create(ValueSet.ofRanges(
+                Range.range(VARCHAR, utf8Slice("b"), true, utf8Slice("d"), false),
+                Range.equal(VARCHAR, utf8Slice("x"))), true)).get();
+
+        assertFalse(filter.testSlice(utf8Slice("a")));
+        assertTrue(filter.testSlice(utf8Slice("b")));
+        assertTrue(filter.testSlice(utf8Slice("cz")));
+        assertFalse(filter.testSlice(utf8Slice("d")));
+        assertTrue(filter.testSlice(utf8Slice("x")));
+        assertFalse(filter.testSlice(utf8Slice("xx")));
+        assertTrue(filter.isNullAllowed());
+    }
+
+    @Test
+    public void testNullChecks()
+    {
+        ColumnFilter isNull = createColumnFilter(BIGINT, Domain.onlyNull(BIGINT)).get();
+        assertTrue(isNull.isNullAllowed());
+        assertFalse(isNull.testLong(0));
+
+        ColumnFilter isNotNull = createColumnFilter(VARCHAR, Domain.notNull(VARCHAR)).get();
+        assertFalse(isNotNull.isNullAllowed());
+        assertTrue(isNotNull.testSlice(utf8Slice("")));
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        assertFalse(createColumnFilter(BIGINT, Domain.all(BIGINT)).isPresent());
+        assertFalse(createColumnFilter(DOUBLE, Domain.singleValue(DOUBLE, 1.0)).isPresent());
+        assertFalse(createColumnFilter(REAL, Domain.singleValue(REAL, 1L)).isPresent());
+        assertFalse(createColumnFilter(BOOLEAN, Domain.multipleValues(BOOLEAN, ImmutableList.of(true))).isPresent());
+    }
+}
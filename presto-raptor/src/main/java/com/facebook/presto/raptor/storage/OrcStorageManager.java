@@ -16,6 +16,7 @@ package com.facebook.presto.raptor.storage;
 import com.facebook.presto.memory.context.AggregatedMemoryContext;
 import com.facebook.presto.orc.FileOrcDataSource;
 import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.orc.OrcPredicate;
 import com.facebook.presto.orc.OrcReader;
 import com.facebook.presto.orc.OrcRecordReader;
@@ -146,6 +147,7 @@ public class OrcStorageManager
     private final DataSize maxShardSize;
     private final DataSize minAvailableSpace;
     private final TypeManager typeManager;
+    private final OrcFileTailCache fileTailCache;
     private final ExecutorService deletionExecutor;
     private final ExecutorService commitExecutor;
 
@@ -160,7 +162,8 @@ public class OrcStorageManager
             BackupManager backgroundBackupManager,
             ShardRecoveryManager recoveryManager,
             ShardRecorder shardRecorder,
-            TypeManager typeManager)
+            TypeManager typeManager,
+            OrcFileTailCache fileTailCache)
     {
         this(nodeManager.getCurrentNode().getNodeIdentifier(),
                 storageService,
@@ -170,6 +173,7 @@ public class OrcStorageManager
                 recoveryManager,
                 shardRecorder,
                 typeManager,
+                fileTailCache,
                 connectorId.toString(),
                 config.getDeletionThreads(),
                 config.getShardRecoveryTimeout(),
@@ -187,6 +191,7 @@ public class OrcStorageManager
             ShardRecoveryManager recoveryManager,
             ShardRecorder shardRecorder,
             TypeManager typeManager,
+            OrcFileTailCache fileTailCache,
             String connectorId,
             int deletionThreads,
             Duration shardRecoveryTimeout,
@@ -209,6 +214,7 @@ public class OrcStorageManager
         this.minAvailableSpace = requireNonNull(minAvailableSpace, "minAvailableSpace is null");
         this.shardRecorder = requireNonNull(shardRecorder, "shardRecorder is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        this.fileTailCache = requireNonNull(fileTailCache, "fileTailCache is null");
         this.deletionExecutor = newFixedThreadPool(deletionThreads, daemonThreadsNamed("raptor-delete-" + connectorId + "-%s"));
         this.commitExecutor = newCachedThreadPool(daemonThreadsNamed("raptor-commit-" + connectorId + "-%s"));
     }
@@ -231,11 +237,19 @@ public class OrcStorageManager
             OptionalLong transactionId)
     {
         OrcDataSource dataSource = openShard(shardUuid, readerAttributes);
+        long fileModifiedTime = storageService.getStorageFile(shardUuid).lastModified();
 
         AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
 
         try {
-            OrcReader reader = new OrcReader(dataSource, ORC, readerAttributes.getMaxMergeDistance(), readerAttributes.getMaxReadSize(), readerAttributes.getTinyStripeThreshold(), HUGE_MAX_READ_BLOCK_SIZE);
+            OrcReader reader = new OrcReader(
+                    dataSource,
+                    ORC,
+                    readerAttributes.getMaxMergeDistance(),
+                    readerAttributes.getMaxReadSize(),
+                    readerAttributes.getTinyStripeThreshold(),
+                    HUGE_MAX_READ_BLOCK_SIZE,
+                    fileTailCache.getFileTailSource(fileModifiedTime));
 
             Map<Long, Integer> indexMap = columnIdIndex(reader.getColumnNames());
             ImmutableMap.Builder<Integer, Type> includedColumns = ImmutableMap.builder();
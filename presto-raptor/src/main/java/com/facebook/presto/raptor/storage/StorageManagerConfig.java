@@ -53,6 +53,7 @@ public class StorageManagerConfig
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcTinyStripeThreshold = new DataSize(8, MEGABYTE);
     private boolean orcLazyReadSmallRanges = true;
+    private DataSize orcFileTailCacheSize = new DataSize(0, BYTE);
     private int deletionThreads = max(1, getRuntime().availableProcessors() / 2);
     private int recoveryThreads = 10;
     private int organizationThreads = 5;
@@ -160,6 +161,20 @@ public class StorageManagerConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getOrcFileTailCacheSize()
+    {
+        return orcFileTailCacheSize;
+    }
+
+    @Config("storage.orc.file-tail-cache-size")
+    @ConfigDescription("Maximum memory used by the decoded shard file footers cached on each worker, zero to disable the cache")
+    public StorageManagerConfig setOrcFileTailCacheSize(DataSize orcFileTailCacheSize)
+    {
+        this.orcFileTailCacheSize = orcFileTailCacheSize;
+        return this;
+    }
+
     @Min(1)
     public int getDeletionThreads()
     {
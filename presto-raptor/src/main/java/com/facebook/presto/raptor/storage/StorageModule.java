@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.raptor.storage;
 
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.raptor.backup.BackupManager;
 import com.facebook.presto.raptor.metadata.AssignmentLimiter;
 import com.facebook.presto.raptor.metadata.DatabaseShardManager;
@@ -32,8 +33,11 @@ import com.facebook.presto.raptor.storage.organization.TemporalFunction;
 import com.google.common.base.Ticker;
 import com.google.inject.Binder;
 import com.google.inject.Module;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
 
+import javax.inject.Singleton;
+
 import static io.airlift.configuration.ConfigBinder.configBinder;
 import static java.util.Objects.requireNonNull;
 import static org.weakref.jmx.ObjectNames.generatedNameOf;
@@ -89,5 +93,13 @@ public class StorageModule
         newExporter(binder).export(ShardCleaner.class).as(generatedNameOf(ShardCleaner.class, connectorId));
         newExporter(binder).export(BucketBalancer.class).as(generatedNameOf(BucketBalancer.class, connectorId));
         newExporter(binder).export(JobFactory.class).withGeneratedName();
+        newExporter(binder).export(OrcFileTailCache.class).as(generatedNameOf(OrcFileTailCache.class, connectorId));
+    }
+
+    @Provides
+    @Singleton
+    public OrcFileTailCache createOrcFileTailCache(StorageManagerConfig config)
+    {
+        return new OrcFileTailCache(config.getOrcFileTailCacheSize());
     }
 }
@@ -14,6 +14,7 @@
 package com.facebook.presto.raptor.storage;
 
 import com.facebook.presto.orc.OrcDataSource;
+import com.facebook.presto.orc.OrcFileTailCache;
 import com.facebook.presto.orc.OrcRecordReader;
 import com.facebook.presto.raptor.RaptorColumnHandle;
 import com.facebook.presto.raptor.backup.BackupManager;
@@ -610,6 +611,7 @@ public class TestOrcStorageManager
                 recoveryManager,
                 shardRecorder,
                 new TypeRegistry(),
+                new OrcFileTailCache(new DataSize(0, BYTE)),
                 CONNECTOR_ID,
                 DELETION_THREADS,
                 SHARD_RECOVERY_TIMEOUT,
@@ -52,6 +52,7 @@ public class TestStorageManagerConfig
                 .setOrcStreamBufferSize(new DataSize(8, MEGABYTE))
                 .setOrcTinyStripeThreshold(new DataSize(8, MEGABYTE))
                 .setOrcLazyReadSmallRanges(true)
+                .setOrcFileTailCacheSize(new DataSize(0, BYTE))
                 .setDeletionThreads(max(1, getRuntime().availableProcessors() / 2))
                 .setShardRecoveryTimeout(new Duration(30, SECONDS))
                 .setMissingShardDiscoveryInterval(new Duration(5, MINUTES))
@@ -80,6 +81,7 @@ public class TestStorageManagerConfig
                 .put("storage.orc.stream-buffer-size", "16kB")
                 .put("storage.orc.tiny-stripe-threshold", "15kB")
                 .put("storage.orc.lazy-read-small-ranges", "false")
+                .put("storage.orc.file-tail-cache-size", "32MB")
                 .put("storage.max-deletion-threads", "999")
                 .put("storage.shard-recovery-timeout", "1m")
                 .put("storage.missing-shard-discovery-interval", "4m")
@@ -105,6 +107,7 @@ public class TestStorageManagerConfig
                 .setOrcStreamBufferSize(new DataSize(16, KILOBYTE))
                 .setOrcTinyStripeThreshold(new DataSize(15, KILOBYTE))
                 .setOrcLazyReadSmallRanges(false)
+                .setOrcFileTailCacheSize(new DataSize(32, MEGABYTE))
                 .setDeletionThreads(999)
                 .setShardRecoveryTimeout(new Duration(1, MINUTES))
                 .setMissingShardDiscoveryInterval(new Duration(4, MINUTES))
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import com.facebook.presto.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregate function call, such as {@code count(*)} or {@code sum(column)},
+ * offered to a connector by {@link com.facebook.presto.spi.connector.ConnectorMetadata#applyAggregation}.
+ */
+public class AggregateFunction
+{
+    private final String functionName;
+    private final Type outputType;
+    private final List<ColumnHandle> arguments;
+    private final boolean distinct;
+
+    public AggregateFunction(String functionName, Type outputType, List<ColumnHandle> arguments, boolean distinct)
+    {
+        this.functionName = requireNonNull(functionName, "functionName is null");
+        this.outputType = requireNonNull(outputType, "outputType is null");
+        this.arguments = unmodifiableList(new ArrayList<>(requireNonNull(arguments, "arguments is null")));
+        this.distinct = distinct;
+    }
+
+    public String getFunctionName()
+    {
+        return functionName;
+    }
+
+    public Type getOutputType()
+    {
+        return outputType;
+    }
+
+    public List<ColumnHandle> getArguments()
+    {
+        return arguments;
+    }
+
+    public boolean isDistinct()
+    {
+        return distinct;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AggregateFunction that = (AggregateFunction) o;
+        return distinct == that.distinct &&
+                Objects.equals(functionName, that.functionName) &&
+                Objects.equals(outputType, that.outputType) &&
+                Objects.equals(arguments, that.arguments);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(functionName, outputType, arguments, distinct);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder(functionName).append('(');
+        if (distinct) {
+            builder.append("DISTINCT ");
+        }
+        builder.append(arguments.isEmpty() ? "*" : arguments.toString()).append(')');
+        return builder.toString();
+    }
+}
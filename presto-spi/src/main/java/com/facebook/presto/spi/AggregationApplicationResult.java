@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+public class AggregationApplicationResult<T>
+{
+    private final T handle;
+    private final List<ColumnHandle> aggregateColumns;
+
+    /**
+     * @param handle table handle whose rows are the result of the aggregation
+     * @param aggregateColumns columns holding the values of the aggregate functions, in the order the functions were offered
+     */
+    public AggregationApplicationResult(T handle, List<ColumnHandle> aggregateColumns)
+    {
+        this.handle = requireNonNull(handle, "handle is null");
+        this.aggregateColumns = unmodifiableList(new ArrayList<>(requireNonNull(aggregateColumns, "aggregateColumns is null")));
+    }
+
+    public T getHandle()
+    {
+        return handle;
+    }
+
+    public List<ColumnHandle> getAggregateColumns()
+    {
+        return aggregateColumns;
+    }
+
+    public <U> AggregationApplicationResult<U> transform(Function<T, U> transformHandle)
+    {
+        return new AggregationApplicationResult<>(transformHandle.apply(handle), aggregateColumns);
+    }
+}
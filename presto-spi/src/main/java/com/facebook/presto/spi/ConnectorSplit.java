@@ -14,6 +14,7 @@
 package com.facebook.presto.spi;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -22,4 +23,14 @@ public interface ConnectorSplit
     List<HostAddress> getAddresses();
 
     Object getInfo();
+
+    /**
+     * Returns a key identifying the data read by this split, such as the file path and offset.
+     * Remotely accessible splits with the same key are preferably scheduled on the
+     * same node, so that caches local to the node can be reused across queries.
+     */
+    default Optional<String> getAffinityKey()
+    {
+        return Optional.empty();
+    }
 }
@@ -61,6 +61,7 @@ public enum StandardErrorCode
     ADMINISTRATIVELY_KILLED(0x0000_0026, USER_ERROR),
     INVALID_COLUMN_PROPERTY(0x0000_0027, USER_ERROR),
     QUERY_HAS_TOO_MANY_STAGES(0x0000_0028, USER_ERROR),
+    INVALID_SPATIAL_PARTITIONING(0x0000_0029, USER_ERROR),
 
     GENERIC_INTERNAL_ERROR(0x0001_0000, INTERNAL_ERROR),
     TOO_MANY_REQUESTS_FAILED(0x0001_0001, INTERNAL_ERROR),
@@ -96,6 +97,7 @@ public enum StandardErrorCode
     EXCEEDED_CPU_LIMIT(0x0002_0005, INSUFFICIENT_RESOURCES),
     EXCEEDED_SPILL_LIMIT(0x0002_0006, INSUFFICIENT_RESOURCES),
     EXCEEDED_LOCAL_MEMORY_LIMIT(0x0002_0007, INSUFFICIENT_RESOURCES),
+    EXCEEDED_BROADCAST_MEMORY_LIMIT(0x0002_0008, INSUFFICIENT_RESOURCES),
     /**/;
 
     // Connectors can use error codes starting at the range 0x0100_0000
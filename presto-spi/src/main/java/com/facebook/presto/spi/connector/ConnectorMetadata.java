@@ -13,6 +13,8 @@
  */
 package com.facebook.presto.spi.connector;
 
+import com.facebook.presto.spi.AggregateFunction;
+import com.facebook.presto.spi.AggregationApplicationResult;
 import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.ConnectorInsertTableHandle;
@@ -27,9 +29,11 @@ import com.facebook.presto.spi.ConnectorTableLayoutResult;
 import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.LimitApplicationResult;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
+import com.facebook.presto.spi.SortingProperty;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.predicate.TupleDomain;
 import com.facebook.presto.spi.security.GrantInfo;
@@ -153,6 +157,20 @@ public interface ConnectorMetadata
      */
     Map<SchemaTableName, List<ColumnMetadata>> listTableColumns(ConnectorSession session, SchemaTablePrefix prefix);
 
+    /**
+     * Get an opaque version of the contents of the table. The version must change whenever
+     * the data of the table changes, and is used by the engine to decide if results computed
+     * from the table can be reused. Plans reused across queries keep the table and layout
+     * handles of the query that created them, so connectors reporting a version must use
+     * handles that remain valid in other transactions.
+     *
+     * @return empty if the connector cannot track the version of the table
+     */
+    default OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return OptionalLong.empty();
+    }
+
     /**
      * Get statistics for table for given filtering constraint.
      */
@@ -421,6 +439,49 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Attempt to compute the aggregation of the rows of the table layout in the connector.
+     * The returned table handle produces one row per group, with the grouping columns and the
+     * aggregate columns of the result, and must retain the predicate enforced by the layout,
+     * as the engine obtains its layout with {@link Constraint#alwaysTrue()}.
+     *
+     * @return empty if the aggregation cannot be computed by the connector
+     */
+    default Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableLayoutHandle layoutHandle,
+            List<AggregateFunction> aggregates,
+            List<ColumnHandle> groupingColumns)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to limit the number of rows produced by the table layout. The returned table handle
+     * must retain the predicate enforced by the layout, as for {@link #applyAggregation}.
+     *
+     * @return empty if the limit cannot be applied by the connector, or it is already applied
+     */
+    default Optional<LimitApplicationResult<ConnectorTableHandle>> applyLimit(ConnectorSession session, ConnectorTableLayoutHandle layoutHandle, long limit)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to produce only the first {@code topNCount} rows of the table layout in the given order.
+     * The returned table handle must retain the predicate enforced by the layout, as for {@link #applyAggregation}.
+     *
+     * @return empty if the top N cannot be applied by the connector, or it is already applied
+     */
+    default Optional<LimitApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableLayoutHandle layoutHandle,
+            long topNCount,
+            List<SortingProperty<ColumnHandle>> sortItems)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Grants the specified privilege to the specified user on the specified table
      */
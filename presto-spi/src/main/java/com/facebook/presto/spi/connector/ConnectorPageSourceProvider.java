@@ -17,6 +17,7 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.predicate.TupleDomain;
 
 import java.util.List;
 
@@ -26,4 +27,18 @@ public interface ConnectorPageSourceProvider
      * @param columns columns that should show up in the output page, in this order
      */
     ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns);
+
+    /**
+     * Creates a page source that may additionally use the provided dynamic filter to skip
+     * data (e.g. row groups, stripes or the whole split). The dynamic filter is a summary of
+     * join keys collected at runtime, so it is only a hint: the returned page source may
+     * still produce rows that do not match it.
+     *
+     * @param columns columns that should show up in the output page, in this order
+     * @param dynamicFilter constraint on the columns collected at runtime, {@link TupleDomain#all()} if none
+     */
+    default ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorSplit split, List<ColumnHandle> columns, TupleDomain<ColumnHandle> dynamicFilter)
+    {
+        return createPageSource(transactionHandle, session, split, columns);
+    }
 }
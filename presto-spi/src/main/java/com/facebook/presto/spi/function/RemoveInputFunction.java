@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.spi.function;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A function annotated with &#64;RemoveInputFunction reverts the effect of
+ * the &#64;InputFunction with the same parameters on the state. It allows
+ * window frames that slide forward to be maintained incrementally, instead
+ * of aggregating the whole frame again for every row.
+ * <p>
+ * The function is only ever called with values that have previously been
+ * added to the state, and the resulting state must be indistinguishable
+ * from a state to which the removed value has never been added.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface RemoveInputFunction
+{
+}
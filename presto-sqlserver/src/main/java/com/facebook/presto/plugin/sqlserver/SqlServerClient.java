@@ -37,6 +37,13 @@ public class SqlServerClient
         super(connectorId, config, "\"", new DriverConnectionFactory(new SQLServerDriver(), config));
     }
 
+    @Override
+    public boolean supportsLimit()
+    {
+        // SQL Server uses TOP rather than LIMIT
+        return false;
+    }
+
     @Override
     public void commitCreateTable(JdbcOutputTableHandle handle)
     {
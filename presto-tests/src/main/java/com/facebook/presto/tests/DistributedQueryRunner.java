@@ -27,6 +27,8 @@ import com.facebook.presto.server.testing.TestingPrestoServer;
 import com.facebook.presto.spi.Node;
 import com.facebook.presto.spi.Plugin;
 import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.split.PageSourceManager;
+import com.facebook.presto.split.SplitManager;
 import com.facebook.presto.sql.parser.SqlParserOptions;
 import com.facebook.presto.sql.planner.NodePartitioningManager;
 import com.facebook.presto.sql.planner.Plan;
@@ -243,6 +245,18 @@ public class DistributedQueryRunner
         return coordinator.getNodePartitioningManager();
     }
 
+    @Override
+    public SplitManager getSplitManager()
+    {
+        return coordinator.getSplitManager();
+    }
+
+    @Override
+    public PageSourceManager getPageSourceManager()
+    {
+        return coordinator.getPageSourceManager();
+    }
+
     @Override
     public StatsCalculator getStatsCalculator()
     {
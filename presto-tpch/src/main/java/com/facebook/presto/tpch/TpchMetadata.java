@@ -62,6 +62,7 @@ import io.airlift.tpch.TpchTable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -301,6 +302,13 @@ public class TpchMetadata
         return tableColumns.build();
     }
 
+    @Override
+    public OptionalLong getTableVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        // the generated data is fully determined by the table handle, which includes the scale factor
+        return OptionalLong.of(0);
+    }
+
     @Override
     public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint<ColumnHandle> constraint)
     {